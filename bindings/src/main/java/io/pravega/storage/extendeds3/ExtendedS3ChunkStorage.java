@@ -16,16 +16,22 @@ import com.emc.object.s3.S3ObjectMetadata;
 import com.emc.object.s3.bean.AccessControlList;
 import com.emc.object.s3.bean.CanonicalUser;
 import com.emc.object.s3.bean.CopyPartResult;
+import com.emc.object.s3.bean.DeleteError;
+import com.emc.object.s3.bean.DeleteObjectsResult;
 import com.emc.object.s3.bean.Grant;
 import com.emc.object.s3.bean.MultipartPartETag;
+import com.emc.object.s3.bean.ObjectKey;
 import com.emc.object.s3.bean.Permission;
 import com.emc.object.s3.request.AbortMultipartUploadRequest;
 import com.emc.object.s3.request.CompleteMultipartUploadRequest;
 import com.emc.object.s3.request.CopyPartRequest;
+import com.emc.object.s3.request.DeleteObjectsRequest;
 import com.emc.object.s3.request.PutObjectRequest;
 import com.emc.object.s3.request.SetObjectAclRequest;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
+import io.pravega.common.concurrent.ExecutorServiceHelpers;
+import io.pravega.common.concurrent.Futures;
 import io.pravega.common.io.StreamHelpers;
 import io.pravega.segmentstore.storage.chunklayer.BaseChunkStorage;
 import io.pravega.segmentstore.storage.chunklayer.ChunkAlreadyExistsException;
@@ -41,8 +47,14 @@ import org.apache.http.HttpStatus;
 
 import java.io.InputStream;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Collectors;
 
 /**
  * {@link ChunkStorage} for extended S3 based storage.
@@ -50,23 +62,81 @@ import java.util.TreeSet;
  * Each chunk is represented as a single Object on the underlying storage.
  *
  * This implementation works under the assumption that data is only appended and never modified.
- * The concat operation is implemented as multi part copy.
+ * The concat operation is implemented as multi part copy, with all the parts being copied in parallel. Reads larger than
+ * {@link ExtendedS3StorageConfig#getReadPartSize()} are split into multiple ranged reads which are issued in parallel.
+ * The number of parallel requests is bounded by the size of the executor they are issued on (see
+ * {@link ExtendedS3StorageConfig#getMaxParallelRequests()}).
  */
 
 @Slf4j
 public class ExtendedS3ChunkStorage extends BaseChunkStorage {
 
     //region members
+    /**
+     * The maximum number of keys S3 accepts in a single multi-object delete request.
+     */
+    private static final int MAX_KEYS_PER_DELETE = 1000;
     private final ExtendedS3StorageConfig config;
     private final S3Client client;
+    private final ExecutorService parallelExecutor;
+    private final boolean ownsParallelExecutor;
 
     //endregion
 
     //region constructor
+
+    /**
+     * Creates a new instance of the ExtendedS3ChunkStorage class, with its own executor for parallel requests.
+     *
+     * @param client The {@link S3Client} to use.
+     * @param config The configuration to use.
+     */
     public ExtendedS3ChunkStorage(S3Client client, ExtendedS3StorageConfig config) {
+        this(client, config, createParallelExecutor(config), true);
+    }
+
+    /**
+     * Creates a new instance of the ExtendedS3ChunkStorage class.
+     *
+     * @param client           The {@link S3Client} to use.
+     * @param config           The configuration to use.
+     * @param parallelExecutor The executor to issue parallel requests on. This may be shared across multiple instances,
+     *                         in which case its size bounds the number of parallel requests across all of them. This
+     *                         executor will not be shut down when this instance is closed.
+     */
+    public ExtendedS3ChunkStorage(S3Client client, ExtendedS3StorageConfig config, ExecutorService parallelExecutor) {
+        this(client, config, parallelExecutor, false);
+    }
+
+    private ExtendedS3ChunkStorage(S3Client client, ExtendedS3StorageConfig config, ExecutorService parallelExecutor, boolean ownsParallelExecutor) {
         this.config = Preconditions.checkNotNull(config, "config");
         this.client = Preconditions.checkNotNull(client, "client");
+        this.parallelExecutor = Preconditions.checkNotNull(parallelExecutor, "parallelExecutor");
+        this.ownsParallelExecutor = ownsParallelExecutor;
+    }
+
+    /**
+     * Creates an executor that can be used to issue parallel requests for {@link ExtendedS3ChunkStorage} instances.
+     *
+     * @param config The configuration to use.
+     * @return A new executor with {@link ExtendedS3StorageConfig#getMaxParallelRequests()} threads.
+     */
+    static ExecutorService createParallelExecutor(ExtendedS3StorageConfig config) {
+        return ExecutorServiceHelpers.newScheduledThreadPool(config.getMaxParallelRequests(), "storage-extendeds3");
     }
+
+    //endregion
+
+    //region AutoCloseable Implementation
+
+    @Override
+    public void close() {
+        super.close();
+        if (this.ownsParallelExecutor) {
+            ExecutorServiceHelpers.shutdown(this.parallelExecutor);
+        }
+    }
+
     //endregion
 
     //region capabilities
@@ -113,21 +183,54 @@ public class ExtendedS3ChunkStorage extends BaseChunkStorage {
     @Override
     protected int doRead(ChunkHandle handle, long fromOffset, int length, byte[] buffer, int bufferOffset) throws ChunkStorageException {
         try {
-            try (InputStream reader = client.readObjectStream(config.getBucket(),
-                    getObjectPath(handle.getChunkName()), Range.fromOffsetLength(fromOffset, length))) {
-                if (reader == null) {
-                    throw new ChunkNotFoundException(handle.getChunkName(), "doRead");
-                }
+            int partSize = config.getReadPartSize();
+            if (length <= partSize) {
+                return readRange(handle, fromOffset, length, buffer, bufferOffset);
+            }
 
-                int bytesRead = StreamHelpers.readAll(reader, buffer, bufferOffset, length);
+            // Split the read into multiple ranged reads and issue them in parallel. Each of them reads directly into its
+            // own section of the buffer, so there is no need for any reassembly once they are done.
+            List<CompletableFuture<Integer>> parts = new ArrayList<>();
+            for (int partOffset = 0; partOffset < length; partOffset += partSize) {
+                final int offset = partOffset;
+                final int partLength = Math.min(partSize, length - partOffset);
+                parts.add(CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return readRange(handle, fromOffset + offset, partLength, buffer, bufferOffset + offset);
+                    } catch (Exception e) {
+                        throw new CompletionException(e);
+                    }
+                }, this.parallelExecutor));
+            }
 
-                return bytesRead;
+            List<Integer> partBytesRead = Futures.getThrowingException(Futures.allOfWithResults(parts));
+
+            // Only count the bytes up to the first part that could not be fully read (i.e., we reached the end of the chunk).
+            int bytesRead = 0;
+            for (int i = 0; i < partBytesRead.size(); i++) {
+                bytesRead += partBytesRead.get(i);
+                if (partBytesRead.get(i) < Math.min(partSize, length - i * partSize)) {
+                    break;
+                }
             }
+
+            return bytesRead;
         } catch (Exception e) {
             throw convertException(handle.getChunkName(), "doRead", e);
         }
     }
 
+    private int readRange(ChunkHandle handle, long fromOffset, int length, byte[] buffer, int bufferOffset) throws Exception {
+        try (InputStream reader = client.readObjectStream(config.getBucket(),
+                getObjectPath(handle.getChunkName()), Range.fromOffsetLength(fromOffset, length))) {
+            if (reader == null) {
+                throw new ChunkNotFoundException(handle.getChunkName(), "doRead");
+            }
+
+            return StreamHelpers.readAll(reader, buffer, bufferOffset, length);
+        }
+    }
+
     @Override
     protected int doWrite(ChunkHandle handle, long offset, int length, InputStream data) throws ChunkStorageException {
         try {
@@ -153,7 +256,6 @@ public class ExtendedS3ChunkStorage extends BaseChunkStorage {
         try {
             int partNumber = 1;
 
-            SortedSet<MultipartPartETag> partEtags = new TreeSet<>();
             uploadId = client.initiateMultipartUpload(config.getBucket(), targetPath);
 
             // check whether the target exists
@@ -161,27 +263,25 @@ public class ExtendedS3ChunkStorage extends BaseChunkStorage {
                 throw new ChunkNotFoundException(chunks[0].getName(), "doConcat - Target segment does not exist");
             }
 
-            //Copy the parts
+            //Copy the parts in parallel. The part numbers determine the order in which they are assembled.
+            List<CompletableFuture<MultipartPartETag>> copyFutures = new ArrayList<>();
             for (int i = 0; i < chunks.length; i++) {
                 if (0 != chunks[i].getLength()) {
-                    val sourceHandle = chunks[i];
-                    S3ObjectMetadata metadataResult = client.getObjectMetadata(config.getBucket(),
-                            getObjectPath(sourceHandle.getName()));
-                    long objectSize = metadataResult.getContentLength(); // in bytes
-                    Preconditions.checkState(objectSize >= chunks[i].getLength());
-                    CopyPartRequest copyRequest = new CopyPartRequest(config.getBucket(),
-                            getObjectPath(sourceHandle.getName()),
+                    val source = chunks[i];
+                    val copyRequest = new CopyPartRequest(config.getBucket(),
+                            getObjectPath(source.getName()),
                             config.getBucket(),
                             targetPath,
                             uploadId,
-                            partNumber++).withSourceRange(Range.fromOffsetLength(0, chunks[i].getLength()));
-
-                    CopyPartResult copyResult = client.copyPart(copyRequest);
-                    partEtags.add(new MultipartPartETag(copyResult.getPartNumber(), copyResult.getETag()));
-                    totalBytesConcatenated += chunks[i].getLength();
+                            partNumber++).withSourceRange(Range.fromOffsetLength(0, source.getLength()));
+                    copyFutures.add(CompletableFuture.supplyAsync(() -> copyPart(source, copyRequest), this.parallelExecutor));
+                    totalBytesConcatenated += source.getLength();
                 }
             }
 
+            // Wait for all copies to complete (even if some failed), so that none are still running if we abort the upload.
+            SortedSet<MultipartPartETag> partEtags = new TreeSet<>(Futures.getThrowingException(Futures.allOfWithResults(copyFutures)));
+
             //Close the upload
             client.completeMultipartUpload(new CompleteMultipartUploadRequest(config.getBucket(),
                     targetPath, uploadId).withParts(partEtags));
@@ -200,6 +300,14 @@ public class ExtendedS3ChunkStorage extends BaseChunkStorage {
         return totalBytesConcatenated;
     }
 
+    private MultipartPartETag copyPart(ConcatArgument source, CopyPartRequest copyRequest) {
+        S3ObjectMetadata metadataResult = client.getObjectMetadata(config.getBucket(), getObjectPath(source.getName()));
+        long objectSize = metadataResult.getContentLength(); // in bytes
+        Preconditions.checkState(objectSize >= source.getLength());
+        CopyPartResult copyResult = client.copyPart(copyRequest);
+        return new MultipartPartETag(copyResult.getPartNumber(), copyResult.getETag());
+    }
+
     @Override
     protected void doSetReadOnly(ChunkHandle handle, boolean isReadOnly) throws ChunkStorageException {
         try {
@@ -289,6 +397,48 @@ public class ExtendedS3ChunkStorage extends BaseChunkStorage {
         }
     }
 
+    @Override
+    protected void doBatchDelete(List<String> chunkNames) throws ChunkStorageException {
+        // Use multi-object deletes, each of which may include at most MAX_KEYS_PER_DELETE keys.
+        for (int i = 0; i < chunkNames.size(); i += MAX_KEYS_PER_DELETE) {
+            val batch = chunkNames.subList(i, Math.min(chunkNames.size(), i + MAX_KEYS_PER_DELETE));
+            val keys = batch.stream().map(name -> new ObjectKey(getObjectPath(name))).collect(Collectors.toList());
+            DeleteObjectsResult result;
+            try {
+                result = client.deleteObjects(new DeleteObjectsRequest(config.getBucket()).withKeys(keys));
+            } catch (S3Exception e) {
+                if (!"NoSuchKey".equals(e.getErrorCode())) {
+                    throw convertException(batch.get(0), "doBatchDelete", e);
+                }
+
+                // Some S3 implementations reject the whole request if any of the objects do not exist. Delete them
+                // one by one instead, ignoring the missing ones.
+                super.doBatchDelete(batch);
+                continue;
+            } catch (Exception e) {
+                throw convertException(batch.get(0), "doBatchDelete", e);
+            }
+
+            checkBatchDeleteResult(result);
+        }
+    }
+
+    private void checkBatchDeleteResult(DeleteObjectsResult result) throws ChunkStorageException {
+        if (result == null || result.getResults() == null) {
+            return;
+        }
+
+        for (val r : result.getResults()) {
+            if (r instanceof DeleteError) {
+                val error = (DeleteError) r;
+                if (!"NoSuchKey".equals(error.getCode())) {
+                    throw new ChunkStorageException(error.getKey(),
+                            String.format("doBatchDelete - unable to delete object %s. Code: %s. Message: %s.", error.getKey(), error.getCode(), error.getMessage()));
+                }
+            }
+        }
+    }
+
     private ChunkStorageException convertException(String chunkName, String message, Exception e)  {
         ChunkStorageException retValue = null;
         if (e instanceof ChunkStorageException) {
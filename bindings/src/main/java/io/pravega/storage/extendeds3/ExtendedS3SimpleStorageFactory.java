@@ -12,38 +12,84 @@ package io.pravega.storage.extendeds3;
 import com.emc.object.s3.S3Client;
 import com.emc.object.s3.S3Config;
 import com.emc.object.s3.jersey.S3JerseyClient;
+import io.pravega.common.Exceptions;
+import io.pravega.common.concurrent.ExecutorServiceHelpers;
 import io.pravega.segmentstore.storage.Storage;
 import io.pravega.segmentstore.storage.StorageFactory;
+import io.pravega.segmentstore.storage.chunklayer.CachingChunkStorage;
 import io.pravega.segmentstore.storage.chunklayer.ChunkedSegmentStorage;
 import io.pravega.segmentstore.storage.chunklayer.ChunkedSegmentStorageConfig;
 import lombok.NonNull;
-import lombok.RequiredArgsConstructor;
 
+import javax.annotation.concurrent.GuardedBy;
 import java.util.concurrent.ExecutorService;
 
 /**
  * Factory for ExtendedS3 {@link Storage} implemented using {@link ChunkedSegmentStorage} and {@link ExtendedS3ChunkStorage}.
+ *
+ * All {@link ExtendedS3ChunkStorage} instances created by this factory share the same executor for parallel requests,
+ * so that {@link ExtendedS3StorageConfig#getMaxParallelRequests()} applies across all of them. That executor is only
+ * created when the first {@link Storage} is and is shut down when this factory is closed.
  */
-@RequiredArgsConstructor
-public class ExtendedS3SimpleStorageFactory implements StorageFactory {
-    @NonNull
+public class ExtendedS3SimpleStorageFactory implements StorageFactory, AutoCloseable {
     private final ChunkedSegmentStorageConfig chunkedSegmentStorageConfig;
 
-    @NonNull
     private final ExtendedS3StorageConfig config;
 
-    @NonNull
     private final ExecutorService executor;
 
+    @GuardedBy("this")
+    private ExecutorService parallelExecutor;
+
+    @GuardedBy("this")
+    private boolean closed;
+
+    /**
+     * Creates a new instance of the ExtendedS3SimpleStorageFactory class.
+     *
+     * @param chunkedSegmentStorageConfig The configuration for the {@link ChunkedSegmentStorage}.
+     * @param config                      The configuration for the {@link ExtendedS3ChunkStorage}.
+     * @param executor                    The executor to use.
+     */
+    public ExtendedS3SimpleStorageFactory(@NonNull ChunkedSegmentStorageConfig chunkedSegmentStorageConfig,
+                                          @NonNull ExtendedS3StorageConfig config, @NonNull ExecutorService executor) {
+        this.chunkedSegmentStorageConfig = chunkedSegmentStorageConfig;
+        this.config = config;
+        this.executor = executor;
+    }
+
     @Override
     public Storage createStorageAdapter() {
         ChunkedSegmentStorage storageProvider = new ChunkedSegmentStorage(
-                new ExtendedS3ChunkStorage(createS3Client(), this.config),
+                CachingChunkStorage.wrapIfEnabled(new ExtendedS3ChunkStorage(createS3Client(), this.config, getParallelExecutor()),
+                        this.chunkedSegmentStorageConfig, this.executor),
                 this.executor,
                 this.chunkedSegmentStorageConfig);
         return storageProvider;
     }
 
+    @Override
+    public void close() {
+        ExecutorService toShutdown;
+        synchronized (this) {
+            this.closed = true;
+            toShutdown = this.parallelExecutor;
+            this.parallelExecutor = null;
+        }
+
+        if (toShutdown != null) {
+            ExecutorServiceHelpers.shutdown(toShutdown);
+        }
+    }
+
+    private synchronized ExecutorService getParallelExecutor() {
+        Exceptions.checkNotClosed(this.closed, this);
+        if (this.parallelExecutor == null) {
+            this.parallelExecutor = ExtendedS3ChunkStorage.createParallelExecutor(this.config);
+        }
+        return this.parallelExecutor;
+    }
+
     private S3Client createS3Client() {
         S3Config s3Config = new S3Config(config.getS3Config());
         S3JerseyClient client = new S3JerseyClient(s3Config);
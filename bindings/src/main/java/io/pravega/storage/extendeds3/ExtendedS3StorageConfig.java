@@ -31,6 +31,8 @@ public class ExtendedS3StorageConfig {
     public static final Property<String> PREFIX = Property.named("prefix", "/");
     public static final Property<Boolean> USENONEMATCH = Property.named("noneMatch.enable", false, "useNoneMatch");
     public static final Property<Integer> SMALL_OBJECT_THRESHOLD = Property.named("concat.smallObject.threshold.size", 1024 * 1024, "smallObjectSizeLimitForConcat");
+    public static final Property<Integer> PARALLEL_REQUESTS_MAX = Property.named("requests.parallel.max", 16);
+    public static final Property<Integer> READ_PART_SIZE = Property.named("read.part.size.bytes", 4 * 1024 * 1024);
 
     private static final String COMPONENT_CODE = "extendeds3";
     private static final String PATH_SEPARATOR = "/";
@@ -84,6 +86,20 @@ public class ExtendedS3StorageConfig {
     @Getter
     private final int smallObjectSizeLimitForConcat;
 
+    /**
+     * Maximum number of requests that may be issued in parallel (across all chunks) when concatenating chunks or
+     * reading large ranges from them.
+     */
+    @Getter
+    private final int maxParallelRequests;
+
+    /**
+     * Size (in bytes) of the ranges that large reads are split into. Each such range is fetched with a separate request,
+     * and these requests are issued in parallel.
+     */
+    @Getter
+    private final int readPartSize;
+
     //endregion
 
     //region Constructor
@@ -103,6 +119,15 @@ public class ExtendedS3StorageConfig {
         this.prefix = givenPrefix.endsWith(PATH_SEPARATOR) ? givenPrefix : givenPrefix + PATH_SEPARATOR;
         this.useNoneMatch = properties.getBoolean(USENONEMATCH);
         this.smallObjectSizeLimitForConcat = properties.getInt(SMALL_OBJECT_THRESHOLD);
+        this.maxParallelRequests = properties.getInt(PARALLEL_REQUESTS_MAX);
+        if (this.maxParallelRequests <= 0) {
+            throw new ConfigurationException(String.format("Property '%s' must be a positive integer.", PARALLEL_REQUESTS_MAX));
+        }
+
+        this.readPartSize = properties.getInt(READ_PART_SIZE);
+        if (this.readPartSize <= 0) {
+            throw new ConfigurationException(String.format("Property '%s' must be a positive integer.", READ_PART_SIZE));
+        }
     }
 
     /**
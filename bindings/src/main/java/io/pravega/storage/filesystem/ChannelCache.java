@@ -0,0 +1,271 @@
+/**
+ * Copyright (c) Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.storage.filesystem;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import io.pravega.common.Exceptions;
+import io.pravega.common.io.StreamHelpers;
+import java.io.IOException;
+import java.nio.channels.Channel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bounded, LRU cache of open channels, keyed by chunk name and the {@link StandardOpenOption} they were opened with.
+ *
+ * Channels are handed out as {@link Lease}s, which must be closed once the caller is done with the channel. A channel
+ * that is evicted or invalidated while leased is only closed once all of its leases have been released, so an eviction
+ * never interferes with an in-progress operation.
+ *
+ * @param <T> Type of the channel.
+ */
+@Slf4j
+@ThreadSafe
+class ChannelCache<T extends Channel> implements AutoCloseable {
+    //region Members
+
+    private static final StandardOpenOption[] MODES = new StandardOpenOption[]{StandardOpenOption.READ, StandardOpenOption.WRITE};
+    private final int maxSize;
+    @GuardedBy("entries")
+    private final LinkedHashMap<Key, Entry> entries;
+    @GuardedBy("entries")
+    private boolean closed;
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the ChannelCache class.
+     *
+     * @param maxSize The maximum number of channels to keep open. If 0, every channel is closed as soon as its (only)
+     *                {@link Lease} is released.
+     */
+    ChannelCache(int maxSize) {
+        Preconditions.checkArgument(maxSize >= 0, "maxSize must be a non-negative number.");
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    //endregion
+
+    //region AutoCloseable Implementation
+
+    @Override
+    public void close() {
+        List<Entry> toClose = new ArrayList<>();
+        synchronized (this.entries) {
+            if (this.closed) {
+                return;
+            }
+
+            this.closed = true;
+            this.entries.values().forEach(e -> discard(e, toClose));
+            this.entries.clear();
+        }
+
+        toClose.forEach(this::closeChannel);
+    }
+
+    //endregion
+
+    //region Operations
+
+    /**
+     * Gets a {@link Lease} for a channel for the given chunk, opening a new channel if there is no cached one.
+     *
+     * @param chunkName The name of the chunk.
+     * @param mode      The {@link StandardOpenOption} to open the channel with.
+     * @param opener    An {@link Opener} that will be invoked to open a new channel, if needed.
+     * @return A {@link Lease} for the channel. This must be closed when no longer needed.
+     * @throws IOException If the channel could not be opened.
+     */
+    Lease acquire(String chunkName, StandardOpenOption mode, Opener<T> opener) throws IOException {
+        Key key = new Key(chunkName, mode);
+        synchronized (this.entries) {
+            Exceptions.checkNotClosed(this.closed, this);
+            Entry e = this.entries.get(key);
+            if (e != null) {
+                e.leaseCount++;
+                return new Lease(e);
+            }
+        }
+
+        // Open outside of the lock; this may take a while on some file systems.
+        T channel = opener.open();
+        Entry newEntry = new Entry(channel);
+        newEntry.leaseCount++;
+        List<Entry> toClose = new ArrayList<>();
+        Entry result;
+        synchronized (this.entries) {
+            Entry existing = this.closed ? null : this.entries.get(key);
+            if (existing != null) {
+                // Someone else opened one concurrently. Use theirs and close ours.
+                existing.leaseCount++;
+                result = existing;
+                toClose.add(newEntry);
+            } else {
+                result = newEntry;
+                if (this.closed || this.maxSize == 0) {
+                    // Not caching anything; close it when released.
+                    newEntry.discarded = true;
+                } else {
+                    this.entries.put(key, newEntry);
+                    evictIfNeeded(toClose);
+                }
+            }
+        }
+
+        toClose.forEach(this::closeChannel);
+        return new Lease(result);
+    }
+
+    /**
+     * Removes all cached channels for the given chunk (regardless of their {@link StandardOpenOption}). Channels that are
+     * currently leased will be closed when their last {@link Lease} is released.
+     *
+     * @param chunkName The name of the chunk.
+     */
+    void invalidate(String chunkName) {
+        List<Entry> toClose = new ArrayList<>();
+        synchronized (this.entries) {
+            for (StandardOpenOption mode : MODES) {
+                Entry e = this.entries.remove(new Key(chunkName, mode));
+                if (e != null) {
+                    discard(e, toClose);
+                }
+            }
+        }
+
+        toClose.forEach(this::closeChannel);
+    }
+
+    /**
+     * Gets the number of channels currently in the cache.
+     *
+     * @return The number of cached channels.
+     */
+    @VisibleForTesting
+    int size() {
+        synchronized (this.entries) {
+            return this.entries.size();
+        }
+    }
+
+    @GuardedBy("entries")
+    private void evictIfNeeded(List<Entry> toClose) {
+        Iterator<Map.Entry<Key, Entry>> iterator = this.entries.entrySet().iterator();
+        while (this.entries.size() > this.maxSize && iterator.hasNext()) {
+            // Iteration order is least-recently-used first.
+            Entry e = iterator.next().getValue();
+            iterator.remove();
+            discard(e, toClose);
+        }
+    }
+
+    @GuardedBy("entries")
+    private void discard(Entry e, List<Entry> toClose) {
+        e.discarded = true;
+        if (e.leaseCount == 0) {
+            toClose.add(e);
+        }
+    }
+
+    private void release(Entry e) {
+        boolean close;
+        synchronized (this.entries) {
+            Preconditions.checkState(e.leaseCount > 0, "Entry has no outstanding leases.");
+            e.leaseCount--;
+            close = e.discarded && e.leaseCount == 0;
+        }
+
+        if (close) {
+            closeChannel(e);
+        }
+    }
+
+    private void closeChannel(Entry e) {
+        StreamHelpers.closeQuietly(e.channel, log, "Unable to close channel.");
+    }
+
+    //endregion
+
+    //region Helper Classes
+
+    /**
+     * Opens a new channel.
+     *
+     * @param <T> Type of the channel.
+     */
+    @FunctionalInterface
+    interface Opener<T> {
+        T open() throws IOException;
+    }
+
+    /**
+     * A lease on a channel from this cache. Closing the lease does not necessarily close the channel.
+     */
+    class Lease implements AutoCloseable {
+        private final Entry entry;
+        @GuardedBy("this")
+        private boolean released;
+
+        private Lease(Entry entry) {
+            this.entry = entry;
+        }
+
+        /**
+         * Gets the leased channel. This must not be closed by the caller.
+         *
+         * @return The channel.
+         */
+        T getChannel() {
+            return this.entry.channel;
+        }
+
+        @Override
+        public void close() {
+            synchronized (this) {
+                if (this.released) {
+                    return;
+                }
+
+                this.released = true;
+            }
+
+            release(this.entry);
+        }
+    }
+
+    @Data
+    private static class Key {
+        private final String chunkName;
+        private final StandardOpenOption mode;
+    }
+
+    @RequiredArgsConstructor
+    private class Entry {
+        private final T channel;
+        private int leaseCount;
+        private boolean discarded;
+    }
+
+    //endregion
+}
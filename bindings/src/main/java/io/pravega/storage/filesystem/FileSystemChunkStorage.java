@@ -10,6 +10,10 @@
 package io.pravega.storage.filesystem;
 
 import com.google.common.base.Preconditions;
+import io.pravega.common.Exceptions;
+import io.pravega.common.concurrent.ExecutorServiceHelpers;
+import io.pravega.common.concurrent.Futures;
+import io.pravega.common.io.StreamHelpers;
 import io.pravega.segmentstore.storage.chunklayer.BaseChunkStorage;
 import io.pravega.segmentstore.storage.chunklayer.ChunkAlreadyExistsException;
 import io.pravega.segmentstore.storage.chunklayer.ChunkHandle;
@@ -25,7 +29,9 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
 import java.nio.channels.Channels;
+import java.nio.channels.CompletionHandler;
 import java.nio.channels.FileChannel;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.file.FileAlreadyExistsException;
@@ -37,12 +43,26 @@ import java.nio.file.attribute.FileAttribute;
 import java.nio.file.attribute.PosixFilePermission;
 import java.nio.file.attribute.PosixFilePermissions;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
 
 /**
  * {@link ChunkStorage} for file system based storage.
  *
  * Each Chunk is represented as a single file on the underlying storage.
  * The concat operation is implemented as append.
+ *
+ * Asynchronous reads and writes are implemented natively using {@link AsynchronousFileChannel}s, whose completions are
+ * delivered on the given executor (or on the JDK's default pool if none is given). No thread waits for them to complete.
+ * When group sync is enabled, an async write completes when the group sync that includes it completes, so it does not
+ * hold up any thread while waiting for the sync either. Otherwise, the sync runs on the thread that delivered the write
+ * completion.
+ *
+ * Open channels are cached (see {@link FileSystemStorageConfig#getMaxCachedChannels()}) so that repeated reads and writes
+ * to the same chunk do not need to open the file every time. Cached channels are invalidated whenever their chunk is
+ * deleted, concatenated or has its permissions changed. Syncs to disk may optionally be batched across chunks (see
+ * {@link FileSystemStorageConfig#getGroupSyncWindowMillis()}).
  */
 
 @Slf4j
@@ -53,31 +73,89 @@ public class FileSystemChunkStorage extends BaseChunkStorage {
 
     private final FileSystemWrapper fileSystem;
 
+    private final ChannelCache<FileChannel> channels;
+
+    private final ChannelCache<AsynchronousFileChannel> asyncChannels;
+
+    private final ExecutorService executor;
+
+    private final ScheduledExecutorService syncExecutor;
+
+    private final GroupSync groupSync;
+
     //endregion
 
     //region constructor
 
     /**
-     * Creates a new instance of the FileSystemChunkStorage class.
+     * Creates a new instance of the FileSystemChunkStorage class. Asynchronous operations complete on the JDK's default
+     * thread pool for {@link AsynchronousFileChannel}s.
      *
      * @param config The configuration to use.
      */
     public FileSystemChunkStorage(FileSystemStorageConfig config) {
-        this.config = Preconditions.checkNotNull(config, "config");
-        this.fileSystem = new FileSystemWrapper();
+        this(config, new FileSystemWrapper(), null);
     }
 
     /**
      * Creates a new instance of the FileSystemChunkStorage class.
      *
+     * @param config   The configuration to use.
+     * @param executor The executor to complete asynchronous reads and writes on.
+     */
+    public FileSystemChunkStorage(FileSystemStorageConfig config, ExecutorService executor) {
+        this(config, new FileSystemWrapper(), Preconditions.checkNotNull(executor, "executor"));
+    }
+
+    /**
+     * Creates a new instance of the FileSystemChunkStorage class. Asynchronous operations complete on the JDK's default
+     * thread pool for {@link AsynchronousFileChannel}s.
+     *
      * @param config The configuration to use.
      * @param fileSystem Object that wraps file system related calls.
      */
     public FileSystemChunkStorage(FileSystemStorageConfig config, FileSystemWrapper fileSystem) {
+        this(config, fileSystem, null);
+    }
+
+    /**
+     * Creates a new instance of the FileSystemChunkStorage class.
+     *
+     * @param config The configuration to use.
+     * @param fileSystem Object that wraps file system related calls.
+     * @param executor (Optional) The executor to complete asynchronous reads and writes on. If null, the JDK's default
+     *                 thread pool for {@link AsynchronousFileChannel}s is used.
+     */
+    FileSystemChunkStorage(FileSystemStorageConfig config, FileSystemWrapper fileSystem, ExecutorService executor) {
         this.config = Preconditions.checkNotNull(config, "config");
         this.fileSystem = Preconditions.checkNotNull(fileSystem, "fileSystem");
+        this.executor = executor;
+        this.channels = new ChannelCache<>(config.getMaxCachedChannels());
+        this.asyncChannels = new ChannelCache<>(config.getMaxCachedChannels());
+        if (config.getGroupSyncWindowMillis() > 0) {
+            this.syncExecutor = ExecutorServiceHelpers.newScheduledThreadPool(1, "storage-fs-sync");
+            this.groupSync = new GroupSync(config.getGroupSyncWindowMillis(), this.syncExecutor);
+        } else {
+            this.syncExecutor = null;
+            this.groupSync = null;
+        }
     }
 
+    //endregion
+
+    //region AutoCloseable Implementation
+
+    @Override
+    public void close() {
+        super.close();
+        if (this.groupSync != null) {
+            this.groupSync.close();
+            ExecutorServiceHelpers.shutdown(this.syncExecutor);
+        }
+
+        this.channels.close();
+        this.asyncChannels.close();
+    }
 
     //endregion
 
@@ -142,6 +220,8 @@ public class FileSystemChunkStorage extends BaseChunkStorage {
 
     @Override
     protected void doDelete(ChunkHandle handle) throws ChunkStorageException {
+        // Close any cached channels first; some network file systems keep deleted files around while they are open.
+        invalidateChannels(handle.getChunkName());
         try {
             fileSystem.delete(getFilePath(handle.getChunkName()));
         } catch (IOException e) {
@@ -183,17 +263,15 @@ public class FileSystemChunkStorage extends BaseChunkStorage {
     protected int doRead(ChunkHandle handle, long fromOffset, int length, byte[] buffer, int bufferOffset)
             throws ChunkStorageException, NullPointerException, IndexOutOfBoundsException {
         Path path = getFilePath(handle.getChunkName());
-        try {
-            long fileSize = fileSystem.getFileSize(path);
+        try (val lease = channels.acquire(handle.getChunkName(), StandardOpenOption.READ,
+                () -> fileSystem.getFileChannel(path, StandardOpenOption.READ))) {
+            FileChannel channel = lease.getChannel();
+            long fileSize = channel.size();
             if (fileSize < fromOffset) {
                 throw new IllegalArgumentException(String.format("Reading at offset (%d) which is beyond the " +
                         "current size of chunk (%d).", fromOffset, fileSize));
             }
-        } catch (IOException e) {
-            throw convertExeption(handle.getChunkName(), "doRead", e);
-        }
 
-        try (FileChannel channel = fileSystem.getFileChannel(path, StandardOpenOption.READ)) {
             int totalBytesRead = 0;
             long readOffset = fromOffset;
             do {
@@ -212,34 +290,195 @@ public class FileSystemChunkStorage extends BaseChunkStorage {
 
     @Override
     protected int doWrite(ChunkHandle handle, long offset, int length, InputStream data) throws ChunkStorageException {
+        try (val lease = acquireWriteChannel(handle)) {
+            FileChannel channel = lease.getChannel();
+            int totalBytesWritten = write(handle, channel, offset, length, data);
+            if (this.groupSync == null) {
+                channel.force(true);
+            } else {
+                Futures.getThrowingException(this.groupSync.sync(handle.getChunkName(), () -> channel.force(true)));
+            }
+
+            return totalBytesWritten;
+        } catch (IOException e) {
+            throw convertExeption(handle.getChunkName(), "doWrite", e);
+        }
+    }
+
+    private ChannelCache<FileChannel>.Lease acquireWriteChannel(ChunkHandle handle) throws IOException {
         Path path = getFilePath(handle.getChunkName());
+        return channels.acquire(handle.getChunkName(), StandardOpenOption.WRITE,
+                () -> fileSystem.getFileChannel(path, StandardOpenOption.WRITE));
+    }
+
+    /**
+     * Writes the given data to the given channel, without syncing it.
+     */
+    private int write(ChunkHandle handle, FileChannel channel, long offset, int length, InputStream data) throws IOException {
+        long fileSize = channel.size();
+        if (fileSize != offset) {
+            throw new IllegalArgumentException(String.format("fileSize (%d) did not match offset (%d) for chunk %s", fileSize, offset, handle.getChunkName()));
+        }
 
+        // Wrap the input data into a ReadableByteChannel, but do not close it. Doing so will result in closing
+        // the underlying InputStream, which is not desirable if it is to be reused.
+        ReadableByteChannel sourceChannel = Channels.newChannel(data);
         long totalBytesWritten = 0;
-        try (FileChannel channel = fileSystem.getFileChannel(path, StandardOpenOption.WRITE)) {
+        while (length > 0) {
+            long bytesWritten = channel.transferFrom(sourceChannel, offset, length);
+            assert bytesWritten > 0 : "Unable to make any progress transferring data.";
+            offset += bytesWritten;
+            totalBytesWritten += bytesWritten;
+            length -= bytesWritten;
+        }
+
+        return (int) totalBytesWritten;
+    }
+
+    private ChannelCache<AsynchronousFileChannel>.Lease acquireAsyncChannel(ChunkHandle handle, StandardOpenOption openOption) throws IOException {
+        Path path = getFilePath(handle.getChunkName());
+        return asyncChannels.acquire(handle.getChunkName(), openOption,
+                () -> fileSystem.getAsynchronousFileChannel(path, openOption, this.executor));
+    }
+
+    @Override
+    protected CompletableFuture<Integer> doReadAsync(ChunkHandle handle, long fromOffset, int length, byte[] buffer, int bufferOffset) {
+        ChannelCache<AsynchronousFileChannel>.Lease lease;
+        try {
+            lease = acquireAsyncChannel(handle, StandardOpenOption.READ);
+        } catch (IOException e) {
+            return Futures.failedFuture(convertExeption(handle.getChunkName(), "doReadAsync", e));
+        }
+
+        CompletableFuture<Integer> result = new CompletableFuture<>();
+        try {
+            AsynchronousFileChannel channel = lease.getChannel();
+            long fileSize = channel.size();
+            if (fileSize < fromOffset) {
+                throw new IllegalArgumentException(String.format("Reading at offset (%d) which is beyond the " +
+                        "current size of chunk (%d).", fromOffset, fileSize));
+            }
+
+            ByteBuffer readBuffer = ByteBuffer.wrap(buffer, bufferOffset, length);
+            channel.read(readBuffer, fromOffset, null, new CompletionHandler<Integer, Void>() {
+                private int totalBytesRead = 0;
+
+                @Override
+                public void completed(Integer bytesRead, Void attachment) {
+                    if (bytesRead > 0) {
+                        this.totalBytesRead += bytesRead;
+                    }
+
+                    try {
+                        if (bytesRead >= 0 && readBuffer.hasRemaining()) {
+                            // Partial read; continue from where we left off.
+                            channel.read(readBuffer, fromOffset + this.totalBytesRead, null, this);
+                        } else {
+                            result.complete(this.totalBytesRead);
+                        }
+                    } catch (Throwable ex) {
+                        if (Exceptions.mustRethrow(ex)) {
+                            throw ex;
+                        }
+
+                        failed(ex, attachment);
+                    }
+                }
+
+                @Override
+                public void failed(Throwable ex, Void attachment) {
+                    failAsync(result, handle, "doReadAsync", ex);
+                }
+            });
+        } catch (Throwable ex) {
+            if (Exceptions.mustRethrow(ex)) {
+                throw Exceptions.sneakyThrow(ex);
+            }
+
+            failAsync(result, handle, "doReadAsync", ex);
+        }
+
+        return result.whenComplete((r, ex) -> lease.close());
+    }
+
+    @Override
+    protected CompletableFuture<Integer> doWriteAsync(ChunkHandle handle, long offset, int length, InputStream data) {
+        ChannelCache<AsynchronousFileChannel>.Lease lease;
+        ByteBuffer writeBuffer;
+        try {
+            // The data is usually already in memory, so reading it up front does not block on any IO.
+            writeBuffer = ByteBuffer.wrap(StreamHelpers.readAll(data, length));
+            lease = acquireAsyncChannel(handle, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            return Futures.failedFuture(convertExeption(handle.getChunkName(), "doWriteAsync", e));
+        }
+
+        CompletableFuture<Integer> result = new CompletableFuture<>();
+        try {
+            AsynchronousFileChannel channel = lease.getChannel();
             long fileSize = channel.size();
             if (fileSize != offset) {
                 throw new IllegalArgumentException(String.format("fileSize (%d) did not match offset (%d) for chunk %s", fileSize, offset, handle.getChunkName()));
             }
 
-            // Wrap the input data into a ReadableByteChannel, but do not close it. Doing so will result in closing
-            // the underlying InputStream, which is not desirable if it is to be reused.
-            ReadableByteChannel sourceChannel = Channels.newChannel(data);
-            while (length > 0) {
-                long bytesWritten = channel.transferFrom(sourceChannel, offset, length);
-                assert bytesWritten > 0 : "Unable to make any progress transferring data.";
-                offset += bytesWritten;
-                totalBytesWritten += bytesWritten;
-                length -= bytesWritten;
+            channel.write(writeBuffer, offset, null, new CompletionHandler<Integer, Void>() {
+                @Override
+                public void completed(Integer bytesWritten, Void attachment) {
+                    try {
+                        if (writeBuffer.hasRemaining()) {
+                            // Partial write; continue from where we left off.
+                            channel.write(writeBuffer, offset + writeBuffer.position(), null, this);
+                        } else if (groupSync == null) {
+                            channel.force(true);
+                            result.complete(writeBuffer.position());
+                        } else {
+                            // Complete when the group sync that includes this write completes.
+                            groupSync.sync(handle.getChunkName(), () -> channel.force(true))
+                                     .whenComplete((v, ex) -> {
+                                         if (ex == null) {
+                                             result.complete(writeBuffer.position());
+                                         } else {
+                                             failed(Exceptions.unwrap(ex), attachment);
+                                         }
+                                     });
+                        }
+                    } catch (Throwable ex) {
+                        // Anything thrown here (including GroupSync having been closed) must fail the result, otherwise
+                        // it never completes and the lease is never returned.
+                        if (Exceptions.mustRethrow(ex)) {
+                            throw Exceptions.sneakyThrow(ex);
+                        }
+
+                        failed(ex, attachment);
+                    }
+                }
+
+                @Override
+                public void failed(Throwable ex, Void attachment) {
+                    failAsync(result, handle, "doWriteAsync", ex);
+                }
+            });
+        } catch (Throwable ex) {
+            if (Exceptions.mustRethrow(ex)) {
+                throw Exceptions.sneakyThrow(ex);
             }
-            channel.force(true);
-        } catch (IOException e) {
-            throw convertExeption(handle.getChunkName(), "doWrite", e);
+
+            failAsync(result, handle, "doWriteAsync", ex);
         }
-        return (int) totalBytesWritten;
+
+        return result.whenComplete((r, ex) -> lease.close());
+    }
+
+    private void failAsync(CompletableFuture<Integer> result, ChunkHandle handle, String message, Throwable ex) {
+        result.completeExceptionally(ex instanceof IOException ? convertExeption(handle.getChunkName(), message, (IOException) ex) : ex);
     }
 
     @Override
     public int doConcat(ConcatArgument[] chunks) throws ChunkStorageException {
+        for (ConcatArgument chunk : chunks) {
+            invalidateChannels(chunk.getName());
+        }
+
         try {
             int totalBytesConcated = 0;
             Path targetPath = getFilePath(chunks[0].getName());
@@ -273,6 +512,7 @@ public class FileSystemChunkStorage extends BaseChunkStorage {
     @Override
     protected void doSetReadOnly(ChunkHandle handle, boolean isReadOnly) throws ChunkStorageException {
         Path path = null;
+        invalidateChannels(handle.getChunkName());
         try {
             path = getFilePath(handle.getChunkName());
             fileSystem.setPermissions(path, isReadOnly ? FileSystemWrapper.READ_ONLY_PERMISSION : FileSystemWrapper.READ_WRITE_PERMISSION);
@@ -281,6 +521,11 @@ public class FileSystemChunkStorage extends BaseChunkStorage {
         }
     }
 
+    private void invalidateChannels(String chunkName) {
+        this.channels.invalidate(chunkName);
+        this.asyncChannels.invalidate(chunkName);
+    }
+
     private ChunkStorageException convertExeption(String chunkName, String message, Exception e) {
         if (e instanceof FileNotFoundException || e instanceof NoSuchFileException) {
             return new ChunkNotFoundException(chunkName, message, e);
@@ -11,6 +11,7 @@ package io.pravega.storage.filesystem;
 
 import io.pravega.segmentstore.storage.Storage;
 import io.pravega.segmentstore.storage.StorageFactory;
+import io.pravega.segmentstore.storage.chunklayer.CachingChunkStorage;
 import io.pravega.segmentstore.storage.chunklayer.ChunkedSegmentStorage;
 import io.pravega.segmentstore.storage.chunklayer.ChunkedSegmentStorageConfig;
 import lombok.NonNull;
@@ -35,7 +36,8 @@ public class FileSystemSimpleStorageFactory implements StorageFactory {
     @Override
     public Storage createStorageAdapter() {
         ChunkedSegmentStorage storageProvider = new ChunkedSegmentStorage(
-                new FileSystemChunkStorage(this.config),
+                CachingChunkStorage.wrapIfEnabled(new FileSystemChunkStorage(this.config, this.executor),
+                        this.chunkedSegmentStorageConfig, this.executor),
                 this.executor,
                 this.chunkedSegmentStorageConfig);
         return storageProvider;
@@ -25,6 +25,8 @@ public class FileSystemStorageConfig {
 
     public static final Property<String> ROOT = Property.named("root", "/fs/");
     public static final Property<Boolean> REPLACE_ENABLED = Property.named("replace.enable", false);
+    public static final Property<Integer> CHANNEL_CACHE_SIZE = Property.named("channel.cache.size.max", 128);
+    public static final Property<Integer> GROUP_SYNC_WINDOW_MILLIS = Property.named("group.sync.window.milliseconds", 0);
     public static final String COMPONENT_CODE = "filesystem";
 
     //endregion
@@ -45,6 +47,20 @@ public class FileSystemStorageConfig {
     @Getter
     private final boolean replaceEnabled;
 
+    /**
+     * Maximum number of open file channels that {@link FileSystemChunkStorage} keeps cached (separately for synchronous
+     * and asynchronous operations). If 0, a new channel is opened (and closed) for every operation.
+     */
+    @Getter
+    private final int maxCachedChannels;
+
+    /**
+     * The amount of time (in milliseconds) for which {@link FileSystemChunkStorage} collects writes before syncing all of
+     * them to disk together. If 0, every write is synced individually as soon as it is done.
+     */
+    @Getter
+    private final int groupSyncWindowMillis;
+
     //endregion
 
     //region Constructor
@@ -57,6 +73,15 @@ public class FileSystemStorageConfig {
     private FileSystemStorageConfig(TypedProperties properties) throws ConfigurationException {
         this.root = properties.get(ROOT);
         this.replaceEnabled = properties.getBoolean(REPLACE_ENABLED);
+        this.maxCachedChannels = properties.getInt(CHANNEL_CACHE_SIZE);
+        if (this.maxCachedChannels < 0) {
+            throw new ConfigurationException(String.format("Property '%s' must be a non-negative integer.", CHANNEL_CACHE_SIZE));
+        }
+
+        this.groupSyncWindowMillis = properties.getInt(GROUP_SYNC_WINDOW_MILLIS);
+        if (this.groupSyncWindowMillis < 0) {
+            throw new ConfigurationException(String.format("Property '%s' must be a non-negative integer.", GROUP_SYNC_WINDOW_MILLIS));
+        }
     }
 
     /**
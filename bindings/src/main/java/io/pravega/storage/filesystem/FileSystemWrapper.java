@@ -12,6 +12,7 @@ package io.pravega.storage.filesystem;
 import com.google.common.collect.ImmutableSet;
 
 import java.io.IOException;
+import java.nio.channels.AsynchronousFileChannel;
 import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.LinkOption;
@@ -19,7 +20,9 @@ import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.nio.file.attribute.FileAttribute;
 import java.nio.file.attribute.PosixFilePermission;
+import java.util.Collections;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
 
 /**
  * Wrapper for File System calls.
@@ -112,6 +115,22 @@ public class FileSystemWrapper {
         return FileChannel.open(path, openOption);
     }
 
+    /**
+     * Creates an {@link AsynchronousFileChannel} for given path.
+     * @param path File path.
+     * @param openOption Open options. {@link StandardOpenOption}
+     * @param executor (Optional) The thread pool to deliver completions on. If null, the JDK's default pool is used.
+     * @return The channel.
+     * @throws IOException Exception thrown by file system call.
+     */
+    AsynchronousFileChannel getAsynchronousFileChannel(Path path, StandardOpenOption openOption, ExecutorService executor) throws IOException {
+        if (executor == null) {
+            return AsynchronousFileChannel.open(path, openOption);
+        }
+
+        return AsynchronousFileChannel.open(path, Collections.singleton(openOption), executor);
+    }
+
     /**
      * Gets the size of file in bytes.
      * @param path File path.
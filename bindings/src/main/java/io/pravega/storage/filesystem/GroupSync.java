@@ -0,0 +1,158 @@
+/**
+ * Copyright (c) Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.storage.filesystem;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import io.pravega.common.Exceptions;
+import io.pravega.common.ObjectClosedException;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Batches file syncs across chunks. All sync requests that arrive within a configured time window are executed together
+ * at the end of that window, and multiple requests for the same chunk within the same window result in a single sync.
+ */
+@Slf4j
+@ThreadSafe
+class GroupSync implements AutoCloseable {
+    //region Members
+
+    private final long windowMillis;
+    private final ScheduledExecutorService executor;
+    @GuardedBy("this")
+    private Map<String, PendingSync> pending;
+    @GuardedBy("this")
+    private boolean syncScheduled;
+    @GuardedBy("this")
+    private boolean closed;
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the GroupSync class.
+     *
+     * @param windowMillis The amount of time (in milliseconds) to collect sync requests for before executing them.
+     * @param executor     The Executor to execute the syncs on. This should be a single-threaded executor, since syncs
+     *                     are blocking operations and there is no benefit in executing them in parallel.
+     */
+    GroupSync(long windowMillis, ScheduledExecutorService executor) {
+        Preconditions.checkArgument(windowMillis > 0, "windowMillis must be a positive number.");
+        this.windowMillis = windowMillis;
+        this.executor = Preconditions.checkNotNull(executor, "executor");
+        this.pending = new LinkedHashMap<>();
+    }
+
+    //endregion
+
+    //region AutoCloseable Implementation
+
+    @Override
+    public void close() {
+        Map<String, PendingSync> toCancel;
+        synchronized (this) {
+            if (this.closed) {
+                return;
+            }
+
+            this.closed = true;
+            toCancel = this.pending;
+            this.pending = new LinkedHashMap<>();
+        }
+
+        ObjectClosedException ex = new ObjectClosedException(this);
+        toCancel.values().forEach(p -> p.result.completeExceptionally(ex));
+    }
+
+    //endregion
+
+    //region Operations
+
+    /**
+     * Requests that the given chunk be synced to disk. If there already is a pending request for this chunk, this request
+     * will be satisfied by that one (and the given action will not be invoked).
+     *
+     * @param chunkName The name of the chunk to sync.
+     * @param action    A {@link SyncAction} that syncs the chunk. This (and anything it depends on) must remain valid
+     *                  until the returned future completes.
+     * @return A CompletableFuture that will be completed when the chunk has been synced. If the sync failed, this will be
+     * failed with the appropriate exception.
+     */
+    CompletableFuture<Void> sync(String chunkName, SyncAction action) {
+        synchronized (this) {
+            Exceptions.checkNotClosed(this.closed, this);
+            PendingSync p = this.pending.computeIfAbsent(chunkName, name -> new PendingSync(action));
+            if (!this.syncScheduled) {
+                this.syncScheduled = true;
+                this.executor.schedule(this::syncAll, this.windowMillis, TimeUnit.MILLISECONDS);
+            }
+
+            return p.result;
+        }
+    }
+
+    /**
+     * Executes all pending sync requests.
+     */
+    @VisibleForTesting
+    void syncAll() {
+        Map<String, PendingSync> toSync;
+        synchronized (this) {
+            this.syncScheduled = false;
+            toSync = this.pending;
+            this.pending = new LinkedHashMap<>();
+        }
+
+        log.trace("GroupSync: Syncing {} chunk(s).", toSync.size());
+        toSync.forEach((chunkName, p) -> {
+            try {
+                p.action.sync();
+                p.result.complete(null);
+            } catch (Throwable ex) {
+                if (Exceptions.mustRethrow(ex)) {
+                    throw ex;
+                }
+
+                log.warn("GroupSync: Unable to sync chunk {}.", chunkName, ex);
+                p.result.completeExceptionally(ex);
+            }
+        });
+    }
+
+    //endregion
+
+    //region Helper Classes
+
+    /**
+     * Syncs a chunk to disk.
+     */
+    @FunctionalInterface
+    interface SyncAction {
+        void sync() throws IOException;
+    }
+
+    @RequiredArgsConstructor
+    private static class PendingSync {
+        private final SyncAction action;
+        private final CompletableFuture<Void> result = new CompletableFuture<>();
+    }
+
+    //endregion
+}
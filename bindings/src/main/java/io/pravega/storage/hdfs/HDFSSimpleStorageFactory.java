@@ -11,6 +11,7 @@ package io.pravega.storage.hdfs;
 
 import io.pravega.segmentstore.storage.Storage;
 import io.pravega.segmentstore.storage.StorageFactory;
+import io.pravega.segmentstore.storage.chunklayer.CachingChunkStorage;
 import io.pravega.segmentstore.storage.chunklayer.ChunkedSegmentStorage;
 import io.pravega.segmentstore.storage.chunklayer.ChunkedSegmentStorageConfig;
 import lombok.NonNull;
@@ -36,7 +37,8 @@ public class HDFSSimpleStorageFactory implements StorageFactory {
     @Override
     public Storage createStorageAdapter() {
         ChunkedSegmentStorage storageProvider = new ChunkedSegmentStorage(
-                new HDFSChunkStorage(this.config),
+                CachingChunkStorage.wrapIfEnabled(new HDFSChunkStorage(this.config),
+                        this.chunkedSegmentStorageConfig, this.executor),
                 this.executor,
                 this.chunkedSegmentStorageConfig);
         return storageProvider;
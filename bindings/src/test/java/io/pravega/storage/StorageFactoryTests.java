@@ -9,6 +9,7 @@
  */
 package io.pravega.storage;
 
+import io.pravega.common.ObjectClosedException;
 import io.pravega.segmentstore.storage.AsyncStorageWrapper;
 import io.pravega.segmentstore.storage.ConfigSetup;
 import io.pravega.segmentstore.storage.Storage;
@@ -117,6 +118,13 @@ public class StorageFactoryTests {
         Storage storage1 = factory1.createStorageAdapter();
         Assert.assertTrue(storage1 instanceof ChunkedSegmentStorage);
 
+        // Closing the factory shuts down the executor shared by the Storage instances it created.
+        ((ExtendedS3SimpleStorageFactory) factory1).close();
+        AssertExtensions.assertThrows(
+                "createStorageAdapter() worked after close.",
+                factory1::createStorageAdapter,
+                ex -> ex instanceof ObjectClosedException);
+
         // Legacy Storage
         ConfigSetup configSetup2 = mock(ConfigSetup.class);
         when(configSetup2.getConfig(any())).thenReturn(config);
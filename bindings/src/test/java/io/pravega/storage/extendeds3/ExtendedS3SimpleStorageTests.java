@@ -105,6 +105,40 @@ public class ExtendedS3SimpleStorageTests extends SimpleStorageTests {
         }
     }
 
+    /**
+     * {@link ChunkStorageTests} tests for {@link ExtendedS3ChunkStorage} with reads split into many small ranges and
+     * a limited number of parallel requests.
+     */
+    public static class ExtendedS3ChunkStorageWithParallelRequestsTests extends ChunkStorageTests {
+        private ExtendedS3TestContext testContext = null;
+
+        @Before
+        public void before() throws Exception {
+            this.testContext = new ExtendedS3TestContext();
+            super.before();
+        }
+
+        @After
+        public void after() throws Exception {
+            if (this.testContext != null) {
+                this.testContext.close();
+            }
+            super.after();
+        }
+
+        @Override
+        protected ChunkStorage createChunkStorage() throws Exception {
+            ExtendedS3StorageConfig config = ExtendedS3StorageConfig.builder()
+                    .with(ExtendedS3StorageConfig.CONFIGURI, testContext.configUri)
+                    .with(ExtendedS3StorageConfig.BUCKET, testContext.adapterConfig.getBucket())
+                    .with(ExtendedS3StorageConfig.PREFIX, testContext.adapterConfig.getPrefix())
+                    .with(ExtendedS3StorageConfig.PARALLEL_REQUESTS_MAX, 2)
+                    .with(ExtendedS3StorageConfig.READ_PART_SIZE, 3)
+                    .build();
+            return new ExtendedS3ChunkStorage(testContext.client, config);
+        }
+    }
+
     /**
      * {@link SystemJournalTests} tests for {@link ExtendedS3ChunkStorage} based {@link io.pravega.segmentstore.storage.Storage}.
      */
@@ -0,0 +1,151 @@
+/**
+ * Copyright (c) Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.storage.filesystem;
+
+import io.pravega.common.ObjectClosedException;
+import io.pravega.test.common.AssertExtensions;
+import java.nio.channels.Channel;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.Cleanup;
+import lombok.val;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link ChannelCache} class.
+ */
+public class ChannelCacheTests {
+    private static final StandardOpenOption READ = StandardOpenOption.READ;
+    private static final StandardOpenOption WRITE = StandardOpenOption.WRITE;
+
+    /**
+     * Tests that channels are reused while cached and that the least recently used ones are evicted.
+     */
+    @Test
+    public void testReuseAndEviction() throws Exception {
+        val opened = new AtomicInteger();
+        @Cleanup
+        val cache = new ChannelCache<TestChannel>(2);
+        val a = getChannel(cache, "a", READ, opened);
+        Assert.assertSame("Expected the cached channel to be reused.", a, getChannel(cache, "a", READ, opened));
+        Assert.assertEquals(1, opened.get());
+
+        // Same chunk, different mode.
+        val aw = getChannel(cache, "a", WRITE, opened);
+        Assert.assertNotSame(a, aw);
+        Assert.assertEquals(2, cache.size());
+
+        // Touch "a"/READ so that "a"/WRITE becomes the least recently used.
+        getChannel(cache, "a", READ, opened);
+        val b = getChannel(cache, "b", READ, opened);
+        Assert.assertEquals(2, cache.size());
+        Assert.assertTrue(a.isOpen());
+        Assert.assertTrue(b.isOpen());
+        Assert.assertFalse("Expected the least recently used channel to be evicted and closed.", aw.isOpen());
+    }
+
+    /**
+     * Tests that channels that are evicted or invalidated while leased are only closed when released.
+     */
+    @Test
+    public void testLeasedChannels() throws Exception {
+        val opened = new AtomicInteger();
+        @Cleanup
+        val cache = new ChannelCache<TestChannel>(1);
+        val lease1 = cache.acquire("a", READ, () -> open(opened));
+        val lease2 = cache.acquire("a", READ, () -> open(opened));
+        val a = lease1.getChannel();
+        Assert.assertSame(a, lease2.getChannel());
+
+        // Evict it.
+        getChannel(cache, "b", READ, opened);
+        Assert.assertTrue("Not expecting a leased channel to be closed.", a.isOpen());
+        lease1.close();
+        lease1.close(); // Releasing the same lease twice must not have any effect.
+        Assert.assertTrue("Not expecting a leased channel to be closed.", a.isOpen());
+        lease2.close();
+        Assert.assertFalse("Expected the channel to be closed once all leases were released.", a.isOpen());
+
+        // Invalidate.
+        val lease3 = cache.acquire("b", READ, () -> open(opened));
+        val b = lease3.getChannel();
+        cache.invalidate("b");
+        Assert.assertEquals(0, cache.size());
+        Assert.assertTrue("Not expecting a leased channel to be closed.", b.isOpen());
+        lease3.close();
+        Assert.assertFalse("Expected the channel to be closed once all leases were released.", b.isOpen());
+        Assert.assertNotSame("Expected a new channel after invalidation.", b, getChannel(cache, "b", READ, opened));
+    }
+
+    /**
+     * Tests a cache with size 0, where every channel is closed as soon as it is released.
+     */
+    @Test
+    public void testNoCaching() throws Exception {
+        val opened = new AtomicInteger();
+        @Cleanup
+        val cache = new ChannelCache<TestChannel>(0);
+        val a1 = getChannel(cache, "a", READ, opened);
+        val a2 = getChannel(cache, "a", READ, opened);
+        Assert.assertNotSame(a1, a2);
+        Assert.assertFalse(a1.isOpen());
+        Assert.assertFalse(a2.isOpen());
+        Assert.assertEquals(0, cache.size());
+        Assert.assertEquals(2, opened.get());
+    }
+
+    /**
+     * Tests the close() method.
+     */
+    @Test
+    public void testClose() throws Exception {
+        val opened = new AtomicInteger();
+        val cache = new ChannelCache<TestChannel>(2);
+        val a = getChannel(cache, "a", READ, opened);
+        val lease = cache.acquire("b", READ, () -> open(opened));
+        val b = lease.getChannel();
+        cache.close();
+        Assert.assertFalse(a.isOpen());
+        Assert.assertTrue("Not expecting a leased channel to be closed.", b.isOpen());
+        lease.close();
+        Assert.assertFalse(b.isOpen());
+
+        AssertExtensions.assertThrows(
+                "acquire() worked after close.",
+                () -> cache.acquire("a", READ, () -> open(opened)),
+                ex -> ex instanceof ObjectClosedException);
+    }
+
+    private TestChannel getChannel(ChannelCache<TestChannel> cache, String chunkName, StandardOpenOption mode, AtomicInteger opened) throws Exception {
+        try (val lease = cache.acquire(chunkName, mode, () -> open(opened))) {
+            return lease.getChannel();
+        }
+    }
+
+    private TestChannel open(AtomicInteger opened) {
+        opened.incrementAndGet();
+        return new TestChannel();
+    }
+
+    private static class TestChannel implements Channel {
+        private volatile boolean open = true;
+
+        @Override
+        public boolean isOpen() {
+            return this.open;
+        }
+
+        @Override
+        public void close() {
+            this.open = false;
+        }
+    }
+}
@@ -13,6 +13,9 @@ import io.pravega.segmentstore.storage.chunklayer.ChunkHandle;
 import io.pravega.segmentstore.storage.chunklayer.ChunkStorageException;
 import io.pravega.segmentstore.storage.chunklayer.ConcatArgument;
 import io.pravega.test.common.AssertExtensions;
+import lombok.Cleanup;
+import lombok.val;
+import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -23,11 +26,16 @@ import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
 import java.nio.channels.FileChannel;
 import java.nio.channels.spi.AbstractInterruptibleChannel;
 import java.nio.file.Files;
 import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
@@ -178,6 +186,76 @@ public class FileSystemChunkStorageMockTest {
         assertEquals(index, actualArgs.get(1).longValue());
     }
 
+    @Test
+    public void testAsyncWriteUnexpectedException() throws Exception {
+        String chunkName = "test";
+
+        // The write completes, but syncing it fails with an unchecked exception.
+        AsynchronousFileChannel channel = mockAsyncWriteChannel();
+        doThrow(new IllegalStateException("Random")).when(channel).force(anyBoolean());
+
+        FileSystemWrapper fileSystemWrapper = mock(FileSystemWrapper.class);
+        when(fileSystemWrapper.getAsynchronousFileChannel(any(), any(), any())).thenReturn(channel);
+
+        FileSystemChunkStorage testStorage = new FileSystemChunkStorage(storageConfig, fileSystemWrapper);
+        AssertExtensions.assertSuppliedFutureThrows(
+                "doWriteAsync should fail.",
+                () -> testStorage.doWriteAsync(ChunkHandle.writeHandle(chunkName), 0, 1, new ByteArrayInputStream(new byte[1])),
+                ex -> ex instanceof IllegalStateException && ex.getMessage().equals("Random"));
+
+        // The channel lease must have been returned, so closing the storage closes the channel.
+        testStorage.close();
+        verify(channel).close();
+    }
+
+    /**
+     * Tests that, with group sync enabled, an asynchronous write completes only once the group sync that includes it
+     * has completed, and that the sync is not done by the thread that delivered the write completion.
+     */
+    @Test
+    public void testAsyncWriteWithGroupSync() throws Exception {
+        String chunkName = "test";
+        AsynchronousFileChannel channel = mockAsyncWriteChannel();
+        CompletableFuture<Void> syncStarted = new CompletableFuture<>();
+        CompletableFuture<Void> releaseSync = new CompletableFuture<>();
+        doAnswer(invocation -> {
+            syncStarted.complete(null);
+            releaseSync.join();
+            return null;
+        }).when(channel).force(anyBoolean());
+
+        FileSystemWrapper fileSystemWrapper = mock(FileSystemWrapper.class);
+        when(fileSystemWrapper.getAsynchronousFileChannel(any(), any(), any())).thenReturn(channel);
+
+        val config = FileSystemStorageConfig.builder()
+                                            .with(FileSystemStorageConfig.ROOT, this.baseDir.getAbsolutePath())
+                                            .with(FileSystemStorageConfig.GROUP_SYNC_WINDOW_MILLIS, 1)
+                                            .build();
+        @Cleanup
+        FileSystemChunkStorage testStorage = new FileSystemChunkStorage(config, fileSystemWrapper);
+
+        // The mocked write completes synchronously, so if the sync were done inline, this call would not return.
+        val result = testStorage.doWriteAsync(ChunkHandle.writeHandle(chunkName), 0, 1, new ByteArrayInputStream(new byte[1]));
+        syncStarted.get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        Assert.assertFalse("Not expecting the write to complete before the group sync.", result.isDone());
+        releaseSync.complete(null);
+        Assert.assertEquals(1, (int) result.get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS));
+    }
+
+    private AsynchronousFileChannel mockAsyncWriteChannel() throws Exception {
+        AsynchronousFileChannel channel = mock(AsynchronousFileChannel.class);
+        when(channel.size()).thenReturn(0L);
+        doAnswer(invocation -> {
+            ByteBuffer buffer = invocation.getArgument(0);
+            int length = buffer.remaining();
+            buffer.position(buffer.limit());
+            CompletionHandler<Integer, Object> handler = invocation.getArgument(3);
+            handler.completed(length, null);
+            return null;
+        }).when(channel).write(any(), anyLong(), any(), any());
+        return channel;
+    }
+
     private static void fixChannelMock(AbstractInterruptibleChannel mockFileChannel) throws Exception {
         // Note : This is a workaround for NullPointerException.
         // This will break when jdk decides to change implementation.
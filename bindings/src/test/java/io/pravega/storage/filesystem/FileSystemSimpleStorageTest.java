@@ -68,6 +68,28 @@ public class FileSystemSimpleStorageTest extends SimpleStorageTests {
         }
     }
 
+    /**
+     * {@link ChunkStorageTests} tests for {@link FileSystemChunkStorage} with a small channel cache, group sync enabled
+     * and asynchronous operations running on an executor.
+     */
+    public static class FileSystemChunkStorageWithGroupSyncTests extends ChunkStorageTests {
+        @Override
+        protected int getThreadPoolSize() {
+            return 3;
+        }
+
+        @Override
+        protected ChunkStorage createChunkStorage() throws Exception {
+            File baseDir = Files.createTempDirectory("test_nfs").toFile().getAbsoluteFile();
+            return new FileSystemChunkStorage(FileSystemStorageConfig
+                    .builder()
+                    .with(FileSystemStorageConfig.ROOT, baseDir.getAbsolutePath())
+                    .with(FileSystemStorageConfig.CHANNEL_CACHE_SIZE, 2)
+                    .with(FileSystemStorageConfig.GROUP_SYNC_WINDOW_MILLIS, 1)
+                    .build(), executorService());
+        }
+    }
+
     /**
      * {@link SystemJournalTests} tests for {@link FileSystemChunkStorage} based {@link io.pravega.segmentstore.storage.Storage}.
      */
@@ -0,0 +1,106 @@
+/**
+ * Copyright (c) Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.storage.filesystem;
+
+import io.pravega.common.ObjectClosedException;
+import io.pravega.test.common.AssertExtensions;
+import io.pravega.test.common.ThreadPooledTestSuite;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.Cleanup;
+import lombok.val;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Unit tests for the {@link GroupSync} class.
+ */
+public class GroupSyncTests extends ThreadPooledTestSuite {
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(TIMEOUT.getSeconds());
+
+    @Override
+    protected int getThreadPoolSize() {
+        return 1;
+    }
+
+    /**
+     * Tests that multiple sync requests for the same chunk within the same window result in a single sync, and that
+     * failures only affect the requests for the failed chunk.
+     */
+    @Test
+    public void testSync() throws Exception {
+        val aCount = new AtomicInteger();
+        val bCount = new AtomicInteger();
+        @Cleanup
+        val s = new GroupSync(TIMEOUT.toMillis(), executorService());
+        val a1 = s.sync("a", aCount::incrementAndGet);
+        val a2 = s.sync("a", aCount::incrementAndGet);
+        val b = s.sync("b", bCount::incrementAndGet);
+        val c = s.sync("c", () -> {
+            throw new IOException("intentional");
+        });
+        Assert.assertFalse("Not expecting any sync before the window ends.", a1.isDone() || b.isDone() || c.isDone());
+        Assert.assertSame("Expected requests for the same chunk to be merged.", a1, a2);
+
+        // Force the sync to execute now rather than waiting for the window to end.
+        s.syncAll();
+
+        a1.get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        b.get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        Assert.assertEquals(1, aCount.get());
+        Assert.assertEquals(1, bCount.get());
+        AssertExtensions.assertSuppliedFutureThrows(
+                "Expected the failed sync to be reported.",
+                () -> c,
+                ex -> ex instanceof IOException);
+
+        // A new request after the sync should result in a new sync.
+        val a3 = s.sync("a", aCount::incrementAndGet);
+        Assert.assertNotSame(a1, a3);
+    }
+
+    /**
+     * Tests that pending syncs are executed once the window ends.
+     */
+    @Test
+    public void testWindow() throws Exception {
+        val count = new AtomicInteger();
+        @Cleanup
+        val s = new GroupSync(1, executorService());
+        val futures = new CompletableFuture[]{s.sync("a", count::incrementAndGet), s.sync("b", count::incrementAndGet)};
+        CompletableFuture.allOf(futures).get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        Assert.assertEquals(2, count.get());
+    }
+
+    /**
+     * Tests the close() method.
+     */
+    @Test
+    public void testClose() {
+        val s = new GroupSync(TIMEOUT.toMillis(), executorService());
+        val pending = s.sync("a", () -> { });
+        s.close();
+        AssertExtensions.assertSuppliedFutureThrows(
+                "Pending sync was not failed when closing.",
+                () -> pending,
+                ex -> ex instanceof ObjectClosedException);
+        AssertExtensions.assertThrows(
+                "sync() worked after close.",
+                () -> s.sync("a", () -> { }),
+                ex -> ex instanceof ObjectClosedException);
+    }
+}
@@ -21,8 +21,10 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import javax.annotation.concurrent.GuardedBy;
@@ -51,6 +53,7 @@ import io.pravega.shared.protocol.netty.FailingReplyProcessor;
 import io.pravega.shared.protocol.netty.PravegaNodeUri;
 import io.pravega.shared.protocol.netty.WireCommand;
 import io.pravega.shared.protocol.netty.WireCommands;
+import io.pravega.shared.protocol.netty.WireCommands.AppendBackoff;
 import io.pravega.shared.protocol.netty.WireCommands.AppendSetup;
 import io.pravega.shared.protocol.netty.WireCommands.DataAppended;
 import io.pravega.shared.protocol.netty.WireCommands.KeepAlive;
@@ -73,6 +76,12 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 @ToString(of = {"segmentName", "writerId", "state"})
 class SegmentOutputStreamImpl implements SegmentOutputStream {
+    /**
+     * The maximum amount of time we are willing to pause appends for upon receiving an {@link AppendBackoff}, regardless
+     * of what the server asks for.
+     */
+    @VisibleForTesting
+    static final long MAX_APPEND_BACKOFF_MILLIS = 10000;
 
     @Getter
     private final String segmentName;
@@ -91,6 +100,7 @@ class SegmentOutputStreamImpl implements SegmentOutputStream {
     @VisibleForTesting
     @Getter
     private final long requestId = Flow.create().asLong();
+    private volatile Supplier<Long> nanoClock = System::nanoTime;
 
     /**
      * Internal object that tracks the state of the connection.
@@ -117,6 +127,12 @@ class SegmentOutputStreamImpl implements SegmentOutputStream {
         private long eventNumber = 0;
         @GuardedBy("lock")
         private long segmentLength = -1;
+        @GuardedBy("lock")
+        private long backoffDeadlineNanos = 0;
+        @GuardedBy("lock")
+        private boolean backoffRequested = false;
+        @GuardedBy("lock")
+        private long deferredFromEventNumber = -1;
         private final ReusableFutureLatch<ClientConnection> setupConnection = new ReusableFutureLatch<>();
         private final ReusableLatch waitingInflight = new ReusableLatch(true);
         private final AtomicBoolean needSuccessors = new AtomicBoolean();
@@ -152,6 +168,66 @@ class SegmentOutputStreamImpl implements SegmentOutputStream {
             }
         }
 
+        private void noteBackoff(long backoffMillis) {
+            long deadline = nanoClock.get() + TimeUnit.MILLISECONDS.toNanos(Math.min(backoffMillis, MAX_APPEND_BACKOFF_MILLIS));
+            synchronized (lock) {
+                if (!backoffRequested || deadline - backoffDeadlineNanos > 0) {
+                    backoffDeadlineNanos = deadline;
+                    backoffRequested = true;
+                }
+            }
+        }
+
+        private long getRemainingBackoffMillis() {
+            synchronized (lock) {
+                if (!backoffRequested) {
+                    return 0;
+                }
+                long remainingNanos = backoffDeadlineNanos - nanoClock.get();
+                if (remainingNanos <= 0) {
+                    backoffRequested = false;
+                    return 0;
+                }
+                // Round up, so that we never wake up before the deadline.
+                return TimeUnit.NANOSECONDS.toMillis(remainingNanos + TimeUnit.MILLISECONDS.toNanos(1) - 1);
+            }
+        }
+
+        /**
+         * @return True if appends are currently being held back because of a backoff.
+         */
+        private boolean isDeferringAppends() {
+            synchronized (lock) {
+                return deferredFromEventNumber >= 0;
+            }
+        }
+
+        /**
+         * Holds back the inflight event with the given number, and every event added after it, until
+         * {@link #takeDeferred()} is invoked.
+         */
+        private void deferFrom(long eventNumber) {
+            synchronized (lock) {
+                if (deferredFromEventNumber < 0) {
+                    deferredFromEventNumber = eventNumber;
+                }
+            }
+        }
+
+        /**
+         * Stops holding back appends and returns the inflight events which have been held back so far.
+         */
+        private List<Map.Entry<Long, PendingEvent>> takeDeferred() {
+            synchronized (lock) {
+                if (deferredFromEventNumber < 0) {
+                    return Collections.emptyList();
+                }
+                long from = deferredFromEventNumber;
+                deferredFromEventNumber = -1;
+                return inflight.stream().filter(entry -> entry.getKey() >= from).collect(Collectors.toList());
+            }
+        }
+
         private void connectionSetupComplete(ClientConnection connection) {
             CompletableFuture<Void> toComplete;
             synchronized (lock) {
@@ -280,8 +356,13 @@ class SegmentOutputStreamImpl implements SegmentOutputStream {
             }
         }
 
-        private List<Map.Entry<Long, PendingEvent>> getAllInflight() {
+        /**
+         * Returns all the inflight events so they can be retransmitted. As they are all about to be sent, any events being
+         * held back by a backoff are no longer held back.
+         */
+        private List<Map.Entry<Long, PendingEvent>> getAllInflightForRetransmit() {
             synchronized (lock) {
+                deferredFromEventNumber = -1;
                 return new ArrayList<>(inflight);
             }
         }
@@ -377,12 +458,22 @@ class SegmentOutputStreamImpl implements SegmentOutputStream {
             }
         }
 
+        @Override
+        public void appendBackoff(AppendBackoff appendBackoff) {
+            if (!writerId.equals(appendBackoff.getWriterId())) {
+                log.warn("Ignoring appendBackoff for writer {} on writer {}", appendBackoff.getWriterId(), writerId);
+                return;
+            }
+            log.debug("Received appendBackoff: {}", appendBackoff);
+            state.noteBackoff(appendBackoff.getBackoffMillis());
+        }
+
         @Override
         public void appendSetup(AppendSetup appendSetup) {
             log.info("Received appendSetup {}", appendSetup);
             long ackLevel = appendSetup.getLastEventNumber();
             ackUpTo(ackLevel);
-            List<Append> toRetransmit = state.getAllInflight()
+            List<Append> toRetransmit = state.getAllInflightForRetransmit()
                                              .stream()
                                              .map(entry -> new Append(segmentName, writerId, entry.getKey(),
                                                                       entry.getValue().getEventCount(),
@@ -489,6 +580,9 @@ class SegmentOutputStreamImpl implements SegmentOutputStream {
                 return;
             }
             long eventNumber = state.addToInflight(event);
+            if (deferIfBackingOff(eventNumber)) {
+                return;
+            }
             try {
                 Append append = new Append(segmentName, writerId, eventNumber, event.getEventCount(), event.getData(), null, requestId);
                 log.trace("Sending append request: {}", append);
@@ -570,6 +664,72 @@ class SegmentOutputStreamImpl implements SegmentOutputStream {
         }
     }
 
+    /**
+     * Holds back the given (already inflight) event if the server has asked us to back off from this segment
+     * (see {@link AppendBackoff}), or if earlier events are already being held back. Held back events are sent by
+     * {@link #sendDeferredAppends()} once the backoff elapses; the calling thread is never paused.
+     *
+     * @return True if the event must not be sent now.
+     */
+    @GuardedBy("writeOrderLock")
+    private boolean deferIfBackingOff(long eventNumber) {
+        if (state.isDeferringAppends()) {
+            state.deferFrom(eventNumber);
+            return true;
+        }
+        long backoffMillis = state.getRemainingBackoffMillis();
+        if (backoffMillis <= 0) {
+            return false;
+        }
+        log.debug("Writer {} backing off from segment {} for {}ms.", writerId, segmentName, backoffMillis);
+        state.deferFrom(eventNumber);
+        scheduleDeferredAppends(backoffMillis);
+        return true;
+    }
+
+    private void scheduleDeferredAppends(long delayMillis) {
+        connectionPool.getInternalExecutor().schedule(this::sendDeferredAppends, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Sends the events which were held back by {@link #deferIfBackingOff}, unless the backoff has been extended since, in
+     * which case this is rescheduled.
+     */
+    @VisibleForTesting
+    void sendDeferredAppends() {
+        synchronized (writeOrderLock) {
+            if (!state.isDeferringAppends()) {
+                return;
+            }
+            long backoffMillis = state.getRemainingBackoffMillis();
+            if (backoffMillis > 0) {
+                scheduleDeferredAppends(backoffMillis);
+                return;
+            }
+            List<Map.Entry<Long, PendingEvent>> toSend = state.takeDeferred();
+            ClientConnection connection = state.getConnection();
+            if (connection == null) {
+                // The events are still inflight, so they will be retransmitted once a connection is set up.
+                return;
+            }
+            log.debug("Writer {} sending {} appends to segment {} after backoff.", writerId, toSend.size(), segmentName);
+            try {
+                for (Map.Entry<Long, PendingEvent> entry : toSend) {
+                    PendingEvent event = entry.getValue();
+                    connection.send(new Append(segmentName, writerId, entry.getKey(), event.getEventCount(), event.getData(), null, requestId));
+                }
+            } catch (ConnectionFailedException e) {
+                log.warn("Failed writing event through writer " + writerId + " due to: ", e);
+                reconnect(); // As the messages are inflight, this will perform the retransmission.
+            }
+        }
+    }
+
+    @VisibleForTesting
+    void setNanoClock(Supplier<Long> nanoClock) {
+        this.nanoClock = nanoClock;
+    }
+
     private void failConnection(Throwable e) {
         if (e instanceof TokenExpiredException) {
             this.tokenProvider.signalTokenExpired();
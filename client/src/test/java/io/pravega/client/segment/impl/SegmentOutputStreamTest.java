@@ -29,6 +29,7 @@ import io.pravega.shared.protocol.netty.ConnectionFailedException;
 import io.pravega.shared.protocol.netty.PravegaNodeUri;
 import io.pravega.shared.protocol.netty.ReplyProcessor;
 import io.pravega.shared.protocol.netty.WireCommands;
+import io.pravega.shared.protocol.netty.WireCommands.AppendBackoff;
 import io.pravega.shared.protocol.netty.WireCommands.AppendSetup;
 import io.pravega.shared.protocol.netty.WireCommands.SetupAppend;
 import io.pravega.test.common.AssertExtensions;
@@ -45,6 +46,7 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 import lombok.Cleanup;
 import org.junit.Test;
@@ -102,6 +104,50 @@ public class SegmentOutputStreamTest extends LeakDetectorTestSuite {
         verifyNoMoreInteractions(connection);
     }
 
+    @Test(timeout = 10000)
+    public void testAppendBackoff() throws SegmentSealedException, ConnectionFailedException {
+        UUID cid = UUID.randomUUID();
+        PravegaNodeUri uri = new PravegaNodeUri("endpoint", SERVICE_PORT);
+        MockConnectionFactoryImpl cf = new MockConnectionFactoryImpl();
+        cf.setExecutor(executorService());
+        MockController controller = new MockController(uri.getEndpoint(), uri.getPort(), cf, true);
+        ClientConnection connection = mock(ClientConnection.class);
+        cf.provideConnection(uri, connection);
+        SegmentOutputStreamImpl output = new SegmentOutputStreamImpl(SEGMENT, true, controller, cf, cid, segmentSealedCallback,
+                                                                     RETRY_SCHEDULE, DelegationTokenProviderFactory.createWithEmptyToken());
+        output.reconnect();
+        verify(connection).send(new SetupAppend(output.getRequestId(), cid, SEGMENT, ""));
+        cf.getProcessor(uri).appendSetup(new AppendSetup(output.getRequestId(), SEGMENT, cid, 0));
+
+        AtomicLong clock = new AtomicLong();
+        output.setNanoClock(clock::get);
+
+        // A backoff for a different writer should be ignored.
+        long backoffMillis = 5000;
+        cf.getProcessor(uri).appendBackoff(new AppendBackoff(output.getRequestId(), UUID.randomUUID(), SEGMENT, backoffMillis));
+        sendAndVerifyEvent(cid, connection, output, getBuffer("test1"), 1);
+
+        // Appends made while backing off should be held back (without blocking the caller) until the backoff has elapsed.
+        cf.getProcessor(uri).appendBackoff(new AppendBackoff(output.getRequestId(), cid, SEGMENT, backoffMillis));
+        ByteBuffer data2 = getBuffer("test2");
+        ByteBuffer data3 = getBuffer("test3");
+        output.write(PendingEvent.withoutHeader(null, data2, new CompletableFuture<>()));
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(backoffMillis - 1));
+        output.write(PendingEvent.withoutHeader(null, data3, new CompletableFuture<>()));
+        output.sendDeferredAppends();
+        verifyNoMoreInteractions(connection);
+
+        // Once the backoff elapses, the held back appends should be sent in order, and nothing more should be held back.
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+        output.sendDeferredAppends();
+        InOrder order = inOrder(connection);
+        order.verify(connection).send(new Append(SEGMENT, cid, 2, 1, Unpooled.wrappedBuffer(data2), null, output.getRequestId()));
+        order.verify(connection).send(new Append(SEGMENT, cid, 3, 1, Unpooled.wrappedBuffer(data3), null, output.getRequestId()));
+        sendAndVerifyEvent(cid, connection, output, getBuffer("test4"), 4);
+        output.sendDeferredAppends();
+        verifyNoMoreInteractions(connection);
+    }
+
     @Test(timeout = 10000)
     public void testRecvErrorMessage() throws SegmentSealedException, ConnectionFailedException {
         int requestId = 0;
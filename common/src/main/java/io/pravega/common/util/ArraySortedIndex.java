@@ -0,0 +1,330 @@
+/**
+ * Copyright (c) Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.common.util;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * SortedIndex backed by a pair of parallel arrays: a sorted array of (primitive) keys and an array of items.
+ * <p>
+ * Compared to the tree-based indices ({@link AvlTreeIndex}, {@link RedBlackTreeIndex}), this index does not allocate any
+ * objects per item and all lookups are binary searches over a contiguous array of keys (which does not require accessing
+ * the items themselves). This makes it a good choice for indices that are mostly appended to at the end and trimmed at
+ * the beginning, as well as for large numbers of small indices, due to its low memory overhead.
+ * <p>
+ * Notes:
+ * <ul>
+ * <li> Items occupy a contiguous region of the arrays, which may have free space at both ends. Insertions and removals
+ * shift the items on whichever side of the affected position has fewer items, so insertions and removals at either end
+ * of the index are O(1) (amortized), while all others are O(n). Use {@link #removeIf} to remove many items at once,
+ * which requires a single pass over the index regardless of how many items it removes.
+ * <li> The arrays are grown (or re-centered) as needed and shrunk when their utilization drops too low. A non-empty
+ * index never has a capacity much greater than four times its size, and an empty one does not hold any arrays at all.
+ * <li> Only the keys are stored as primitives. The items are stored by reference as they are, since this class does not
+ * know (or require) their layout; the overhead of the index itself is therefore one long and one reference per array
+ * slot.
+ * <li> This class is not thread-safe and requires external synchronization when in a multi-threaded environment.
+ * </ul>
+ *
+ * @param <V> The type of the IndexEntries.
+ */
+@NotThreadSafe
+public class ArraySortedIndex<V extends SortedIndex.IndexEntry> implements SortedIndex<V> {
+    //region Members
+
+    private static final int INITIAL_CAPACITY = 8;
+    private static final long[] EMPTY_KEYS = new long[0];
+    private static final Object[] EMPTY_ITEMS = new Object[0];
+    private long[] keys;
+    private Object[] items;
+    private int start;
+    private int size;
+    private int modCount;
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the ArraySortedIndex class. No memory is allocated until the first item is inserted.
+     */
+    public ArraySortedIndex() {
+        this.keys = EMPTY_KEYS;
+        this.items = EMPTY_ITEMS;
+        this.start = 0;
+        this.size = 0;
+        this.modCount = 0;
+    }
+
+    //endregion
+
+    //region SortedIndex Implementation
+
+    @Override
+    public void clear() {
+        this.keys = EMPTY_KEYS;
+        this.items = EMPTY_ITEMS;
+        this.start = 0;
+        this.size = 0;
+        this.modCount++;
+    }
+
+    @Override
+    public V put(V item) {
+        Preconditions.checkNotNull(item, "item");
+        long key = item.key();
+        int index = find(key);
+        this.modCount++;
+        if (index >= 0) {
+            // Key already exists; replace the item.
+            V result = itemAt(index);
+            this.items[index] = item;
+            return result;
+        }
+
+        index = makeRoom(-index - 1);
+        this.keys[index] = key;
+        this.items[index] = item;
+        this.size++;
+        return null;
+    }
+
+    @Override
+    public V remove(long key) {
+        int index = find(key);
+        if (index < 0) {
+            return null;
+        }
+
+        V result = itemAt(index);
+        int end = this.start + this.size;
+        if (index - this.start < end - index - 1) {
+            // Fewer items before this one; shift them to the right.
+            System.arraycopy(this.keys, this.start, this.keys, this.start + 1, index - this.start);
+            System.arraycopy(this.items, this.start, this.items, this.start + 1, index - this.start);
+            this.items[this.start] = null;
+            this.start++;
+        } else {
+            // Fewer items after this one; shift them to the left.
+            System.arraycopy(this.keys, index + 1, this.keys, index, end - index - 1);
+            System.arraycopy(this.items, index + 1, this.items, index, end - index - 1);
+            this.items[end - 1] = null;
+        }
+
+        this.size--;
+        this.modCount++;
+        shrinkIfNeeded();
+        return result;
+    }
+
+    @Override
+    public boolean removeIf(Predicate<V> filter) {
+        Preconditions.checkNotNull(filter, "filter");
+        final int originalModCount = this.modCount;
+        final int end = this.start + this.size;
+        int readIndex = this.start;
+        int writeIndex = this.start;
+        try {
+            // Move every item we keep to the left, over the ones we remove.
+            for (; readIndex < end; readIndex++) {
+                V item = itemAt(readIndex);
+                boolean remove = filter.test(item);
+                if (originalModCount != this.modCount) {
+                    throw new ConcurrentModificationException("ArraySortedIndex has been modified; removeIf cannot continue.");
+                }
+
+                if (!remove) {
+                    this.keys[writeIndex] = this.keys[readIndex];
+                    this.items[writeIndex] = item;
+                    writeIndex++;
+                }
+            }
+        } finally {
+            if (readIndex < end && writeIndex < readIndex) {
+                // The filter failed. Keep all the items it did not get to.
+                System.arraycopy(this.keys, readIndex, this.keys, writeIndex, end - readIndex);
+                System.arraycopy(this.items, readIndex, this.items, writeIndex, end - readIndex);
+            }
+
+            writeIndex += end - readIndex;
+            if (writeIndex < end) {
+                Arrays.fill(this.items, writeIndex, end, null);
+                this.size = writeIndex - this.start;
+                this.modCount++;
+                shrinkIfNeeded();
+            }
+        }
+
+        return writeIndex < end;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public V get(long key) {
+        int index = find(key);
+        return index >= 0 ? itemAt(index) : null;
+    }
+
+    @Override
+    public V getCeiling(long key) {
+        int index = find(key);
+        if (index < 0) {
+            // Insertion point: the index of the first key greater than the given one.
+            index = -index - 1;
+        }
+
+        return index < this.start + this.size ? itemAt(index) : null;
+    }
+
+    @Override
+    public V getFloor(long key) {
+        int index = find(key);
+        if (index < 0) {
+            // Insertion point minus one: the index of the last key smaller than the given one.
+            index = -index - 2;
+        }
+
+        return index >= this.start ? itemAt(index) : null;
+    }
+
+    @Override
+    public V getFirst() {
+        return this.size == 0 ? null : itemAt(this.start);
+    }
+
+    @Override
+    public V getLast() {
+        return this.size == 0 ? null : itemAt(this.start + this.size - 1);
+    }
+
+    @Override
+    public void forEach(Consumer<V> consumer) {
+        Preconditions.checkNotNull(consumer, "consumer");
+        final int originalModCount = this.modCount;
+        final int end = this.start + this.size;
+        for (int i = this.start; i < end; i++) {
+            consumer.accept(itemAt(i));
+            if (originalModCount != this.modCount) {
+                throw new ConcurrentModificationException("ArraySortedIndex has been modified; forEach cannot continue.");
+            }
+        }
+    }
+
+    //endregion
+
+    //region Properties
+
+    /**
+     * Gets the number of items this index can hold before its arrays need to be resized. The memory used by the index
+     * itself (excluding the items) is proportional to this value.
+     *
+     * @return The capacity.
+     */
+    @VisibleForTesting
+    int getCapacity() {
+        return this.keys.length;
+    }
+
+    //endregion
+
+    //region Helpers
+
+    /**
+     * Locates the given key.
+     *
+     * @param key The key to search.
+     * @return The array index of the key, if found, or (-(insertion point) - 1) otherwise (see {@link Arrays#binarySearch}).
+     */
+    private int find(long key) {
+        return Arrays.binarySearch(this.keys, this.start, this.start + this.size, key);
+    }
+
+    @SuppressWarnings("unchecked")
+    private V itemAt(int index) {
+        return (V) this.items[index];
+    }
+
+    /**
+     * Makes room for a new item at the given insertion point by shifting the items before or after it.
+     *
+     * @param index The insertion point (the array index of the first item with a greater key).
+     * @return The array index where the new item should be placed.
+     */
+    private int makeRoom(int index) {
+        int end = this.start + this.size;
+        int leftMoves = index - this.start;
+        int rightMoves = end - index;
+        boolean canShiftLeft = this.start > 0;
+        boolean canShiftRight = end < this.keys.length;
+        if (!(canShiftLeft && leftMoves <= rightMoves) && !(canShiftRight && rightMoves <= leftMoves)) {
+            // The cheaper side has no room left. Grow the arrays if they are getting full, otherwise just re-center the
+            // items; either way, there will be room on both sides afterwards.
+            int capacity = this.keys.length;
+            int newCapacity = capacity == 0 ? INITIAL_CAPACITY : (this.size + 1 > capacity * 3 / 4 ? capacity * 2 : capacity);
+            int oldStart = this.start;
+            resize(newCapacity);
+            index += this.start - oldStart;
+            end = this.start + this.size;
+        }
+
+        if (this.start > 0 && (leftMoves <= rightMoves || end == this.keys.length)) {
+            // Shift the items before the insertion point to the left.
+            System.arraycopy(this.keys, this.start, this.keys, this.start - 1, leftMoves);
+            System.arraycopy(this.items, this.start, this.items, this.start - 1, leftMoves);
+            this.start--;
+            return index - 1;
+        } else {
+            // Shift the items at and after the insertion point to the right.
+            System.arraycopy(this.keys, index, this.keys, index + 1, rightMoves);
+            System.arraycopy(this.items, index, this.items, index + 1, rightMoves);
+            return index;
+        }
+    }
+
+    /**
+     * Shrinks the arrays if their utilization is too low, or releases them if the index is empty.
+     */
+    private void shrinkIfNeeded() {
+        if (this.size == 0) {
+            clear();
+        } else if (this.keys.length > INITIAL_CAPACITY && this.size < this.keys.length / 4) {
+            resize(Math.max(INITIAL_CAPACITY, this.size * 2));
+        }
+    }
+
+    /**
+     * Copies the items into new arrays of the given capacity, centered within them.
+     *
+     * @param newCapacity The new capacity.
+     */
+    private void resize(int newCapacity) {
+        assert newCapacity >= this.size + 2;
+        int newStart = (newCapacity - this.size) / 2;
+        long[] newKeys = new long[newCapacity];
+        Object[] newItems = new Object[newCapacity];
+        System.arraycopy(this.keys, this.start, newKeys, newStart, this.size);
+        System.arraycopy(this.items, this.start, newItems, newStart, this.size);
+        this.keys = newKeys;
+        this.items = newItems;
+        this.start = newStart;
+    }
+
+    //endregion
+}
@@ -9,7 +9,9 @@
  */
 package io.pravega.common.util;
 
+import java.util.ArrayList;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * Defines an Index that orders its IndexEntries by an Int64 (long) Key.
@@ -46,6 +48,24 @@ public interface SortedIndex<V extends SortedIndex.IndexEntry> {
      */
     V remove(long key);
 
+    /**
+     * Removes all items from the Index that match the given filter.
+     *
+     * @param filter A Predicate that returns true for the items to remove. This must not modify the Index.
+     * @return True if any items were removed, false otherwise.
+     */
+    default boolean removeIf(Predicate<V> filter) {
+        ArrayList<V> toRemove = new ArrayList<>();
+        forEach(item -> {
+            if (filter.test(item)) {
+                toRemove.add(item);
+            }
+        });
+
+        toRemove.forEach(item -> remove(item.key()));
+        return !toRemove.isEmpty();
+    }
+
     /**
      * Gets a value indicating the number of items in the Index.
      *
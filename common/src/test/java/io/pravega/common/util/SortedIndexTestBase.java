@@ -10,14 +10,17 @@
 package io.pravega.common.util;
 
 import io.pravega.test.common.AssertExtensions;
+import io.pravega.test.common.IntentionalException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.ConcurrentModificationException;
 import java.util.LinkedList;
 import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.val;
 import org.junit.Assert;
@@ -54,6 +57,51 @@ abstract class SortedIndexTestBase {
         }
     }
 
+    /**
+     * Unit tests for the ArraySortedIndex class.
+     */
+    public static class ArraySortedIndexTests extends SortedIndexTestBase {
+        @Override
+        protected SortedIndex<TestEntry> createIndex() {
+            return new ArraySortedIndex<>();
+        }
+
+        /**
+         * Verifies the memory footprint of the index itself (excluding the items) under a workload similar to that of
+         * a read index: items are appended at the end and removed from the beginning, one by one or in bulk.
+         */
+        @Test
+        public void testCapacity() {
+            val index = new ArraySortedIndex<TestEntry>();
+            Assert.assertEquals("Not expecting any memory to be allocated for an empty index.", 0, index.getCapacity());
+            long firstKey = 0;
+            for (int i = 0; i < ITEM_COUNT; i++) {
+                index.put(new TestEntry(i));
+                checkCapacity(index);
+                if (i % 3 == 2) {
+                    index.remove(firstKey++);
+                    checkCapacity(index);
+                }
+            }
+
+            while (index.size() > 0) {
+                final long cutoff = firstKey + Math.max(1, index.size() / 3);
+                index.removeIf(e -> e.key() < cutoff);
+                firstKey = cutoff;
+                checkCapacity(index);
+            }
+
+            Assert.assertEquals("Expected all memory to be released once the index is empty.", 0, index.getCapacity());
+        }
+
+        private void checkCapacity(ArraySortedIndex<TestEntry> index) {
+            if (index.size() > 0) {
+                AssertExtensions.assertLessThanOrEqual("Unexpected capacity for size " + index.size(),
+                        Math.max(8, 4 * (index.size() + 1)), index.getCapacity());
+            }
+        }
+    }
+
     //endregion
 
     //region Test Definitions
@@ -143,6 +191,55 @@ abstract class SortedIndexTestBase {
         }
     }
 
+    /**
+     * Tests the removeIf() method.
+     */
+    @Test
+    public void testRemoveIf() {
+        val index = createIndex();
+        val keys = populate(index);
+        keys.sort(KEY_COMPARATOR);
+
+        // Remove every third item, then verify the remaining ones are intact and in order.
+        Assert.assertTrue("Expected items to be removed.", index.removeIf(e -> e.key() % 3 == 0));
+        Assert.assertFalse("Not expecting any items to be removed.", index.removeIf(e -> e.key() % 3 == 0));
+        val expectedKeys = new ArrayList<Long>();
+        keys.stream().filter(key -> key % 3 != 0).forEach(expectedKeys::add);
+        val actualKeys = new ArrayList<Long>();
+        index.forEach(e -> actualKeys.add(e.key()));
+        AssertExtensions.assertListEquals("Unexpected items remaining.", expectedKeys, actualKeys, Long::equals);
+        Assert.assertEquals("Unexpected value from getFirst().", (long) expectedKeys.get(0), index.getFirst().key());
+        Assert.assertEquals("Unexpected value from getLast().", (long) expectedKeys.get(expectedKeys.size() - 1), index.getLast().key());
+        for (long key : keys) {
+            Assert.assertEquals("Unexpected result from get() for key " + key, key % 3 != 0, index.get(key) != null);
+        }
+
+        // A failed filter should not remove anything it did not get to.
+        val testedCount = new AtomicInteger();
+        AssertExtensions.assertThrows(
+                "Expected the filter exception to be rethrown.",
+                () -> index.removeIf(e -> {
+                    if (testedCount.incrementAndGet() > expectedKeys.size() / 2) {
+                        throw new IntentionalException();
+                    }
+                    return e.key() % 2 == 0;
+                }),
+                ex -> ex instanceof IntentionalException);
+        val remainingKeys = new ArrayList<Long>();
+        index.forEach(e -> remainingKeys.add(e.key()));
+        Assert.assertTrue("Expected all items with odd keys to remain.",
+                remainingKeys.containsAll(expectedKeys.stream().filter(key -> key % 2 != 0).collect(Collectors.toList())));
+        for (int i = 1; i < remainingKeys.size(); i++) {
+            Assert.assertTrue("Expected items to remain sorted.", remainingKeys.get(i - 1) < remainingKeys.get(i));
+        }
+
+        // Remove everything.
+        Assert.assertTrue("Expected items to be removed.", index.removeIf(e -> true));
+        Assert.assertEquals("Expected an empty index.", 0, index.size());
+        Assert.assertNull("Unexpected value from getFirst() when index is empty.", index.getFirst());
+        Assert.assertNull("Unexpected value from getLast() when index is empty.", index.getLast());
+    }
+
     /**
      * Tests the clear() method.
      */
@@ -377,7 +474,9 @@ abstract class SortedIndexTestBase {
                 PerfResult partialResult = new PerfResult(itemCount);
                 results.add(partialResult);
 
+                long usedMemory = getUsedMemory();
                 partialResult.insertElapsed = measure(() -> insert(index, itemCount));
+                partialResult.usedMemory = getUsedMemory() - usedMemory;
                 partialResult.getElapsed = measure(() -> readExact(index, itemCount));
                 partialResult.ceilingElapsed = measure(() -> readCeiling(index, itemCount));
                 partialResult.lastElapsed = measure(() -> readLast(index, itemCount));
@@ -387,6 +486,14 @@ abstract class SortedIndexTestBase {
             outputStats(indexName, "Get    ", r -> r.getElapsed, results);
             outputStats(indexName, "Ceiling", r -> r.ceilingElapsed, results);
             outputStats(indexName, "Last   ", r -> r.lastElapsed, results);
+            double footprint = results.stream().mapToDouble(r -> r.usedMemory / (double) r.count).average().orElse(-1);
+            System.out.println(String.format("%s.Memory : Avg = %.1f bytes/item (including items)", indexName, footprint));
+        }
+
+        private long getUsedMemory() {
+            System.gc();
+            Runtime runtime = Runtime.getRuntime();
+            return runtime.totalMemory() - runtime.freeMemory();
         }
 
         private void outputStats(String indexName, String statsName, Function<PerfResult, Long> statsProvider, Collection<PerfResult> results) {
@@ -434,6 +541,7 @@ abstract class SortedIndexTestBase {
             long getElapsed;
             long ceilingElapsed;
             long lastElapsed;
+            long usedMemory;
         }
     }
 
@@ -292,6 +292,11 @@ class SegmentStoreConnectionManager implements AutoCloseable {
             execute(ReplyProcessor::conditionalCheckFailed, dataNotAppended);
         }
 
+        @Override
+        public void appendBackoff(WireCommands.AppendBackoff appendBackoff) {
+            execute(ReplyProcessor::appendBackoff, appendBackoff);
+        }
+
         @Override
         public void segmentRead(WireCommands.SegmentRead segmentRead) {
             execute(ReplyProcessor::segmentRead, segmentRead);
@@ -234,6 +234,11 @@ public class SegmentStoreConnectionManagerTest {
 
             }
 
+            @Override
+            public void appendBackoff(WireCommands.AppendBackoff appendBackoff) {
+
+            }
+
             @Override
             public void segmentRead(WireCommands.SegmentRead segmentRead) {
 
@@ -104,6 +104,25 @@ public class Attributes {
      */
     public static final UUID ATTRIBUTE_SEGMENT_TYPE = new UUID(CORE_ATTRIBUTE_ID_PREFIX, 9);
 
+    /**
+     * Defines a Boolean-like attribute that, if set to {@link #BOOLEAN_TRUE}, prevents the Segment's data from being
+     * compressed in the Segment Store Cache (even if Cache compression is enabled).
+     */
+    public static final UUID DISABLE_CACHE_COMPRESSION = new UUID(CORE_ATTRIBUTE_ID_PREFIX, 10);
+
+    /**
+     * Defines an attribute that can be used to set the {@link CachePriority} of a Segment (using {@link CachePriority#getValue()}).
+     * If not set, the Segment Store's configuration determines the priority.
+     */
+    public static final UUID CACHE_PRIORITY = new UUID(CORE_ATTRIBUTE_ID_PREFIX, 11);
+
+    /**
+     * Defines an attribute that can be used to limit the number of bytes a Segment may have in the Segment Store Cache.
+     * Once exceeded, the Segment's oldest Cache entries are evicted first. If not set (or not a positive number), the
+     * Segment Store's configuration determines the quota.
+     */
+    public static final UUID CACHE_QUOTA = new UUID(CORE_ATTRIBUTE_ID_PREFIX, 12);
+
     /**
      * Determines whether the given attribute cannot be modified once originally set on the Segment.
      *
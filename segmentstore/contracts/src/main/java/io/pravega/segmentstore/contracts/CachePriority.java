@@ -0,0 +1,59 @@
+/**
+ * Copyright (c) Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.contracts;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Defines the priority with which a Segment's data is kept in the Segment Store Cache. This can be set for individual
+ * Segments using the {@link Attributes#CACHE_PRIORITY} attribute.
+ */
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public enum CachePriority {
+    /**
+     * The Segment's data is evicted from the Cache based on its age and the Cache's utilization, along with data from
+     * all other Segments with the same priority. This is the default.
+     */
+    BestEffort(0),
+
+    /**
+     * The Segment's data is only evicted from the Cache if it exceeds the Segment's Cache quota or after all the other
+     * (non-guaranteed) data has already been evicted and the Cache is still above its eviction threshold.
+     */
+    Guaranteed(1),
+
+    /**
+     * The Segment's data is evicted from the Cache as soon as it has been persisted to Storage and data read from
+     * Storage is never inserted into the Cache. Use this for Segments that are read once (if at all), such as archival
+     * streams, so that they do not push other data out of the Cache.
+     */
+    NeverCache(2);
+
+    @Getter
+    private final int value;
+
+    /**
+     * Gets the {@link CachePriority} that has the given value.
+     *
+     * @param value The value to search by.
+     * @return The mapped {@link CachePriority}, or {@link #BestEffort} if the value is not mapped to any priority.
+     */
+    public static CachePriority get(long value) {
+        for (CachePriority p : values()) {
+            if (p.value == value) {
+                return p;
+            }
+        }
+
+        return BestEffort;
+    }
+}
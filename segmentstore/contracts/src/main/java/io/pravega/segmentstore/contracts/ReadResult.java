@@ -85,6 +85,36 @@ public interface ReadResult extends Iterator<ReadResultEntry>, AutoCloseable {
      */
     void setCopyOnRead(boolean value);
 
+    /**
+     * Gets a value indicating whether "Pin-on-Read" is enabled for Cache retrievals. See {@link #setPinOnRead} for more
+     * details.
+     *
+     * @return True if pin-on-read is enabled for this {@link ReadResult}, false otherwise.
+     */
+    default boolean isPinOnRead() {
+        return false;
+    }
+
+    /**
+     * Sets a value indicating whether "Pin-on-Read" is to be enabled for any Cache entry retrievals
+     * ({@link ReadResultEntry#getType()} equals {@link ReadResultEntryType#Cache}). If true, then any data extracted
+     * from the Cache will not be copied; instead it will reference the Cache memory directly, which will remain valid
+     * (even if the Cache entry is evicted) until {@link io.pravega.common.util.BufferView#release()} is invoked on it.
+     * Use this option to avoid copying data that will be handed off (and released) shortly, such as when sending it over
+     * the network. This takes precedence over {@link #setCopyOnRead}.
+     *
+     * Callers that enable this option must release the contents of every {@link ReadResultEntryType#Cache} entry they
+     * retrieve, otherwise the Cache will not be able to reuse the memory backing them. Releasing the contents of other
+     * types of entries has no effect.
+     *
+     * Implementations that do not support this option will ignore it and behave as per {@link #isCopyOnRead()}.
+     *
+     * @param value True if enabling pin-on-read for this {@link ReadResult}, false otherwise.
+     */
+    default void setPinOnRead(boolean value) {
+        // This implementation does not support pinning.
+    }
+
     /**
      * Gets a value indicating whether this ReadResult is fully consumed (either because it was read in its entirety
      * or because it was closed externally).
@@ -77,6 +77,22 @@ public interface StreamSegmentStore {
      */
     CompletableFuture<Long> append(String streamSegmentName, long offset, BufferView data, Collection<AttributeUpdate> attributeUpdates, Duration timeout);
 
+    /**
+     * Gets the amount of time that writers to the given StreamSegment should back off for before sending more appends
+     * to it. A non-zero value indicates that the StreamSegmentStore is throttling appends due to resource pressure and
+     * that this StreamSegment is one of those contributing to it; writers that honor this may avoid having their appends
+     * time out and will relieve the pressure for other StreamSegments sharing the same resources.
+     *
+     * This method does not block and does not perform any I/O; it returns {@link Duration#ZERO} if the StreamSegment is
+     * not currently loaded or if the information is not available.
+     *
+     * @param streamSegmentName The name of the StreamSegment.
+     * @return The suggested backoff, or {@link Duration#ZERO} if no backoff is required.
+     */
+    default Duration getAppendBackoff(String streamSegmentName) {
+        return Duration.ZERO;
+    }
+
     /**
      * Performs an attribute update operation on the given Segment.
      *
@@ -26,6 +26,8 @@ import io.pravega.segmentstore.server.store.ServiceBuilderConfig;
 import io.pravega.segmentstore.server.store.ServiceConfig;
 import io.pravega.segmentstore.storage.impl.bookkeeper.BookKeeperConfig;
 import io.pravega.segmentstore.storage.impl.bookkeeper.BookKeeperLogFactory;
+import io.pravega.segmentstore.storage.impl.filesystem.FileSystemLogConfig;
+import io.pravega.segmentstore.storage.impl.filesystem.FileSystemLogFactory;
 import io.pravega.segmentstore.storage.mocks.InMemoryDurableDataLogFactory;
 import io.pravega.shared.metrics.MetricsConfig;
 import io.pravega.shared.metrics.MetricsProvider;
@@ -165,6 +167,9 @@ public final class ServiceStarter {
             switch (this.serviceConfig.getDataLogTypeImplementation()) {
                 case BOOKKEEPER:
                     return new BookKeeperLogFactory(setup.getConfig(BookKeeperConfig::builder), this.zkClient, setup.getCoreExecutor());
+                case FILESYSTEM:
+                    // Appends block on disk syncs, so they are better suited for the Storage executor.
+                    return new FileSystemLogFactory(setup.getConfig(FileSystemLogConfig::builder), setup.getStorageExecutor());
                 case INMEMORY:
                     return new InMemoryDurableDataLogFactory(setup.getCoreExecutor());
                 default:
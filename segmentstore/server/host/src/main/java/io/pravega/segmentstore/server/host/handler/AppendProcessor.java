@@ -39,6 +39,7 @@ import io.pravega.shared.protocol.netty.DelegatingRequestProcessor;
 import io.pravega.shared.protocol.netty.FailingRequestProcessor;
 import io.pravega.shared.protocol.netty.RequestProcessor;
 import io.pravega.shared.protocol.netty.WireCommands;
+import io.pravega.shared.protocol.netty.WireCommands.AppendBackoff;
 import io.pravega.shared.protocol.netty.WireCommands.AppendSetup;
 import io.pravega.shared.protocol.netty.WireCommands.ConditionalCheckFailed;
 import io.pravega.shared.protocol.netty.WireCommands.DataAppended;
@@ -59,6 +60,7 @@ import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
 import io.pravega.shared.security.token.JsonWebToken;
@@ -79,6 +81,12 @@ public class AppendProcessor extends DelegatingRequestProcessor {
     //region Members
 
     static final Duration TIMEOUT = Duration.ofMinutes(1);
+    /**
+     * The lowest wire protocol version that supports {@link AppendBackoff}. Clients that advertise a lower version in
+     * their {@link Hello} would not be able to decode it.
+     */
+    @VisibleForTesting
+    static final int APPEND_BACKOFF_MIN_WIRE_VERSION = 11;
     private static final String EMPTY_STACK_TRACE = "";
     private static final TagLogger log = new TagLogger(LoggerFactory.getLogger(AppendProcessor.class));
     @NonNull
@@ -96,6 +104,7 @@ public class AppendProcessor extends DelegatingRequestProcessor {
     private final boolean replyWithStackTraceOnError;
     private final ConcurrentHashMap<Pair<String, UUID>, WriterState> writerStates = new ConcurrentHashMap<>();
     private final AtomicLong outstandingBytes = new AtomicLong();
+    private final AtomicInteger clientWireVersion = new AtomicInteger();
     private final ScheduledExecutorService tokenExpiryHandlerExecutor;
 
     //endregion
@@ -124,6 +133,7 @@ public class AppendProcessor extends DelegatingRequestProcessor {
     public void hello(Hello hello) {
         log.info("Received hello from connection: {}", connection);
         connection.send(new Hello(WireCommands.WIRE_VERSION, WireCommands.OLDEST_COMPATIBLE_VERSION));
+        this.clientWireVersion.set(hello.getHighVersion());
         if (hello.getLowVersion() > WireCommands.WIRE_VERSION || hello.getHighVersion() < WireCommands.OLDEST_COMPATIBLE_VERSION) {
             log.warn(hello.getRequestId(), "Incompatible wire protocol versions {} from connection {}", hello, connection);
             connection.close();
@@ -261,6 +271,8 @@ public class AppendProcessor extends DelegatingRequestProcessor {
                     }
                 }
 
+                signalBackoffIfNeeded(append, state);
+
                 if (append.getEventNumber() > state.getLowestFailedEventNumber()) {
                     // The Store should not be successfully completing an Append that followed a failed one. If somehow
                     // this happened, record it in the log.
@@ -298,6 +310,27 @@ public class AppendProcessor extends DelegatingRequestProcessor {
         }
     }
 
+    /**
+     * Asks the Store whether the Segment of the given Append contributes to any throttling and, if so, sends an
+     * {@link AppendBackoff} to the Client so that it may pause sending appends to it (instead of having them queue up
+     * and potentially time out). No more than one such reply is sent for a writer while a previous backoff is in effect.
+     *
+     * @param append The Append that just completed.
+     * @param state  The {@link WriterState} for the Append's writer.
+     */
+    private void signalBackoffIfNeeded(Append append, WriterState state) {
+        if (this.clientWireVersion.get() < APPEND_BACKOFF_MIN_WIRE_VERSION) {
+            return;
+        }
+
+        Duration backoff = this.store.getAppendBackoff(append.getSegment());
+        if (!backoff.isZero() && !backoff.isNegative() && state.recordBackoff(System.nanoTime(), backoff)) {
+            log.debug(append.getRequestId(), "Asking writer {} to back off from segment '{}' for {}ms.",
+                    append.getWriterId(), append.getSegment(), backoff.toMillis());
+            connection.send(new AppendBackoff(append.getRequestId(), append.getWriterId(), append.getSegment(), backoff.toMillis()));
+        }
+    }
+
     /**
      * Inquires the {@link WriterState} for any eligible {@link WriterState.DelayedErrorHandler} that can be executed
      * right now. If so, invokes all eligible handlers synchronously. If there are no more handlers remaining after this,
@@ -14,6 +14,7 @@ import com.google.common.base.Preconditions;
 import com.google.common.base.Throwables;
 import com.google.common.collect.Iterators;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
 import io.netty.buffer.Unpooled;
 import io.pravega.auth.TokenException;
 import io.pravega.auth.TokenExpiredException;
@@ -227,6 +228,10 @@ public class PravegaRequestProcessor extends FailingRequestProcessor implements
     private void handleReadResult(ReadSegment request, ReadResult result) {
         String segment = request.getSegment();
         ArrayList<BufferView> cachedEntries = new ArrayList<>();
+
+        // Cached data is sent out directly from the Cache (without copying it first). The Cache will not reuse the memory
+        // backing it until it is released, which happens after it has been written to the connection.
+        result.setPinOnRead(true);
         ReadResultEntry nonCachedEntry = collectCachedEntries(request.getOffset(), result, cachedEntries);
         final String operation = "readSegment";
 
@@ -236,10 +241,11 @@ public class PravegaRequestProcessor extends FailingRequestProcessor implements
 
         if (!cachedEntries.isEmpty() || endOfSegment) {
             // We managed to collect some data. Send it.
-            ByteBuf data = toByteBuf(cachedEntries);
+            ByteBuf data = toReleasableByteBuf(cachedEntries);
+            int dataLength = data.readableBytes();
             SegmentRead reply = new SegmentRead(segment, request.getOffset(), atTail, endOfSegment, data, request.getRequestId());
-            connection.send(reply);
-            this.statsRecorder.read(segment, reply.getData().readableBytes());
+            connection.send(reply.requireRelease());
+            this.statsRecorder.read(segment, dataLength);
         } else if (truncated) {
             // We didn't collect any data, instead we determined that the current read offset was truncated.
             // Determine the current Start Offset and send that back.
@@ -296,21 +302,30 @@ public class PravegaRequestProcessor extends FailingRequestProcessor implements
 
     /**
      * Reads all of the cachedEntries from the ReadResult and puts their content into the cachedEntries list.
-     * Upon encountering a non-cached entry, it stops iterating and returns it.
+     * Upon encountering a non-cached entry, it stops iterating and returns it. If this fails, all the entries collected
+     * so far are released.
      */
     private ReadResultEntry collectCachedEntries(long initialOffset, ReadResult readResult, ArrayList<BufferView> cachedEntries) {
         long expectedOffset = initialOffset;
-        while (readResult.hasNext()) {
-            ReadResultEntry entry = readResult.next();
-            if (entry.getType() == Cache) {
-                Preconditions.checkState(entry.getStreamSegmentOffset() == expectedOffset,
-                        "Data returned from read was not contiguous.");
-                BufferView content = entry.getContent().getNow(null);
-                expectedOffset += content.getLength();
-                cachedEntries.add(content);
-            } else {
-                return entry;
+        try {
+            while (readResult.hasNext()) {
+                ReadResultEntry entry = readResult.next();
+                if (entry.getType() == Cache) {
+                    // The content is already pinned, so track it before validating it so that it is released on failure.
+                    BufferView content = entry.getContent().getNow(null);
+                    cachedEntries.add(content);
+                    Preconditions.checkState(entry.getStreamSegmentOffset() == expectedOffset,
+                            "Data returned from read was not contiguous.");
+                    expectedOffset += content.getLength();
+                } else {
+                    return entry;
+                }
             }
+        } catch (Throwable ex) {
+            // Nobody is going to send (and then release) what we collected so far.
+            cachedEntries.forEach(BufferView::release);
+            cachedEntries.clear();
+            throw ex;
         }
         return null;
     }
@@ -324,6 +339,13 @@ public class PravegaRequestProcessor extends FailingRequestProcessor implements
         return Unpooled.wrappedUnmodifiableBuffer(Iterators.toArray(b, ByteBuf.class));
     }
 
+    /**
+     * Same as {@link #toByteBuf(List)}, but the given contents are released when the returned {@link ByteBuf} is released.
+     */
+    private ByteBuf toReleasableByteBuf(List<BufferView> contents) {
+        return new ReleasingByteBuf(toByteBuf(contents), () -> contents.forEach(BufferView::release));
+    }
+
     private ByteBuf toByteBuf(BufferView bufferView) {
         val iterators = Iterators.transform(bufferView.iterateBuffers(), Unpooled::wrappedBuffer);
         return Unpooled.wrappedUnmodifiableBuffer(Iterators.toArray(iterators, ByteBuf.class));
@@ -1025,6 +1047,27 @@ public class PravegaRequestProcessor extends FailingRequestProcessor implements
         }
     }
 
+    /**
+     * {@link CompositeByteBuf} that invokes a callback after it has been deallocated.
+     */
+    private static class ReleasingByteBuf extends CompositeByteBuf {
+        private final Runnable onDeallocate;
+
+        ReleasingByteBuf(ByteBuf data, Runnable onDeallocate) {
+            super(data.alloc(), false, 1, data);
+            this.onDeallocate = onDeallocate;
+        }
+
+        @Override
+        protected void deallocate() {
+            try {
+                super.deallocate();
+            } finally {
+                this.onDeallocate.run();
+            }
+        }
+    }
+
     //region IteratorResult
 
     /**
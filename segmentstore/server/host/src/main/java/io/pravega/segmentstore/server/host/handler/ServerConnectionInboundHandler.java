@@ -11,6 +11,7 @@ package io.pravega.segmentstore.server.host.handler;
 
 import io.netty.buffer.Unpooled;
 import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
@@ -73,15 +74,41 @@ public class ServerConnectionInboundHandler extends ChannelInboundHandlerAdapter
 
     @Override
     public void send(WireCommand cmd) {
-        Channel c = getChannel();
-        // Work around for https://github.com/netty/netty/issues/3246
-        EventLoop eventLoop = c.eventLoop();
-        eventLoop.execute(() -> write(c, cmd));
+        try {
+            Channel c = getChannel();
+            // Work around for https://github.com/netty/netty/issues/3246
+            EventLoop eventLoop = c.eventLoop();
+            eventLoop.execute(() -> write(c, cmd));
+        } catch (Throwable ex) {
+            // The command was never handed off to write(), so nothing else is going to release it.
+            if (cmd instanceof WireCommands.ReleasableCommand) {
+                ((WireCommands.ReleasableCommand) cmd).release();
+            }
+            throw ex;
+        }
     }
 
     private static void write(Channel channel, WireCommand data) {
-        channel.write(data).addListener(ChannelFutureListener.FIRE_EXCEPTION_ON_FAILURE);
-    }  
+        if (!(data instanceof WireCommands.ReleasableCommand)) {
+            channel.write(data).addListener(ChannelFutureListener.FIRE_EXCEPTION_ON_FAILURE);
+            return;
+        }
+
+        // Whether the write succeeded or not, we no longer need the command's buffers once it completed, but not any
+        // earlier: the pipeline may still reference them after write() returns (Eg. if the encoder does not copy them).
+        WireCommands.ReleasableCommand releasable = (WireCommands.ReleasableCommand) data;
+        ChannelFuture future;
+        try {
+            future = channel.write(data);
+        } catch (Throwable ex) {
+            // The write never started, so there will be no completion to release it on.
+            releasable.release();
+            throw ex;
+        }
+
+        future.addListener(ChannelFutureListener.FIRE_EXCEPTION_ON_FAILURE);
+        future.addListener(f -> releasable.release());
+    }
     
     @Override
     public void setRequestProcessor(RequestProcessor rp) {
@@ -12,6 +12,7 @@ package io.pravega.segmentstore.server.host.handler;
 import com.google.common.base.Preconditions;
 import io.pravega.segmentstore.contracts.BadOffsetException;
 import io.pravega.shared.protocol.netty.WireCommands;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.Iterator;
@@ -64,6 +65,12 @@ class WriterState {
      */
     @GuardedBy("this")
     private ArrayList<ErrorContext> errorContexts;
+    /**
+     * The time (as given by {@link System#nanoTime()}) until which the Client has been asked to back off, or null if it
+     * has never been asked to do so.
+     */
+    @GuardedBy("this")
+    private Long backoffDeadlineNanos;
 
     //endregion
 
@@ -177,6 +184,25 @@ class WriterState {
         return this.smallestFailedEventNumber;
     }
 
+    /**
+     * Records the fact that the Client should back off for the given amount of time, unless a previously recorded backoff
+     * is still in effect. This is used to avoid sending a {@link WireCommands.AppendBackoff} for every single append while
+     * the Client is already backing off.
+     *
+     * @param currentTimeNanos The current time, as given by {@link System#nanoTime()}.
+     * @param backoff          The backoff to record.
+     * @return True if the backoff has been recorded (and the Client should be notified), false if a previous backoff is
+     * still in effect.
+     */
+    synchronized boolean recordBackoff(long currentTimeNanos, Duration backoff) {
+        if (this.backoffDeadlineNanos != null && currentTimeNanos - this.backoffDeadlineNanos < 0) {
+            return false;
+        }
+
+        this.backoffDeadlineNanos = currentTimeNanos + backoff.toNanos();
+        return true;
+    }
+
     /**
      * Gets a {@link DelayedErrorHandler} based on the following rules:
      * - If no call has been made to {@link #appendFailed}, this will return null.
@@ -41,9 +41,11 @@ import io.pravega.shared.protocol.netty.Request;
 import io.pravega.shared.protocol.netty.WireCommand;
 import io.pravega.shared.protocol.netty.WireCommandType;
 import io.pravega.shared.protocol.netty.WireCommands;
+import io.pravega.shared.protocol.netty.WireCommands.AppendBackoff;
 import io.pravega.shared.protocol.netty.WireCommands.AppendSetup;
 import io.pravega.shared.protocol.netty.WireCommands.ConditionalCheckFailed;
 import io.pravega.shared.protocol.netty.WireCommands.DataAppended;
+import io.pravega.shared.protocol.netty.WireCommands.Hello;
 import io.pravega.shared.protocol.netty.WireCommands.OperationUnsupported;
 import io.pravega.shared.protocol.netty.WireCommands.SetupAppend;
 import io.pravega.shared.security.token.JsonWebToken;
@@ -141,6 +143,51 @@ public class AppendProcessorTest extends ThreadPooledTestSuite {
         assertTrue(processor.isSetupAppendCompleted(setupAppendCommand.getSegment(), setupAppendCommand.getWriterId()));
     }
 
+    /**
+     * Verifies that an {@link AppendBackoff} is sent if the Store indicates that the Segment's writers should back off,
+     * that it is not repeated while that backoff is in effect, and that it is never sent to older clients.
+     */
+    @Test
+    public void testAppendBackoff() {
+        String streamSegmentName = "scope/stream/0.#epoch.0";
+        UUID clientId = UUID.randomUUID();
+        byte[] data = new byte[] { 1, 2, 3, 4, 6, 7, 8, 9 };
+        Duration backoff = Duration.ofMinutes(1);
+        StreamSegmentStore store = mock(StreamSegmentStore.class);
+        ServerConnection connection = mock(ServerConnection.class);
+        AppendProcessor processor = AppendProcessor.defaultBuilder().store(store).connection(connection).build();
+
+        setupGetAttributes(streamSegmentName, clientId, store);
+        when(store.getAppendBackoff(streamSegmentName)).thenReturn(backoff);
+        interceptAppend(store, streamSegmentName, updateEventNumber(clientId, 1, 0, 1), CompletableFuture.completedFuture((long) data.length));
+        interceptAppend(store, streamSegmentName, updateEventNumber(clientId, 2, 1, 1), CompletableFuture.completedFuture(2L * data.length));
+
+        processor.hello(new Hello(WireCommands.WIRE_VERSION, WireCommands.OLDEST_COMPATIBLE_VERSION));
+        processor.setupAppend(new SetupAppend(1, clientId, streamSegmentName, ""));
+        processor.append(new Append(streamSegmentName, clientId, 1, 1, Unpooled.wrappedBuffer(data), null, requestId));
+        processor.append(new Append(streamSegmentName, clientId, 2, 1, Unpooled.wrappedBuffer(data), null, requestId));
+
+        verify(connection).send(new DataAppended(requestId, clientId, 1, 0L, data.length));
+        verify(connection).send(new DataAppended(requestId, clientId, 2, 1L, 2L * data.length));
+        verify(store, times(2)).getAppendBackoff(streamSegmentName);
+        verify(connection, times(1)).send(new AppendBackoff(requestId, clientId, streamSegmentName, backoff.toMillis()));
+
+        // Clients that do not support this reply should never receive it.
+        ServerConnection oldConnection = mock(ServerConnection.class);
+        StreamSegmentStore oldStore = mock(StreamSegmentStore.class);
+        AppendProcessor oldProcessor = AppendProcessor.defaultBuilder().store(oldStore).connection(oldConnection).build();
+        setupGetAttributes(streamSegmentName, clientId, oldStore);
+        when(oldStore.getAppendBackoff(streamSegmentName)).thenReturn(backoff);
+        interceptAppend(oldStore, streamSegmentName, updateEventNumber(clientId, 1, 0, 1), CompletableFuture.completedFuture((long) data.length));
+        oldProcessor.hello(new Hello(AppendProcessor.APPEND_BACKOFF_MIN_WIRE_VERSION - 1, WireCommands.OLDEST_COMPATIBLE_VERSION));
+        oldProcessor.setupAppend(new SetupAppend(1, clientId, streamSegmentName, ""));
+        oldProcessor.append(new Append(streamSegmentName, clientId, 1, 1, Unpooled.wrappedBuffer(data), null, requestId));
+
+        verify(oldConnection).send(new DataAppended(requestId, clientId, 1, 0L, data.length));
+        verify(oldStore, never()).getAppendBackoff(anyString());
+        verify(oldConnection, never()).send(any(AppendBackoff.class));
+    }
+
     @Test
     public void testSetupAppendClosesConnectionIfTokenHasExpired() {
         String streamSegmentName = "scope/stream/0.#epoch.0";
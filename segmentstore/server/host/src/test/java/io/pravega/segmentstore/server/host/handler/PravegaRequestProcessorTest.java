@@ -61,6 +61,7 @@ import java.util.Random;
 import java.util.UUID;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import lombok.Cleanup;
 import lombok.Getter;
@@ -87,6 +88,7 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -191,6 +193,50 @@ public class PravegaRequestProcessorTest {
         verifyNoMoreInteractions(store);
     }
 
+    @Test(timeout = 20000)
+    public void testReadSegmentNonContiguousReleasesPins() {
+        String streamSegmentName = "scope/stream/testReadSegment";
+        byte[] data = new byte[]{1, 2, 3, 4, 6, 7, 8, 9};
+        int readLength = 1000;
+
+        StreamSegmentStore store = mock(StreamSegmentStore.class);
+        ServerConnection connection = mock(ServerConnection.class);
+        PravegaRequestProcessor processor = new PravegaRequestProcessor(store, mock(TableStore.class), connection);
+
+        // The second entry does not start where the first one ends, so collecting them must fail.
+        AtomicInteger releaseCount = new AtomicInteger();
+        TestReadResultEntry entry1 = new TestReadResultEntry(ReadResultEntryType.Cache, 0, readLength);
+        entry1.complete(new ReleaseCountingSegment(data, releaseCount));
+        TestReadResultEntry entry2 = new TestReadResultEntry(ReadResultEntryType.Cache, data.length + 1, readLength);
+        entry2.complete(new ReleaseCountingSegment(data, releaseCount));
+
+        List<ReadResultEntry> results = new ArrayList<>();
+        results.add(entry1);
+        results.add(entry2);
+        CompletableFuture<ReadResult> readResult = new CompletableFuture<>();
+        readResult.complete(new TestReadResult(0, readLength, results));
+        when(store.read(streamSegmentName, 0, readLength, PravegaRequestProcessor.TIMEOUT)).thenReturn(readResult);
+
+        processor.readSegment(new WireCommands.ReadSegment(streamSegmentName, 0, readLength, "", requestId));
+        verify(store).read(streamSegmentName, 0, readLength, PravegaRequestProcessor.TIMEOUT);
+        verify(connection, never()).send(any(WireCommands.SegmentRead.class));
+        assertEquals("Expected every collected entry to be released.", 2, releaseCount.get());
+    }
+
+    private static class ReleaseCountingSegment extends ByteArraySegment {
+        private final AtomicInteger releaseCount;
+
+        ReleaseCountingSegment(byte[] data, AtomicInteger releaseCount) {
+            super(data);
+            this.releaseCount = releaseCount;
+        }
+
+        @Override
+        public void release() {
+            this.releaseCount.incrementAndGet();
+        }
+    }
+
     @Test(timeout = 20000)
     public void testReadSegmentEmptySealed() {
         // Set up PravegaRequestProcessor instance to execute read segment request against
@@ -0,0 +1,234 @@
+/**
+ * Copyright (c) Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.server;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * Tracks accesses to the Cache Entries of a {@link CacheManager.Client}.
+ *
+ * - Access frequencies are estimated using a Count-Min Sketch (as used by TinyLFU) with 4-bit counters and a depth of 4.
+ * Counters are halved every time the number of recorded accesses reaches 10x the number of counters, so that frequencies
+ * reflect recent activity. The sketch is only allocated upon the first recorded access.
+ * - Cache Entries whose estimated frequency is at least {@link #PROTECTED_FREQUENCY} are considered frequently used
+ * (see {@link #isFrequent}). {@link CachePolicy.EvictionType#SEGMENTED_LRU} uses this to protect them from eviction
+ * for longer than other entries.
+ * - Cache hits and misses are counted as well and are periodically reported (per {@link #getClientType()}) by the
+ * {@link CacheManager}.
+ */
+@ThreadSafe
+public class CacheAccessTracker {
+    //region Members
+
+    /**
+     * The minimum estimated access frequency of a Cache Entry in order for it to be considered frequently used.
+     */
+    @VisibleForTesting
+    static final int PROTECTED_FREQUENCY = 3;
+    private static final int DEFAULT_COUNTER_COUNT = 1024;
+    private static final int COUNTERS_PER_LONG = 16;
+    private static final int MAX_COUNTER_VALUE = 15;
+    private static final long RESET_MASK = 0x7777_7777_7777_7777L;
+    private static final long[] SEEDS = new long[]{0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+
+    @Getter
+    private final String clientType;
+    private final int counterCount;
+    @GuardedBy("this")
+    private long[] table;
+    @GuardedBy("this")
+    private int accessCount;
+    private final AtomicLong hitCount;
+    private final AtomicLong missCount;
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the {@link CacheAccessTracker} class with a default number of counters.
+     *
+     * @param clientType A name that identifies the type of {@link CacheManager.Client} this tracks. Metrics are aggregated
+     *                   based on this value.
+     */
+    public CacheAccessTracker(String clientType) {
+        this(clientType, DEFAULT_COUNTER_COUNT);
+    }
+
+    /**
+     * Creates a new instance of the {@link CacheAccessTracker} class.
+     *
+     * @param clientType   A name that identifies the type of {@link CacheManager.Client} this tracks. Metrics are aggregated
+     *                     based on this value.
+     * @param counterCount The number of counters to use. Must be a power of 2, and at least 16. This should be in the
+     *                     same order of magnitude as the number of Cache Entries expected to be tracked.
+     */
+    public CacheAccessTracker(@NonNull String clientType, int counterCount) {
+        Preconditions.checkArgument(counterCount >= COUNTERS_PER_LONG && Integer.bitCount(counterCount) == 1,
+                "counterCount must be a power of 2 greater than or equal to %s.", COUNTERS_PER_LONG);
+        this.clientType = clientType;
+        this.counterCount = counterCount;
+        this.hitCount = new AtomicLong();
+        this.missCount = new AtomicLong();
+    }
+
+    //endregion
+
+    //region Operations
+
+    /**
+     * Records a Cache hit for the Cache Entry with the given key.
+     *
+     * @param key The key of the Cache Entry.
+     */
+    public void recordHit(long key) {
+        this.hitCount.incrementAndGet();
+        increment(key);
+    }
+
+    /**
+     * Records a Cache miss for the Cache Entry with the given key.
+     *
+     * @param key The key of the Cache Entry.
+     */
+    public void recordMiss(long key) {
+        this.missCount.incrementAndGet();
+        increment(key);
+    }
+
+    /**
+     * Gets a value indicating whether the Cache Entry with the given key is frequently used.
+     *
+     * @param key The key of the Cache Entry.
+     * @return True if the estimated frequency of the entry is at least {@link #PROTECTED_FREQUENCY}, false otherwise.
+     */
+    public boolean isFrequent(long key) {
+        return getFrequency(key) >= PROTECTED_FREQUENCY;
+    }
+
+    /**
+     * Gets the estimated access frequency of the Cache Entry with the given key.
+     *
+     * @param key The key of the Cache Entry.
+     * @return The estimated frequency. This is a value between 0 and 15 (inclusive).
+     */
+    @VisibleForTesting
+    synchronized int getFrequency(long key) {
+        if (this.table == null) {
+            return 0;
+        }
+
+        int result = MAX_COUNTER_VALUE;
+        for (long seed : SEEDS) {
+            int index = getCounterIndex(key, seed);
+            result = Math.min(result, getCounter(index));
+        }
+
+        return result;
+    }
+
+    /**
+     * Gets the number of hits and misses recorded since the last invocation of this method and resets them.
+     *
+     * @return A {@link HitCounts} instance.
+     */
+    HitCounts getAndResetHitCounts() {
+        return new HitCounts(this.hitCount.getAndSet(0), this.missCount.getAndSet(0));
+    }
+
+    private synchronized void increment(long key) {
+        if (this.table == null) {
+            this.table = new long[this.counterCount / COUNTERS_PER_LONG];
+        }
+
+        // Conservative update: only increment those counters that equal the current minimum.
+        int[] indices = new int[SEEDS.length];
+        int min = MAX_COUNTER_VALUE;
+        for (int i = 0; i < SEEDS.length; i++) {
+            indices[i] = getCounterIndex(key, SEEDS[i]);
+            min = Math.min(min, getCounter(indices[i]));
+        }
+
+        if (min < MAX_COUNTER_VALUE) {
+            for (int index : indices) {
+                if (getCounter(index) == min) {
+                    this.table[index / COUNTERS_PER_LONG] += 1L << getCounterShift(index);
+                }
+            }
+        }
+
+        if (++this.accessCount >= 10 * this.counterCount) {
+            // Age all the counters.
+            for (int i = 0; i < this.table.length; i++) {
+                this.table[i] = (this.table[i] >>> 1) & RESET_MASK;
+            }
+
+            this.accessCount /= 2;
+        }
+    }
+
+    @GuardedBy("this")
+    private int getCounter(int index) {
+        return (int) (this.table[index / COUNTERS_PER_LONG] >>> getCounterShift(index)) & MAX_COUNTER_VALUE;
+    }
+
+    private int getCounterShift(int index) {
+        return (index % COUNTERS_PER_LONG) * 4;
+    }
+
+    private int getCounterIndex(long key, long seed) {
+        // MurmurHash3 finalizer.
+        long h = key ^ seed;
+        h = (h ^ (h >>> 33)) * 0xff51_afd7_ed55_8ccdL;
+        h = (h ^ (h >>> 33)) * 0xc4ce_b9fe_1a85_ec53L;
+        h ^= h >>> 33;
+        return (int) h & (this.counterCount - 1);
+    }
+
+    //endregion
+
+    //region HitCounts
+
+    /**
+     * Number of Cache hits and misses recorded by a {@link CacheAccessTracker}.
+     */
+    @Getter
+    static class HitCounts {
+        private final long hits;
+        private final long misses;
+
+        HitCounts(long hits, long misses) {
+            this.hits = hits;
+            this.misses = misses;
+        }
+
+        HitCounts add(HitCounts other) {
+            return new HitCounts(this.hits + other.hits, this.misses + other.misses);
+        }
+
+        /**
+         * Gets the ratio of hits to total accesses, or 0 if there were no accesses.
+         *
+         * @return The hit ratio.
+         */
+        double getHitRatio() {
+            long total = this.hits + this.misses;
+            return total == 0 ? 0 : (double) this.hits / total;
+        }
+    }
+
+    //endregion
+}
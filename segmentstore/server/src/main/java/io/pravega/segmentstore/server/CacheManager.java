@@ -22,6 +22,7 @@ import io.pravega.segmentstore.storage.cache.CacheStorage;
 import io.pravega.segmentstore.storage.cache.DirectMemoryCache;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.concurrent.ScheduledExecutorService;
@@ -29,10 +30,12 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
 import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.ThreadSafe;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import lombok.val;
 
 /**
  * Manages the lifecycle of Cache Entries. Decides which entries are to be kept in memory and which are eligible for
@@ -45,6 +48,12 @@ import lombok.extern.slf4j.Slf4j;
  * (in the clients) that is generated or updated gets assigned the current generation. As the CacheManager determines that
  * there are too many Cache Entries or that the maximum size has been exceeded, it will increment the oldest generation.
  * The CacheManager Clients can use this information to evict those Cache Entries that have a generation below the oldest generation number.
+ *
+ * If the {@link CachePolicy} uses {@link CachePolicy.EvictionType#SEGMENTED_LRU}, the CacheManager also maintains an
+ * oldest protected generation (which is never greater than the oldest generation). Clients should use that (instead of
+ * the oldest generation) for those Cache Entries that are frequently used (see {@link CacheAccessTracker}). When the
+ * cache exceeds its eviction threshold, the oldest generation is first advanced (in exponentially growing steps) up to
+ * the current generation, after which the oldest protected generation is advanced towards it.
  */
 @Slf4j
 @ThreadSafe
@@ -57,6 +66,10 @@ public class CacheManager extends AbstractScheduledService implements AutoClosea
     private final ScheduledExecutorService executorService;
     private final AtomicInteger currentGeneration;
     private final AtomicInteger oldestGeneration;
+    /**
+     * The number of generations that the oldest protected generation lags behind the oldest generation.
+     */
+    private final AtomicInteger protectedGenerationCount;
     private final AtomicReference<CacheState> lastCacheState;
     private final AtomicBoolean running;
     private final CachePolicy policy;
@@ -89,7 +102,6 @@ public class CacheManager extends AbstractScheduledService implements AutoClosea
      * @param cacheStorage    The CacheStorage to maintain.
      * @param executorService An executorService to use for scheduled tasks.
      */
-    @VisibleForTesting
     public CacheManager(CachePolicy policy, CacheStorage cacheStorage, ScheduledExecutorService executorService) {
         this.policy = Preconditions.checkNotNull(policy, "policy");
         this.executorService = Preconditions.checkNotNull(executorService, "executorService");
@@ -98,6 +110,7 @@ public class CacheManager extends AbstractScheduledService implements AutoClosea
         this.clients = new HashSet<>();
         this.oldestGeneration = new AtomicInteger(0);
         this.currentGeneration = new AtomicInteger(0);
+        this.protectedGenerationCount = new AtomicInteger(getMaxProtectedGenerationCount());
         this.running = new AtomicBoolean();
         this.closed = new AtomicBoolean();
         this.lastCacheState = new AtomicReference<>();
@@ -149,6 +162,8 @@ public class CacheManager extends AbstractScheduledService implements AutoClosea
         if (anythingEvicted) {
             this.utilizationProvider.notifyCleanupListeners();
         }
+
+        reportHitRatios();
     }
 
     @Override
@@ -176,7 +191,7 @@ public class CacheManager extends AbstractScheduledService implements AutoClosea
             }
         }
 
-        client.updateGenerations(this.currentGeneration.get(), this.oldestGeneration.get());
+        client.updateGenerations(this.currentGeneration.get(), this.oldestGeneration.get(), getOldestProtectedGeneration());
         log.info("{} Registered {}.", TRACE_OBJECT_ID, client);
     }
 
@@ -260,6 +275,12 @@ public class CacheManager extends AbstractScheduledService implements AutoClosea
         // Run through all the active clients and gather status.
         CacheStatus currentStatus = collectStatus();
         fetchCacheState();
+        if (!exceedsEvictionThreshold()) {
+            // Protected entries need only be evicted under memory pressure, so restore their full protection if we are
+            // no longer under it.
+            this.protectedGenerationCount.set(getMaxProtectedGenerationCount());
+        }
+
         if (currentStatus == null || this.lastCacheState.get().getStoredBytes() == 0) {
             // We either have no clients or we have clients and they do not have any data stored.
             return false;
@@ -277,14 +298,17 @@ public class CacheManager extends AbstractScheduledService implements AutoClosea
         }
 
         // Notify clients that something changed (if any of the above got changed). Run in a loop, until either we can't
-        // adjust the oldest anymore or we are unable to trigger any changes to the clients.
+        // adjust the oldest anymore or we are unable to trigger any changes to the clients. For Segmented LRU, an
+        // iteration may not evict anything if it only advanced past protected entries, so we keep going as long as we
+        // can adjust the oldest (or oldest protected) generation.
+        boolean segmented = isSegmented();
         boolean reducedInIteration;
         boolean reducedOverall = false;
         Timer iterationDuration = new Timer();
         do {
             reducedInIteration = updateClients();
-            if (reducedInIteration) {
-                reducedOverall = true;
+            if (reducedInIteration || segmented) {
+                reducedOverall |= reducedInIteration;
 
                 // Get the latest cache state in order to determine utilization.
                 fetchCacheState();
@@ -300,7 +324,17 @@ public class CacheManager extends AbstractScheduledService implements AutoClosea
                     oldestChanged = adjustOldestGeneration(currentStatus);
                 }
             }
-        } while (reducedInIteration && oldestChanged);
+        } while ((reducedInIteration || segmented) && oldestChanged);
+
+        if (currentStatus != null && exceedsEvictionThreshold() && this.oldestGeneration.get() >= this.currentGeneration.get()
+                && getOldestProtectedGeneration() >= this.oldestGeneration.get()) {
+            // The clients have been notified that every generation (including protected ones) prior to the current one is
+            // to be evicted, so every other Cache Entry that could be evicted has been. We are still exceeding the eviction
+            // threshold, so only now may we begin evicting Guaranteed Cache Entries.
+            reducedOverall |= evictGuaranteed();
+            currentStatus = collectStatus();
+        }
+
         this.metrics.report(this.lastCacheState.get(),
                 currentStatus == null ? 0 : currentStatus.getNewestGeneration() - currentStatus.getOldestGeneration(),
                 iterationDuration.getElapsedMillis());
@@ -357,11 +391,39 @@ public class CacheManager extends AbstractScheduledService implements AutoClosea
     private boolean updateClients() {
         final int cg = this.currentGeneration.get();
         final int og = this.oldestGeneration.get();
+        final int opg = getOldestProtectedGeneration();
+        return updateClients(c -> c.updateGenerations(cg, og, opg));
+    }
+
+    /**
+     * Evicts Guaranteed Cache Entries (see {@link Client#evictGuaranteed}), least recently used first, until either the
+     * Cache no longer exceeds the eviction threshold or there is nothing left to evict prior to the current generation.
+     *
+     * @return True if anything was evicted, false otherwise.
+     */
+    private boolean evictGuaranteed() {
+        final int cg = this.currentGeneration.get();
+        boolean reduced = false;
+        int oldestGuaranteedGeneration = 0;
+        CacheStatus currentStatus = collectStatus();
+        while (currentStatus != null && exceedsEvictionThreshold() && oldestGuaranteedGeneration < cg) {
+            // Advance one generation at a time, skipping over those that no client has any entries for.
+            oldestGuaranteedGeneration = Math.min(Math.max(oldestGuaranteedGeneration, currentStatus.getOldestGeneration()) + 1, cg);
+            final int ogg = oldestGuaranteedGeneration;
+            reduced |= updateClients(c -> c.evictGuaranteed(ogg));
+            fetchCacheState();
+            currentStatus = collectStatus();
+        }
+
+        return reduced;
+    }
+
+    private boolean updateClients(Predicate<Client> update) {
         ArrayList<Client> toUnregister = new ArrayList<>();
         boolean reduced = false;
         for (Client c : getClients()) {
             try {
-                reduced = c.updateGenerations(cg, og) | reduced;
+                reduced = update.test(c) | reduced;
             } catch (ObjectClosedException ex) {
                 // This object was closed but it was not unregistered. Do it now.
                 log.warn("{} Detected closed client {}.", TRACE_OBJECT_ID, c);
@@ -395,23 +457,41 @@ public class CacheManager extends AbstractScheduledService implements AutoClosea
 
     private boolean adjustOldestGeneration(CacheStatus currentStatus) {
         // Figure out if we exceed the policy criteria.
-        int newOldestGeneration = this.oldestGeneration.get();
+        final int cg = this.currentGeneration.get();
+        final int og = this.oldestGeneration.get();
+        int newOldestGeneration = og;
+        int newProtectedGenerationCount = this.protectedGenerationCount.get();
         if (exceedsPolicy(currentStatus)) {
             // Start by setting the new value to the smallest reported value, and increment by one.
             newOldestGeneration = Math.max(newOldestGeneration, currentStatus.oldestGeneration) + 1;
 
+            if (isSegmented() && exceedsEvictionThreshold()) {
+                // The smallest reported value may belong to a protected entry, in which case the above would advance
+                // one generation at a time. Evict probation entries in exponentially growing steps instead and only
+                // begin evicting protected entries after there are no more probation entries left.
+                newOldestGeneration = Math.max(newOldestGeneration, og + (cg - og + 1) / 2);
+                if (og >= cg) {
+                    newProtectedGenerationCount /= 2;
+                }
+            }
+
             // Then factor in the oldest permissible generation.
             newOldestGeneration = Math.max(newOldestGeneration, getOldestPermissibleGeneration());
 
             // Then make sure we don't exceed the current generation.
-            newOldestGeneration = Math.min(newOldestGeneration, this.currentGeneration.get());
+            newOldestGeneration = Math.min(newOldestGeneration, cg);
         }
 
-        boolean isAdjusted = newOldestGeneration > this.oldestGeneration.get();
+        boolean isAdjusted = newOldestGeneration > og;
         if (isAdjusted) {
             this.oldestGeneration.set(newOldestGeneration);
         }
 
+        if (newProtectedGenerationCount < this.protectedGenerationCount.get()) {
+            this.protectedGenerationCount.set(newProtectedGenerationCount);
+            isAdjusted = true;
+        }
+
         return isAdjusted;
     }
 
@@ -431,6 +511,41 @@ public class CacheManager extends AbstractScheduledService implements AutoClosea
         return this.currentGeneration.get() - this.policy.getMaxGenerations() + 1;
     }
 
+    /**
+     * Gets the generation below which protected (frequently used) Cache Entries are evicted. This is equal to the oldest
+     * generation, unless the {@link CachePolicy} uses {@link CachePolicy.EvictionType#SEGMENTED_LRU}.
+     */
+    @VisibleForTesting
+    int getOldestProtectedGeneration() {
+        int og = this.oldestGeneration.get();
+        int opg = Math.max(og - this.protectedGenerationCount.get(), getOldestPermissibleGeneration());
+        return Math.max(0, Math.min(og, opg));
+    }
+
+    private int getMaxProtectedGenerationCount() {
+        return isSegmented() ? this.policy.getMaxGenerations() : 0;
+    }
+
+    private boolean isSegmented() {
+        return this.policy.getEvictionType() == CachePolicy.EvictionType.SEGMENTED_LRU;
+    }
+
+    private void reportHitRatios() {
+        val hitCounts = new HashMap<String, CacheAccessTracker.HitCounts>();
+        for (Client c : getClients()) {
+            CacheAccessTracker tracker = c.getAccessTracker();
+            if (tracker != null) {
+                hitCounts.merge(tracker.getClientType(), tracker.getAndResetHitCounts(), CacheAccessTracker.HitCounts::add);
+            }
+        }
+
+        hitCounts.forEach((clientType, counts) -> {
+            if (counts.getHits() + counts.getMisses() > 0) {
+                this.metrics.reportHitRatio(clientType, counts.getHitRatio());
+            }
+        });
+    }
+
     private void logCurrentStatus(CacheStatus status) {
         log.info("{}: Gen: {}-{}; Clients: {} ({}-{}); Cache: {}.", TRACE_OBJECT_ID, this.currentGeneration, this.oldestGeneration,
                 this.clients.size(), status.getNewestGeneration(), status.getOldestGeneration(), this.lastCacheState);
@@ -465,6 +580,46 @@ public class CacheManager extends AbstractScheduledService implements AutoClosea
          * @return If any cache data was trimmed with this update.
          */
         boolean updateGenerations(int currentGeneration, int oldestGeneration);
+
+        /**
+         * Called by the CacheManager to notify when there is a generation change (either current, oldest or oldest
+         * protected). By default, this ignores oldestProtectedGeneration and invokes {@link #updateGenerations(int, int)}.
+         *
+         * @param currentGeneration         The value of the current generation.
+         * @param oldestGeneration          The value of the oldest generation. This is the cutoff for which entries can
+         *                                  still exist in the cache.
+         * @param oldestProtectedGeneration The value of the oldest protected generation. This is the cutoff for which
+         *                                  frequently used entries (see {@link #getAccessTracker()}) can still exist in
+         *                                  the cache. This is always less than or equal to oldestGeneration.
+         * @return If any cache data was trimmed with this update.
+         */
+        default boolean updateGenerations(int currentGeneration, int oldestGeneration, int oldestProtectedGeneration) {
+            return updateGenerations(currentGeneration, oldestGeneration);
+        }
+
+        /**
+         * Called by the CacheManager when the Cache still exceeds its eviction threshold after every Cache Entry that
+         * could be evicted by {@link #updateGenerations(int, int, int)} has been evicted (both the oldest and the oldest
+         * protected generations have caught up with the current generation). Cache Entries with
+         * {@link io.pravega.segmentstore.contracts.CachePriority#Guaranteed} must never be evicted by generation in
+         * {@link #updateGenerations(int, int, int)}; this is the only time they may be. By default, this does nothing.
+         *
+         * @param oldestGeneration The cutoff for which Guaranteed Cache Entries can still exist in the cache. This is
+         *                         always less than or equal to the current generation.
+         * @return If any cache data was trimmed with this update.
+         */
+        default boolean evictGuaranteed(int oldestGeneration) {
+            return false;
+        }
+
+        /**
+         * Gets the {@link CacheAccessTracker} that this Client uses to record accesses to its Cache Entries, if any.
+         *
+         * @return The {@link CacheAccessTracker}, or null if this Client does not track accesses.
+         */
+        default CacheAccessTracker getAccessTracker() {
+            return null;
+        }
     }
 
     //endregion
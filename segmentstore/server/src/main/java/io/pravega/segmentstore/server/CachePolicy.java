@@ -12,6 +12,7 @@ package io.pravega.segmentstore.server;
 import com.google.common.base.Preconditions;
 import java.time.Duration;
 import lombok.Getter;
+import lombok.NonNull;
 
 /**
  * Represents a Policy for a CacheManager.
@@ -61,6 +62,11 @@ public class CachePolicy {
      */
     @Getter
     private final Duration generationDuration;
+    /**
+     * The algorithm used to select Cache Entries for eviction.
+     */
+    @Getter
+    private final EvictionType evictionType;
 
     //endregion
 
@@ -88,6 +94,21 @@ public class CachePolicy {
      * @param generationDuration The amount of time one Cache generation spans.
      */
     public CachePolicy(long maxSize, double targetUtilization, double maxUtilization, Duration maxTime, Duration generationDuration) {
+        this(maxSize, targetUtilization, maxUtilization, maxTime, generationDuration, EvictionType.LRU);
+    }
+
+    /**
+     * Creates a new instance of the CachePolicy class.
+     *
+     * @param maxSize            The maximum size of the cache.
+     * @param targetUtilization  The target cache utilization to set. See {@link #getTargetUtilization()} ()}.
+     * @param maxUtilization     The maximum cache utilization to set. See {@link #getMaxUtilization()}.
+     * @param maxTime            The maximum amount of time a cache entry can live in the cache.
+     * @param generationDuration The amount of time one Cache generation spans.
+     * @param evictionType       The {@link EvictionType} to use.
+     */
+    public CachePolicy(long maxSize, double targetUtilization, double maxUtilization, Duration maxTime, Duration generationDuration,
+                       @NonNull EvictionType evictionType) {
         Preconditions.checkArgument(maxSize > 0, "maxSize must be a positive integer");
         Preconditions.checkArgument(targetUtilization > 0 && targetUtilization <= 1.0,
                 "targetUtilization must be a number in the range (0.0, 1.0].");
@@ -99,13 +120,36 @@ public class CachePolicy {
         this.evictionThreshold = (long) Math.floor(this.maxSize * this.targetUtilization);
         this.generationDuration = generationDuration;
         this.maxGenerations = Math.max(1, (int) ((double) maxTime.toMillis() / generationDuration.toMillis()));
+        this.evictionType = evictionType;
     }
 
     //endregion
 
     @Override
     public String toString() {
-        return String.format("MaxSize = %d, UsableSize = %d, MaxGen = %d, Generation = %s",
-                this.maxSize, this.evictionThreshold, this.maxGenerations, this.generationDuration);
+        return String.format("MaxSize = %d, UsableSize = %d, MaxGen = %d, Generation = %s, Eviction = %s",
+                this.maxSize, this.evictionThreshold, this.maxGenerations, this.generationDuration, this.evictionType);
+    }
+
+    //region EvictionType
+
+    /**
+     * Defines the algorithms that the {@link CacheManager} can use to select Cache Entries for eviction.
+     */
+    public enum EvictionType {
+        /**
+         * Cache Entries are evicted in the order in which they were last used (based on their generation).
+         */
+        LRU,
+        /**
+         * Cache Entries are split into two segments: frequently used ("protected", see {@link CacheAccessTracker}) and
+         * the rest ("probation"). When the cache exceeds its eviction threshold, probation entries are evicted first
+         * (regardless of how recently they were used) and protected entries are only evicted (in LRU order) if there
+         * are no more probation entries to evict. This prevents large one-time scans from flushing out frequently read
+         * data. Both segments are still subject to {@link CachePolicy#getMaxGenerations()}.
+         */
+        SEGMENTED_LRU
     }
+
+    //endregion
 }
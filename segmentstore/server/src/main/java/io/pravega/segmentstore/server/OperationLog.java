@@ -30,6 +30,16 @@ public interface OperationLog extends Container {
      */
     CompletableFuture<Void> add(Operation operation, OperationPriority priority, Duration timeout);
 
+    /**
+     * Gets the amount of time that writers to the given Segment should back off for before adding more appends to it.
+     * This is non-zero only if the {@link OperationLog} is throttling and the given Segment is one of those contributing
+     * to the throttling.
+     *
+     * @param streamSegmentId The Id of the Segment to query.
+     * @return The suggested backoff, or {@link Duration#ZERO} if no backoff is required.
+     */
+    Duration getAppendBackoff(long streamSegmentId);
+
     /**
      * Truncates the log up to the given sequence.
      *
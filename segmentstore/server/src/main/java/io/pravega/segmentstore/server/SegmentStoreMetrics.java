@@ -25,11 +25,16 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import static io.pravega.shared.MetricsTags.cacheClientTag;
+import static io.pravega.shared.MetricsTags.cacheSizeClassTag;
 import static io.pravega.shared.MetricsTags.containerTag;
+import static io.pravega.shared.MetricsTags.flushPriorityTag;
 import static io.pravega.shared.MetricsTags.throttlerTag;
 
 /**
@@ -57,8 +62,20 @@ public final class SegmentStoreMetrics {
          */
         private final OpStatsLogger cacheManagerIterationDuration;
 
+        /**
+         * Block sizes of the cache Size Classes that have been reported so far.
+         */
+        private final Set<Integer> reportedBlockSizes;
+
+        /**
+         * Types of cache clients whose hit ratio has been reported so far.
+         */
+        private final Set<String> reportedClientTypes;
+
         public CacheManager() {
             cacheManagerIterationDuration = STATS_LOGGER.createStats(MetricsNames.CACHE_MANAGER_ITERATION_DURATION);
+            reportedBlockSizes = Collections.synchronizedSet(new HashSet<>());
+            reportedClientTypes = Collections.synchronizedSet(new HashSet<>());
         }
 
         public void report(CacheState snapshot, int generationSpread, long iterationDuration) {
@@ -66,21 +83,105 @@ public final class SegmentStoreMetrics {
             DYNAMIC_LOGGER.reportGaugeValue(MetricsNames.CACHE_USED_SIZE_BYTES, snapshot.getUsedBytes());
             DYNAMIC_LOGGER.reportGaugeValue(MetricsNames.CACHE_ALLOC_SIZE_BYTES, snapshot.getAllocatedBytes());
             DYNAMIC_LOGGER.reportGaugeValue(MetricsNames.CACHE_GENERATION_SPREAD, generationSpread);
+            for (CacheState.SizeClassState sc : snapshot.getSizeClasses()) {
+                String[] tags = cacheSizeClassTag(sc.getBlockSize());
+                DYNAMIC_LOGGER.reportGaugeValue(MetricsNames.CACHE_SIZE_CLASS_STORED_SIZE_BYTES, sc.getStoredBytes(), tags);
+                DYNAMIC_LOGGER.reportGaugeValue(MetricsNames.CACHE_SIZE_CLASS_USED_SIZE_BYTES, sc.getUsedBytes(), tags);
+                DYNAMIC_LOGGER.reportGaugeValue(MetricsNames.CACHE_SIZE_CLASS_ALLOC_SIZE_BYTES, sc.getAllocatedBytes(), tags);
+                this.reportedBlockSizes.add(sc.getBlockSize());
+            }
             cacheManagerIterationDuration.reportSuccessValue(iterationDuration);
         }
 
+        public void reportHitRatio(String clientType, double hitRatio) {
+            DYNAMIC_LOGGER.reportGaugeValue(MetricsNames.CACHE_HIT_RATIO, hitRatio, cacheClientTag(clientType));
+            this.reportedClientTypes.add(clientType);
+        }
+
         @Override
         public void close() {
             DYNAMIC_LOGGER.freezeGaugeValue(MetricsNames.CACHE_STORED_SIZE_BYTES);
             DYNAMIC_LOGGER.freezeGaugeValue(MetricsNames.CACHE_USED_SIZE_BYTES);
             DYNAMIC_LOGGER.freezeGaugeValue(MetricsNames.CACHE_ALLOC_SIZE_BYTES);
             DYNAMIC_LOGGER.freezeGaugeValue(MetricsNames.CACHE_GENERATION_SPREAD);
+            for (int blockSize : this.reportedBlockSizes) {
+                String[] tags = cacheSizeClassTag(blockSize);
+                DYNAMIC_LOGGER.freezeGaugeValue(MetricsNames.CACHE_SIZE_CLASS_STORED_SIZE_BYTES, tags);
+                DYNAMIC_LOGGER.freezeGaugeValue(MetricsNames.CACHE_SIZE_CLASS_USED_SIZE_BYTES, tags);
+                DYNAMIC_LOGGER.freezeGaugeValue(MetricsNames.CACHE_SIZE_CLASS_ALLOC_SIZE_BYTES, tags);
+            }
+            for (String clientType : this.reportedClientTypes) {
+                DYNAMIC_LOGGER.freezeGaugeValue(MetricsNames.CACHE_HIT_RATIO, cacheClientTag(clientType));
+            }
             cacheManagerIterationDuration.close();
         }
     }
 
     //endregion
 
+    //region ReadIndex
+
+    /**
+     * ContainerReadIndex metrics.
+     */
+    public final static class ReadIndex implements AutoCloseable {
+        private final String[] containerTag;
+
+        public ReadIndex(int containerId) {
+            this.containerTag = containerTag(containerId);
+        }
+
+        /**
+         * Reports the number of bytes requested from Storage in anticipation of a sequential read.
+         *
+         * @param bytes The number of bytes.
+         */
+        public void readAheadIssued(long bytes) {
+            DYNAMIC_LOGGER.incCounterValue(MetricsNames.READ_INDEX_READ_AHEAD_BYTES, bytes, this.containerTag);
+        }
+
+        /**
+         * Reports the number of prefetched bytes that were served from the Cache.
+         *
+         * @param bytes The number of bytes.
+         */
+        public void readAheadHit(long bytes) {
+            DYNAMIC_LOGGER.incCounterValue(MetricsNames.READ_INDEX_READ_AHEAD_HIT_BYTES, bytes, this.containerTag);
+        }
+
+        /**
+         * Reports the number of prefetched bytes that were never served from the Cache (either the reader stopped being
+         * sequential or the data was evicted before the reader got to it).
+         *
+         * @param bytes The number of bytes.
+         */
+        public void readAheadWasted(long bytes) {
+            DYNAMIC_LOGGER.incCounterValue(MetricsNames.READ_INDEX_READ_AHEAD_WASTED_BYTES, bytes, this.containerTag);
+        }
+
+        /**
+         * Reports a Storage read request that was (entirely or partially) served from another in-flight Storage read,
+         * instead of issuing a new Storage read for it.
+         *
+         * @param bytes The number of bytes that did not need to be read from Storage as a result.
+         */
+        public void storageReadCoalesced(long bytes) {
+            DYNAMIC_LOGGER.incCounterValue(MetricsNames.READ_INDEX_STORAGE_READ_COALESCED, 1, this.containerTag);
+            DYNAMIC_LOGGER.incCounterValue(MetricsNames.READ_INDEX_STORAGE_READ_COALESCED_BYTES, bytes, this.containerTag);
+        }
+
+        @Override
+        public void close() {
+            DYNAMIC_LOGGER.freezeCounter(MetricsNames.READ_INDEX_READ_AHEAD_BYTES, this.containerTag);
+            DYNAMIC_LOGGER.freezeCounter(MetricsNames.READ_INDEX_READ_AHEAD_HIT_BYTES, this.containerTag);
+            DYNAMIC_LOGGER.freezeCounter(MetricsNames.READ_INDEX_READ_AHEAD_WASTED_BYTES, this.containerTag);
+            DYNAMIC_LOGGER.freezeCounter(MetricsNames.READ_INDEX_STORAGE_READ_COALESCED, this.containerTag);
+            DYNAMIC_LOGGER.freezeCounter(MetricsNames.READ_INDEX_STORAGE_READ_COALESCED_BYTES, this.containerTag);
+        }
+    }
+
+    //endregion
+
     //region ThreadPool
 
     /**
@@ -165,9 +266,25 @@ public final class SegmentStoreMetrics {
          */
         private final OpStatsLogger processOperationsLatency;
         private final OpStatsLogger processOperationsBatchSize;
+
+        /**
+         * Size of compressed DataFrames, as a percentage of their uncompressed size.
+         */
+        private final OpStatsLogger dataFrameCompressionRatio;
+
+        /**
+         * Amount of time spent compressing a DataFrame.
+         */
+        private final OpStatsLogger dataFrameCompressLatency;
+
+        /**
+         * Amount of time elapsed between submitting a DataFrame to Tier1 and it being acknowledged.
+         */
+        private final OpStatsLogger dataFrameWriteLatency;
         private final int containerId;
         private final String[] containerTag;
         private Set<String> throttlers = Collections.synchronizedSet(new HashSet<>());
+        private final AtomicBoolean latencyTargetReported = new AtomicBoolean(false);
 
         public OperationProcessor(int containerId) {
             this.containerId = containerId;
@@ -181,6 +298,9 @@ public final class SegmentStoreMetrics {
             this.memoryCommitCount = STATS_LOGGER.createStats(MetricsNames.OPERATION_COMMIT_MEMORY_COUNT, this.containerTag);
             this.processOperationsLatency = STATS_LOGGER.createStats(MetricsNames.PROCESS_OPERATIONS_LATENCY, this.containerTag);
             this.processOperationsBatchSize = STATS_LOGGER.createStats(MetricsNames.PROCESS_OPERATIONS_BATCH_SIZE, this.containerTag);
+            this.dataFrameCompressionRatio = STATS_LOGGER.createStats(MetricsNames.OPERATION_LOG_FRAME_COMPRESSION_RATIO, this.containerTag);
+            this.dataFrameCompressLatency = STATS_LOGGER.createStats(MetricsNames.OPERATION_LOG_FRAME_COMPRESS_LATENCY, this.containerTag);
+            this.dataFrameWriteLatency = STATS_LOGGER.createStats(MetricsNames.OPERATION_LOG_FRAME_WRITE_LATENCY, this.containerTag);
         }
 
         @Override
@@ -194,9 +314,17 @@ public final class SegmentStoreMetrics {
             this.memoryCommitCount.close();
             this.processOperationsLatency.close();
             this.processOperationsBatchSize.close();
+            this.dataFrameCompressionRatio.close();
+            this.dataFrameCompressLatency.close();
+            this.dataFrameWriteLatency.close();
             for (String throttler : throttlers) {
                 DYNAMIC_LOGGER.freezeGaugeValue(MetricsNames.OPERATION_PROCESSOR_DELAY_MILLIS, throttlerTag(containerId, throttler));
             }
+            if (this.latencyTargetReported.get()) {
+                DYNAMIC_LOGGER.freezeGaugeValue(MetricsNames.OPERATION_LOG_FRAME_SIZE_TARGET, this.containerTag);
+                DYNAMIC_LOGGER.freezeGaugeValue(MetricsNames.OPERATION_LOG_FRAMES_IN_FLIGHT_MAX, this.containerTag);
+                DYNAMIC_LOGGER.freezeGaugeValue(MetricsNames.OPERATION_LOG_FRAME_WRITE_LATENCY_P99, this.containerTag);
+            }
         }
 
         public void currentState(int queueSize, int inFlightCount) {
@@ -213,6 +341,20 @@ public final class SegmentStoreMetrics {
             );
         }
 
+        /**
+         * Reports a decision made by the OperationProcessor's latency target controller.
+         *
+         * @param frameSize         The target DataFrame size, in bytes.
+         * @param maxFramesInFlight The maximum number of DataFrames that may be outstanding at any given time.
+         * @param p99LatencyMillis  The observed 99th percentile DataFrame write latency that led to this decision.
+         */
+        public void latencyTargetAdjusted(int frameSize, int maxFramesInFlight, long p99LatencyMillis) {
+            this.latencyTargetReported.set(true);
+            DYNAMIC_LOGGER.reportGaugeValue(MetricsNames.OPERATION_LOG_FRAME_SIZE_TARGET, frameSize, this.containerTag);
+            DYNAMIC_LOGGER.reportGaugeValue(MetricsNames.OPERATION_LOG_FRAMES_IN_FLIGHT_MAX, maxFramesInFlight, this.containerTag);
+            DYNAMIC_LOGGER.reportGaugeValue(MetricsNames.OPERATION_LOG_FRAME_WRITE_LATENCY_P99, p99LatencyMillis, this.containerTag);
+        }
+
         public void operationQueueWaitTime(long queueWaitTimeMillis) {
             this.operationQueueWaitTime.reportSuccessValue(queueWaitTimeMillis);
         }
@@ -235,6 +377,19 @@ public final class SegmentStoreMetrics {
             this.processOperationsLatency.reportSuccessValue(millis);
         }
 
+        public void dataFrameCompressed(int length, int writeLength, Duration elapsed) {
+            this.dataFrameCompressLatency.reportSuccessEvent(elapsed);
+            if (length > 0) {
+                this.dataFrameCompressionRatio.reportSuccessValue(100L * writeLength / length);
+            }
+        }
+
+        public void dataFrameWritten(Duration elapsed) {
+            if (elapsed != null) {
+                this.dataFrameWriteLatency.reportSuccessEvent(elapsed);
+            }
+        }
+
         public void operationsCompleted(int operationCount, Duration commitElapsed) {
             DYNAMIC_LOGGER.incCounterValue(MetricsNames.OPERATION_LOG_SIZE, operationCount, this.containerTag);
             this.operationCommitLatency.reportSuccessEvent(commitElapsed);
@@ -383,8 +538,15 @@ public final class SegmentStoreMetrics {
          * Number of operations read from DurableLog.
          */
         private final Counter readCount;
+        /**
+         * Time elapsed for flushing a single Segment, per flush priority.
+         */
+        private final ConcurrentHashMap<String, OpStatsLogger> segmentFlushLatency = new ConcurrentHashMap<>();
+        private final Set<String> flushPriorities = Collections.synchronizedSet(new HashSet<>());
+        private final int containerId;
 
         public StorageWriter(int containerId) {
+            this.containerId = containerId;
             String[] containerTag = containerTag(containerId);
             this.flushElapsed = STATS_LOGGER.createStats(MetricsNames.STORAGE_WRITER_FLUSH_ELAPSED, containerTag);
             this.iterationElapsed = STATS_LOGGER.createStats(MetricsNames.STORAGE_WRITER_ITERATION_ELAPSED, containerTag);
@@ -402,6 +564,10 @@ public final class SegmentStoreMetrics {
             this.flushedBytes.close();
             this.mergedBytes.close();
             this.flushedAttributes.close();
+            this.segmentFlushLatency.values().forEach(OpStatsLogger::close);
+            for (String priority : this.flushPriorities) {
+                DYNAMIC_LOGGER.freezeGaugeValue(MetricsNames.STORAGE_WRITER_FLUSH_QUEUE_SIZE, flushPriorityTag(this.containerId, priority));
+            }
         }
 
         public void readComplete(int operationCount) {
@@ -418,6 +584,18 @@ public final class SegmentStoreMetrics {
         public void iterationComplete(Duration elapsed) {
             this.iterationElapsed.reportSuccessEvent(elapsed);
         }
+
+        public void flushQueueSize(String priority, int size) {
+            this.flushPriorities.add(priority);
+            DYNAMIC_LOGGER.reportGaugeValue(MetricsNames.STORAGE_WRITER_FLUSH_QUEUE_SIZE, size, flushPriorityTag(this.containerId, priority));
+        }
+
+        public void segmentFlushComplete(String priority, Duration elapsed) {
+            this.segmentFlushLatency
+                    .computeIfAbsent(priority, p -> STATS_LOGGER.createStats(MetricsNames.STORAGE_WRITER_SEGMENT_FLUSH_LATENCY,
+                            flushPriorityTag(this.containerId, p)))
+                    .reportSuccessEvent(elapsed);
+        }
     }
 
     //endregion
@@ -434,5 +612,24 @@ public final class SegmentStoreMetrics {
         DYNAMIC_LOGGER.reportGaugeValue(MetricsNames.CONTAINER_RECOVERY_TIME, duration, containerTag(containerId));
     }
 
+    /**
+     * Reports the time taken to complete the recovery of a Container, along with a breakdown of the time spent in each
+     * recovery stage. Since stages overlap (and deserialization happens in parallel), the stage durations need not add
+     * up to the total duration.
+     *
+     * @param duration            Time taken for a Segment Store instance to perform the recovery of containers.
+     * @param readDuration        Time spent reading DataFrames from the DurableDataLog and extracting records from them.
+     * @param deserializeDuration Time spent deserializing Operations (summed across all threads).
+     * @param applyDuration       Time spent applying Operations to the Container Metadata and in-memory state.
+     * @param containerId         Container id related to the recovery process.
+     */
+    public static void recoveryCompleted(long duration, long readDuration, long deserializeDuration, long applyDuration, int containerId) {
+        String[] tags = containerTag(containerId);
+        DYNAMIC_LOGGER.reportGaugeValue(MetricsNames.CONTAINER_RECOVERY_TIME, duration, tags);
+        DYNAMIC_LOGGER.reportGaugeValue(MetricsNames.CONTAINER_RECOVERY_READ_TIME, readDuration, tags);
+        DYNAMIC_LOGGER.reportGaugeValue(MetricsNames.CONTAINER_RECOVERY_DESERIALIZE_TIME, deserializeDuration, tags);
+        DYNAMIC_LOGGER.reportGaugeValue(MetricsNames.CONTAINER_RECOVERY_APPLY_TIME, applyDuration, tags);
+    }
+
     //endregion
 }
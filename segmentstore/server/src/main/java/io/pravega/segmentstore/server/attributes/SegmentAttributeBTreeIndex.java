@@ -31,6 +31,7 @@ import io.pravega.segmentstore.contracts.StreamSegmentSealedException;
 import io.pravega.segmentstore.contracts.StreamSegmentTruncatedException;
 import io.pravega.segmentstore.server.AttributeIndex;
 import io.pravega.segmentstore.server.AttributeIterator;
+import io.pravega.segmentstore.server.CacheAccessTracker;
 import io.pravega.segmentstore.server.CacheManager;
 import io.pravega.segmentstore.server.DataCorruptionException;
 import io.pravega.segmentstore.server.SegmentMetadata;
@@ -93,6 +94,7 @@ public class SegmentAttributeBTreeIndex implements AttributeIndex, CacheManager.
 
     private static final int KEY_LENGTH = 2 * Long.BYTES; // UUID
     private static final int VALUE_LENGTH = Long.BYTES;
+    private static final String CACHE_CLIENT_TYPE = "AttributeIndex";
     private final SegmentMetadata segmentMetadata;
     private final AtomicReference<SegmentHandle> handle;
     private final Storage storage;
@@ -102,6 +104,7 @@ public class SegmentAttributeBTreeIndex implements AttributeIndex, CacheManager.
     private int currentCacheGeneration;
     @GuardedBy("cacheEntries")
     private final Map<Long, CacheEntry> cacheEntries;
+    private final CacheAccessTracker accessTracker;
 
     private final BTreeIndex index;
     private final AttributeIndexConfig config;
@@ -142,6 +145,7 @@ public class SegmentAttributeBTreeIndex implements AttributeIndex, CacheManager.
                                .build();
 
         this.cacheEntries = new HashMap<>();
+        this.accessTracker = new CacheAccessTracker(CACHE_CLIENT_TYPE);
         this.closed = new AtomicBoolean();
     }
 
@@ -233,6 +237,11 @@ public class SegmentAttributeBTreeIndex implements AttributeIndex, CacheManager.
 
     @Override
     public boolean updateGenerations(int currentGeneration, int oldestGeneration) {
+        return updateGenerations(currentGeneration, oldestGeneration, oldestGeneration);
+    }
+
+    @Override
+    public boolean updateGenerations(int currentGeneration, int oldestGeneration, int oldestProtectedGeneration) {
         Exceptions.checkNotClosed(this.closed.get(), this);
 
         // Remove those entries that have a generation below the oldest permissible one.
@@ -241,7 +250,11 @@ public class SegmentAttributeBTreeIndex implements AttributeIndex, CacheManager.
             this.currentCacheGeneration = currentGeneration;
             ArrayList<CacheEntry> toRemove = new ArrayList<>();
             for (val entry : this.cacheEntries.values()) {
-                if (entry.getGeneration() < oldestGeneration) {
+                // Frequently accessed pages (such as the upper levels of the index) are subject to the protected cutoff.
+                int cutoffGeneration = oldestProtectedGeneration < oldestGeneration && this.accessTracker.isFrequent(entry.getOffset())
+                        ? oldestProtectedGeneration
+                        : oldestGeneration;
+                if (entry.getGeneration() < cutoffGeneration) {
                     toRemove.add(entry);
                 }
             }
@@ -253,6 +266,11 @@ public class SegmentAttributeBTreeIndex implements AttributeIndex, CacheManager.
         return anyRemoved;
     }
 
+    @Override
+    public CacheAccessTracker getAccessTracker() {
+        return this.accessTracker;
+    }
+
     //endregion
 
     //region AttributeIndex Implementation
@@ -569,12 +587,14 @@ public class SegmentAttributeBTreeIndex implements AttributeIndex, CacheManager.
                     // We only deem a cache entry valid if it exists and has the expected length; otherwise it's best
                     // if we treat it as a cache miss and re-read it from Storage.
                     entry.setGeneration(this.currentCacheGeneration);
+                    this.accessTracker.recordHit(offset);
                     // TODO: we do need a copy since we are making changes to this thing and we shouldn't modify the cache directly.
                     return data.getCopy();
                 }
             }
         }
 
+        this.accessTracker.recordMiss(offset);
         return null;
     }
 
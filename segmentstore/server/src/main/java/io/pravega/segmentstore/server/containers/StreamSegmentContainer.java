@@ -201,6 +201,7 @@ class StreamSegmentContainer extends AbstractService implements SegmentContainer
             String s = NameUtils.getStorageMetadataSegmentName(this.metadata.getContainerId());
 
             val metadata = new TableBasedMetadataStore(s, tableExtension);
+            metadata.setWriteBatchingEnabled(chunkedStorage.getConfig().isMetadataWriteBatchingEnabled());
 
             // Bootstrap
             chunkedStorage.bootstrap(this.metadata.getContainerId(), metadata);
@@ -406,6 +407,18 @@ class StreamSegmentContainer extends AbstractService implements SegmentContainer
                 });
     }
 
+    @Override
+    public Duration getAppendBackoff(String streamSegmentName) {
+        if (this.closed.get() || state() != State.RUNNING || isOffline()) {
+            return Duration.ZERO;
+        }
+
+        // Segments that are not loaded in the metadata cannot have any outstanding appends, so they cannot contribute
+        // to any throttling.
+        long segmentId = this.metadata.getStreamSegmentId(streamSegmentName, false);
+        return segmentId == ContainerMetadata.NO_STREAM_SEGMENT_ID ? Duration.ZERO : this.durableLog.getAppendBackoff(segmentId);
+    }
+
     @Override
     public CompletableFuture<Void> updateAttributes(String streamSegmentName, Collection<AttributeUpdate> attributeUpdates, Duration timeout) {
         ensureRunning();
@@ -31,6 +31,7 @@ import io.pravega.segmentstore.server.logs.operations.CheckpointOperationBase;
 import io.pravega.segmentstore.server.logs.operations.DeleteSegmentOperation;
 import io.pravega.segmentstore.server.logs.operations.MergeSegmentOperation;
 import io.pravega.segmentstore.server.logs.operations.MetadataCheckpointOperation;
+import io.pravega.segmentstore.server.logs.operations.MetadataDeltaCheckpointOperation;
 import io.pravega.segmentstore.server.logs.operations.Operation;
 import io.pravega.segmentstore.server.logs.operations.StorageMetadataCheckpointOperation;
 import io.pravega.segmentstore.server.logs.operations.StreamSegmentAppendOperation;
@@ -43,9 +44,12 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 import java.util.stream.Collectors;
 import javax.annotation.concurrent.NotThreadSafe;
 import lombok.Getter;
+import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
@@ -60,6 +64,8 @@ class ContainerMetadataUpdateTransaction implements ContainerMetadata {
 
     private static final MetadataCheckpointSerializer METADATA_CHECKPOINT_SERIALIZER = new MetadataCheckpointSerializer();
     private static final StorageCheckpointSerializer STORAGE_CHECKPOINT_SERIALIZER = new StorageCheckpointSerializer();
+    private static final DeltaCheckpointSerializer DELTA_CHECKPOINT_SERIALIZER = new DeltaCheckpointSerializer();
+    private static final LatestCheckpointSerializer LATEST_CHECKPOINT_SERIALIZER = new LatestCheckpointSerializer();
     /**
      * Pointer to the real (live) ContainerMetadata. Used when needing access to live information (such as Storage Info).
      */
@@ -85,6 +91,18 @@ class ContainerMetadataUpdateTransaction implements ContainerMetadata {
     private final long transactionId;
     private final String traceObjectId;
     private boolean processedCheckpoint;
+    /**
+     * The Sequence Number of the last MetadataCheckpointOperation accepted, either by this UpdateTransaction or by the
+     * ones before it. Every MetadataDeltaCheckpointOperation is based on it.
+     */
+    @Getter
+    private long lastFullCheckpointSequenceNumber;
+    /**
+     * The Sequence Number of the last MetadataCheckpointOperation or MetadataDeltaCheckpointOperation accepted, either
+     * by this UpdateTransaction or by the ones before it.
+     */
+    @Getter
+    private long lastCheckpointSequenceNumber;
     @Getter
     private boolean sealed; // This refers to the UpdateTransaction, and not to the individual Segment's status.
 
@@ -113,6 +131,13 @@ class ContainerMetadataUpdateTransaction implements ContainerMetadata {
         this.newSegments = new HashMap<>();
         this.newSegmentNames = new HashMap<>();
         this.sealed = false;
+        if (baseMetadata instanceof ContainerMetadataUpdateTransaction) {
+            val previous = (ContainerMetadataUpdateTransaction) baseMetadata;
+            setCheckpointChain(previous.lastFullCheckpointSequenceNumber, previous.lastCheckpointSequenceNumber);
+        } else {
+            setCheckpointChain(Operation.NO_SEQUENCE_NUMBER, Operation.NO_SEQUENCE_NUMBER);
+        }
+
         resetNewSequenceNumber();
     }
 
@@ -278,6 +303,21 @@ class ContainerMetadataUpdateTransaction implements ContainerMetadata {
         }
     }
 
+    /**
+     * Sets the Sequence Numbers of the last full Metadata Checkpoint and of the last (full or delta) Metadata Checkpoint
+     * that any MetadataDeltaCheckpointOperation processed by this UpdateTransaction will be chained to. This is only
+     * needed for the first UpdateTransaction created on top of a ContainerMetadata; subsequent ones inherit these values
+     * from the UpdateTransaction they are based on.
+     *
+     * @param lastFullCheckpointSequenceNumber The Sequence Number of the last MetadataCheckpointOperation.
+     * @param lastCheckpointSequenceNumber     The Sequence Number of the last MetadataCheckpointOperation or
+     *                                         MetadataDeltaCheckpointOperation.
+     */
+    void setCheckpointChain(long lastFullCheckpointSequenceNumber, long lastCheckpointSequenceNumber) {
+        this.lastFullCheckpointSequenceNumber = lastFullCheckpointSequenceNumber;
+        this.lastCheckpointSequenceNumber = lastCheckpointSequenceNumber;
+    }
+
     //endregion
 
     //region Log Operation Processing
@@ -333,6 +373,9 @@ class ContainerMetadataUpdateTransaction implements ContainerMetadata {
         } else if (operation instanceof StorageMetadataCheckpointOperation) {
             // StorageMetadataCheckpointOperation do not require preProcess and accept; they can be handled in a single stage.
             processMetadataOperation((StorageMetadataCheckpointOperation) operation);
+        } else if (operation instanceof MetadataDeltaCheckpointOperation) {
+            // MetadataDeltaCheckpointOperation do not require preProcess and accept; they can be handled in a single stage.
+            processMetadataOperation((MetadataDeltaCheckpointOperation) operation);
         } else if (operation instanceof StreamSegmentMapOperation) {
             preProcessMetadataOperation((StreamSegmentMapOperation) operation);
         }
@@ -375,6 +418,12 @@ class ContainerMetadataUpdateTransaction implements ContainerMetadata {
             if (operation instanceof MetadataCheckpointOperation) {
                 // A MetadataCheckpointOperation represents a valid truncation point. Record it as such.
                 this.newTruncationPoints.add(operation.getSequenceNumber());
+                this.lastFullCheckpointSequenceNumber = operation.getSequenceNumber();
+                this.lastCheckpointSequenceNumber = operation.getSequenceNumber();
+            } else if (operation instanceof MetadataDeltaCheckpointOperation) {
+                // A MetadataDeltaCheckpointOperation is not a valid truncation point (it cannot be used on its own to
+                // rebuild the metadata), but any subsequent ones will be chained to it.
+                this.lastCheckpointSequenceNumber = operation.getSequenceNumber();
             }
 
             // Checkpoint operation has been serialized and we no longer need its contents. Clear it and release any
@@ -399,10 +448,13 @@ class ContainerMetadataUpdateTransaction implements ContainerMetadata {
                 // metadata is serialized in this operation. We need to discard whatever we have accumulated so far
                 // and rebuild the metadata from the information we have so far.
                 if (this.processedCheckpoint) {
-                    // But we can (should) only process at most one MetadataCheckpoint per recovery. Any additional
-                    // ones are redundant (used just for Truncation purposes) and contain the same information as
-                    // if we processed every operation in order, up to them.
-                    log.debug("{}: Skipping MetadataCheckpointOperation with SequenceNumber {} because we already have metadata changes.", this.traceObjectId, operation.getSequenceNumber());
+                    // But we can (should) only rebuild the metadata from at most one MetadataCheckpoint per recovery. Any
+                    // additional ones contain the same information as if we processed every operation in order, up to
+                    // them, except for the Storage State (which is not updated via Log Operations). Apply that, so that
+                    // the latest full checkpoint (and the deltas chained to it) determine the recovered Storage State.
+                    log.debug("{}: Applying Storage State from MetadataCheckpointOperation with SequenceNumber {} because we already have metadata changes.",
+                            this.traceObjectId, operation.getSequenceNumber());
+                    LATEST_CHECKPOINT_SERIALIZER.deserialize(operation.getContents(), this);
                     return;
                 }
 
@@ -435,6 +487,29 @@ class ContainerMetadataUpdateTransaction implements ContainerMetadata {
         }
     }
 
+    private void processMetadataOperation(MetadataDeltaCheckpointOperation operation) throws MetadataUpdateException {
+        if (this.lastFullCheckpointSequenceNumber == Operation.NO_SEQUENCE_NUMBER) {
+            // In non-Recovery Mode, we have nothing to base this delta on. In Recovery Mode, the RecoveryProcessor should
+            // have skipped over any delta that preceded the first full checkpoint.
+            throw new MetadataUpdateException(this.containerId,
+                    "Unable to process MetadataDeltaCheckpointOperation " + operation + " because there is no prior MetadataCheckpointOperation.");
+        }
+
+        try {
+            if (this.recoveryMode) {
+                // In Recovery Mode, we verify that this delta is chained to the checkpoints we have already processed. Any
+                // gap means a checkpoint has gone missing from the log, so we cannot trust its state.
+                log.debug("{}: Recovering MetadataDeltaCheckpointOperation with SequenceNumber {}.", this.traceObjectId, operation.getSequenceNumber());
+                DELTA_CHECKPOINT_SERIALIZER.deserialize(operation.getContents(), this);
+            } else {
+                // In non-Recovery Mode, we serialize only those Segments that have been used since the previous checkpoint.
+                operation.setContents(DELTA_CHECKPOINT_SERIALIZER.serialize(this));
+            }
+        } catch (IOException ex) {
+            throw new MetadataUpdateException(this.containerId, "Unable to process MetadataDeltaCheckpointOperation " + operation, ex);
+        }
+    }
+
     private void acceptMetadataOperation(StreamSegmentMapOperation operation) throws MetadataUpdateException {
         if (operation.getStreamSegmentId() == ContainerMetadata.NO_STREAM_SEGMENT_ID) {
             throw new MetadataUpdateException(this.containerId,
@@ -445,6 +520,9 @@ class ContainerMetadataUpdateTransaction implements ContainerMetadata {
         UpdateableSegmentMetadata segmentMetadata = getOrCreateSegmentUpdateTransaction(
                 operation.getStreamSegmentName(), operation.getStreamSegmentId());
         updateMetadata(operation, segmentMetadata);
+
+        // Record the fact that this Segment was changed, so that it will be picked up by the next delta checkpoint.
+        segmentMetadata.setLastUsed(Math.max(segmentMetadata.getLastUsed(), operation.getSequenceNumber()));
     }
 
     private void updateMetadata(StreamSegmentMapOperation mapping, UpdateableSegmentMetadata metadata) {
@@ -635,6 +713,169 @@ class ContainerMetadataUpdateTransaction implements ContainerMetadata {
 
     //endregion
 
+    //region SegmentCheckpoint
+
+    /**
+     * The state of a single Segment, as serialized in a Metadata Checkpoint. Both {@link MetadataCheckpointSerializer}
+     * and {@link DeltaCheckpointSerializer} (de)serialize Segments using this, so that a full checkpoint and its deltas
+     * always share the same layout.
+     */
+    @RequiredArgsConstructor
+    private static class SegmentCheckpoint {
+        private final long segmentId;
+        private final String name;
+        private final long length;
+        private final long storageLength;
+        private final boolean merged;
+        private final boolean sealed;
+        private final boolean sealedInStorage;
+        private final boolean deleted;
+        private final boolean deletedInStorage;
+        private final long lastModified;
+        private final long startOffset;
+        private final Map<UUID, Long> coreAttributes;
+
+        static void write00(RevisionDataOutput output, SegmentMetadata sm) throws IOException {
+            output.writeLong(sm.getId());
+            output.writeUTF(sm.getName());
+            output.writeLong(sm.getLength());
+            output.writeLong(sm.getStorageLength());
+            output.writeBoolean(sm.isMerged());
+            output.writeBoolean(sm.isSealed());
+            output.writeBoolean(sm.isSealedInStorage());
+            output.writeBoolean(sm.isDeleted());
+            output.writeBoolean(sm.isDeletedInStorage());
+            output.writeLong(sm.getLastModified().getTime());
+            output.writeLong(sm.getStartOffset());
+
+            // We only serialize Core Attributes. Extended Attributes can be retrieved from the AttributeIndex.
+            output.writeMap(Attributes.getCoreNonNullAttributes(sm.getAttributes()), RevisionDataOutput::writeUUID, RevisionDataOutput::writeLong);
+        }
+
+        static SegmentCheckpoint read00(RevisionDataInput input) throws IOException {
+            return new SegmentCheckpoint(
+                    input.readLong(),
+                    input.readUTF(),
+                    input.readLong(),
+                    input.readLong(),
+                    input.readBoolean(),
+                    input.readBoolean(),
+                    input.readBoolean(),
+                    input.readBoolean(),
+                    input.readBoolean(),
+                    input.readLong(),
+                    input.readLong(),
+                    input.readMap(RevisionDataInput::readUUID, RevisionDataInput::readLong));
+        }
+
+        /**
+         * Applies only the Storage State from this checkpoint to the given UpdateTransaction.
+         */
+        @SneakyThrows(MetadataUpdateException.class)
+        SegmentMetadata applyStorageState(ContainerMetadataUpdateTransaction t) {
+            SegmentMetadataUpdateTransaction metadata = t.getSegmentUpdateTransaction(this.segmentId);
+            metadata.updateStorageState(this.storageLength, this.sealedInStorage, this.deleted, this.deletedInStorage);
+            return metadata;
+        }
+    }
+
+    //endregion
+
+    //region DeltaCheckpointSerializer
+
+    private static class DeltaCheckpointSerializer extends VersionedSerializer.Direct<ContainerMetadataUpdateTransaction> {
+        @Override
+        protected byte getWriteVersion() {
+            return 0;
+        }
+
+        @Override
+        protected void declareVersions() {
+            version(0).revision(0, this::write00, this::read00);
+        }
+
+        private void write00(ContainerMetadataUpdateTransaction t, RevisionDataOutput output) throws IOException {
+            output.writeCompactInt(t.containerId);
+            output.writeLong(t.lastFullCheckpointSequenceNumber);
+            output.writeLong(t.lastCheckpointSequenceNumber);
+
+            // Every change to a Segment (via a Log Operation) updates its LastUsed value, so that is all we need to look
+            // at in order to figure out what changed since the last checkpoint.
+            val toSerialize = new ArrayList<SegmentMetadata>();
+            t.baseMetadata.getAllStreamSegmentIds().stream()
+                          .filter(segmentId -> !t.segmentUpdates.containsKey(segmentId))
+                          .map(t.baseMetadata::getStreamSegmentMetadata)
+                          .filter(sm -> sm.getLastUsed() > t.lastCheckpointSequenceNumber)
+                          .forEach(toSerialize::add);
+            t.newSegments.values().stream()
+                         .filter(sm -> !t.segmentUpdates.containsKey(sm.getId()))
+                         .filter(sm -> sm.getLastUsed() > t.lastCheckpointSequenceNumber)
+                         .forEach(toSerialize::add);
+            t.segmentUpdates.values().stream()
+                            .filter(sm -> sm.getLastUsed() > t.lastCheckpointSequenceNumber)
+                            .forEach(toSerialize::add);
+
+            // Use the same format as the full checkpoint, so that a full checkpoint and its deltas fully describe the metadata.
+            output.writeCollection(toSerialize, SegmentCheckpoint::write00);
+        }
+
+        private void read00(RevisionDataInput input, ContainerMetadataUpdateTransaction t) throws IOException {
+            int containerId = input.readCompactInt();
+            if (t.containerId != containerId) {
+                throw new SerializationException(String.format("Invalid ContainerId. Expected '%d', actual '%d'.", t.containerId, containerId));
+            }
+
+            long fullCheckpointSequenceNumber = input.readLong();
+            long previousCheckpointSequenceNumber = input.readLong();
+            if (fullCheckpointSequenceNumber != t.lastFullCheckpointSequenceNumber
+                    || previousCheckpointSequenceNumber != t.lastCheckpointSequenceNumber) {
+                throw new SerializationException(String.format(
+                        "Broken checkpoint chain. Expected (Full = %d, Previous = %d), actual (Full = %d, Previous = %d).",
+                        t.lastFullCheckpointSequenceNumber, t.lastCheckpointSequenceNumber, fullCheckpointSequenceNumber, previousCheckpointSequenceNumber));
+            }
+
+            // All the Operations between the previous checkpoint and this one have already been applied, so the only
+            // information that we may be missing is the Storage State (which is not updated via Log Operations).
+            input.readCollection(s -> SegmentCheckpoint.read00(s).applyStorageState(t));
+        }
+    }
+
+    //endregion
+
+    //region LatestCheckpointSerializer
+
+    /**
+     * Reads a {@link MetadataCheckpointOperation} that was encountered during recovery after the one the metadata was
+     * rebuilt from. Such a checkpoint only contributes its Storage State (everything else has already been applied via the
+     * Log Operations before it). This is never used for serialization; {@link MetadataCheckpointSerializer} writes these.
+     */
+    private static class LatestCheckpointSerializer extends VersionedSerializer.Direct<ContainerMetadataUpdateTransaction> {
+        @Override
+        protected byte getWriteVersion() {
+            return 0;
+        }
+
+        @Override
+        protected void declareVersions() {
+            version(0).revision(0, this::write00, this::read00);
+        }
+
+        private void write00(ContainerMetadataUpdateTransaction t, RevisionDataOutput output) {
+            throw new UnsupportedOperationException("Use MetadataCheckpointSerializer to serialize Metadata Checkpoints.");
+        }
+
+        private void read00(RevisionDataInput input, ContainerMetadataUpdateTransaction t) throws IOException {
+            int containerId = input.readCompactInt();
+            if (t.containerId != containerId) {
+                throw new SerializationException(String.format("Invalid ContainerId. Expected '%d', actual '%d'.", t.containerId, containerId));
+            }
+
+            input.readCollection(s -> SegmentCheckpoint.read00(s).applyStorageState(t));
+        }
+    }
+
+    //endregion
+
     //region MetadataCheckpointSerializer
 
     private static class MetadataCheckpointSerializer extends VersionedSerializer.Direct<ContainerMetadataUpdateTransaction> {
@@ -667,7 +908,7 @@ class ContainerMetadataUpdateTransaction implements ContainerMetadata {
 
             // 5. Changed Segment Metadata.
             toSerialize.addAll(t.segmentUpdates.values());
-            output.writeCollection(toSerialize, this::writeSegmentMetadata00);
+            output.writeCollection(toSerialize, SegmentCheckpoint::write00);
         }
 
         private void read00(RevisionDataInput input, ContainerMetadataUpdateTransaction t) throws IOException {
@@ -676,65 +917,36 @@ class ContainerMetadataUpdateTransaction implements ContainerMetadata {
                 throw new SerializationException(String.format("Invalid ContainerId. Expected '%d', actual '%d'.", t.containerId, containerId));
             }
 
-            input.readCollection(s -> readSegmentMetadata00(s, t));
-        }
-
-        private void writeSegmentMetadata00(RevisionDataOutput output, SegmentMetadata sm) throws IOException {
-            output.writeLong(sm.getId());
-            output.writeUTF(sm.getName());
-            output.writeLong(sm.getLength());
-            output.writeLong(sm.getStorageLength());
-            output.writeBoolean(sm.isMerged());
-            output.writeBoolean(sm.isSealed());
-            output.writeBoolean(sm.isSealedInStorage());
-            output.writeBoolean(sm.isDeleted());
-            output.writeBoolean(sm.isDeletedInStorage());
-            output.writeLong(sm.getLastModified().getTime());
-            output.writeLong(sm.getStartOffset());
-
-            // We only serialize Core Attributes. Extended Attributes can be retrieved from the AttributeIndex.
-            output.writeMap(Attributes.getCoreNonNullAttributes(sm.getAttributes()), RevisionDataOutput::writeUUID, RevisionDataOutput::writeLong);
+            input.readCollection(s -> applyCheckpoint(SegmentCheckpoint.read00(s), t));
         }
 
-        private UpdateableSegmentMetadata readSegmentMetadata00(RevisionDataInput input, ContainerMetadataUpdateTransaction t) throws IOException {
-            long segmentId = input.readLong();
-            String name = input.readUTF();
-
-            UpdateableSegmentMetadata metadata = t.getOrCreateSegmentUpdateTransaction(name, segmentId);
-
-            metadata.setLength(input.readLong());
-            metadata.setStorageLength(input.readLong());
-            boolean isMerged = input.readBoolean();
-            if (isMerged) {
+        private UpdateableSegmentMetadata applyCheckpoint(SegmentCheckpoint sc, ContainerMetadataUpdateTransaction t) {
+            UpdateableSegmentMetadata metadata = t.getOrCreateSegmentUpdateTransaction(sc.name, sc.segmentId);
+            metadata.setLength(sc.length);
+            metadata.setStorageLength(sc.storageLength);
+            if (sc.merged) {
                 metadata.markMerged();
             }
 
-            boolean isSealed = input.readBoolean();
-            if (isSealed) {
+            if (sc.sealed) {
                 metadata.markSealed();
             }
 
-            boolean isSealedInStorage = input.readBoolean();
-            if (isSealedInStorage) {
+            if (sc.sealedInStorage) {
                 metadata.markSealedInStorage();
             }
 
-            boolean isDeleted = input.readBoolean();
-            if (isDeleted) {
+            if (sc.deleted) {
                 metadata.markDeleted();
             }
 
-            boolean isDeletedInStorage = input.readBoolean();
-            if (isDeletedInStorage) {
+            if (sc.deletedInStorage) {
                 metadata.markDeletedInStorage();
             }
 
-            ImmutableDate lastModified = new ImmutableDate(input.readLong());
-            metadata.setLastModified(lastModified);
-            metadata.setStartOffset(input.readLong());
-
-            val attributes = input.readMap(RevisionDataInput::readUUID, RevisionDataInput::readLong);
-            metadata.updateAttributes(attributes);
+            metadata.setLastModified(new ImmutableDate(sc.lastModified));
+            metadata.setStartOffset(sc.startOffset);
+            metadata.updateAttributes(sc.coreAttributes);
             return metadata;
         }
     }
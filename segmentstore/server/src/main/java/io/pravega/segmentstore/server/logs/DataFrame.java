@@ -16,13 +16,18 @@ import io.pravega.common.io.BoundedInputStream;
 import io.pravega.common.io.SerializationException;
 import io.pravega.common.util.BitConverter;
 import io.pravega.common.util.BufferView;
+import io.pravega.common.util.ByteArraySegment;
 import io.pravega.common.util.CloseableIterator;
 import io.pravega.common.util.CompositeArrayView;
 import io.pravega.common.util.CompositeByteArraySegment;
+import io.pravega.segmentstore.server.DataCorruptionException;
 import io.pravega.segmentstore.storage.LogAddress;
+import io.pravega.segmentstore.storage.cache.CacheCompressor;
+import java.io.ByteArrayInputStream;
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.zip.DataFormatException;
 import javax.annotation.concurrent.NotThreadSafe;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
@@ -40,6 +45,12 @@ public class DataFrame {
     static final int MIN_ENTRY_LENGTH_NEEDED = EntryHeader.HEADER_SIZE + 1;
     private static final int BUFFER_BLOCK_SIZE = 128 * 1024; // 128KB
     private static final byte CURRENT_VERSION = 0;
+
+    /**
+     * The offset, within the serialization of a compressed DataFrame, of the length of its decompressed contents.
+     */
+    @VisibleForTesting
+    static final int DECOMPRESSED_LENGTH_OFFSET = FrameHeader.SERIALIZATION_LENGTH;
     private final CompositeArrayView data;
     private WriteFrameHeader header;
     private CompositeArrayView contents;
@@ -269,19 +280,112 @@ public class DataFrame {
 
     //endregion
 
+    //region Compression
+
+    /**
+     * Returns a compressed serialization of this DataFrame, which can be used instead of {@link #getData()} and which can
+     * be interpreted by {@link #read}. The Frame Header of this serialization has the compressed flag set and its contents
+     * are made up of the length of the uncompressed contents followed by the contents compressed using
+     * {@link CacheCompressor#deflate} (with a zlib wrapper, which includes a checksum).
+     *
+     * @return A {@link CompositeArrayView} with the compressed serialization, or null if the DataFrame's contents do not
+     * compress well enough (in which case {@link #getData()} should be used instead).
+     * @throws IllegalStateException If the DataFrame is not sealed.
+     */
+    CompositeArrayView getCompressedData() {
+        Preconditions.checkState(this.sealed, "DataFrame is not sealed.");
+        int contentLength = this.header.getContentLength();
+        int headerLength = FrameHeader.SERIALIZATION_LENGTH + Integer.BYTES;
+        int maxCompressedLength = (int) (contentLength * CacheCompressor.MAX_COMPRESSION_RATIO) - Integer.BYTES;
+        if (maxCompressedLength <= 0) {
+            return null;
+        }
+
+        // Allocate one extra byte so we can tell if the compressed contents exceed maxCompressedLength.
+        byte[] output = new byte[headerLength + maxCompressedLength + 1];
+        int compressedLength = CacheCompressor.deflate(this.contents.slice(0, contentLength), output, headerLength, maxCompressedLength, true);
+        if (compressedLength < 0) {
+            // Does not compress well enough.
+            return null;
+        }
+
+        int outputLength = headerLength + compressedLength;
+        CompositeByteArraySegment result = new CompositeByteArraySegment(output);
+        WriteFrameHeader compressedHeader = new WriteFrameHeader(CURRENT_VERSION, result.slice(0, FrameHeader.SERIALIZATION_LENGTH));
+        compressedHeader.setContentLength(outputLength - FrameHeader.SERIALIZATION_LENGTH);
+        compressedHeader.setCompressed(true);
+        compressedHeader.commit();
+        BitConverter.writeInt(result, DECOMPRESSED_LENGTH_OFFSET, contentLength);
+        return result.slice(0, outputLength);
+    }
+
+    /**
+     * Reads and decompresses the contents of a compressed DataFrame (see {@link #getCompressedData()}).
+     *
+     * @param source         An InputStream positioned right after the Frame Header.
+     * @param contentLength  The length of the (compressed) Frame contents, as recorded in the Frame Header.
+     * @param maxFrameLength The maximum length of a DataFrame. The decompressed contents may not exceed this.
+     * @return A byte array containing the decompressed contents.
+     * @throws IOException             If the contents could not be read or decompressed.
+     * @throws DataCorruptionException If the recorded decompressed length exceeds the maximum Frame length.
+     */
+    private static byte[] decompress(InputStream source, int contentLength, int maxFrameLength) throws IOException, DataCorruptionException {
+        if (contentLength < Integer.BYTES) {
+            throw new SerializationException(String.format("Compressed Data Frame is corrupt. Content length %d is too small.", contentLength));
+        }
+
+        int decompressedLength = BitConverter.readInt(source);
+        if (decompressedLength < 0) {
+            throw new SerializationException(String.format("Compressed Data Frame is corrupt. Invalid decompressed length %d.", decompressedLength));
+        }
+
+        // The decompressed length comes from the data we are reading, so do not trust it before allocating a buffer for it.
+        if (decompressedLength > maxFrameLength - FrameHeader.SERIALIZATION_LENGTH) {
+            throw new DataCorruptionException(String.format("Compressed Data Frame is corrupt. Decompressed length %d exceeds maximum Frame length %d.",
+                    decompressedLength, maxFrameLength));
+        }
+
+        byte[] input = new byte[contentLength - Integer.BYTES];
+        int inputLength = 0;
+        while (inputLength < input.length) {
+            int count = source.read(input, inputLength, input.length - inputLength);
+            if (count < 0) {
+                throw new EOFException();
+            }
+
+            inputLength += count;
+        }
+
+        byte[] output = new byte[decompressedLength];
+        try {
+            CacheCompressor.inflate(new ByteArraySegment(input), output, true);
+        } catch (DataFormatException ex) {
+            throw new SerializationException(String.format("Compressed Data Frame is corrupt. %s", ex.getMessage()));
+        }
+
+        return output;
+    }
+
+    //endregion
+
     //region Reading
 
     /**
      * Interprets the given InputStream as a DataFrame and returns a DataFrameEntryIterator for the entries serialized
-     * in it.
+     * in it. Compressed DataFrames are decompressed, in which case the offsets of the returned entries refer to the
+     * decompressed contents.
      *
-     * @param source  The InputStream to read from.
-     * @param length  The size of the inputStream.
-     * @param address The DataFrame's address.
+     * @param source         The InputStream to read from.
+     * @param length         The size of the inputStream.
+     * @param maxFrameLength The maximum length of a DataFrame (usually the maximum length of a write to the log). The
+     *                       contents of compressed DataFrames may not decompress to more than this.
+     * @param address        The DataFrame's address.
      * @return A new DataFrameEntryIterator.
-     * @throws IOException If unable to parse the DataFrame's header from the InputStream.
+     * @throws IOException             If unable to parse the DataFrame's header from the InputStream.
+     * @throws DataCorruptionException If the DataFrame is compressed and its decompressed length exceeds maxFrameLength.
      */
-    public static DataFrameEntryIterator read(InputStream source, int length, LogAddress address) throws IOException {
+    public static DataFrameEntryIterator read(InputStream source, int length, int maxFrameLength, LogAddress address)
+            throws IOException, DataCorruptionException {
         // Check to see that we have enough bytes in the InputStream.
         ReadFrameHeader header = new ReadFrameHeader(source);
         if (length < ReadFrameHeader.SERIALIZATION_LENGTH + header.getContentLength()) {
@@ -289,7 +393,14 @@ public class DataFrame {
                     ReadFrameHeader.SERIALIZATION_LENGTH + header.getContentLength(), length));
         }
 
-        BoundedInputStream contents = new BoundedInputStream(source, header.getContentLength());
+        BoundedInputStream contents;
+        if (header.isCompressed()) {
+            byte[] decompressed = decompress(source, header.getContentLength(), maxFrameLength);
+            contents = new BoundedInputStream(new ByteArrayInputStream(decompressed), decompressed.length);
+        } else {
+            contents = new BoundedInputStream(source, header.getContentLength());
+        }
+
         return new DataFrameEntryIterator(contents, address, ReadFrameHeader.SERIALIZATION_LENGTH);
     }
 
@@ -373,6 +484,7 @@ public class DataFrame {
      */
     private static abstract class FrameHeader {
         static final int SERIALIZATION_LENGTH = Byte.BYTES + Integer.BYTES + Byte.BYTES;
+        static final byte COMPRESSED_MASK = 1;
         /**
          * The serialization Version for the frame.
          */
@@ -387,18 +499,24 @@ public class DataFrame {
         @Setter
         private int contentLength;
 
+        /**
+         * Whether the Frame's contents are compressed.
+         */
+        @Getter
+        @Setter
+        private boolean compressed;
+
         byte encodeFlags() {
-            // Placeholder method. Nothing to do yet.
-            return 0;
+            return isCompressed() ? COMPRESSED_MASK : 0;
         }
 
         void decodeFlags(byte flags, byte version) {
-            // Placeholder method. Nothing to do yet.
+            setCompressed((flags & COMPRESSED_MASK) == COMPRESSED_MASK);
         }
 
         @Override
         public String toString() {
-            return String.format("Version = %d, ContentLength = %d", getVersion(), getContentLength());
+            return String.format("Version = %d, ContentLength = %d, Compressed = %s", getVersion(), getContentLength(), isCompressed());
         }
     }
 
@@ -12,6 +12,8 @@ package io.pravega.segmentstore.server.logs;
 import com.google.common.base.Preconditions;
 import io.pravega.common.Exceptions;
 import io.pravega.common.ObjectClosedException;
+import io.pravega.common.Timer;
+import io.pravega.common.util.CompositeArrayView;
 import io.pravega.common.util.SequencedItemList;
 import io.pravega.segmentstore.server.logs.operations.CompletableOperation;
 import io.pravega.segmentstore.storage.DurableDataLog;
@@ -25,7 +27,9 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
+import java.util.function.IntSupplier;
 import javax.annotation.concurrent.NotThreadSafe;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
@@ -68,7 +72,11 @@ class DataFrameBuilder<T extends SequencedItemList.Element> implements AutoClose
         this.args = Preconditions.checkNotNull(args, "args");
         Preconditions.checkNotNull(args.commitSuccess, "args.commitSuccess");
         Preconditions.checkNotNull(args.commitFailure, "args.commitFailure");
-        this.outputStream = new DataFrameOutputStream(targetLog.getWriteSettings().getMaxWriteLength(), this::handleDataFrameComplete);
+        int maxWriteLength = targetLog.getWriteSettings().getMaxWriteLength();
+        IntSupplier frameSizeProvider = args.frameSizeProvider;
+        this.outputStream = frameSizeProvider == null
+                ? new DataFrameOutputStream(maxWriteLength, this::handleDataFrameComplete)
+                : new DataFrameOutputStream(() -> Math.min(frameSizeProvider.getAsInt(), maxWriteLength), this::handleDataFrameComplete);
         this.lastSerializedSequenceNumber = -1;
         this.lastStartedSequenceNumber = -1;
         this.failureCause = new AtomicReference<>();
@@ -181,10 +189,25 @@ class DataFrameBuilder<T extends SequencedItemList.Element> implements AutoClose
         CommitArgs commitArgs = new CommitArgs(this.lastSerializedSequenceNumber, this.lastStartedSequenceNumber, dataFrame.getLength());
 
         try {
+            CompositeArrayView data = null;
+            if (this.args.compressionEnabled) {
+                Timer compressionTimer = new Timer();
+                data = dataFrame.getCompressedData();
+                commitArgs.setCompressionElapsed(compressionTimer.getElapsed());
+            }
+
+            if (data == null) {
+                // Compression is disabled or the DataFrame did not compress well enough; write it as is.
+                data = dataFrame.getData();
+            }
+
+            commitArgs.setWriteLength(data.getLength());
             this.args.beforeCommit.accept(commitArgs);
-            this.targetLog.append(dataFrame.getData(), this.args.writeTimeout)
+            Timer writeTimer = new Timer();
+            this.targetLog.append(data, this.args.writeTimeout)
                     .thenAcceptAsync(logAddress -> {
                         commitArgs.setLogAddress(logAddress);
+                        commitArgs.setWriteElapsed(writeTimer.getElapsed());
                         this.args.commitSuccess.accept(commitArgs);
                     }, this.args.executor)
                     .exceptionally(ex -> handleProcessingException(ex, commitArgs));
@@ -248,6 +271,28 @@ class DataFrameBuilder<T extends SequencedItemList.Element> implements AutoClose
         @Getter
         private final int dataFrameLength;
 
+        /**
+         * The number of bytes that were written to the DurableDataLog for this DataFrame. This is less than
+         * {@link #getDataFrameLength()} if the DataFrame was compressed.
+         */
+        @Getter
+        @Setter(AccessLevel.PRIVATE)
+        private int writeLength;
+
+        /**
+         * The amount of time it took to compress the DataFrame, or null if compression was not attempted.
+         */
+        @Getter
+        @Setter(AccessLevel.PRIVATE)
+        private Duration compressionElapsed;
+
+        /**
+         * The amount of time it took to write the DataFrame to the DurableDataLog (set upon a successful commit).
+         */
+        @Getter
+        @Setter(AccessLevel.PRIVATE)
+        private Duration writeElapsed;
+
         @Getter
         @Setter
         private long metadataTransactionId;
@@ -270,6 +315,7 @@ class DataFrameBuilder<T extends SequencedItemList.Element> implements AutoClose
             this.lastFullySerializedSequenceNumber = lastFullySerializedSequenceNumber;
             this.lastStartedSequenceNumber = lastStartedSequenceNumber;
             this.dataFrameLength = dataFrameLength;
+            this.writeLength = dataFrameLength;
             this.logAddress = new AtomicReference<>();
         }
 
@@ -286,8 +332,9 @@ class DataFrameBuilder<T extends SequencedItemList.Element> implements AutoClose
 
         @Override
         public String toString() {
-            return String.format("TxnId = %d, LastFullySerializedSN = %d, LastStartedSN = %d, Address = %s, Length = %d",
-                    getMetadataTransactionId(), getLastFullySerializedSequenceNumber(), getLastStartedSequenceNumber(), this.logAddress, getDataFrameLength());
+            return String.format("TxnId = %d, LastFullySerializedSN = %d, LastStartedSN = %d, Address = %s, Length = %d, WriteLength = %d",
+                    getMetadataTransactionId(), getLastFullySerializedSequenceNumber(), getLastStartedSequenceNumber(), this.logAddress,
+                    getDataFrameLength(), getWriteLength());
         }
     }
 
@@ -320,6 +367,21 @@ class DataFrameBuilder<T extends SequencedItemList.Element> implements AutoClose
         final BiConsumer<Throwable, CommitArgs> commitFailure;
         final Executor executor;
         final Duration writeTimeout = Duration.ofSeconds(30); // TODO: actual timeout.
+
+        /**
+         * Whether to attempt to compress DataFrames before writing them to the DurableDataLog. DataFrames that do not
+         * compress well enough are written uncompressed.
+         */
+        @Setter
+        boolean compressionEnabled = false;
+
+        /**
+         * (Optional) A Supplier that, when invoked, returns the desired size of the next DataFrame. This is invoked every
+         * time a new DataFrame is started and its result is capped at the DurableDataLog's max write length. If not set,
+         * all DataFrames will be created with the DurableDataLog's max write length.
+         */
+        @Setter
+        IntSupplier frameSizeProvider = null;
     }
 
     //endregion
@@ -11,8 +11,12 @@ package io.pravega.segmentstore.server.logs;
 
 import com.google.common.base.Preconditions;
 import io.pravega.common.Exceptions;
+import io.pravega.common.io.EnhancedByteArrayOutputStream;
 import io.pravega.common.io.SerializationException;
+import io.pravega.common.io.StreamHelpers;
+import io.pravega.common.util.ByteArraySegment;
 import io.pravega.common.util.CloseableIterator;
+import io.pravega.segmentstore.server.DataCorruptionException;
 import io.pravega.segmentstore.storage.DurableDataLog;
 import io.pravega.segmentstore.storage.DurableDataLogException;
 import io.pravega.segmentstore.storage.LogAddress;
@@ -34,6 +38,7 @@ public class DataFrameInputStream extends InputStream {
 
     private final String traceObjectId;
     private final CloseableIterator<DurableDataLog.ReadItem, DurableDataLogException> reader;
+    private final int maxFrameLength;
     private DataFrame.DataFrameEntryIterator currentFrameContents;
     private DataFrame.DataFrameEntry currentEntry;
     private long lastReadFrameSequence;
@@ -67,11 +72,14 @@ public class DataFrameInputStream extends InputStream {
     /**
      * Creates a new instance of the DataFrameInputStream class.
      *
-     * @param reader        An Iterator that produces DurableDataLog.ReadItems, which are then interpreted as DataFrames.
-     * @param traceObjectId Used for logging.
+     * @param reader         An Iterator that produces DurableDataLog.ReadItems, which are then interpreted as DataFrames.
+     * @param maxFrameLength The maximum length of a DataFrame (usually the maximum length of a write to the DurableDataLog).
+     * @param traceObjectId  Used for logging.
      */
-    DataFrameInputStream(CloseableIterator<DurableDataLog.ReadItem, DurableDataLogException> reader, String traceObjectId) {
+    DataFrameInputStream(CloseableIterator<DurableDataLog.ReadItem, DurableDataLogException> reader, int maxFrameLength, String traceObjectId) {
+        Preconditions.checkArgument(maxFrameLength > 0, "maxFrameLength must be a positive number.");
         this.reader = Preconditions.checkNotNull(reader, "reader");
+        this.maxFrameLength = maxFrameLength;
         this.traceObjectId = Exceptions.checkNotNullOrEmpty(traceObjectId, "traceObjectId");
         this.lastReadFrameSequence = -1;
         this.currentRecordBuilder = DataFrameRecord.RecordInfo.builder();
@@ -91,7 +99,7 @@ public class DataFrameInputStream extends InputStream {
     }
 
     @Override
-    @SneakyThrows(DurableDataLogException.class)
+    @SneakyThrows({DurableDataLogException.class, DataCorruptionException.class})
     public int read() throws IOException {
         Preconditions.checkState(!this.prefetchedEntry, "Must call beginRecord() before reading or skipping from a prefetched entry.");
         while (!this.closed) {
@@ -111,7 +119,7 @@ public class DataFrameInputStream extends InputStream {
     }
 
     @Override
-    @SneakyThrows(DurableDataLogException.class)
+    @SneakyThrows({DurableDataLogException.class, DataCorruptionException.class})
     public int read(byte[] buffer, int index, int length) throws IOException {
         Preconditions.checkState(!this.prefetchedEntry, "Must call beginRecord() before reading or skipping from a prefetched entry.");
         Preconditions.checkNotNull(buffer, "buffer");
@@ -152,8 +160,10 @@ public class DataFrameInputStream extends InputStream {
      * read.
      * @throws IOException If an IO Exception occurred.
      * @throws DurableDataLogException If a non-IO Exception has occurred, usually thrown by the underlying DurableDataLog.
+     * @throws DataCorruptionException If a compressed DataFrame declares a decompressed length that exceeds the maximum
+     * DataFrame length.
      */
-    boolean beginRecord() throws IOException, DurableDataLogException {
+    boolean beginRecord() throws IOException, DurableDataLogException, DataCorruptionException {
         try {
             if (this.currentEntry != null && !this.prefetchedEntry) {
                 endRecord();
@@ -176,8 +186,10 @@ public class DataFrameInputStream extends InputStream {
      * @return A RecordInfo containing metadata about the record that just ended, such as addressing information.
      * @throws IOException If an IO Exception occurred.
      * @throws DurableDataLogException If a non-IO Exception has occurred, usually thrown by the underlying DurableDataLog.
+     * @throws DataCorruptionException If a compressed DataFrame declares a decompressed length that exceeds the maximum
+     * DataFrame length.
      */
-    DataFrameRecord.RecordInfo endRecord() throws IOException, DurableDataLogException {
+    DataFrameRecord.RecordInfo endRecord() throws IOException, DurableDataLogException, DataCorruptionException {
         DataFrameRecord.RecordInfo r = this.currentRecordBuilder.build();
         while (this.currentEntry != null) {
             if (this.currentEntry.isLastRecordEntry()) {
@@ -190,6 +202,37 @@ public class DataFrameInputStream extends InputStream {
         return r;
     }
 
+    /**
+     * Reads the entire contents of the current record into a new buffer. This must be invoked immediately after a
+     * successful call to {@link #beginRecord()} (no other reads may be performed for this record). Upon success,
+     * {@link #endRecord()} must still be invoked in order to complete the record.
+     *
+     * @return A {@link ByteArraySegment} containing the contents of the record.
+     * @throws IOException If an IO Exception occurred. Similarly to {@link #read}, this may be a {@link RecordResetException}
+     * if the record was only partially serialized or a {@link NoMoreRecordsException} if the end of the DataFrameInputStream
+     * was reached before the end of the record.
+     * @throws DurableDataLogException If a non-IO Exception has occurred, usually thrown by the underlying DurableDataLog.
+     * @throws DataCorruptionException If a compressed DataFrame declares a decompressed length that exceeds the maximum
+     * DataFrame length.
+     */
+    ByteArraySegment readRecord() throws IOException, DurableDataLogException, DataCorruptionException {
+        Preconditions.checkState(!this.prefetchedEntry, "Must call beginRecord() before reading or skipping from a prefetched entry.");
+        Exceptions.checkNotClosed(this.closed, this);
+        byte[] entryData = StreamHelpers.readAll(this.currentEntry.getData(), this.currentEntry.getLength());
+        if (this.currentEntry.isLastRecordEntry()) {
+            // Most records fit in a single entry; no need to copy the data again.
+            return new ByteArraySegment(entryData);
+        }
+
+        EnhancedByteArrayOutputStream result = new EnhancedByteArrayOutputStream();
+        result.write(entryData);
+        do {
+            fetchNextEntry();
+            result.write(StreamHelpers.readAll(this.currentEntry.getData(), this.currentEntry.getLength()));
+        } while (!this.currentEntry.isLastRecordEntry());
+        return result.getData();
+    }
+
     private void checkEndOfRecord() throws IOException {
         if (this.currentEntry.isLastRecordEntry()) {
             // We've reached the end of the current record, but the caller wants to read more. This is usually
@@ -204,7 +247,7 @@ public class DataFrameInputStream extends InputStream {
         this.prefetchedEntry = false;
     }
 
-    private void fetchNextEntry() throws IOException, DurableDataLogException {
+    private void fetchNextEntry() throws IOException, DurableDataLogException, DataCorruptionException {
         Exceptions.checkNotClosed(this.closed, this);
         if (this.prefetchedEntry) {
             assert this.currentEntry != null : "prefetchEntry==true, but currentEntry==null";
@@ -276,7 +319,7 @@ public class DataFrameInputStream extends InputStream {
         this.currentRecordBuilder.withEntry(nextEntry.getFrameAddress(), nextEntry.getFrameOffset(), nextEntry.getLength(), nextEntry.isLastEntryInDataFrame());
     }
 
-    private DataFrame.DataFrameEntry getNextFrameEntry() throws DurableDataLogException, IOException {
+    private DataFrame.DataFrameEntry getNextFrameEntry() throws DurableDataLogException, DataCorruptionException, IOException {
         // Check to see if we are in the middle of a frame, in which case, just return the next element.
         DataFrame.DataFrameEntry result;
         if (this.currentFrameContents != null) {
@@ -306,7 +349,7 @@ public class DataFrameInputStream extends InputStream {
         }
     }
 
-    private DataFrame.DataFrameEntryIterator getNextFrame() throws DurableDataLogException, IOException {
+    private DataFrame.DataFrameEntryIterator getNextFrame() throws DurableDataLogException, DataCorruptionException, IOException {
         DurableDataLog.ReadItem nextItem = this.reader.getNext();
         if (nextItem == null) {
             // We have reached the end. Stop here.
@@ -315,7 +358,7 @@ public class DataFrameInputStream extends InputStream {
 
         DataFrame.DataFrameEntryIterator frameContents;
         try {
-            frameContents = DataFrame.read(nextItem.getPayload(), nextItem.getLength(), nextItem.getAddress());
+            frameContents = DataFrame.read(nextItem.getPayload(), nextItem.getLength(), this.maxFrameLength, nextItem.getAddress());
         } catch (SerializationException ex) {
             throw new SerializationException(String.format("Unable to deserialize DataFrame. LastReadFrameSequence =  %d.",
                     this.lastReadFrameSequence), ex);
@@ -18,6 +18,7 @@ import io.pravega.common.util.ByteArraySegment;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.function.Consumer;
+import java.util.function.IntSupplier;
 import javax.annotation.concurrent.NotThreadSafe;
 import lombok.Getter;
 
@@ -36,7 +37,7 @@ class DataFrameOutputStream extends OutputStream implements BufferViewSink {
     private boolean hasDataInCurrentFrame;
     @Getter
     private boolean closed;
-    private final int maxDataFrameSize;
+    private final IntSupplier maxDataFrameSize;
 
     //endregion
 
@@ -51,11 +52,22 @@ class DataFrameOutputStream extends OutputStream implements BufferViewSink {
      * @throws NullPointerException     If any of the arguments are null.
      */
     DataFrameOutputStream(int maxDataFrameSize, Consumer<DataFrame> dataFrameCompleteCallback) {
-        Exceptions.checkArgument(maxDataFrameSize > DataFrame.MIN_ENTRY_LENGTH_NEEDED, "maxDataFrameSize",
-                "Must be a at least %s.", DataFrame.MIN_ENTRY_LENGTH_NEEDED);
+        this(() -> maxDataFrameSize, dataFrameCompleteCallback);
+    }
 
-        this.maxDataFrameSize = maxDataFrameSize;
+    /**
+     * Creates a new instance of the DataFrameOutputStream class with a variable Data Frame size.
+     *
+     * @param maxDataFrameSize          A Supplier that, when invoked, returns the maximum size, in bytes, of the next Data
+     *                                  Frame to be created. This is invoked every time a new Data Frame is started.
+     * @param dataFrameCompleteCallback A callback that will be invoked when a Data Frame is full.
+     * @throws IllegalArgumentException If maxDataFrameSize does not currently supply a valid size.
+     * @throws NullPointerException     If any of the arguments are null.
+     */
+    DataFrameOutputStream(IntSupplier maxDataFrameSize, Consumer<DataFrame> dataFrameCompleteCallback) {
+        this.maxDataFrameSize = Preconditions.checkNotNull(maxDataFrameSize, "maxDataFrameSize");
         this.dataFrameCompleteCallback = Preconditions.checkNotNull(dataFrameCompleteCallback, "dataFrameCompleteCallback");
+        checkFrameSize(maxDataFrameSize.getAsInt());
     }
 
     //endregion
@@ -212,10 +224,17 @@ class DataFrameOutputStream extends OutputStream implements BufferViewSink {
     private void createNewFrame() {
         Preconditions.checkState(this.currentFrame == null || this.currentFrame.isSealed(), "Cannot create a new frame if we currently have a non-sealed frame.");
 
-        this.currentFrame = DataFrame.ofSize(this.maxDataFrameSize);
+        int frameSize = this.maxDataFrameSize.getAsInt();
+        checkFrameSize(frameSize);
+        this.currentFrame = DataFrame.ofSize(frameSize);
         this.hasDataInCurrentFrame = false;
     }
 
+    private static void checkFrameSize(int frameSize) {
+        Exceptions.checkArgument(frameSize > DataFrame.MIN_ENTRY_LENGTH_NEEDED, "maxDataFrameSize",
+                "Must be a at least %s.", DataFrame.MIN_ENTRY_LENGTH_NEEDED);
+    }
+
     private void startNewRecordInCurrentFrame(boolean firstRecordEntry) throws SerializationException {
         if (!this.currentFrame.startNewEntry(firstRecordEntry)) {
             throw new SerializationException("Unable to start a new record.");
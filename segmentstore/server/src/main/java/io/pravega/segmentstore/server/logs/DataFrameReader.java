@@ -51,7 +51,8 @@ class DataFrameReader<T extends SequencedItemList.Element> implements CloseableI
         Preconditions.checkNotNull(log, "log");
         Preconditions.checkNotNull(serializer, "serializer");
         this.lastReadSequenceNumber = Operation.NO_SEQUENCE_NUMBER;
-        this.dataFrameInputStream = new DataFrameInputStream(log.getReader(), String.format("DataFrameReader[%d]", containerId));
+        this.dataFrameInputStream = new DataFrameInputStream(log.getReader(), log.getWriteSettings().getMaxWriteLength(),
+                String.format("DataFrameReader[%d]", containerId));
         this.serializer = serializer;
     }
 
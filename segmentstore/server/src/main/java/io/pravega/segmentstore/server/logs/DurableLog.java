@@ -29,6 +29,7 @@ import io.pravega.segmentstore.server.OperationLog;
 import io.pravega.segmentstore.server.ReadIndex;
 import io.pravega.segmentstore.server.UpdateableContainerMetadata;
 import io.pravega.segmentstore.server.logs.operations.MetadataCheckpointOperation;
+import io.pravega.segmentstore.server.logs.operations.MetadataDeltaCheckpointOperation;
 import io.pravega.segmentstore.server.logs.operations.Operation;
 import io.pravega.segmentstore.server.logs.operations.OperationPriority;
 import io.pravega.segmentstore.server.logs.operations.StorageMetadataCheckpointOperation;
@@ -48,6 +49,7 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 import javax.annotation.concurrent.GuardedBy;
@@ -77,6 +79,10 @@ public class DurableLog extends AbstractService implements OperationLog {
     private final AtomicBoolean closed;
     private final CompletableFuture<Void> delayedStart;
     private final Retry.RetryAndThrowConditionally delayedStartRetry;
+    private final long recoveryReadAheadBytes;
+    private final int checkpointFullInterval;
+    private final AtomicBoolean fullCheckpointCompleted;
+    private final AtomicInteger checkpointsSinceFull;
 
     //endregion
 
@@ -106,13 +112,17 @@ public class DurableLog extends AbstractService implements OperationLog {
         this.inMemoryOperationLog = createInMemoryLog();
         this.memoryStateUpdater = new MemoryStateUpdater(this.inMemoryOperationLog, readIndex, this::triggerTailReads);
         MetadataCheckpointPolicy checkpointPolicy = new MetadataCheckpointPolicy(config, this::queueMetadataCheckpoint, this.executor);
-        this.operationProcessor = new OperationProcessor(this.metadata, this.memoryStateUpdater, this.durableDataLog, checkpointPolicy, executor);
+        this.operationProcessor = new OperationProcessor(this.metadata, this.memoryStateUpdater, this.durableDataLog, checkpointPolicy, config, executor);
         Services.onStop(this.operationProcessor, this::queueStoppedHandler, this::queueFailedHandler, this.executor);
         this.tailReads = new HashSet<>();
         this.closed = new AtomicBoolean();
         this.delayedStart = new CompletableFuture<>();
         this.delayedStartRetry = Retry.withExpBackoff(config.getStartRetryDelay().toMillis(), 1, Integer.MAX_VALUE)
                                       .retryWhen(ex -> Exceptions.unwrap(ex) instanceof DataLogDisabledException);
+        this.recoveryReadAheadBytes = config.getRecoveryReadAheadBytes();
+        this.checkpointFullInterval = config.getCheckpointFullInterval();
+        this.fullCheckpointCompleted = new AtomicBoolean();
+        this.checkpointsSinceFull = new AtomicInteger();
 
     }
 
@@ -202,9 +212,23 @@ public class DurableLog extends AbstractService implements OperationLog {
     }
 
     private CompletableFuture<Void> queueMetadataCheckpoint() {
+        // Delta checkpoints must be based on a full checkpoint, so we must have written at least one since we started.
+        if (this.fullCheckpointCompleted.get() && this.checkpointsSinceFull.incrementAndGet() < this.checkpointFullInterval) {
+            return queueMetadataDeltaCheckpoint();
+        }
+
         return Futures.toVoid(checkpoint(DEFAULT_TIMEOUT));
     }
 
+    private CompletableFuture<Void> queueMetadataDeltaCheckpoint() {
+        log.debug("{}: Queuing MetadataDeltaCheckpointOperation.", this.traceObjectId);
+        MetadataDeltaCheckpointOperation op = new MetadataDeltaCheckpointOperation();
+        return this.operationProcessor
+                .process(op, OperationPriority.Normal)
+                .thenRun(() -> log.debug("{}: MetadataDeltaCheckpointOperation durably stored (SequenceNumber = {}).",
+                        this.traceObjectId, op.getSequenceNumber()));
+    }
+
     @SneakyThrows(Exception.class)
     private boolean performRecovery() {
         // Make sure we are in the correct state. We do not want to do recovery while we are in full swing.
@@ -217,7 +241,8 @@ public class DurableLog extends AbstractService implements OperationLog {
             this.durableDataLog.initialize(DEFAULT_TIMEOUT);
 
             // Initiate the recovery.
-            RecoveryProcessor p = new RecoveryProcessor(this.metadata, this.durableDataLog, this.memoryStateUpdater);
+            RecoveryProcessor p = new RecoveryProcessor(this.metadata, this.durableDataLog, this.memoryStateUpdater,
+                    this.recoveryReadAheadBytes, this.executor);
             int recoveredItemCount = p.performRecovery();
             this.operationProcessor.getMetrics().operationsCompleted(recoveredItemCount, timer.getElapsed());
 
@@ -303,6 +328,11 @@ public class DurableLog extends AbstractService implements OperationLog {
         return this.operationProcessor.process(operation, priority);
     }
 
+    @Override
+    public Duration getAppendBackoff(long streamSegmentId) {
+        return state() != State.RUNNING || isOffline() ? Duration.ZERO : this.operationProcessor.getAppendBackoff(streamSegmentId);
+    }
+
     @Override
     public CompletableFuture<Void> truncate(long upToSequenceNumber, Duration timeout) {
         ensureRunning();
@@ -346,6 +376,8 @@ public class DurableLog extends AbstractService implements OperationLog {
                 .process(op, OperationPriority.Normal)
                 .thenApply(v -> {
                     log.info("{}: MetadataCheckpointOperation durably stored.", this.traceObjectId);
+                    this.checkpointsSinceFull.set(0);
+                    this.fullCheckpointCompleted.set(true);
                     return op.getSequenceNumber();
                 });
     }
@@ -25,7 +25,11 @@ public class DurableLogConfig {
     public static final Property<Integer> CHECKPOINT_MIN_COMMIT_COUNT = Property.named("checkpoint.commit.count.min", 300, "checkpointMinCommitCount");
     public static final Property<Integer> CHECKPOINT_COMMIT_COUNT = Property.named("checkpoint.commit.threshold.count", 300, "checkpointCommitCountThreshold");
     public static final Property<Long> CHECKPOINT_TOTAL_COMMIT_LENGTH = Property.named("checkpoint.commit.length.total", 256 * 1024 * 1024L, "checkpointTotalCommitLengthThreshold");
+    public static final Property<Integer> CHECKPOINT_FULL_INTERVAL = Property.named("checkpoint.full.interval", 1);
     public static final Property<Integer> START_RETRY_DELAY_MILLIS = Property.named("start.retry.delay.millis", 60 * 1000, "startRetryDelayMillis");
+    public static final Property<Long> RECOVERY_READ_AHEAD_BYTES = Property.named("recovery.readAhead.bytes", 64 * 1024 * 1024L);
+    public static final Property<Boolean> COMPRESSION_ENABLE = Property.named("compression.enable", false);
+    public static final Property<Integer> LATENCY_TARGET_MILLIS = Property.named("latency.target.millis", 0);
     private static final String COMPONENT_CODE = "durablelog";
 
     //endregion
@@ -50,12 +54,42 @@ public class DurableLogConfig {
     @Getter
     private final long checkpointTotalCommitLengthThreshold;
 
+    /**
+     * The number of consecutive Checkpoints (as triggered by the commit count and length thresholds above) for which only
+     * one will be a full Metadata Checkpoint. The others will be delta Checkpoints, which only contain those Segments that
+     * changed since the previous Checkpoint. If 1, every Checkpoint is a full Metadata Checkpoint.
+     */
+    @Getter
+    private final int checkpointFullInterval;
+
     /**
      * The amount of time to wait between consecutive start attempts in case of retryable startup failure (i.e., offline).
      */
     @Getter
     private Duration startRetryDelay;
 
+    /**
+     * The maximum number of bytes that may be read ahead from the DurableDataLog during recovery. Read-ahead data is
+     * deserialized in parallel while previously read Operations are being applied. If 0, recovery is fully sequential.
+     */
+    @Getter
+    private final long recoveryReadAheadBytes;
+
+    /**
+     * Whether DataFrames should be compressed before being written to the DurableDataLog. DataFrames that do not compress
+     * well are written uncompressed. Compressed DataFrames cannot be read by older Segment Store versions.
+     */
+    @Getter
+    private final boolean compressionEnabled;
+
+    /**
+     * The desired 99th percentile DataFrame write latency. If non-zero, the size of DataFrames and the number of DataFrames
+     * that may be outstanding at any given time will be continuously adjusted in order to meet this target. If zero,
+     * DataFrames are always filled up to the DurableDataLog's max write length.
+     */
+    @Getter
+    private final Duration latencyTarget;
+
     //endregion
 
     //region Constructor
@@ -75,11 +109,25 @@ public class DurableLogConfig {
         }
 
         this.checkpointTotalCommitLengthThreshold = properties.getLong(CHECKPOINT_TOTAL_COMMIT_LENGTH);
+        this.checkpointFullInterval = properties.getInt(CHECKPOINT_FULL_INTERVAL);
+        if (this.checkpointFullInterval <= 0) {
+            throw new ConfigurationException(String.format("Property '%s' must be a positive integer.", CHECKPOINT_FULL_INTERVAL));
+        }
         int startRetryDelayMillis = properties.getInt(START_RETRY_DELAY_MILLIS);
         if (startRetryDelayMillis <= 0) {
             throw new ConfigurationException(String.format("Property '%s' must be a positive integer.", START_RETRY_DELAY_MILLIS));
         }
         this.startRetryDelay = Duration.ofMillis(startRetryDelayMillis);
+        this.recoveryReadAheadBytes = properties.getLong(RECOVERY_READ_AHEAD_BYTES);
+        if (this.recoveryReadAheadBytes < 0) {
+            throw new ConfigurationException(String.format("Property '%s' must be a non-negative integer.", RECOVERY_READ_AHEAD_BYTES));
+        }
+        this.compressionEnabled = properties.getBoolean(COMPRESSION_ENABLE);
+        int latencyTargetMillis = properties.getInt(LATENCY_TARGET_MILLIS);
+        if (latencyTargetMillis < 0) {
+            throw new ConfigurationException(String.format("Property '%s' must be a non-negative integer.", LATENCY_TARGET_MILLIS));
+        }
+        this.latencyTarget = Duration.ofMillis(latencyTargetMillis);
     }
 
     /**
@@ -0,0 +1,276 @@
+/**
+ * Copyright (c) Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.server.logs;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import io.pravega.segmentstore.server.SegmentStoreMetrics;
+import io.pravega.segmentstore.storage.QueueStats;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.function.Supplier;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Adapts the size of DataFrames and the number of DataFrames that may be outstanding (written to the DurableDataLog
+ * but not yet acknowledged) at any given time so that the 99th percentile of DataFrame write latencies stays at or
+ * below a configured target.
+ *
+ * The adjustment is done in an additive-increase/multiplicative-decrease fashion, once every {@link #ADJUSTMENT_INTERVAL}
+ * DataFrame acknowledgements:
+ * - If the observed p99 latency exceeds the target and DataFrames are queuing up in the DurableDataLog, the maximum number
+ * of in-flight DataFrames is halved (we are submitting more than the DurableDataLog can handle).
+ * - If the observed p99 latency exceeds the target and there is no such queuing, the DataFrame size is halved (each
+ * individual write is too large to be acknowledged within the target).
+ * - If the observed p99 latency is well below the target, both the DataFrame size and the maximum number of in-flight
+ * DataFrames are increased by a small amount, which improves throughput.
+ */
+@Slf4j
+@ThreadSafe
+class LatencyTargetController {
+    //region Members
+
+    /**
+     * Maximum number of DataFrames that may be outstanding at any given time.
+     */
+    @VisibleForTesting
+    static final int MAX_FRAMES_IN_FLIGHT = 64;
+    /**
+     * Minimum DataFrame size we are willing to go down to. Any less than this would cause each Operation to be split
+     * across too many DataFrames.
+     */
+    @VisibleForTesting
+    static final int MIN_FRAME_SIZE = 16 * 1024;
+    /**
+     * Maximum number of most recent write latencies to calculate percentiles on.
+     */
+    @VisibleForTesting
+    static final int SAMPLE_WINDOW_SIZE = 128;
+    /**
+     * Number of DataFrame acknowledgements between two consecutive adjustments.
+     */
+    @VisibleForTesting
+    static final int ADJUSTMENT_INTERVAL = 16;
+    /**
+     * Fraction of the latency target below which we will attempt to increase the DataFrame size and concurrency.
+     */
+    @VisibleForTesting
+    static final double GROWTH_THRESHOLD = 0.5;
+    /**
+     * The number of increments needed to grow the DataFrame size from its minimum to its maximum value.
+     */
+    private static final int FRAME_SIZE_INCREMENT_COUNT = 16;
+    private static final double PERCENTILE = 0.99;
+
+    @Getter
+    private final Duration latencyTarget;
+    private final long latencyTargetNanos;
+    private final int maxFrameSize;
+    private final int minFrameSize;
+    private final int frameSizeIncrement;
+    private final Supplier<QueueStats> getQueueStats;
+    private final SegmentStoreMetrics.OperationProcessor metrics;
+    private final String traceObjectId;
+    @GuardedBy("this")
+    private final long[] latencySamples;
+    @GuardedBy("this")
+    private int sampleCount;
+    @GuardedBy("this")
+    private int nextSampleIndex;
+    @GuardedBy("this")
+    private int samplesSinceAdjustment;
+    @GuardedBy("this")
+    private int frameSize;
+    @GuardedBy("this")
+    private int maxFramesInFlight;
+    @GuardedBy("this")
+    private int framesInFlight;
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the LatencyTargetController class.
+     *
+     * @param containerId   The Id of the Container this controller is for. Used for logging purposes.
+     * @param latencyTarget The desired 99th percentile DataFrame write latency.
+     * @param maxFrameSize  The maximum size of a DataFrame. This is usually the DurableDataLog's max write length.
+     * @param getQueueStats A Supplier that, when invoked, returns a QueueStats object representing the most recent
+     *                      statistics about the DurableDataLog write queue.
+     * @param metrics       The metrics to report adjustments to.
+     */
+    LatencyTargetController(int containerId, Duration latencyTarget, int maxFrameSize, Supplier<QueueStats> getQueueStats,
+                            SegmentStoreMetrics.OperationProcessor metrics) {
+        Preconditions.checkArgument(!latencyTarget.isNegative() && !latencyTarget.isZero(), "latencyTarget must be a positive duration.");
+        Preconditions.checkArgument(maxFrameSize > DataFrame.MIN_ENTRY_LENGTH_NEEDED, "maxFrameSize must be at least %s.",
+                DataFrame.MIN_ENTRY_LENGTH_NEEDED);
+        this.traceObjectId = String.format("LatencyTargetController[%d]", containerId);
+        this.latencyTarget = latencyTarget;
+        this.latencyTargetNanos = latencyTarget.toNanos();
+        this.maxFrameSize = maxFrameSize;
+        this.minFrameSize = Math.min(MIN_FRAME_SIZE, maxFrameSize);
+        this.frameSizeIncrement = Math.max(1, (maxFrameSize - this.minFrameSize) / FRAME_SIZE_INCREMENT_COUNT);
+        this.getQueueStats = Preconditions.checkNotNull(getQueueStats, "getQueueStats");
+        this.metrics = Preconditions.checkNotNull(metrics, "metrics");
+        this.latencySamples = new long[SAMPLE_WINDOW_SIZE];
+
+        // Begin with the same behavior as if there were no latency target and let the adjustments take it from there.
+        this.frameSize = maxFrameSize;
+        this.maxFramesInFlight = MAX_FRAMES_IN_FLIGHT;
+    }
+
+    //endregion
+
+    //region Properties
+
+    /**
+     * Gets the current target DataFrame size.
+     *
+     * @return The target DataFrame size, in bytes.
+     */
+    synchronized int getFrameSize() {
+        return this.frameSize;
+    }
+
+    /**
+     * Gets the current maximum number of DataFrames that may be outstanding at any given time.
+     *
+     * @return The maximum number of in-flight DataFrames.
+     */
+    synchronized int getMaxFramesInFlight() {
+        return this.maxFramesInFlight;
+    }
+
+    /**
+     * Gets the number of DataFrames that are currently outstanding.
+     *
+     * @return The number of in-flight DataFrames.
+     */
+    synchronized int getFramesInFlight() {
+        return this.framesInFlight;
+    }
+
+    /**
+     * Determines whether the number of outstanding DataFrames has reached the current maximum. If so, no more Operations
+     * should be processed until at least one outstanding DataFrame is acknowledged.
+     *
+     * @return True if the limit has been reached, false otherwise.
+     */
+    synchronized boolean isInFlightLimitReached() {
+        return this.framesInFlight >= this.maxFramesInFlight;
+    }
+
+    //endregion
+
+    //region Frame Tracking
+
+    /**
+     * Records the fact that a DataFrame has been sealed and is about to be written to the DurableDataLog.
+     */
+    synchronized void frameSubmitted() {
+        this.framesInFlight++;
+    }
+
+    /**
+     * Records the fact that a DataFrame has been successfully written to the DurableDataLog and adjusts the DataFrame size
+     * and maximum number of in-flight DataFrames, if needed.
+     *
+     * @param writeLatency The amount of time it took to write the DataFrame.
+     * @return True if the in-flight limit had been reached prior to this call and is no longer reached after it (so any
+     * throttling induced by it may now be lifted), false otherwise.
+     */
+    boolean frameCompleted(Duration writeLatency) {
+        boolean released;
+        boolean adjusted;
+        long p99 = 0;
+        int newFrameSize;
+        int newMaxFramesInFlight;
+        synchronized (this) {
+            boolean wasLimitReached = isInFlightLimitReached();
+            this.framesInFlight = Math.max(0, this.framesInFlight - 1);
+            if (writeLatency != null) {
+                recordSample(writeLatency.toNanos());
+            }
+
+            adjusted = this.samplesSinceAdjustment >= ADJUSTMENT_INTERVAL;
+            if (adjusted) {
+                p99 = getPercentile(PERCENTILE);
+                adjust(p99);
+            }
+
+            released = wasLimitReached && !isInFlightLimitReached();
+            newFrameSize = this.frameSize;
+            newMaxFramesInFlight = this.maxFramesInFlight;
+        }
+
+        if (adjusted) {
+            long p99Millis = Duration.ofNanos(p99).toMillis();
+            log.debug("{}: p99 = {}ms, FrameSize = {}, MaxFramesInFlight = {}.", this.traceObjectId, p99Millis, newFrameSize, newMaxFramesInFlight);
+            this.metrics.latencyTargetAdjusted(newFrameSize, newMaxFramesInFlight, p99Millis);
+        }
+
+        return released;
+    }
+
+    /**
+     * Records the fact that a DataFrame has failed to be written to the DurableDataLog.
+     */
+    synchronized void frameFailed() {
+        this.framesInFlight = Math.max(0, this.framesInFlight - 1);
+    }
+
+    @GuardedBy("this")
+    private void recordSample(long latencyNanos) {
+        this.latencySamples[this.nextSampleIndex] = latencyNanos;
+        this.nextSampleIndex = (this.nextSampleIndex + 1) % this.latencySamples.length;
+        this.sampleCount = Math.min(this.sampleCount + 1, this.latencySamples.length);
+        this.samplesSinceAdjustment++;
+    }
+
+    @GuardedBy("this")
+    private long getPercentile(double percentile) {
+        long[] sorted = Arrays.copyOf(this.latencySamples, this.sampleCount);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, index)];
+    }
+
+    @GuardedBy("this")
+    private void adjust(long p99Nanos) {
+        this.samplesSinceAdjustment = 0;
+        int oldFrameSize = this.frameSize;
+        int oldMaxFramesInFlight = this.maxFramesInFlight;
+        if (p99Nanos > this.latencyTargetNanos) {
+            if (this.maxFramesInFlight > 1 && this.getQueueStats.get().getSize() > 1) {
+                // DataFrames are queuing up in the DurableDataLog; reduce the concurrency.
+                this.maxFramesInFlight = Math.max(1, this.maxFramesInFlight / 2);
+            } else {
+                // Nothing is queued up, yet writes still take too long; they must be too large.
+                this.frameSize = Math.max(this.minFrameSize, this.frameSize / 2);
+            }
+        } else if (p99Nanos < this.latencyTargetNanos * GROWTH_THRESHOLD) {
+            this.frameSize = Math.min(this.maxFrameSize, this.frameSize + this.frameSizeIncrement);
+            this.maxFramesInFlight = Math.min(MAX_FRAMES_IN_FLIGHT, this.maxFramesInFlight + 1);
+        }
+
+        if (this.frameSize != oldFrameSize || this.maxFramesInFlight != oldMaxFramesInFlight) {
+            // The samples we have collected so far reflect the previous settings. Start over so we can observe the
+            // effects of this change before making another one.
+            this.sampleCount = 0;
+            this.nextSampleIndex = 0;
+        }
+    }
+
+    //endregion
+}
@@ -41,6 +41,8 @@ class OperationMetadataUpdater implements ContainerMetadata {
     private final UpdateableContainerMetadata metadata;
     private final ArrayDeque<ContainerMetadataUpdateTransaction> transactions;
     private long nextTransactionId;
+    private long lastFullCheckpointSequenceNumber;
+    private long lastCheckpointSequenceNumber;
 
     //endregion
 
@@ -57,6 +59,8 @@ class OperationMetadataUpdater implements ContainerMetadata {
         this.traceObjectId = String.format("OperationMetadataUpdater[%d]", metadata.getContainerId());
         this.nextTransactionId = 0;
         this.transactions = new ArrayDeque<>();
+        this.lastFullCheckpointSequenceNumber = Operation.NO_SEQUENCE_NUMBER;
+        this.lastCheckpointSequenceNumber = Operation.NO_SEQUENCE_NUMBER;
     }
 
     //endregion
@@ -149,6 +153,8 @@ class OperationMetadataUpdater implements ContainerMetadata {
             ContainerMetadataUpdateTransaction txn = this.transactions.removeFirst();
             txn.seal();
             txn.commit(this.metadata);
+            this.lastFullCheckpointSequenceNumber = txn.getLastFullCheckpointSequenceNumber();
+            this.lastCheckpointSequenceNumber = txn.getLastCheckpointSequenceNumber();
             commits.add(txn.getTransactionId());
         }
 
@@ -204,7 +210,9 @@ class OperationMetadataUpdater implements ContainerMetadata {
      * the pending UpdateTransaction and it is updated accordingly (if needed).
      *
      * If the given operation is a MetadataCheckpointOperation, the current state of the metadata (including pending
-     * UpdateTransactions) is serialized to it.
+     * UpdateTransactions) is serialized to it. If it is a MetadataDeltaCheckpointOperation, only those Segments that
+     * changed since the last (full or delta) checkpoint are serialized to it (in Recovery Mode, it is verified that it is
+     * chained to the previously processed checkpoints).
      *
      * For all other kinds of MetadataOperations (i.e., StreamSegmentMapOperation) this method only
      * does anything if the base Container Metadata is in Recovery Mode (in which case the given MetadataOperation) is
@@ -275,6 +283,11 @@ class OperationMetadataUpdater implements ContainerMetadata {
             }
 
             ContainerMetadataUpdateTransaction txn = new ContainerMetadataUpdateTransaction(previous, this.metadata, this.nextTransactionId);
+            if (previous == this.metadata) {
+                // The base Container Metadata does not keep track of checkpoints; we do it on its behalf.
+                txn.setCheckpointChain(this.lastFullCheckpointSequenceNumber, this.lastCheckpointSequenceNumber);
+            }
+
             this.nextTransactionId++;
             this.transactions.addLast(txn);
         }
@@ -28,6 +28,7 @@ import io.pravega.segmentstore.server.logs.operations.CompletableOperation;
 import io.pravega.segmentstore.server.logs.operations.Operation;
 import io.pravega.segmentstore.server.logs.operations.OperationPriority;
 import io.pravega.segmentstore.server.logs.operations.OperationSerializer;
+import io.pravega.segmentstore.server.logs.operations.StreamSegmentAppendOperation;
 import io.pravega.segmentstore.storage.DataLogWriterNotPrimaryException;
 import io.pravega.segmentstore.storage.DurableDataLog;
 import io.pravega.segmentstore.storage.cache.CacheFullException;
@@ -60,6 +61,11 @@ class OperationProcessor extends AbstractThreadPoolService implements AutoClosea
     private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(10);
     private static final int MAX_READ_AT_ONCE = 1000;
     private static final int MAX_COMMIT_QUEUE_SIZE = 50;
+    /**
+     * Maximum backoff that will be suggested to writers of Segments that contribute to the Container's throttling.
+     */
+    @VisibleForTesting
+    static final Duration MAX_APPEND_BACKOFF = Duration.ofSeconds(5);
 
     private final UpdateableContainerMetadata metadata;
     private final MemoryStateUpdater stateUpdater;
@@ -74,7 +80,14 @@ class OperationProcessor extends AbstractThreadPoolService implements AutoClosea
     @Getter
     private final SegmentStoreMetrics.OperationProcessor metrics;
     private final Throttler throttler;
+    private final ThrottlerCalculator throttlerCalculator;
+    private final SegmentBacklogTracker segmentBacklog;
     private final CacheUtilizationProvider cacheUtilizationProvider;
+    /**
+     * Adapts DataFrame sizes and limits the number of in-flight DataFrames in order to meet a write latency target. Null
+     * if no latency target is configured.
+     */
+    private final LatencyTargetController latencyTargetController;
 
     //endregion
 
@@ -91,8 +104,25 @@ class OperationProcessor extends AbstractThreadPoolService implements AutoClosea
      * @throws NullPointerException If any of the arguments are null.
      */
     OperationProcessor(UpdateableContainerMetadata metadata, MemoryStateUpdater stateUpdater, DurableDataLog durableDataLog, MetadataCheckpointPolicy checkpointPolicy, ScheduledExecutorService executor) {
+        this(metadata, stateUpdater, durableDataLog, checkpointPolicy, DurableLogConfig.builder().build(), executor);
+    }
+
+    /**
+     * Creates a new instance of the OperationProcessor class.
+     *
+     * @param metadata         The ContainerMetadata for the Container to process operations for.
+     * @param stateUpdater     A MemoryStateUpdater that is used to update in-memory structures upon successful Operation committal.
+     * @param durableDataLog   The DataFrameLog to write DataFrames to.
+     * @param checkpointPolicy The Checkpoint Policy for Metadata.
+     * @param config           The DurableLogConfig to use (for DataFrame compression and write latency target settings).
+     * @param executor         An Executor to use for async operations.
+     * @throws NullPointerException If any of the arguments are null.
+     */
+    OperationProcessor(UpdateableContainerMetadata metadata, MemoryStateUpdater stateUpdater, DurableDataLog durableDataLog,
+                       MetadataCheckpointPolicy checkpointPolicy, DurableLogConfig config, ScheduledExecutorService executor) {
         super(String.format("OperationProcessor[%d]", metadata.getContainerId()), executor);
         Preconditions.checkNotNull(durableDataLog, "durableDataLog");
+        Preconditions.checkNotNull(config, "config");
         this.metadata = metadata;
         this.stateUpdater = Preconditions.checkNotNull(stateUpdater, "stateUpdater");
         this.metadataUpdater = new OperationMetadataUpdater(this.metadata);
@@ -100,16 +130,32 @@ class OperationProcessor extends AbstractThreadPoolService implements AutoClosea
         this.commitQueue = new BlockingDrainingQueue<>();
         this.state = new QueueProcessingState(checkpointPolicy);
         val args = new DataFrameBuilder.Args(this.state::frameSealed, this.state::commit, this.state::fail, this.executor);
-        this.dataFrameBuilder = new DataFrameBuilder<>(durableDataLog, OperationSerializer.DEFAULT, args);
+        args.setCompressionEnabled(config.isCompressionEnabled());
         this.metrics = new SegmentStoreMetrics.OperationProcessor(this.metadata.getContainerId());
+        if (config.getLatencyTarget().isZero()) {
+            this.latencyTargetController = null;
+        } else {
+            this.latencyTargetController = new LatencyTargetController(this.metadata.getContainerId(), config.getLatencyTarget(),
+                    durableDataLog.getWriteSettings().getMaxWriteLength(), durableDataLog::getQueueStatistics, this.metrics);
+            args.setFrameSizeProvider(this.latencyTargetController::getFrameSize);
+        }
+        this.dataFrameBuilder = new DataFrameBuilder<>(durableDataLog, OperationSerializer.DEFAULT, args);
         this.cacheUtilizationProvider = stateUpdater.getCacheUtilizationProvider();
-        val throttlerCalculator = ThrottlerCalculator
+        val throttlerBuilder = ThrottlerCalculator
                 .builder()
-                .cacheThrottler(this.cacheUtilizationProvider::getCacheUtilization, this.cacheUtilizationProvider.getCacheTargetUtilization(), this.cacheUtilizationProvider.getCacheMaxUtilization())
-                .batchingThrottler(durableDataLog::getQueueStatistics)
+                .cacheThrottler(this.cacheUtilizationProvider::getCacheUtilization, this.cacheUtilizationProvider.getCacheTargetUtilization(), this.cacheUtilizationProvider.getCacheMaxUtilization());
+        if (this.latencyTargetController == null) {
+            throttlerBuilder.batchingThrottler(durableDataLog::getQueueStatistics);
+        } else {
+            // The number of in-flight DataFrames already determines how many operations are batched together; the fill
+            // ratio-based batching delay would only work against the latency target.
+            throttlerBuilder.latencyTargetThrottler(this.latencyTargetController);
+        }
+        this.throttlerCalculator = throttlerBuilder
                 .durableDataLogThrottler(durableDataLog.getWriteSettings(), durableDataLog::getQueueStatistics)
                 .build();
-        this.throttler = new Throttler(this.metadata.getContainerId(), throttlerCalculator, this::hasThrottleExemptOperations, executor, this.metrics);
+        this.segmentBacklog = new SegmentBacklogTracker();
+        this.throttler = new Throttler(this.metadata.getContainerId(), this.throttlerCalculator, this::hasThrottleExemptOperations, executor, this.metrics);
         this.cacheUtilizationProvider.registerCleanupListener(this.throttler);
         durableDataLog.registerQueueStateChangeListener(this.throttler);
     }
@@ -226,6 +272,7 @@ class OperationProcessor extends AbstractThreadPoolService implements AutoClosea
             result.completeExceptionally(new IllegalContainerStateException("OperationProcessor is not running."));
         } else {
             log.debug("{}: process[{}] {}.", this.traceObjectId, priority, operation);
+            trackAppendBacklog(operation, result);
             try {
                 this.operationQueue.add(new CompletableOperation(operation, priority, result));
             } catch (Throwable e) {
@@ -247,6 +294,44 @@ class OperationProcessor extends AbstractThreadPoolService implements AutoClosea
         return result;
     }
 
+    /**
+     * Gets the amount of time that writers to the given Segment should back off for before sending more appends.
+     *
+     * The Throttler delays all operations in this Container whenever one of its shared resources (Cache, DurableDataLog)
+     * nears capacity. Since all operations are serialized into the same ordered log, we cannot selectively delay just
+     * some of them; instead, we identify the Segments that contribute to this pressure (see {@link SegmentBacklogTracker})
+     * and suggest that their writers back off, which relieves the pressure for everyone else.
+     *
+     * @param streamSegmentId The Id of the Segment to query.
+     * @return The suggested backoff. This is {@link Duration#ZERO} if no throttling is required or if the given Segment
+     * is not contributing to it.
+     */
+    Duration getAppendBackoff(long streamSegmentId) {
+        if (!this.segmentBacklog.isContributing(streamSegmentId)) {
+            return Duration.ZERO;
+        }
+
+        val delay = this.throttlerCalculator.getThrottlingDelay();
+        if (delay.getDurationMillis() <= 0 || delay.getThrottlerName() == ThrottlerCalculator.ThrottlerName.Batching) {
+            // Batching delays are a normal occurrence and are not caused by excessive load.
+            return Duration.ZERO;
+        }
+
+        return Duration.ofMillis(Math.min(delay.getDurationMillis(), MAX_APPEND_BACKOFF.toMillis()));
+    }
+
+    /**
+     * Records the given Operation's length against its Segment's backlog (if it is an append), until it completes.
+     */
+    private void trackAppendBacklog(Operation operation, CompletableFuture<Void> result) {
+        if (operation instanceof StreamSegmentAppendOperation) {
+            long segmentId = ((StreamSegmentAppendOperation) operation).getStreamSegmentId();
+            long length = ((StreamSegmentAppendOperation) operation).getLength();
+            this.segmentBacklog.add(segmentId, length);
+            result.whenComplete((r, ex) -> this.segmentBacklog.remove(segmentId, length));
+        }
+    }
+
     /**
      * Gets the maximum number of Operations to fetch from the operation queue. This is calculated based on the estimated
      * cache insertion capacity and its goal is to reduce the number of operations we have in flight as we near the
@@ -547,6 +632,14 @@ class OperationProcessor extends AbstractThreadPoolService implements AutoClosea
                 this.nextFrameOperations = new ArrayList<>();
                 this.metadataTransactions.addLast(commitArgs);
             }
+
+            if (latencyTargetController != null) {
+                latencyTargetController.frameSubmitted();
+            }
+
+            if (commitArgs.getCompressionElapsed() != null) {
+                metrics.dataFrameCompressed(commitArgs.getDataFrameLength(), commitArgs.getWriteLength(), commitArgs.getCompressionElapsed());
+            }
         }
 
         /**
@@ -563,6 +656,11 @@ class OperationProcessor extends AbstractThreadPoolService implements AutoClosea
         void commit(DataFrameBuilder.CommitArgs commitArgs) {
             assert commitArgs.getMetadataTransactionId() >= 0 : "DataFrameBuilder.CommitArgs does not have a key set";
             log.debug("{}: CommitSuccess ({}).", traceObjectId, commitArgs);
+            metrics.dataFrameWritten(commitArgs.getWriteElapsed());
+            if (latencyTargetController != null && latencyTargetController.frameCompleted(commitArgs.getWriteElapsed())) {
+                // We were holding off processing more operations due to too many in-flight DataFrames. Resume now.
+                getThrottler().notifyThrottleSourceChanged();
+            }
             Timer timer = new Timer();
 
             List<List<CompletableOperation>> toAck = null;
@@ -618,6 +716,10 @@ class OperationProcessor extends AbstractThreadPoolService implements AutoClosea
          * @param commitArgs The Data Frame Commit Args that triggered this action.
          */
         void fail(Throwable ex, DataFrameBuilder.CommitArgs commitArgs) {
+            if (commitArgs != null && latencyTargetController != null) {
+                latencyTargetController.frameFailed();
+            }
+
             List<CompletableOperation> toFail = null;
             try {
                 synchronized (stateLock) {
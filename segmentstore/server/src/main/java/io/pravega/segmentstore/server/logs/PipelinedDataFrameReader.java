@@ -0,0 +1,436 @@
+/**
+ * Copyright (c) Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.server.logs;
+
+import com.google.common.base.Preconditions;
+import io.pravega.common.Exceptions;
+import io.pravega.common.Timer;
+import io.pravega.common.concurrent.Futures;
+import io.pravega.common.util.BufferView;
+import io.pravega.common.util.CloseableIterator;
+import io.pravega.common.util.SequencedItemList;
+import io.pravega.segmentstore.server.DataCorruptionException;
+import io.pravega.segmentstore.server.logs.operations.Operation;
+import io.pravega.segmentstore.storage.DurableDataLog;
+import io.pravega.segmentstore.storage.DurableDataLogException;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Same as {@link DataFrameReader}, but pipelines the work required to decompose Data Frames into the Log Operations
+ * that were serialized into them. This is split into the following stages:
+ * <ol>
+ * <li> Reading: DataFrames are read from the DurableDataLog and the (raw) records serialized into them are extracted.
+ * This is inherently sequential and is executed in the background (on the given Executor), ahead of the caller, until
+ * the read-ahead limit has been reached.
+ * <li> Deserialization: each extracted record is deserialized independently, in parallel, on the given Executor.
+ * <li> Delivery: the caller receives the deserialized records, in order, via {@link #getNext()}.
+ * </ol>
+ * None of the background tasks ever block waiting on each other or on the caller. If any stage falls behind, the caller
+ * will perform the work itself (i.e., read the next record or deserialize it), so this will make progress even if the
+ * Executor is saturated. All errors are surfaced to the caller in the order in which they would have been encountered
+ * by a {@link DataFrameReader}.
+ *
+ * If the read-ahead limit is 0, records are deserialized directly from the Data Frames as they are read, without being
+ * extracted first (same as {@link DataFrameReader}).
+ */
+@Slf4j
+@ThreadSafe
+class PipelinedDataFrameReader<T extends SequencedItemList.Element> implements CloseableIterator<DataFrameRecord<T>, Exception> {
+    //region Members
+
+    private final String traceObjectId;
+    @GuardedBy("readLock")
+    private final DataFrameInputStream dataFrameInputStream;
+    private final Serializer<T> serializer;
+    private final long maxReadAheadBytes;
+    private final Executor executor;
+    private final ReentrantLock readLock;
+    @GuardedBy("pending")
+    private final ArrayDeque<PendingRecord> pending;
+    @GuardedBy("pending")
+    private long pendingBytes;
+    @GuardedBy("pending")
+    private boolean endReached;
+    private final AtomicBoolean readAheadRunning;
+    private final AtomicLong readNanos;
+    private final AtomicLong deserializeNanos;
+    private final AtomicBoolean closed;
+    private long lastReadSequenceNumber;
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the PipelinedDataFrameReader class.
+     *
+     * @param log               The DataFrameLog to read data frames from.
+     * @param serializer        A Serializer to create LogItems upon deserialization. Must be safe for concurrent use.
+     * @param containerId       The Container Id for the PipelinedDataFrameReader (used primarily for logging).
+     * @param maxReadAheadBytes The maximum number of bytes of records that can be read (but not yet returned via
+     *                          {@link #getNext()}) at any given time. If 0, no work will be done in the background and
+     *                          this will behave like a {@link DataFrameReader}.
+     * @param executor          An Executor to run background reads and deserializations on.
+     * @throws NullPointerException    If any of the arguments are null.
+     * @throws DurableDataLogException If the given log threw an exception while initializing a Reader.
+     */
+    PipelinedDataFrameReader(DurableDataLog log, Serializer<T> serializer, int containerId, long maxReadAheadBytes, Executor executor)
+            throws DurableDataLogException {
+        Preconditions.checkNotNull(log, "log");
+        Preconditions.checkArgument(maxReadAheadBytes >= 0, "maxReadAheadBytes must be a non-negative number.");
+        this.serializer = Preconditions.checkNotNull(serializer, "serializer");
+        this.executor = Preconditions.checkNotNull(executor, "executor");
+        this.traceObjectId = String.format("PipelinedDataFrameReader[%d]", containerId);
+        this.maxReadAheadBytes = maxReadAheadBytes;
+        this.dataFrameInputStream = new DataFrameInputStream(log.getReader(), log.getWriteSettings().getMaxWriteLength(), this.traceObjectId);
+        this.readLock = new ReentrantLock();
+        this.pending = new ArrayDeque<>();
+        this.readAheadRunning = new AtomicBoolean();
+        this.readNanos = new AtomicLong();
+        this.deserializeNanos = new AtomicLong();
+        this.closed = new AtomicBoolean();
+        this.lastReadSequenceNumber = Operation.NO_SEQUENCE_NUMBER;
+    }
+
+    //endregion
+
+    //region AutoCloseable Implementation
+
+    @Override
+    public void close() {
+        if (!this.closed.getAndSet(true)) {
+            this.readLock.lock();
+            try {
+                this.dataFrameInputStream.close();
+            } finally {
+                this.readLock.unlock();
+            }
+
+            synchronized (this.pending) {
+                this.pending.clear();
+                this.pendingBytes = 0;
+                this.endReached = true;
+            }
+        }
+    }
+
+    //endregion
+
+    //region Properties
+
+    /**
+     * Gets the total amount of time spent reading DataFrames and extracting records from them, in milliseconds.
+     *
+     * @return The elapsed time.
+     */
+    long getReadMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(this.readNanos.get());
+    }
+
+    /**
+     * Gets the total amount of time spent deserializing records, in milliseconds. Since deserializations execute in
+     * parallel, this may exceed the wall-clock time spent doing so.
+     *
+     * @return The elapsed time.
+     */
+    long getDeserializeMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(this.deserializeNanos.get());
+    }
+
+    //endregion
+
+    //region CloseableIterator Implementation
+
+    /**
+     * Attempts to return the next Operation from the DataFrameLog.
+     *
+     * @return A DataFrameRecord with the requested operation. If no more Operations are available, null is returned.
+     * @throws Exception If an exception occurred. This could be a {@link DataCorruptionException} or a
+     * {@link DurableDataLogException}, as described in {@link DataFrameReader#getNext()}.
+     */
+    @Override
+    public DataFrameRecord<T> getNext() throws Exception {
+        Exceptions.checkNotClosed(this.closed.get(), this);
+        try {
+            PendingRecord next = takeNext();
+            if (next == null) {
+                // We've reached the end.
+                return null;
+            }
+
+            // Deserialize it ourselves if nobody has picked it up yet; otherwise wait for it.
+            next.deserialize();
+            T logItem = Futures.getThrowingException(next.result);
+            long seqNo = logItem.getSequenceNumber();
+            if (seqNo <= this.lastReadSequenceNumber) {
+                throw new DataCorruptionException(String.format("Invalid Operation Sequence Number. Expected: larger than %d, found: %d.",
+                        this.lastReadSequenceNumber, seqNo));
+            }
+
+            this.lastReadSequenceNumber = seqNo;
+            triggerReadAhead();
+            return new DataFrameRecord<>(logItem, next.recordInfo);
+        } catch (Exception ex) {
+            // As with DataFrameReader, close right away if we encountered any kind of exception. See DataFrameReader.getNext()
+            // for details.
+            close();
+            throw ex;
+        }
+    }
+
+    //endregion
+
+    //region Helpers
+
+    /**
+     * Gets the next {@link PendingRecord}, reading it from the DataFrameInputStream if not already read ahead.
+     *
+     * @return The next {@link PendingRecord}, or null if the end has been reached.
+     */
+    private PendingRecord takeNext() {
+        while (true) {
+            synchronized (this.pending) {
+                PendingRecord next = this.pending.pollFirst();
+                if (next != null) {
+                    this.pendingBytes -= next.length;
+                    return next;
+                } else if (this.endReached) {
+                    return null;
+                }
+            }
+
+            // Nothing read ahead. Read the next record ourselves (this will wait for any in-progress background read).
+            this.readLock.lock();
+            try {
+                if (isEmpty()) {
+                    readRecord();
+                }
+            } finally {
+                this.readLock.unlock();
+            }
+        }
+    }
+
+    private boolean isEmpty() {
+        synchronized (this.pending) {
+            return this.pending.isEmpty() && !this.endReached;
+        }
+    }
+
+    private boolean canReadAhead() {
+        synchronized (this.pending) {
+            return !this.endReached && this.pendingBytes < this.maxReadAheadBytes;
+        }
+    }
+
+    /**
+     * Initiates a background read-ahead (if needed and not already running).
+     */
+    private void triggerReadAhead() {
+        if (!this.closed.get() && canReadAhead() && this.readAheadRunning.compareAndSet(false, true)) {
+            try {
+                this.executor.execute(this::readAhead);
+            } catch (RejectedExecutionException ex) {
+                // We will read everything ourselves.
+                this.readAheadRunning.set(false);
+            }
+        }
+    }
+
+    /**
+     * Reads records in the background until the read-ahead limit is reached. Yields to the caller if it needs to read
+     * a record itself (the caller will re-trigger this when it is done).
+     */
+    private void readAhead() {
+        try {
+            while (!this.closed.get() && canReadAhead()) {
+                if (!this.readLock.tryLock()) {
+                    break;
+                }
+
+                try {
+                    readRecord();
+                } finally {
+                    this.readLock.unlock();
+                }
+            }
+        } catch (Throwable ex) {
+            if (Exceptions.mustRethrow(ex)) {
+                throw ex;
+            }
+
+            // readRecord() does not throw; anything here is unexpected.
+            log.error("{}: Read-ahead failed.", this.traceObjectId, ex);
+        } finally {
+            this.readAheadRunning.set(false);
+        }
+    }
+
+    /**
+     * Reads the next record from the DataFrameInputStream and queues it up for deserialization (or deserializes it right
+     * away, if read-ahead is disabled). If the end has been reached or an exception occurred, it records this fact so
+     * that it can be surfaced (in order) to the caller.
+     */
+    @GuardedBy("readLock")
+    private void readRecord() {
+        Timer timer = new Timer();
+        long deserializeElapsed = 0;
+        try {
+            while (!this.dataFrameInputStream.isClosed()) {
+                try {
+                    if (!this.dataFrameInputStream.beginRecord()) {
+                        // We've reached the end of the DataFrameInputStream.
+                        break;
+                    }
+
+                    if (this.maxReadAheadBytes == 0) {
+                        // Nothing is read ahead, so there is no need to extract (copy) the record before deserializing it.
+                        Timer deserializeTimer = new Timer();
+                        T logItem = this.serializer.deserialize(this.dataFrameInputStream);
+                        deserializeElapsed = deserializeTimer.getElapsedNanos();
+                        this.deserializeNanos.addAndGet(deserializeElapsed);
+                        DataFrameRecord.RecordInfo recordInfo = this.dataFrameInputStream.endRecord();
+                        add(new PendingRecord(logItem, recordInfo));
+                    } else {
+                        BufferView data = this.dataFrameInputStream.readRecord();
+                        DataFrameRecord.RecordInfo recordInfo = this.dataFrameInputStream.endRecord();
+                        add(new PendingRecord(data, recordInfo));
+                    }
+                    return;
+                } catch (DataFrameInputStream.RecordResetException | DataFrameInputStream.NoMoreRecordsException ex) {
+                    // We partially read a record, but realized it was garbage (a product of a failed, partial
+                    // serialization). Discard whatever we have and try again.
+                }
+            }
+
+            // No more data.
+            markEndReached();
+        } catch (IOException ex) {
+            // This catches all EOFExceptions, EndOfRecordExceptions and SerializationExceptions too.
+            fail(new DataCorruptionException("Deserialization failed.", ex));
+        } catch (Exception ex) {
+            fail(ex);
+        } finally {
+            this.readNanos.addAndGet(timer.getElapsedNanos() - deserializeElapsed);
+        }
+    }
+
+    private void add(PendingRecord record) {
+        synchronized (this.pending) {
+            if (this.endReached) {
+                // Closed in the meantime.
+                return;
+            }
+
+            this.pending.addLast(record);
+            this.pendingBytes += record.length;
+        }
+
+        if (this.maxReadAheadBytes > 0) {
+            try {
+                this.executor.execute(record::deserialize);
+            } catch (RejectedExecutionException ex) {
+                // The caller will deserialize it when it needs it.
+            }
+        }
+    }
+
+    private void fail(Exception ex) {
+        PendingRecord failed = new PendingRecord(ex);
+        synchronized (this.pending) {
+            if (!this.endReached) {
+                this.pending.addLast(failed);
+                this.endReached = true;
+            }
+        }
+    }
+
+    private void markEndReached() {
+        synchronized (this.pending) {
+            this.endReached = true;
+        }
+    }
+
+    //endregion
+
+    //region PendingRecord
+
+    /**
+     * A record that has been read but not yet returned to the caller.
+     */
+    private class PendingRecord {
+        private final BufferView data;
+        private final DataFrameRecord.RecordInfo recordInfo;
+        private final int length;
+        private final CompletableFuture<T> result;
+        private final AtomicBoolean claimed;
+
+        PendingRecord(BufferView data, DataFrameRecord.RecordInfo recordInfo) {
+            this.data = data;
+            this.recordInfo = recordInfo;
+            this.length = data.getLength();
+            this.result = new CompletableFuture<>();
+            this.claimed = new AtomicBoolean();
+        }
+
+        PendingRecord(T logItem, DataFrameRecord.RecordInfo recordInfo) {
+            this.data = null;
+            this.recordInfo = recordInfo;
+            this.length = 0;
+            this.result = CompletableFuture.completedFuture(logItem);
+            this.claimed = new AtomicBoolean(true);
+        }
+
+        PendingRecord(Exception failure) {
+            this.data = null;
+            this.recordInfo = null;
+            this.length = 0;
+            this.result = Futures.failedFuture(failure);
+            this.claimed = new AtomicBoolean(true);
+        }
+
+        /**
+         * Deserializes this record, unless it has already been (or is being) deserialized by someone else.
+         */
+        void deserialize() {
+            if (!this.claimed.compareAndSet(false, true)) {
+                return;
+            }
+
+            Timer timer = new Timer();
+            try {
+                this.result.complete(serializer.deserialize(this.data.getReader()));
+            } catch (IOException ex) {
+                // This catches all EOFExceptions, EndOfRecordExceptions and SerializationExceptions too.
+                this.result.completeExceptionally(new DataCorruptionException("Deserialization failed.", ex));
+            } catch (Throwable ex) {
+                this.result.completeExceptionally(ex);
+                if (Exceptions.mustRethrow(ex)) {
+                    throw ex;
+                }
+            } finally {
+                deserializeNanos.addAndGet(timer.getElapsedNanos());
+            }
+        }
+    }
+
+    //endregion
+}
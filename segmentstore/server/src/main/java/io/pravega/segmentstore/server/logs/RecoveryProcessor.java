@@ -18,10 +18,14 @@ import io.pravega.segmentstore.server.DataCorruptionException;
 import io.pravega.segmentstore.server.SegmentStoreMetrics;
 import io.pravega.segmentstore.server.UpdateableContainerMetadata;
 import io.pravega.segmentstore.server.logs.operations.MetadataCheckpointOperation;
+import io.pravega.segmentstore.server.logs.operations.MetadataDeltaCheckpointOperation;
 import io.pravega.segmentstore.server.logs.operations.Operation;
 import io.pravega.segmentstore.server.logs.operations.OperationSerializer;
 import io.pravega.segmentstore.storage.DurableDataLog;
 import io.pravega.segmentstore.storage.LogAddress;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -34,6 +38,8 @@ class RecoveryProcessor {
     private final UpdateableContainerMetadata metadata;
     private final DurableDataLog durableDataLog;
     private final MemoryStateUpdater stateUpdater;
+    private final long readAheadBytes;
+    private final Executor executor;
     private final String traceObjectId;
 
     //endregion
@@ -48,9 +54,26 @@ class RecoveryProcessor {
      * @param stateUpdater     A MemoryStateUpdater that can be used to apply the recovered operations.
      */
     RecoveryProcessor(UpdateableContainerMetadata metadata, DurableDataLog durableDataLog, MemoryStateUpdater stateUpdater) {
+        this(metadata, durableDataLog, stateUpdater, 0, Runnable::run);
+    }
+
+    /**
+     * Creates a new instance of the RecoveryProcessor class which reads ahead and deserializes Operations in parallel.
+     *
+     * @param metadata       The UpdateableContainerMetadata to use for recovery.
+     * @param durableDataLog The (uninitialized) DurableDataLog to read data from for recovery.
+     * @param stateUpdater   A MemoryStateUpdater that can be used to apply the recovered operations.
+     * @param readAheadBytes The maximum number of bytes to read ahead from the DurableDataLog. If 0, recovery is sequential.
+     * @param executor       An Executor to read ahead and deserialize Operations on.
+     */
+    RecoveryProcessor(UpdateableContainerMetadata metadata, DurableDataLog durableDataLog, MemoryStateUpdater stateUpdater,
+                      long readAheadBytes, Executor executor) {
+        Preconditions.checkArgument(readAheadBytes >= 0, "readAheadBytes must be a non-negative number.");
         this.metadata = Preconditions.checkNotNull(metadata, "metadata");
         this.durableDataLog = Preconditions.checkNotNull(durableDataLog, "durableDataLog");
         this.stateUpdater = Preconditions.checkNotNull(stateUpdater, "stateUpdater");
+        this.executor = Preconditions.checkNotNull(executor, "executor");
+        this.readAheadBytes = readAheadBytes;
         this.traceObjectId = String.format("RecoveryProcessor[%s]", this.metadata.getContainerId());
     }
 
@@ -91,12 +114,15 @@ class RecoveryProcessor {
         boolean successfulRecovery = false;
         int recoveredItemCount;
         try {
-            recoveredItemCount = recoverAllOperations(metadataUpdater);
+            RecoveryStats stats = recoverAllOperations(metadataUpdater);
+            recoveredItemCount = stats.recoveredItemCount;
             this.metadata.setContainerEpoch(this.durableDataLog.getEpoch());
             long timeElapsed = timer.getElapsedMillis();
-            log.info("{} Recovery completed. Epoch = {}, Items Recovered = {}, Time = {}ms.", this.traceObjectId,
-                    this.metadata.getContainerEpoch(), recoveredItemCount, timeElapsed);
-            SegmentStoreMetrics.recoveryCompleted(timeElapsed, this.metadata.getContainerId());
+            log.info("{} Recovery completed. Epoch = {}, Items Recovered = {}, Time = {}ms (Read = {}ms, Deserialize = {}ms, Apply = {}ms).",
+                    this.traceObjectId, this.metadata.getContainerEpoch(), recoveredItemCount, timeElapsed,
+                    stats.readMillis, stats.deserializeMillis, stats.applyMillis);
+            SegmentStoreMetrics.recoveryCompleted(timeElapsed, stats.readMillis, stats.deserializeMillis, stats.applyMillis,
+                    this.metadata.getContainerId());
             successfulRecovery = true;
         } finally {
             // We must exit recovery mode when done, regardless of outcome.
@@ -112,21 +138,35 @@ class RecoveryProcessor {
      * Recovers the Operations from the DurableLog using the given OperationMetadataUpdater. Searches the DurableDataLog
      * until the first MetadataCheckpointOperation is encountered. All Operations prior to this one are skipped over.
      * Recovery starts with the first MetadataCheckpointOperation and runs until the end of the DurableDataLog is reached.
-     * Subsequent MetadataCheckpointOperations are ignored (as they contain redundant information - which has already
-     * been built up using the Operations up to them).
+     * Subsequent MetadataCheckpointOperations are not used to rebuild the metadata (that has already been built up using
+     * the Operations up to them); only the Storage State they contain is applied.
+     *
+     * MetadataDeltaCheckpointOperations cannot be used as a starting point, so any that precede the first
+     * MetadataCheckpointOperation are skipped over as well. Every subsequent one is verified to be chained to the latest
+     * MetadataCheckpointOperation and the deltas before it (any gap indicates data loss) and the Storage State it
+     * contains is applied to the metadata. As such, the recovered Storage State is that of the latest full checkpoint,
+     * updated by the deltas that follow it.
+     *
+     * Operations are read ahead and deserialized in parallel (see {@link PipelinedDataFrameReader}), but they are always
+     * applied in order, on the current thread.
      *
      * @param metadataUpdater The OperationMetadataUpdater to use for updates.
-     * @return The number of Operations recovered.
+     * @return A {@link RecoveryStats} containing the number of Operations recovered and the time spent in each stage.
      */
-    private int recoverAllOperations(OperationMetadataUpdater metadataUpdater) throws Exception {
+    private RecoveryStats recoverAllOperations(OperationMetadataUpdater metadataUpdater) throws Exception {
         long traceId = LoggerHelpers.traceEnterWithContext(log, this.traceObjectId, "recoverAllOperations");
         int skippedOperationCount = 0;
         int skippedDataFramesCount = 0;
         int recoveredItemCount = 0;
+        long latestFullCheckpoint = Operation.NO_SEQUENCE_NUMBER;
+        int deltaCheckpointCount = 0;
+        long applyNanos = 0;
+        PipelinedDataFrameReader<Operation> reader = new PipelinedDataFrameReader<>(this.durableDataLog, OperationSerializer.DEFAULT,
+                this.metadata.getContainerId(), this.readAheadBytes, this.executor);
 
         // Read all entries from the DataFrameLog and append them to the InMemoryOperationLog.
         // Also update metadata along the way.
-        try (DataFrameReader<Operation> reader = new DataFrameReader<>(this.durableDataLog, OperationSerializer.DEFAULT, this.metadata.getContainerId())) {
+        try {
             DataFrameRecord<Operation> dataFrameRecord;
 
             // We can only recover starting from a MetadataCheckpointOperation; find the first one.
@@ -154,20 +194,36 @@ class RecoveryProcessor {
 
             // Now continue with the recovery from here.
             while (dataFrameRecord != null) {
+                Timer applyTimer = new Timer();
                 recordTruncationMarker(dataFrameRecord);
                 recoverOperation(dataFrameRecord, metadataUpdater);
+                applyNanos += applyTimer.getElapsedNanos();
                 recoveredItemCount++;
+                if (dataFrameRecord.getItem() instanceof MetadataCheckpointOperation) {
+                    latestFullCheckpoint = dataFrameRecord.getItem().getSequenceNumber();
+                    deltaCheckpointCount = 0;
+                } else if (dataFrameRecord.getItem() instanceof MetadataDeltaCheckpointOperation) {
+                    deltaCheckpointCount++;
+                }
 
                 // Fetch the next operation.
                 dataFrameRecord = reader.getNext();
             }
+        } finally {
+            reader.close();
         }
 
         // Commit whatever changes we have in the metadata updater to the Container Metadata.
         // This code will only be invoked if we haven't encountered any exceptions during recovery.
         metadataUpdater.commitAll();
+        if (latestFullCheckpoint != Operation.NO_SEQUENCE_NUMBER) {
+            log.info("{}: Recovered Storage State from MetadataCheckpointOperation {} and {} MetadataDeltaCheckpointOperation(s) after it.",
+                    this.traceObjectId, latestFullCheckpoint, deltaCheckpointCount);
+        }
+
         LoggerHelpers.traceLeave(log, this.traceObjectId, "recoverAllOperations", traceId, recoveredItemCount);
-        return recoveredItemCount;
+        return new RecoveryStats(recoveredItemCount, reader.getReadMillis(), reader.getDeserializeMillis(),
+                TimeUnit.NANOSECONDS.toMillis(applyNanos));
     }
 
     protected void recoverOperation(DataFrameRecord<Operation> dataFrameRecord, OperationMetadataUpdater metadataUpdater) throws DataCorruptionException {
@@ -207,4 +263,16 @@ class RecoveryProcessor {
     }
 
     //endregion
+
+    //region RecoveryStats
+
+    @RequiredArgsConstructor
+    private static class RecoveryStats {
+        final int recoveredItemCount;
+        final long readMillis;
+        final long deserializeMillis;
+        final long applyMillis;
+    }
+
+    //endregion
 }
@@ -0,0 +1,125 @@
+/**
+ * Copyright (c) Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.server.logs;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Keeps track of the number of bytes appended to each Segment that have been accepted by the {@link OperationProcessor}
+ * but not yet committed (or failed). This is used to determine which Segments are responsible for the pressure on the
+ * Container's shared resources (Cache, DurableDataLog) so that only their writers are asked to back off.
+ *
+ * A Segment is considered to be contributing to the pressure if it has at least {@link #MIN_BACKLOG_BYTES} outstanding
+ * and at least its fair share (the average across all Segments with outstanding appends) of the total outstanding bytes.
+ *
+ * This is updated for every append and queried after every append, so it does not use any global locks. Each Segment's
+ * counter is updated atomically, while the totals are updated separately, so queries may observe them slightly out of
+ * sync with each other. That is acceptable, since this is only used to make a recommendation.
+ */
+@ThreadSafe
+class SegmentBacklogTracker {
+    //region Members
+
+    /**
+     * Minimum number of outstanding bytes a Segment must have before it can be considered to contribute to any pressure.
+     * Segments with fewer outstanding bytes than this will never be asked to back off, regardless of how the others behave.
+     */
+    @VisibleForTesting
+    static final long MIN_BACKLOG_BYTES = 1024 * 1024;
+    private final ConcurrentHashMap<Long, Long> outstandingBytes = new ConcurrentHashMap<>();
+    private final AtomicLong totalOutstandingBytes = new AtomicLong();
+    private final AtomicInteger segmentCount = new AtomicInteger();
+
+    //endregion
+
+    //region Operations
+
+    /**
+     * Records the fact that an append of the given length has been accepted for the given Segment.
+     *
+     * @param segmentId The Id of the Segment.
+     * @param length    The length of the append.
+     */
+    void add(long segmentId, long length) {
+        Preconditions.checkArgument(length >= 0, "length must be a non-negative number.");
+        this.outstandingBytes.compute(segmentId, (id, existing) -> {
+            if (existing == null) {
+                this.segmentCount.incrementAndGet();
+                return length;
+            }
+
+            return existing + length;
+        });
+        this.totalOutstandingBytes.addAndGet(length);
+    }
+
+    /**
+     * Records the fact that an append of the given length for the given Segment is no longer outstanding (it has either
+     * been committed or failed).
+     *
+     * @param segmentId The Id of the Segment.
+     * @param length    The length of the append.
+     */
+    void remove(long segmentId, long length) {
+        this.outstandingBytes.computeIfPresent(segmentId, (id, existing) -> {
+            long removed = Math.min(existing, length);
+            this.totalOutstandingBytes.addAndGet(-removed);
+            if (existing - removed <= 0) {
+                this.segmentCount.decrementAndGet();
+                return null;
+            }
+
+            return existing - removed;
+        });
+    }
+
+    /**
+     * Gets the number of outstanding bytes for the given Segment.
+     *
+     * @param segmentId The Id of the Segment.
+     * @return The number of outstanding bytes.
+     */
+    long getOutstandingBytes(long segmentId) {
+        return this.outstandingBytes.getOrDefault(segmentId, 0L);
+    }
+
+    /**
+     * Gets the number of outstanding bytes across all Segments.
+     *
+     * @return The number of outstanding bytes.
+     */
+    long getTotalOutstandingBytes() {
+        return this.totalOutstandingBytes.get();
+    }
+
+    /**
+     * Determines whether the given Segment contributes to the pressure on the Container's shared resources.
+     *
+     * @param segmentId The Id of the Segment.
+     * @return True if the Segment has at least {@link #MIN_BACKLOG_BYTES} outstanding and at least its fair share of the
+     * total outstanding bytes, false otherwise.
+     */
+    boolean isContributing(long segmentId) {
+        long bytes = getOutstandingBytes(segmentId);
+        if (bytes < MIN_BACKLOG_BYTES) {
+            return false;
+        }
+
+        // Compare against the average without dividing, to avoid any rounding issues.
+        return bytes * this.segmentCount.get() >= this.totalOutstandingBytes.get();
+    }
+
+    //endregion
+}
@@ -187,7 +187,8 @@ class Throttler implements ThrottleSourceListener, AutoCloseable {
 
     private boolean isInterruptible(ThrottlerCalculator.ThrottlerName name) {
         return name == ThrottlerCalculator.ThrottlerName.Cache
-                || name == ThrottlerCalculator.ThrottlerName.DurableDataLog;
+                || name == ThrottlerCalculator.ThrottlerName.DurableDataLog
+                || name == ThrottlerCalculator.ThrottlerName.LatencyTarget;
     }
 
     @VisibleForTesting
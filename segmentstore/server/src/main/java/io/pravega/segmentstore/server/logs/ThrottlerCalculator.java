@@ -287,6 +287,37 @@ class ThrottlerCalculator {
         }
     }
 
+    /**
+     * Calculates the amount of time to wait before processing more operations from the queue in order to keep the
+     * DurableDataLog write latency within a target. This is based on the number of DataFrames currently in flight, as
+     * determined by a {@link LatencyTargetController}.
+     */
+    @RequiredArgsConstructor
+    private static class LatencyTargetThrottler extends Throttler {
+        @NonNull
+        private final LatencyTargetController controller;
+
+        @Override
+        boolean isThrottlingRequired() {
+            return this.controller.isInFlightLimitReached();
+        }
+
+        @Override
+        int getDelayMillis() {
+            // We wait at most the latency target (capped to the max batching delay); this delay is expected to be interrupted
+            // as soon as an in-flight DataFrame is acknowledged. Any operations accumulated in the meantime will be batched
+            // together.
+            return this.controller.isInFlightLimitReached()
+                    ? (int) Math.min(this.controller.getLatencyTarget().toMillis(), MAX_BATCHING_DELAY_MILLIS)
+                    : 0;
+        }
+
+        @Override
+        ThrottlerName getName() {
+            return ThrottlerName.LatencyTarget;
+        }
+    }
+
     //endregion
 
     //region Builder
@@ -319,6 +350,16 @@ class ThrottlerCalculator {
             return throttler(new BatchingThrottler(getQueueStats));
         }
 
+        /**
+         * Includes a Latency Target Throttler.
+         *
+         * @param controller The {@link LatencyTargetController} that tracks the number of in-flight DataFrames.
+         * @return This builder.
+         */
+        ThrottlerCalculatorBuilder latencyTargetThrottler(LatencyTargetController controller) {
+            return throttler(new LatencyTargetThrottler(controller));
+        }
+
         ThrottlerCalculatorBuilder durableDataLogThrottler(WriteSettings writeSettings, Supplier<QueueStats> getQueueStats) {
             return throttler(new DurableDataLogThrottler(writeSettings, getQueueStats));
         }
@@ -384,6 +425,11 @@ class ThrottlerCalculator {
          * Throttling is required due to excessive size of DurableDataLog's in-flight queue.
          */
         DurableDataLog,
+        /**
+         * Throttling is required in order to keep the number of in-flight DataFrames within the limit imposed by the
+         * DurableDataLog write latency target.
+         */
+        LatencyTarget,
     }
 
     //endregion
@@ -0,0 +1,85 @@
+/**
+ * Copyright (c) Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.server.reading;
+
+import com.google.common.base.Preconditions;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Limits the amount of Cache data that is being compressed at any given time across all the {@link StreamSegmentReadIndex}
+ * instances in a Container.
+ */
+@ThreadSafe
+class CacheCompressionBudget {
+    //region Members
+
+    private final long maxBytes;
+    private final AtomicLong usedBytes;
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the CacheCompressionBudget class.
+     *
+     * @param maxBytes The maximum number of bytes that can be reserved at any given time.
+     */
+    CacheCompressionBudget(long maxBytes) {
+        Preconditions.checkArgument(maxBytes > 0, "maxBytes must be a positive number.");
+        this.maxBytes = maxBytes;
+        this.usedBytes = new AtomicLong();
+    }
+
+    //endregion
+
+    //region Operations
+
+    /**
+     * Attempts to reserve the given number of bytes. A reservation that exceeds the budget on its own is only granted if
+     * nothing else is reserved, so that large Cache entries are still compressed eventually.
+     *
+     * @param length The number of bytes to reserve.
+     * @return True if the bytes were reserved (and must be released using {@link #release}), false otherwise.
+     */
+    boolean reserve(int length) {
+        Preconditions.checkArgument(length >= 0, "length must be a non-negative number.");
+        long used;
+        do {
+            used = this.usedBytes.get();
+            if (used > 0 && used + length > this.maxBytes) {
+                return false;
+            }
+        } while (!this.usedBytes.compareAndSet(used, used + length));
+        return true;
+    }
+
+    /**
+     * Releases the given number of reserved bytes.
+     *
+     * @param length The number of bytes to release.
+     */
+    void release(int length) {
+        long newValue = this.usedBytes.addAndGet(-length);
+        assert newValue >= 0 : "Released more bytes than reserved.";
+    }
+
+    /**
+     * Gets the number of bytes currently reserved.
+     *
+     * @return The number of bytes.
+     */
+    long getUsedBytes() {
+        return this.usedBytes.get();
+    }
+
+    //endregion
+}
@@ -10,6 +10,7 @@
 package io.pravega.segmentstore.server.reading;
 
 import com.google.common.base.Preconditions;
+import io.pravega.segmentstore.storage.cache.CacheCompressor;
 import javax.annotation.concurrent.GuardedBy;
 import lombok.Getter;
 
@@ -19,8 +20,16 @@ import lombok.Getter;
 public class CacheIndexEntry extends ReadIndexEntry {
     @Getter
     private final int cacheAddress;
+    /**
+     * Whether the data stored at {@link #getCacheAddress()} is compressed (see {@link CacheCompressor}). If so,
+     * {@link #getLength()} refers to the decompressed length and this entry cannot be appended to.
+     */
+    @Getter
+    private final boolean compressed;
     @GuardedBy("this")
     private int length;
+    @GuardedBy("this")
+    private boolean incompressible;
 
     /**
      * Creates a new instance of the ReadIndexEntry class.
@@ -32,10 +41,25 @@ public class CacheIndexEntry extends ReadIndexEntry {
      * @throws IllegalArgumentException if the length is a negative number.
      */
     CacheIndexEntry(long streamSegmentOffset, int length, int cacheAddress) {
+        this(streamSegmentOffset, length, cacheAddress, false);
+    }
+
+    /**
+     * Creates a new instance of the ReadIndexEntry class.
+     *
+     * @param streamSegmentOffset The StreamSegment offset for this entry.
+     * @param length              The Length of this entry. If compressed, this is the decompressed length.
+     * @param cacheAddress        The address of this Index Entry in the CacheStorage.
+     * @param compressed          Whether the data at cacheAddress is compressed.
+     * @throws IllegalArgumentException if the offset is a negative number.
+     * @throws IllegalArgumentException if the length is a negative number.
+     */
+    CacheIndexEntry(long streamSegmentOffset, int length, int cacheAddress, boolean compressed) {
         super(streamSegmentOffset);
         Preconditions.checkArgument(length >= 0, "length", "length must be a non-negative number.");
         this.length = length;
         this.cacheAddress = cacheAddress;
+        this.compressed = compressed;
     }
 
     @Override
@@ -50,9 +74,26 @@ public class CacheIndexEntry extends ReadIndexEntry {
      */
     synchronized void increaseLength(int delta) {
         Preconditions.checkArgument(delta >= 0, "delta must be a non-negative number.");
+        Preconditions.checkState(!this.compressed, "Cannot increase the length of a compressed entry.");
         this.length += delta;
     }
 
+    /**
+     * Records the fact that this entry's data did not compress well enough, so no further attempts should be made.
+     */
+    synchronized void markIncompressible() {
+        this.incompressible = true;
+    }
+
+    /**
+     * Gets a value indicating whether this entry may be compressed.
+     *
+     * @return True if this entry is not already compressed and no previous attempt to compress it failed.
+     */
+    synchronized boolean canCompress() {
+        return !this.compressed && !this.incompressible;
+    }
+
     @Override
     boolean isDataEntry() {
         return true;
@@ -60,6 +101,6 @@ public class CacheIndexEntry extends ReadIndexEntry {
 
     @Override
     public String toString() {
-        return String.format("%s, Address = %d", super.toString(), this.cacheAddress);
+        return String.format("%s, Address = %d%s", super.toString(), this.cacheAddress, this.compressed ? ", Compressed" : "");
     }
 }
@@ -22,6 +22,7 @@ import io.pravega.segmentstore.server.ContainerMetadata;
 import io.pravega.segmentstore.server.DataCorruptionException;
 import io.pravega.segmentstore.server.ReadIndex;
 import io.pravega.segmentstore.server.SegmentMetadata;
+import io.pravega.segmentstore.server.SegmentStoreMetrics;
 import io.pravega.segmentstore.storage.ReadOnlyStorage;
 import java.time.Duration;
 import java.util.ArrayList;
@@ -60,6 +61,9 @@ public class ContainerReadIndex implements ReadIndex {
     private final ScheduledExecutorService executor;
     private final ReadIndexConfig config;
     private final CacheManager cacheManager;
+    private final SegmentStoreMetrics.ReadIndex metrics;
+    private final ReadAheadBudget readAheadBudget;
+    private final CacheCompressionBudget compressionBudget;
     @GuardedBy("lock")
     private ContainerMetadata metadata;
     @GuardedBy("lock")
@@ -93,6 +97,9 @@ public class ContainerReadIndex implements ReadIndex {
         this.metadata = metadata;
         this.storage = storage;
         this.cacheManager = cacheManager;
+        this.metrics = new SegmentStoreMetrics.ReadIndex(metadata.getContainerId());
+        this.readAheadBudget = new ReadAheadBudget(config.getReadAheadBudget(), this.metrics);
+        this.compressionBudget = new CacheCompressionBudget(config.getCacheCompressionBudget());
         this.executor = executor;
         this.preRecoveryMetadata = null;
         this.closed = new AtomicBoolean();
@@ -106,6 +113,7 @@ public class ContainerReadIndex implements ReadIndex {
     public void close() {
         if (!this.closed.getAndSet(true)) {
             closeAllIndices();
+            this.metrics.close();
             log.info("{}: Closed.", this.traceObjectId);
         }
     }
@@ -373,7 +381,8 @@ public class ContainerReadIndex implements ReadIndex {
                     throw new StreamSegmentNotExistsException(segmentMetadata.getName());
                 }
 
-                index = new StreamSegmentReadIndex(this.config, segmentMetadata, this.cacheManager.getCacheStorage(), this.storage, this.executor, isRecoveryMode());
+                index = new StreamSegmentReadIndex(this.config, segmentMetadata, this.cacheManager.getCacheStorage(), this.storage,
+                        this.readAheadBudget, this.compressionBudget, this.metrics, this.executor, isRecoveryMode());
                 this.cacheManager.register(index);
                 this.readIndices.put(streamSegmentId, index);
             }
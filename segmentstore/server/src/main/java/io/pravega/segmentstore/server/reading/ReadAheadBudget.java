@@ -0,0 +1,108 @@
+/**
+ * Copyright (c) Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.server.reading;
+
+import com.google.common.base.Preconditions;
+import io.pravega.segmentstore.server.SegmentStoreMetrics;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.concurrent.ThreadSafe;
+import lombok.NonNull;
+
+/**
+ * Limits the amount of prefetched data (requested from Storage or stored in the Cache, but not yet read) across all the
+ * {@link ReadAheadManager} instances in a Container.
+ */
+@ThreadSafe
+class ReadAheadBudget {
+    //region Members
+
+    private final long maxBytes;
+    private final AtomicLong usedBytes;
+    private final SegmentStoreMetrics.ReadIndex metrics;
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the ReadAheadBudget class.
+     *
+     * @param maxBytes The maximum number of bytes that can be reserved at any given time.
+     * @param metrics  The {@link SegmentStoreMetrics.ReadIndex} to report to.
+     */
+    ReadAheadBudget(long maxBytes, @NonNull SegmentStoreMetrics.ReadIndex metrics) {
+        Preconditions.checkArgument(maxBytes > 0, "maxBytes must be a positive number.");
+        this.maxBytes = maxBytes;
+        this.usedBytes = new AtomicLong();
+        this.metrics = metrics;
+    }
+
+    //endregion
+
+    //region Operations
+
+    /**
+     * Attempts to reserve the given number of bytes.
+     *
+     * @param length The number of bytes to reserve.
+     * @return The number of bytes that were reserved. This may be less than length (or even 0) if the budget is nearly
+     * (or completely) exhausted.
+     */
+    int reserve(int length) {
+        Preconditions.checkArgument(length >= 0, "length must be a non-negative number.");
+        long used;
+        int reserved;
+        do {
+            used = this.usedBytes.get();
+            reserved = (int) Math.max(0, Math.min(length, this.maxBytes - used));
+            if (reserved == 0) {
+                return 0;
+            }
+        } while (!this.usedBytes.compareAndSet(used, used + reserved));
+        this.metrics.readAheadIssued(reserved);
+        return reserved;
+    }
+
+    /**
+     * Releases the given number of reserved bytes because they have been read from the Cache.
+     *
+     * @param length The number of bytes to release.
+     */
+    void releaseUsed(long length) {
+        release(length);
+        this.metrics.readAheadHit(length);
+    }
+
+    /**
+     * Releases the given number of reserved bytes because they will never be read from the Cache.
+     *
+     * @param length The number of bytes to release.
+     */
+    void releaseWasted(long length) {
+        release(length);
+        this.metrics.readAheadWasted(length);
+    }
+
+    /**
+     * Gets the number of bytes currently reserved.
+     *
+     * @return The number of bytes.
+     */
+    long getUsedBytes() {
+        return this.usedBytes.get();
+    }
+
+    private void release(long length) {
+        long newValue = this.usedBytes.addAndGet(-length);
+        assert newValue >= 0 : "Released more bytes than reserved.";
+    }
+
+    //endregion
+}
@@ -0,0 +1,183 @@
+/**
+ * Copyright (c) Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.server.reading;
+
+import com.google.common.base.Preconditions;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Detects sequential readers for a single Segment and decides what data to prefetch from Storage ahead of them.
+ *
+ * - A read is considered sequential if it begins within the range of the previous read (or immediately after it).
+ * - Upon detecting a sequential reader, the prefetch window is set to the configured minimum length. Every time the
+ * reader gets within half a window of the end of the prefetched data, the window is doubled (up to the configured
+ * maximum length) and more data is prefetched.
+ * - As soon as a non-sequential read is detected, the window is reset and any prefetched data that has not yet been read
+ * is considered wasted.
+ * - All prefetched data that has not yet been read is accounted against a {@link ReadAheadBudget}, which is shared with
+ * all the other Segments in the Container.
+ */
+@ThreadSafe
+class ReadAheadManager implements AutoCloseable {
+    //region Members
+
+    private final int minLength;
+    private final int maxLength;
+    private final ReadAheadBudget budget;
+    @GuardedBy("this")
+    private long lastReadOffset;
+    @GuardedBy("this")
+    private long lastReadEndOffset;
+    @GuardedBy("this")
+    private int windowLength;
+    /**
+     * The first prefetched offset that has not yet been read. All bytes between this and {@link #prefetchEndOffset} are
+     * reserved from the {@link #budget}.
+     */
+    @GuardedBy("this")
+    private long prefetchOffset;
+    @GuardedBy("this")
+    private long prefetchEndOffset;
+    @GuardedBy("this")
+    private boolean closed;
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the ReadAheadManager class.
+     *
+     * @param minLength The initial length of the prefetch window.
+     * @param maxLength The maximum length of the prefetch window.
+     * @param budget    The {@link ReadAheadBudget} to reserve prefetched bytes from.
+     */
+    ReadAheadManager(int minLength, int maxLength, @NonNull ReadAheadBudget budget) {
+        Preconditions.checkArgument(minLength > 0, "minLength must be a positive number.");
+        Preconditions.checkArgument(maxLength >= minLength, "maxLength must be at least minLength.");
+        this.minLength = minLength;
+        this.maxLength = maxLength;
+        this.budget = budget;
+        this.lastReadOffset = -1;
+        this.lastReadEndOffset = -1;
+    }
+
+    /**
+     * Releases all the prefetched bytes that have not yet been read from the {@link ReadAheadBudget}.
+     */
+    @Override
+    public synchronized void close() {
+        if (!this.closed) {
+            this.closed = true;
+            discardPrefetched();
+        }
+    }
+
+    //endregion
+
+    //region Operations
+
+    /**
+     * Records a read and determines whether any data should be prefetched as a result.
+     *
+     * @param offset        The offset of the read.
+     * @param length        The number of bytes that are expected to be read.
+     * @param cacheHit      True if the data was served from the Cache, false if it had to be fetched from Storage.
+     * @param storageLength The current length of the Segment in Storage. No data will be prefetched beyond this offset.
+     * @return A {@link Range} that should be prefetched, or null if nothing needs to be prefetched.
+     */
+    synchronized Range recordRead(long offset, int length, boolean cacheHit, long storageLength) {
+        if (this.closed || length <= 0) {
+            return null;
+        }
+
+        long endOffset = offset + length;
+        boolean sequential = this.lastReadOffset >= 0 && offset >= this.lastReadOffset && offset <= this.lastReadEndOffset;
+        this.lastReadOffset = offset;
+        this.lastReadEndOffset = endOffset;
+        if (!sequential) {
+            // Either the first read or the reader has moved elsewhere. It is unlikely that it will read what we prefetched.
+            discardPrefetched();
+            this.windowLength = 0;
+            return null;
+        }
+
+        // Release whatever prefetched data this read has covered. If this data had to be fetched from Storage, then it
+        // was evicted before the reader got to it (or the prefetch did not complete in time).
+        long readPrefetched = Math.min(endOffset, this.prefetchEndOffset) - this.prefetchOffset;
+        if (readPrefetched > 0) {
+            if (cacheHit) {
+                this.budget.releaseUsed(readPrefetched);
+            } else {
+                this.budget.releaseWasted(readPrefetched);
+            }
+
+            this.prefetchOffset += readPrefetched;
+        }
+
+        if (this.prefetchEndOffset <= endOffset) {
+            // The reader has caught up with the prefetched data.
+            this.prefetchOffset = endOffset;
+            this.prefetchEndOffset = endOffset;
+        } else if (this.prefetchEndOffset - endOffset > this.windowLength / 2) {
+            // We have prefetched enough for now.
+            return null;
+        }
+
+        int newWindowLength = this.windowLength == 0 ? this.minLength : (int) Math.min(2L * this.windowLength, this.maxLength);
+        long prefetchLength = Math.min(endOffset + newWindowLength, storageLength) - this.prefetchEndOffset;
+        if (prefetchLength <= 0) {
+            return null;
+        }
+
+        int reserved = this.budget.reserve((int) prefetchLength);
+        if (reserved == 0) {
+            return null;
+        }
+
+        this.windowLength = newWindowLength;
+        Range result = new Range(this.prefetchEndOffset, reserved);
+        this.prefetchEndOffset += reserved;
+        return result;
+    }
+
+    @GuardedBy("this")
+    private void discardPrefetched() {
+        long unread = this.prefetchEndOffset - this.prefetchOffset;
+        if (unread > 0) {
+            this.budget.releaseWasted(unread);
+        }
+
+        this.prefetchOffset = 0;
+        this.prefetchEndOffset = 0;
+    }
+
+    //endregion
+
+    //region Range
+
+    /**
+     * A range of Segment offsets to prefetch.
+     */
+    @RequiredArgsConstructor
+    @Getter
+    @ToString
+    static class Range {
+        private final long offset;
+        private final int length;
+    }
+
+    //endregion
+}
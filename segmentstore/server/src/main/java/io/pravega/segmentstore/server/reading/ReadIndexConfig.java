@@ -13,7 +13,11 @@ import io.pravega.common.util.ConfigBuilder;
 import io.pravega.common.util.ConfigurationException;
 import io.pravega.common.util.Property;
 import io.pravega.common.util.TypedProperties;
+import io.pravega.segmentstore.contracts.CachePriority;
 import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
 import lombok.Getter;
 
 /**
@@ -24,7 +28,19 @@ public class ReadIndexConfig {
     public static final Property<Integer> STORAGE_READ_ALIGNMENT = Property.named("storageRead.alignment", 1024 * 1024, "storageReadAlignment");
     public static final Property<Integer> MEMORY_READ_MIN_LENGTH = Property.named("memoryRead.length.min", 4 * 1024, "memoryReadMinLength");
     public static final Property<Integer> STORAGE_READ_DEFAULT_TIMEOUT = Property.named("storageRead.timeout.default.millis", 30 * 1000, "storageReadDefaultTimeoutMillis");
+    public static final Property<Boolean> CACHE_COMPRESSION_ENABLE = Property.named("cache.compression.enable", false);
+    public static final Property<Integer> CACHE_COMPRESSION_GENERATION_AGE = Property.named("cache.compression.generation.age", 30);
+    public static final Property<Boolean> CACHE_COMPRESSION_STORAGE_READ_ENABLE = Property.named("cache.compression.storageRead.enable", true);
+    public static final Property<Long> CACHE_COMPRESSION_BUDGET = Property.named("cache.compression.budget.bytes", 16 * 1024 * 1024L);
+    public static final Property<Boolean> READ_AHEAD_ENABLE = Property.named("storageRead.readAhead.enable", false);
+    public static final Property<Integer> READ_AHEAD_LENGTH_MIN = Property.named("storageRead.readAhead.length.min", 1024 * 1024);
+    public static final Property<Integer> READ_AHEAD_LENGTH_MAX = Property.named("storageRead.readAhead.length.max", 64 * 1024 * 1024);
+    public static final Property<Long> READ_AHEAD_BUDGET = Property.named("storageRead.readAhead.budget.bytes", 256 * 1024 * 1024L);
+    public static final Property<Long> CACHE_QUOTA_DEFAULT = Property.named("cache.quota.default.bytes", 0L);
+    public static final Property<String> CACHE_PRIORITY_GUARANTEED = Property.named("cache.priority.guaranteed", "");
+    public static final Property<String> CACHE_PRIORITY_NEVER_CACHE = Property.named("cache.priority.neverCache", "");
     private static final String COMPONENT_CODE = "readindex";
+    private static final String NAME_LIST_SEPARATOR = ",";
 
     //endregion
 
@@ -57,6 +73,79 @@ public class ReadIndexConfig {
     @Getter
     private final Duration storageReadDefaultTimeout;
 
+    /**
+     * Whether the data of those Cache Entries that have been persisted to Storage may be compressed in the Cache. This
+     * can be overridden for individual Segments using {@link io.pravega.segmentstore.contracts.Attributes#DISABLE_CACHE_COMPRESSION}.
+     */
+    @Getter
+    private final boolean cacheCompressionEnabled;
+
+    /**
+     * The number of Cache Generations that an entry must go unused before it is compressed. Only applies if
+     * {@link #isCacheCompressionEnabled()} is true.
+     */
+    @Getter
+    private final int cacheCompressionGenerationAge;
+
+    /**
+     * Whether data read from Storage should be compressed as it is inserted into the Cache (regardless of
+     * {@link #getCacheCompressionGenerationAge()}). Only applies if {@link #isCacheCompressionEnabled()} is true.
+     */
+    @Getter
+    private final boolean cacheCompressionStorageReadEnabled;
+
+    /**
+     * The maximum number of (uncompressed) bytes that may be in the process of being compressed at any given time, for
+     * all the Segments in a Container. Only applies if {@link #isCacheCompressionEnabled()} is true.
+     */
+    @Getter
+    private final long cacheCompressionBudget;
+
+    /**
+     * Whether sequential readers should be detected and data ahead of them should be prefetched from Storage.
+     */
+    @Getter
+    private final boolean readAheadEnabled;
+
+    /**
+     * The initial number of bytes to prefetch once a sequential reader is detected. Only applies if
+     * {@link #isReadAheadEnabled()} is true.
+     */
+    @Getter
+    private final int readAheadMinLength;
+
+    /**
+     * The maximum number of bytes to prefetch ahead of a sequential reader. The prefetch window doubles (from
+     * {@link #getReadAheadMinLength()}) every time the reader catches up with it, up to this value. Only applies if
+     * {@link #isReadAheadEnabled()} is true.
+     */
+    @Getter
+    private final int readAheadMaxLength;
+
+    /**
+     * The maximum number of prefetched bytes (in flight or in the Cache, but not yet read) for all the Segments in a
+     * Container. Only applies if {@link #isReadAheadEnabled()} is true.
+     */
+    @Getter
+    private final long readAheadBudget;
+
+    /**
+     * The maximum number of (uncompressed) bytes that a single Segment may have in the Cache, unless overridden for that
+     * Segment using {@link io.pravega.segmentstore.contracts.Attributes#CACHE_QUOTA}. A value of 0 means no quota.
+     */
+    @Getter
+    private final long cacheQuotaDefault;
+
+    /**
+     * Scoped Stream names (or Scope names) whose Segments should have {@link CachePriority#Guaranteed}.
+     */
+    private final List<String> guaranteedCachePrefixes;
+
+    /**
+     * Scoped Stream names (or Scope names) whose Segments should have {@link CachePriority#NeverCache}.
+     */
+    private final List<String> neverCachePrefixes;
+
     //endregion
 
     //region Constructor
@@ -70,6 +159,44 @@ public class ReadIndexConfig {
         this.storageReadAlignment = properties.getInt(STORAGE_READ_ALIGNMENT);
         this.memoryReadMinLength = properties.getInt(MEMORY_READ_MIN_LENGTH);
         this.storageReadDefaultTimeout = Duration.ofMillis(properties.getInt(STORAGE_READ_DEFAULT_TIMEOUT));
+        this.cacheCompressionEnabled = properties.getBoolean(CACHE_COMPRESSION_ENABLE);
+        this.cacheCompressionGenerationAge = properties.getInt(CACHE_COMPRESSION_GENERATION_AGE);
+        if (this.cacheCompressionGenerationAge < 0) {
+            throw new ConfigurationException(String.format("Property '%s' must be a non-negative integer.", CACHE_COMPRESSION_GENERATION_AGE));
+        }
+        this.cacheCompressionStorageReadEnabled = properties.getBoolean(CACHE_COMPRESSION_STORAGE_READ_ENABLE);
+        this.cacheCompressionBudget = properties.getLong(CACHE_COMPRESSION_BUDGET);
+        if (this.cacheCompressionBudget <= 0) {
+            throw new ConfigurationException(String.format("Property '%s' must be a positive integer.", CACHE_COMPRESSION_BUDGET));
+        }
+        this.readAheadEnabled = properties.getBoolean(READ_AHEAD_ENABLE);
+        this.readAheadMinLength = properties.getInt(READ_AHEAD_LENGTH_MIN);
+        if (this.readAheadMinLength <= 0) {
+            throw new ConfigurationException(String.format("Property '%s' must be a positive integer.", READ_AHEAD_LENGTH_MIN));
+        }
+        this.readAheadMaxLength = properties.getInt(READ_AHEAD_LENGTH_MAX);
+        if (this.readAheadMaxLength < this.readAheadMinLength) {
+            throw new ConfigurationException(String.format("Property '%s' must be at least the value of '%s'.",
+                    READ_AHEAD_LENGTH_MAX, READ_AHEAD_LENGTH_MIN));
+        }
+        this.readAheadBudget = properties.getLong(READ_AHEAD_BUDGET);
+        if (this.readAheadBudget <= 0) {
+            throw new ConfigurationException(String.format("Property '%s' must be a positive integer.", READ_AHEAD_BUDGET));
+        }
+        this.cacheQuotaDefault = properties.getLong(CACHE_QUOTA_DEFAULT);
+        if (this.cacheQuotaDefault < 0) {
+            throw new ConfigurationException(String.format("Property '%s' must be a non-negative integer.", CACHE_QUOTA_DEFAULT));
+        }
+        this.guaranteedCachePrefixes = parseNamePrefixes(properties.get(CACHE_PRIORITY_GUARANTEED));
+        this.neverCachePrefixes = parseNamePrefixes(properties.get(CACHE_PRIORITY_NEVER_CACHE));
+    }
+
+    private static List<String> parseNamePrefixes(String names) {
+        return Arrays.stream(names.split(NAME_LIST_SEPARATOR))
+                     .map(String::trim)
+                     .filter(name -> !name.isEmpty())
+                     .map(name -> name.endsWith("/") ? name : name + "/")
+                     .collect(Collectors.toList());
     }
 
     /**
@@ -82,4 +209,36 @@ public class ReadIndexConfig {
     }
 
     //endregion
+
+    //region Cache Priority
+
+    /**
+     * Gets the {@link CachePriority} configured for the Segment with the given name. This can be overridden for individual
+     * Segments using {@link io.pravega.segmentstore.contracts.Attributes#CACHE_PRIORITY}.
+     *
+     * @param segmentName The name of the Segment. Segments are matched by the Scope or Scoped Stream they belong to.
+     * @return The {@link CachePriority}. If the Segment matches both {@link #CACHE_PRIORITY_GUARANTEED} and
+     * {@link #CACHE_PRIORITY_NEVER_CACHE}, then {@link CachePriority#Guaranteed} is returned.
+     */
+    public CachePriority getCachePriority(String segmentName) {
+        if (matchesAny(segmentName, this.guaranteedCachePrefixes)) {
+            return CachePriority.Guaranteed;
+        } else if (matchesAny(segmentName, this.neverCachePrefixes)) {
+            return CachePriority.NeverCache;
+        } else {
+            return CachePriority.BestEffort;
+        }
+    }
+
+    private boolean matchesAny(String segmentName, List<String> prefixes) {
+        for (String prefix : prefixes) {
+            if (segmentName.startsWith(prefix)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    //endregion
 }
@@ -15,6 +15,7 @@ import io.pravega.common.Exceptions;
 import io.pravega.common.concurrent.Futures;
 import io.pravega.common.util.ByteArraySegment;
 import io.pravega.segmentstore.server.SegmentMetadata;
+import io.pravega.segmentstore.server.SegmentStoreMetrics;
 import io.pravega.segmentstore.storage.ReadOnlyStorage;
 import io.pravega.segmentstore.storage.SegmentHandle;
 import java.time.Duration;
@@ -32,6 +33,9 @@ import lombok.extern.slf4j.Slf4j;
 
 /**
  * Facilitates and Organizes the reads from Storage.
+ *
+ * Concurrent reads of the same range are coalesced: a new Request is never issued to Storage for a range that is already
+ * being read by a pending Request. As such, pending Requests never overlap each other.
  */
 @Slf4j
 @ThreadSafe
@@ -42,6 +46,7 @@ public class StorageReadManager implements AutoCloseable {
     private final ReadOnlyStorage storage;
     private final Executor executor;
     private final String segmentName;
+    private final SegmentStoreMetrics.ReadIndex metrics;
     @GuardedBy("lock")
     private final TreeMap<Long, Request> pendingRequests;
     @GuardedBy("lock")
@@ -59,15 +64,18 @@ public class StorageReadManager implements AutoCloseable {
      *
      * @param segmentMetadata A SegmentMetadata to create the StorageReadManager for.
      * @param storage         A ReadOnlyStorage to use for data fetching.
+     * @param metrics         The {@link SegmentStoreMetrics.ReadIndex} to report coalesced reads to.
      * @param executor        An Executor to use for running asynchronous tasks.
      */
-    StorageReadManager(SegmentMetadata segmentMetadata, ReadOnlyStorage storage, Executor executor) {
+    StorageReadManager(SegmentMetadata segmentMetadata, ReadOnlyStorage storage, SegmentStoreMetrics.ReadIndex metrics, Executor executor) {
         Preconditions.checkNotNull(storage, "storage");
+        Preconditions.checkNotNull(metrics, "metrics");
         Preconditions.checkNotNull(executor, "executor");
 
         this.traceObjectId = String.format("StorageReader[%d-%d]", segmentMetadata.getContainerId(), segmentMetadata.getId());
         this.segmentName = segmentMetadata.getName();
         this.storage = storage;
+        this.metrics = metrics;
         this.executor = executor;
         this.pendingRequests = new TreeMap<>();
     }
@@ -97,9 +105,13 @@ public class StorageReadManager implements AutoCloseable {
 
     /**
      * Queues the given request. The Request will be checked against existing pending Requests. If necessary, this request
-     * will be adjusted to take advantage of an existing request (i.e., if it overlaps with an existing request, no actual
-     * Storage read will happen for this one, yet the result of the previous one will be used instead). The callbacks passed
-     * to the request will be invoked with either the result of the read or with the exception that caused the read to fail.
+     * will be adjusted to take advantage of existing requests:
+     * - If it begins within an existing request, no actual Storage read will happen for this one; it will be truncated
+     * to the part that overlaps the existing request (if needed) and the result of the existing request will be used instead.
+     * - If it ends within (or beyond the beginning of) an existing request, it will be truncated to end where that request
+     * begins, so that the same data is not read from Storage twice.
+     * The callbacks passed to the request will be invoked with either the result of the read or with the exception that
+     * caused the read to fail.
      *
      * @param request The request to queue.
      */
@@ -109,13 +121,22 @@ public class StorageReadManager implements AutoCloseable {
             Exceptions.checkNotClosed(this.closed, this);
             Request existingRequest = findOverlappingRequest(request);
             if (existingRequest != null) {
-                // We found an overlapping request. Adjust the current request length.
-                int newLength = (int) (existingRequest.getOffset() + existingRequest.getLength() - request.getOffset());
-                if (newLength > 0 && newLength < request.getLength()) {
-                    request.adjustLength(newLength);
-                    existingRequest.addDependent(request);
-                    return;
-                }
+                // We found an overlapping request. Adjust the current request length (if needed) and complete it using
+                // the existing one's result.
+                int newLength = (int) Math.min(existingRequest.getEndOffset() - request.getOffset(), request.getLength());
+                request.adjustLength(newLength);
+                existingRequest.addDependent(request);
+                this.metrics.storageReadCoalesced(newLength);
+                log.debug("{}: StorageRead.Coalesce {} into {}.", this.traceObjectId, request, existingRequest);
+                return;
+            }
+
+            Map.Entry<Long, Request> nextEntry = this.pendingRequests.higherEntry(request.getOffset());
+            if (nextEntry != null && nextEntry.getKey() < request.getEndOffset()) {
+                // Our request runs into a subsequent one. Trim it so that it ends where that one begins.
+                int newLength = (int) (nextEntry.getKey() - request.getOffset());
+                this.metrics.storageReadCoalesced(request.getLength() - newLength);
+                request.adjustLength(newLength);
             }
 
             this.pendingRequests.put(request.getOffset(), request);
@@ -368,9 +389,12 @@ public class StorageReadManager implements AutoCloseable {
 
             try {
                 // Get the source Request's result, slice it and return the sub-segment that this request maps to.
+                // The source may have read less data than requested (if it reached the end of the Segment).
                 Result sourceResult = source.resultFuture.join();
                 int offset = (int) (this.getOffset() - source.getOffset());
-                this.resultFuture.complete(new Result(sourceResult.getData().slice(offset, getLength()), true));
+                int sourceLength = sourceResult.getData().getLength();
+                int length = Math.max(0, Math.min(getLength(), sourceLength - offset));
+                this.resultFuture.complete(new Result(sourceResult.getData().slice(Math.min(offset, sourceLength), length), true));
             } catch (Throwable ex) {
                 if (Exceptions.mustRethrow(ex)) {
                     throw ex;
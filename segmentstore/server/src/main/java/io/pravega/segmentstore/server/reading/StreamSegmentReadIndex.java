@@ -14,34 +14,49 @@ import com.google.common.base.Preconditions;
 import com.google.common.collect.Iterators;
 import io.pravega.common.Exceptions;
 import io.pravega.common.LoggerHelpers;
+import io.pravega.common.concurrent.ExecutorServiceHelpers;
 import io.pravega.common.concurrent.Futures;
-import io.pravega.common.util.AvlTreeIndex;
+import io.pravega.common.util.ArraySortedIndex;
 import io.pravega.common.util.BufferView;
 import io.pravega.common.util.ByteArraySegment;
 import io.pravega.common.util.SortedIndex;
+import io.pravega.segmentstore.contracts.Attributes;
+import io.pravega.segmentstore.contracts.CachePriority;
 import io.pravega.segmentstore.contracts.ReadResult;
 import io.pravega.segmentstore.contracts.ReadResultEntry;
 import io.pravega.segmentstore.contracts.ReadResultEntryType;
 import io.pravega.segmentstore.contracts.StreamSegmentSealedException;
+import io.pravega.segmentstore.server.CacheAccessTracker;
 import io.pravega.segmentstore.server.CacheManager;
 import io.pravega.segmentstore.server.SegmentMetadata;
+import io.pravega.segmentstore.server.SegmentStoreMetrics;
 import io.pravega.segmentstore.storage.ReadOnlyStorage;
+import io.pravega.segmentstore.storage.cache.CacheCompressor;
 import io.pravega.segmentstore.storage.cache.CacheFullException;
 import io.pravega.segmentstore.storage.cache.CacheStorage;
 import java.time.Duration;
+import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.ThreadSafe;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 
@@ -60,6 +75,7 @@ import lombok.val;
 class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
     //region Members
 
+    private static final String CACHE_CLIENT_TYPE = "ReadIndex";
     private final String traceObjectId;
     @GuardedBy("lock")
     private final SortedIndex<ReadIndexEntry> indexEntries;
@@ -70,6 +86,13 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
     private final HashMap<Long, PendingMerge> pendingMergers; //Key = Source Segment Id, Value = Pending Merge Info.
     private final StorageReadManager storageReadManager;
     private final ReadIndexSummary summary;
+    private final CacheAccessTracker accessTracker;
+    private final ReadAheadManager readAhead;
+    private final CacheCompressionBudget compressionBudget;
+    /**
+     * The background compression task (see {@link #compressEntriesAsync}). At most one runs at any given time.
+     */
+    private final AtomicReference<CompletableFuture<Void>> compressionTask;
     private final ScheduledExecutorService executor;
     private SegmentMetadata metadata;
     private final AtomicLong lastAppendedOffset;
@@ -78,6 +101,23 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
     private boolean merged;
     private final Object lock = new Object();
     private final int storageReadAlignment;
+    /**
+     * The {@link CachePriority} from {@link ReadIndexConfig}, used when the Segment has no {@link Attributes#CACHE_PRIORITY}.
+     * Resolved once since neither the configuration nor the Segment name can change.
+     */
+    private final CachePriority configCachePriority;
+    /**
+     * The number of (uncompressed) bytes referenced by this index' Cache Entries. Used to check the Cache quota without
+     * having to scan the whole index.
+     */
+    @GuardedBy("lock")
+    private long cachedLength;
+    /**
+     * The Storage Length at the time we last failed to evict anything in order to bring this Segment within its Cache
+     * quota. No more data can become evictable until the Storage Length changes, so there is no point in trying again.
+     */
+    @GuardedBy("lock")
+    private long quotaBlockedStorageLength = -1;
 
     //endregion
 
@@ -90,16 +130,25 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
      * @param metadata     The StreamSegmentMetadata to use.
      * @param cacheStorage    The CacheStorage to use to store, read and manage data entries.
      * @param storage      A ReadOnlyStorage to fetch data if not in Cache.
+     * @param readAheadBudget The {@link ReadAheadBudget} to use for prefetching data for sequential readers. Only used if
+     *                        {@link ReadIndexConfig#isReadAheadEnabled()} is true.
+     * @param compressionBudget The {@link CacheCompressionBudget} to use for compressing data in the Cache. Only used if
+     *                          {@link ReadIndexConfig#isCacheCompressionEnabled()} is true.
+     * @param metrics      The {@link SegmentStoreMetrics.ReadIndex} to report Storage read metrics to.
      * @param executor     An executor to run async operations.
      * @param recoveryMode Whether we are in recovery mode at the time of creation (this can change later on).
      * @throws NullPointerException If any of the arguments are null.
      */
     StreamSegmentReadIndex(ReadIndexConfig config, SegmentMetadata metadata, CacheStorage cacheStorage, ReadOnlyStorage storage,
+                           ReadAheadBudget readAheadBudget, CacheCompressionBudget compressionBudget, SegmentStoreMetrics.ReadIndex metrics,
                            ScheduledExecutorService executor, boolean recoveryMode) {
         Preconditions.checkNotNull(config, "config");
         Preconditions.checkNotNull(metadata, "metadata");
         Preconditions.checkNotNull(cacheStorage, "cacheStorage");
         Preconditions.checkNotNull(storage, "storage");
+        Preconditions.checkNotNull(readAheadBudget, "readAheadBudget");
+        Preconditions.checkNotNull(compressionBudget, "compressionBudget");
+        Preconditions.checkNotNull(metrics, "metrics");
         Preconditions.checkNotNull(executor, "executor");
 
         this.traceObjectId = String.format("ReadIndex[%d-%d]", metadata.getContainerId(), metadata.getId());
@@ -107,14 +156,21 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
         this.metadata = metadata;
         this.cacheStorage = cacheStorage;
         this.recoveryMode = recoveryMode;
-        this.indexEntries = new AvlTreeIndex<>();
+        this.indexEntries = new ArraySortedIndex<>();
         this.futureReads = new FutureReadResultEntryCollection();
         this.pendingMergers = new HashMap<>();
         this.lastAppendedOffset = new AtomicLong(-1);
-        this.storageReadManager = new StorageReadManager(metadata, storage, executor);
+        this.storageReadManager = new StorageReadManager(metadata, storage, metrics, executor);
         this.executor = executor;
         this.summary = new ReadIndexSummary();
+        this.accessTracker = new CacheAccessTracker(CACHE_CLIENT_TYPE);
         this.storageReadAlignment = alignToCacheBlockSize(this.config.getStorageReadAlignment());
+        this.configCachePriority = this.config.getCachePriority(metadata.getName());
+        this.readAhead = this.config.isReadAheadEnabled()
+                ? new ReadAheadManager(this.config.getReadAheadMinLength(), this.config.getReadAheadMaxLength(), readAheadBudget)
+                : null;
+        this.compressionBudget = compressionBudget;
+        this.compressionTask = new AtomicReference<>(CompletableFuture.completedFuture(null));
     }
 
     private int alignToCacheBlockSize(int value) {
@@ -148,6 +204,9 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
 
             // Close storage reader (and thus cancel those reads).
             this.storageReadManager.close();
+            if (this.readAhead != null) {
+                this.readAhead.close();
+            }
 
             // Cancel registered future reads and any reads pertaining to incomplete mergers.
             ArrayList<Iterator<FutureReadResultEntry>> futureReads = new ArrayList<>();
@@ -191,6 +250,7 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
             this.indexEntries.forEach(this::deleteData);
             count = this.indexEntries.size();
             this.indexEntries.clear();
+            this.cachedLength = 0;
         }
 
         if (count > 0) {
@@ -210,31 +270,131 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
 
     @Override
     public boolean updateGenerations(int currentGeneration, int oldestGeneration) {
+        return updateGenerations(currentGeneration, oldestGeneration, oldestGeneration);
+    }
+
+    @Override
+    public boolean updateGenerations(int currentGeneration, int oldestGeneration, int oldestProtectedGeneration) {
         Exceptions.checkNotClosed(this.closed, this);
 
         // Update the current generation with the provided info.
         this.summary.setCurrentGeneration(currentGeneration);
 
+        // Guaranteed entries are never evicted by generation here; the CacheManager will invoke evictGuaranteed() once
+        // every other entry that can be evicted has been.
+        final CachePriority priority = getCachePriority();
+        boolean evicted = evictEntries(priority, entry -> priority != CachePriority.Guaranteed
+                && entry.getGeneration() < getEvictionGeneration(entry, oldestGeneration, oldestProtectedGeneration));
+
+        // Compress whatever has not been used in a while. This is done in the background so that the CacheManager is not
+        // held up by it.
+        compressEntriesAsync(currentGeneration - this.config.getCacheCompressionGenerationAge());
+        return evicted;
+    }
+
+    @Override
+    public boolean evictGuaranteed(int oldestGeneration) {
+        Exceptions.checkNotClosed(this.closed, this);
+        final CachePriority priority = getCachePriority();
+        if (priority != CachePriority.Guaranteed) {
+            // Our entries have already been evicted via updateGenerations().
+            return false;
+        }
+
+        return evictEntries(priority, entry -> entry.getGeneration() < oldestGeneration);
+    }
+
+    /**
+     * Evicts this Segment's oldest Cache Entries (that can be evicted) if it exceeds its Cache quota. This must be invoked
+     * whenever data is added to the index (appends, Storage reads, read-ahead or merges) so that this Segment makes room
+     * for it before the CacheManager has to evict other Segments' data.
+     */
+    private void enforceCacheQuota() {
+        final long quota = getCacheQuota();
+        if (quota <= 0) {
+            return;
+        }
+
+        final long storageLength = this.metadata.getStorageLength();
+        synchronized (this.lock) {
+            if (this.cachedLength <= quota || this.quotaBlockedStorageLength == storageLength) {
+                // Either within quota, or we already know there is nothing we can evict.
+                return;
+            }
+        }
+
+        if (!evictEntries(getCachePriority(), entry -> false)) {
+            synchronized (this.lock) {
+                this.quotaBlockedStorageLength = storageLength;
+            }
+        }
+    }
+
+    /**
+     * Evicts those Cache Entries that are eligible for eviction based on the given criteria and this Segment's Cache quota.
+     *
+     * @param priority  The {@link CachePriority} of this Segment.
+     * @param isExpired A Predicate that, given an entry, determines if it is old enough to be evicted.
+     * @return True if anything was evicted, false otherwise.
+     */
+    private boolean evictEntries(CachePriority priority, Predicate<ReadIndexEntry> isExpired) {
+        final long quota = getCacheQuota();
+
         // Identify & collect those entries that can be removed, then remove them from the index.
         ArrayList<ReadIndexEntry> toRemove = new ArrayList<>();
         synchronized (this.lock) {
+            // Generations may change while we are sorting, so we need to take a snapshot of them.
+            ArrayList<Map.Entry<Integer, ReadIndexEntry>> remaining = new ArrayList<>();
+            val remainingLength = new AtomicLong(0);
             this.indexEntries.forEach(entry -> {
+                if (!entry.isDataEntry()) {
+                    return;
+                }
+
                 // We can only evict if both these conditions are met:
                 // 1. The entry is a Cache Entry (Redirect entries cannot be removed).
                 // 2. Every single byte in the entry has to exist in Storage.
                 // In addition, we are free to evict (regardless of Generation, but still subject to the above rules) if
-                // every single byte in the entry has been truncated out.
+                // every single byte in the entry has been truncated out or if this Segment's data should not be cached.
                 long lastOffset = entry.getLastStreamSegmentOffset();
-                boolean canRemove = entry.isDataEntry()
-                        && lastOffset < this.metadata.getStorageLength()
-                        && (entry.getGeneration() < oldestGeneration || lastOffset < this.metadata.getStartOffset());
+                boolean canRemove = lastOffset < this.metadata.getStorageLength()
+                        && (priority == CachePriority.NeverCache || lastOffset < this.metadata.getStartOffset() || isExpired.test(entry));
                 if (canRemove) {
                     toRemove.add(entry);
+                } else {
+                    remainingLength.addAndGet(entry.getLength());
+                    if (lastOffset < this.metadata.getStorageLength()) {
+                        remaining.add(new AbstractMap.SimpleImmutableEntry<>(entry.getGeneration(), entry));
+                    }
                 }
             });
 
-            // Remove from the index and from the cache.
-            toRemove.forEach(e -> this.indexEntries.remove(e.key()));
+            if (quota > 0 && remainingLength.get() > quota) {
+                // This Segment is over its quota. Evict its own oldest entries (that can be evicted) until it no longer is.
+                remaining.sort(Map.Entry.comparingByKey());
+                for (val e : remaining) {
+                    if (remainingLength.get() <= quota) {
+                        break;
+                    }
+
+                    toRemove.add(e.getValue());
+                    remainingLength.addAndGet(-e.getValue().getLength());
+                }
+            }
+
+            // Remove from the index and from the cache. Removing many entries one by one from the index is quadratic, so
+            // we remove them all in a single pass instead.
+            if (toRemove.size() == 1) {
+                this.indexEntries.remove(toRemove.get(0).key());
+            } else if (toRemove.size() > 1) {
+                Set<ReadIndexEntry> removeSet = Collections.newSetFromMap(new IdentityHashMap<>(toRemove.size()));
+                removeSet.addAll(toRemove);
+                this.indexEntries.removeIf(removeSet::contains);
+            }
+
+            for (ReadIndexEntry e : toRemove) {
+                this.cachedLength -= e.getLength();
+            }
         }
 
         // Update the summary (no need for holding the lock here; we are not modifying the index).
@@ -246,6 +406,27 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
         return !toRemove.isEmpty();
     }
 
+    @Override
+    public CacheAccessTracker getAccessTracker() {
+        return this.accessTracker;
+    }
+
+    private int getEvictionGeneration(ReadIndexEntry entry, int oldestGeneration, int oldestProtectedGeneration) {
+        if (oldestProtectedGeneration < oldestGeneration && this.accessTracker.isFrequent(getAccessKey(entry.getStreamSegmentOffset()))) {
+            return oldestProtectedGeneration;
+        }
+
+        return oldestGeneration;
+    }
+
+    /**
+     * Gets the key to record accesses with in the {@link CacheAccessTracker}. Cache Entries do not have stable boundaries
+     * (Storage reads are aligned and appends are not), so accesses are tracked at Storage Read Alignment granularity.
+     */
+    private long getAccessKey(long streamSegmentOffset) {
+        return streamSegmentOffset / Math.max(1, this.storageReadAlignment);
+    }
+
     //endregion
 
     //region Properties
@@ -366,6 +547,7 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
             ReadIndexEntry lastEntry = this.indexEntries.getLast();
             if (lastEntry != null
                     && lastEntry.isDataEntry()
+                    && !((CacheIndexEntry) lastEntry).isCompressed()
                     && lastEntry.getLastStreamSegmentOffset() == this.lastAppendedOffset.get()) {
                 appendLength = appendToEntry(data, (CacheIndexEntry) lastEntry);
             }
@@ -382,6 +564,8 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
             // The entire buffer was added as a single append.
             this.lastAppendedOffset.addAndGet(appendLength);
         }
+
+        enforceCacheQuota();
     }
 
     /**
@@ -489,6 +673,8 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
             sourceEntries.forEach(this::addToIndex);
         }
 
+        enforceCacheQuota();
+
         List<FutureReadResultEntry> pendingReads = pendingMerge.seal();
         if (pendingReads.size() > 0) {
             log.debug("{}: triggerFutureReads for Pending Merge (Count = {}, MergeOffset = {}, MergeLength = {}).",
@@ -507,6 +693,12 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
         Exceptions.checkArgument(offset + data.getLength() <= this.metadata.getStorageLength(), "entry",
                 "The given range of bytes (Offset=%s, Length=%s) does not correspond to the StreamSegment range that is in Storage (%s).",
                 offset, data.getLength(), this.metadata.getStorageLength());
+        CachePriority priority = getCachePriority();
+        if (priority == CachePriority.NeverCache) {
+            // We have already ack-ed this request with the appropriate data to the upstream code; there is nothing else to do.
+            return;
+        }
+
         try {
             addToCacheAndIndex(data, offset, this::insertEntriesToCacheAndIndex);
         } catch (CacheFullException ex) {
@@ -514,7 +706,10 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
             // if we cannot insert it into the cache due to the cache being full.
             log.warn("{}: Unable to insert Storage Read data (Offset={}, Length={}) into the Cache. {}",
                     this.traceObjectId, offset, data.getLength(), ex.getMessage());
+            return;
         }
+
+        enforceCacheQuota();
     }
 
     /**
@@ -529,7 +724,7 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
      */
     @GuardedBy("lock")
     private int appendToEntry(BufferView data, CacheIndexEntry entry) {
-        int appendLength = this.cacheStorage.getAppendableLength((int) entry.getLength());
+        int appendLength = this.cacheStorage.getAppendableLength(entry.getCacheAddress(), (int) entry.getLength());
         if (appendLength == 0) {
             return appendLength;
         }
@@ -543,6 +738,7 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
         // Add append data to the Data Store.
         appendLength = this.cacheStorage.append(entry.getCacheAddress(), (int) entry.getLength(), data);
         entry.increaseLength(appendLength);
+        this.cachedLength += appendLength;
         entry.setGeneration(this.summary.touchOne(entry.getGeneration()));
         return appendLength;
     }
@@ -573,7 +769,7 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
      * @return A {@link CacheIndexEntry} representing the index entry added.
      */
     private CacheIndexEntry appendSingleEntryToCacheAndIndex(BufferView data, long segmentOffset) {
-        int dataAddress = this.cacheStorage.insert(data);
+        int dataAddress = this.cacheStorage.insertAppendable(data);
         CacheIndexEntry newEntry;
         try {
             newEntry = new CacheIndexEntry(segmentOffset, data.getLength(), dataAddress);
@@ -581,6 +777,7 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
                 ReadIndexEntry previous = this.indexEntries.put(newEntry);
                 assert previous == null;
                 newEntry.setGeneration(this.summary.addOne());
+                this.cachedLength += newEntry.getLength();
             }
         } catch (Throwable ex) {
             if (!Exceptions.mustRethrow(ex)) {
@@ -602,8 +799,17 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
      * multiple entries (due to index fragmentation), only the last {@link CacheIndexEntry} is added.
      */
     private CacheIndexEntry insertEntriesToCacheAndIndex(BufferView data, long segmentOffset) {
+        // Compress outside of the lock. We will only be able to use the result if none of the data is already cached,
+        // which is the most common case.
+        BufferView compressedData = this.config.isCacheCompressionStorageReadEnabled() && isCompressionEnabled()
+                ? CacheCompressor.compress(data)
+                : null;
         CacheIndexEntry lastInsertedEntry = null;
         synchronized (this.lock) {
+            if (compressedData != null && !isAnyIndexed(segmentOffset, data.getLength())) {
+                return insertEntryToCacheAndIndex(compressedData, segmentOffset, data.getLength(), true);
+            }
+
             while (data != null && data.getLength() > 0) {
                 // Figure out if the first byte in the buffer is already cached.
                 ReadIndexEntry existingEntry = this.indexEntries.getFloor(segmentOffset);
@@ -619,19 +825,7 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
 
                     // Slice the data that we need to insert. We may be able to insert the whole buffer at once.
                     BufferView dataToInsert = overlapLength >= data.getLength() ? data : data.slice(0, (int) overlapLength);
-                    CacheIndexEntry newEntry;
-                    int dataAddress = CacheStorage.NO_ADDRESS; // Null address pointer.
-                    try {
-                        dataAddress = this.cacheStorage.insert(dataToInsert);
-                        newEntry = new CacheIndexEntry(segmentOffset, dataToInsert.getLength(), dataAddress);
-                        ReadIndexEntry overriddenEntry = addToIndex(newEntry);
-                        assert overriddenEntry == null : "Insert overrode existing entry; " + segmentOffset + ":" + dataToInsert.getLength();
-                        lastInsertedEntry = newEntry;
-                    } catch (Throwable ex) {
-                        // Clean up the data we might have inserted if we were unable to add it to the index.
-                        this.cacheStorage.delete(dataAddress);
-                        throw ex;
-                    }
+                    lastInsertedEntry = insertEntryToCacheAndIndex(dataToInsert, segmentOffset, dataToInsert.getLength(), false);
                 }
 
                 // Slice the remainder of the buffer, or set it to null if we processed everything.
@@ -644,6 +838,45 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
         return lastInsertedEntry;
     }
 
+    /**
+     * Inserts the given data into the Cache and a new {@link CacheIndexEntry} pointing to it into the index.
+     *
+     * @param cacheData     A {@link BufferView} representing the data to insert into the Cache.
+     * @param segmentOffset The segment offset that maps to the first byte of the data.
+     * @param length        The length of the data. If compressed is true, this is the decompressed length of cacheData.
+     * @param compressed    Whether cacheData is compressed.
+     * @return The {@link CacheIndexEntry} that was added.
+     */
+    @GuardedBy("lock")
+    private CacheIndexEntry insertEntryToCacheAndIndex(BufferView cacheData, long segmentOffset, int length, boolean compressed) {
+        int dataAddress = CacheStorage.NO_ADDRESS; // Null address pointer.
+        try {
+            dataAddress = this.cacheStorage.insert(cacheData);
+            CacheIndexEntry newEntry = new CacheIndexEntry(segmentOffset, length, dataAddress, compressed);
+            ReadIndexEntry overriddenEntry = addToIndex(newEntry);
+            assert overriddenEntry == null : "Insert overrode existing entry; " + segmentOffset + ":" + length;
+            return newEntry;
+        } catch (Throwable ex) {
+            // Clean up the data we might have inserted if we were unable to add it to the index.
+            this.cacheStorage.delete(dataAddress);
+            throw ex;
+        }
+    }
+
+    /**
+     * Determines whether any byte in the given range is already indexed.
+     */
+    @GuardedBy("lock")
+    private boolean isAnyIndexed(long segmentOffset, int length) {
+        ReadIndexEntry floor = this.indexEntries.getFloor(segmentOffset);
+        if (floor != null && floor.getLastStreamSegmentOffset() >= segmentOffset) {
+            return true;
+        }
+
+        ReadIndexEntry ceiling = this.indexEntries.getCeiling(segmentOffset);
+        return ceiling != null && ceiling.getStreamSegmentOffset() < segmentOffset + length;
+    }
+
     @GuardedBy("lock")
     private ReadIndexEntry addToIndex(ReadIndexEntry entry) {
         Exceptions.checkNotClosed(this.closed, this);
@@ -657,11 +890,14 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
                 // Update the Stats with the entry's length, and set the entry's generation as well.
                 entry.setGeneration(this.summary.addOne());
             }
+
+            this.cachedLength += entry.getLength();
         }
 
         if (rejectedEntry != null && rejectedEntry.isDataEntry()) {
             // Need to eject the old entry's data from the Cache Stats.
             this.summary.removeOne(rejectedEntry.getGeneration());
+            this.cachedLength -= rejectedEntry.getLength();
         }
 
         return rejectedEntry;
@@ -714,7 +950,7 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
      */
     private void triggerFutureReads(Collection<FutureReadResultEntry> futureReads) {
         for (FutureReadResultEntry r : futureReads) {
-            ReadResultEntry entry = getSingleReadResultEntry(r.getStreamSegmentOffset(), r.getRequestedReadLength(), false);
+            ReadResultEntry entry = getSingleReadResultEntry(r.getStreamSegmentOffset(), r.getRequestedReadLength(), CacheReadMode.Reference);
             assert entry != null : "Serving a FutureReadResultEntry with a null result";
             assert !(entry instanceof FutureReadResultEntry) : "Serving a FutureReadResultEntry with another FutureReadResultEntry.";
 
@@ -767,7 +1003,7 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
                 "startOffset is before the Segment's StartOffset.");
 
         // Get the first entry. This one is trickier because the requested start offset may not fall on an entry boundary.
-        CompletableReadResultEntry nextEntry;
+        Supplier<CacheReadResultEntry> memoryRead;
         synchronized (this.lock) {
             ReadIndexEntry indexEntry = this.indexEntries.getFloor(startOffset);
             if (indexEntry == null || startOffset > indexEntry.getLastStreamSegmentOffset() || !indexEntry.isDataEntry()) {
@@ -775,9 +1011,10 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
                 return null;
             } else {
                 // Fetch data from the cache for the first entry, but do not update the cache hit stats.
-                nextEntry = createMemoryRead(indexEntry, startOffset, length, false, false);
+                memoryRead = createMemoryRead(indexEntry, startOffset, length, false, CacheReadMode.Reference);
             }
         }
+        CompletableReadResultEntry nextEntry = memoryRead.get();
 
         // Collect the contents of congruent Index Entries into a list, as long as we still encounter data in the cache.
         // Since we know all entries should be in the cache and are contiguous, there is no need
@@ -788,7 +1025,7 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
         contents.add(entryContents);
         int readLength = entryContents.getLength();
         while (readLength < length) {
-            BufferView entryData;
+            CacheDataSnapshot snapshot;
             synchronized (this.lock) {
                 ReadIndexEntry indexEntry = this.indexEntries.get(startOffset + readLength);
                 if (!indexEntry.isDataEntry()) {
@@ -796,14 +1033,15 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
                     return null;
                 }
 
-                entryData = this.cacheStorage.get(indexEntry.getCacheAddress());
+                snapshot = getCacheData(indexEntry, false);
             }
 
-            if (entryData == null) {
+            if (snapshot == null) {
                 // Could not find the 'next' cache entry: this means the requested range is not fully cached.
                 return null;
             }
 
+            BufferView entryData = snapshot.getData();
             int entryReadLength = Math.min(entryData.getLength(), length - readLength);
             assert entryReadLength > 0 : "about to have fetched zero bytes from a cache entry";
             contents.add(entryData.slice(0, entryReadLength));
@@ -836,7 +1074,7 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
                 "startOffset", "StreamSegment is sealed and startOffset is beyond the last offset of the StreamSegment.");
 
         log.debug("{}: Read (Offset = {}, MaxLength = {}).", this.traceObjectId, startOffset, maxLength);
-        return new StreamSegmentReadResult(startOffset, maxLength, this::getMultiReadResultEntry, this.traceObjectId);
+        return new StreamSegmentReadResult(startOffset, maxLength, new ReadResultEntrySupplier(), this.traceObjectId);
     }
 
     /**
@@ -877,10 +1115,10 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
      *
      * @param resultStartOffset The Offset within the StreamSegment where to start returning data from.
      * @param maxLength         The maximum number of bytes to return.
-     * @param makeCopy          If true, any data retrieved from the Cache will be copied into a Heap buffer before being returned.
+     * @param readMode          A {@link CacheReadMode} indicating how to return any data retrieved from the Cache.
      * @return A ReadResultEntry representing the data to return.
      */
-    private CompletableReadResultEntry getSingleReadResultEntry(long resultStartOffset, int maxLength, boolean makeCopy) {
+    private CompletableReadResultEntry getSingleReadResultEntry(long resultStartOffset, int maxLength, CacheReadMode readMode) {
         Exceptions.checkNotClosed(this.closed, this);
 
         if (maxLength < 0) {
@@ -899,6 +1137,7 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
             // Look up an entry in the index that contains our requested start offset.
             ReadIndexEntry indexEntry;
             boolean redirect = false;
+            Supplier<CacheReadResultEntry> memoryRead = null;
             synchronized (this.lock) {
                 indexEntry = this.indexEntries.getFloor(resultStartOffset);
                 if (indexEntry == null) {
@@ -914,7 +1153,7 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
                         result = createDataNotAvailableRead(resultStartOffset, maxLength);
                     } else if (indexEntry.isDataEntry()) {
                         // ResultStartOffset is after the StartOffset and before the End Offset of this entry.
-                        result = createMemoryRead(indexEntry, resultStartOffset, maxLength, true, makeCopy);
+                        memoryRead = createMemoryRead(indexEntry, resultStartOffset, maxLength, true, readMode);
                     } else if (indexEntry instanceof RedirectIndexEntry) {
                         // ResultStartOffset is after the StartOffset and before the End Offset of this entry, but this
                         // is a Redirect; reissue the request to the appropriate index.
@@ -925,7 +1164,9 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
                 }
             }
             if (redirect) {
-                result = createRedirectedRead(resultStartOffset, maxLength, (RedirectIndexEntry) indexEntry, makeCopy);
+                result = createRedirectedRead(resultStartOffset, maxLength, (RedirectIndexEntry) indexEntry, readMode);
+            } else if (memoryRead != null) {
+                result = memoryRead.get();
             }
         }
 
@@ -946,13 +1187,17 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
      *
      * @param resultStartOffset The Offset within the StreamSegment where to start returning data from.
      * @param maxLength         The maximum number of bytes to return.
-     * @param makeCopy          If true, any data retrieved from the Cache will be copied into a Heap buffer before being returned.
+     * @param readMode          A {@link CacheReadMode} indicating how to return any data retrieved from the Cache.
      * @return A ReadResultEntry representing the data to return.
      */
-    private CompletableReadResultEntry getMultiReadResultEntry(long resultStartOffset, int maxLength, boolean makeCopy) {
+    private CompletableReadResultEntry getMultiReadResultEntry(long resultStartOffset, int maxLength, CacheReadMode readMode) {
         int readLength = 0;
 
-        CompletableReadResultEntry nextEntry = getSingleReadResultEntry(resultStartOffset, maxLength, makeCopy);
+        CompletableReadResultEntry nextEntry = getSingleReadResultEntry(resultStartOffset, maxLength, readMode);
+        if (nextEntry instanceof StorageReadResultEntry) {
+            recordRead(resultStartOffset, getReadAlignedLength(resultStartOffset, nextEntry.getRequestedReadLength()), false);
+        }
+
         if (nextEntry == null || !(nextEntry instanceof CacheReadResultEntry)) {
             // We can only coalesce CacheReadResultEntries.
             return nextEntry;
@@ -969,10 +1214,11 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
                 break;
             }
 
-            nextEntry = getSingleMemoryReadResultEntry(resultStartOffset + readLength, maxLength - readLength, makeCopy);
+            nextEntry = getSingleMemoryReadResultEntry(resultStartOffset + readLength, maxLength - readLength, readMode);
         } while (nextEntry != null);
 
         // Coalesce the results into a single InputStream and return the result.
+        recordRead(resultStartOffset, readLength, true);
         return new CacheReadResultEntry(resultStartOffset, BufferView.wrap(contents));
     }
 
@@ -983,21 +1229,26 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
      *
      * @param resultStartOffset The Offset within the StreamSegment where to start returning data from.
      * @param maxLength         The maximum number of bytes to return.
-     * @param makeCopy          If true, any data retrieved from the Cache will be copied into a Heap buffer before being returned.
+     * @param readMode          A {@link CacheReadMode} indicating how to return any data retrieved from the Cache.
      * @return A CacheReadResultEntry representing the data to return.
      */
-    private CacheReadResultEntry getSingleMemoryReadResultEntry(long resultStartOffset, int maxLength, boolean makeCopy) {
+    private CacheReadResultEntry getSingleMemoryReadResultEntry(long resultStartOffset, int maxLength, CacheReadMode readMode) {
         Exceptions.checkNotClosed(this.closed, this);
 
         if (maxLength > 0 && checkReadAvailability(resultStartOffset, false) == ReadAvailability.Available) {
             // Look up an entry in the index that contains our requested start offset.
+            Supplier<CacheReadResultEntry> memoryRead = null;
             synchronized (this.lock) {
                 ReadIndexEntry indexEntry = this.indexEntries.get(resultStartOffset);
                 if (indexEntry != null && indexEntry.isDataEntry()) {
                     // We found an entry; return a result for it.
-                    return createMemoryRead(indexEntry, resultStartOffset, maxLength, true, makeCopy);
+                    memoryRead = createMemoryRead(indexEntry, resultStartOffset, maxLength, true, readMode);
                 }
             }
+
+            if (memoryRead != null) {
+                return memoryRead.get();
+            }
         }
 
         // Nothing could be found in the cache at the given offset.
@@ -1019,10 +1270,10 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
      * @param streamSegmentOffset This Segment's offset.
      * @param maxLength           Maximum read length.
      * @param entry               {@link RedirectIndexEntry} to read from.
-     * @param makeCopy            Whether to make a copy or not.
+     * @param readMode            A {@link CacheReadMode} indicating how to return any data retrieved from the Cache.
      * @return a {@link CompletableReadResultEntry}.
      */
-    private CompletableReadResultEntry createRedirectedRead(long streamSegmentOffset, int maxLength, RedirectIndexEntry entry, boolean makeCopy) {
+    private CompletableReadResultEntry createRedirectedRead(long streamSegmentOffset, int maxLength, RedirectIndexEntry entry, CacheReadMode readMode) {
         StreamSegmentReadIndex redirectedIndex = entry.getRedirectReadIndex();
         long redirectOffset = streamSegmentOffset - entry.getStreamSegmentOffset();
         long entryLength = entry.getLength(); // This is the source segment length - immutable since the segment must be sealed.
@@ -1039,7 +1290,7 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
         }
 
         // Fetch the result from the other index - this method will acquire the other index' lock while executing.
-        CompletableReadResultEntry result = redirectedIndex.getSingleReadResultEntry(redirectOffset, maxLength, makeCopy);
+        CompletableReadResultEntry result = redirectedIndex.getSingleReadResultEntry(redirectOffset, maxLength, readMode);
         if (result != null) {
             // Since this is a redirect to a (merged) Transaction, it is possible that between now and when the caller
             // invokes the requestContent() on the entry the Transaction may be fully merged (in Storage). If that's the
@@ -1049,14 +1300,14 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
             // a pointer to getSingleReadResultEntry to the RedirectedReadResultEntry in case it fails with such an exception;
             // that class has logic in it to invoke it if needed and get the right entry.
             result = new RedirectedReadResultEntry(result, entry.getStreamSegmentOffset(),
-                    (rso, ml, sourceSegmentId) -> getOrRegisterRedirectedRead(rso, ml, sourceSegmentId, makeCopy), redirectedIndex.metadata.getId());
+                    (rso, ml, sourceSegmentId) -> getOrRegisterRedirectedRead(rso, ml, sourceSegmentId, readMode), redirectedIndex.metadata.getId());
         }
 
         return result;
     }
 
-    private CompletableReadResultEntry getOrRegisterRedirectedRead(long resultStartOffset, int maxLength, long sourceSegmentId, boolean makeCopy) {
-        CompletableReadResultEntry result = getSingleReadResultEntry(resultStartOffset, maxLength, makeCopy);
+    private CompletableReadResultEntry getOrRegisterRedirectedRead(long resultStartOffset, int maxLength, long sourceSegmentId, CacheReadMode readMode) {
+        CompletableReadResultEntry result = getSingleReadResultEntry(resultStartOffset, maxLength, readMode);
         if (result instanceof RedirectedReadResultEntry) {
             // The merger isn't completed yet. Register the read so that it is completed when the merger is done.
             PendingMerge pendingMerge;
@@ -1080,7 +1331,7 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
                     log.debug("{}: Pending Merge for id {} was sealed for {}; re-issuing.", this.traceObjectId, sourceSegmentId, result);
                 }
 
-                result = getSingleReadResultEntry(resultStartOffset, maxLength, makeCopy);
+                result = getSingleReadResultEntry(resultStartOffset, maxLength, readMode);
             }
         }
 
@@ -1117,35 +1368,43 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
     }
 
     /**
-     * Creates a ReadResultEntry for data that is readily available in memory.
+     * Creates a ReadResultEntry for data that is readily available in memory. The lookup is done while holding the lock,
+     * but the ReadResultEntry itself is created by the returned Supplier, which must be invoked (exactly once) after the
+     * lock is released, since it may need to decompress the data.
      *
      * @param entry               The CacheIndexEntry to use.
      * @param streamSegmentOffset The Offset in the StreamSegment where to the ReadResultEntry starts at.
      * @param maxLength           The maximum length of the Read, from the Offset of this ReadResultEntry.
      * @param updateStats         If true, the entry's cache generation is updated as a result of this call.
-     * @param makeCopy          If true, any data retrieved from the Cache will be copied into a Heap buffer before being returned.
+     * @param readMode          A {@link CacheReadMode} indicating how to return any data retrieved from the Cache.
+     * @return A Supplier that creates the ReadResultEntry.
      */
     @GuardedBy("lock")
-    private CacheReadResultEntry createMemoryRead(ReadIndexEntry entry, long streamSegmentOffset, int maxLength, boolean updateStats, boolean makeCopy) {
+    private Supplier<CacheReadResultEntry> createMemoryRead(ReadIndexEntry entry, long streamSegmentOffset, int maxLength, boolean updateStats, CacheReadMode readMode) {
         assert streamSegmentOffset >= entry.getStreamSegmentOffset() : String.format("streamSegmentOffset{%d} < entry.getStreamSegmentOffset{%d}", streamSegmentOffset, entry.getStreamSegmentOffset());
 
         int entryOffset = (int) (streamSegmentOffset - entry.getStreamSegmentOffset());
 
         int length = (int) Math.min(maxLength, entry.getLength() - entryOffset);
         assert length > 0 : String.format("length{%d} <= 0. streamSegmentOffset = %d, maxLength = %d, entry.offset = %d, entry.length = %d", length, streamSegmentOffset, maxLength, entry.getStreamSegmentOffset(), entry.getLength());
-        BufferView data = this.cacheStorage.get(entry.getCacheAddress());
-        assert data != null : String.format("No Cache Entry could be retrieved for entry %s", entry);
+        CacheDataSnapshot snapshot = getCacheData(entry, readMode == CacheReadMode.Pin);
+        assert snapshot != null : String.format("No Cache Entry could be retrieved for entry %s", entry);
 
         if (updateStats) {
             // Update its generation before returning it.
             entry.setGeneration(this.summary.touchOne(entry.getGeneration()));
+            this.accessTracker.recordHit(getAccessKey(entry.getStreamSegmentOffset()));
         }
 
-        data = data.slice(entryOffset, length);
-        if (makeCopy) {
-            data = new ByteArraySegment(data.getCopy());
-        }
-        return new CacheReadResultEntry(entry.getStreamSegmentOffset() + entryOffset, data);
+        long resultOffset = entry.getStreamSegmentOffset() + entryOffset;
+        return () -> {
+            BufferView data = snapshot.getData().slice(entryOffset, length);
+            if (readMode == CacheReadMode.Copy && !snapshot.isCompressed()) {
+                // Decompressed data is already a copy, so there is no need to copy it again.
+                data = new ByteArraySegment(data.getCopy());
+            }
+            return new CacheReadResultEntry(resultOffset, data);
+        };
     }
 
     /**
@@ -1155,6 +1414,7 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
      * @param readLength          The maximum length of the Read, from the Offset of this ReadResultEntry.
      */
     private ReadResultEntryBase createStorageRead(long streamSegmentOffset, int readLength) {
+        this.accessTracker.recordMiss(getAccessKey(streamSegmentOffset));
         return new StorageReadResultEntry(streamSegmentOffset, readLength, this::queueStorageRead);
     }
 
@@ -1181,6 +1441,63 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
         this.storageReadManager.execute(new StorageReadManager.Request(offset, length, doneCallback, failureCallback, timeout));
     }
 
+    /**
+     * Records a read with the {@link ReadAheadManager} (if enabled) and prefetches data from Storage if so required.
+     *
+     * @param offset   The offset of the read.
+     * @param length   The number of bytes that are expected to be read.
+     * @param cacheHit True if the data is served from the Cache, false if it has to be fetched from Storage.
+     */
+    private void recordRead(long offset, int length, boolean cacheHit) {
+        if (this.readAhead == null || getCachePriority() == CachePriority.NeverCache) {
+            // Nowhere to prefetch data into.
+            return;
+        }
+
+        ReadAheadManager.Range range = this.readAhead.recordRead(offset, length, cacheHit, this.metadata.getStorageLength());
+        if (range != null) {
+            log.debug("{}: ReadAhead (Offset = {}, Length = {}).", this.traceObjectId, range.getOffset(), range.getLength());
+            queueReadAhead(range.getOffset(), range.getLength());
+        }
+    }
+
+    /**
+     * Issues Storage Reads for the given range, aligned to {@link #storageReadAlignment}. Those portions of the range
+     * that are already in the index are skipped. The data is inserted into the Cache upon completion.
+     *
+     * @param offset The offset to begin prefetching at.
+     * @param length The number of bytes to prefetch.
+     */
+    private void queueReadAhead(long offset, int length) {
+        long endOffset = offset + length;
+        while (offset < endOffset) {
+            int readLength = getReadAlignedLength(offset, (int) (endOffset - offset));
+            boolean indexed;
+            synchronized (this.lock) {
+                indexed = isAnyIndexed(offset, readLength);
+            }
+
+            if (!indexed) {
+                final long readOffset = offset;
+                Consumer<StorageReadManager.Result> doneCallback = result -> {
+                    try {
+                        if (!result.isDerived()) {
+                            insert(readOffset, result.getData());
+                        }
+                    } catch (Exception ex) {
+                        log.error("{}: Unable to process ReadAhead callback. Offset={}, Result=[{}].", this.traceObjectId, readOffset, result, ex);
+                    }
+                };
+                Consumer<Throwable> failureCallback = ex ->
+                        log.warn("{}: ReadAhead failed. Offset={}, Length={}. {}", this.traceObjectId, readOffset, readLength, ex.toString());
+                this.storageReadManager.execute(new StorageReadManager.Request(offset, readLength, doneCallback, failureCallback,
+                        this.config.getStorageReadDefaultTimeout()));
+            }
+
+            offset += readLength;
+        }
+    }
+
     /**
      * Returns the length from the given offset until the beginning of the next index entry. If no such entry exists, or
      * if the length is greater than maxLength, then maxLength is returned.
@@ -1254,6 +1571,7 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
             // The Index entries are no longer ours and this segment has been deleted. Clear the index to prevent the
             // Cache Manager from messing around with the Cache Data that is now referenced by another Index.
             this.indexEntries.clear();
+            this.cachedLength = 0;
         }
 
         return result;
@@ -1265,6 +1583,277 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
         }
     }
 
+    /**
+     * Gets a {@link CacheDataSnapshot} of the data for the given {@link ReadIndexEntry}. Compressed data is pinned in the
+     * Cache, so that it can be decompressed (using {@link CacheDataSnapshot#getData()}) after the lock is released, even
+     * if the entry is evicted or replaced in the meantime.
+     *
+     * @param entry The {@link ReadIndexEntry} to get data for.
+     * @param pin   If true, the data will be pinned in the Cache (see {@link CacheStorage#getPinned}) and must be released
+     *              by the caller. Decompressed data is never pinned since it is already a copy.
+     * @return The snapshot, or null if the entry's data is not in the Cache.
+     */
+    @GuardedBy("lock")
+    private CacheDataSnapshot getCacheData(ReadIndexEntry entry, boolean pin) {
+        if (isCompressed(entry)) {
+            BufferView data = this.cacheStorage.getPinned(entry.getCacheAddress());
+            return data == null ? null : new CacheDataSnapshot(data, (int) entry.getLength());
+        }
+
+        BufferView data = pin ? this.cacheStorage.getPinned(entry.getCacheAddress()) : this.cacheStorage.get(entry.getCacheAddress());
+        return data == null ? null : new CacheDataSnapshot(data, -1);
+    }
+
+    private boolean isCompressed(ReadIndexEntry entry) {
+        return entry instanceof CacheIndexEntry && ((CacheIndexEntry) entry).isCompressed();
+    }
+
+    //endregion
+
+    //region Cache Priority
+
+    /**
+     * Gets the {@link CachePriority} of this Segment, either from its {@link Attributes#CACHE_PRIORITY} attribute or, if
+     * not set, from the {@link ReadIndexConfig}. This is invoked on every insertion and eviction, so it only does a single
+     * attribute lookup (which also picks up any changes to the attribute).
+     */
+    private CachePriority getCachePriority() {
+        Long value = this.metadata.getAttributes().get(Attributes.CACHE_PRIORITY);
+        return value == null || value == Attributes.NULL_ATTRIBUTE_VALUE
+                ? this.configCachePriority
+                : CachePriority.get(value);
+    }
+
+    /**
+     * Gets the maximum number of (uncompressed) bytes this Segment may have in the Cache, either from its
+     * {@link Attributes#CACHE_QUOTA} attribute or, if not set, from the {@link ReadIndexConfig}. 0 means no quota.
+     */
+    private long getCacheQuota() {
+        Long value = this.metadata.getAttributes().get(Attributes.CACHE_QUOTA);
+        return value == null || value <= 0 ? this.config.getCacheQuotaDefault() : value;
+    }
+
+    //endregion
+
+    //region Compression
+
+    /**
+     * Determines whether the data of this Segment may be compressed in the Cache.
+     */
+    private boolean isCompressionEnabled() {
+        if (!this.config.isCacheCompressionEnabled()) {
+            return false;
+        }
+
+        Long disabled = this.metadata.getAttributes().get(Attributes.DISABLE_CACHE_COMPRESSION);
+        return disabled == null || disabled != Attributes.BOOLEAN_TRUE;
+    }
+
+    /**
+     * Compresses (on the executor) the data of those {@link CacheIndexEntry} instances that have been persisted to Storage
+     * and whose generation is at or below the given one. Does nothing if a previous compression task is still running.
+     *
+     * @param maxGeneration The maximum generation of entries to compress.
+     */
+    private void compressEntriesAsync(int maxGeneration) {
+        val current = this.compressionTask.get();
+        if (!current.isDone() || !isCompressionEnabled()) {
+            return;
+        }
+
+        val task = new CompletableFuture<Void>();
+        if (this.compressionTask.compareAndSet(current, task)) {
+            ExecutorServiceHelpers.execute(
+                    () -> compressEntries(maxGeneration),
+                    ex -> log.warn("{}: Unable to compress Cache entries.", this.traceObjectId, ex),
+                    () -> task.complete(null),
+                    this.executor);
+        }
+    }
+
+    /**
+     * Gets a future that completes when the current background compression task (if any) is done.
+     *
+     * @return The future.
+     */
+    @VisibleForTesting
+    CompletableFuture<Void> getCompressionTask() {
+        return this.compressionTask.get();
+    }
+
+    /**
+     * Compresses the data of those {@link CacheIndexEntry} instances that have been persisted to Storage and whose
+     * generation is at or below the given one, for as long as the {@link CacheCompressionBudget} allows it. Whatever
+     * is left is compressed by a subsequent invocation.
+     *
+     * @param maxGeneration The maximum generation of entries to compress.
+     */
+    private void compressEntries(int maxGeneration) {
+        ArrayList<CacheIndexEntry> candidates = new ArrayList<>();
+        synchronized (this.lock) {
+            long storageLength = this.metadata.getStorageLength();
+            this.indexEntries.forEach(entry -> {
+                // Only data that is in Storage may be compressed; everything else may still be appended to.
+                if (entry.isDataEntry()
+                        && entry.getGeneration() <= maxGeneration
+                        && entry.getLastStreamSegmentOffset() < storageLength
+                        && ((CacheIndexEntry) entry).canCompress()) {
+                    candidates.add((CacheIndexEntry) entry);
+                }
+            });
+        }
+
+        for (CacheIndexEntry entry : candidates) {
+            int length = (int) entry.getLength();
+            if (this.closed || !this.compressionBudget.reserve(length)) {
+                break;
+            }
+
+            try {
+                compressEntry(entry);
+            } finally {
+                this.compressionBudget.release(length);
+            }
+        }
+    }
+
+    /**
+     * Compresses the data of the given {@link CacheIndexEntry} and replaces it in the index with a new compressed one.
+     * The data is only pinned while holding the lock; it is read and compressed outside of it, and the entry is only
+     * replaced if it has not changed in the meantime.
+     *
+     * @param entry The {@link CacheIndexEntry} to compress.
+     */
+    private void compressEntry(CacheIndexEntry entry) {
+        BufferView data;
+        synchronized (this.lock) {
+            if (this.indexEntries.get(entry.key()) != entry) {
+                // Evicted or replaced in the meantime.
+                return;
+            }
+
+            // Pin the data while holding the lock, so that it remains valid even if this entry is removed from the Cache
+            // while we are compressing it.
+            data = this.cacheStorage.getPinned(entry.getCacheAddress());
+            if (data == null) {
+                return;
+            }
+        }
+
+        int length = data.getLength();
+        BufferView compressedData;
+        try {
+            compressedData = CacheCompressor.compress(data);
+        } finally {
+            data.release();
+        }
+
+        if (compressedData == null) {
+            entry.markIncompressible();
+            return;
+        }
+
+        int compressedAddress;
+        try {
+            compressedAddress = this.cacheStorage.insert(compressedData);
+        } catch (CacheFullException ex) {
+            log.debug("{}: Unable to compress {}. {}", this.traceObjectId, entry, ex.getMessage());
+            return;
+        }
+
+        boolean replaced = false;
+        synchronized (this.lock) {
+            if (this.indexEntries.get(entry.key()) == entry && entry.getLength() == length) {
+                CacheIndexEntry compressedEntry = new CacheIndexEntry(entry.getStreamSegmentOffset(), length, compressedAddress, true);
+                compressedEntry.setGeneration(entry.getGeneration());
+                this.indexEntries.put(compressedEntry);
+                replaced = true;
+            }
+        }
+
+        // Delete whichever copy of the data is no longer referenced.
+        this.cacheStorage.delete(replaced ? entry.getCacheAddress() : compressedAddress);
+    }
+
+    //endregion
+
+    //region ReadResultEntrySupplier
+
+    /**
+     * {@link StreamSegmentReadResult.NextEntrySupplier} for {@link StreamSegmentReadResult}s returned by {@link #read}.
+     */
+    private class ReadResultEntrySupplier implements StreamSegmentReadResult.NextEntrySupplier {
+        @Override
+        public CompletableReadResultEntry apply(Long startOffset, Integer remainingLength, Boolean makeCopy) {
+            return getMultiReadResultEntry(startOffset, remainingLength, makeCopy ? CacheReadMode.Copy : CacheReadMode.Reference);
+        }
+
+        @Override
+        public CompletableReadResultEntry applyPinned(Long startOffset, Integer remainingLength) {
+            return getMultiReadResultEntry(startOffset, remainingLength, CacheReadMode.Pin);
+        }
+    }
+
+    //endregion
+
+    //region CacheReadMode
+
+    /**
+     * Defines how data retrieved from the Cache is returned.
+     */
+    private enum CacheReadMode {
+        /**
+         * The data is copied into a Heap buffer.
+         */
+        Copy,
+
+        /**
+         * The data references the Cache memory directly. It may be overwritten if the Cache Entry is evicted.
+         */
+        Reference,
+
+        /**
+         * The data references the Cache memory directly, which remains pinned until the data is released.
+         */
+        Pin
+    }
+
+    //endregion
+
+    //region CacheDataSnapshot
+
+    /**
+     * The data of a {@link ReadIndexEntry}, as retrieved from the Cache while holding the lock. Compressed data is pinned
+     * until it is decompressed, which happens outside of the lock.
+     */
+    @RequiredArgsConstructor
+    private static class CacheDataSnapshot {
+        private final BufferView data;
+        /**
+         * The decompressed length of {@link #data}, or -1 if it is not compressed.
+         */
+        private final int decompressedLength;
+
+        boolean isCompressed() {
+            return this.decompressedLength >= 0;
+        }
+
+        /**
+         * Gets the (decompressed) data. This must be invoked exactly once for compressed data, since it releases it.
+         */
+        BufferView getData() {
+            if (!isCompressed()) {
+                return this.data;
+            }
+
+            try {
+                return CacheCompressor.decompress(this.data, this.decompressedLength);
+            } finally {
+                this.data.release();
+            }
+        }
+    }
+
     //endregion
 
     //region ReadAvailability
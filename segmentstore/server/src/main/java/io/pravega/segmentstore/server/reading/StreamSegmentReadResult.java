@@ -43,6 +43,8 @@ public class StreamSegmentReadResult implements ReadResult {
     private boolean closed;
     @GuardedBy("this")
     private boolean copyOnRead;
+    @GuardedBy("this")
+    private boolean pinOnRead;
 
     //endregion
 
@@ -104,6 +106,16 @@ public class StreamSegmentReadResult implements ReadResult {
         this.copyOnRead = value;
     }
 
+    @Override
+    public synchronized boolean isPinOnRead() {
+        return this.pinOnRead;
+    }
+
+    @Override
+    public synchronized void setPinOnRead(boolean value) {
+        this.pinOnRead = value;
+    }
+
     @Override
     public synchronized boolean isClosed() {
         return this.closed || !hasNext();
@@ -186,7 +198,9 @@ public class StreamSegmentReadResult implements ReadResult {
         // Retrieve the next item.
         long startOffset = this.streamSegmentStartOffset + this.consumedLength;
         int remainingLength = this.maxResultLength - this.consumedLength;
-        CompletableReadResultEntry entry = this.getNextItem.apply(startOffset, remainingLength, this.copyOnRead);
+        CompletableReadResultEntry entry = this.pinOnRead
+                ? this.getNextItem.applyPinned(startOffset, remainingLength)
+                : this.getNextItem.apply(startOffset, remainingLength, this.copyOnRead);
 
         if (entry == null) {
             assert remainingLength <= 0 : String.format("No ReadResultEntry received when one was expected. Offset %d, MaxLen %d.", startOffset, remainingLength);
@@ -231,6 +245,18 @@ public class StreamSegmentReadResult implements ReadResult {
     @FunctionalInterface
     public interface NextEntrySupplier {
         CompletableReadResultEntry apply(Long startOffset, Integer remainingLength, Boolean makeCopy);
+
+        /**
+         * Same as {@link #apply}, but any returned cached data should reference pinned Cache memory instead of being
+         * copied (see {@link ReadResult#setPinOnRead}). By default, this makes a copy of the data, which is always safe.
+         *
+         * @param startOffset     The offset to read at.
+         * @param remainingLength The maximum number of bytes to read.
+         * @return The next entry to be consumed.
+         */
+        default CompletableReadResultEntry applyPinned(Long startOffset, Integer remainingLength) {
+            return apply(startOffset, remainingLength, true);
+        }
     }
 
     //endregion
@@ -76,4 +76,20 @@ public abstract class SegmentContainerCollection {
 
         return resultFuture;
     }
+
+    /**
+     * Gets the SegmentContainer that the given Segment maps to. Unlike {@link #invoke}, this does not log anything or
+     * involve any futures, so it is suitable for cheap queries that are executed very frequently.
+     *
+     * @param streamSegmentName The name of the StreamSegment to fetch the Container for.
+     * @return The SegmentContainer, or null if the SegmentContainer that the Segment maps to does not exist in this
+     * StreamSegmentService.
+     */
+    protected SegmentContainer getContainer(String streamSegmentName) {
+        try {
+            return this.segmentContainerRegistry.getContainer(this.segmentToContainerMapper.getContainerId(streamSegmentName));
+        } catch (ContainerNotFoundException ex) {
+            return null;
+        }
+    }
 }
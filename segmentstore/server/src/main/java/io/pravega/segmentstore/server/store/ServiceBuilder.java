@@ -45,9 +45,13 @@ import io.pravega.segmentstore.storage.ConfigSetup;
 import io.pravega.segmentstore.storage.DurableDataLogException;
 import io.pravega.segmentstore.storage.DurableDataLogFactory;
 import io.pravega.segmentstore.storage.StorageFactory;
+import io.pravega.segmentstore.storage.cache.CacheStorage;
+import io.pravega.segmentstore.storage.cache.DirectMemoryCache;
+import io.pravega.segmentstore.storage.cache.TieredCache;
 import io.pravega.segmentstore.storage.mocks.InMemoryDurableDataLogFactory;
 import io.pravega.segmentstore.storage.mocks.InMemoryStorageFactory;
 import io.pravega.shared.segment.SegmentToContainerMapper;
+import java.nio.file.Paths;
 import java.time.Duration;
 import java.util.Collections;
 import java.util.Map;
@@ -130,7 +134,7 @@ public class ServiceBuilder implements AutoCloseable {
                 instancePrefix + "low-priority-cleanup", Thread.MIN_PRIORITY);
         this.threadPoolMetrics = new SegmentStoreMetrics.ThreadPool(this.coreExecutor);
 
-        this.cacheManager = new CacheManager(serviceConfig.getCachePolicy(), this.coreExecutor);
+        this.cacheManager = new CacheManager(serviceConfig.getCachePolicy(), createCacheStorage(serviceConfig), this.coreExecutor);
     }
 
     private String getInstanceIdPrefix(ServiceConfig serviceConfig) {
@@ -148,6 +152,7 @@ public class ServiceBuilder implements AutoCloseable {
         closeComponent(this.containerRegistry);
         closeComponent(this.dataLogFactory);
         closeComponent(this.readIndexFactory);
+        closeStorageFactory();
         this.cacheManager.close();
         this.threadPoolMetrics.close();
         ExecutorServiceHelpers.shutdown(SHUTDOWN_TIMEOUT, this.storageExecutor, this.coreExecutor,
@@ -322,12 +327,38 @@ public class ServiceBuilder implements AutoCloseable {
 
     //region Helpers
 
+    private static CacheStorage createCacheStorage(ServiceConfig serviceConfig) {
+        long tierSize = serviceConfig.getCacheTierMaxSize();
+        long memorySize = serviceConfig.getCachePolicy().getMaxSize() - tierSize;
+        if (tierSize > 0) {
+            log.info("Using a local-storage Cache tier at '{}' (MaxSize = {}).", serviceConfig.getCacheTierPath(), tierSize);
+            return new TieredCache(memorySize, Paths.get(serviceConfig.getCacheTierPath()), tierSize);
+        } else {
+            return new DirectMemoryCache(memorySize);
+        }
+    }
+
     private static <T> Function<ComponentSetup, T> notConfiguredCreator(Class<?> c) {
         return ignored -> {
             throw new IllegalStateException("ServiceBuilder not properly configured. Missing supplier for: " + c.getName());
         };
     }
 
+    /**
+     * Closes the StorageFactory, if it was created and needs closing. This must be done after all the Segment Containers
+     * (and thus the Storage instances created by it) are closed.
+     */
+    private void closeStorageFactory() {
+        StorageFactory factory = this.storageFactory.getAndSet(null);
+        if (factory instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) factory).close();
+            } catch (Exception ex) {
+                log.error("Error while closing ServiceBuilder: ", ex);
+            }
+        }
+    }
+
     private static <T extends AutoCloseable> void closeComponent(AtomicReference<T> target) {
         T t = target.get();
         if (t != null) {
@@ -12,6 +12,7 @@ package io.pravega.segmentstore.server.store;
 import com.google.common.base.Strings;
 import io.pravega.common.util.ConfigBuilder;
 import io.pravega.common.util.ConfigurationException;
+import io.pravega.common.util.InvalidPropertyValueException;
 import io.pravega.common.util.Property;
 import io.pravega.common.util.TypedProperties;
 import io.pravega.segmentstore.server.CachePolicy;
@@ -61,6 +62,9 @@ public class ServiceConfig {
     public static final Property<Integer> CACHE_POLICY_MAX_UTILIZATION = Property.named("cache.utilization.percent.max", (int) (100 * CachePolicy.DEFAULT_MAX_UTILIZATION), "cacheMaxUtilizationPercent");
     public static final Property<Integer> CACHE_POLICY_MAX_TIME = Property.named("cache.time.seconds.max", 30 * 60, "cacheMaxTimeSeconds");
     public static final Property<Integer> CACHE_POLICY_GENERATION_TIME = Property.named("cache.generation.duration.seconds", 1, "cacheGenerationTimeSeconds");
+    public static final Property<CachePolicy.EvictionType> CACHE_POLICY_EVICTION_TYPE = Property.named("cache.eviction.policy", CachePolicy.EvictionType.LRU);
+    public static final Property<String> CACHE_TIER_PATH = Property.named("cache.tier.path", "");
+    public static final Property<Long> CACHE_TIER_MAX_SIZE = Property.named("cache.tier.size.max", 0L);
     public static final Property<Boolean> REPLY_WITH_STACK_TRACE_ON_ERROR = Property.named("request.replyWithStackTraceOnError.enable", false, "replyWithStackTraceOnError");
     public static final Property<String> INSTANCE_ID = Property.named("instance.id", "");
 
@@ -82,6 +86,11 @@ public class ServiceConfig {
          */
         BOOKKEEPER,
 
+        /**
+         * DataLog is stored on the local file system. Only suitable for single-node deployments.
+         */
+        FILESYSTEM,
+
         /**
          * InMemory DataLog. Contents will be lost when the process exits.
          */
@@ -279,6 +288,21 @@ public class ServiceConfig {
     @Getter
     private final CachePolicy cachePolicy;
 
+    /**
+     * The directory where the local-storage Cache tier will be placed. Only used if {@link #getCacheTierMaxSize()} is
+     * greater than 0.
+     */
+    @Getter
+    private final String cacheTierPath;
+
+    /**
+     * The maximum size, in bytes, of the local-storage Cache tier. If 0, the Cache will only use direct memory. This is
+     * in addition to the direct memory used by the Cache, so {@link #getCachePolicy()} will have a max size equal to
+     * the sum of the two.
+     */
+    @Getter
+    private final long cacheTierMaxSize;
+
     /**
      * Defines whether server-side stack traces should be send to clients as part of an error response.
      */
@@ -352,8 +376,19 @@ public class ServiceConfig {
         double cachePolicyMaxUtilization = properties.getInt(CACHE_POLICY_MAX_UTILIZATION) / 100.0;
         int cachePolicyMaxTime = properties.getInt(CACHE_POLICY_MAX_TIME);
         int cachePolicyGenerationTime = properties.getInt(CACHE_POLICY_GENERATION_TIME);
-        this.cachePolicy = new CachePolicy(cachePolicyMaxSize, cachePolicyTargetUtilization, cachePolicyMaxUtilization,
-                Duration.ofSeconds(cachePolicyMaxTime), Duration.ofSeconds(cachePolicyGenerationTime));
+        CachePolicy.EvictionType cachePolicyEvictionType = properties.getEnum(CACHE_POLICY_EVICTION_TYPE, CachePolicy.EvictionType.class);
+        this.cacheTierPath = properties.get(CACHE_TIER_PATH);
+        this.cacheTierMaxSize = properties.getLong(CACHE_TIER_MAX_SIZE);
+        if (this.cacheTierMaxSize < 0) {
+            throw new InvalidPropertyValueException(String.format("Property '%s' (%d) must be a non-negative number.",
+                    CACHE_TIER_MAX_SIZE, this.cacheTierMaxSize));
+        } else if (this.cacheTierMaxSize > 0 && Strings.isNullOrEmpty(this.cacheTierPath)) {
+            throw new InvalidPropertyValueException(String.format("Property '%s' must be specified if Property '%s' is set.",
+                    CACHE_TIER_PATH, CACHE_TIER_MAX_SIZE));
+        }
+
+        this.cachePolicy = new CachePolicy(cachePolicyMaxSize + this.cacheTierMaxSize, cachePolicyTargetUtilization, cachePolicyMaxUtilization,
+                Duration.ofSeconds(cachePolicyMaxTime), Duration.ofSeconds(cachePolicyGenerationTime), cachePolicyEvictionType);
         this.replyWithStackTraceOnError = properties.getBoolean(REPLY_WITH_STACK_TRACE_ON_ERROR);
         this.instanceId = properties.get(INSTANCE_ID);
     }
@@ -403,6 +438,8 @@ public class ServiceConfig {
                         Strings.isNullOrEmpty(keyFile) ? "unspecified" : "specified"))
                 .append(String.format("enableTlsReload: %b, ", enableTlsReload))
                 .append(String.format("cachePolicy is %s, ", (cachePolicy != null) ? cachePolicy.toString() : "null"))
+                .append(String.format("cacheTierPath: %s, ", cacheTierPath))
+                .append(String.format("cacheTierMaxSize: %d, ", cacheTierMaxSize))
                 .append(String.format("replyWithStackTraceOnError: %b, ", replyWithStackTraceOnError))
                 .append(String.format("instanceId: %s", instanceId))
                 .append(")")
@@ -16,6 +16,7 @@ import io.pravega.segmentstore.contracts.ReadResult;
 import io.pravega.segmentstore.contracts.SegmentProperties;
 import io.pravega.segmentstore.contracts.SegmentType;
 import io.pravega.segmentstore.contracts.StreamSegmentStore;
+import io.pravega.segmentstore.server.SegmentContainer;
 import io.pravega.segmentstore.server.SegmentContainerRegistry;
 import io.pravega.shared.segment.SegmentToContainerMapper;
 import java.time.Duration;
@@ -63,6 +64,13 @@ public class StreamSegmentService extends SegmentContainerCollection implements
                 "appendWithOffset", streamSegmentName, offset, data.getLength(), attributeUpdates);
     }
 
+    @Override
+    public Duration getAppendBackoff(String streamSegmentName) {
+        // This is queried after every append, so we go straight to the Container instead of using invoke().
+        SegmentContainer container = getContainer(streamSegmentName);
+        return container == null ? Duration.ZERO : container.getAppendBackoff(streamSegmentName);
+    }
+
     @Override
     public CompletableFuture<Void> updateAttributes(String streamSegmentName, Collection<AttributeUpdate> attributeUpdates, Duration timeout) {
         return invoke(
@@ -10,6 +10,7 @@
 package io.pravega.segmentstore.server.tables;
 
 import io.pravega.common.Exceptions;
+import io.pravega.segmentstore.server.CacheAccessTracker;
 import io.pravega.segmentstore.server.CacheManager;
 import io.pravega.segmentstore.storage.cache.CacheStorage;
 import java.util.ArrayList;
@@ -32,11 +33,14 @@ import lombok.val;
 class ContainerKeyCache implements CacheManager.Client, AutoCloseable {
     //region Members
 
+    private static final String CACHE_CLIENT_TYPE = "KeyIndex";
+
     private final CacheStorage cacheStorage;
     @GuardedBy("segmentCaches")
     private final Map<Long, SegmentKeyCache> segmentCaches;
     @GuardedBy("segmentCaches")
     private int currentCacheGeneration;
+    private final CacheAccessTracker accessTracker;
     private final AtomicBoolean closed;
 
     //endregion
@@ -51,6 +55,7 @@ class ContainerKeyCache implements CacheManager.Client, AutoCloseable {
     ContainerKeyCache(@NonNull CacheStorage cacheStorage) {
         this.cacheStorage = cacheStorage;
         this.segmentCaches = new HashMap<>();
+        this.accessTracker = new CacheAccessTracker(CACHE_CLIENT_TYPE);
         this.closed = new AtomicBoolean();
     }
 
@@ -88,6 +93,11 @@ class ContainerKeyCache implements CacheManager.Client, AutoCloseable {
 
     @Override
     public boolean updateGenerations(int currentGeneration, int oldestGeneration) {
+        return updateGenerations(currentGeneration, oldestGeneration, oldestGeneration);
+    }
+
+    @Override
+    public boolean updateGenerations(int currentGeneration, int oldestGeneration, int oldestProtectedGeneration) {
         Exceptions.checkNotClosed(this.closed.get(), this);
 
         // Instruct each Segment Cache to perform its own cache management, collect eviction candidates, and remove them
@@ -96,7 +106,7 @@ class ContainerKeyCache implements CacheManager.Client, AutoCloseable {
         synchronized (this.segmentCaches) {
             this.currentCacheGeneration = currentGeneration;
             for (SegmentKeyCache segmentCache : this.segmentCaches.values()) {
-                evictions.addAll(segmentCache.evictBefore(oldestGeneration));
+                evictions.addAll(segmentCache.evictBefore(oldestGeneration, oldestProtectedGeneration, this.accessTracker));
             }
         }
 
@@ -108,6 +118,11 @@ class ContainerKeyCache implements CacheManager.Client, AutoCloseable {
         return anyEvicted;
     }
 
+    @Override
+    public CacheAccessTracker getAccessTracker() {
+        return this.accessTracker;
+    }
+
     //endregion
 
     //region Cache Operations
@@ -195,7 +210,15 @@ class ContainerKeyCache implements CacheManager.Client, AutoCloseable {
             cache = this.segmentCaches.get(segmentId);
         }
 
-        return cache == null ? null : cache.get(keyHash, generation);
+        CacheBucketOffset result = cache == null ? null : cache.get(keyHash, generation);
+        long accessKey = SegmentKeyCache.getAccessKey(segmentId, SegmentKeyCache.getHashGroup(keyHash));
+        if (result == null) {
+            this.accessTracker.recordMiss(accessKey);
+        } else {
+            this.accessTracker.recordHit(accessKey);
+        }
+
+        return result;
     }
 
     /**
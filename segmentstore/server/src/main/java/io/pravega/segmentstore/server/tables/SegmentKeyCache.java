@@ -16,6 +16,7 @@ import io.pravega.common.util.BitConverter;
 import io.pravega.common.util.BufferView;
 import io.pravega.common.util.ByteArraySegment;
 import io.pravega.segmentstore.contracts.tables.TableAttributes;
+import io.pravega.segmentstore.server.CacheAccessTracker;
 import io.pravega.segmentstore.server.CacheManager;
 import io.pravega.segmentstore.storage.cache.CacheStorage;
 import java.util.ArrayList;
@@ -87,15 +88,21 @@ class SegmentKeyCache {
      * actually execute the eviction since it is invoked while a lock is held in {@link ContainerKeyCache}. The caller
      * ({@link ContainerKeyCache}) needs to execute the actual cache eviction.
      *
-     * @param oldestGeneration The oldest permissible generation.
+     * @param oldestGeneration          The oldest permissible generation.
+     * @param oldestProtectedGeneration The oldest permissible generation for frequently used Cache Entries.
+     * @param accessTracker             A {@link CacheAccessTracker} that determines which Cache Entries are frequently used.
      * @return A List of {@link CacheEntry} instances representing the evicted entries.
      */
-    synchronized List<CacheEntry> evictBefore(int oldestGeneration) {
+    synchronized List<CacheEntry> evictBefore(int oldestGeneration, int oldestProtectedGeneration, CacheAccessTracker accessTracker) {
         // Remove those entries that have a generation below the oldest permissible one.
         ArrayList<CacheEntry> removedEntries = new ArrayList<>();
         for (val e : this.cacheEntries.entrySet()) {
             CacheEntry entry = e.getValue();
-            if (entry.getGeneration() < oldestGeneration
+            int cutoffGeneration = oldestProtectedGeneration < oldestGeneration
+                    && accessTracker.isFrequent(getAccessKey(this.segmentId, entry.hashGroup))
+                    ? oldestProtectedGeneration
+                    : oldestGeneration;
+            if (entry.getGeneration() < cutoffGeneration
                     && entry.getHighestOffset() < this.lastIndexedOffset) {
                 removedEntries.add(entry);
             }
@@ -300,10 +307,22 @@ class SegmentKeyCache {
                 this.lastIndexedOffset, this.cacheEntries.size(), this.backpointers.size(), this.tailOffsets.size());
     }
 
-    private short getHashGroup(UUID keyHash) {
+    static short getHashGroup(UUID keyHash) {
         return (short) HASH.hashToBucket(keyHash, HASH_GROUP_COUNT);
     }
 
+    /**
+     * Gets the key to record accesses with in a {@link CacheAccessTracker}. All Keys in the same KeyHashGroup share the
+     * same {@link CacheEntry}, so they also share the same access key.
+     *
+     * @param segmentId The Id of the Segment.
+     * @param hashGroup The KeyHashGroup.
+     * @return The access key.
+     */
+    static long getAccessKey(long segmentId, short hashGroup) {
+        return segmentId * HASH_GROUP_COUNT + hashGroup;
+    }
+
     //endregion
 
     //region Helper Classes
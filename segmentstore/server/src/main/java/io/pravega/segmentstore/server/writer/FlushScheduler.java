@@ -0,0 +1,360 @@
+/**
+ * Copyright (c) Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.server.writer;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import io.pravega.common.AbstractTimer;
+import io.pravega.common.Exceptions;
+import io.pravega.common.ObjectClosedException;
+import io.pravega.common.Timer;
+import io.pravega.common.concurrent.Futures;
+import io.pravega.segmentstore.server.SegmentStoreMetrics;
+import io.pravega.segmentstore.server.WriterFlushResult;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Schedules Segment flushes to Storage so that many of them may execute concurrently, but no more than a configured
+ * maximum at any given time and (optionally) without exceeding a configured number of bytes flushed per second.
+ *
+ * The bandwidth limit is enforced using a token bucket that refills at the configured rate and holds at most
+ * {@link #MAX_BURST_NANOS} worth of tokens. A flush is charged its estimated size when it is started (so that concurrent
+ * flushes are all accounted for) and the charge is adjusted to the actual number of bytes once it completes. A flush
+ * may only be started while the bucket is not empty, but it may take it into deficit; this deficit is carried forward
+ * and must be repaid before any other flush may begin, which keeps the sustained rate at or below the limit.
+ *
+ * Flushes are executed in the order of their {@link Priority} and, within the same {@link Priority}, in the order of
+ * the Lowest Uncommitted Sequence Number of their Segment. As such, the Segments which hold back the truncation of the
+ * DurableLog the most are always flushed first.
+ */
+@Slf4j
+@ThreadSafe
+class FlushScheduler implements AutoCloseable {
+    //region Members
+
+    @VisibleForTesting
+    static final long MAX_BURST_NANOS = TimeUnit.SECONDS.toNanos(1);
+    @VisibleForTesting
+    static final long MIN_RESUME_DELAY_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private final String traceObjectId;
+    private final int maxConcurrency;
+    private final long maxBytesPerSecond;
+    private final AbstractTimer timer;
+    private final ScheduledExecutorService executor;
+    private final SegmentStoreMetrics.StorageWriter metrics;
+    @GuardedBy("this")
+    private final PriorityQueue<FlushTask> queue;
+    @GuardedBy("this")
+    private final int[] queueSizes;
+    @GuardedBy("this")
+    private long nextTaskId;
+    @GuardedBy("this")
+    private int runningCount;
+    /**
+     * The time (as given by {@link #timer}) at which the token bucket will be empty, given what has been charged to it
+     * so far. If in the future, the bucket is in deficit; the bucket is full if this is {@link #MAX_BURST_NANOS} or more
+     * in the past.
+     */
+    @GuardedBy("this")
+    private long bucketEmptyAtNanos;
+    @GuardedBy("this")
+    private boolean resumeScheduled;
+    @GuardedBy("this")
+    private boolean closed;
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the FlushScheduler class.
+     *
+     * @param containerId       The Id of the Container this instance is for. Used for logging purposes.
+     * @param maxConcurrency    The maximum number of flushes that may execute at any given time.
+     * @param maxBytesPerSecond The maximum number of bytes that may be flushed (or merged) per second. If 0, there is no
+     *                          limit.
+     * @param timer             An {@link AbstractTimer} to use for bandwidth calculations.
+     * @param metrics           The metrics to report queue sizes and flush latencies to.
+     * @param executor          The Executor to use for async callbacks.
+     */
+    FlushScheduler(int containerId, int maxConcurrency, long maxBytesPerSecond, AbstractTimer timer,
+                   SegmentStoreMetrics.StorageWriter metrics, ScheduledExecutorService executor) {
+        Preconditions.checkArgument(maxConcurrency > 0, "maxConcurrency must be a positive number.");
+        Preconditions.checkArgument(maxBytesPerSecond >= 0, "maxBytesPerSecond must be a non-negative number.");
+        this.traceObjectId = String.format("FlushScheduler[%d]", containerId);
+        this.maxConcurrency = maxConcurrency;
+        this.maxBytesPerSecond = maxBytesPerSecond;
+        this.timer = Preconditions.checkNotNull(timer, "timer");
+        this.metrics = Preconditions.checkNotNull(metrics, "metrics");
+        this.executor = Preconditions.checkNotNull(executor, "executor");
+        this.queue = new PriorityQueue<>(Comparator
+                .comparingInt((FlushTask t) -> t.priority.ordinal())
+                .thenComparingLong(t -> t.sortKey)
+                .thenComparingLong(t -> t.id));
+        this.queueSizes = new int[Priority.values().length];
+        this.bucketEmptyAtNanos = timer.getElapsedNanos() - MAX_BURST_NANOS;
+    }
+
+    //endregion
+
+    //region AutoCloseable Implementation
+
+    @Override
+    public void close() {
+        List<FlushTask> toCancel;
+        synchronized (this) {
+            if (this.closed) {
+                return;
+            }
+
+            this.closed = true;
+            toCancel = new ArrayList<>(this.queue);
+            this.queue.clear();
+        }
+
+        ObjectClosedException ex = new ObjectClosedException(this);
+        toCancel.forEach(t -> t.result.completeExceptionally(ex));
+    }
+
+    //endregion
+
+    //region Operations
+
+    /**
+     * Gets the number of flushes that are currently executing.
+     *
+     * @return The number of executing flushes.
+     */
+    @VisibleForTesting
+    synchronized int getRunningCount() {
+        return this.runningCount;
+    }
+
+    /**
+     * Gets the number of flushes with the given {@link Priority} that are waiting to be executed.
+     *
+     * @param priority The {@link Priority} to query.
+     * @return The number of queued flushes.
+     */
+    @VisibleForTesting
+    synchronized int getQueueSize(Priority priority) {
+        return this.queueSizes[priority.ordinal()];
+    }
+
+    /**
+     * Schedules a flush for execution.
+     *
+     * @param priority The {@link Priority} of the flush.
+     * @param sortKey        A value that determines the order of execution among flushes with the same {@link Priority}.
+     *                       Lower values are executed first. This is usually the Segment's Lowest Uncommitted Sequence
+     *                       Number.
+     * @param estimatedBytes The number of bytes this flush is expected to flush or merge. This is charged against the
+     *                       bandwidth limit when the flush is started, and adjusted to the actual value upon completion.
+     * @param flush          A Supplier that, when invoked, will begin the flush and return a CompletableFuture for its
+     *                       result.
+     * @return A CompletableFuture that, when completed, will contain the result of the flush.
+     */
+    CompletableFuture<WriterFlushResult> schedule(Priority priority, long sortKey, long estimatedBytes,
+                                                  Supplier<CompletableFuture<WriterFlushResult>> flush) {
+        Preconditions.checkArgument(estimatedBytes >= 0, "estimatedBytes must be a non-negative number.");
+        FlushTask task;
+        synchronized (this) {
+            Exceptions.checkNotClosed(this.closed, this);
+            task = new FlushTask(priority, sortKey, this.nextTaskId++, estimatedBytes, flush);
+            this.queue.add(task);
+            this.queueSizes[priority.ordinal()]++;
+        }
+
+        startEligibleTasks();
+        return task.result;
+    }
+
+    /**
+     * Begins executing as many queued flushes as allowed by the concurrency and bandwidth limits.
+     */
+    private void startEligibleTasks() {
+        List<FlushTask> toStart = new ArrayList<>();
+        int[] queueSizes;
+        synchronized (this) {
+            while (!this.closed && !this.queue.isEmpty() && this.runningCount < this.maxConcurrency) {
+                long delayNanos = getBandwidthDelayNanos();
+                if (delayNanos > 0) {
+                    // We have flushed as much as we are allowed to for now. Try again once the deficit has been repaid.
+                    if (!this.resumeScheduled) {
+                        this.resumeScheduled = true;
+                        this.executor.schedule(this::resume, delayNanos, TimeUnit.NANOSECONDS);
+                    }
+                    break;
+                }
+
+                FlushTask task = this.queue.poll();
+                this.queueSizes[task.priority.ordinal()]--;
+                this.runningCount++;
+                chargeBandwidth(task.estimatedBytes);
+                toStart.add(task);
+            }
+
+            queueSizes = this.queueSizes.clone();
+        }
+
+        for (Priority p : Priority.values()) {
+            this.metrics.flushQueueSize(p.name(), queueSizes[p.ordinal()]);
+        }
+
+        toStart.forEach(this::start);
+    }
+
+    private void resume() {
+        synchronized (this) {
+            this.resumeScheduled = false;
+        }
+
+        startEligibleTasks();
+    }
+
+    private void start(FlushTask task) {
+        Timer flushTimer = new Timer();
+        CompletableFuture<WriterFlushResult> flushFuture;
+        try {
+            flushFuture = task.flush.get();
+        } catch (Throwable ex) {
+            if (Exceptions.mustRethrow(ex)) {
+                throw ex;
+            }
+
+            flushFuture = Futures.failedFuture(ex);
+        }
+
+        // Continue on the executor so that synchronously completing flushes do not recurse into startEligibleTasks().
+        flushFuture.whenCompleteAsync((result, ex) -> {
+            synchronized (this) {
+                this.runningCount--;
+                if (result != null) {
+                    // Replace our estimate with what was actually flushed. If the flush failed, we cannot tell how much
+                    // of it made it to Storage, so we leave the estimate charged.
+                    chargeBandwidth(result.getFlushedBytes() + result.getMergedBytes() - task.estimatedBytes);
+                }
+            }
+
+            this.metrics.segmentFlushComplete(task.priority.name(), flushTimer.getElapsed());
+            if (ex == null) {
+                task.result.complete(result);
+            } else {
+                task.result.completeExceptionally(Exceptions.unwrap(ex));
+            }
+
+            startEligibleTasks();
+        }, this.executor);
+    }
+
+    /**
+     * Determines how long we need to wait until the next flush may begin in order to honor the bandwidth limit.
+     */
+    @GuardedBy("this")
+    private long getBandwidthDelayNanos() {
+        if (this.maxBytesPerSecond == 0) {
+            return 0;
+        }
+
+        long deficitNanos = this.bucketEmptyAtNanos - this.timer.getElapsedNanos();
+        if (deficitNanos >= 0) {
+            log.debug("{}: Bandwidth limit reached (deficit {}ms).", this.traceObjectId, TimeUnit.NANOSECONDS.toMillis(deficitNanos));
+            return Math.max(deficitNanos, MIN_RESUME_DELAY_NANOS);
+        }
+
+        return 0;
+    }
+
+    /**
+     * Charges (or, if negative, refunds) the given number of bytes against the bandwidth limit.
+     */
+    @GuardedBy("this")
+    private void chargeBandwidth(long bytes) {
+        if (this.maxBytesPerSecond == 0 || bytes == 0) {
+            return;
+        }
+
+        // The bucket cannot hold more than MAX_BURST_NANOS worth of tokens, no matter how long it has been idle.
+        long bucketFullAtNanos = this.timer.getElapsedNanos() - MAX_BURST_NANOS;
+        long chargeNanos = (long) ((double) bytes * TimeUnit.SECONDS.toNanos(1) / this.maxBytesPerSecond);
+        this.bucketEmptyAtNanos = Math.max(this.bucketEmptyAtNanos, bucketFullAtNanos) + chargeNanos;
+    }
+
+    //endregion
+
+    //region Priority
+
+    /**
+     * Determines the {@link Priority} for flushing a Segment.
+     *
+     * @param lowestUncommittedSeqNo The Lowest Uncommitted Sequence Number of the Segment to flush.
+     * @param truncationSeqNo        The lowest of all Lowest Uncommitted Sequence Numbers across all Segments. This is
+     *                               what currently prevents the DurableLog from being truncated further.
+     * @param lastReadSeqNo          The Sequence Number of the last Operation read from the DurableLog.
+     * @return The {@link Priority}.
+     */
+    static Priority getPriority(long lowestUncommittedSeqNo, long truncationSeqNo, long lastReadSeqNo) {
+        if (lowestUncommittedSeqNo < 0) {
+            // Nothing uncommitted, so this Segment does not hold back the truncation of the DurableLog.
+            return Priority.Normal;
+        } else if (lowestUncommittedSeqNo <= truncationSeqNo) {
+            return Priority.Critical;
+        } else if (lowestUncommittedSeqNo - truncationSeqNo <= (lastReadSeqNo - truncationSeqNo) / 2) {
+            return Priority.High;
+        } else {
+            return Priority.Normal;
+        }
+    }
+
+    /**
+     * Flush Priorities.
+     */
+    enum Priority {
+        /**
+         * The Segment is (one of) those preventing the DurableLog from being truncated further.
+         */
+        Critical,
+        /**
+         * The Segment has uncommitted data in the older half of the DurableLog that has not yet been truncated.
+         */
+        High,
+        /**
+         * All other Segments.
+         */
+        Normal
+    }
+
+    //endregion
+
+    //region FlushTask
+
+    @RequiredArgsConstructor
+    private static class FlushTask {
+        private final Priority priority;
+        private final long sortKey;
+        private final long id;
+        private final long estimatedBytes;
+        private final Supplier<CompletableFuture<WriterFlushResult>> flush;
+        private final CompletableFuture<WriterFlushResult> result = new CompletableFuture<>();
+    }
+
+    //endregion
+}
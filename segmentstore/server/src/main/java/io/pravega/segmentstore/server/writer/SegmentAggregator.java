@@ -175,6 +175,13 @@ class SegmentAggregator implements WriterSegmentProcessor, AutoCloseable {
         return this.timer.getElapsed().minus(this.lastFlush.get());
     }
 
+    /**
+     * Gets a value representing the number of bytes that are pending a flush or merge to Storage in this SegmentAggregator.
+     */
+    long getOutstandingLength() {
+        return this.operations.sumLength(op -> isAppendOperation(op) || op instanceof MergeSegmentOperation);
+    }
+
     /**
      * Gets a value indicating whether a call to flush() is required given the current state of this SegmentAggregator.
      * <p>
@@ -1798,6 +1805,10 @@ class SegmentAggregator implements WriterSegmentProcessor, AutoCloseable {
         synchronized List<StorageOperation> filter(Predicate<StorageOperation> test) {
             return this.queue.stream().filter(test).collect(Collectors.toList());
         }
+
+        synchronized long sumLength(Predicate<StorageOperation> test) {
+            return this.queue.stream().filter(test).mapToLong(StorageOperation::getLength).sum();
+        }
     }
 
     //endregion
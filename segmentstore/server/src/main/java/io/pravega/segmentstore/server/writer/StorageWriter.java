@@ -65,6 +65,7 @@ class StorageWriter extends AbstractThreadPoolService implements Writer {
     private final WriterFactory.CreateProcessors createProcessors;
     private final SequentialProcessor ackProcessor;
     private final SegmentStoreMetrics.StorageWriter metrics;
+    private final FlushScheduler flushScheduler;
 
     //endregion
 
@@ -95,6 +96,8 @@ class StorageWriter extends AbstractThreadPoolService implements Writer {
         this.ackCalculator = new AckCalculator(this.state);
         this.ackProcessor = new SequentialProcessor(this.executor);
         this.metrics = new SegmentStoreMetrics.StorageWriter(dataSource.getId());
+        this.flushScheduler = new FlushScheduler(dataSource.getId(), config.getMaxFlushConcurrency(), config.getMaxFlushBandwidth(),
+                this.timer, this.metrics, this.executor);
     }
 
     //endregion
@@ -174,6 +177,7 @@ class StorageWriter extends AbstractThreadPoolService implements Writer {
         this.processors.values().forEach(ProcessorCollection::close);
         this.processors.clear();
         this.ackProcessor.close();
+        this.flushScheduler.close();
         this.metrics.close();
     }
 
@@ -309,6 +313,10 @@ class StorageWriter extends AbstractThreadPoolService implements Writer {
 
     /**
      * Flushes eligible operations to Storage, if necessary. Does not perform any mergers.
+     *
+     * Eligible Segments are flushed concurrently via the {@link FlushScheduler}, which bounds the number of concurrent
+     * flushes and the bandwidth they may use, and executes them in order of how much they hold back the truncation of
+     * the DurableLog.
      */
     private CompletableFuture<Void> flush(Void ignored) {
         checkRunning();
@@ -317,9 +325,27 @@ class StorageWriter extends AbstractThreadPoolService implements Writer {
         // Flush everything we can flush.
         val timer = new Timer();
         val forceFlush = this.state.isForceFlush();
-        val flushFutures = this.processors.values().stream()
+        val toFlush = this.processors.values().stream()
                 .filter(pc -> forceFlush || pc.mustFlush())
-                .map(a -> a.flush(forceFlush, this.config.getFlushTimeout()))
+                .collect(Collectors.toList());
+
+        // The Segment with the lowest LUSN (across all Segments, not just those being flushed) is the one that prevents
+        // the DurableLog from being truncated.
+        long truncationSeqNo = this.processors.values().stream()
+                .mapToLong(ProcessorCollection::getLowestUncommittedSequenceNumber)
+                .filter(sn -> sn >= 0)
+                .min()
+                .orElse(Operation.NO_SEQUENCE_NUMBER);
+        long lastReadSeqNo = this.state.getLastReadSequenceNumber();
+        val flushFutures = toFlush.stream()
+                .map(pc -> {
+                    long seqNo = pc.getLowestUncommittedSequenceNumber();
+                    return this.flushScheduler.schedule(
+                            FlushScheduler.getPriority(seqNo, truncationSeqNo, lastReadSeqNo),
+                            seqNo >= 0 ? seqNo : Long.MAX_VALUE,
+                            pc.getOutstandingLength(),
+                            () -> pc.flush(forceFlush, this.config.getFlushTimeout()));
+                })
                 .collect(Collectors.toList());
 
         return Futures
@@ -605,6 +631,13 @@ class StorageWriter extends AbstractThreadPoolService implements Writer {
             return this.aggregator.getElapsedSinceLastFlush();
         }
 
+        /**
+         * Gets a value indicating the number of bytes pending a flush or merge in the main Segment Aggregator.
+         */
+        long getOutstandingLength() {
+            return this.aggregator.getOutstandingLength();
+        }
+
         /**
          * Gets a value indicating the Segment Id for all processors in this collection.
          */
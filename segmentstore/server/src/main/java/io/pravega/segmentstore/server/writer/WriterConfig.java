@@ -35,6 +35,8 @@ public class WriterConfig {
     public static final Property<Long> ACK_TIMEOUT_MILLIS = Property.named("ack.timeout.milliseconds", 15 * 1000L, "ackTimeoutMillis");
     public static final Property<Long> SHUTDOWN_TIMEOUT_MILLIS = Property.named("shutDown.timeout.milliseconds", 10 * 1000L, "shutdownTimeoutMillis");
     public static final Property<Long> MAX_ROLLOVER_SIZE = Property.named("rollover.size.bytes.max", SegmentRollingPolicy.NO_ROLLING.getMaxLength(), "maxRolloverSizeBytes");
+    public static final Property<Integer> FLUSH_CONCURRENCY_MAX = Property.named("flush.concurrency.max", 100);
+    public static final Property<Long> FLUSH_BANDWIDTH_MAX = Property.named("flush.bandwidth.bytes.max", 0L);
     private static final String COMPONENT_CODE = "writer";
 
     //endregion
@@ -114,6 +116,18 @@ public class WriterConfig {
     @Getter
     private final long maxRolloverSize;
 
+    /**
+     * The maximum number of Segments that may be flushed to Storage concurrently.
+     */
+    @Getter
+    private final int maxFlushConcurrency;
+
+    /**
+     * The maximum number of bytes that may be flushed (or merged) to Storage per second. If 0, there is no limit.
+     */
+    @Getter
+    private final long maxFlushBandwidth;
+
     //endregion
 
     //region Constructor
@@ -158,6 +172,15 @@ public class WriterConfig {
         this.ackTimeout = Duration.ofMillis(properties.getLong(ACK_TIMEOUT_MILLIS));
         this.shutdownTimeout = Duration.ofMillis(properties.getLong(SHUTDOWN_TIMEOUT_MILLIS));
         this.maxRolloverSize = Math.max(0, properties.getLong(MAX_ROLLOVER_SIZE));
+        this.maxFlushConcurrency = properties.getInt(FLUSH_CONCURRENCY_MAX);
+        if (this.maxFlushConcurrency <= 0) {
+            throw new ConfigurationException(String.format("Property '%s' must be a positive integer.", FLUSH_CONCURRENCY_MAX));
+        }
+
+        this.maxFlushBandwidth = properties.getLong(FLUSH_BANDWIDTH_MAX);
+        if (this.maxFlushBandwidth < 0) {
+            throw new ConfigurationException(String.format("Property '%s' must be a non-negative integer.", FLUSH_BANDWIDTH_MAX));
+        }
     }
 
     /**
@@ -0,0 +1,129 @@
+/**
+ * Copyright (c) Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.server;
+
+import io.pravega.test.common.AssertExtensions;
+import lombok.val;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link CacheAccessTracker} class.
+ */
+public class CacheAccessTrackerTests {
+    private static final int COUNTER_COUNT = 1024;
+
+    /**
+     * Tests {@link CacheAccessTracker#isFrequent} and {@link CacheAccessTracker#getFrequency}.
+     */
+    @Test
+    public void testFrequency() {
+        val t = new CacheAccessTracker("Test", COUNTER_COUNT);
+        Assert.assertEquals("Unexpected frequency for empty tracker.", 0, t.getFrequency(1));
+        Assert.assertFalse(t.isFrequent(1));
+
+        // Access a few keys frequently and a lot of keys only once (i.e., a scan).
+        final int frequentKeyCount = 10;
+        for (int i = 0; i < CacheAccessTracker.PROTECTED_FREQUENCY; i++) {
+            for (long key = 0; key < frequentKeyCount; key++) {
+                t.recordHit(key);
+            }
+        }
+
+        final int scanKeyCount = COUNTER_COUNT / 2;
+        for (long key = frequentKeyCount; key < frequentKeyCount + scanKeyCount; key++) {
+            t.recordMiss(key);
+        }
+
+        for (long key = 0; key < frequentKeyCount; key++) {
+            Assert.assertTrue("Expected key to be frequent: " + key, t.isFrequent(key));
+        }
+
+        int frequentScanKeys = 0;
+        for (long key = frequentKeyCount; key < frequentKeyCount + scanKeyCount; key++) {
+            if (t.isFrequent(key)) {
+                frequentScanKeys++;
+            }
+        }
+
+        // Count-Min Sketches may overestimate, but this should be rare with this load factor.
+        AssertExtensions.assertLessThan("Too many scanned keys deemed frequent.", scanKeyCount / 100, frequentScanKeys);
+    }
+
+    /**
+     * Tests the fact that counters are aged and do not exceed their maximum value.
+     */
+    @Test
+    public void testAging() {
+        final int counterCount = 16;
+        val t = new CacheAccessTracker("Test", counterCount);
+        for (int i = 0; i < 100; i++) {
+            t.recordHit(1);
+        }
+
+        // At this point, the counters for this key should have saturated.
+        Assert.assertEquals("Unexpected frequency for saturated counter.", 15, t.getFrequency(1));
+
+        // Access a single other key until the first one's counters are aged enough.
+        for (int i = 0; i < 10 * counterCount * 3; i++) {
+            t.recordHit(2);
+        }
+
+        AssertExtensions.assertLessThan("Expected frequency to decrease after aging.", 15, t.getFrequency(1));
+    }
+
+    /**
+     * Tests the ability to count hits and misses.
+     */
+    @Test
+    public void testHitCounts() {
+        val t = new CacheAccessTracker("Test");
+        Assert.assertEquals("Test", t.getClientType());
+        for (int i = 0; i < 3; i++) {
+            t.recordHit(i);
+        }
+
+        t.recordMiss(10);
+
+        val c1 = t.getAndResetHitCounts();
+        Assert.assertEquals(3, c1.getHits());
+        Assert.assertEquals(1, c1.getMisses());
+        Assert.assertEquals(0.75, c1.getHitRatio(), 0.0001);
+
+        val c2 = t.getAndResetHitCounts();
+        Assert.assertEquals(0, c2.getHits());
+        Assert.assertEquals(0, c2.getMisses());
+        Assert.assertEquals(0, c2.getHitRatio(), 0.0001);
+
+        t.recordMiss(1);
+        val combined = c1.add(t.getAndResetHitCounts());
+        Assert.assertEquals(3, combined.getHits());
+        Assert.assertEquals(2, combined.getMisses());
+    }
+
+    /**
+     * Tests invalid constructor arguments.
+     */
+    @Test
+    public void testInvalidArguments() {
+        AssertExtensions.assertThrows(
+                "Non-power of 2 counter count was accepted.",
+                () -> new CacheAccessTracker("Test", 1000),
+                ex -> ex instanceof IllegalArgumentException);
+        AssertExtensions.assertThrows(
+                "Too small counter count was accepted.",
+                () -> new CacheAccessTracker("Test", 8),
+                ex -> ex instanceof IllegalArgumentException);
+        AssertExtensions.assertThrows(
+                "Null client type was accepted.",
+                () -> new CacheAccessTracker(null, COUNTER_COUNT),
+                ex -> ex instanceof NullPointerException);
+    }
+}
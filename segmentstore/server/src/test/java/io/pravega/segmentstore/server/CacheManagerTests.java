@@ -22,6 +22,7 @@ import io.pravega.test.common.ThreadPooledTestSuite;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Random;
 import java.util.concurrent.CompletableFuture;
@@ -29,6 +30,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiFunction;
+import java.util.function.Function;
 import lombok.Cleanup;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
@@ -257,6 +259,143 @@ public class CacheManagerTests extends ThreadPooledTestSuite {
         }
     }
 
+    /**
+     * Tests {@link CachePolicy.EvictionType#SEGMENTED_LRU}: frequently used entries should only be evicted after all
+     * other entries, even if they are older. Also verifies that {@link CachePolicy.EvictionType#LRU} does not make this
+     * distinction.
+     */
+    @Test
+    public void testSegmentedEviction() {
+        final int entrySize = 100;
+        final int probationCount = 10;
+        val lru = testSegmentedEviction(CachePolicy.EvictionType.LRU, entrySize, probationCount);
+        Assert.assertFalse("Expected protected entry to be evicted with LRU.", lru.contains(-1));
+
+        val slru = testSegmentedEviction(CachePolicy.EvictionType.SEGMENTED_LRU, entrySize, probationCount);
+        Assert.assertTrue("Expected protected entry to be retained with SEGMENTED_LRU.", slru.contains(-1));
+        Assert.assertTrue("Expected some probation entries to be evicted with SEGMENTED_LRU.", slru.size() < probationCount + 1);
+    }
+
+    /**
+     * Executes a scenario with one protected entry (identified by -1, with generation 0) and a number of newer probation
+     * entries (identified by their index), which together exceed the eviction threshold.
+     *
+     * @return The identifiers of the entries remaining after applying the cache policy.
+     */
+    private HashSet<Integer> testSegmentedEviction(CachePolicy.EvictionType evictionType, int entrySize, int probationCount) {
+        final int maxGenerations = 100;
+        final int startGeneration = 2 * probationCount;
+        final CachePolicy policy = new CachePolicy(entrySize * probationCount, 0.5, 0.95,
+                Duration.ofHours(maxGenerations), Duration.ofHours(1), evictionType);
+        @Cleanup
+        val cache = new TestCache(policy.getMaxSize());
+        cache.setStoredBytes(1); // The Cache Manager won't do anything if there's no stored data.
+        @Cleanup
+        TestCacheManager cm = new TestCacheManager(policy, cache, executorService());
+        val client = new TestClient();
+        cm.register(client);
+
+        // Advance the current generation, without exceeding the eviction threshold.
+        for (int i = 0; i < startGeneration; i++) {
+            client.setCacheStatus(0, i);
+            cm.applyCachePolicy();
+        }
+
+        // Generation of each entry. The protected entry is the oldest one.
+        val entries = new HashMap<Integer, Integer>();
+        entries.put(-1, 0);
+        for (int i = 0; i < probationCount; i++) {
+            entries.put(i, startGeneration - probationCount + i);
+        }
+
+        Runnable updateState = () -> {
+            cache.setStoredBytes((long) entries.size() * entrySize);
+            cache.setUsedBytes((long) entries.size() * entrySize);
+            client.setCacheStatus(CacheManager.CacheStatus.fromGenerations(entries.values().iterator()));
+        };
+        updateState.run();
+        client.setUpdateGenerationsImpl((current, oldest, oldestProtected) -> {
+            AssertExtensions.assertLessThanOrEqual("Unexpected oldestProtectedGeneration.", oldest, oldestProtected);
+            boolean removed = entries.entrySet().removeIf(e -> e.getValue() < (e.getKey() < 0 ? oldestProtected : oldest));
+            updateState.run();
+            return removed;
+        });
+
+        cm.applyCachePolicy();
+        AssertExtensions.assertLessThanOrEqual("Expected cache to be within eviction threshold.",
+                policy.getEvictionThreshold(), cache.getUsedBytes());
+        return new HashSet<>(entries.keySet());
+    }
+
+    /**
+     * Tests that Guaranteed entries are only evicted (via {@link CacheManager.Client#evictGuaranteed}) after every other
+     * entry that could be evicted has been evicted, and then least recently used first.
+     */
+    @Test
+    public void testGuaranteedEviction() {
+        final int entrySize = 100;
+        final int entryCount = 10;
+        final int maxGenerations = 100;
+        final CachePolicy policy = new CachePolicy(entrySize * entryCount, 0.5, 0.95,
+                Duration.ofHours(maxGenerations), Duration.ofHours(1), CachePolicy.EvictionType.SEGMENTED_LRU);
+        @Cleanup
+        val cache = new TestCache(policy.getMaxSize());
+        cache.setStoredBytes(1); // The Cache Manager won't do anything if there's no stored data.
+        @Cleanup
+        TestCacheManager cm = new TestCacheManager(policy, cache, executorService());
+        val bestEffortClient = new TestClient();
+        val guaranteedClient = new TestClient();
+        cm.register(bestEffortClient);
+        cm.register(guaranteedClient);
+
+        // Advance the current generation, without exceeding the eviction threshold.
+        for (int i = 0; i < 2 * entryCount; i++) {
+            bestEffortClient.setCacheStatus(0, i);
+            guaranteedClient.setCacheStatus(0, i);
+            cm.applyCachePolicy();
+        }
+
+        // Generation of each entry. The Guaranteed entries are older than the other ones, and they are the only ones that
+        // need be evicted in order to get within the eviction threshold.
+        val bestEffortEntries = new HashMap<Integer, Integer>();
+        val guaranteedEntries = new HashMap<Integer, Integer>();
+        for (int i = 0; i < entryCount; i++) {
+            guaranteedEntries.put(i, i);
+            bestEffortEntries.put(i, entryCount + i);
+        }
+
+        Runnable updateState = () -> {
+            long size = (long) (bestEffortEntries.size() + guaranteedEntries.size()) * entrySize;
+            cache.setStoredBytes(size);
+            cache.setUsedBytes(size);
+            bestEffortClient.setCacheStatus(CacheManager.CacheStatus.fromGenerations(bestEffortEntries.values().iterator()));
+            guaranteedClient.setCacheStatus(CacheManager.CacheStatus.fromGenerations(guaranteedEntries.values().iterator()));
+        };
+        updateState.run();
+        bestEffortClient.setUpdateGenerationsImpl((current, oldest, oldestProtected) -> {
+            boolean removed = bestEffortEntries.entrySet().removeIf(e -> e.getValue() < oldest);
+            updateState.run();
+            return removed;
+        });
+        guaranteedClient.setUpdateGenerationsImpl((current, oldest, oldestProtected) -> false);
+        guaranteedClient.setEvictGuaranteedImpl(oldest -> {
+            Assert.assertTrue("Not expecting Guaranteed entries to be evicted before all other entries.", bestEffortEntries.isEmpty());
+            boolean removed = guaranteedEntries.entrySet().removeIf(e -> e.getValue() < oldest);
+            updateState.run();
+            return removed;
+        });
+        bestEffortClient.setEvictGuaranteedImpl(oldest -> false);
+
+        cm.applyCachePolicy();
+        Assert.assertTrue("Expected all other entries to be evicted.", bestEffortEntries.isEmpty());
+        AssertExtensions.assertLessThanOrEqual("Expected cache to be within eviction threshold.",
+                policy.getEvictionThreshold(), cache.getUsedBytes());
+        Assert.assertFalse("Expected some Guaranteed entries to be retained.", guaranteedEntries.isEmpty());
+        for (int i = entryCount - guaranteedEntries.size(); i < entryCount; i++) {
+            Assert.assertTrue("Expected Guaranteed entries to be evicted oldest first.", guaranteedEntries.containsKey(i));
+        }
+    }
+
     /**
      * Tests the ability to auto-refresh the Cache Manager's Client status upon a successful eviction. The Cache Manager
      * progressively increases the Old Generation until it is able to get the Cache Size below the Policy's Eviction Threshold
@@ -538,13 +677,23 @@ public class CacheManagerTests extends ThreadPooledTestSuite {
 
     private static class TestClient implements CacheManager.Client {
         private CacheManager.CacheStatus currentStatus;
-        private BiFunction<Integer, Integer, Boolean> updateGenerationsImpl = (current, oldest) -> false;
+        private TriFunction<Integer, Integer, Integer, Boolean> updateGenerationsImpl = (current, oldest, oldestProtected) -> false;
+        @Setter
+        private Function<Integer, Boolean> evictGuaranteedImpl = oldest -> false;
 
         void setCacheStatus(int oldestGeneration, int newestGeneration) {
-            this.currentStatus = new CacheManager.CacheStatus(oldestGeneration, newestGeneration);
+            setCacheStatus(new CacheManager.CacheStatus(oldestGeneration, newestGeneration));
+        }
+
+        void setCacheStatus(CacheManager.CacheStatus status) {
+            this.currentStatus = status;
         }
 
         void setUpdateGenerationsImpl(BiFunction<Integer, Integer, Boolean> function) {
+            this.updateGenerationsImpl = (current, oldest, oldestProtected) -> function.apply(current, oldest);
+        }
+
+        void setUpdateGenerationsImpl(TriFunction<Integer, Integer, Integer, Boolean> function) {
             this.updateGenerationsImpl = function;
         }
 
@@ -555,8 +704,23 @@ public class CacheManagerTests extends ThreadPooledTestSuite {
 
         @Override
         public boolean updateGenerations(int currentGeneration, int oldestGeneration) {
-            return this.updateGenerationsImpl.apply(currentGeneration, oldestGeneration);
+            return updateGenerations(currentGeneration, oldestGeneration, oldestGeneration);
+        }
+
+        @Override
+        public boolean updateGenerations(int currentGeneration, int oldestGeneration, int oldestProtectedGeneration) {
+            return this.updateGenerationsImpl.apply(currentGeneration, oldestGeneration, oldestProtectedGeneration);
         }
+
+        @Override
+        public boolean evictGuaranteed(int oldestGeneration) {
+            return this.evictGuaranteedImpl.apply(oldestGeneration);
+        }
+    }
+
+    @FunctionalInterface
+    private interface TriFunction<T1, T2, T3, R> {
+        R apply(T1 arg1, T2 arg2, T3 arg3);
     }
 
     private static class EmptyCacheClient extends TestClient {
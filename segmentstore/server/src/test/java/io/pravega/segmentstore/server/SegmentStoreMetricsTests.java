@@ -60,6 +60,20 @@ public class SegmentStoreMetricsTests {
         assertEquals(500, (long) MetricRegistryUtils.getGauge(MetricsNames.CONTAINER_RECOVERY_TIME, containerTag(containerId)).value());
     }
 
+    /**
+     * Verify that the Segment Store recovery stage times are properly reported.
+     */
+    @Test
+    public void testContainerRecoveryStageMetrics() {
+        int containerId = new Random().nextInt(Integer.MAX_VALUE);
+        assertNull(MetricRegistryUtils.getGauge(MetricsNames.CONTAINER_RECOVERY_READ_TIME, containerTag(containerId)));
+        SegmentStoreMetrics.recoveryCompleted(1000, 400, 700, 300, containerId);
+        assertEquals(1000, (long) MetricRegistryUtils.getGauge(MetricsNames.CONTAINER_RECOVERY_TIME, containerTag(containerId)).value());
+        assertEquals(400, (long) MetricRegistryUtils.getGauge(MetricsNames.CONTAINER_RECOVERY_READ_TIME, containerTag(containerId)).value());
+        assertEquals(700, (long) MetricRegistryUtils.getGauge(MetricsNames.CONTAINER_RECOVERY_DESERIALIZE_TIME, containerTag(containerId)).value());
+        assertEquals(300, (long) MetricRegistryUtils.getGauge(MetricsNames.CONTAINER_RECOVERY_APPLY_TIME, containerTag(containerId)).value());
+    }
+
     @Test
     public void testContainerMetrics() {
         int containerId = new Random().nextInt(Integer.MAX_VALUE);
@@ -35,6 +35,7 @@ import io.pravega.segmentstore.server.logs.operations.CheckpointOperationBase;
 import io.pravega.segmentstore.server.logs.operations.DeleteSegmentOperation;
 import io.pravega.segmentstore.server.logs.operations.MergeSegmentOperation;
 import io.pravega.segmentstore.server.logs.operations.MetadataCheckpointOperation;
+import io.pravega.segmentstore.server.logs.operations.MetadataDeltaCheckpointOperation;
 import io.pravega.segmentstore.server.logs.operations.Operation;
 import io.pravega.segmentstore.server.logs.operations.StorageMetadataCheckpointOperation;
 import io.pravega.segmentstore.server.logs.operations.StorageOperation;
@@ -1158,6 +1159,146 @@ public class ContainerMetadataUpdateTransactionTests {
         assertMetadataSame("Unexpected metadata after applying storage checkpoint.", metadata1, metadata2);
     }
 
+    /**
+     * Tests the processMetadataOperation method with MetadataDeltaCheckpoint operations.
+     */
+    @Test
+    public void testProcessMetadataDeltaCheckpoint() throws Exception {
+        // When encountering MetadataDeltaCheckpoint in non-Recovery Mode, the ContainerMetadataUpdateTransaction serializes
+        // only those Segments that have changed since the previous checkpoint.
+        // When encountering MetadataDeltaCheckpoint in Recovery Mode, the ContainerMetadataUpdateTransaction verifies it is
+        // chained to the previous checkpoints and applies the Storage State of the Segments in it.
+        final long newSegmentId = 897658;
+        AtomicLong seqNo = new AtomicLong();
+        val metadata1 = createMetadata();
+        val txn1 = createUpdateTransaction(metadata1);
+
+        // We cannot have a delta without a full checkpoint.
+        AssertExtensions.assertThrows(
+                "A delta checkpoint was accepted without a prior full checkpoint.",
+                () -> txn1.preProcessOperation(new MetadataDeltaCheckpointOperation()),
+                ex -> ex instanceof MetadataUpdateException);
+
+        val fullOp = createMetadataCheckpoint();
+        val fullCheckpoint = processCheckpointOperation(fullOp, txn1, seqNo::incrementAndGet);
+
+        // Update the storage state for two segments, but only make changes via Log Operations to one of them.
+        metadata1.getStreamSegmentMetadata(SEGMENT_ID).setStorageLength(SEGMENT_LENGTH);
+        metadata1.getStreamSegmentMetadata(SEALED_SOURCE_ID).markSealedInStorage();
+        val sealOp = createSeal();
+        processOperation(sealOp, txn1, seqNo::incrementAndGet);
+        val mapOp = createMap("NewSegment");
+        mapOp.setStreamSegmentId(newSegmentId);
+        processOperation(mapOp, txn1, seqNo::incrementAndGet);
+
+        val deltaOp1 = new MetadataDeltaCheckpointOperation();
+        val deltaCheckpoint1 = processCheckpointOperation(deltaOp1, txn1, seqNo::incrementAndGet);
+        Assert.assertNull("Expected delta checkpoint operation contents to be null after processing.", deltaOp1.getContents());
+        val deltaOp2 = new MetadataDeltaCheckpointOperation();
+        val deltaCheckpoint2 = processCheckpointOperation(deltaOp2, txn1, seqNo::incrementAndGet);
+        AssertExtensions.assertLessThan("Expected a delta checkpoint with no changes to be smaller than one with changes.",
+                deltaCheckpoint1.getLength(), deltaCheckpoint2.getLength());
+        txn1.commit(metadata1);
+        Assert.assertTrue("Expected a full checkpoint to be a valid truncation point.", metadata1.isValidTruncationPoint(fullOp.getSequenceNumber()));
+        Assert.assertFalse("Not expecting a delta checkpoint to be a valid truncation point.", metadata1.isValidTruncationPoint(deltaOp1.getSequenceNumber()));
+
+        // Recover the full checkpoint, the operations after it and both delta checkpoints.
+        val metadata2 = createBlankMetadata();
+        metadata2.enterRecoveryMode();
+        val txn2 = createUpdateTransaction(metadata2);
+        processOperation(createCheckpoint(MetadataCheckpointOperation::new, fullCheckpoint, fullOp.getSequenceNumber()), txn2, () -> 1L);
+        processOperation(sealOp, txn2, seqNo::incrementAndGet);
+        processOperation(mapOp, txn2, seqNo::incrementAndGet);
+        processOperation(createCheckpoint(MetadataDeltaCheckpointOperation::new, deltaCheckpoint1, deltaOp1.getSequenceNumber()), txn2, () -> 1L);
+        processOperation(createCheckpoint(MetadataDeltaCheckpointOperation::new, deltaCheckpoint2, deltaOp2.getSequenceNumber()), txn2, () -> 1L);
+        txn2.commit(metadata2);
+        metadata2.exitRecoveryMode();
+
+        // The Storage State of the changed Segment should have been applied; the other one is not part of any delta.
+        Assert.assertEquals("Expected the Storage Length from the delta checkpoint to be applied.",
+                SEGMENT_LENGTH, metadata2.getStreamSegmentMetadata(SEGMENT_ID).getStorageLength());
+        Assert.assertTrue(metadata2.getStreamSegmentMetadata(SEGMENT_ID).isSealed());
+        Assert.assertFalse("Not expecting the Storage State of an unchanged segment to be applied.",
+                metadata2.getStreamSegmentMetadata(SEALED_SOURCE_ID).isSealedInStorage());
+        Assert.assertNotNull("Expected the new segment to be recovered.", metadata2.getStreamSegmentMetadata(newSegmentId));
+
+        // A missing delta checkpoint must be detected.
+        val metadata3 = createBlankMetadata();
+        metadata3.enterRecoveryMode();
+        val txn3 = createUpdateTransaction(metadata3);
+        processOperation(createCheckpoint(MetadataCheckpointOperation::new, fullCheckpoint, fullOp.getSequenceNumber()), txn3, () -> 1L);
+        processOperation(sealOp, txn3, seqNo::incrementAndGet);
+        processOperation(mapOp, txn3, seqNo::incrementAndGet);
+        AssertExtensions.assertThrows(
+                "A delta checkpoint was accepted even though the previous one was missing.",
+                () -> txn3.preProcessOperation(createCheckpoint(MetadataDeltaCheckpointOperation::new, deltaCheckpoint2, deltaOp2.getSequenceNumber())),
+                ex -> ex instanceof MetadataUpdateException);
+
+        // As must a delta checkpoint without a full checkpoint.
+        val metadata4 = createBlankMetadata();
+        metadata4.enterRecoveryMode();
+        val txn4 = createUpdateTransaction(metadata4);
+        AssertExtensions.assertThrows(
+                "A delta checkpoint was accepted without a prior full checkpoint during recovery.",
+                () -> txn4.preProcessOperation(createCheckpoint(MetadataDeltaCheckpointOperation::new, deltaCheckpoint1, deltaOp1.getSequenceNumber())),
+                ex -> ex instanceof MetadataUpdateException);
+    }
+
+    /**
+     * Tests that, in Recovery Mode, the Storage State is recovered from the latest MetadataCheckpoint and the
+     * MetadataDeltaCheckpoints chained to it (and not just from the MetadataCheckpoint the recovery started from).
+     */
+    @Test
+    public void testProcessLatestMetadataCheckpointWithDeltas() throws Exception {
+        AtomicLong seqNo = new AtomicLong();
+        val metadata1 = createMetadata();
+        val txn1 = createUpdateTransaction(metadata1);
+        val fullOp1 = createMetadataCheckpoint();
+        val fullCheckpoint1 = processCheckpointOperation(fullOp1, txn1, seqNo::incrementAndGet);
+
+        // Update the storage state after the first checkpoint. Neither of these is recorded via a Log Operation.
+        metadata1.getStreamSegmentMetadata(SEGMENT_ID).setStorageLength(SEGMENT_LENGTH);
+        metadata1.getStreamSegmentMetadata(SEALED_SOURCE_ID).markSealedInStorage();
+        val sealOp = createSeal();
+        processOperation(sealOp, txn1, seqNo::incrementAndGet);
+        val fullOp2 = createMetadataCheckpoint();
+        val fullCheckpoint2 = processCheckpointOperation(fullOp2, txn1, seqNo::incrementAndGet);
+        val deltaOp = new MetadataDeltaCheckpointOperation();
+        val deltaCheckpoint = processCheckpointOperation(deltaOp, txn1, seqNo::incrementAndGet);
+        txn1.commit(metadata1);
+
+        // Recover from the first full checkpoint. The second one provides the Storage State and the delta is chained to it.
+        val metadata2 = createBlankMetadata();
+        metadata2.enterRecoveryMode();
+        val txn2 = createUpdateTransaction(metadata2);
+        processOperation(createCheckpoint(MetadataCheckpointOperation::new, fullCheckpoint1, fullOp1.getSequenceNumber()), txn2, () -> 1L);
+        processOperation(sealOp, txn2, seqNo::incrementAndGet);
+        processOperation(createCheckpoint(MetadataCheckpointOperation::new, fullCheckpoint2, fullOp2.getSequenceNumber()), txn2, () -> 1L);
+        processOperation(createCheckpoint(MetadataDeltaCheckpointOperation::new, deltaCheckpoint, deltaOp.getSequenceNumber()), txn2, () -> 1L);
+        txn2.commit(metadata2);
+        metadata2.exitRecoveryMode();
+
+        Assert.assertEquals("Expected the Storage Length from the latest full checkpoint to be applied.",
+                SEGMENT_LENGTH, metadata2.getStreamSegmentMetadata(SEGMENT_ID).getStorageLength());
+        Assert.assertTrue("Expected the Storage State from the latest full checkpoint to be applied.",
+                metadata2.getStreamSegmentMetadata(SEALED_SOURCE_ID).isSealedInStorage());
+        Assert.assertTrue(metadata2.getStreamSegmentMetadata(SEGMENT_ID).isSealed());
+        Assert.assertTrue(metadata2.isValidTruncationPoint(fullOp1.getSequenceNumber()));
+        Assert.assertTrue(metadata2.isValidTruncationPoint(fullOp2.getSequenceNumber()));
+        Assert.assertFalse(metadata2.isValidTruncationPoint(deltaOp.getSequenceNumber()));
+
+        // The delta must not be accepted if the full checkpoint it is based on is missing.
+        val metadata3 = createBlankMetadata();
+        metadata3.enterRecoveryMode();
+        val txn3 = createUpdateTransaction(metadata3);
+        processOperation(createCheckpoint(MetadataCheckpointOperation::new, fullCheckpoint1, fullOp1.getSequenceNumber()), txn3, () -> 1L);
+        processOperation(sealOp, txn3, seqNo::incrementAndGet);
+        AssertExtensions.assertThrows(
+                "A delta checkpoint was accepted even though the full checkpoint it is based on was missing.",
+                () -> txn3.preProcessOperation(createCheckpoint(MetadataDeltaCheckpointOperation::new, deltaCheckpoint, deltaOp.getSequenceNumber())),
+                ex -> ex instanceof MetadataUpdateException);
+    }
+
     /**
      * Tests the processMetadataOperation method with MetadataCheckpoint operations, when such checkpoints are skipped over
      * because they are after other operations.
@@ -120,7 +120,7 @@ public class DataFrameBuilderTests extends ThreadPooledTestSuite {
             TestUtils.await(() -> commitFrames.size() >= order.size(), 20, TIMEOUT.toMillis());
 
             List<DataFrame.DataFrameEntryIterator> frames = dataLog.getAllEntries(readItem ->
-                    DataFrame.read(readItem.getPayload(), readItem.getLength(), readItem.getAddress()));
+                    DataFrame.read(readItem.getPayload(), readItem.getLength(), FRAME_SIZE, readItem.getAddress()));
             Assert.assertEquals("Unexpected number of frames generated.", commitFrames.size(), frames.size());
 
             // Check the correctness of the commit callback.
@@ -210,7 +210,7 @@ public class DataFrameBuilderTests extends ThreadPooledTestSuite {
         AssertExtensions.assertListEquals("Items read back do not match expected values.", expectedItems, readItems, TestLogItem::equals);
 
         // Read all entries in the Log and interpret them as DataFrames, then verify the records can be reconstructed.
-        val frames = dataLog.getAllEntries(ri -> DataFrame.read(ri.getPayload(), ri.getLength(), ri.getAddress()));
+        val frames = dataLog.getAllEntries(ri -> DataFrame.read(ri.getPayload(), ri.getLength(), FRAME_SIZE, ri.getAddress()));
 
         // Check the correctness of the commit callback.
         AssertExtensions.assertGreaterThan("Not enough Data Frames were generated.", 1, frames.size());
@@ -257,7 +257,50 @@ public class DataFrameBuilderTests extends ThreadPooledTestSuite {
             Assert.assertEquals("Exactly one Data Frame was expected so far.", 1, commitFrames.size());
 
             //Read all entries in the Log and interpret them as DataFrames, then verify the records can be reconstructed.
-            val frames = dataLog.getAllEntries(readItem -> DataFrame.read(readItem.getPayload(), readItem.getLength(), readItem.getAddress()));
+            val frames = dataLog.getAllEntries(readItem -> DataFrame.read(readItem.getPayload(), readItem.getLength(), FRAME_SIZE, readItem.getAddress()));
+            Assert.assertEquals("Unexpected number of frames generated.", commitFrames.size(), frames.size());
+            DataFrameTestHelpers.checkReadRecords(frames, records, r -> new ByteArraySegment(r.getFullSerialization()));
+        }
+    }
+
+    /**
+     * Tests the ability to write compressed DataFrames (mixed with uncompressed ones, for data that does not compress well).
+     */
+    @Test
+    public void testAppendWithCompression() throws Exception {
+        ArrayList<TestLogItem> records = DataFrameTestHelpers.generateLogItems(RECORD_COUNT / 2, LARGE_RECORD_MIN_SIZE, LARGE_RECORD_MAX_SIZE, 0);
+        for (int i = 0; i < RECORD_COUNT / 2; i++) {
+            // Compressible records.
+            records.add(new TestLogItem(records.size(), new byte[LARGE_RECORD_MIN_SIZE + i]));
+        }
+
+        try (TestDurableDataLog dataLog = TestDurableDataLog.create(CONTAINER_ID, FRAME_SIZE, executorService())) {
+            dataLog.initialize(TIMEOUT);
+
+            val order = new HashMap<DataFrameBuilder.CommitArgs, Integer>();
+            List<DataFrameBuilder.CommitArgs> commitFrames = Collections.synchronizedList(new ArrayList<>());
+            BiConsumer<Throwable, DataFrameBuilder.CommitArgs> errorCallback = (ex, a) ->
+                    Assert.fail(String.format("Unexpected error occurred upon commit. %s", ex));
+            val args = new DataFrameBuilder.Args(DataFrameTestHelpers.appendOrder(order), commitFrames::add, errorCallback, executorService());
+            args.setCompressionEnabled(true);
+            try (DataFrameBuilder<TestLogItem> b = new DataFrameBuilder<>(dataLog, SERIALIZER, args)) {
+                for (TestLogItem item : records) {
+                    b.append(item);
+                }
+
+                b.close();
+            }
+
+            TestUtils.await(() -> commitFrames.size() >= order.size(), 10, TIMEOUT.toMillis());
+            val compressedCount = commitFrames.stream().filter(ca -> ca.getWriteLength() < ca.getDataFrameLength()).count();
+            val uncompressedCount = commitFrames.stream().filter(ca -> ca.getWriteLength() == ca.getDataFrameLength()).count();
+            AssertExtensions.assertGreaterThan("Expected some DataFrames to be compressed.", 0, compressedCount);
+            AssertExtensions.assertGreaterThan("Expected some DataFrames to not be compressed.", 0, uncompressedCount);
+            Assert.assertTrue("Expected all DataFrames to have compression stats.",
+                    commitFrames.stream().allMatch(ca -> ca.getCompressionElapsed() != null && ca.getWriteElapsed() != null));
+
+            //Read all entries in the Log and interpret them as DataFrames, then verify the records can be reconstructed.
+            val frames = dataLog.getAllEntries(readItem -> DataFrame.read(readItem.getPayload(), readItem.getLength(), FRAME_SIZE, readItem.getAddress()));
             Assert.assertEquals("Unexpected number of frames generated.", commitFrames.size(), frames.size());
             DataFrameTestHelpers.checkReadRecords(frames, records, r -> new ByteArraySegment(r.getFullSerialization()));
         }
@@ -311,7 +354,7 @@ public class DataFrameBuilderTests extends ThreadPooledTestSuite {
             }
 
             //Read all entries in the Log and interpret them as DataFrames, then verify the records can be reconstructed.
-            val frames = dataLog.getAllEntries(readItem -> DataFrame.read(readItem.getPayload(), readItem.getLength(), readItem.getAddress()));
+            val frames = dataLog.getAllEntries(readItem -> DataFrame.read(readItem.getPayload(), readItem.getLength(), FRAME_SIZE, readItem.getAddress()));
             DataFrameTestHelpers.checkReadRecords(frames, records, r -> new ByteArraySegment(r.getFullSerialization()));
         }
     }
@@ -10,6 +10,7 @@
 package io.pravega.segmentstore.server.logs;
 
 import io.pravega.common.util.ByteArraySegment;
+import io.pravega.segmentstore.server.DataCorruptionException;
 import io.pravega.test.common.AssertExtensions;
 import io.pravega.test.common.IntentionalException;
 import java.io.ByteArrayOutputStream;
@@ -299,9 +300,9 @@ public class DataFrameOutputStreamTests {
         }
     }
 
-    @SneakyThrows(IOException.class)
+    @SneakyThrows({IOException.class, DataCorruptionException.class})
     private DataFrame.DataFrameEntryIterator readFrame(DataFrame dataFrame) {
-        return DataFrame.read(dataFrame.getData().getReader(), dataFrame.getLength(), dataFrame.getAddress());
+        return DataFrame.read(dataFrame.getData().getReader(), dataFrame.getLength(), dataFrame.getLength(), dataFrame.getAddress());
     }
 
 }
@@ -9,9 +9,14 @@
  */
 package io.pravega.segmentstore.server.logs;
 
+import io.pravega.common.io.SerializationException;
+import io.pravega.common.util.BitConverter;
 import io.pravega.common.util.ByteArraySegment;
+import io.pravega.segmentstore.server.DataCorruptionException;
 import io.pravega.segmentstore.storage.LogAddress;
 import io.pravega.test.common.AssertExtensions;
+import java.io.ByteArrayInputStream;
+import java.util.Arrays;
 import java.util.List;
 import lombok.val;
 import org.junit.Assert;
@@ -49,10 +54,107 @@ public class DataFrameTests {
         Assert.assertEquals("Unexpected length from getData().", writeFrame.getLength(), frameData.getLength());
 
         // Read them back, by deserializing the frame.
-        val contents = DataFrame.read(frameData.getReader(), frameData.getLength(), writeFrame.getAddress());
+        val contents = DataFrame.read(frameData.getReader(), frameData.getLength(), maxFrameSize, writeFrame.getAddress());
         DataFrameTestHelpers.checkReadRecords(contents, allRecords, b -> b);
     }
 
+    /**
+     * Tests the ability to compress a DataFrame using getCompressedData() and read its records back.
+     */
+    @Test
+    public void testCompressedSerialization() throws Exception {
+        int maxFrameSize = 2 * 1024 * 1024;
+        int maxRecordCount = 4500;
+        List<ByteArraySegment> allRecords = DataFrameTestHelpers.generateRecords(maxRecordCount, 0, 1024, r -> {
+            // Make the records compressible.
+            Arrays.fill(r, (byte) (r.length % Byte.MAX_VALUE));
+            return new ByteArraySegment(r);
+        });
+
+        DataFrame writeFrame = DataFrame.ofSize(maxFrameSize);
+        appendRecords(allRecords, writeFrame);
+        AssertExtensions.assertThrows(
+                "getCompressedData() worked on a non-sealed DataFrame.",
+                writeFrame::getCompressedData,
+                ex -> ex instanceof IllegalStateException);
+        writeFrame.seal();
+
+        val compressedData = writeFrame.getCompressedData();
+        Assert.assertNotNull("Expected compressible DataFrame to be compressed.", compressedData);
+        AssertExtensions.assertLessThan("Unexpected compressed length.", writeFrame.getLength() / 2, compressedData.getLength());
+
+        val contents = DataFrame.read(compressedData.getReader(), compressedData.getLength(), maxFrameSize, writeFrame.getAddress());
+        DataFrameTestHelpers.checkReadRecords(contents, allRecords, b -> b);
+    }
+
+    /**
+     * Tests that getCompressedData() does not compress DataFrames that do not compress well and that a sequence of
+     * compressed and uncompressed DataFrames can be read back.
+     */
+    @Test
+    public void testMixedCompression() throws Exception {
+        int maxFrameSize = 64 * 1024;
+        List<ByteArraySegment> randomRecords = DataFrameTestHelpers.generateRecords(100, 0, 1024, ByteArraySegment::new);
+        DataFrame randomFrame = DataFrame.ofSize(maxFrameSize);
+        appendRecords(randomRecords, randomFrame);
+        randomFrame.seal();
+        Assert.assertNull("Not expecting random data to be compressed.", randomFrame.getCompressedData());
+
+        List<ByteArraySegment> compressibleRecords = DataFrameTestHelpers.generateRecords(100, 0, 1024, r -> new ByteArraySegment(new byte[r.length]));
+        DataFrame compressibleFrame = DataFrame.ofSize(maxFrameSize);
+        appendRecords(compressibleRecords, compressibleFrame);
+        compressibleFrame.seal();
+
+        val randomData = randomFrame.getData();
+        val compressedData = compressibleFrame.getCompressedData();
+        Assert.assertNotNull("Expected compressible DataFrame to be compressed.", compressedData);
+        DataFrameTestHelpers.checkReadRecords(DataFrame.read(randomData.getReader(), randomData.getLength(), maxFrameSize, randomFrame.getAddress()),
+                randomRecords, b -> b);
+        DataFrameTestHelpers.checkReadRecords(DataFrame.read(compressedData.getReader(), compressedData.getLength(), maxFrameSize, compressibleFrame.getAddress()),
+                compressibleRecords, b -> b);
+
+        // Corrupt the compressed contents and verify it cannot be read.
+        val corrupted = compressedData.getCopy();
+        corrupted[corrupted.length - 1] ^= 0xFF;
+        AssertExtensions.assertThrows(
+                "Corrupted compressed DataFrame was read.",
+                () -> DataFrame.read(new ByteArrayInputStream(corrupted), corrupted.length, maxFrameSize, compressibleFrame.getAddress()),
+                ex -> ex instanceof SerializationException);
+    }
+
+    /**
+     * Tests that a compressed DataFrame whose decompressed length exceeds the maximum Frame length is rejected before
+     * any attempt is made to decompress it.
+     */
+    @Test
+    public void testOversizedDecompressedLength() throws Exception {
+        int maxFrameSize = 64 * 1024;
+        List<ByteArraySegment> records = DataFrameTestHelpers.generateRecords(100, 0, 1024, r -> new ByteArraySegment(new byte[r.length]));
+        DataFrame frame = DataFrame.ofSize(maxFrameSize);
+        appendRecords(records, frame);
+        frame.seal();
+        val compressedData = frame.getCompressedData();
+        Assert.assertNotNull("Expected compressible DataFrame to be compressed.", compressedData);
+
+        // Valid DataFrame, but we are told that Frames may be smaller than its contents.
+        AssertExtensions.assertThrows(
+                "DataFrame larger than the max Frame length was read.",
+                () -> DataFrame.read(compressedData.getReader(), compressedData.getLength(), frame.getLength() / 2, frame.getAddress()),
+                ex -> ex instanceof DataCorruptionException);
+
+        // Corrupted length field. This should be rejected without trying to allocate a buffer for it.
+        val corrupted = compressedData.getCopy();
+        BitConverter.writeInt(corrupted, DataFrame.DECOMPRESSED_LENGTH_OFFSET, Integer.MAX_VALUE);
+        AssertExtensions.assertThrows(
+                "DataFrame with an oversized decompressed length was read.",
+                () -> DataFrame.read(new ByteArrayInputStream(corrupted), corrupted.length, maxFrameSize, frame.getAddress()),
+                ex -> ex instanceof DataCorruptionException);
+
+        // Sanity check: the uncorrupted DataFrame can be read with the correct max Frame length.
+        DataFrameTestHelpers.checkReadRecords(DataFrame.read(compressedData.getReader(), compressedData.getLength(), maxFrameSize, frame.getAddress()),
+                records, b -> b);
+    }
+
     /**
      * Tests the ability to Start/End/Discard an entry.
      */
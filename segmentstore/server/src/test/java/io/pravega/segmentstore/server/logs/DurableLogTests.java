@@ -36,6 +36,7 @@ import io.pravega.segmentstore.server.containers.StreamSegmentContainerMetadata;
 import io.pravega.segmentstore.server.logs.operations.CachedStreamSegmentAppendOperation;
 import io.pravega.segmentstore.server.logs.operations.CheckpointOperationBase;
 import io.pravega.segmentstore.server.logs.operations.MetadataCheckpointOperation;
+import io.pravega.segmentstore.server.logs.operations.MetadataDeltaCheckpointOperation;
 import io.pravega.segmentstore.server.logs.operations.Operation;
 import io.pravega.segmentstore.server.logs.operations.OperationComparer;
 import io.pravega.segmentstore.server.logs.operations.OperationPriority;
@@ -583,7 +584,19 @@ public class DurableLogTests extends OperationLogTestBase {
     }
 
     /**
-     * Tests the ability of the DurableLog to add MetadataCheckpointOperations.
+     * Tests the ability of the DurableLog to add MetadataDeltaCheckpointOperations in between MetadataCheckpointOperations.
+     */
+    @Test
+    public void testMetadataDeltaCheckpoint() throws Exception {
+        int checkpointEvery = 30;
+        testMetadataCheckpoint(
+                () -> ContainerSetup.createDurableLogConfig(checkpointEvery, null, 3),
+                checkpointEvery);
+    }
+
+    /**
+     * Tests the ability of the DurableLog to add MetadataCheckpointOperations (and MetadataDeltaCheckpointOperations, if
+     * so configured).
      *
      * @param createDurableLogConfig     A Supplier that creates a DurableLogConfig object.
      * @param waitForProcessingFrequency The frequency at which to stop and wait for operations to be processed by the
@@ -618,25 +631,46 @@ public class DurableLogTests extends OperationLogTestBase {
         OperationWithCompletion.allOf(completionFutures).get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
         List<Operation> readOperations = readUpToSequenceNumber(durableLog, setup.metadata.getOperationSequenceNumber());
 
-        // Count the number of injected MetadataCheckpointOperations.
+        // Count the number of injected MetadataCheckpointOperations and MetadataDeltaCheckpointOperations.
         int injectedOperationCount = 0;
+        int injectedDeltaCount = 0;
         for (Operation o : readOperations) {
             if (o instanceof MetadataCheckpointOperation) {
                 injectedOperationCount++;
+            } else if (o instanceof MetadataDeltaCheckpointOperation) {
+                injectedDeltaCount++;
             }
         }
 
         // Calculate how many we were expecting.
         int expectedCheckpoints = readOperations.size() - operations.size();
 
-        if (expectedCheckpoints != injectedOperationCount) {
-            Assert.assertEquals("Unexpected operations were injected. Expected only MetadataCheckpointOperations.",
-                    expectedCheckpoints, injectedOperationCount);
+        if (expectedCheckpoints != injectedOperationCount + injectedDeltaCount) {
+            Assert.assertEquals("Unexpected operations were injected. Expected only MetadataCheckpointOperations and MetadataDeltaCheckpointOperations.",
+                    expectedCheckpoints, injectedOperationCount + injectedDeltaCount);
         }
 
         // We expect at least 2 injected operations (one is the very first one (checked above), and then at least
         // one more based on written data.
-        AssertExtensions.assertGreaterThan("Insufficient number of injected operations.", 1, injectedOperationCount);
+        AssertExtensions.assertGreaterThan("Insufficient number of injected operations.", 1, injectedOperationCount + injectedDeltaCount);
+        if (durableLogConfig.getCheckpointFullInterval() > 1) {
+            AssertExtensions.assertGreaterThan("Expected some MetadataDeltaCheckpointOperations to be injected.", 0, injectedDeltaCount);
+        } else {
+            Assert.assertEquals("Not expecting any MetadataDeltaCheckpointOperations to be injected.", 0, injectedDeltaCount);
+        }
+
+        // Only full checkpoints may be truncated at.
+        for (Operation o : readOperations) {
+            if (o instanceof MetadataDeltaCheckpointOperation) {
+                AssertExtensions.assertThrows(
+                        "Truncation was allowed at a MetadataDeltaCheckpointOperation.",
+                        () -> durableLog.truncate(o.getSequenceNumber(), TIMEOUT),
+                        ex -> ex instanceof IllegalArgumentException);
+            } else if (o instanceof MetadataCheckpointOperation) {
+                Assert.assertTrue("Expected a MetadataCheckpointOperation to be a valid truncation point.",
+                        setup.metadata.isValidTruncationPoint(o.getSequenceNumber()));
+            }
+        }
 
         // Stop the processor.
         durableLog.stopAsync().awaitTerminated();
@@ -651,6 +685,21 @@ public class DurableLogTests extends OperationLogTestBase {
      */
     @Test
     public void testRecoveryWithNoFailures() throws Exception {
+        testRecoveryWithNoFailures(ContainerSetup.defaultDurableLogConfig());
+    }
+
+    /**
+     * Tests the DurableLog recovery process in a scenario when there are MetadataDeltaCheckpointOperations in between
+     * MetadataCheckpointOperations.
+     */
+    @Test
+    public void testRecoveryWithDeltaCheckpoints() throws Exception {
+        val originalOperations = testRecoveryWithNoFailures(ContainerSetup.createDurableLogConfig(30, null, 3));
+        AssertExtensions.assertGreaterThan("Expected some MetadataDeltaCheckpointOperations to be recovered.", 0,
+                originalOperations.stream().filter(o -> o instanceof MetadataDeltaCheckpointOperation).count());
+    }
+
+    private List<Operation> testRecoveryWithNoFailures(DurableLogConfig durableLogConfig) throws Exception {
         int streamSegmentCount = 50;
         int transactionsPerStreamSegment = 2;
         int appendsPerStreamSegment = 20;
@@ -677,7 +726,7 @@ public class DurableLogTests extends OperationLogTestBase {
         CacheManager cacheManager = new CacheManager(CachePolicy.INFINITE, cacheStorage, executorService());
         try (
                 ReadIndex readIndex = new ContainerReadIndex(DEFAULT_READ_INDEX_CONFIG, metadata, storage, cacheManager, executorService());
-                DurableLog durableLog = new DurableLog(ContainerSetup.defaultDurableLogConfig(), metadata, dataLogFactory, readIndex, executorService())) {
+                DurableLog durableLog = new DurableLog(durableLogConfig, metadata, dataLogFactory, readIndex, executorService())) {
             durableLog.startAsync().awaitRunning();
 
             // Generate some test data (we need to do this after we started the DurableLog because in the process of
@@ -701,7 +750,7 @@ public class DurableLogTests extends OperationLogTestBase {
         metadata = new MetadataBuilder(CONTAINER_ID).build();
         try (
                 ReadIndex readIndex = new ContainerReadIndex(DEFAULT_READ_INDEX_CONFIG, metadata, storage, cacheManager, executorService());
-                DurableLog durableLog = new DurableLog(ContainerSetup.defaultDurableLogConfig(), metadata, dataLogFactory, readIndex, executorService())) {
+                DurableLog durableLog = new DurableLog(durableLogConfig, metadata, dataLogFactory, readIndex, executorService())) {
             durableLog.startAsync().awaitRunning();
 
             List<Operation> recoveredOperations = readUpToSequenceNumber(durableLog, metadata.getOperationSequenceNumber());
@@ -712,6 +761,8 @@ public class DurableLogTests extends OperationLogTestBase {
             // Stop the processor.
             durableLog.stopAsync().awaitTerminated();
         }
+
+        return originalOperations;
     }
 
     /**
@@ -1582,6 +1633,10 @@ public class DurableLogTests extends OperationLogTestBase {
         }
 
         static DurableLogConfig createDurableLogConfig(Integer checkpointMinCommitCount, Long checkpointMinTotalCommitLength) {
+            return createDurableLogConfig(checkpointMinCommitCount, checkpointMinTotalCommitLength, DurableLogConfig.CHECKPOINT_FULL_INTERVAL.getDefaultValue());
+        }
+
+        static DurableLogConfig createDurableLogConfig(Integer checkpointMinCommitCount, Long checkpointMinTotalCommitLength, int checkpointFullInterval) {
             if (checkpointMinCommitCount == null) {
                 checkpointMinCommitCount = Integer.MAX_VALUE;
             }
@@ -1596,6 +1651,7 @@ public class DurableLogTests extends OperationLogTestBase {
                     .with(DurableLogConfig.CHECKPOINT_COMMIT_COUNT, checkpointMinCommitCount)
                     .with(DurableLogConfig.CHECKPOINT_TOTAL_COMMIT_LENGTH, checkpointMinTotalCommitLength)
                     .with(DurableLogConfig.START_RETRY_DELAY_MILLIS, START_RETRY_DELAY_MILLIS)
+                    .with(DurableLogConfig.CHECKPOINT_FULL_INTERVAL, checkpointFullInterval)
                     .build();
         }
     }
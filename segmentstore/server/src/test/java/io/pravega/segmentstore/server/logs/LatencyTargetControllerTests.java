@@ -0,0 +1,201 @@
+/**
+ * Copyright (c) Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.server.logs;
+
+import io.pravega.segmentstore.server.SegmentStoreMetrics;
+import io.pravega.segmentstore.storage.QueueStats;
+import io.pravega.test.common.AssertExtensions;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.Cleanup;
+import lombok.val;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests for the LatencyTargetController class.
+ */
+public class LatencyTargetControllerTests {
+    private static final int CONTAINER_ID = 1;
+    private static final int MAX_FRAME_SIZE = 1024 * 1024;
+    private static final Duration LATENCY_TARGET = Duration.ofMillis(10);
+    private static final Duration SLOW = LATENCY_TARGET.multipliedBy(2);
+    private static final Duration FAST = Duration.ofMillis(1);
+
+    /**
+     * Tests the initial state and argument validation.
+     */
+    @Test
+    public void testInitialState() {
+        @Cleanup
+        val metrics = new SegmentStoreMetrics.OperationProcessor(CONTAINER_ID);
+        val c = new LatencyTargetController(CONTAINER_ID, LATENCY_TARGET, MAX_FRAME_SIZE, () -> QueueStats.DEFAULT, metrics);
+        Assert.assertEquals(LATENCY_TARGET, c.getLatencyTarget());
+        Assert.assertEquals(MAX_FRAME_SIZE, c.getFrameSize());
+        Assert.assertEquals(LatencyTargetController.MAX_FRAMES_IN_FLIGHT, c.getMaxFramesInFlight());
+        Assert.assertEquals(0, c.getFramesInFlight());
+        Assert.assertFalse(c.isInFlightLimitReached());
+
+        AssertExtensions.assertThrows(
+                "Zero latency target was accepted.",
+                () -> new LatencyTargetController(CONTAINER_ID, Duration.ZERO, MAX_FRAME_SIZE, () -> QueueStats.DEFAULT, metrics),
+                ex -> ex instanceof IllegalArgumentException);
+        AssertExtensions.assertThrows(
+                "Invalid max frame size was accepted.",
+                () -> new LatencyTargetController(CONTAINER_ID, LATENCY_TARGET, DataFrame.MIN_ENTRY_LENGTH_NEEDED, () -> QueueStats.DEFAULT, metrics),
+                ex -> ex instanceof IllegalArgumentException);
+    }
+
+    /**
+     * Tests that the maximum number of in-flight frames is reduced if latencies exceed the target while frames are
+     * queuing up in the DurableDataLog.
+     */
+    @Test
+    public void testReduceFramesInFlight() {
+        @Cleanup
+        val metrics = new SegmentStoreMetrics.OperationProcessor(CONTAINER_ID);
+        val queueStats = new AtomicReference<QueueStats>(new QueueStats(10, 10 * MAX_FRAME_SIZE, MAX_FRAME_SIZE, 0));
+        val c = new LatencyTargetController(CONTAINER_ID, LATENCY_TARGET, MAX_FRAME_SIZE, queueStats::get, metrics);
+
+        // Not enough samples to make a decision.
+        completeFrames(c, LatencyTargetController.ADJUSTMENT_INTERVAL - 1, SLOW);
+        Assert.assertEquals(LatencyTargetController.MAX_FRAMES_IN_FLIGHT, c.getMaxFramesInFlight());
+
+        int expectedMaxFramesInFlight = LatencyTargetController.MAX_FRAMES_IN_FLIGHT;
+        completeFrames(c, 1, SLOW);
+        while (expectedMaxFramesInFlight > 1) {
+            expectedMaxFramesInFlight /= 2;
+            Assert.assertEquals("Unexpected max frames in flight after slow writes.", expectedMaxFramesInFlight, c.getMaxFramesInFlight());
+            Assert.assertEquals("Not expecting frame size to change while frames are queued up.", MAX_FRAME_SIZE, c.getFrameSize());
+            completeFrames(c, LatencyTargetController.ADJUSTMENT_INTERVAL, SLOW);
+        }
+
+        // We are at the minimum concurrency. Any further slow writes should reduce the frame size instead.
+        Assert.assertEquals(1, c.getMaxFramesInFlight());
+        Assert.assertEquals(MAX_FRAME_SIZE / 2, c.getFrameSize());
+    }
+
+    /**
+     * Tests that the frame size is reduced if latencies exceed the target while frames are not queuing up in the
+     * DurableDataLog, and that it never goes below the minimum.
+     */
+    @Test
+    public void testReduceFrameSize() {
+        @Cleanup
+        val metrics = new SegmentStoreMetrics.OperationProcessor(CONTAINER_ID);
+        val c = new LatencyTargetController(CONTAINER_ID, LATENCY_TARGET, MAX_FRAME_SIZE, () -> QueueStats.DEFAULT, metrics);
+        int expectedFrameSize = MAX_FRAME_SIZE;
+        while (expectedFrameSize > LatencyTargetController.MIN_FRAME_SIZE) {
+            completeFrames(c, LatencyTargetController.ADJUSTMENT_INTERVAL, SLOW);
+            expectedFrameSize = Math.max(LatencyTargetController.MIN_FRAME_SIZE, expectedFrameSize / 2);
+            Assert.assertEquals("Unexpected frame size after slow writes.", expectedFrameSize, c.getFrameSize());
+            Assert.assertEquals("Not expecting max frames in flight to change if nothing is queued up.",
+                    LatencyTargetController.MAX_FRAMES_IN_FLIGHT, c.getMaxFramesInFlight());
+        }
+
+        completeFrames(c, LatencyTargetController.ADJUSTMENT_INTERVAL, SLOW);
+        Assert.assertEquals("Expected frame size to be capped at the minimum.", LatencyTargetController.MIN_FRAME_SIZE, c.getFrameSize());
+    }
+
+    /**
+     * Tests that the frame size and the maximum number of in-flight frames are increased if latencies are well below the
+     * target, but that they do not change if latencies are close to the target.
+     */
+    @Test
+    public void testIncrease() {
+        @Cleanup
+        val metrics = new SegmentStoreMetrics.OperationProcessor(CONTAINER_ID);
+        val queueStats = new AtomicReference<QueueStats>(new QueueStats(10, 10 * MAX_FRAME_SIZE, MAX_FRAME_SIZE, 0));
+        val c = new LatencyTargetController(CONTAINER_ID, LATENCY_TARGET, MAX_FRAME_SIZE, queueStats::get, metrics);
+
+        // Reduce both the concurrency and frame size.
+        while (c.getMaxFramesInFlight() > 1) {
+            completeFrames(c, LatencyTargetController.ADJUSTMENT_INTERVAL, SLOW);
+        }
+        queueStats.set(QueueStats.DEFAULT);
+        completeFrames(c, LatencyTargetController.ADJUSTMENT_INTERVAL, SLOW);
+        completeFrames(c, LatencyTargetController.ADJUSTMENT_INTERVAL, SLOW);
+        int frameSize = c.getFrameSize();
+        Assert.assertEquals(MAX_FRAME_SIZE / 4, frameSize);
+
+        // Latencies that are within the target, but not well below it, should not cause any changes.
+        val withinTarget = Duration.ofNanos((long) (LATENCY_TARGET.toNanos() * LatencyTargetController.GROWTH_THRESHOLD) + 1);
+        completeFrames(c, LatencyTargetController.ADJUSTMENT_INTERVAL * 2, withinTarget);
+        Assert.assertEquals(frameSize, c.getFrameSize());
+        Assert.assertEquals(1, c.getMaxFramesInFlight());
+
+        // Fast writes should gradually increase both, up to their maximum values. We need to fill the whole window first
+        // in order to evict the previous samples.
+        completeFrames(c, LatencyTargetController.SAMPLE_WINDOW_SIZE, FAST);
+        AssertExtensions.assertGreaterThan("Expected frame size to increase.", frameSize, c.getFrameSize());
+        AssertExtensions.assertGreaterThan("Expected max frames in flight to increase.", 1, c.getMaxFramesInFlight());
+        frameSize = c.getFrameSize();
+        int maxFramesInFlight = c.getMaxFramesInFlight();
+        while (c.getFrameSize() < MAX_FRAME_SIZE || c.getMaxFramesInFlight() < LatencyTargetController.MAX_FRAMES_IN_FLIGHT) {
+            completeFrames(c, LatencyTargetController.ADJUSTMENT_INTERVAL, FAST);
+            AssertExtensions.assertGreaterThanOrEqual("Not expecting frame size to decrease.", frameSize, c.getFrameSize());
+            AssertExtensions.assertGreaterThanOrEqual("Not expecting max frames in flight to decrease.", maxFramesInFlight, c.getMaxFramesInFlight());
+            Assert.assertTrue("Expected at least one value to increase.",
+                    c.getFrameSize() > frameSize || c.getMaxFramesInFlight() > maxFramesInFlight);
+            frameSize = c.getFrameSize();
+            maxFramesInFlight = c.getMaxFramesInFlight();
+        }
+
+        completeFrames(c, LatencyTargetController.ADJUSTMENT_INTERVAL, FAST);
+        Assert.assertEquals(MAX_FRAME_SIZE, c.getFrameSize());
+        Assert.assertEquals(LatencyTargetController.MAX_FRAMES_IN_FLIGHT, c.getMaxFramesInFlight());
+    }
+
+    /**
+     * Tests the tracking of in-flight frames against the maximum.
+     */
+    @Test
+    public void testInFlightLimit() {
+        @Cleanup
+        val metrics = new SegmentStoreMetrics.OperationProcessor(CONTAINER_ID);
+        val queueStats = new AtomicReference<QueueStats>(new QueueStats(10, 10 * MAX_FRAME_SIZE, MAX_FRAME_SIZE, 0));
+        val c = new LatencyTargetController(CONTAINER_ID, LATENCY_TARGET, MAX_FRAME_SIZE, queueStats::get, metrics);
+        while (c.getMaxFramesInFlight() > 2) {
+            completeFrames(c, LatencyTargetController.ADJUSTMENT_INTERVAL, SLOW);
+        }
+
+        Assert.assertEquals(2, c.getMaxFramesInFlight());
+        c.frameSubmitted();
+        Assert.assertFalse(c.isInFlightLimitReached());
+        c.frameSubmitted();
+        Assert.assertTrue(c.isInFlightLimitReached());
+        c.frameSubmitted();
+        Assert.assertEquals(3, c.getFramesInFlight());
+
+        // Completing a frame while still over the limit should not indicate that the limit has been released.
+        Assert.assertFalse(c.frameCompleted(LATENCY_TARGET));
+        Assert.assertTrue(c.isInFlightLimitReached());
+        Assert.assertTrue(c.frameCompleted(LATENCY_TARGET));
+        Assert.assertFalse(c.isInFlightLimitReached());
+        Assert.assertFalse(c.frameCompleted(LATENCY_TARGET));
+
+        // Failed frames should also be accounted for.
+        c.frameSubmitted();
+        c.frameSubmitted();
+        Assert.assertTrue(c.isInFlightLimitReached());
+        c.frameFailed();
+        Assert.assertFalse(c.isInFlightLimitReached());
+        c.frameFailed();
+        c.frameFailed();
+        Assert.assertEquals("Not expecting in-flight count to go below 0.", 0, c.getFramesInFlight());
+    }
+
+    private void completeFrames(LatencyTargetController c, int count, Duration latency) {
+        for (int i = 0; i < count; i++) {
+            c.frameSubmitted();
+            c.frameCompleted(latency);
+        }
+    }
+}
@@ -18,12 +18,16 @@ import io.pravega.segmentstore.server.ContainerMetadata;
 import io.pravega.segmentstore.server.UpdateableContainerMetadata;
 import io.pravega.segmentstore.server.UpdateableSegmentMetadata;
 import io.pravega.segmentstore.server.containers.StreamSegmentContainerMetadata;
+import io.pravega.segmentstore.server.logs.operations.CheckpointOperationBase;
 import io.pravega.segmentstore.server.logs.operations.MergeSegmentOperation;
+import io.pravega.segmentstore.server.logs.operations.MetadataCheckpointOperation;
+import io.pravega.segmentstore.server.logs.operations.MetadataDeltaCheckpointOperation;
 import io.pravega.segmentstore.server.logs.operations.Operation;
 import io.pravega.segmentstore.server.logs.operations.StreamSegmentAppendOperation;
 import io.pravega.segmentstore.server.logs.operations.StreamSegmentMapOperation;
 import io.pravega.segmentstore.server.logs.operations.StreamSegmentSealOperation;
 import io.pravega.segmentstore.storage.LogAddress;
+import io.pravega.test.common.AssertExtensions;
 import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -282,6 +286,49 @@ public class OperationMetadataUpdaterTests {
         }
     }
 
+    /**
+     * Tests the ability to chain delta checkpoints to previous checkpoints across UpdateTransactions, including when some
+     * of them are rolled back.
+     */
+    @Test
+    public void testDeltaCheckpoints() throws Exception {
+        val metadata = createBlankMetadata();
+        val updater = new OperationMetadataUpdater(metadata);
+        AssertExtensions.assertThrows(
+                "A delta checkpoint was accepted without a prior full checkpoint.",
+                () -> updater.preProcessOperation(new MetadataDeltaCheckpointOperation()),
+                ex -> ex instanceof MetadataUpdateException);
+        updater.rollback(updater.sealTransaction());
+
+        // A full checkpoint and a delta in separate UpdateTransactions, processed before any of them is committed.
+        val checkpoints = new ArrayList<CheckpointOperationBase>();
+        checkpoints.add(processCheckpoint(MetadataCheckpointOperation::new, updater));
+        updater.sealTransaction();
+        checkpoints.add(processCheckpoint(MetadataDeltaCheckpointOperation::new, updater));
+        updater.commit(updater.sealTransaction());
+
+        // A delta in an UpdateTransaction that is rolled back should not be chained to.
+        processCheckpoint(MetadataDeltaCheckpointOperation::new, updater);
+        updater.rollback(updater.sealTransaction());
+        checkpoints.add(processCheckpoint(MetadataDeltaCheckpointOperation::new, updater));
+        updater.commitAll();
+
+        // Recover all the checkpoints that made it. Any break in the chain would cause an exception here.
+        val recoveryMetadata = createBlankMetadata();
+        recoveryMetadata.enterRecoveryMode();
+        val recoveryUpdater = new OperationMetadataUpdater(recoveryMetadata);
+        for (val c : checkpoints) {
+            recoveryUpdater.setOperationSequenceNumber(c.getSequenceNumber());
+            recoveryUpdater.preProcessOperation(c);
+            recoveryUpdater.acceptOperation(c);
+            recoveryUpdater.commitAll();
+        }
+
+        recoveryMetadata.exitRecoveryMode();
+        Assert.assertTrue("Expected the full checkpoint to be a valid truncation point.",
+                recoveryMetadata.isValidTruncationPoint(checkpoints.get(0).getSequenceNumber()));
+    }
+
     private UpdateableContainerMetadata createBlankMetadata() {
         return new StreamSegmentContainerMetadata(CONTAINER_ID, MAX_ACTIVE_SEGMENT_COUNT);
     }
@@ -374,6 +421,19 @@ public class OperationMetadataUpdaterTests {
         return mapOp.getStreamSegmentId();
     }
 
+    private CheckpointOperationBase processCheckpoint(Supplier<CheckpointOperationBase> newOperation, OperationMetadataUpdater updater)
+            throws Exception {
+        // The contents are cleared when the operation is accepted, so we need to make a copy of it in order to replay it.
+        val op = newOperation.get();
+        updater.preProcessOperation(op);
+        op.setSequenceNumber(updater.nextOperationSequenceNumber());
+        val copy = newOperation.get();
+        copy.setSequenceNumber(op.getSequenceNumber());
+        copy.setContents(new ByteArraySegment(op.getContents().getCopy()));
+        updater.acceptOperation(op);
+        return copy;
+    }
+
     private void process(Operation op, OperationMetadataUpdater updater) throws Exception {
         updater.preProcessOperation(op);
         op.setSequenceNumber(updater.nextOperationSequenceNumber());
@@ -0,0 +1,208 @@
+/**
+ * Copyright (c) Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.server.logs;
+
+import io.pravega.common.Exceptions;
+import io.pravega.common.ObjectClosedException;
+import io.pravega.common.function.Callbacks;
+import io.pravega.common.io.SerializationException;
+import io.pravega.segmentstore.server.DataCorruptionException;
+import io.pravega.segmentstore.server.TestDurableDataLog;
+import io.pravega.segmentstore.storage.DataLogNotAvailableException;
+import io.pravega.test.common.AssertExtensions;
+import io.pravega.test.common.ErrorInjector;
+import io.pravega.test.common.ThreadPooledTestSuite;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+import lombok.Cleanup;
+import lombok.val;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Unit tests for the PipelinedDataFrameReader class.
+ */
+public class PipelinedDataFrameReaderTests extends ThreadPooledTestSuite {
+    private static final int CONTAINER_ID = 1234567;
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+    private static final int SMALL_RECORD_MIN_SIZE = 0;
+    private static final int SMALL_RECORD_MAX_SIZE = 128;
+    private static final int LARGE_RECORD_MIN_SIZE = 1024;
+    private static final int LARGE_RECORD_MAX_SIZE = 10240;
+    private static final int FRAME_SIZE = 512;
+    private static final int READ_AHEAD_BYTES = 16 * 1024;
+    private static final Serializer<TestLogItem> SERIALIZER = new TestLogItem.TestLogItemSerializer();
+
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(TIMEOUT.getSeconds());
+
+    @Override
+    protected int getThreadPoolSize() {
+        return 5;
+    }
+
+    /**
+     * Tests the ability to read (with and without read-ahead) when there are no exceptions. Some records are partially
+     * serialized, and they should be skipped over.
+     */
+    @Test
+    public void testReadsNoFailure() throws Exception {
+        int failEvery = 7; // Fail every X records (write-wise).
+        ArrayList<TestLogItem> records = generateRecords();
+        for (int i = 0; i < records.size(); i += failEvery) {
+            records.get(i).failSerializationAfterComplete(0.9, new IOException("intentional " + i));
+        }
+
+        @Cleanup
+        TestDurableDataLog dataLog = TestDurableDataLog.create(CONTAINER_ID, FRAME_SIZE, executorService());
+        dataLog.initialize(TIMEOUT);
+        HashSet<Integer> failedIndices = write(records, dataLog);
+
+        for (long readAheadBytes : new long[]{0, FRAME_SIZE, READ_AHEAD_BYTES, Long.MAX_VALUE}) {
+            @Cleanup
+            val reader = new PipelinedDataFrameReader<>(dataLog, new TestSerializer(), CONTAINER_ID, readAheadBytes, executorService());
+            List<TestLogItem> readItems = readAll(reader);
+            Assert.assertEquals("Unexpected number of items read for readAheadBytes = " + readAheadBytes,
+                    records.size() - failedIndices.size(), readItems.size());
+            int actualIndex = 0;
+            for (int i = 0; i < records.size(); i++) {
+                if (failedIndices.contains(i)) {
+                    continue;
+                }
+
+                TestLogItem expected = records.get(i);
+                TestLogItem actual = readItems.get(actualIndex++);
+                Assert.assertEquals("Unexpected Sequence Number.", expected.getSequenceNumber(), actual.getSequenceNumber());
+                Assert.assertArrayEquals("Unexpected read data.", expected.getData(), actual.getData());
+            }
+
+            Assert.assertNull("Not expecting any more items.", reader.getNext());
+        }
+    }
+
+    /**
+     * Tests the case when the reader encounters deserialization failures (which may happen on a background thread).
+     */
+    @Test
+    public void testReadsWithDeserializationFailure() throws Exception {
+        int failDeserializationEvery = 11; // Fail deserialization every X records.
+        @Cleanup
+        TestDurableDataLog dataLog = TestDurableDataLog.create(CONTAINER_ID, FRAME_SIZE, executorService());
+        dataLog.initialize(TIMEOUT);
+        write(generateRecords(), dataLog);
+
+        ErrorInjector<SerializationException> errorInjector = new ErrorInjector<>(
+                count -> count % failDeserializationEvery == 0,
+                () -> new SerializationException("TestLogItem.deserialize intentional"));
+        TestSerializer serializer = new TestSerializer();
+        serializer.setDeserializationErrorInjector(errorInjector);
+        for (long readAheadBytes : new long[]{0, READ_AHEAD_BYTES}) {
+            testReadWithException(new PipelinedDataFrameReader<>(dataLog, serializer, CONTAINER_ID, readAheadBytes, executorService()),
+                    ex -> ex instanceof DataCorruptionException);
+        }
+    }
+
+    /**
+     * Tests the case when the reader encounters DurableDataLog read failures (which may happen on a background thread).
+     */
+    @Test
+    public void testReadsWithDataLogFailure() throws Exception {
+        int failReadSyncEvery = 3; // Fail reads synchronously every X attempts.
+        @Cleanup
+        TestDurableDataLog dataLog = TestDurableDataLog.create(CONTAINER_ID, FRAME_SIZE, executorService());
+        dataLog.initialize(TIMEOUT);
+        write(generateRecords(), dataLog);
+
+        ErrorInjector<Exception> readErrorInjector = new ErrorInjector<>(
+                count -> count % failReadSyncEvery == 0,
+                () -> new DataLogNotAvailableException("intentional getNext exception"));
+        dataLog.setReadErrorInjectors(null, readErrorInjector);
+        testReadWithException(new PipelinedDataFrameReader<>(dataLog, new TestSerializer(), CONTAINER_ID, READ_AHEAD_BYTES, executorService()),
+                ex -> ex == readErrorInjector.getLastCycleException());
+    }
+
+    private void testReadWithException(PipelinedDataFrameReader<TestLogItem> reader, Predicate<Throwable> exceptionVerifier) {
+        try {
+            AssertExtensions.assertThrows(
+                    "No exception or wrong type of exception thrown.",
+                    () -> readAll(reader),
+                    ex -> exceptionVerifier.test(Exceptions.unwrap(ex)));
+
+            // After an exception, the reader must be closed.
+            AssertExtensions.assertThrows(
+                    "Expected the reader to be closed after an exception.",
+                    reader::getNext,
+                    ex -> ex instanceof ObjectClosedException);
+        } finally {
+            reader.close();
+        }
+    }
+
+    private ArrayList<TestLogItem> generateRecords() {
+        ArrayList<TestLogItem> records = DataFrameTestHelpers.generateLogItems(100, SMALL_RECORD_MIN_SIZE, SMALL_RECORD_MAX_SIZE, 0);
+        records.addAll(DataFrameTestHelpers.generateLogItems(100, LARGE_RECORD_MIN_SIZE, LARGE_RECORD_MAX_SIZE, records.size()));
+        return records;
+    }
+
+    private HashSet<Integer> write(List<TestLogItem> records, TestDurableDataLog dataLog) throws Exception {
+        HashSet<Integer> failedIndices = new HashSet<>();
+        BiConsumer<Throwable, DataFrameBuilder.CommitArgs> errorCallback = (ex, a) ->
+                Assert.fail(String.format("Unexpected error occurred upon commit. %s", ex));
+        val args = new DataFrameBuilder.Args(Callbacks::doNothing, Callbacks::doNothing, errorCallback, executorService());
+        try (DataFrameBuilder<TestLogItem> b = new DataFrameBuilder<>(dataLog, SERIALIZER, args)) {
+            for (int i = 0; i < records.size(); i++) {
+                try {
+                    b.append(records.get(i));
+                } catch (IOException ex) {
+                    failedIndices.add(i);
+                }
+            }
+            b.flush();
+        }
+
+        return failedIndices;
+    }
+
+    private ArrayList<TestLogItem> readAll(PipelinedDataFrameReader<TestLogItem> reader) throws Exception {
+        ArrayList<TestLogItem> result = new ArrayList<>();
+        long lastDataFrameSequence = -1;
+        boolean expectDifferentDataFrameSequence = true;
+        while (true) {
+            DataFrameRecord<TestLogItem> dataFrameRecord = reader.getNext();
+            if (dataFrameRecord == null) {
+                // We have reached the end.
+                break;
+            }
+
+            // DataFrameSequences must increase after each isLastFrameEntry record, and not decrease otherwise.
+            if (expectDifferentDataFrameSequence) {
+                AssertExtensions.assertGreaterThan("Expecting a different (and larger) DataFrameSequence.",
+                        lastDataFrameSequence, dataFrameRecord.getLastUsedDataFrameAddress().getSequence());
+                expectDifferentDataFrameSequence = false;
+            } else {
+                AssertExtensions.assertGreaterThanOrEqual("Expecting a increasing (or equal) DataFrameSequence.",
+                        lastDataFrameSequence, dataFrameRecord.getLastUsedDataFrameAddress().getSequence());
+            }
+
+            lastDataFrameSequence = dataFrameRecord.getLastUsedDataFrameAddress().getSequence();
+            expectDifferentDataFrameSequence = dataFrameRecord.isLastFrameEntry();
+            result.add(dataFrameRecord.getItem());
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,115 @@
+/**
+ * Copyright (c) Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.server.logs;
+
+import io.pravega.common.concurrent.ExecutorServiceHelpers;
+import io.pravega.common.concurrent.Futures;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import lombok.val;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests for the SegmentBacklogTracker class.
+ */
+public class SegmentBacklogTrackerTests {
+    private static final long MIN = SegmentBacklogTracker.MIN_BACKLOG_BYTES;
+
+    /**
+     * Tests the add() and remove() methods.
+     */
+    @Test
+    public void testAddRemove() {
+        val t = new SegmentBacklogTracker();
+        t.add(1, 10);
+        t.add(1, 20);
+        t.add(2, 5);
+        Assert.assertEquals(30, t.getOutstandingBytes(1));
+        Assert.assertEquals(5, t.getOutstandingBytes(2));
+        Assert.assertEquals(35, t.getTotalOutstandingBytes());
+
+        t.remove(1, 10);
+        Assert.assertEquals(20, t.getOutstandingBytes(1));
+        Assert.assertEquals(25, t.getTotalOutstandingBytes());
+
+        // Removing more than what is outstanding, or for segments that are not tracked, should not affect the total.
+        t.remove(2, 100);
+        t.remove(3, 100);
+        Assert.assertEquals(0, t.getOutstandingBytes(2));
+        Assert.assertEquals(20, t.getTotalOutstandingBytes());
+
+        t.remove(1, 20);
+        Assert.assertEquals(0, t.getOutstandingBytes(1));
+        Assert.assertEquals(0, t.getTotalOutstandingBytes());
+    }
+
+    /**
+     * Tests the isContributing() method.
+     */
+    @Test
+    public void testIsContributing() {
+        val t = new SegmentBacklogTracker();
+        Assert.assertFalse("Not expecting an untracked segment to contribute.", t.isContributing(1));
+
+        // A single segment contributes only once it goes above the minimum.
+        t.add(1, MIN - 1);
+        Assert.assertFalse("Not expecting a segment below the minimum to contribute.", t.isContributing(1));
+        t.add(1, 1);
+        Assert.assertTrue("Expected a single segment above the minimum to contribute.", t.isContributing(1));
+
+        // A heavy segment contributes, while light ones do not.
+        t.add(1, 9 * MIN);
+        t.add(2, MIN);
+        t.add(3, MIN / 2);
+        Assert.assertTrue("Expected the heavy segment to contribute.", t.isContributing(1));
+        Assert.assertFalse("Not expecting a segment below its fair share to contribute.", t.isContributing(2));
+        Assert.assertFalse("Not expecting a segment below the minimum to contribute.", t.isContributing(3));
+
+        // Once the heavy segment's backlog drains, the others may contribute.
+        t.remove(1, 10 * MIN);
+        Assert.assertFalse(t.isContributing(1));
+        Assert.assertTrue("Expected a segment above its fair share to contribute.", t.isContributing(2));
+        Assert.assertFalse("Not expecting a segment below the minimum to contribute.", t.isContributing(3));
+    }
+
+    /**
+     * Tests concurrent updates to the same and different segments.
+     */
+    @Test
+    public void testConcurrentUpdates() {
+        final int threadCount = 8;
+        final int iterationsPerThread = 10000;
+        val t = new SegmentBacklogTracker();
+        val executor = ExecutorServiceHelpers.newScheduledThreadPool(threadCount, "backlog-test");
+        try {
+            val futures = new ArrayList<CompletableFuture<Void>>();
+            for (int i = 0; i < threadCount; i++) {
+                final long segmentId = i % 2;
+                futures.add(CompletableFuture.runAsync(() -> {
+                    for (int j = 0; j < iterationsPerThread; j++) {
+                        t.add(segmentId, j);
+                        t.remove(segmentId, j);
+                    }
+                }, executor));
+            }
+
+            Futures.allOf(futures).join();
+        } finally {
+            ExecutorServiceHelpers.shutdown(executor);
+        }
+
+        Assert.assertEquals(0, t.getOutstandingBytes(0));
+        Assert.assertEquals(0, t.getOutstandingBytes(1));
+        Assert.assertEquals(0, t.getTotalOutstandingBytes());
+        t.add(0, MIN);
+        Assert.assertTrue("Expected the only tracked segment to contribute.", t.isContributing(0));
+    }
+}
@@ -9,6 +9,7 @@
  */
 package io.pravega.segmentstore.server.logs;
 
+import io.pravega.segmentstore.server.SegmentStoreMetrics;
 import io.pravega.segmentstore.storage.QueueStats;
 import io.pravega.segmentstore.storage.WriteSettings;
 import io.pravega.test.common.AssertExtensions;
@@ -16,6 +17,7 @@ import java.time.Duration;
 import java.util.Arrays;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import lombok.Cleanup;
 import lombok.val;
 import org.junit.Assert;
 import org.junit.Test;
@@ -119,6 +121,33 @@ public class ThrottlerCalculatorTests {
         testThrottling(tc, queueStats, noThrottling, gradualThrottling, maxThrottling);
     }
 
+    /**
+     * Tests the ability to properly calculate throttling delays caused by having too many DataFrames in flight.
+     */
+    @Test
+    public void testLatencyTarget() {
+        val latencyTarget = Duration.ofMillis(10);
+        @Cleanup
+        val metrics = new SegmentStoreMetrics.OperationProcessor(1);
+        val controller = new LatencyTargetController(1, latencyTarget, MAX_APPEND_LENGTH, () -> QueueStats.DEFAULT, metrics);
+        val tc = ThrottlerCalculator.builder().latencyTargetThrottler(controller).build();
+        for (int i = 0; i < controller.getMaxFramesInFlight(); i++) {
+            Assert.assertFalse("Not expecting throttling while below the in-flight limit.", tc.isThrottlingRequired());
+            Assert.assertEquals(0, tc.getThrottlingDelay().getDurationMillis());
+            controller.frameSubmitted();
+        }
+
+        Assert.assertTrue("Expecting throttling when at the in-flight limit.", tc.isThrottlingRequired());
+        val delay = tc.getThrottlingDelay();
+        Assert.assertEquals(ThrottlerCalculator.ThrottlerName.LatencyTarget, delay.getThrottlerName());
+        Assert.assertEquals(latencyTarget.toMillis(), delay.getDurationMillis());
+        Assert.assertFalse(delay.isMaximum());
+
+        controller.frameCompleted(latencyTarget);
+        Assert.assertFalse("Not expecting throttling after a frame completed.", tc.isThrottlingRequired());
+        Assert.assertEquals(0, tc.getThrottlingDelay().getDurationMillis());
+    }
+
     private QueueStats createStats(int queueSize, double fillRatio, int expectedProcessingTimeMillis) {
         int totalLength = (int) (fillRatio * MAX_APPEND_LENGTH * queueSize);
         return new QueueStats(queueSize, totalLength, MAX_APPEND_LENGTH, expectedProcessingTimeMillis);
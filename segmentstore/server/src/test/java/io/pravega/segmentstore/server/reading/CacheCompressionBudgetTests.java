@@ -0,0 +1,66 @@
+/**
+ * Copyright (c) Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.server.reading;
+
+import io.pravega.test.common.AssertExtensions;
+import lombok.val;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Unit tests for the {@link CacheCompressionBudget} class.
+ */
+public class CacheCompressionBudgetTests {
+    private static final int MAX_BYTES = 100;
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10);
+
+    /**
+     * Tests that reservations are only granted while within the budget, except for a single oversized one.
+     */
+    @Test
+    public void testReserve() {
+        val budget = new CacheCompressionBudget(MAX_BYTES);
+        Assert.assertTrue(budget.reserve(MAX_BYTES / 2));
+        Assert.assertTrue(budget.reserve(MAX_BYTES / 2));
+        Assert.assertFalse("Not expecting a reservation with an exhausted budget.", budget.reserve(1));
+        Assert.assertEquals(MAX_BYTES, budget.getUsedBytes());
+
+        budget.release(MAX_BYTES / 2);
+        Assert.assertFalse("Not expecting a reservation that exceeds the budget.", budget.reserve(MAX_BYTES / 2 + 1));
+        budget.release(MAX_BYTES / 2);
+        Assert.assertEquals(0, budget.getUsedBytes());
+
+        // An oversized reservation is granted if nothing else is reserved, but nothing else is granted until it is released.
+        Assert.assertTrue(budget.reserve(2 * MAX_BYTES));
+        Assert.assertFalse(budget.reserve(1));
+        budget.release(2 * MAX_BYTES);
+        Assert.assertTrue(budget.reserve(1));
+        budget.release(1);
+        Assert.assertEquals(0, budget.getUsedBytes());
+    }
+
+    /**
+     * Tests invalid arguments.
+     */
+    @Test
+    public void testInvalidArguments() {
+        AssertExtensions.assertThrows(
+                "Non-positive budget was accepted.",
+                () -> new CacheCompressionBudget(0),
+                ex -> ex instanceof IllegalArgumentException);
+        AssertExtensions.assertThrows(
+                "Negative length was accepted.",
+                () -> new CacheCompressionBudget(MAX_BYTES).reserve(-1),
+                ex -> ex instanceof IllegalArgumentException);
+    }
+}
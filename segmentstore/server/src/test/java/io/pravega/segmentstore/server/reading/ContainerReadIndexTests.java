@@ -15,6 +15,8 @@ import io.pravega.common.io.FixedByteArrayOutputStream;
 import io.pravega.common.util.BufferView;
 import io.pravega.common.util.ByteArraySegment;
 import io.pravega.common.util.ReusableLatch;
+import io.pravega.segmentstore.contracts.Attributes;
+import io.pravega.segmentstore.contracts.CachePriority;
 import io.pravega.segmentstore.contracts.ReadResult;
 import io.pravega.segmentstore.contracts.ReadResultEntry;
 import io.pravega.segmentstore.contracts.ReadResultEntryType;
@@ -63,6 +65,7 @@ import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import lombok.Cleanup;
 import lombok.Getter;
@@ -357,6 +360,64 @@ public class ContainerReadIndexTests extends ThreadPooledTestSuite {
         AssertExtensions.assertGreaterThan("Expected at least one cache entry to be removed.", 0, deletedEntries.size());
     }
 
+    /**
+     * Tests eviction and truncation of Segments with many small Cache Entries, which requires removing many entries from
+     * their indices at once.
+     */
+    @Test
+    public void testEvictManyEntries() throws Exception {
+        val config = ReadIndexConfig
+                .builder()
+                .with(ReadIndexConfig.MEMORY_READ_MIN_LENGTH, 0)
+                .with(ReadIndexConfig.STORAGE_READ_ALIGNMENT, 128)
+                .build();
+        @Cleanup
+        TestContext context = new TestContext(config, CachePolicy.INFINITE);
+        ArrayList<Long> segmentIds = createSegments(context);
+        HashMap<Long, ByteArrayOutputStream> segmentContents = new HashMap<>();
+        createSegmentsInStorage(context);
+        appendDataInStorage(context, segmentContents);
+
+        // Read everything from Storage; each aligned Storage Read ends up in its own Cache Entry.
+        checkReadIndex("Initial", segmentContents, context);
+        long initialStoredBytes = context.cacheStorage.getState().getStoredBytes();
+        AssertExtensions.assertGreaterThan("Expected data to be cached.", 0, initialStoredBytes);
+
+        // Truncate all segments at their mid-points. Only the truncated entries may be evicted; none is old enough otherwise.
+        HashSet<Integer> deletedEntries = new HashSet<>();
+        context.cacheStorage.deleteCallback = deletedEntries::add;
+        for (long segmentId : segmentIds) {
+            val sm = context.metadata.getStreamSegmentMetadata(segmentId);
+            sm.setStartOffset(sm.getLength() / 2);
+            context.readIndex.getIndex(segmentId).updateGenerations(1, 0);
+        }
+
+        AssertExtensions.assertGreaterThan("Expected many entries to be removed for each segment.", 2 * segmentIds.size(), deletedEntries.size());
+        long storedBytes = context.cacheStorage.getState().getStoredBytes();
+        AssertExtensions.assertLessThan("Expected truncated data to be evicted.", initialStoredBytes, storedBytes);
+        AssertExtensions.assertGreaterThan("Expected non-truncated data to remain cached.", 0, storedBytes);
+        for (long segmentId : segmentIds) {
+            Assert.assertFalse("Expected non-truncated data to remain cached for Segment " + segmentId,
+                    context.readIndex.getIndex(segmentId).getCacheStatus().isEmpty());
+        }
+
+        checkReadIndex("PostTruncate", segmentContents, context);
+
+        // Evict everything else.
+        deletedEntries.clear();
+        for (long segmentId : segmentIds) {
+            context.readIndex.getIndex(segmentId).updateGenerations(100, 100);
+            Assert.assertTrue("Expected all entries to be evicted for Segment " + segmentId,
+                    context.readIndex.getIndex(segmentId).getCacheStatus().isEmpty());
+        }
+
+        AssertExtensions.assertGreaterThan("Expected many entries to be removed for each segment.", 2 * segmentIds.size(), deletedEntries.size());
+        Assert.assertEquals("Expected all data to be evicted.", 0, context.cacheStorage.getState().getStoredBytes());
+
+        // The data should still be readable (from Storage).
+        checkReadIndex("PostEvict", segmentContents, context);
+    }
+
     /**
      * Tests a scenario of truncation that happens concurrently with reading (segment is truncated while reading).
      */
@@ -747,6 +808,261 @@ public class ContainerReadIndexTests extends ThreadPooledTestSuite {
         checkReadIndex("CacheReads", segmentContents, context);
     }
 
+    /**
+     * Tests the ability to compress cached data, both after it has been persisted to Storage and when it is read from
+     * Storage, as well as the ability of a Segment to opt out of it.
+     */
+    @Test
+    public void testCacheCompression() throws Exception {
+        val config = ReadIndexConfig
+                .builder()
+                .with(ReadIndexConfig.MEMORY_READ_MIN_LENGTH, 0)
+                .with(ReadIndexConfig.STORAGE_READ_ALIGNMENT, 1024)
+                .with(ReadIndexConfig.CACHE_COMPRESSION_ENABLE, true)
+                .with(ReadIndexConfig.CACHE_COMPRESSION_GENERATION_AGE, 0)
+                .build();
+
+        // 1. Appended data is compressed once it has been persisted to Storage, unless the Segment opted out.
+        @Cleanup
+        TestContext context = new TestContext(config, CachePolicy.INFINITE);
+        ArrayList<Long> segmentIds = createSegments(context);
+        HashMap<Long, ByteArrayOutputStream> segmentContents = new HashMap<>();
+        appendData(segmentIds, segmentContents, context);
+        long appendedLength = context.cacheStorage.getState().getStoredBytes();
+
+        // Nothing is persisted yet. Compression is only attempted when the Cache Generations change, so simulate that.
+        updateGenerations(segmentIds, 1, context);
+        Assert.assertEquals("Not expecting any compression for data not in Storage.",
+                appendedLength, context.cacheStorage.getState().getStoredBytes());
+
+        val optOut = Collections.singletonMap(Attributes.DISABLE_CACHE_COMPRESSION, Attributes.BOOLEAN_TRUE);
+        for (long segmentId : segmentIds) {
+            val sm = context.metadata.getStreamSegmentMetadata(segmentId);
+            sm.setStorageLength(sm.getLength());
+            sm.updateAttributes(optOut);
+        }
+
+        updateGenerations(segmentIds, 2, context);
+        Assert.assertEquals("Not expecting any compression for Segments that opted out.",
+                appendedLength, context.cacheStorage.getState().getStoredBytes());
+
+        val optIn = Collections.singletonMap(Attributes.DISABLE_CACHE_COMPRESSION, Attributes.BOOLEAN_FALSE);
+        for (long segmentId : segmentIds) {
+            context.metadata.getStreamSegmentMetadata(segmentId).updateAttributes(optIn);
+        }
+
+        updateGenerations(segmentIds, 3, context);
+        AssertExtensions.assertLessThan("Expected persisted data to be compressed.",
+                appendedLength / 2, context.cacheStorage.getState().getStoredBytes());
+        checkReadIndex("Compressed", segmentContents, context);
+
+        // Appends after compression must still work.
+        appendData(segmentIds, segmentContents, context);
+        checkReadIndex("PostCompressionAppend", segmentContents, context);
+
+        // 2. Data read from Storage is compressed upon insertion.
+        @Cleanup
+        TestContext storageContext = new TestContext(config, CachePolicy.INFINITE);
+        segmentIds = createSegments(storageContext);
+        segmentContents.clear();
+        createSegmentsInStorage(storageContext);
+        appendDataInStorage(storageContext, segmentContents);
+        checkReadIndex("StorageReads", segmentContents, storageContext);
+        long storageLength = segmentContents.values().stream().mapToLong(ByteArrayOutputStream::size).sum();
+        AssertExtensions.assertLessThan("Expected Storage Reads to be compressed.",
+                storageLength / 2, storageContext.cacheStorage.getState().getStoredBytes());
+
+        // Delete the data from Storage to verify that everything is served from the (compressed) cache.
+        for (long segmentId : segmentIds) {
+            val handle = storageContext.storage.openWrite(storageContext.metadata.getStreamSegmentMetadata(segmentId).getName()).join();
+            storageContext.storage.delete(handle, TIMEOUT).join();
+        }
+
+        checkReadIndex("CompressedCacheReads", segmentContents, storageContext);
+    }
+
+    /**
+     * Tests the ability to assign {@link CachePriority} classes and Cache quotas to Segments, both via configuration and
+     * via Segment Attributes.
+     */
+    @Test
+    public void testCachePriorities() throws Exception {
+        final int alignment = 1024;
+        final long quota = 4 * alignment;
+        val config = ReadIndexConfig
+                .builder()
+                .with(ReadIndexConfig.MEMORY_READ_MIN_LENGTH, 0)
+                .with(ReadIndexConfig.STORAGE_READ_ALIGNMENT, alignment)
+                .with(ReadIndexConfig.CACHE_PRIORITY_GUARANTEED, "scope1/stream1, scope2")
+                .with(ReadIndexConfig.CACHE_PRIORITY_NEVER_CACHE, "scope1")
+                .build();
+
+        // 1. Configuration.
+        Assert.assertEquals(CachePriority.Guaranteed, config.getCachePriority("scope1/stream1/0.#epoch.0"));
+        Assert.assertEquals(CachePriority.Guaranteed, config.getCachePriority("scope2/stream2/0.#epoch.0"));
+        Assert.assertEquals(CachePriority.NeverCache, config.getCachePriority("scope1/stream2/0.#epoch.0"));
+        Assert.assertEquals(CachePriority.BestEffort, config.getCachePriority("scope11/stream1/0.#epoch.0"));
+        Assert.assertEquals(CachePriority.BestEffort, config.getCachePriority("scope3/stream1/0.#epoch.0"));
+
+        // 2. Guaranteed Segments keep their data in the Cache until all other data has been evicted.
+        @Cleanup
+        TestContext context = new TestContext(config, CachePolicy.INFINITE);
+        ArrayList<Long> segmentIds = createSegments(context);
+        HashMap<Long, ByteArrayOutputStream> segmentContents = new HashMap<>();
+        appendData(segmentIds, segmentContents, context);
+        for (long segmentId : segmentIds) {
+            val sm = context.metadata.getStreamSegmentMetadata(segmentId);
+            sm.setStorageLength(sm.getLength());
+        }
+
+        long guaranteedSegmentId = segmentIds.get(0);
+        context.metadata.getStreamSegmentMetadata(guaranteedSegmentId).updateAttributes(
+                Collections.singletonMap(Attributes.CACHE_PRIORITY, (long) CachePriority.Guaranteed.getValue()));
+        for (long segmentId : segmentIds) {
+            context.readIndex.getIndex(segmentId).updateGenerations(2, 1, 1);
+        }
+
+        for (long segmentId : segmentIds) {
+            boolean isEmpty = context.readIndex.getIndex(segmentId).getCacheStatus().isEmpty();
+            Assert.assertEquals("Unexpected eviction status for Segment " + segmentId, segmentId != guaranteedSegmentId, isEmpty);
+        }
+
+        // Guaranteed Segments are never evicted by generation, not even once the oldest generation catches up.
+        context.readIndex.getIndex(guaranteedSegmentId).updateGenerations(2, 2, 2);
+        Assert.assertFalse("Not expecting Guaranteed Segment to be evicted by generation.",
+                context.readIndex.getIndex(guaranteedSegmentId).getCacheStatus().isEmpty());
+        for (long segmentId : segmentIds) {
+            if (segmentId != guaranteedSegmentId) {
+                Assert.assertFalse("Not expecting non-Guaranteed Segment to evict via evictGuaranteed.",
+                        context.readIndex.getIndex(segmentId).evictGuaranteed(2));
+            }
+        }
+
+        Assert.assertTrue("Expected Guaranteed Segment to evict via evictGuaranteed.",
+                context.readIndex.getIndex(guaranteedSegmentId).evictGuaranteed(2));
+        Assert.assertTrue("Expected Guaranteed Segment to be evicted once all other data has been evicted.",
+                context.readIndex.getIndex(guaranteedSegmentId).getCacheStatus().isEmpty());
+
+        // 3. Segments that should never be cached do not insert Storage Reads into the Cache.
+        @Cleanup
+        TestContext neverCacheContext = new TestContext(config, CachePolicy.INFINITE);
+        segmentIds = createSegments(neverCacheContext);
+        segmentContents.clear();
+        createSegmentsInStorage(neverCacheContext);
+        appendDataInStorage(neverCacheContext, segmentContents);
+        for (long segmentId : segmentIds) {
+            neverCacheContext.metadata.getStreamSegmentMetadata(segmentId).updateAttributes(
+                    Collections.singletonMap(Attributes.CACHE_PRIORITY, (long) CachePriority.NeverCache.getValue()));
+        }
+
+        checkReadIndex("NeverCache", segmentContents, neverCacheContext);
+        Assert.assertEquals("Not expecting any data to be cached.", 0, neverCacheContext.cacheStorage.getState().getStoredBytes());
+
+        // 4. Segments that exceed their quota evict their own data.
+        @Cleanup
+        TestContext quotaContext = new TestContext(config, CachePolicy.INFINITE);
+        segmentIds = createSegments(quotaContext);
+        segmentContents.clear();
+        createSegmentsInStorage(quotaContext);
+        appendDataInStorage(quotaContext, segmentContents);
+        for (long segmentId : segmentIds) {
+            quotaContext.metadata.getStreamSegmentMetadata(segmentId).updateAttributes(Collections.singletonMap(Attributes.CACHE_QUOTA, quota));
+        }
+
+        checkReadIndex("Quota", segmentContents, quotaContext);
+        final long maxCachedBytes = segmentIds.size() * quota;
+        AssertExtensions.assertEventuallyEquals("Expected Segments to stay within their quota.", true,
+                () -> quotaContext.cacheStorage.getState().getStoredBytes() <= maxCachedBytes, 10, TIMEOUT.toMillis());
+        AssertExtensions.assertGreaterThan("Expected some data to be cached.", 0, quotaContext.cacheStorage.getState().getStoredBytes());
+    }
+
+    /**
+     * Tests that Segments enforce their Cache quota when appending (and not only when the CacheManager updates generations
+     * or when inserting Storage Reads).
+     */
+    @Test
+    public void testCacheQuotaAppends() {
+        final int appendLength = 1024;
+        final int appendCount = 100;
+        final long quota = 8 * appendLength;
+        @Cleanup
+        TestContext context = new TestContext(DEFAULT_CONFIG, CachePolicy.INFINITE);
+        context.cacheStorage.disableAppends = true; // Each append will then be in its own Cache Entry.
+        long segmentId = createSegments(context).get(0);
+        val sm = context.metadata.getStreamSegmentMetadata(segmentId);
+        sm.updateAttributes(Collections.singletonMap(Attributes.CACHE_QUOTA, quota));
+        val rnd = new Random(0);
+        for (int i = 0; i < appendCount; i++) {
+            byte[] data = new byte[appendLength];
+            rnd.nextBytes(data);
+            long offset = sm.getLength();
+            sm.setLength(offset + data.length);
+            context.readIndex.append(segmentId, offset, new ByteArraySegment(data));
+            AssertExtensions.assertLessThanOrEqual("Expected Segment to stay within its quota after append " + i,
+                    quota, context.cacheStorage.getState().getStoredBytes());
+
+            // Persist everything so far; it can be evicted to make room for the next append.
+            sm.setStorageLength(sm.getLength());
+        }
+
+        AssertExtensions.assertGreaterThan("Expected some data to be cached.", 0, context.cacheStorage.getState().getStoredBytes());
+    }
+
+    /**
+     * Tests the ability to detect sequential readers and prefetch data ahead of them from Storage.
+     */
+    @Test
+    public void testReadAhead() throws Exception {
+        final int alignment = 4 * 1024;
+        val config = ReadIndexConfig
+                .builder()
+                .with(ReadIndexConfig.MEMORY_READ_MIN_LENGTH, 0)
+                .with(ReadIndexConfig.STORAGE_READ_ALIGNMENT, alignment)
+                .with(ReadIndexConfig.READ_AHEAD_ENABLE, true)
+                .with(ReadIndexConfig.READ_AHEAD_LENGTH_MIN, 2 * alignment)
+                .with(ReadIndexConfig.READ_AHEAD_LENGTH_MAX, 8 * alignment)
+                .build();
+
+        @Cleanup
+        TestContext context = new TestContext(config, CachePolicy.INFINITE);
+        ArrayList<Long> segmentIds = createSegments(context);
+        HashMap<Long, ByteArrayOutputStream> segmentContents = new HashMap<>();
+        createSegmentsInStorage(context);
+        appendDataInStorage(context, segmentContents);
+        long segmentId = segmentIds.get(0);
+        byte[] expectedData = segmentContents.get(segmentId).toByteArray();
+
+        // Read the first two aligned chunks. The first read cannot be identified as sequential, but the second one can,
+        // which should trigger a prefetch for the next two chunks.
+        @Cleanup
+        val readResult = context.readIndex.read(segmentId, 0, 2 * alignment, TIMEOUT);
+        int readLength = 0;
+        while (readResult.hasNext()) {
+            val entry = readResult.next();
+            Assert.assertEquals("Unexpected entry type.", ReadResultEntryType.Storage, entry.getType());
+            entry.requestContent(TIMEOUT);
+            readLength += entry.getContent().get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS).getLength();
+        }
+
+        Assert.assertEquals(2 * alignment, readLength);
+        AssertExtensions.assertEventuallyEquals("Expected prefetched data to be cached.",
+                4L * alignment, () -> context.cacheStorage.getState().getStoredBytes(), 10, TIMEOUT.toMillis());
+
+        // Delete the Segment from Storage. The prefetched data must be served from the Cache.
+        val handle = context.storage.openWrite(context.metadata.getStreamSegmentMetadata(segmentId).getName()).join();
+        context.storage.delete(handle, TIMEOUT).join();
+
+        @Cleanup
+        val cachedResult = context.readIndex.read(segmentId, readLength, 2 * alignment, TIMEOUT);
+        while (cachedResult.hasNext()) {
+            val entry = cachedResult.next();
+            Assert.assertEquals("Unexpected entry type for prefetched data.", ReadResultEntryType.Cache, entry.getType());
+            val data = entry.getContent().join();
+            AssertExtensions.assertArrayEquals("Unexpected prefetched data at offset " + entry.getStreamSegmentOffset(),
+                    expectedData, (int) entry.getStreamSegmentOffset(), data.getCopy(), 0, data.getLength());
+        }
+    }
+
     /**
      * Tests a scenario where two concurrent Storage reads for the same offset execute, and the second ends up overwriting
      * the first one.
@@ -1222,6 +1538,53 @@ public class ContainerReadIndexTests extends ThreadPooledTestSuite {
         Assert.assertArrayEquals("Not expected copy-on-read data.", data2, read2);
     }
 
+    /**
+     * Tests the ability to return pinned references to the Cache from the ReadIndex (see {@link ReadResult#setPinOnRead}).
+     */
+    @Test
+    public void testPinOnRead() throws Exception {
+        final long segmentId = 0;
+        final int appendLength = 100;
+        final byte[] data1 = new byte[appendLength];
+        final byte[] data2 = new byte[appendLength];
+        final Random rnd = new Random(0);
+        rnd.nextBytes(data1);
+        rnd.nextBytes(data2);
+
+        @Cleanup
+        TestContext context = new TestContext();
+        createSegment(0, context);
+
+        // Append some data and intercept the address it was written to.
+        val address = new AtomicInteger(-1);
+        context.cacheStorage.insertCallback = address::set;
+        context.metadata.getStreamSegmentMetadata(segmentId).setLength(appendLength);
+        context.readIndex.append(segmentId, 0, new ByteArraySegment(data1));
+        Assert.assertNotEquals(-1, address.get());
+
+        // Pin-on-read takes precedence over copy-on-read.
+        val rr = context.readIndex.read(segmentId, 0, appendLength, TIMEOUT);
+        rr.setCopyOnRead(true);
+        rr.setPinOnRead(true);
+        Assert.assertTrue(rr.isPinOnRead());
+        val readBuilder = BufferView.builder();
+        rr.forEachRemaining(rre -> readBuilder.add(rre.getContent().join()));
+        val readBuffer = readBuilder.build();
+
+        // Simulate the cache entry being evicted. Its memory should not be reused while pinned.
+        context.cacheStorage.delete(address.get());
+        val address2 = context.cacheStorage.insert(new ByteArraySegment(data2));
+        Assert.assertNotEquals("Pinned cache entry reused.", address.get(), (int) address2);
+        Assert.assertArrayEquals("Pinned data not preserved.", data1, readBuffer.getCopy());
+        Assert.assertEquals(2 * appendLength, context.cacheStorage.getState().getStoredBytes());
+
+        // Release the data; this should complete the deletion.
+        readBuffer.release();
+        Assert.assertEquals(appendLength, context.cacheStorage.getState().getStoredBytes());
+        Assert.assertNull("Not expecting the deleted entry to be readable.", context.cacheStorage.get(address.get()));
+        context.cacheStorage.delete(address2);
+    }
+
     /**
      * Tests the ability to evict entries from the ReadIndex under various conditions:
      * * If an entry is aged out
@@ -2068,6 +2431,16 @@ public class ContainerReadIndexTests extends ThreadPooledTestSuite {
         }
     }
 
+    private void updateGenerations(Collection<Long> segmentIds, int currentGeneration, TestContext context) {
+        for (long segmentId : segmentIds) {
+            val index = context.readIndex.getIndex(segmentId);
+            index.updateGenerations(currentGeneration, 0);
+
+            // Compression happens in the background; wait for it to be done.
+            index.getCompressionTask().join();
+        }
+    }
+
     private void appendSingleWrite(long segmentId, ByteArraySegment data, TestContext context) throws Exception {
         UpdateableSegmentMetadata segmentMetadata = context.metadata.getStreamSegmentMetadata(segmentId);
 
@@ -2377,13 +2750,27 @@ public class ContainerReadIndexTests extends ThreadPooledTestSuite {
             return this.disableAppends ? 0 : super.getAppendableLength(currentLength);
         }
 
+        @Override
+        public int getAppendableLength(int address, int currentLength) {
+            return this.disableAppends ? 0 : super.getAppendableLength(address, currentLength);
+        }
+
         @Override
         public int insert(BufferView data) {
+            return insert(data, super::insert);
+        }
+
+        @Override
+        public int insertAppendable(BufferView data) {
+            return insert(data, super::insertAppendable);
+        }
+
+        private int insert(BufferView data, Function<BufferView, Integer> insert) {
             Runnable beforeInsert = this.beforeInsert;
             if (beforeInsert != null) {
                 beforeInsert.run();
             }
-            int r = super.insert(data);
+            int r = insert.apply(data);
             Consumer<Integer> afterInsert = this.insertCallback;
             if (afterInsert != null) {
                 afterInsert.accept(r);
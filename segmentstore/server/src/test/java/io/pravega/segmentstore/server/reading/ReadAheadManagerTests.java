@@ -0,0 +1,154 @@
+/**
+ * Copyright (c) Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.server.reading;
+
+import io.pravega.segmentstore.server.SegmentStoreMetrics;
+import io.pravega.test.common.AssertExtensions;
+import lombok.Cleanup;
+import lombok.val;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Unit tests for the {@link ReadAheadManager} class.
+ */
+public class ReadAheadManagerTests {
+    private static final int CONTAINER_ID = 1;
+    private static final int MIN_LENGTH = 100;
+    private static final int MAX_LENGTH = 400;
+    private static final int READ_LENGTH = 10;
+    private static final long STORAGE_LENGTH = 100000;
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10);
+
+    /**
+     * Tests the detection of sequential readers and the growth of the prefetch window.
+     */
+    @Test
+    public void testSequentialReads() {
+        @Cleanup
+        val metrics = new SegmentStoreMetrics.ReadIndex(CONTAINER_ID);
+        val budget = new ReadAheadBudget(STORAGE_LENGTH, metrics);
+        val m = new ReadAheadManager(MIN_LENGTH, MAX_LENGTH, budget);
+
+        // The first read cannot be determined to be sequential.
+        Assert.assertNull(m.recordRead(0, READ_LENGTH, false, STORAGE_LENGTH));
+
+        // The second one can.
+        val r1 = m.recordRead(READ_LENGTH, READ_LENGTH, false, STORAGE_LENGTH);
+        checkRange(r1, 2 * READ_LENGTH, MIN_LENGTH);
+        Assert.assertEquals(MIN_LENGTH, budget.getUsedBytes());
+
+        // Nothing else should be prefetched until the reader is within half a window of the end of the prefetched data.
+        long offset = 2 * READ_LENGTH;
+        long prefetchEndOffset = r1.getOffset() + r1.getLength();
+        int expectedWindow = MIN_LENGTH;
+        int prefetchCount = 0;
+        while (prefetchCount < 5) {
+            val r = m.recordRead(offset, READ_LENGTH, true, STORAGE_LENGTH);
+            offset += READ_LENGTH;
+            if (prefetchEndOffset - offset > expectedWindow / 2) {
+                Assert.assertNull("Not expecting a prefetch at offset " + offset, r);
+            } else {
+                expectedWindow = Math.min(2 * expectedWindow, MAX_LENGTH);
+                checkRange(r, prefetchEndOffset, (int) (offset + expectedWindow - prefetchEndOffset));
+                prefetchEndOffset += r.getLength();
+                prefetchCount++;
+            }
+
+            Assert.assertEquals("Unexpected budget used at offset " + offset, prefetchEndOffset - offset, budget.getUsedBytes());
+        }
+
+        Assert.assertEquals("Expected window to be capped.", MAX_LENGTH, expectedWindow);
+
+        // A non-sequential read resets everything.
+        Assert.assertNull(m.recordRead(offset + 1000, READ_LENGTH, false, STORAGE_LENGTH));
+        Assert.assertEquals("Expected budget to be released.", 0, budget.getUsedBytes());
+        offset += 1000 + READ_LENGTH;
+        checkRange(m.recordRead(offset, READ_LENGTH, false, STORAGE_LENGTH), offset + READ_LENGTH, MIN_LENGTH);
+
+        // Closing releases everything.
+        m.close();
+        Assert.assertEquals("Expected budget to be released after closing.", 0, budget.getUsedBytes());
+        Assert.assertNull(m.recordRead(offset + READ_LENGTH, READ_LENGTH, false, STORAGE_LENGTH));
+    }
+
+    /**
+     * Tests the fact that nothing is prefetched beyond the Storage Length of the Segment.
+     */
+    @Test
+    public void testStorageLength() {
+        @Cleanup
+        val metrics = new SegmentStoreMetrics.ReadIndex(CONTAINER_ID);
+        val budget = new ReadAheadBudget(STORAGE_LENGTH, metrics);
+        val m = new ReadAheadManager(MIN_LENGTH, MAX_LENGTH, budget);
+        final long storageLength = 3 * READ_LENGTH;
+        m.recordRead(0, READ_LENGTH, false, storageLength);
+        checkRange(m.recordRead(READ_LENGTH, READ_LENGTH, false, storageLength), 2 * READ_LENGTH, READ_LENGTH);
+        Assert.assertNull(m.recordRead(2 * READ_LENGTH, READ_LENGTH, true, storageLength));
+        Assert.assertNull(m.recordRead(3 * READ_LENGTH, READ_LENGTH, false, storageLength));
+        Assert.assertEquals(0, budget.getUsedBytes());
+    }
+
+    /**
+     * Tests the fact that multiple instances share the same budget.
+     */
+    @Test
+    public void testBudget() {
+        @Cleanup
+        val metrics = new SegmentStoreMetrics.ReadIndex(CONTAINER_ID);
+        val budget = new ReadAheadBudget(MIN_LENGTH + MIN_LENGTH / 2, metrics);
+        val m1 = new ReadAheadManager(MIN_LENGTH, MAX_LENGTH, budget);
+        val m2 = new ReadAheadManager(MIN_LENGTH, MAX_LENGTH, budget);
+        val m3 = new ReadAheadManager(MIN_LENGTH, MAX_LENGTH, budget);
+        m1.recordRead(0, READ_LENGTH, false, STORAGE_LENGTH);
+        m2.recordRead(0, READ_LENGTH, false, STORAGE_LENGTH);
+        m3.recordRead(0, READ_LENGTH, false, STORAGE_LENGTH);
+        checkRange(m1.recordRead(READ_LENGTH, READ_LENGTH, false, STORAGE_LENGTH), 2 * READ_LENGTH, MIN_LENGTH);
+        checkRange(m2.recordRead(READ_LENGTH, READ_LENGTH, false, STORAGE_LENGTH), 2 * READ_LENGTH, MIN_LENGTH / 2);
+        Assert.assertNull("Not expecting a prefetch with an exhausted budget.", m3.recordRead(READ_LENGTH, READ_LENGTH, false, STORAGE_LENGTH));
+
+        m1.close();
+        checkRange(m3.recordRead(2 * READ_LENGTH, READ_LENGTH, false, STORAGE_LENGTH), 3 * READ_LENGTH, MIN_LENGTH);
+        m2.close();
+        m3.close();
+        Assert.assertEquals(0, budget.getUsedBytes());
+    }
+
+    /**
+     * Tests invalid constructor arguments.
+     */
+    @Test
+    public void testInvalidArguments() {
+        @Cleanup
+        val metrics = new SegmentStoreMetrics.ReadIndex(CONTAINER_ID);
+        val budget = new ReadAheadBudget(STORAGE_LENGTH, metrics);
+        AssertExtensions.assertThrows(
+                "Non-positive minLength was accepted.",
+                () -> new ReadAheadManager(0, MAX_LENGTH, budget),
+                ex -> ex instanceof IllegalArgumentException);
+        AssertExtensions.assertThrows(
+                "maxLength smaller than minLength was accepted.",
+                () -> new ReadAheadManager(MIN_LENGTH, MIN_LENGTH - 1, budget),
+                ex -> ex instanceof IllegalArgumentException);
+        AssertExtensions.assertThrows(
+                "Non-positive budget was accepted.",
+                () -> new ReadAheadBudget(0, metrics),
+                ex -> ex instanceof IllegalArgumentException);
+    }
+
+    private void checkRange(ReadAheadManager.Range range, long expectedOffset, int expectedLength) {
+        Assert.assertNotNull("Expected a prefetch.", range);
+        Assert.assertEquals("Unexpected prefetch offset.", expectedOffset, range.getOffset());
+        Assert.assertEquals("Unexpected prefetch length.", expectedLength, range.getLength());
+    }
+}
@@ -13,6 +13,7 @@ import io.pravega.common.hash.RandomFactory;
 import io.pravega.segmentstore.contracts.SegmentProperties;
 import io.pravega.segmentstore.contracts.StreamSegmentNotExistsException;
 import io.pravega.segmentstore.server.SegmentMetadata;
+import io.pravega.segmentstore.server.SegmentStoreMetrics;
 import io.pravega.segmentstore.server.containers.StreamSegmentMetadata;
 import io.pravega.segmentstore.storage.ReadOnlyStorage;
 import io.pravega.segmentstore.storage.SegmentHandle;
@@ -24,6 +25,7 @@ import io.pravega.test.common.IntentionalException;
 import io.pravega.test.common.ThreadPooledTestSuite;
 import java.io.ByteArrayInputStream;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Random;
 import java.util.concurrent.CancellationException;
@@ -47,6 +49,7 @@ public class StorageReadManagerTests extends ThreadPooledTestSuite {
     private static final int MAX_SEGMENT_LENGTH = MIN_SEGMENT_LENGTH * 100;
     private static final SegmentMetadata SEGMENT_METADATA = new StreamSegmentMetadata("Segment1", 0, 0);
     private static final Duration TIMEOUT = Duration.ofSeconds(30);
+    private static final SegmentStoreMetrics.ReadIndex METRICS = new SegmentStoreMetrics.ReadIndex(0);
     @Rule
     public Timeout globalTimeout = Timeout.seconds(TIMEOUT.getSeconds());
 
@@ -71,7 +74,7 @@ public class StorageReadManagerTests extends ThreadPooledTestSuite {
         storage.initialize(1);
         byte[] segmentData = populateSegment(storage);
         @Cleanup
-        StorageReadManager reader = new StorageReadManager(SEGMENT_METADATA, storage, executorService());
+        StorageReadManager reader = new StorageReadManager(SEGMENT_METADATA, storage, METRICS, executorService());
         HashMap<StorageReadManager.Request, CompletableFuture<StorageReadManager.Result>> requestCompletions = new HashMap<>();
         int readOffset = 0;
         while (readOffset < segmentData.length) {
@@ -108,7 +111,7 @@ public class StorageReadManagerTests extends ThreadPooledTestSuite {
         storage.initialize(1);
         byte[] segmentData = populateSegment(storage);
         @Cleanup
-        StorageReadManager reader = new StorageReadManager(SEGMENT_METADATA, storage, executorService());
+        StorageReadManager reader = new StorageReadManager(SEGMENT_METADATA, storage, METRICS, executorService());
 
         // Segment does not exist.
         AssertExtensions.assertThrows(
@@ -116,7 +119,7 @@ public class StorageReadManagerTests extends ThreadPooledTestSuite {
                 () -> {
                     SegmentMetadata sm = new StreamSegmentMetadata("foo", 0, 0);
                     @Cleanup
-                    StorageReadManager nonExistentReader = new StorageReadManager(sm, storage, executorService());
+                    StorageReadManager nonExistentReader = new StorageReadManager(sm, storage, METRICS, executorService());
                     sendRequest(nonExistentReader, 0, 1).join();
                 },
                 ex -> ex instanceof StreamSegmentNotExistsException);
@@ -158,7 +161,7 @@ public class StorageReadManagerTests extends ThreadPooledTestSuite {
         };
 
         @Cleanup
-        StorageReadManager reader = new StorageReadManager(SEGMENT_METADATA, storage, executorService());
+        StorageReadManager reader = new StorageReadManager(SEGMENT_METADATA, storage, METRICS, executorService());
 
         // Create some reads.
         CompletableFuture<StorageReadManager.Result> c1 = new CompletableFuture<>();
@@ -180,6 +183,65 @@ public class StorageReadManagerTests extends ThreadPooledTestSuite {
                 ex -> ex instanceof IntentionalException);
     }
 
+    /**
+     * Tests the ability to coalesce overlapping reads, so that the same range is never read from Storage concurrently.
+     */
+    @Test
+    public void testCoalescing() {
+        final Duration waitTimeout = Duration.ofSeconds(5);
+        TestStorage storage = new TestStorage();
+        val storageReads = new ArrayList<CompletableFuture<Integer>>();
+        storage.readImplementation = () -> {
+            val f = new CompletableFuture<Integer>();
+            synchronized (storageReads) {
+                storageReads.add(f);
+            }
+            return f;
+        };
+
+        @Cleanup
+        StorageReadManager reader = new StorageReadManager(SEGMENT_METADATA, storage, METRICS, executorService());
+
+        // 1. A read that is fully contained within a pending read should not be issued.
+        val c1 = new CompletableFuture<StorageReadManager.Result>();
+        val c2 = new CompletableFuture<StorageReadManager.Result>();
+        reader.execute(new StorageReadManager.Request(100, 100, c1::complete, c1::completeExceptionally, TIMEOUT));
+        val r2 = new StorageReadManager.Request(120, 50, c2::complete, c2::completeExceptionally, TIMEOUT);
+        reader.execute(r2);
+        Assert.assertEquals("Not expecting the contained request to be adjusted.", 50, r2.getLength());
+
+        // 2. A read that begins before a pending read and ends within it should be trimmed.
+        val c3 = new CompletableFuture<StorageReadManager.Result>();
+        val r3 = new StorageReadManager.Request(50, 100, c3::complete, c3::completeExceptionally, TIMEOUT);
+        reader.execute(r3);
+        Assert.assertEquals("Expected the request to end where the pending one begins.", 50, r3.getLength());
+
+        // 3. A read that begins within a pending read and ends after it should be trimmed and coalesced.
+        val c4 = new CompletableFuture<StorageReadManager.Result>();
+        val r4 = new StorageReadManager.Request(150, 100, c4::complete, c4::completeExceptionally, TIMEOUT);
+        reader.execute(r4);
+        Assert.assertEquals("Expected the request to end where the pending one ends.", 50, r4.getLength());
+
+        synchronized (storageReads) {
+            Assert.assertEquals("Unexpected number of Storage reads.", 2, storageReads.size());
+            storageReads.get(0).complete(100);
+            storageReads.get(1).complete(50);
+        }
+
+        val result1 = c1.join();
+        Assert.assertFalse(result1.isDerived());
+        Assert.assertEquals(100, result1.getData().getLength());
+        val result2 = c2.join();
+        Assert.assertTrue(result2.isDerived());
+        Assert.assertEquals(50, result2.getData().getLength());
+        val result3 = c3.join();
+        Assert.assertFalse(result3.isDerived());
+        Assert.assertEquals(50, result3.getData().getLength());
+        val result4 = c4.join();
+        Assert.assertTrue(result4.isDerived());
+        Assert.assertEquals(50, result4.getData().getLength());
+    }
+
     /**
      * Tests the ability to auto-cancel the requests when the StorageReadManager is closed.
      */
@@ -189,7 +251,7 @@ public class StorageReadManagerTests extends ThreadPooledTestSuite {
         TestStorage storage = new TestStorage();
         storage.readImplementation = CompletableFuture::new; // Just return a Future which we will never complete - simulates a high latency read.
         @Cleanup
-        StorageReadManager reader = new StorageReadManager(SEGMENT_METADATA, storage, executorService());
+        StorageReadManager reader = new StorageReadManager(SEGMENT_METADATA, storage, METRICS, executorService());
 
         // Create some reads.
         HashMap<StorageReadManager.Request, CompletableFuture<StorageReadManager.Result>> requestCompletions = new HashMap<>();
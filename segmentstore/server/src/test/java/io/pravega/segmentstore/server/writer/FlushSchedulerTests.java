@@ -0,0 +1,261 @@
+/**
+ * Copyright (c) Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.server.writer;
+
+import io.pravega.common.ObjectClosedException;
+import io.pravega.segmentstore.server.ManualTimer;
+import io.pravega.segmentstore.server.SegmentStoreMetrics;
+import io.pravega.segmentstore.server.WriterFlushResult;
+import io.pravega.test.common.AssertExtensions;
+import io.pravega.test.common.TestUtils;
+import io.pravega.test.common.ThreadPooledTestSuite;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import lombok.Cleanup;
+import lombok.val;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Unit tests for the FlushScheduler class.
+ */
+public class FlushSchedulerTests extends ThreadPooledTestSuite {
+    private static final int CONTAINER_ID = 1;
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(TIMEOUT.getSeconds());
+
+    @Override
+    protected int getThreadPoolSize() {
+        return 3;
+    }
+
+    /**
+     * Tests that no more than the configured number of flushes execute at the same time.
+     */
+    @Test
+    public void testMaxConcurrency() throws Exception {
+        final int maxConcurrency = 2;
+        final int count = 5;
+        @Cleanup
+        val metrics = new SegmentStoreMetrics.StorageWriter(CONTAINER_ID);
+        @Cleanup
+        val s = new FlushScheduler(CONTAINER_ID, maxConcurrency, 0, new ManualTimer(), metrics, executorService());
+        val flushes = Collections.synchronizedList(new ArrayList<CompletableFuture<WriterFlushResult>>());
+        val results = new ArrayList<CompletableFuture<WriterFlushResult>>();
+        for (int i = 0; i < count; i++) {
+            results.add(s.schedule(FlushScheduler.Priority.Normal, i, 0, () -> {
+                val f = new CompletableFuture<WriterFlushResult>();
+                flushes.add(f);
+                return f;
+            }));
+        }
+
+        Assert.assertEquals("Unexpected number of flushes started.", maxConcurrency, flushes.size());
+        Assert.assertEquals(maxConcurrency, s.getRunningCount());
+        Assert.assertEquals(count - maxConcurrency, s.getQueueSize(FlushScheduler.Priority.Normal));
+
+        // Complete the flushes one by one and verify that the queued ones are started as the others complete.
+        for (int i = 0; i < count; i++) {
+            flushes.get(i).complete(new WriterFlushResult().withFlushedBytes(i));
+            val result = results.get(i).get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+            Assert.assertEquals("Unexpected result.", i, result.getFlushedBytes());
+            int expectedStarted = Math.min(count, i + 1 + maxConcurrency);
+            TestUtils.await(() -> flushes.size() == expectedStarted, 5, TIMEOUT.toMillis());
+            Assert.assertTrue("Too many concurrent flushes.", s.getRunningCount() <= maxConcurrency);
+        }
+
+        TestUtils.await(() -> s.getRunningCount() == 0, 5, TIMEOUT.toMillis());
+    }
+
+    /**
+     * Tests that flushes are executed in order of their Priority and, within the same Priority, their sort key.
+     */
+    @Test
+    public void testPriorityOrder() throws Exception {
+        @Cleanup
+        val metrics = new SegmentStoreMetrics.StorageWriter(CONTAINER_ID);
+        @Cleanup
+        val s = new FlushScheduler(CONTAINER_ID, 1, 0, new ManualTimer(), metrics, executorService());
+
+        // Block the scheduler so that everything else gets queued up.
+        val blocker = new CompletableFuture<WriterFlushResult>();
+        s.schedule(FlushScheduler.Priority.Normal, 0, 0, () -> blocker);
+
+        val order = Collections.synchronizedList(new ArrayList<String>());
+        val results = new ArrayList<CompletableFuture<WriterFlushResult>>();
+        val toSchedule = Arrays.asList(
+                new Object[]{FlushScheduler.Priority.Normal, 5L, "N5"},
+                new Object[]{FlushScheduler.Priority.High, 10L, "H10"},
+                new Object[]{FlushScheduler.Priority.Critical, 20L, "C20"},
+                new Object[]{FlushScheduler.Priority.Normal, 1L, "N1"},
+                new Object[]{FlushScheduler.Priority.Critical, 3L, "C3"});
+        for (Object[] e : toSchedule) {
+            results.add(s.schedule((FlushScheduler.Priority) e[0], (long) e[1], 0, () -> {
+                order.add((String) e[2]);
+                return CompletableFuture.completedFuture(new WriterFlushResult());
+            }));
+        }
+
+        Assert.assertEquals(2, s.getQueueSize(FlushScheduler.Priority.Critical));
+        Assert.assertEquals(1, s.getQueueSize(FlushScheduler.Priority.High));
+        Assert.assertEquals(2, s.getQueueSize(FlushScheduler.Priority.Normal));
+        Assert.assertTrue("Not expecting any queued flush to be started.", order.isEmpty());
+
+        blocker.complete(new WriterFlushResult());
+        CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        Assert.assertEquals("Unexpected execution order.", Arrays.asList("C3", "C20", "H10", "N1", "N5"), order);
+    }
+
+    /**
+     * Tests that flushes are held back once the bandwidth limit has been reached, until the deficit has been repaid.
+     */
+    @Test
+    public void testMaxBandwidth() throws Exception {
+        final long maxBytesPerSecond = 100;
+        val timer = new ManualTimer();
+        @Cleanup
+        val metrics = new SegmentStoreMetrics.StorageWriter(CONTAINER_ID);
+        @Cleanup
+        val s = new FlushScheduler(CONTAINER_ID, 10, maxBytesPerSecond, timer, metrics, executorService());
+
+        // First flush is estimated to use up half the budget, but it actually uses up all of it and then some more.
+        s.schedule(FlushScheduler.Priority.Normal, 0, 50,
+                () -> CompletableFuture.completedFuture(new WriterFlushResult().withFlushedBytes(60).withMergedBytes(90)))
+         .get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+
+        // Second flush must wait.
+        val started = new CompletableFuture<Void>();
+        val result = s.schedule(FlushScheduler.Priority.Critical, 0, 0, () -> {
+            started.complete(null);
+            return CompletableFuture.completedFuture(new WriterFlushResult());
+        });
+        Assert.assertFalse("Not expecting the flush to be started while the bandwidth limit is exceeded.", started.isDone());
+        Assert.assertEquals(1, s.getQueueSize(FlushScheduler.Priority.Critical));
+
+        // Not enough time has passed to repay the deficit.
+        timer.setElapsedMillis(TimeUnit.NANOSECONDS.toMillis(FlushScheduler.MAX_BURST_NANOS) / 4);
+        Thread.sleep(TimeUnit.NANOSECONDS.toMillis(FlushScheduler.MIN_RESUME_DELAY_NANOS) * 3);
+        Assert.assertFalse("Not expecting the flush to be started before the deficit is repaid.", started.isDone());
+
+        // Move on past the deficit; the flush should be started when the scheduler next checks.
+        timer.setElapsedMillis(TimeUnit.NANOSECONDS.toMillis(FlushScheduler.MAX_BURST_NANOS) / 2 + 1);
+        result.get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        Assert.assertTrue(started.isDone());
+        Assert.assertEquals(0, s.getQueueSize(FlushScheduler.Priority.Critical));
+    }
+
+    /**
+     * Tests that many large, concurrently executing flushes do not exceed the bandwidth limit over time, even if each
+     * of them is larger than what may be flushed in a second.
+     */
+    @Test
+    public void testSustainedBandwidth() throws Exception {
+        final long maxBytesPerSecond = 1000;
+        final long flushSize = 1500;
+        final int count = 20;
+        final long stepMillis = 500;
+        val timer = new ManualTimer();
+        @Cleanup
+        val metrics = new SegmentStoreMetrics.StorageWriter(CONTAINER_ID);
+        @Cleanup
+        val s = new FlushScheduler(CONTAINER_ID, count, maxBytesPerSecond, timer, metrics, executorService());
+
+        // Each flush records when it was started, and stays running until we complete it.
+        val startTimes = Collections.synchronizedList(new ArrayList<Long>());
+        val running = Collections.synchronizedList(new ArrayList<CompletableFuture<WriterFlushResult>>());
+        val results = new ArrayList<CompletableFuture<WriterFlushResult>>();
+        for (int i = 0; i < count; i++) {
+            results.add(s.schedule(FlushScheduler.Priority.Normal, i, flushSize, () -> {
+                startTimes.add(timer.getElapsedNanos());
+                val f = new CompletableFuture<WriterFlushResult>();
+                running.add(f);
+                return f;
+            }));
+        }
+
+        val allDone = CompletableFuture.allOf(results.toArray(new CompletableFuture[0]));
+        long elapsedMillis = 0;
+        while (!allDone.isDone()) {
+            elapsedMillis += stepMillis;
+            timer.setElapsedMillis(elapsedMillis);
+            synchronized (running) {
+                running.forEach(f -> f.complete(new WriterFlushResult().withFlushedBytes(flushSize)));
+                running.clear();
+            }
+
+            Thread.sleep(TimeUnit.NANOSECONDS.toMillis(FlushScheduler.MIN_RESUME_DELAY_NANOS) * 2);
+        }
+
+        allDone.get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        Assert.assertEquals("Unexpected number of flushes started.", count, startTimes.size());
+
+        // At any point in time, we may not have started more than what the rate allows, plus the initial burst, plus
+        // the one flush that took the bucket into deficit.
+        Collections.sort(startTimes);
+        for (int i = 0; i < startTimes.size(); i++) {
+            long startedBytes = (i + 1) * flushSize;
+            long allowedBytes = (startTimes.get(i) + FlushScheduler.MAX_BURST_NANOS) * maxBytesPerSecond / TimeUnit.SECONDS.toNanos(1)
+                    + flushSize;
+            AssertExtensions.assertLessThanOrEqual("Bandwidth limit exceeded.", allowedBytes, startedBytes);
+        }
+
+        // Sanity check: the limit must have held all of them back for most of the time they would need at that rate.
+        long lastStartMillis = TimeUnit.NANOSECONDS.toMillis(startTimes.get(startTimes.size() - 1));
+        long minMillis = TimeUnit.SECONDS.toMillis((count - 1) * flushSize / maxBytesPerSecond)
+                - TimeUnit.NANOSECONDS.toMillis(FlushScheduler.MAX_BURST_NANOS);
+        AssertExtensions.assertGreaterThanOrEqual("Flushes were started too early.", minMillis, lastStartMillis);
+    }
+
+    /**
+     * Tests the close() method.
+     */
+    @Test
+    public void testClose() {
+        @Cleanup
+        val metrics = new SegmentStoreMetrics.StorageWriter(CONTAINER_ID);
+        val s = new FlushScheduler(CONTAINER_ID, 1, 0, new ManualTimer(), metrics, executorService());
+        val blocker = new CompletableFuture<WriterFlushResult>();
+        s.schedule(FlushScheduler.Priority.Normal, 0, 0, () -> blocker);
+        val queued = s.schedule(FlushScheduler.Priority.Critical, 0, 0, () -> CompletableFuture.completedFuture(new WriterFlushResult()));
+        s.close();
+
+        AssertExtensions.assertSuppliedFutureThrows(
+                "Queued flush was not failed when closing.",
+                () -> queued,
+                ex -> ex instanceof ObjectClosedException);
+        AssertExtensions.assertThrows(
+                "schedule() worked after close.",
+                () -> s.schedule(FlushScheduler.Priority.Normal, 0, 0, () -> CompletableFuture.completedFuture(new WriterFlushResult())),
+                ex -> ex instanceof ObjectClosedException);
+    }
+
+    /**
+     * Tests the getPriority() method.
+     */
+    @Test
+    public void testGetPriority() {
+        final long truncationSeqNo = 100;
+        final long lastReadSeqNo = 200;
+        Assert.assertEquals(FlushScheduler.Priority.Normal, FlushScheduler.getPriority(-1, truncationSeqNo, lastReadSeqNo));
+        Assert.assertEquals(FlushScheduler.Priority.Critical, FlushScheduler.getPriority(100, truncationSeqNo, lastReadSeqNo));
+        Assert.assertEquals(FlushScheduler.Priority.High, FlushScheduler.getPriority(101, truncationSeqNo, lastReadSeqNo));
+        Assert.assertEquals(FlushScheduler.Priority.High, FlushScheduler.getPriority(150, truncationSeqNo, lastReadSeqNo));
+        Assert.assertEquals(FlushScheduler.Priority.Normal, FlushScheduler.getPriority(151, truncationSeqNo, lastReadSeqNo));
+        Assert.assertEquals(FlushScheduler.Priority.Normal, FlushScheduler.getPriority(200, truncationSeqNo, lastReadSeqNo));
+    }
+}
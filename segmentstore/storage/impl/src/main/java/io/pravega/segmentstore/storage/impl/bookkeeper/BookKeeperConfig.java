@@ -38,6 +38,8 @@ public class BookKeeperConfig {
     public static final Property<Integer> BK_WRITE_TIMEOUT = Property.named("write.timeout.milliseconds", 60000, "bkWriteTimeoutMillis");
     public static final Property<Integer> BK_READ_TIMEOUT = Property.named("read.timeout.milliseconds", 30000, "bkReadTimeoutMillis");
     public static final Property<Integer> BK_READ_BATCH_SIZE = Property.named("read.batch.size", 64, "readBatchSize");
+    public static final Property<Integer> BK_READ_AHEAD_BATCH_COUNT = Property.named("read.ahead.batch.count", 4);
+    public static final Property<Integer> BK_READ_AHEAD_MAX_BYTES = Property.named("read.ahead.bytes.max", 64 * 1024 * 1024);
     public static final Property<Integer> MAX_OUTSTANDING_BYTES = Property.named("write.outstanding.bytes.max", 256 * 1024 * 1024, "maxOutstandingBytes");
     public static final Property<Integer> BK_LEDGER_MAX_SIZE = Property.named("ledger.size.max", 1024 * 1024 * 1024, "bkLedgerMaxSize");
     public static final Property<String> BK_PASSWORD = Property.named("connect.security.auth.pwd", "", "bkPass");
@@ -140,6 +142,19 @@ public class BookKeeperConfig {
     @Getter
     private final int bkReadBatchSize;
 
+    /**
+     * The maximum number of batch reads (of {@link #getBkReadBatchSize()} entries each) that can be in flight at once
+     * while reading from a BookKeeperLog. If 0, batches are read one at a time, on demand.
+     */
+    @Getter
+    private final int bkReadAheadBatchCount;
+
+    /**
+     * The maximum number of bytes that can be read ahead (and not yet consumed) while reading from a BookKeeperLog.
+     */
+    @Getter
+    private final int bkReadAheadMaxBytes;
+
     /**
      * The maximum number of bytes that can be outstanding per BookKeeperLog at any given time. This value should be used
      * for throttling purposes.
@@ -215,6 +230,18 @@ public class BookKeeperConfig {
                     BK_READ_BATCH_SIZE, this.bkReadBatchSize));
         }
 
+        this.bkReadAheadBatchCount = properties.getInt(BK_READ_AHEAD_BATCH_COUNT);
+        if (this.bkReadAheadBatchCount < 0) {
+            throw new InvalidPropertyValueException(String.format("Property %s (%d) must be a non-negative integer.",
+                    BK_READ_AHEAD_BATCH_COUNT, this.bkReadAheadBatchCount));
+        }
+
+        this.bkReadAheadMaxBytes = properties.getInt(BK_READ_AHEAD_MAX_BYTES);
+        if (this.bkReadAheadMaxBytes < 1) {
+            throw new InvalidPropertyValueException(String.format("Property %s (%d) must be a positive integer.",
+                    BK_READ_AHEAD_MAX_BYTES, this.bkReadAheadMaxBytes));
+        }
+
         this.maxOutstandingBytes = properties.getInt(MAX_OUTSTANDING_BYTES);
         this.bkLedgerMaxSize = properties.getInt(BK_LEDGER_MAX_SIZE);
         this.bkPassword = properties.get(BK_PASSWORD).getBytes(StandardCharsets.UTF_8);
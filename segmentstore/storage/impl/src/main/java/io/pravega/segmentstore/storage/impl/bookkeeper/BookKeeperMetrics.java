@@ -70,4 +70,27 @@ final class BookKeeperMetrics {
             DYNAMIC_LOGGER.incCounterValue(MetricsNames.BK_WRITE_BYTES, length);
         }
     }
+
+    /**
+     * LogReader-specific (i.e. per Container) Metrics.
+     */
+    final static class LogReader implements AutoCloseable {
+        private final OpStatsLogger readLatency;
+        private final String[] containerTag;
+
+        LogReader(int containerId) {
+            this.containerTag = containerTag(containerId);
+            this.readLatency = STATS_LOGGER.createStats(MetricsNames.BK_READ_LATENCY, this.containerTag);
+        }
+
+        @Override
+        public void close() {
+            this.readLatency.close();
+        }
+
+        void readCompleted(int length, Duration elapsed) {
+            this.readLatency.reportSuccessEvent(elapsed);
+            DYNAMIC_LOGGER.incCounterValue(MetricsNames.BK_READ_BYTES, length, this.containerTag);
+        }
+    }
 }
@@ -19,6 +19,8 @@ import java.nio.charset.Charset;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.function.Function;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
@@ -141,6 +143,33 @@ final class Ledgers {
         }
     }
 
+    /**
+     * Asynchronously opens a ledger for reading.
+     *
+     * @param ledgerId   The Id of the Ledger to open.
+     * @param fence      If true, the Ledger will be opened with recovery, which also fences it out (see {@link #openFence}).
+     *                   If false, the Ledger will be opened without fencing (see {@link #openRead}).
+     * @param bookKeeper A references to the BookKeeper client to use.
+     * @param config     Configuration to use.
+     * @return A CompletableFuture that will be completed with a ReadHandle for the newly opened ledger. If the operation
+     * failed, the Future will be failed with a {@link DurableDataLogException} wrapping the causing exception.
+     */
+    static CompletableFuture<ReadHandle> openAsync(long ledgerId, boolean fence, BookKeeper bookKeeper, BookKeeperConfig config) {
+        return bookKeeper
+                .newOpenLedgerOp()
+                .withLedgerId(ledgerId)
+                .withPassword(config.getBKPassword())
+                .withRecovery(fence)
+                .execute()
+                .handle((handle, ex) -> {
+                    if (ex != null) {
+                        throw new CompletionException(new DurableDataLogException(String.format("Unable to open-%s ledger %d.",
+                                fence ? "fence" : "read", ledgerId), BK_EXCEPTION_HANDLER.apply(Exceptions.unwrap(ex))));
+                    }
+                    return handle;
+                });
+    }
+
     /**
      * Reliably retrieves the LastAddConfirmed for the Ledger with given LedgerId, by opening the Ledger in fencing mode
      * and getting the value. NOTE: this open-fences the Ledger which will effectively stop any writing action on it.
@@ -13,16 +13,23 @@ import com.google.common.base.Preconditions;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufInputStream;
 import io.pravega.common.Exceptions;
+import io.pravega.common.Timer;
 import io.pravega.common.util.BufferedIterator;
 import io.pravega.common.util.CloseableIterator;
 import io.pravega.segmentstore.storage.DataLogCorruptedException;
 import io.pravega.segmentstore.storage.DurableDataLog;
 import io.pravega.segmentstore.storage.DurableDataLogException;
 import java.io.InputStream;
+import java.util.ArrayDeque;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.annotation.concurrent.NotThreadSafe;
 import lombok.Getter;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.apache.bookkeeper.client.api.BKException;
@@ -33,9 +40,15 @@ import org.apache.bookkeeper.client.api.ReadHandle;
 import lombok.NonNull;
 import lombok.SneakyThrows;
 import org.apache.bookkeeper.client.api.Handle;
+import org.apache.bookkeeper.common.concurrent.FutureUtils;
 
 /**
  * Performs read from BookKeeper Logs.
+ *
+ * If read-ahead is enabled ({@link BookKeeperConfig#getBkReadAheadBatchCount()} is positive), multiple batch reads are kept
+ * in flight at any given time (subject to {@link BookKeeperConfig#getBkReadAheadMaxBytes()}), and the next Ledger is opened
+ * and its first entries are fetched while the current Ledger is being drained. Otherwise entries are fetched one batch at
+ * a time, only when needed.
  */
 @Slf4j
 @NotThreadSafe
@@ -47,7 +60,10 @@ class LogReader implements CloseableIterator<DurableDataLog.ReadItem, DurableDat
     private final LogMetadata metadata;
     private final AtomicBoolean closed;
     private final BookKeeperConfig config;
+    private final BookKeeperMetrics.LogReader metrics;
+    private final AtomicLong readAheadBytes;
     private ReadLedger currentLedger;
+    private NextLedger nextLedger;
 
     //endregion
 
@@ -67,6 +83,8 @@ class LogReader implements CloseableIterator<DurableDataLog.ReadItem, DurableDat
         this.bookKeeper = Preconditions.checkNotNull(bookKeeper, "bookKeeper");
         this.config = Preconditions.checkNotNull(config, "config");
         this.closed = new AtomicBoolean();
+        this.metrics = new BookKeeperMetrics.LogReader(logId);
+        this.readAheadBytes = new AtomicLong();
     }
 
     //endregion
@@ -80,6 +98,13 @@ class LogReader implements CloseableIterator<DurableDataLog.ReadItem, DurableDat
                 this.currentLedger.close();
                 this.currentLedger = null;
             }
+
+            if (this.nextLedger != null) {
+                this.nextLedger.close();
+                this.nextLedger = null;
+            }
+
+            this.metrics.close();
         }
     }
 
@@ -109,7 +134,9 @@ class LogReader implements CloseableIterator<DurableDataLog.ReadItem, DurableDat
             return null;
         }
 
-        return wrapItem(this.currentLedger.reader.next(), this.currentLedger.metadata);
+        val result = wrapItem(this.currentLedger.reader.next(), this.currentLedger.metadata);
+        prefetchNextLedger();
+        return result;
     }
 
     private void openNextLedger(LedgerAddress address) throws DurableDataLogException {
@@ -119,13 +146,25 @@ class LogReader implements CloseableIterator<DurableDataLog.ReadItem, DurableDat
             return;
         }
 
+        NextLedger prefetched = this.nextLedger;
+        this.nextLedger = null;
+        if (prefetched != null) {
+            if (prefetched.address.equals(address)) {
+                // We have already opened this ledger (and possibly began reading from it).
+                setCurrentLedger(prefetched.join());
+                return;
+            }
+
+            // We prefetched the wrong ledger (i.e., the metadata has changed in the meantime). Discard it.
+            prefetched.close();
+        }
+
         LedgerMetadata metadata = this.metadata.getLedger(address.getLedgerId());
         assert metadata != null : "no LedgerMetadata could be found with valid LedgerAddress " + address;
-        val allMetadatas = this.metadata.getLedgers();
 
         // Open the ledger.
         ReadHandle ledger;
-        if (allMetadatas.size() == 0 || metadata == allMetadatas.get(allMetadatas.size() - 1)) {
+        if (isLastLedger(metadata)) {
             // This is our last ledger (the active one); we need to make sure open it without recovery since otherwise we
             // we would fence ourselves out.
             ledger = Ledgers.openRead(metadata.getLedgerId(), this.bookKeeper, this.config);
@@ -136,29 +175,99 @@ class LogReader implements CloseableIterator<DurableDataLog.ReadItem, DurableDat
         }
 
         checkLogIdProperty(ledger);
+        try {
+            setCurrentLedger(createReadLedger(metadata, ledger, address));
+        } catch (DurableDataLogException ex) {
+            close();
+            throw ex;
+        }
+    }
+
+    private void setCurrentLedger(ReadLedger ledger) {
+        ReadLedger previousLedger = this.currentLedger;
+        this.currentLedger = ledger;
+        if (previousLedger != null) {
+            // Close previous ledger handle.
+            previousLedger.close();
+        }
+    }
+
+    private ReadLedger createReadLedger(LedgerMetadata metadata, ReadHandle ledger, LedgerAddress address) throws DurableDataLogException {
         long lastEntryId = ledger.getLastAddConfirmed();
         if (lastEntryId < address.getEntryId()) {
             // This ledger is empty.
             Ledgers.close(ledger);
-            this.currentLedger = ReadLedger.empty(metadata, ledger);
-            return;
+            return ReadLedger.empty(metadata, ledger);
         }
 
-        ReadLedger previousLedger;
         try {
-            previousLedger = this.currentLedger;
-            this.currentLedger = new ReadLedger(metadata, ledger, address.getEntryId(), lastEntryId, this.config.getBkReadBatchSize());
-            if (previousLedger != null) {
-                // Close previous ledger handle.
-                previousLedger.close();
+            Iterator<LedgerEntry> reader;
+            if (this.config.getBkReadAheadBatchCount() > 0) {
+                reader = new ReadAheadIterator(ledger, address.getEntryId(), lastEntryId);
+            } else {
+                reader = null;
             }
+
+            return new ReadLedger(metadata, ledger, reader, address.getEntryId(), lastEntryId, this.config.getBkReadBatchSize(), this.metrics);
         } catch (Exception ex) {
             Ledgers.close(ledger);
-            close();
             throw new DurableDataLogException("Error while reading from BookKeeper.", ex);
         }
     }
 
+    /**
+     * Begins opening the Ledger following the current one (and reading its first entries), if read-ahead is enabled and
+     * all entries from the current Ledger have already been requested.
+     */
+    private void prefetchNextLedger() {
+        if (this.nextLedger != null
+                || this.config.getBkReadAheadBatchCount() == 0
+                || !this.currentLedger.isFullyRequested()
+                || this.readAheadBytes.get() >= this.config.getBkReadAheadMaxBytes()) {
+            return;
+        }
+
+        long lastEntryId = this.currentLedger.handle.getLastAddConfirmed();
+        val address = this.metadata.getNextAddress(new LedgerAddress(this.currentLedger.metadata, lastEntryId), lastEntryId);
+        if (address == null) {
+            // Nothing to prefetch.
+            return;
+        }
+
+        LedgerMetadata metadata = this.metadata.getLedger(address.getLedgerId());
+        assert metadata != null : "no LedgerMetadata could be found with valid LedgerAddress " + address;
+        val ledger = Ledgers.openAsync(metadata.getLedgerId(), !isLastLedger(metadata), this.bookKeeper, this.config)
+                .thenApply(handle -> {
+                    try {
+                        checkLogIdProperty(handle);
+                    } catch (DurableDataLogException ex) {
+                        closeQuietly(handle);
+                        throw new CompletionException(ex);
+                    }
+
+                    try {
+                        return createReadLedger(metadata, handle, address);
+                    } catch (DurableDataLogException ex) {
+                        throw new CompletionException(ex);
+                    }
+                });
+        log.debug("Log[{}]: Prefetching {}.", this.logId, address);
+        this.nextLedger = new NextLedger(address, ledger);
+    }
+
+    private void closeQuietly(ReadHandle handle) {
+        try {
+            Ledgers.close(handle);
+        } catch (DurableDataLogException bkEx) {
+            log.error("Unable to close ReadHandle for Ledger {}.", handle.getId(), bkEx);
+        }
+    }
+
+    private boolean isLastLedger(LedgerMetadata metadata) {
+        val allMetadatas = this.metadata.getLedgers();
+        return allMetadatas.size() == 0 || metadata == allMetadatas.get(allMetadatas.size() - 1);
+    }
+
     private void checkLogIdProperty(Handle handle) throws DataLogCorruptedException {
         int actualLogId = Ledgers.getBookKeeperLogId(handle);
         if (actualLogId != Ledgers.NO_LOG_ID && actualLogId != this.logId) {
@@ -198,6 +307,16 @@ class LogReader implements CloseableIterator<DurableDataLog.ReadItem, DurableDat
                content.readableBytes(), metadata);
     }
 
+    private static int getLength(LedgerEntries entries) {
+        int length = 0;
+        val iterator = entries.iterator();
+        while (iterator.hasNext()) {
+            length += iterator.next().getLength();
+        }
+
+        return length;
+    }
+
     //endregion
 
     //region ReadLedger
@@ -205,16 +324,32 @@ class LogReader implements CloseableIterator<DurableDataLog.ReadItem, DurableDat
     private static class ReadLedger {
         final LedgerMetadata metadata;
         final ReadHandle handle;
-        final BufferedIterator<LedgerEntry> reader;
+        final Iterator<LedgerEntry> reader;
         final AtomicBoolean closed = new AtomicBoolean(false);
+        final BookKeeperMetrics.LogReader metrics;
         volatile LedgerEntries currentLedgerEntries;
 
-        public ReadLedger(LedgerMetadata metadata, ReadHandle handle, long firstEntryId, long lastEntryId,
-                int batchSize) {
+        /**
+         * Creates a new instance of the ReadLedger class.
+         *
+         * @param metadata     The Ledger's metadata.
+         * @param handle       The Ledger's ReadHandle.
+         * @param readAhead    A {@link ReadAheadIterator} to read entries with. If null, entries will be read one batch
+         *                     at a time, on demand.
+         * @param firstEntryId The first entry to read.
+         * @param lastEntryId  The last entry to read.
+         * @param batchSize    The number of entries to read at once.
+         * @param metrics      Metrics to report reads to.
+         */
+        public ReadLedger(LedgerMetadata metadata, ReadHandle handle, Iterator<LedgerEntry> readAhead, long firstEntryId,
+                          long lastEntryId, int batchSize, BookKeeperMetrics.LogReader metrics) {
             this.metadata = metadata;
             this.handle = handle;
+            this.metrics = metrics;
             if (lastEntryId >= firstEntryId) {
-                this.reader = new BufferedIterator<>(this::readRange, firstEntryId, lastEntryId, batchSize);
+                this.reader = readAhead != null
+                        ? readAhead
+                        : new BufferedIterator<>(this::readRange, firstEntryId, lastEntryId, batchSize);
             } else {
                 // Empty ledger;
                 this.reader = null;
@@ -225,6 +360,14 @@ class LogReader implements CloseableIterator<DurableDataLog.ReadItem, DurableDat
             return this.reader == null;
         }
 
+        /**
+         * Gets a value indicating whether all entries in this Ledger have been requested from BookKeeper (either read or
+         * being read).
+         */
+        boolean isFullyRequested() {
+            return this.reader instanceof ReadAheadIterator && ((ReadAheadIterator) this.reader).isFullyRequested();
+        }
+
         private void close() {
             // Release memory held by BookKeeper internals.
             // we have to prevent a double free
@@ -232,6 +375,9 @@ class LogReader implements CloseableIterator<DurableDataLog.ReadItem, DurableDat
                 if (currentLedgerEntries != null) {
                     currentLedgerEntries.close();
                 }
+                if (this.reader instanceof ReadAheadIterator) {
+                    ((ReadAheadIterator) this.reader).close();
+                }
                 // closing a ReadHandle is mostly a no-op, it is not expected
                 // to really fail
                 try {
@@ -247,12 +393,14 @@ class LogReader implements CloseableIterator<DurableDataLog.ReadItem, DurableDat
             if (currentLedgerEntries != null) {
                 currentLedgerEntries.close();
             }
+            Timer timer = new Timer();
             currentLedgerEntries = Exceptions.handleInterruptedCall(() -> this.handle.read(fromEntryId, toEntryId));
+            this.metrics.readCompleted(getLength(currentLedgerEntries), timer.getElapsed());
             return currentLedgerEntries.iterator();
         }
 
         static ReadLedger empty(@NonNull LedgerMetadata metadata, @NonNull ReadHandle handle) {
-            return new ReadLedger(metadata, handle, Long.MAX_VALUE, Long.MIN_VALUE, 1);
+            return new ReadLedger(metadata, handle, null, Long.MAX_VALUE, Long.MIN_VALUE, 1, null);
         }
 
         boolean canRead() {
@@ -261,5 +409,164 @@ class LogReader implements CloseableIterator<DurableDataLog.ReadItem, DurableDat
     }
 
     //endregion
-}
 
+    //region ReadAheadIterator
+
+    /**
+     * Iterates through the entries of a Ledger while keeping up to {@link BookKeeperConfig#getBkReadAheadBatchCount()}
+     * batch reads in flight, as long as the total size of all read, but not yet consumed, entries (across all Ledgers of
+     * this LogReader) does not exceed {@link BookKeeperConfig#getBkReadAheadMaxBytes()}.
+     *
+     * As with the on-demand reads, the entries in a batch are released as soon as an entry from the next batch is
+     * requested.
+     */
+    private class ReadAheadIterator implements Iterator<LedgerEntry> {
+        private final ReadHandle handle;
+        private final long lastEntryId;
+        private final ArrayDeque<EntryBatch> batches;
+        private long nextEntryId;
+        private EntryBatch currentBatch;
+        private Iterator<LedgerEntry> currentEntries;
+
+        ReadAheadIterator(ReadHandle handle, long firstEntryId, long lastEntryId) {
+            this.handle = handle;
+            this.lastEntryId = lastEntryId;
+            this.nextEntryId = firstEntryId;
+            this.batches = new ArrayDeque<>();
+            requestBatches();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return (this.currentEntries != null && this.currentEntries.hasNext()) || !this.batches.isEmpty() || !isFullyRequested();
+        }
+
+        @Override
+        @SneakyThrows(BKException.class)
+        public LedgerEntry next() {
+            if (this.currentEntries == null || !this.currentEntries.hasNext()) {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+
+                // We are done with the current batch. Release it and move on to the next one.
+                releaseCurrentBatch();
+                if (this.batches.isEmpty()) {
+                    requestBatch();
+                }
+
+                this.currentBatch = this.batches.removeFirst();
+                this.currentEntries = this.currentBatch.get().iterator();
+                Preconditions.checkState(this.currentEntries.hasNext(), "BookKeeper returned an empty batch.");
+            }
+
+            LedgerEntry result = this.currentEntries.next();
+            requestBatches();
+            return result;
+        }
+
+        boolean isFullyRequested() {
+            return this.nextEntryId > this.lastEntryId;
+        }
+
+        void close() {
+            releaseCurrentBatch();
+            this.batches.forEach(EntryBatch::release);
+            this.batches.clear();
+            this.nextEntryId = this.lastEntryId + 1;
+        }
+
+        private void releaseCurrentBatch() {
+            if (this.currentBatch != null) {
+                this.currentBatch.release();
+                this.currentBatch = null;
+                this.currentEntries = null;
+            }
+        }
+
+        private void requestBatches() {
+            while (!isFullyRequested()
+                    && this.batches.size() < LogReader.this.config.getBkReadAheadBatchCount()
+                    && LogReader.this.readAheadBytes.get() < LogReader.this.config.getBkReadAheadMaxBytes()) {
+                requestBatch();
+            }
+        }
+
+        private void requestBatch() {
+            long fromEntryId = this.nextEntryId;
+            long toEntryId = Math.min(fromEntryId + LogReader.this.config.getBkReadBatchSize() - 1, this.lastEntryId);
+            this.nextEntryId = toEntryId + 1;
+            this.batches.addLast(new EntryBatch(this.handle, fromEntryId, toEntryId));
+        }
+    }
+
+    /**
+     * A batch of entries that is being read (or has been read) from BookKeeper.
+     */
+    private class EntryBatch {
+        private final CompletableFuture<LedgerEntries> entries;
+        private volatile int length;
+
+        EntryBatch(ReadHandle handle, long fromEntryId, long toEntryId) {
+            Timer timer = new Timer();
+            this.entries = handle.readAsync(fromEntryId, toEntryId)
+                                 .thenApply(entries -> {
+                                     this.length = getLength(entries);
+                                     LogReader.this.readAheadBytes.addAndGet(this.length);
+                                     LogReader.this.metrics.readCompleted(this.length, timer.getElapsed());
+                                     return entries;
+                                 });
+        }
+
+        /**
+         * Waits for the entries to be read.
+         */
+        LedgerEntries get() throws BKException {
+            return Exceptions.handleInterruptedCall(() -> FutureUtils.result(this.entries, BKException.HANDLER));
+        }
+
+        /**
+         * Releases the entries (now or as soon as they are read).
+         */
+        void release() {
+            this.entries.whenComplete((entries, ex) -> {
+                if (entries != null) {
+                    LogReader.this.readAheadBytes.addAndGet(-this.length);
+                    entries.close();
+                }
+            });
+        }
+    }
+
+    //endregion
+
+    //region NextLedger
+
+    /**
+     * A Ledger that is being opened (and read from) ahead of time.
+     */
+    @RequiredArgsConstructor
+    private static class NextLedger {
+        final LedgerAddress address;
+        final CompletableFuture<ReadLedger> ledger;
+
+        ReadLedger join() throws DurableDataLogException {
+            try {
+                return Exceptions.handleInterruptedCall(this.ledger::get);
+            } catch (Exception ex) {
+                Throwable cause = Exceptions.unwrap(ex);
+                if (cause instanceof DurableDataLogException) {
+                    throw (DurableDataLogException) cause;
+                }
+
+                throw new DurableDataLogException("Error while reading from BookKeeper.", cause);
+            }
+        }
+
+        void close() {
+            this.ledger.thenAccept(ReadLedger::close);
+        }
+    }
+
+    //endregion
+}
@@ -0,0 +1,302 @@
+/**
+ * Copyright (c) Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.storage.impl.filesystem;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import io.pravega.common.ObjectBuilder;
+import io.pravega.common.io.serialization.RevisionDataInput;
+import io.pravega.common.io.serialization.RevisionDataOutput;
+import io.pravega.common.io.serialization.VersionedSerializer;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import lombok.Builder;
+import lombok.Data;
+import lombok.Getter;
+
+/**
+ * Metadata for a FileSystemLog. Instances of this class are immutable; all modifications result in new instances.
+ */
+class FileLogMetadata {
+    //region Members
+
+    static final VersionedSerializer.WithBuilder<FileLogMetadata, FileLogMetadataBuilder> SERIALIZER = new Serializer();
+
+    /**
+     * The epoch of a log that has never been initialized. The first successful initialization will result in epoch 1.
+     */
+    @VisibleForTesting
+    static final long INITIAL_EPOCH = 0;
+
+    /**
+     * A LogAddress to be used when the log is not truncated (initially). File Ids begin at 1, so this address precedes
+     * every entry in the log.
+     */
+    @VisibleForTesting
+    static final FileSystemLogAddress INITIAL_TRUNCATION_ADDRESS = new FileSystemLogAddress(0, 0);
+
+    /**
+     * The current epoch of the log. This is incremented upon every successful initialization.
+     */
+    @Getter
+    private final long epoch;
+
+    /**
+     * Whether the log is enabled or not.
+     */
+    @Getter
+    private final boolean enabled;
+
+    /**
+     * An ordered list of the files making up the log.
+     */
+    @Getter
+    private final List<LogFile> files;
+
+    /**
+     * The Id of the last file that was added to the log (which may have since been removed from it).
+     */
+    @Getter
+    private final int lastFileId;
+
+    /**
+     * The Address of the last entry that was truncated out of the log. Every read will start from the next entry.
+     */
+    @Getter
+    private final FileSystemLogAddress truncationAddress;
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the FileLogMetadata class for an empty log.
+     */
+    FileLogMetadata() {
+        this(INITIAL_EPOCH, true, Collections.emptyList(), 0, INITIAL_TRUNCATION_ADDRESS);
+    }
+
+    @Builder
+    private FileLogMetadata(long epoch, boolean enabled, List<LogFile> files, int lastFileId, FileSystemLogAddress truncationAddress) {
+        Preconditions.checkArgument(epoch >= 0, "epoch must be a non-negative number");
+        this.epoch = epoch;
+        this.enabled = enabled;
+        this.files = Preconditions.checkNotNull(files, "files");
+        this.lastFileId = lastFileId;
+        this.truncationAddress = Preconditions.checkNotNull(truncationAddress, "truncationAddress");
+    }
+
+    //endregion
+
+    //region Operations
+
+    /**
+     * Creates a new instance of the FileLogMetadata class with the given epoch and a new (unsealed) file at the end.
+     *
+     * @param newEpoch The new epoch.
+     * @return A new instance of the FileLogMetadata class.
+     */
+    FileLogMetadata withNewEpoch(long newEpoch) {
+        Preconditions.checkState(this.enabled, "Log is not enabled. Cannot perform any modifications on it.");
+        Preconditions.checkArgument(newEpoch > this.epoch, "newEpoch must be greater than the current epoch.");
+        Preconditions.checkState(getActiveFile() == null, "Log has an unsealed file.");
+        return new FileLogMetadata(newEpoch, this.enabled, appendFile(), this.lastFileId + 1, this.truncationAddress);
+    }
+
+    /**
+     * Creates a new instance of the FileLogMetadata class which has the current active file sealed at the given length
+     * and a new (unsealed) file at the end.
+     *
+     * @param length The length to seal the current active file at.
+     * @return A new instance of the FileLogMetadata class.
+     */
+    FileLogMetadata rollover(long length) {
+        return sealActiveFile(length).withNewFile();
+    }
+
+    /**
+     * Creates a new instance of the FileLogMetadata class which has the current active file (if any) sealed at the given
+     * length. If the length is 0, the file is removed from the list altogether.
+     *
+     * @param length The length to seal the current active file at.
+     * @return A new instance of the FileLogMetadata class, or this instance if there is no active file.
+     */
+    FileLogMetadata sealActiveFile(long length) {
+        Preconditions.checkArgument(length >= 0, "length must be a non-negative number.");
+        LogFile activeFile = getActiveFile();
+        if (activeFile == null) {
+            return this;
+        }
+
+        List<LogFile> newFiles = new ArrayList<>(this.files.subList(0, this.files.size() - 1));
+        if (length > 0) {
+            newFiles.add(new LogFile(activeFile.getId(), length));
+        }
+
+        return new FileLogMetadata(this.epoch, this.enabled, Collections.unmodifiableList(newFiles), this.lastFileId, this.truncationAddress);
+    }
+
+    /**
+     * Creates a new instance of the FileLogMetadata class which contains all the files after (and including) the one
+     * referred to by the given address. The active file (if any) is never removed.
+     *
+     * @param upToAddress The address to truncate to.
+     * @return A new instance of the FileLogMetadata class, or this instance if the log is already truncated beyond the
+     * given address.
+     */
+    FileLogMetadata truncate(FileSystemLogAddress upToAddress) {
+        Preconditions.checkState(this.enabled, "Log is not enabled. Cannot perform any modifications on it.");
+        if (upToAddress.compareTo(this.truncationAddress) <= 0) {
+            return this;
+        }
+
+        List<LogFile> newFiles = this.files.stream().filter(f -> f.getId() >= upToAddress.getFileId() || !f.isSealed()).collect(Collectors.toList());
+        return new FileLogMetadata(this.epoch, this.enabled, Collections.unmodifiableList(newFiles), this.lastFileId, upToAddress);
+    }
+
+    /**
+     * Returns a FileLogMetadata with the exact contents of this instance, but the enabled flag set to true.
+     *
+     * @return This instance, if isEnabled() == true, or a new instance of the FileLogMetadata class otherwise.
+     */
+    FileLogMetadata asEnabled() {
+        return this.enabled ? this : new FileLogMetadata(this.epoch, true, this.files, this.lastFileId, this.truncationAddress);
+    }
+
+    /**
+     * Returns a FileLogMetadata with the exact contents of this instance, but the enabled flag set to false.
+     *
+     * @return This instance, if isEnabled() == false, or a new instance of the FileLogMetadata class otherwise.
+     */
+    FileLogMetadata asDisabled() {
+        return this.enabled ? new FileLogMetadata(this.epoch, false, this.files, this.lastFileId, this.truncationAddress) : this;
+    }
+
+    /**
+     * Gets the file that is currently being written to (which is always the last one), if any.
+     *
+     * @return The active LogFile, or null if there is no such file.
+     */
+    LogFile getActiveFile() {
+        if (this.files.isEmpty()) {
+            return null;
+        }
+
+        LogFile last = this.files.get(this.files.size() - 1);
+        return last.isSealed() ? null : last;
+    }
+
+    private FileLogMetadata withNewFile() {
+        return new FileLogMetadata(this.epoch, this.enabled, appendFile(), this.lastFileId + 1, this.truncationAddress);
+    }
+
+    private List<LogFile> appendFile() {
+        List<LogFile> newFiles = new ArrayList<>(this.files.size() + 1);
+        newFiles.addAll(this.files);
+        newFiles.add(new LogFile(this.lastFileId + 1, LogFile.UNSEALED));
+        return Collections.unmodifiableList(newFiles);
+    }
+
+    //endregion
+
+    @Override
+    public String toString() {
+        return String.format("Epoch = %d, Enabled = %s, FileCount = %d, LastFileId = %d, Truncate = %s",
+                this.epoch, this.enabled, this.files.size(), this.lastFileId, this.truncationAddress);
+    }
+
+    //region LogFile
+
+    /**
+     * Metadata about a single file in the log.
+     */
+    @Data
+    static class LogFile {
+        /**
+         * Length of an unsealed file (which is still being written to).
+         */
+        static final long UNSEALED = -1;
+
+        /**
+         * The Id of the file. This determines the name of the file.
+         */
+        private final int id;
+
+        /**
+         * The length of the file, or {@link #UNSEALED} if the file is still being written to. Any data beyond this length
+         * has not been acknowledged and must be ignored.
+         */
+        private final long length;
+
+        /**
+         * Gets a value indicating whether this file is sealed.
+         *
+         * @return True if sealed, false otherwise.
+         */
+        boolean isSealed() {
+            return this.length != UNSEALED;
+        }
+    }
+
+    //endregion
+
+    //region Serialization
+
+    static class FileLogMetadataBuilder implements ObjectBuilder<FileLogMetadata> {
+    }
+
+    private static class Serializer extends VersionedSerializer.WithBuilder<FileLogMetadata, FileLogMetadataBuilder> {
+        @Override
+        protected FileLogMetadataBuilder newBuilder() {
+            return FileLogMetadata.builder();
+        }
+
+        @Override
+        protected byte getWriteVersion() {
+            return 0;
+        }
+
+        @Override
+        protected void declareVersions() {
+            version(0).revision(0, this::write00, this::read00);
+        }
+
+        private void write00(FileLogMetadata m, RevisionDataOutput output) throws IOException {
+            output.writeBoolean(m.isEnabled());
+            output.writeCompactLong(m.getEpoch());
+            output.writeLong(m.getTruncationAddress().getSequence());
+            output.writeInt(m.getLastFileId());
+            output.writeCollection(m.getFiles(), this::writeFile00);
+        }
+
+        private void read00(RevisionDataInput input, FileLogMetadataBuilder builder) throws IOException {
+            builder.enabled(input.readBoolean());
+            builder.epoch(input.readCompactLong());
+            builder.truncationAddress(new FileSystemLogAddress(input.readLong()));
+            builder.lastFileId(input.readInt());
+            List<LogFile> files = input.readCollection(this::readFile00, ArrayList::new);
+            builder.files(Collections.unmodifiableList(files));
+        }
+
+        private void writeFile00(RevisionDataOutput output, LogFile f) throws IOException {
+            output.writeInt(f.getId());
+            output.writeLong(f.getLength());
+        }
+
+        private LogFile readFile00(RevisionDataInput input) throws IOException {
+            return new LogFile(input.readInt(), input.readLong());
+        }
+    }
+
+    //endregion
+}
@@ -0,0 +1,843 @@
+/**
+ * Copyright (c) Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.storage.impl.filesystem;
+
+import com.google.common.base.Preconditions;
+import io.pravega.common.Exceptions;
+import io.pravega.common.ObjectClosedException;
+import io.pravega.common.Timer;
+import io.pravega.common.concurrent.Futures;
+import io.pravega.common.util.ByteArraySegment;
+import io.pravega.common.util.CloseableIterator;
+import io.pravega.common.util.CompositeArrayView;
+import io.pravega.segmentstore.storage.DataLogDisabledException;
+import io.pravega.segmentstore.storage.DataLogInitializationException;
+import io.pravega.segmentstore.storage.DataLogWriterNotPrimaryException;
+import io.pravega.segmentstore.storage.DurableDataLog;
+import io.pravega.segmentstore.storage.DurableDataLogException;
+import io.pravega.segmentstore.storage.LogAddress;
+import io.pravega.segmentstore.storage.QueueStats;
+import io.pravega.segmentstore.storage.ThrottleSourceListener;
+import io.pravega.segmentstore.storage.WriteFailureException;
+import io.pravega.segmentstore.storage.WriteSettings;
+import io.pravega.segmentstore.storage.WriteTooLongException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * A DurableDataLog backed by files on the local file system. This is meant for single-node (i.e., edge) deployments
+ * where there is no BookKeeper cluster but where data must survive process restarts.
+ * <p>
+ * Each log is stored in its own directory and is made up of:
+ * <ul>
+ * <li> A sequence of data files, each containing a sequence of entries. Each entry is made up of its length, a CRC32
+ * checksum of its payload and the payload itself. A new data file is started when the current one exceeds the configured
+ * rollover size and every time the log is initialized (so that every writer has its own file).
+ * <li> A metadata file (see {@link FileLogMetadata}), which is atomically replaced upon every change.
+ * <li> A fence file, which contains the epoch of the current writer.
+ * </ul>
+ * Appends are queued up and written by a single processor, which writes all the queued appends (up to a configurable
+ * size) and then syncs the data file once for all of them (group commit). After each sync, the processor verifies that
+ * the fence file still contains its own epoch; if not, a newer writer has initialized the log and all writes will fail
+ * with {@link DataLogWriterNotPrimaryException}. When a new writer initializes the log, it updates the fence file and
+ * then seals the previous writer's file at the length of its last valid entry; anything the previous writer may still
+ * be writing beyond that length is ignored.
+ */
+@Slf4j
+@ThreadSafe
+class FileSystemLog implements DurableDataLog {
+    //region Members
+
+    /**
+     * The length of the header of each entry: the payload length and its CRC32 checksum.
+     */
+    static final int ENTRY_HEADER_LENGTH = Integer.BYTES + Integer.BYTES;
+    private static final String METADATA_FILE_NAME = "metadata";
+    private static final String METADATA_TEMP_FILE_NAME = "metadata.tmp";
+    private static final String FENCE_FILE_NAME = "fence";
+    private static final String LOCK_FILE_NAME = "lock";
+    private static final String DATA_FILE_SUFFIX = ".log";
+    /**
+     * FileLocks are held on behalf of the whole process, so they cannot be used to coordinate instances in the same
+     * process. These locks are acquired before the FileLocks for that purpose.
+     */
+    private static final ConcurrentHashMap<Path, ReentrantLock> PROCESS_LOCKS = new ConcurrentHashMap<>();
+
+    private final Path logPath;
+    private final FileSystemLogConfig config;
+    private final ScheduledExecutorService executorService;
+    private final String traceObjectId;
+    private final AtomicBoolean closed;
+    private final Object writeLock = new Object();
+    @GuardedBy("writeLock")
+    private final ArrayDeque<Write> pendingWrites;
+    @GuardedBy("writeLock")
+    private int outstandingCount;
+    @GuardedBy("writeLock")
+    private long outstandingLength;
+    @GuardedBy("writeLock")
+    private boolean processing;
+    @GuardedBy("writeLock")
+    private Throwable failureCause;
+    private volatile WriteFile writeFile;
+    private volatile FileChannel fenceChannel;
+    private volatile long epoch;
+    private volatile int lastSyncMillis;
+    @GuardedBy("queueStateChangeListeners")
+    private final HashSet<ThrottleSourceListener> queueStateChangeListeners;
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the FileSystemLog class.
+     *
+     * @param containerId     The Id of the Container whose FileSystemLog to open.
+     * @param config          FileSystemLogConfig to use.
+     * @param executorService An Executor to use for async operations. Writes and syncs are executed on this executor.
+     */
+    FileSystemLog(int containerId, FileSystemLogConfig config, ScheduledExecutorService executorService) {
+        Preconditions.checkArgument(containerId >= 0, "containerId must be a non-negative integer.");
+        this.config = Preconditions.checkNotNull(config, "config");
+        this.executorService = Preconditions.checkNotNull(executorService, "executorService");
+        this.logPath = getLogPath(config, containerId);
+        this.traceObjectId = String.format("FileSystemLog[%d]", containerId);
+        this.closed = new AtomicBoolean();
+        this.pendingWrites = new ArrayDeque<>();
+        this.queueStateChangeListeners = new HashSet<>();
+    }
+
+    /**
+     * Gets the directory where the log for the given container is stored.
+     *
+     * @param config      FileSystemLogConfig to use.
+     * @param containerId The Id of the Container.
+     * @return The path to the directory.
+     */
+    static Path getLogPath(FileSystemLogConfig config, int containerId) {
+        return Paths.get(config.getRoot(), Integer.toString(containerId)).toAbsolutePath().normalize();
+    }
+
+    //endregion
+
+    //region AutoCloseable Implementation
+
+    @Override
+    public void close() {
+        if (!this.closed.getAndSet(true)) {
+            List<Write> toCancel;
+            synchronized (this.writeLock) {
+                toCancel = new ArrayList<>(this.pendingWrites);
+                this.pendingWrites.clear();
+                this.outstandingCount = 0;
+                this.outstandingLength = 0;
+            }
+
+            // Any write currently being processed will fail once we close its file.
+            toCancel.forEach(w -> w.fail(new ObjectClosedException(this)));
+            WriteFile wf = this.writeFile;
+            if (wf != null) {
+                closeQuietly(wf.getChannel());
+            }
+
+            closeQuietly(this.fenceChannel);
+            log.info("{}: Closed.", this.traceObjectId);
+        }
+    }
+
+    //endregion
+
+    //region DurableDataLog Implementation
+
+    @Override
+    public void initialize(Duration timeout) throws DurableDataLogException {
+        Exceptions.checkNotClosed(this.closed.get(), this);
+        Preconditions.checkState(this.writeFile == null, "FileSystemLog is already initialized.");
+        FileChannel newFenceChannel = null;
+        FileChannel newWriteChannel = null;
+        try {
+            Files.createDirectories(this.logPath);
+            FileLogMetadata metadata;
+            FileLogMetadata.LogFile emptyFile = null;
+            try (MetadataLock ignored = lockMetadata()) {
+                metadata = loadMetadata();
+                if (!metadata.isEnabled()) {
+                    throw new DataLogDisabledException("FileSystemLog is disabled. Cannot initialize.");
+                }
+
+                // Fence out the previous writer (if any), then seal its file at the end of its last valid entry. Anything
+                // it may still write after this point will not be part of the log.
+                long newEpoch = metadata.getEpoch() + 1;
+                writeFence(newEpoch);
+                FileLogMetadata.LogFile previousFile = metadata.getActiveFile();
+                if (previousFile != null) {
+                    long validLength = FileSystemLogReader.getValidLength(getDataFilePath(previousFile.getId()), this.config.getReadBufferSize());
+                    metadata = metadata.sealActiveFile(validLength);
+                    if (validLength == 0) {
+                        emptyFile = previousFile;
+                    }
+                }
+
+                metadata = metadata.withNewEpoch(newEpoch);
+                newWriteChannel = openNewDataFile(metadata.getActiveFile().getId());
+                persistMetadata(metadata);
+            }
+
+            if (emptyFile != null) {
+                deleteDataFile(emptyFile.getId());
+            }
+
+            newFenceChannel = FileChannel.open(this.logPath.resolve(FENCE_FILE_NAME), StandardOpenOption.READ);
+            this.fenceChannel = newFenceChannel;
+            this.epoch = metadata.getEpoch();
+            this.writeFile = new WriteFile(metadata.getActiveFile().getId(), newWriteChannel);
+            log.info("{}: Initialized (Epoch = {}, {}).", this.traceObjectId, this.epoch, metadata);
+        } catch (DurableDataLogException ex) {
+            closeQuietly(newWriteChannel);
+            closeQuietly(newFenceChannel);
+            throw ex;
+        } catch (IOException ex) {
+            closeQuietly(newWriteChannel);
+            closeQuietly(newFenceChannel);
+            throw new DataLogInitializationException(String.format("Unable to initialize FileSystemLog at '%s'.", this.logPath), ex);
+        }
+    }
+
+    @Override
+    public void enable() throws DurableDataLogException {
+        Exceptions.checkNotClosed(this.closed.get(), this);
+        Preconditions.checkState(this.writeFile == null, "FileSystemLog is initialized; cannot enable.");
+        try {
+            Files.createDirectories(this.logPath);
+            try (MetadataLock ignored = lockMetadata()) {
+                FileLogMetadata metadata = loadMetadata();
+                Preconditions.checkState(!metadata.isEnabled(), "FileSystemLog is already enabled.");
+                persistMetadata(metadata.asEnabled());
+            }
+        } catch (IOException ex) {
+            throw new DataLogInitializationException(String.format("Unable to enable FileSystemLog at '%s'.", this.logPath), ex);
+        }
+
+        log.info("{}: Enabled.", this.traceObjectId);
+    }
+
+    @Override
+    public void disable() throws DurableDataLogException {
+        ensurePreconditions();
+        try (MetadataLock ignored = lockMetadata()) {
+            FileLogMetadata metadata = loadOwnedMetadata();
+            Preconditions.checkState(metadata.isEnabled(), "FileSystemLog is already disabled.");
+            persistMetadata(metadata.asDisabled());
+        } catch (IOException ex) {
+            throw new WriteFailureException(String.format("Unable to disable FileSystemLog at '%s'.", this.logPath), ex);
+        }
+
+        log.info("{}: Disabled.", this.traceObjectId);
+        close();
+    }
+
+    @Override
+    public CompletableFuture<LogAddress> append(CompositeArrayView data, Duration timeout) {
+        ensurePreconditions();
+        if (data.getLength() > FileSystemLogConfig.MAX_APPEND_LENGTH) {
+            return Futures.failedFuture(new WriteTooLongException(data.getLength(), FileSystemLogConfig.MAX_APPEND_LENGTH));
+        }
+
+        Write write = new Write(data);
+        boolean startProcessing = false;
+        synchronized (this.writeLock) {
+            if (this.failureCause != null) {
+                return Futures.failedFuture(this.failureCause);
+            } else if (this.closed.get()) {
+                // We were closed after the check above; close() may have already cleared the queue.
+                return Futures.failedFuture(new ObjectClosedException(this));
+            }
+
+            this.pendingWrites.addLast(write);
+            this.outstandingCount++;
+            this.outstandingLength += data.getLength();
+            if (!this.processing) {
+                this.processing = true;
+                startProcessing = true;
+            }
+        }
+
+        if (startProcessing) {
+            this.executorService.execute(this::processWrites);
+        }
+
+        return write.getResult();
+    }
+
+    @Override
+    public CompletableFuture<Void> truncate(LogAddress upToAddress, Duration timeout) {
+        ensurePreconditions();
+        FileSystemLogAddress address = new FileSystemLogAddress(upToAddress.getSequence());
+        return CompletableFuture.runAsync(() -> {
+            List<FileLogMetadata.LogFile> toDelete;
+            try (MetadataLock ignored = lockMetadata()) {
+                FileLogMetadata metadata = loadOwnedMetadata();
+                FileLogMetadata newMetadata = metadata.truncate(address);
+                persistMetadata(newMetadata);
+                toDelete = metadata.getFiles().stream()
+                                   .filter(f -> !newMetadata.getFiles().contains(f))
+                                   .collect(Collectors.toList());
+            } catch (DurableDataLogException ex) {
+                throw new CompletionException(ex);
+            } catch (IOException ex) {
+                throw new CompletionException(new WriteFailureException(String.format("Unable to truncate FileSystemLog at '%s'.", this.logPath), ex));
+            }
+
+            log.debug("{}: Truncated up to {}. Deleting {} file(s).", this.traceObjectId, address, toDelete.size());
+            toDelete.forEach(f -> deleteDataFile(f.getId()));
+        }, this.executorService);
+    }
+
+    @Override
+    public CloseableIterator<ReadItem, DurableDataLogException> getReader() throws DurableDataLogException {
+        ensurePreconditions();
+        try (MetadataLock ignored = lockMetadata()) {
+            FileLogMetadata metadata = loadOwnedMetadata();
+            WriteFile wf = this.writeFile;
+            List<FileSystemLogReader.ReadFile> files = metadata
+                    .getFiles().stream()
+                    .map(f -> new FileSystemLogReader.ReadFile(getDataFilePath(f.getId()), f.getId(),
+                            f.isSealed() ? f.getLength() : wf.getLength()))
+                    .collect(Collectors.toList());
+            return new FileSystemLogReader(files, metadata.getTruncationAddress(), this.config.getReadBufferSize(), this.traceObjectId);
+        } catch (IOException ex) {
+            throw new DataLogInitializationException(String.format("Unable to open a reader for FileSystemLog at '%s'.", this.logPath), ex);
+        }
+    }
+
+    @Override
+    public WriteSettings getWriteSettings() {
+        return new WriteSettings(FileSystemLogConfig.MAX_APPEND_LENGTH, this.config.getWriteTimeout(), this.config.getMaxOutstandingBytes());
+    }
+
+    @Override
+    public long getEpoch() {
+        ensurePreconditions();
+        return this.epoch;
+    }
+
+    @Override
+    public QueueStats getQueueStatistics() {
+        synchronized (this.writeLock) {
+            return new QueueStats(this.outstandingCount, this.outstandingLength, FileSystemLogConfig.MAX_APPEND_LENGTH, this.lastSyncMillis);
+        }
+    }
+
+    @Override
+    public void registerQueueStateChangeListener(ThrottleSourceListener listener) {
+        if (listener.isClosed()) {
+            log.warn("{} Attempted to register a closed ThrottleSourceListener ({}).", this.traceObjectId, listener);
+            return;
+        }
+
+        synchronized (this.queueStateChangeListeners) {
+            this.queueStateChangeListeners.add(listener); // This is a Set, so we won't be adding the same listener twice.
+        }
+    }
+
+    //endregion
+
+    //region Writes
+
+    /**
+     * Writes all pending appends to the current data file, in batches. Each batch is synced to disk before its appends
+     * are acknowledged. Only one invocation of this method may run at any given time.
+     */
+    private void processWrites() {
+        List<Write> batch = null;
+        try {
+            while (!this.closed.get()) {
+                batch = getNextBatch();
+                if (batch.isEmpty()) {
+                    return;
+                }
+
+                commit(batch);
+                notifyQueueChangeListeners();
+            }
+
+            // We have been closed. Every write in the last batch has already been completed.
+            failWrites(null, new ObjectClosedException(this));
+        } catch (Throwable ex) {
+            if (Exceptions.mustRethrow(ex)) {
+                throw ex;
+            }
+
+            failWrites(batch, ex);
+        }
+    }
+
+    /**
+     * Removes the next batch of writes from the queue.
+     *
+     * @return The writes to process next. If empty, the processor must stop (and will be restarted by the next append).
+     */
+    private List<Write> getNextBatch() {
+        // A batch is never split across files, so it must fit into one.
+        int maxLength = Math.min(this.config.getWriteBatchMaxSize(), this.config.getRolloverSize());
+        synchronized (this.writeLock) {
+            List<Write> result = new ArrayList<>();
+            long length = 0;
+            while (!this.pendingWrites.isEmpty()) {
+                Write w = this.pendingWrites.peekFirst();
+                if (!result.isEmpty() && length + w.getEntryLength() > maxLength) {
+                    break;
+                }
+
+                result.add(this.pendingWrites.removeFirst());
+                length += w.getEntryLength();
+            }
+
+            if (result.isEmpty()) {
+                this.processing = false;
+            }
+
+            return result;
+        }
+    }
+
+    /**
+     * Writes the given batch to the current data file (rolling it over if necessary), syncs it and acknowledges the writes.
+     *
+     * @param batch The writes to commit.
+     * @throws IOException                      If an IO error occurred.
+     * @throws DataLogWriterNotPrimaryException If this instance has been fenced out.
+     */
+    private void commit(List<Write> batch) throws IOException, DurableDataLogException {
+        long batchLength = batch.stream().mapToLong(Write::getEntryLength).sum();
+        long dataLength = batchLength - (long) batch.size() * ENTRY_HEADER_LENGTH;
+        WriteFile wf = this.writeFile;
+        if (wf.getLength() > 0 && wf.getLength() + batchLength > this.config.getRolloverSize()) {
+            wf = rollover(wf);
+        }
+
+        List<ByteBuffer> buffers = new ArrayList<>(batch.size() * 2);
+        long offset = wf.getLength();
+        for (Write w : batch) {
+            w.setAddress(new FileSystemLogAddress(wf.getId(), offset));
+            w.collectBuffers(buffers);
+            offset += w.getEntryLength();
+        }
+
+        Timer timer = new Timer();
+        ByteBuffer[] toWrite = buffers.toArray(new ByteBuffer[0]);
+        long remaining = batchLength;
+        while (remaining > 0) {
+            remaining -= wf.getChannel().write(toWrite);
+        }
+
+        wf.getChannel().force(false);
+        checkFence();
+        this.lastSyncMillis = (int) timer.getElapsedMillis();
+        wf.setLength(offset);
+
+        synchronized (this.writeLock) {
+            this.outstandingCount -= batch.size();
+            this.outstandingLength -= dataLength;
+        }
+
+        batch.forEach(Write::complete);
+        log.trace("{}: Committed {} write(s) ({} bytes) in {}ms.", this.traceObjectId, batch.size(), batchLength, this.lastSyncMillis);
+    }
+
+    /**
+     * Seals the given data file and starts a new one.
+     *
+     * @param current The current data file.
+     * @return The new data file.
+     */
+    private WriteFile rollover(WriteFile current) throws IOException, DurableDataLogException {
+        WriteFile result;
+        try (MetadataLock ignored = lockMetadata()) {
+            FileLogMetadata metadata = loadOwnedMetadata().rollover(current.getLength());
+            FileChannel channel = openNewDataFile(metadata.getActiveFile().getId());
+            try {
+                persistMetadata(metadata);
+            } catch (IOException ex) {
+                closeQuietly(channel);
+                throw ex;
+            }
+
+            result = new WriteFile(metadata.getActiveFile().getId(), channel);
+            this.writeFile = result;
+        }
+
+        closeQuietly(current.getChannel());
+        log.info("{}: Rolled over from file {} ({} bytes) to file {}.", this.traceObjectId, current.getId(), current.getLength(), result.getId());
+        return result;
+    }
+
+    /**
+     * Fails the given writes, along with all the pending ones, and closes this instance. Per the DurableDataLog contract,
+     * all subsequent appends will fail as well.
+     *
+     * @param batch The writes that were being processed, if any.
+     * @param ex    The failure cause.
+     */
+    private void failWrites(List<Write> batch, Throwable ex) {
+        ex = Exceptions.unwrap(ex);
+        if (ex instanceof IOException && this.closed.get()) {
+            // Most likely we were closed while writing, which closed the file.
+            ex = new ObjectClosedException(this, ex);
+        } else if (ex instanceof IOException) {
+            ex = new WriteFailureException(String.format("Unable to write to FileSystemLog at '%s'.", this.logPath), ex);
+        }
+
+        List<Write> toFail = new ArrayList<>();
+        if (batch != null) {
+            toFail.addAll(batch);
+        }
+
+        synchronized (this.writeLock) {
+            if (this.failureCause == null) {
+                this.failureCause = ex;
+            }
+
+            toFail.addAll(this.pendingWrites);
+            this.pendingWrites.clear();
+            this.outstandingCount = 0;
+            this.outstandingLength = 0;
+            this.processing = false;
+        }
+
+        if (ex instanceof DataLogWriterNotPrimaryException) {
+            log.warn("{}: Fenced out; failing {} write(s). {}", this.traceObjectId, toFail.size(), ex.getMessage());
+        } else if (!(ex instanceof ObjectClosedException)) {
+            log.error("{}: Write failure; failing {} write(s) and closing.", this.traceObjectId, toFail.size(), ex);
+        }
+
+        for (Write w : toFail) {
+            w.fail(ex);
+        }
+
+        close();
+    }
+
+    /**
+     * Verifies that the fence file still contains this instance's epoch.
+     *
+     * @throws IOException                      If the fence file could not be read.
+     * @throws DataLogWriterNotPrimaryException If a newer writer has fenced this instance out.
+     */
+    private void checkFence() throws IOException, DataLogWriterNotPrimaryException {
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES);
+        while (buffer.hasRemaining()) {
+            if (this.fenceChannel.read(buffer, buffer.position()) < 0) {
+                break;
+            }
+        }
+
+        buffer.flip();
+        long fenceEpoch = buffer.remaining() == Long.BYTES ? buffer.getLong() : FileLogMetadata.INITIAL_EPOCH;
+        if (fenceEpoch != this.epoch) {
+            throw new DataLogWriterNotPrimaryException(String.format("FileSystemLog has been fenced out. Epoch = %d, FenceEpoch = %d.",
+                    this.epoch, fenceEpoch));
+        }
+    }
+
+    private void writeFence(long newEpoch) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES);
+        buffer.putLong(newEpoch).flip();
+        try (FileChannel channel = FileChannel.open(this.logPath.resolve(FENCE_FILE_NAME), StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer, buffer.position());
+            }
+
+            channel.force(false);
+        }
+    }
+
+    private void notifyQueueChangeListeners() {
+        ArrayList<ThrottleSourceListener> toNotify = new ArrayList<>();
+        ArrayList<ThrottleSourceListener> toRemove = new ArrayList<>();
+        synchronized (this.queueStateChangeListeners) {
+            for (ThrottleSourceListener l : this.queueStateChangeListeners) {
+                if (l.isClosed()) {
+                    toRemove.add(l);
+                } else {
+                    toNotify.add(l);
+                }
+            }
+
+            this.queueStateChangeListeners.removeAll(toRemove);
+        }
+
+        for (ThrottleSourceListener l : toNotify) {
+            try {
+                l.notifyThrottleSourceChanged();
+            } catch (Throwable ex) {
+                if (Exceptions.mustRethrow(ex)) {
+                    throw ex;
+                }
+
+                log.error("{}: Error while notifying queue listener {}.", this.traceObjectId, l, ex);
+            }
+        }
+    }
+
+    //endregion
+
+    //region Metadata Management
+
+    /**
+     * Acquires the exclusive lock on this log's metadata. This lock must be held while reading and updating the metadata.
+     *
+     * @return A {@link MetadataLock} that must be closed in order to release the lock.
+     * @throws IOException If the lock could not be acquired.
+     */
+    private MetadataLock lockMetadata() throws IOException {
+        ReentrantLock processLock = PROCESS_LOCKS.computeIfAbsent(this.logPath, p -> new ReentrantLock());
+        processLock.lock();
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(this.logPath.resolve(LOCK_FILE_NAME), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            return new MetadataLock(processLock, channel, channel.lock());
+        } catch (Throwable ex) {
+            closeQuietly(channel);
+            processLock.unlock();
+            throw ex;
+        }
+    }
+
+    private FileLogMetadata loadMetadata() throws IOException {
+        Path path = this.logPath.resolve(METADATA_FILE_NAME);
+        if (!Files.exists(path)) {
+            return new FileLogMetadata();
+        }
+
+        return FileLogMetadata.SERIALIZER.deserialize(Files.readAllBytes(path));
+    }
+
+    /**
+     * Loads the metadata and verifies that this instance is still the owner of the log.
+     *
+     * @return The metadata.
+     * @throws IOException                      If the metadata could not be loaded.
+     * @throws DataLogWriterNotPrimaryException If a newer writer has initialized the log.
+     */
+    private FileLogMetadata loadOwnedMetadata() throws IOException, DataLogWriterNotPrimaryException {
+        FileLogMetadata metadata = loadMetadata();
+        if (metadata.getEpoch() != this.epoch) {
+            throw new DataLogWriterNotPrimaryException(String.format("FileSystemLog has been fenced out. Epoch = %d, MetadataEpoch = %d.",
+                    this.epoch, metadata.getEpoch()));
+        }
+
+        return metadata;
+    }
+
+    /**
+     * Atomically replaces the metadata file with the given metadata.
+     *
+     * @param metadata The metadata to persist.
+     * @throws IOException If the metadata could not be persisted.
+     */
+    private void persistMetadata(FileLogMetadata metadata) throws IOException {
+        ByteArraySegment serialization = FileLogMetadata.SERIALIZER.serialize(metadata);
+        Path tempPath = this.logPath.resolve(METADATA_TEMP_FILE_NAME);
+        try (FileChannel channel = FileChannel.open(tempPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = serialization.asByteBuffer();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+
+            channel.force(true);
+        }
+
+        Files.move(tempPath, this.logPath.resolve(METADATA_FILE_NAME), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        syncDirectory();
+        log.debug("{}: Persisted metadata ({}).", this.traceObjectId, metadata);
+    }
+
+    /**
+     * Syncs the log's directory so that file creations, renames and deletions are durable.
+     */
+    private void syncDirectory() {
+        try (FileChannel channel = FileChannel.open(this.logPath, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException ex) {
+            // Not all platforms support syncing directories.
+            log.debug("{}: Unable to sync directory '{}'. {}", this.traceObjectId, this.logPath, ex.getMessage());
+        }
+    }
+
+    private FileChannel openNewDataFile(int fileId) throws IOException {
+        // This file may already exist if a previous initialization failed after creating it; it contains nothing of value.
+        return FileChannel.open(getDataFilePath(fileId), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    private void deleteDataFile(int fileId) {
+        try {
+            Files.deleteIfExists(getDataFilePath(fileId));
+        } catch (IOException ex) {
+            log.warn("{}: Unable to delete data file {}.", this.traceObjectId, fileId, ex);
+        }
+    }
+
+    private Path getDataFilePath(int fileId) {
+        return this.logPath.resolve(fileId + DATA_FILE_SUFFIX);
+    }
+
+    //endregion
+
+    //region Helpers
+
+    private void ensurePreconditions() {
+        Exceptions.checkNotClosed(this.closed.get(), this);
+        Preconditions.checkState(this.writeFile != null, "FileSystemLog is not initialized.");
+    }
+
+    private void closeQuietly(FileChannel channel) {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException ex) {
+                log.warn("{}: Unable to close file channel.", this.traceObjectId, ex);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return this.traceObjectId;
+    }
+
+    //endregion
+
+    //region WriteFile
+
+    /**
+     * The data file currently being written to.
+     */
+    @RequiredArgsConstructor
+    private static class WriteFile {
+        @Getter
+        private final int id;
+        @Getter
+        private final FileChannel channel;
+        /**
+         * The length of the file that has been synced and acknowledged.
+         */
+        @Getter
+        private volatile long length;
+
+        void setLength(long length) {
+            this.length = length;
+        }
+    }
+
+    //endregion
+
+    //region Write
+
+    /**
+     * A single pending append.
+     */
+    private static class Write {
+        private final CompositeArrayView data;
+        @Getter
+        private final CompletableFuture<LogAddress> result;
+        private FileSystemLogAddress address;
+
+        Write(CompositeArrayView data) {
+            this.data = data;
+            this.result = new CompletableFuture<>();
+        }
+
+        /**
+         * Gets the number of bytes this write occupies in the data file.
+         */
+        long getEntryLength() {
+            return ENTRY_HEADER_LENGTH + this.data.getLength();
+        }
+
+        void setAddress(FileSystemLogAddress address) {
+            this.address = address;
+        }
+
+        /**
+         * Adds the ByteBuffers making up the entry (header and payload) to the given list.
+         *
+         * @param buffers The list to add to.
+         */
+        void collectBuffers(List<ByteBuffer> buffers) {
+            ByteBuffer header = ByteBuffer.allocate(ENTRY_HEADER_LENGTH);
+            buffers.add(header);
+            CRC32 crc = new CRC32();
+            this.data.collect(b -> {
+                crc.update(b.duplicate());
+                buffers.add(b);
+            });
+
+            header.putInt(this.data.getLength()).putInt((int) crc.getValue()).flip();
+        }
+
+        void complete() {
+            this.result.complete(this.address);
+        }
+
+        void fail(Throwable ex) {
+            this.result.completeExceptionally(ex);
+        }
+    }
+
+    //endregion
+
+    //region MetadataLock
+
+    @RequiredArgsConstructor
+    private static class MetadataLock implements AutoCloseable {
+        private final ReentrantLock processLock;
+        private final FileChannel channel;
+        private final FileLock fileLock;
+
+        @Override
+        public void close() throws IOException {
+            try {
+                this.fileLock.release();
+                this.channel.close();
+            } finally {
+                this.processLock.unlock();
+            }
+        }
+    }
+
+    //endregion
+}
@@ -0,0 +1,92 @@
+/**
+ * Copyright (c) Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.storage.impl.filesystem;
+
+import com.google.common.base.Preconditions;
+import io.pravega.segmentstore.storage.LogAddress;
+
+/**
+ * LogAddress for a FileSystemLog. The Sequence is made up of the Id of the file that contains the entry (high-order 32
+ * bits) and the offset of the entry within that file (low-order 32 bits).
+ */
+class FileSystemLogAddress extends LogAddress implements Comparable<FileSystemLogAddress> {
+    private static final long INT_MASK = 0xFFFFFFFFL;
+
+    /**
+     * Creates a new instance of the FileSystemLogAddress class.
+     *
+     * @param fileId The Id of the file containing the entry.
+     * @param offset The offset of the entry within the file.
+     */
+    FileSystemLogAddress(int fileId, long offset) {
+        this(calculateSequence(fileId, offset));
+        Preconditions.checkArgument(fileId >= 0, "fileId must be a non-negative number.");
+        Preconditions.checkArgument(offset >= 0 && offset <= INT_MASK, "offset out of bounds.");
+    }
+
+    /**
+     * Creates a new instance of the FileSystemLogAddress class.
+     *
+     * @param sequence The Sequence of the address.
+     */
+    FileSystemLogAddress(long sequence) {
+        super(sequence);
+    }
+
+    /**
+     * Gets the Id of the file containing the entry.
+     *
+     * @return The result.
+     */
+    int getFileId() {
+        return (int) (getSequence() >>> 32);
+    }
+
+    /**
+     * Gets the offset of the entry within its file.
+     *
+     * @return The result.
+     */
+    long getOffset() {
+        return getSequence() & INT_MASK;
+    }
+
+    private static long calculateSequence(int fileId, long offset) {
+        return ((long) fileId << 32) + (offset & INT_MASK);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s, FileId = %d, Offset = %d", super.toString(), getFileId(), getOffset());
+    }
+
+    //region Comparable Implementation
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(getSequence());
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj instanceof FileSystemLogAddress) {
+            return this.compareTo((FileSystemLogAddress) obj) == 0;
+        }
+
+        return false;
+    }
+
+    @Override
+    public int compareTo(FileSystemLogAddress address) {
+        return Long.compare(getSequence(), address.getSequence());
+    }
+
+    //endregion
+}
@@ -0,0 +1,129 @@
+/**
+ * Copyright (c) Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.storage.impl.filesystem;
+
+import io.pravega.common.util.ConfigBuilder;
+import io.pravega.common.util.ConfigurationException;
+import io.pravega.common.util.InvalidPropertyValueException;
+import io.pravega.common.util.Property;
+import io.pravega.common.util.TypedProperties;
+import java.time.Duration;
+import lombok.Getter;
+
+/**
+ * Configuration for the local file system-backed DurableDataLog.
+ */
+public class FileSystemLogConfig {
+    //region Config Names
+
+    public static final Property<String> ROOT = Property.named("root", "/tmp/pravega/datalog");
+    public static final Property<Integer> ROLLOVER_SIZE = Property.named("rollover.size.bytes", 256 * 1024 * 1024);
+    public static final Property<Integer> WRITE_BATCH_MAX_SIZE = Property.named("write.batch.size.bytes.max", 4 * 1024 * 1024);
+    public static final Property<Integer> WRITE_TIMEOUT = Property.named("write.timeout.milliseconds", 60000);
+    public static final Property<Integer> MAX_OUTSTANDING_BYTES = Property.named("write.outstanding.bytes.max", 256 * 1024 * 1024);
+    public static final Property<Integer> READ_BUFFER_SIZE = Property.named("read.buffer.size.bytes", 4 * 1024 * 1024);
+
+    public static final String COMPONENT_CODE = "filesystemlog";
+
+    /**
+     * Maximum append length. This is the same as for BookKeeper so that DataFrames are sized the same way regardless of
+     * which DurableDataLog implementation is used.
+     */
+    static final int MAX_APPEND_LENGTH = 1024 * 1024 - 1024;
+
+    /**
+     * Maximum size of a single log file. Log addresses encode file offsets as 32-bit integers.
+     */
+    private static final int MAX_ROLLOVER_SIZE = 1024 * 1024 * 1024;
+
+    //endregion
+
+    //region Members
+
+    /**
+     * The root directory where all logs are stored. Each log has its own subdirectory.
+     */
+    @Getter
+    private final String root;
+
+    /**
+     * The size (in bytes) at which a log file is sealed and a new one is started.
+     */
+    @Getter
+    private final int rolloverSize;
+
+    /**
+     * The maximum number of bytes to write to a log file before syncing it to disk (group commit). All appends that are
+     * queued up while a sync is in progress are written and synced together, up to this many bytes.
+     */
+    @Getter
+    private final int writeBatchMaxSize;
+
+    /**
+     * The Write Timeout.
+     */
+    @Getter
+    private final Duration writeTimeout;
+
+    /**
+     * The maximum number of bytes that can be outstanding for a log at any given time.
+     */
+    @Getter
+    private final int maxOutstandingBytes;
+
+    /**
+     * The size (in bytes) of each read from a log file during recovery.
+     */
+    @Getter
+    private final int readBufferSize;
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the FileSystemLogConfig class.
+     *
+     * @param properties The TypedProperties object to read Properties from.
+     */
+    private FileSystemLogConfig(TypedProperties properties) throws ConfigurationException {
+        this.root = properties.get(ROOT);
+        this.rolloverSize = properties.getInt(ROLLOVER_SIZE);
+        if (this.rolloverSize < MAX_APPEND_LENGTH || this.rolloverSize > MAX_ROLLOVER_SIZE) {
+            throw new InvalidPropertyValueException(String.format("Property %s (%d) must be a value between %d and %d.",
+                    ROLLOVER_SIZE, this.rolloverSize, MAX_APPEND_LENGTH, MAX_ROLLOVER_SIZE));
+        }
+
+        this.writeBatchMaxSize = properties.getInt(WRITE_BATCH_MAX_SIZE);
+        if (this.writeBatchMaxSize < 1) {
+            throw new InvalidPropertyValueException(String.format("Property %s (%d) must be a positive integer.",
+                    WRITE_BATCH_MAX_SIZE, this.writeBatchMaxSize));
+        }
+
+        this.writeTimeout = Duration.ofMillis(properties.getInt(WRITE_TIMEOUT));
+        this.maxOutstandingBytes = properties.getInt(MAX_OUTSTANDING_BYTES);
+        this.readBufferSize = properties.getInt(READ_BUFFER_SIZE);
+        if (this.readBufferSize < FileSystemLog.ENTRY_HEADER_LENGTH + MAX_APPEND_LENGTH) {
+            throw new InvalidPropertyValueException(String.format("Property %s (%d) must be at least %d.",
+                    READ_BUFFER_SIZE, this.readBufferSize, FileSystemLog.ENTRY_HEADER_LENGTH + MAX_APPEND_LENGTH));
+        }
+    }
+
+    /**
+     * Creates a new ConfigBuilder that can be used to create instances of this class.
+     *
+     * @return A new Builder for this class.
+     */
+    public static ConfigBuilder<FileSystemLogConfig> builder() {
+        return new ConfigBuilder<>(COMPONENT_CODE, FileSystemLogConfig::new);
+    }
+
+    //endregion
+}
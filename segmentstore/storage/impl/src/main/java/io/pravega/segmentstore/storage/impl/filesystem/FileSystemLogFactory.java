@@ -0,0 +1,80 @@
+/**
+ * Copyright (c) Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.storage.impl.filesystem;
+
+import com.google.common.base.Preconditions;
+import io.pravega.segmentstore.storage.DataLogNotAvailableException;
+import io.pravega.segmentstore.storage.DurableDataLog;
+import io.pravega.segmentstore.storage.DurableDataLogException;
+import io.pravega.segmentstore.storage.DurableDataLogFactory;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Factory for FileSystemLogs.
+ */
+@Slf4j
+public class FileSystemLogFactory implements DurableDataLogFactory {
+    //region Members
+
+    private final FileSystemLogConfig config;
+    private final ScheduledExecutorService executor;
+    private final AtomicBoolean initialized;
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the FileSystemLogFactory class.
+     *
+     * @param config   The configuration to use for all instances created.
+     * @param executor An executor to use for async operations.
+     */
+    public FileSystemLogFactory(FileSystemLogConfig config, ScheduledExecutorService executor) {
+        this.config = Preconditions.checkNotNull(config, "config");
+        this.executor = Preconditions.checkNotNull(executor, "executor");
+        this.initialized = new AtomicBoolean();
+    }
+
+    //endregion
+
+    //region DurableDataLogFactory Implementation
+
+    @Override
+    public void initialize() throws DurableDataLogException {
+        Preconditions.checkState(!this.initialized.get(), "FileSystemLogFactory is already initialized.");
+        try {
+            Files.createDirectories(Paths.get(this.config.getRoot()));
+        } catch (IOException ex) {
+            throw new DataLogNotAvailableException(String.format("Unable to create root directory '%s'.", this.config.getRoot()), ex);
+        }
+
+        this.initialized.set(true);
+        log.info("FileSystemLogFactory initialized (Root = '{}').", this.config.getRoot());
+    }
+
+    @Override
+    public DurableDataLog createDurableDataLog(int containerId) {
+        Preconditions.checkState(this.initialized.get(), "FileSystemLogFactory is not initialized.");
+        return new FileSystemLog(containerId, this.config, this.executor);
+    }
+
+    @Override
+    public void close() {
+        // Nothing to close; each FileSystemLog owns its files.
+    }
+
+    //endregion
+}
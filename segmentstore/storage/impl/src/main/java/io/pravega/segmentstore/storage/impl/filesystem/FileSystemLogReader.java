@@ -0,0 +1,321 @@
+/**
+ * Copyright (c) Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.storage.impl.filesystem;
+
+import com.google.common.base.Preconditions;
+import io.pravega.common.Exceptions;
+import io.pravega.common.util.CloseableIterator;
+import io.pravega.segmentstore.storage.DataLogCorruptedException;
+import io.pravega.segmentstore.storage.DataLogNotAvailableException;
+import io.pravega.segmentstore.storage.DurableDataLog;
+import io.pravega.segmentstore.storage.DurableDataLogException;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.CRC32;
+import lombok.Data;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Sequentially reads all the entries in a FileSystemLog, in order. Each file is read in large chunks (of the configured
+ * read buffer size) which are then split into entries, so that recovery is mostly made up of large sequential reads.
+ */
+@Slf4j
+class FileSystemLogReader implements CloseableIterator<DurableDataLog.ReadItem, DurableDataLogException> {
+    //region Members
+
+    private final ArrayDeque<ReadFile> files;
+    private final FileSystemLogAddress truncationAddress;
+    private final ByteBuffer buffer;
+    private final String traceObjectId;
+    private final AtomicBoolean closed;
+    private FileCursor currentFile;
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the FileSystemLogReader class.
+     *
+     * @param files             An ordered list of the files to read. Only data up to each file's length will be read.
+     * @param truncationAddress The address of the last truncated entry. All entries up to and including it will be skipped.
+     * @param bufferSize        The size of the read buffer. This must be able to accommodate the largest entry.
+     * @param traceObjectId     An identifier to use for logging purposes.
+     */
+    FileSystemLogReader(List<ReadFile> files, FileSystemLogAddress truncationAddress, int bufferSize, String traceObjectId) {
+        this.files = new ArrayDeque<>(Preconditions.checkNotNull(files, "files"));
+        this.truncationAddress = Preconditions.checkNotNull(truncationAddress, "truncationAddress");
+        this.buffer = ByteBuffer.allocateDirect(bufferSize);
+        this.traceObjectId = traceObjectId;
+        this.closed = new AtomicBoolean();
+    }
+
+    //endregion
+
+    //region AutoCloseable Implementation
+
+    @Override
+    public void close() {
+        if (!this.closed.getAndSet(true)) {
+            if (this.currentFile != null) {
+                this.currentFile.close();
+                this.currentFile = null;
+            }
+        }
+    }
+
+    //endregion
+
+    //region CloseableIterator Implementation
+
+    @Override
+    public DurableDataLog.ReadItem getNext() throws DurableDataLogException {
+        Exceptions.checkNotClosed(this.closed.get(), this);
+        try {
+            while (true) {
+                if (this.currentFile == null) {
+                    ReadFile next = this.files.pollFirst();
+                    if (next == null) {
+                        // We are done.
+                        return null;
+                    }
+
+                    this.currentFile = new FileCursor(next.getPath(), next.getId(), next.getLength(), this.buffer);
+                }
+
+                ReadItem item = this.currentFile.next(false);
+                if (item == null) {
+                    this.currentFile.close();
+                    this.currentFile = null;
+                } else if (item.getAddress().compareTo(this.truncationAddress) > 0) {
+                    return item;
+                }
+            }
+        } catch (IOException ex) {
+            close();
+            throw new DataLogNotAvailableException(String.format("%s: Unable to read from the log.", this.traceObjectId), ex);
+        } catch (DurableDataLogException ex) {
+            close();
+            throw ex;
+        }
+    }
+
+    //endregion
+
+    //region Tail Recovery
+
+    /**
+     * Determines the length of the longest prefix of the given file that is made up of valid entries. Any data beyond
+     * this length is either a partially written entry or was written by a writer that has since been fenced out.
+     *
+     * @param path       The path to the file.
+     * @param bufferSize The size of the read buffer to use.
+     * @return The length of the valid prefix, or 0 if the file does not exist.
+     * @throws IOException If the file could not be read.
+     */
+    static long getValidLength(Path path, int bufferSize) throws IOException {
+        if (!Files.exists(path)) {
+            return 0;
+        }
+
+        FileCursor cursor = new FileCursor(path, 0, -1, ByteBuffer.allocateDirect(bufferSize));
+        try {
+            while (true) {
+                try {
+                    if (cursor.next(true) == null) {
+                        break;
+                    }
+                } catch (DataLogCorruptedException ex) {
+                    // Partially written entry.
+                    log.info("Ignoring invalid data at the end of '{}' (ValidLength = {}). {}", path, cursor.getEntryOffset(), ex.getMessage());
+                    break;
+                }
+            }
+
+            return cursor.getEntryOffset();
+        } finally {
+            cursor.close();
+        }
+    }
+
+    //endregion
+
+    //region FileCursor
+
+    /**
+     * Reads entries from a single file.
+     */
+    private static class FileCursor {
+        private final Path path;
+        private final int fileId;
+        private final FileChannel channel;
+        private final long length;
+        private final ByteBuffer buffer;
+        /**
+         * The offset (within the file) of the next entry to read.
+         */
+        @Getter
+        private long entryOffset;
+        /**
+         * The offset (within the file) of the next byte to load into the buffer.
+         */
+        private long readOffset;
+
+        /**
+         * Creates a new instance of the FileCursor class.
+         *
+         * @param path   The path to the file.
+         * @param fileId The Id of the file.
+         * @param length The number of bytes to read from the file, or a negative number to read the whole file.
+         * @param buffer The buffer to use.
+         * @throws IOException If the file could not be opened.
+         */
+        FileCursor(Path path, int fileId, long length, ByteBuffer buffer) throws IOException {
+            this.path = path;
+            this.fileId = fileId;
+            this.channel = FileChannel.open(path, StandardOpenOption.READ);
+            this.length = length < 0 ? this.channel.size() : length;
+            this.buffer = buffer;
+            this.buffer.clear().flip();
+        }
+
+        /**
+         * Reads the next entry from the file.
+         *
+         * @param headerOnly If true, the payload will be verified but not returned.
+         * @return The next entry, or null if the end of the file has been reached.
+         * @throws IOException               If the file could not be read.
+         * @throws DataLogCorruptedException If the file contains invalid data or is shorter than expected.
+         */
+        ReadItem next(boolean headerOnly) throws IOException, DataLogCorruptedException {
+            if (this.entryOffset == this.length) {
+                return null;
+            }
+
+            fill(FileSystemLog.ENTRY_HEADER_LENGTH);
+            int payloadLength = this.buffer.getInt();
+            int expectedCrc = this.buffer.getInt();
+            if (payloadLength < 0 || payloadLength > FileSystemLogConfig.MAX_APPEND_LENGTH
+                    || this.entryOffset + FileSystemLog.ENTRY_HEADER_LENGTH + payloadLength > this.length) {
+                throw new DataLogCorruptedException(String.format("Invalid entry length (%d) in '%s' at offset %d.",
+                        payloadLength, this.path, this.entryOffset));
+            }
+
+            fill(payloadLength);
+            ByteBuffer payload = this.buffer.duplicate();
+            payload.limit(payload.position() + payloadLength);
+            this.buffer.position(payload.limit());
+            CRC32 crc = new CRC32();
+            crc.update(payload.duplicate());
+            if ((int) crc.getValue() != expectedCrc) {
+                throw new DataLogCorruptedException(String.format("Checksum mismatch for entry in '%s' at offset %d.",
+                        this.path, this.entryOffset));
+            }
+
+            byte[] data = null;
+            if (!headerOnly) {
+                data = new byte[payloadLength];
+                payload.get(data);
+            }
+
+            ReadItem result = new ReadItem(new FileSystemLogAddress(this.fileId, this.entryOffset), data, payloadLength);
+            this.entryOffset += FileSystemLog.ENTRY_HEADER_LENGTH + payloadLength;
+            return result;
+        }
+
+        /**
+         * Ensures that the buffer has at least the given number of bytes remaining, loading more from the file if needed.
+         */
+        private void fill(int count) throws IOException, DataLogCorruptedException {
+            if (this.buffer.remaining() >= count) {
+                return;
+            }
+
+            this.buffer.compact();
+            try {
+                while (this.buffer.position() < count) {
+                    int toRead = (int) Math.min(this.buffer.remaining(), this.length - this.readOffset);
+                    int bytesRead = toRead <= 0 ? -1 : this.channel.read((ByteBuffer) this.buffer.duplicate().limit(this.buffer.position() + toRead), this.readOffset);
+                    if (bytesRead < 0) {
+                        throw new DataLogCorruptedException(String.format("Unexpected end of '%s' at offset %d; expected length %d.",
+                                this.path, this.readOffset, this.length));
+                    }
+
+                    this.buffer.position(this.buffer.position() + bytesRead);
+                    this.readOffset += bytesRead;
+                }
+            } finally {
+                this.buffer.flip();
+            }
+        }
+
+        void close() {
+            try {
+                this.channel.close();
+            } catch (IOException ex) {
+                log.warn("Unable to close '{}'.", this.path, ex);
+            }
+        }
+    }
+
+    //endregion
+
+    //region ReadFile
+
+    /**
+     * A file to read from.
+     */
+    @Data
+    static class ReadFile {
+        private final Path path;
+        private final int id;
+        private final long length;
+    }
+
+    //endregion
+
+    //region ReadItem
+
+    private static class ReadItem implements DurableDataLog.ReadItem {
+        private final byte[] data;
+        @Getter
+        private final FileSystemLogAddress address;
+        @Getter
+        private final int length;
+
+        ReadItem(FileSystemLogAddress address, byte[] data, int length) {
+            this.address = address;
+            this.data = data;
+            this.length = length;
+        }
+
+        @Override
+        public InputStream getPayload() {
+            return new ByteArrayInputStream(this.data);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s, Length = %d.", this.address, this.length);
+        }
+    }
+
+    //endregion
+}
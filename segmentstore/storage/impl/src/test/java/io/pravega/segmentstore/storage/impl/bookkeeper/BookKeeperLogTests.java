@@ -13,6 +13,7 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Sets;
 import io.pravega.common.ObjectClosedException;
 import io.pravega.common.concurrent.Futures;
+import io.pravega.common.util.ConfigBuilder;
 import io.pravega.common.util.CompositeByteArraySegment;
 import io.pravega.common.util.RetriesExhaustedException;
 import io.pravega.segmentstore.storage.DataLogCorruptedException;
@@ -150,19 +151,7 @@ public abstract class BookKeeperLogTests extends DurableDataLogTestBase {
         this.zkClient.get().start();
 
         // Setup config to use the port and namespace.
-        this.config.set(BookKeeperConfig
-                .builder()
-                .with(BookKeeperConfig.ZK_ADDRESS, "localhost:" + BK_PORT.get())
-                .with(BookKeeperConfig.MAX_WRITE_ATTEMPTS, MAX_WRITE_ATTEMPTS)
-                .with(BookKeeperConfig.BK_LEDGER_MAX_SIZE, MAX_LEDGER_SIZE)
-                .with(BookKeeperConfig.ZK_METADATA_PATH, namespace)
-                .with(BookKeeperConfig.BK_LEDGER_PATH, "/pravega/bookkeeper/ledgers")
-                .with(BookKeeperConfig.BK_ENSEMBLE_SIZE, BOOKIE_COUNT)
-                .with(BookKeeperConfig.BK_WRITE_QUORUM_SIZE, BOOKIE_COUNT)
-                .with(BookKeeperConfig.BK_ACK_QUORUM_SIZE, BOOKIE_COUNT)
-                .with(BookKeeperConfig.BK_TLS_ENABLED, isSecure())
-                .with(BookKeeperConfig.BK_WRITE_TIMEOUT, 5000)
-                .build());
+        this.config.set(newConfigBuilder(namespace).build());
 
         // Create default factory.
         val factory = new BookKeeperLogFactory(this.config.get(), this.zkClient.get(), executorService());
@@ -183,6 +172,43 @@ public abstract class BookKeeperLogTests extends DurableDataLogTestBase {
         }
     }
 
+    /**
+     * Tests reading with various read-ahead settings. The data spans multiple Ledgers (some of which are empty), so this
+     * also verifies that the next Ledger is properly prefetched while the current one is being read.
+     *
+     * @throws Exception If one got thrown.
+     */
+    @Test
+    public void testReadAhead() throws Exception {
+        TreeMap<LogAddress, byte[]> writeData;
+        try (DurableDataLog log = createDurableDataLog()) {
+            log.initialize(TIMEOUT);
+            writeData = populate(log, getWriteCount());
+        }
+
+        val settings = Arrays.asList(
+                new AbstractMap.SimpleImmutableEntry<>(0, Integer.MAX_VALUE), // No read-ahead.
+                new AbstractMap.SimpleImmutableEntry<>(1, 1), // Memory limit smaller than a batch.
+                new AbstractMap.SimpleImmutableEntry<>(4, WRITE_MAX_LENGTH * 10),
+                new AbstractMap.SimpleImmutableEntry<>(100, Integer.MAX_VALUE)); // Read everything ahead.
+        for (val s : settings) {
+            val config = newConfigBuilder(this.zkClient.get().getNamespace())
+                    .with(BookKeeperConfig.BK_READ_BATCH_SIZE, 3)
+                    .with(BookKeeperConfig.BK_READ_AHEAD_BATCH_COUNT, s.getKey())
+                    .with(BookKeeperConfig.BK_READ_AHEAD_MAX_BYTES, s.getValue())
+                    .build();
+            @Cleanup
+            val factory = new BookKeeperLogFactory(config, this.zkClient.get(), executorService());
+            factory.initialize();
+
+            // Each initialization adds a new (empty) Ledger.
+            @Cleanup
+            val log = factory.createDurableDataLog(CONTAINER_ID);
+            log.initialize(TIMEOUT);
+            verifyReads(log, writeData);
+        }
+    }
+
     /**
      * Tests the BookKeeperLogFactory and its initialization.
      */
@@ -737,6 +763,21 @@ public abstract class BookKeeperLogTests extends DurableDataLogTestBase {
         return THREAD_POOL_SIZE;
     }
 
+    private ConfigBuilder<BookKeeperConfig> newConfigBuilder(String namespace) {
+        return BookKeeperConfig
+                .builder()
+                .with(BookKeeperConfig.ZK_ADDRESS, "localhost:" + BK_PORT.get())
+                .with(BookKeeperConfig.MAX_WRITE_ATTEMPTS, MAX_WRITE_ATTEMPTS)
+                .with(BookKeeperConfig.BK_LEDGER_MAX_SIZE, MAX_LEDGER_SIZE)
+                .with(BookKeeperConfig.ZK_METADATA_PATH, namespace)
+                .with(BookKeeperConfig.BK_LEDGER_PATH, "/pravega/bookkeeper/ledgers")
+                .with(BookKeeperConfig.BK_ENSEMBLE_SIZE, BOOKIE_COUNT)
+                .with(BookKeeperConfig.BK_WRITE_QUORUM_SIZE, BOOKIE_COUNT)
+                .with(BookKeeperConfig.BK_ACK_QUORUM_SIZE, BOOKIE_COUNT)
+                .with(BookKeeperConfig.BK_TLS_ENABLED, isSecure())
+                .with(BookKeeperConfig.BK_WRITE_TIMEOUT, 5000);
+    }
+
     private static void stopFirstBookie() {
         BK_SERVICE.get().stopBookie(0);
     }
@@ -0,0 +1,275 @@
+/**
+ * Copyright (c) Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.storage.impl.filesystem;
+
+import com.google.common.base.Preconditions;
+import io.pravega.common.io.FileHelpers;
+import io.pravega.common.util.CloseableIterator;
+import io.pravega.common.util.CompositeByteArraySegment;
+import io.pravega.segmentstore.storage.DataLogCorruptedException;
+import io.pravega.segmentstore.storage.DurableDataLog;
+import io.pravega.segmentstore.storage.DurableDataLogException;
+import io.pravega.segmentstore.storage.DurableDataLogTestBase;
+import io.pravega.segmentstore.storage.LogAddress;
+import io.pravega.segmentstore.storage.WriteTooLongException;
+import io.pravega.test.common.AssertExtensions;
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import lombok.Cleanup;
+import lombok.val;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Unit tests for FileSystemLog.
+ */
+public class FileSystemLogTests extends DurableDataLogTestBase {
+    private static final int WRITE_COUNT = 250;
+    private static final int THREAD_POOL_SIZE = 3;
+    private static final int LARGE_WRITE_LENGTH = 100 * 1024;
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(TIMEOUT.getSeconds());
+    private final Supplier<Integer> nextContainerId = new AtomicInteger()::incrementAndGet;
+    private File root;
+    private FileSystemLogConfig config;
+    private FileSystemLogFactory factory;
+
+    @Before
+    public void setUp() throws Exception {
+        this.root = Files.createTempDirectory("filesystemlog").toFile();
+        this.config = createConfig(this.root.getAbsolutePath(), FileSystemLogConfig.ROLLOVER_SIZE.getDefaultValue());
+        this.factory = new FileSystemLogFactory(this.config, executorService());
+        this.factory.initialize();
+    }
+
+    @After
+    public void tearDown() {
+        if (this.factory != null) {
+            this.factory.close();
+            this.factory = null;
+        }
+
+        if (this.root != null) {
+            FileHelpers.deleteFileOrDirectory(this.root);
+            this.root = null;
+        }
+    }
+
+    @Override
+    protected int getThreadPoolSize() {
+        return THREAD_POOL_SIZE;
+    }
+
+    //region DurableDataLogTestBase Implementation
+
+    @Override
+    protected DurableDataLog createDurableDataLog() {
+        return this.factory.createDurableDataLog(this.nextContainerId.get());
+    }
+
+    @Override
+    protected DurableDataLog createDurableDataLog(Object sharedContext) {
+        Preconditions.checkArgument(sharedContext instanceof Integer);
+        return this.factory.createDurableDataLog((Integer) sharedContext);
+    }
+
+    @Override
+    protected Object createSharedContext() {
+        return this.nextContainerId.get();
+    }
+
+    @Override
+    protected LogAddress createLogAddress(long seqNo) {
+        return new FileSystemLogAddress(seqNo);
+    }
+
+    @Override
+    protected int getWriteCount() {
+        return WRITE_COUNT;
+    }
+
+    //endregion
+
+    /**
+     * Tests the getWriteSettings() method and the handling of writes that exceed the maximum length.
+     */
+    @Test
+    public void testWriteSettings() throws Exception {
+        @Cleanup
+        val log = createDurableDataLog();
+        val ws = log.getWriteSettings();
+        Assert.assertEquals(FileSystemLogConfig.MAX_APPEND_LENGTH, ws.getMaxWriteLength());
+        Assert.assertEquals((int) FileSystemLogConfig.MAX_OUTSTANDING_BYTES.getDefaultValue(), ws.getMaxOutstandingBytes());
+
+        log.initialize(TIMEOUT);
+        AssertExtensions.assertSuppliedFutureThrows(
+                "append() accepted a write exceeding the maximum length.",
+                () -> log.append(new CompositeByteArraySegment(FileSystemLogConfig.MAX_APPEND_LENGTH + 1), TIMEOUT),
+                ex -> ex instanceof WriteTooLongException);
+    }
+
+    /**
+     * Tests the ability to roll over to new files once the current one exceeds the configured size, as well as the
+     * deletion of files once the log has been truncated past them.
+     */
+    @Test
+    public void testRollover() throws Exception {
+        final int rolloverSize = FileSystemLogConfig.MAX_APPEND_LENGTH;
+        @Cleanup
+        val rolloverFactory = new FileSystemLogFactory(createConfig(this.root.getAbsolutePath(), rolloverSize), executorService());
+        rolloverFactory.initialize();
+        final int containerId = this.nextContainerId.get();
+        final int writeCount = 50;
+        val rnd = new Random(0);
+        val futures = new ArrayList<CompletableFuture<LogAddress>>();
+        val data = new ArrayList<byte[]>();
+        TreeMap<LogAddress, byte[]> writeData = new TreeMap<>(Comparator.comparingLong(LogAddress::getSequence));
+        try (DurableDataLog log = rolloverFactory.createDurableDataLog(containerId)) {
+            log.initialize(TIMEOUT);
+            for (int i = 0; i < writeCount; i++) {
+                byte[] d = new byte[LARGE_WRITE_LENGTH];
+                rnd.nextBytes(d);
+                futures.add(log.append(new CompositeByteArraySegment(d), TIMEOUT));
+                data.add(d);
+            }
+
+            for (int i = 0; i < writeCount; i++) {
+                writeData.put(futures.get(i).join(), data.get(i));
+            }
+        }
+
+        int[] fileIds = writeData.keySet().stream().mapToInt(a -> ((FileSystemLogAddress) a).getFileId()).distinct().sorted().toArray();
+        AssertExtensions.assertGreaterThan("Expected the log to roll over.", 1, fileIds.length);
+        Path logPath = FileSystemLog.getLogPath(this.config, containerId);
+        for (int fileId : fileIds) {
+            AssertExtensions.assertLessThanOrEqual("Unexpected file length for file " + fileId, rolloverSize, Files.size(getDataFilePath(logPath, fileId)));
+        }
+
+        try (DurableDataLog log = rolloverFactory.createDurableDataLog(containerId)) {
+            log.initialize(TIMEOUT);
+            verifyReads(log, writeData);
+
+            // Truncate up to the first entry in the last file. All previous files should be deleted.
+            final int lastFileId = fileIds[fileIds.length - 1];
+            val truncationAddress = writeData.keySet().stream()
+                                             .filter(a -> ((FileSystemLogAddress) a).getFileId() == lastFileId)
+                                             .findFirst().get();
+            log.truncate(truncationAddress, TIMEOUT).join();
+            writeData.headMap(truncationAddress, true).clear();
+            verifyReads(log, writeData);
+            for (int fileId : fileIds) {
+                Assert.assertEquals("Unexpected file existence after truncation for file " + fileId,
+                        fileId == lastFileId, Files.exists(getDataFilePath(logPath, fileId)));
+            }
+        }
+    }
+
+    /**
+     * Tests the ability to recover from a partially written entry at the end of the last file (i.e., a crash in the
+     * middle of a write).
+     */
+    @Test
+    public void testRecoveryPartialWrite() throws Exception {
+        final int containerId = this.nextContainerId.get();
+        TreeMap<LogAddress, byte[]> writeData;
+        try (DurableDataLog log = createDurableDataLog(containerId)) {
+            log.initialize(TIMEOUT);
+            writeData = populate(log, getWriteCount());
+        }
+
+        // Simulate a partial write (a valid header followed by only part of the payload).
+        val lastFileId = ((FileSystemLogAddress) writeData.lastKey()).getFileId();
+        Path filePath = getDataFilePath(FileSystemLog.getLogPath(this.config, containerId), lastFileId);
+        try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer partial = ByteBuffer.allocate(FileSystemLog.ENTRY_HEADER_LENGTH + 10);
+            partial.putInt(100).putInt(123).flip();
+            channel.write(partial);
+        }
+
+        try (DurableDataLog log = createDurableDataLog(containerId)) {
+            log.initialize(TIMEOUT);
+            verifyReads(log, writeData);
+            writeData.putAll(populate(log, getWriteCount()));
+        }
+
+        try (DurableDataLog log = createDurableDataLog(containerId)) {
+            log.initialize(TIMEOUT);
+            verifyReads(log, writeData);
+        }
+    }
+
+    /**
+     * Tests the ability to detect corrupted entries in sealed files.
+     */
+    @Test
+    public void testReadCorruptedData() throws Exception {
+        final int containerId = this.nextContainerId.get();
+        TreeMap<LogAddress, byte[]> writeData;
+        try (DurableDataLog log = createDurableDataLog(containerId)) {
+            log.initialize(TIMEOUT);
+            writeData = populate(log, getWriteCount());
+        }
+
+        // Initialize the log once more; this will seal the file we just wrote to.
+        try (DurableDataLog log = createDurableDataLog(containerId)) {
+            log.initialize(TIMEOUT);
+            verifyReads(log, writeData);
+        }
+
+        // Flip a byte in the payload of the first entry.
+        val firstAddress = (FileSystemLogAddress) writeData.firstKey();
+        Path filePath = getDataFilePath(FileSystemLog.getLogPath(this.config, containerId), firstAddress.getFileId());
+        try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long position = firstAddress.getOffset() + FileSystemLog.ENTRY_HEADER_LENGTH;
+            ByteBuffer b = ByteBuffer.allocate(1);
+            channel.read(b, position);
+            b.put(0, (byte) (b.get(0) + 1));
+            b.position(0);
+            channel.write(b, position);
+        }
+
+        try (DurableDataLog log = createDurableDataLog(containerId)) {
+            log.initialize(TIMEOUT);
+            @Cleanup
+            CloseableIterator<DurableDataLog.ReadItem, DurableDataLogException> reader = log.getReader();
+            AssertExtensions.assertThrows(
+                    "Reader did not detect corrupted data.",
+                    reader::getNext,
+                    ex -> ex instanceof DataLogCorruptedException);
+        }
+    }
+
+    private Path getDataFilePath(Path logPath, int fileId) {
+        return logPath.resolve(fileId + ".log");
+    }
+
+    private FileSystemLogConfig createConfig(String rootPath, int rolloverSize) {
+        return FileSystemLogConfig
+                .builder()
+                .with(FileSystemLogConfig.ROOT, rootPath)
+                .with(FileSystemLogConfig.ROLLOVER_SIZE, rolloverSize)
+                .build();
+    }
+}
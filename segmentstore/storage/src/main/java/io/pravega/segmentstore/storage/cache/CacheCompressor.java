@@ -0,0 +1,156 @@
+/**
+ * Copyright (c) Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.storage.cache;
+
+import com.google.common.base.Preconditions;
+import io.pravega.common.util.BufferView;
+import io.pravega.common.util.ByteArraySegment;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import lombok.NonNull;
+
+/**
+ * Compresses and decompresses data stored in a {@link CacheStorage}.
+ *
+ * Notes:
+ * - This uses raw Deflate (no headers or checksums) at its fastest level. Cache Entries are short-lived and are never
+ * persisted, so integrity checks are not needed and speed is preferred over compression ratio.
+ * - The compressed data does not record its decompressed length; callers must keep track of it.
+ * - This class does not keep track of which Cache Entries are compressed; that is the responsibility of the caller.
+ * - {@link #deflate} and {@link #inflate} expose the underlying algorithm (optionally with a zlib checksum) without
+ * recording any Cache metrics, so that it may be reused for data that is not stored in the Cache.
+ */
+public final class CacheCompressor {
+    /**
+     * Data that compresses to more than this fraction of its original length is not considered worth compressing.
+     */
+    public static final double MAX_COMPRESSION_RATIO = 0.8;
+
+    /**
+     * Compresses the given data.
+     *
+     * @param data The data to compress.
+     * @return A {@link BufferView} containing the compressed data, or null if data is empty or does not compress well
+     * enough (in which case it is best stored as-is).
+     */
+    public static BufferView compress(@NonNull BufferView data) {
+        if (data.getLength() == 0) {
+            return null;
+        }
+
+        long startTime = System.nanoTime();
+        int maxLength = (int) (data.getLength() * MAX_COMPRESSION_RATIO);
+        byte[] output = new byte[maxLength + 1];
+        int outputLength = deflate(data, output, 0, maxLength, false);
+        CacheMetrics.compress(data.getLength(), outputLength, System.nanoTime() - startTime);
+        return outputLength < 0 ? null : new ByteArraySegment(output, 0, outputLength);
+    }
+
+    /**
+     * Decompresses the given data.
+     *
+     * @param data   The data to decompress. This must have been returned by {@link #compress}.
+     * @param length The length of the decompressed data.
+     * @return A {@link BufferView} containing the decompressed data.
+     * @throws CacheCorruptedException If the data could not be decompressed or its decompressed length is not the
+     *                                 expected one.
+     */
+    public static BufferView decompress(@NonNull BufferView data, int length) {
+        long startTime = System.nanoTime();
+        byte[] output = new byte[length];
+        try {
+            inflate(data, output, false);
+        } catch (DataFormatException ex) {
+            throw new CacheCorruptedException(String.format("Unable to decompress Cache Entry. %s", ex.getMessage()));
+        }
+
+        CacheMetrics.decompress(length, System.nanoTime() - startTime);
+        return new ByteArraySegment(output);
+    }
+
+    /**
+     * Compresses the given data into the given array, without recording any metrics.
+     *
+     * @param data         The data to compress.
+     * @param output       The array to write the compressed data to. This must have room for maxLength + 1 bytes
+     *                     beginning at outputOffset; the extra byte is used to detect if the compressed data exceeds
+     *                     maxLength.
+     * @param outputOffset The offset within output to begin writing at.
+     * @param maxLength    The maximum number of bytes the compressed data may have.
+     * @param checksum     If true, the compressed data is wrapped in a zlib header and trailer (which include a checksum).
+     *                     If false, raw Deflate is used.
+     * @return The number of bytes written to output, or -1 if the data does not compress to maxLength bytes or fewer.
+     */
+    public static int deflate(@NonNull BufferView data, byte[] output, int outputOffset, int maxLength, boolean checksum) {
+        Preconditions.checkArgument(outputOffset >= 0 && maxLength >= 0 && outputOffset + maxLength < output.length,
+                "output must have room for maxLength + 1 bytes after outputOffset.");
+        int outputLength = outputOffset;
+        int outputEnd = outputOffset + maxLength + 1;
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED, !checksum);
+        try {
+            deflater.setInput(data.getCopy());
+            deflater.finish();
+            while (!deflater.finished() && outputLength < outputEnd) {
+                outputLength += deflater.deflate(output, outputLength, outputEnd - outputLength);
+            }
+
+            if (!deflater.finished() || outputLength - outputOffset > maxLength) {
+                // Output would exceed the max length.
+                return -1;
+            }
+        } finally {
+            deflater.end();
+        }
+
+        return outputLength - outputOffset;
+    }
+
+    /**
+     * Decompresses the given data into the given array, without recording any metrics.
+     *
+     * @param data     The data to decompress. This must have been returned by {@link #deflate} (or {@link #compress},
+     *                 if checksum is false).
+     * @param output   The array to write the decompressed data to. Its length must be exactly the length of the
+     *                 decompressed data.
+     * @param checksum Whether the data has been compressed with a checksum (see {@link #deflate}).
+     * @throws DataFormatException If the data could not be decompressed (or its checksum does not match) or its
+     *                             decompressed length is not the length of output.
+     */
+    public static void inflate(@NonNull BufferView data, byte[] output, boolean checksum) throws DataFormatException {
+        int outputLength = 0;
+        Inflater inflater = new Inflater(!checksum);
+        try {
+            // Raw Inflaters may need an extra (dummy) byte at the end of the input in order to detect the end of the data.
+            inflater.setInput(checksum ? data.getCopy() : Arrays.copyOf(data.getCopy(), data.getLength() + 1));
+            byte[] overflow = new byte[1];
+            while (!inflater.finished() && outputLength <= output.length) {
+                // Once the output is full, keep inflating into a scratch buffer so that the Inflater may process the end
+                // of the stream (and verify the checksum, if any). Anything that ends up in there means the data is corrupt.
+                int count = outputLength < output.length
+                        ? inflater.inflate(output, outputLength, output.length - outputLength)
+                        : inflater.inflate(overflow);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+
+                outputLength += count;
+            }
+
+            if (!inflater.finished() || outputLength != output.length) {
+                throw new DataFormatException(String.format("Decompressed length mismatch. Expected %s, actual %s.",
+                        output.length, outputLength));
+            }
+        } finally {
+            inflater.end();
+        }
+    }
+}
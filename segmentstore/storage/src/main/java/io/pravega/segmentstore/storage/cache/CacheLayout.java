@@ -11,6 +11,8 @@ package io.pravega.segmentstore.storage.cache;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * Base class that defines the memory layout for a block-based {@link CacheStorage}.
@@ -39,6 +41,7 @@ abstract class CacheLayout {
     private final int blockMetadataSize;
     private final int maxBufferCount;
     private final int blocksPerBuffer;
+    private final int metadataBlockCount;
 
     //endregion
 
@@ -51,18 +54,35 @@ abstract class CacheLayout {
      * @param blockMetadataSize The size, in bytes, of the metadata for each Buffer-Block.
      */
     CacheLayout(int bufferSize, int blockSize, int blockMetadataSize) {
+        this(bufferSize, blockSize, blockMetadataSize, MAX_TOTAL_SIZE / bufferSize);
+    }
+
+    /**
+     * Creates a new instance of the {@link CacheLayout} class and performs any necessary sanity checks.
+     * @param bufferSize        The size, in bytes, of a Buffer.
+     * @param blockSize         The size, in bytes, of a Block in a Buffer.
+     * @param blockMetadataSize The size, in bytes, of the metadata for each Buffer-Block.
+     * @param maxBufferCount    The maximum number of Buffers that can be addressed using this layout.
+     */
+    CacheLayout(int bufferSize, int blockSize, int blockMetadataSize, long maxBufferCount) {
         Preconditions.checkArgument(MAX_TOTAL_SIZE % bufferSize == 0,
                 "MAX_TOTAL_SIZE (%s) must be a multiple of bufferSize()(%s).", MAX_TOTAL_SIZE, bufferSize);
+        Preconditions.checkArgument(maxBufferCount > 0 && maxBufferCount <= MAX_TOTAL_SIZE / bufferSize,
+                "maxBufferCount must be a positive number less than or equal to %s.", MAX_TOTAL_SIZE / bufferSize);
         this.bufferSize = bufferSize;
-        this.maxBufferCount = (int) (MAX_TOTAL_SIZE / this.bufferSize);
+        this.maxBufferCount = (int) maxBufferCount;
 
         Preconditions.checkArgument(bufferSize % blockSize == 0,
                 "bufferSize() (%s) must be a multiple of blockSize()(%s).", bufferSize, blockSize);
         this.blockSize = blockSize;
         this.blocksPerBuffer = this.bufferSize / this.blockSize;
 
-        Preconditions.checkArgument(this.blocksPerBuffer * blockMetadataSize == this.blockSize,
-                "All block metadata must fit exactly into a single block.");
+        int metadataSize = this.blocksPerBuffer * blockMetadataSize;
+        Preconditions.checkArgument(metadataSize % this.blockSize == 0 || metadataSize < this.blockSize,
+                "All block metadata must fit exactly into a whole number of blocks or into a single block.");
+        this.metadataBlockCount = Math.max(1, metadataSize / this.blockSize);
+        Preconditions.checkArgument(this.metadataBlockCount < this.blocksPerBuffer,
+                "All block metadata must fit into fewer than blocksPerBuffer() blocks.");
         this.blockMetadataSize = blockMetadataSize;
     }
 
@@ -88,6 +108,16 @@ abstract class CacheLayout {
         return this.blocksPerBuffer;
     }
 
+    /**
+     * Gets a value indicating how many Blocks at the beginning of each Buffer are reserved for Block metadata. These
+     * Blocks can never be used to store data.
+     *
+     * @return The number of metadata Blocks per Buffer.
+     */
+    int metadataBlockCount() {
+        return this.metadataBlockCount;
+    }
+
     /**
      * Gets a value indicating the size, in bytes, of a Buffer.
      *
@@ -140,6 +170,17 @@ abstract class CacheLayout {
      */
     abstract int calculateAddress(int bufferId, int blockId);
 
+    /**
+     * Gets the Id of the Size Class from the given address. Layouts that do not support multiple size classes will
+     * always return 0.
+     *
+     * @param address The address.
+     * @return The Size Class id. This result is undefined if `address` has not been generated using {@link #calculateAddress}.
+     */
+    int getSizeClassId(int address) {
+        return 0;
+    }
+
     /**
      * Updates the given Block Metadata to indicate that its associated Buffer-Block has a predecessor with the given address.
      *
@@ -348,4 +389,173 @@ abstract class CacheLayout {
     }
 
     //endregion
+
+    //region Size Class Layout
+
+    /**
+     * {@link CacheLayout} that can be used to split a {@link CacheStorage} into multiple Size Classes, each having its
+     * own Block size. Every Size Class has its own set of Buffers; an address encodes the Size Class it belongs to, so
+     * addresses from different Size Classes never collide.
+     *
+     * All Size Classes use 2MB Buffers (so that memory can be handed over from one Size Class to another). Block metadata
+     * is stored in the first Block(s) of each Buffer, which means smaller Block sizes need more metadata Blocks:
+     * - 256B Blocks: 8192 Blocks per Buffer, of which 256 are used for metadata.
+     * - 1KB Blocks: 2048 Blocks per Buffer, of which 16 are used for metadata.
+     * - 4KB Blocks: 512 Blocks per Buffer, of which 1 is used for metadata (this is equivalent to {@link DefaultLayout}).
+     *
+     * Address layout (31 bits used out of 32)
+     * - Bit 0: 0
+     * - Bits 1-2: Size Class Id (Max 4 Size Classes, 2 bits)
+     * - Bits 3-31: Buffer Id and Block Id. The Block Id uses log2(blocksPerBuffer) bits and the remaining bits are used
+     * for the Buffer Id.
+     *
+     * Metadata Layout (8 Bytes)
+     * - Bit 0: Used Flag.
+     * - Bits 1-(31-L-B): Not used.
+     * - Next Free Block Id (B = log2(blocksPerBuffer) bits. {@link #NO_BLOCK_ID} if Used=1)
+     * - Block Length (L = log2(blockSize) + 1 bits)
+     * - Bits 32-63: Predecessor Address.
+     */
+    static class SizeClassLayout extends CacheLayout {
+        /**
+         * The maximum number of Size Classes that can be encoded in an address.
+         */
+        static final int MAX_SIZE_CLASS_COUNT = 4;
+        @VisibleForTesting
+        static final int MIN_BLOCK_SIZE = 256;
+        @VisibleForTesting
+        static final int MAX_BLOCK_SIZE = 64 * 1024;
+        private static final int BUFFER_SIZE = 2 * 1024 * 1024;
+        private static final int SIZE_CLASS_SHIFT_BITS = 29;
+        private static final int SIZE_CLASS_MASK = MAX_SIZE_CLASS_COUNT - 1;
+        private static final int BUFFER_BLOCK_MASK = (1 << SIZE_CLASS_SHIFT_BITS) - 1;
+        private static final int ADDRESS_BIT_COUNT = Integer.SIZE;
+        private static final long USED_FLAG = 0x8000_0000_0000_0000L;
+        private static final long EMPTY_BLOCK_METADATA = 0L;
+        private final int sizeClassId;
+        private final int blockIdBitCount;
+        private final int blockIdMask;
+        private final int blockLengthBitCount;
+        private final int blockLengthMask;
+        private final int nextFreeBlockIdShiftBits;
+
+        /**
+         * Creates a new instance of the {@link SizeClassLayout} class.
+         *
+         * @param sizeClassId The Id of the Size Class. Must be a non-negative number less than {@link #MAX_SIZE_CLASS_COUNT}.
+         * @param blockSize   The size, in bytes, of a Block. Must be a power of 2 between {@link #MIN_BLOCK_SIZE} and
+         *                    {@link #MAX_BLOCK_SIZE}.
+         */
+        SizeClassLayout(int sizeClassId, int blockSize) {
+            super(BUFFER_SIZE, blockSize, Long.BYTES, getMaxBufferCount(blockSize));
+            Preconditions.checkArgument(sizeClassId >= 0 && sizeClassId < MAX_SIZE_CLASS_COUNT,
+                    "sizeClassId must be a non-negative number less than %s.", MAX_SIZE_CLASS_COUNT);
+            this.sizeClassId = sizeClassId;
+            this.blockIdBitCount = Integer.numberOfTrailingZeros(blocksPerBuffer());
+            this.blockIdMask = blocksPerBuffer() - 1;
+            this.blockLengthBitCount = Integer.numberOfTrailingZeros(blockSize) + 1;
+            this.blockLengthMask = (1 << this.blockLengthBitCount) - 1;
+            this.nextFreeBlockIdShiftBits = ADDRESS_BIT_COUNT + this.blockLengthBitCount;
+        }
+
+        private static long getMaxBufferCount(int blockSize) {
+            Preconditions.checkArgument(blockSize >= MIN_BLOCK_SIZE && blockSize <= MAX_BLOCK_SIZE && Integer.bitCount(blockSize) == 1,
+                    "blockSize must be a power of 2 between %s and %s.", MIN_BLOCK_SIZE, MAX_BLOCK_SIZE);
+            int blockIdBitCount = Integer.numberOfTrailingZeros(BUFFER_SIZE / blockSize);
+            return Math.min(MAX_TOTAL_SIZE / BUFFER_SIZE, 1L << (SIZE_CLASS_SHIFT_BITS - blockIdBitCount));
+        }
+
+        /**
+         * Creates the default set of Size Classes: 256B, 1KB and 4KB Blocks.
+         *
+         * @return A List of {@link CacheLayout}s, sorted by Block size.
+         */
+        static List<CacheLayout> defaultSizeClasses() {
+            return Arrays.asList(
+                    new SizeClassLayout(0, 256),
+                    new SizeClassLayout(1, 1024),
+                    new SizeClassLayout(2, 4 * 1024));
+        }
+
+        @Override
+        int getSizeClassId(int address) {
+            return (address >>> SIZE_CLASS_SHIFT_BITS) & SIZE_CLASS_MASK;
+        }
+
+        @Override
+        int getBufferId(int address) {
+            return (address & BUFFER_BLOCK_MASK) >>> this.blockIdBitCount;
+        }
+
+        @Override
+        int getBlockId(int address) {
+            return address & this.blockIdMask;
+        }
+
+        @Override
+        int calculateAddress(int bufferId, int blockId) {
+            assert bufferId >= 0 && bufferId < maxBufferCount();
+            assert blockId >= 0 && blockId < blocksPerBuffer();
+            return (this.sizeClassId << SIZE_CLASS_SHIFT_BITS) | (bufferId << this.blockIdBitCount) | blockId;
+        }
+
+        @Override
+        long setPredecessorAddress(long blockMetadata, int predecessorAddress) {
+            return (blockMetadata & 0xFFFF_FFFF_0000_0000L) | (0xFFFF_FFFFL & predecessorAddress);
+        }
+
+        @Override
+        int getPredecessorAddress(long blockMetadata) {
+            return (int) (blockMetadata & 0xFFFF_FFFFL);
+        }
+
+        @Override
+        long setLength(long blockMetadata, int length) {
+            blockMetadata &= ~((long) this.blockLengthMask << ADDRESS_BIT_COUNT);
+            blockMetadata |= (long) (length & this.blockLengthMask) << ADDRESS_BIT_COUNT;
+            return blockMetadata;
+        }
+
+        @Override
+        int getLength(long blockMetadata) {
+            return (int) ((blockMetadata >> ADDRESS_BIT_COUNT) & this.blockLengthMask);
+        }
+
+        @Override
+        long setNextFreeBlockId(long blockMetadata, int nextFreeBlockId) {
+            blockMetadata &= ~((long) this.blockIdMask << this.nextFreeBlockIdShiftBits);
+            return blockMetadata | ((long) (nextFreeBlockId & this.blockIdMask) << this.nextFreeBlockIdShiftBits);
+        }
+
+        @Override
+        int getNextFreeBlockId(long blockMetadata) {
+            return (int) ((blockMetadata >> this.nextFreeBlockIdShiftBits) & this.blockIdMask);
+        }
+
+        @Override
+        boolean isUsedBlock(long blockMetadata) {
+            return (blockMetadata & USED_FLAG) == USED_FLAG;
+        }
+
+        @Override
+        long newBlockMetadata(int nextFreeBlockId, int length, int predecessorAddress) {
+            long result = USED_FLAG;
+            result |= ((long) nextFreeBlockId & this.blockIdMask) << this.nextFreeBlockIdShiftBits;
+            result |= ((long) length & this.blockLengthMask) << ADDRESS_BIT_COUNT;
+            result |= 0xFFFF_FFFFL & predecessorAddress;
+            return result;
+        }
+
+        @Override
+        long emptyBlockMetadata() {
+            return EMPTY_BLOCK_METADATA;
+        }
+
+        @Override
+        String getAddressString(int address) {
+            return address == NO_ADDRESS ? "" : String.format("SizeClass = %d, %s", getSizeClassId(address), super.getAddressString(address));
+        }
+    }
+
+    //endregion
 }
@@ -34,4 +34,38 @@ final class CacheMetrics {
     static void delete(int size) {
         DYNAMIC_LOGGER.incCounterValue(MetricsNames.CACHE_DELETE_BYTES, size);
     }
+
+    static void lockContention() {
+        DYNAMIC_LOGGER.incCounterValue(MetricsNames.CACHE_LOCK_CONTENTION, 1);
+    }
+
+    static void optimisticReadRetry() {
+        DYNAMIC_LOGGER.incCounterValue(MetricsNames.CACHE_READ_RETRIES, 1);
+    }
+
+    static void deferredDelete() {
+        DYNAMIC_LOGGER.incCounterValue(MetricsNames.CACHE_DEFERRED_DELETES, 1);
+    }
+
+    static void demote(int size) {
+        DYNAMIC_LOGGER.incCounterValue(MetricsNames.CACHE_DEMOTE_BYTES, size);
+    }
+
+    static void promote(int size) {
+        DYNAMIC_LOGGER.incCounterValue(MetricsNames.CACHE_PROMOTE_BYTES, size);
+    }
+
+    static void compress(int inputSize, int outputSize, long elapsedNanos) {
+        if (outputSize >= 0) {
+            // Only account for data that was actually compressed, so that the ratio of these counters is meaningful.
+            DYNAMIC_LOGGER.incCounterValue(MetricsNames.CACHE_COMPRESS_INPUT_BYTES, inputSize);
+            DYNAMIC_LOGGER.incCounterValue(MetricsNames.CACHE_COMPRESS_OUTPUT_BYTES, outputSize);
+        }
+        DYNAMIC_LOGGER.incCounterValue(MetricsNames.CACHE_COMPRESS_MICROS, elapsedNanos / 1000);
+    }
+
+    static void decompress(int size, long elapsedNanos) {
+        DYNAMIC_LOGGER.incCounterValue(MetricsNames.CACHE_DECOMPRESS_BYTES, size);
+        DYNAMIC_LOGGER.incCounterValue(MetricsNames.CACHE_DECOMPRESS_MICROS, elapsedNanos / 1000);
+    }
 }
@@ -9,7 +9,10 @@
  */
 package io.pravega.segmentstore.storage.cache;
 
+import java.util.Collections;
+import java.util.List;
 import lombok.Getter;
+import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 
 /**
@@ -42,10 +45,74 @@ public class CacheState {
      * The maximum size, in bytes, that can be allocated in this {@link CacheStorage}.
      */
     private final long maxBytes;
+    /**
+     * The state of each Size Class, for those {@link CacheStorage} implementations that support multiple Block sizes.
+     * Empty otherwise.
+     */
+    @NonNull
+    private final List<SizeClassState> sizeClasses;
+
+    /**
+     * Creates a new instance of the {@link CacheState} class with no Size Class information.
+     *
+     * @param storedBytes    The total number of bytes stored.
+     * @param usedBytes      The total number of bytes used.
+     * @param reservedBytes  The total number of bytes used for metadata purposes.
+     * @param allocatedBytes The total number of bytes allocated.
+     * @param maxBytes       The maximum size, in bytes, that can be allocated.
+     */
+    public CacheState(long storedBytes, long usedBytes, long reservedBytes, long allocatedBytes, long maxBytes) {
+        this(storedBytes, usedBytes, reservedBytes, allocatedBytes, maxBytes, Collections.emptyList());
+    }
 
     @Override
     public String toString() {
-        return String.format("Stored = %d, Used = %d, Reserved = %d, Allocated = %d, Max = %d",
-                this.storedBytes, this.usedBytes, this.reservedBytes, this.allocatedBytes, this.maxBytes);
+        return String.format("Stored = %d, Used = %d, Reserved = %d, Allocated = %d, Max = %d%s",
+                this.storedBytes, this.usedBytes, this.reservedBytes, this.allocatedBytes, this.maxBytes,
+                this.sizeClasses.size() <= 1 ? "" : ", SizeClasses = " + this.sizeClasses);
+    }
+
+    /**
+     * Represents the state of a single Size Class within a {@link CacheStorage} instance.
+     */
+    @RequiredArgsConstructor
+    @Getter
+    public static class SizeClassState {
+        /**
+         * The size, in bytes, of a Block in this Size Class.
+         */
+        private final int blockSize;
+        /**
+         * Same as {@link CacheState#getStoredBytes()}, but only for this Size Class.
+         */
+        private final long storedBytes;
+        /**
+         * Same as {@link CacheState#getUsedBytes()}, but only for this Size Class.
+         */
+        private final long usedBytes;
+        /**
+         * Same as {@link CacheState#getReservedBytes()}, but only for this Size Class.
+         */
+        private final long reservedBytes;
+        /**
+         * Same as {@link CacheState#getAllocatedBytes()}, but only for this Size Class.
+         */
+        private final long allocatedBytes;
+
+        /**
+         * Gets a value indicating the ratio of stored bytes to used bytes (bytes occupied by the Blocks holding them).
+         * A value close to 1 indicates little padding.
+         *
+         * @return The utilization, a number between 0 and 1 (inclusive).
+         */
+        public double getUtilization() {
+            return this.usedBytes <= this.reservedBytes ? 1.0 : (double) this.storedBytes / (this.usedBytes - this.reservedBytes);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("[BlockSize = %d, Stored = %d, Used = %d, Allocated = %d]",
+                    this.blockSize, this.storedBytes, this.usedBytes, this.allocatedBytes);
+        }
     }
 }
\ No newline at end of file
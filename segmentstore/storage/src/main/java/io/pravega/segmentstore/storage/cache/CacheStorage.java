@@ -10,6 +10,7 @@
 package io.pravega.segmentstore.storage.cache;
 
 import io.pravega.common.util.BufferView;
+import io.pravega.common.util.ByteArraySegment;
 import io.pravega.segmentstore.storage.CacheException;
 import java.util.function.Supplier;
 import lombok.NonNull;
@@ -49,6 +50,21 @@ public interface CacheStorage extends AutoCloseable {
      */
     int insert(@NonNull BufferView data);
 
+    /**
+     * Inserts a new entry into this {@link CacheStorage} which is expected to be subsequently appended to using {@link #append}.
+     * Implementations that pick the block size of an entry based on its length may use this hint to place the entry in
+     * a location that can accommodate future appends. By default, this is the same as {@link #insert}.
+     *
+     * @param data A {@link BufferView} representing the entry to insert. May be empty. Must have {@link BufferView#getLength()}
+     *             less than or equal to {@link #getMaxEntryLength()}.
+     * @return An integer representing the address where this data was inserted at. This can be used to invoke {@link #append},
+     * {@link #get}, {@link #delete} or {@link #replace}.
+     * @throws CacheFullException If there is no more capacity in the {@link CacheStorage} to accomodate this entry.
+     */
+    default int insertAppendable(@NonNull BufferView data) {
+        return insert(data);
+    }
+
     /**
      * Replaces the entry at the given address with new content.
      *
@@ -64,13 +80,26 @@ public interface CacheStorage extends AutoCloseable {
     int replace(int address, @NonNull BufferView data);
 
     /**
-     * Gets the number of bytes that can be appended to an entry that has the given length.
+     * Gets the number of bytes that can be appended to an entry that has the given length and that has been inserted
+     * using {@link #insertAppendable}.
      *
      * @param currentLength The current length of the entry.
      * @return An non-negative integer representing the number of bytes that can be appended.
      */
     int getAppendableLength(int currentLength);
 
+    /**
+     * Gets the number of bytes that can be appended to the entry at the given address, which has the given length.
+     * By default, this is the same as {@link #getAppendableLength(int)}.
+     *
+     * @param address       An integer representing the address of the entry.
+     * @param currentLength The current length of the entry.
+     * @return An non-negative integer representing the number of bytes that can be appended.
+     */
+    default int getAppendableLength(int address, int currentLength) {
+        return getAppendableLength(currentLength);
+    }
+
     /**
      * Performs an atomic compare-and-appends of data at the end of an entry. This operation will only take effect if
      * the current length of the entry matches the argument `expectedLength` and both the entry's length and contents
@@ -104,6 +133,24 @@ public interface CacheStorage extends AutoCloseable {
      */
     BufferView get(int address);
 
+    /**
+     * Retrieves the contents of an entry with the given address and ensures they remain valid until released.
+     *
+     * Unlike {@link #get}, the data returned by this method will not be overwritten if the entry is deleted or replaced
+     * in the meantime. The caller must invoke {@link BufferView#release()} on the result (or on any slice of it) once it
+     * no longer needs it; until then, the memory backing it cannot be reused.
+     *
+     * The default implementation returns a copy of the data returned by {@link #get}, which needs no pinning.
+     *
+     * @param address An integer representing the address to retrieve.
+     * @return A read-only {@link BufferView} that can be used to access the data, or null if no entry is mapped to this
+     * address.
+     */
+    default BufferView getPinned(int address) {
+        BufferView data = get(address);
+        return data == null ? null : new ByteArraySegment(data.getCopy());
+    }
+
     /**
      * Returns a {@link CacheState} representing the current state of the {@link CacheStorage}.
      *
@@ -18,6 +18,8 @@ import io.pravega.common.util.BufferView;
 import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.Stack;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
 import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.ThreadSafe;
 import lombok.AccessLevel;
@@ -27,6 +29,10 @@ import lombok.RequiredArgsConstructor;
 
 /**
  * A block-based, direct memory buffer used by {@link DirectMemoryCache}.
+ *
+ * All modifications are made while holding an exclusive lock. Reads ({@link #read}) are optimistic: they do not acquire
+ * any lock and only fall back to a shared lock if the buffer has been modified while reading from it. This is safe since
+ * reads never modify the buffer and the memory backing it is never released before {@link #close()}.
  */
 @ThreadSafe
 class DirectMemoryBuffer implements AutoCloseable {
@@ -39,9 +45,10 @@ class DirectMemoryBuffer implements AutoCloseable {
     private final int id;
     private final CacheLayout layout;
     private final ByteBufAllocator allocator;
-    @GuardedBy("this")
+    private final StampedLock lock;
+    @GuardedBy("lock")
     private ByteBuf buf;
-    @GuardedBy("this")
+    @GuardedBy("lock")
     private int usedBlockCount;
 
     //endregion
@@ -62,7 +69,8 @@ class DirectMemoryBuffer implements AutoCloseable {
         this.allocator = allocator;
         this.layout = layout;
         this.id = bufferId;
-        this.usedBlockCount = 1; // Metadata Block.
+        this.lock = new StampedLock();
+        this.usedBlockCount = layout.metadataBlockCount(); // Metadata Blocks.
     }
 
     //endregion
@@ -70,13 +78,18 @@ class DirectMemoryBuffer implements AutoCloseable {
     //region AutoCloseable Implementation
 
     @Override
-    public synchronized void close() {
-        if (this.buf != null && this.buf.refCnt() > 0) {
-            this.buf.release();
-            this.buf = null;
-        }
+    public void close() {
+        long stamp = this.lock.writeLock();
+        try {
+            if (this.buf != null && this.buf.refCnt() > 0) {
+                this.buf.release();
+                this.buf = null;
+            }
 
-        this.usedBlockCount = -1;
+            this.usedBlockCount = -1;
+        } finally {
+            this.lock.unlockWrite(stamp);
+        }
     }
 
     //endregion
@@ -88,8 +101,13 @@ class DirectMemoryBuffer implements AutoCloseable {
      *
      * @return The number of used blocks.
      */
-    synchronized int getUsedBlockCount() {
-        return this.usedBlockCount;
+    int getUsedBlockCount() {
+        long stamp = this.lock.readLock();
+        try {
+            return this.usedBlockCount;
+        } finally {
+            this.lock.unlockRead(stamp);
+        }
     }
 
     /**
@@ -97,8 +115,28 @@ class DirectMemoryBuffer implements AutoCloseable {
      *
      * @return The result.
      */
-    synchronized boolean isAllocated() {
-        return this.buf != null;
+    boolean isAllocated() {
+        long stamp = this.lock.readLock();
+        try {
+            return this.buf != null;
+        } finally {
+            this.lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Gets a value indicating whether this buffer has been deallocated using {@link #tryDeallocate} and not yet
+     * activated using {@link #activate}.
+     *
+     * @return The result.
+     */
+    boolean isDeallocated() {
+        long stamp = this.lock.readLock();
+        try {
+            return this.usedBlockCount == 0;
+        } finally {
+            this.lock.unlockRead(stamp);
+        }
     }
 
     /**
@@ -107,13 +145,23 @@ class DirectMemoryBuffer implements AutoCloseable {
      *
      * @return True if at least one block is free, false otherwise.
      */
-    synchronized boolean hasCapacity() {
-        return this.usedBlockCount > 0 && this.usedBlockCount < this.layout.blocksPerBuffer();
+    boolean hasCapacity() {
+        long stamp = this.lock.readLock();
+        try {
+            return this.usedBlockCount > 0 && this.usedBlockCount < this.layout.blocksPerBuffer();
+        } finally {
+            this.lock.unlockRead(stamp);
+        }
     }
 
     @Override
-    public synchronized String toString() {
-        return String.format("Id=%d, UsedBlockCount=%d", this.id, this.usedBlockCount);
+    public String toString() {
+        long stamp = this.lock.readLock();
+        try {
+            return String.format("Id=%d, UsedBlockCount=%d", this.id, this.usedBlockCount);
+        } finally {
+            this.lock.unlockRead(stamp);
+        }
     }
 
     //endregion
@@ -133,57 +181,63 @@ class DirectMemoryBuffer implements AutoCloseable {
      * @return A {@link WriteResult} representing the result of the write, or null if {@link #hasCapacity()} is false.
      * If all the data has been written, then {@link WriteResult#getWrittenLength()} ()} will equal data.getLength().
      */
-    synchronized WriteResult write(BufferView data, int predecessorAddress) {
-        if (this.usedBlockCount >= this.layout.blocksPerBuffer()) {
-            // Full
-            return null;
-        }
-
-        ByteBuf metadataBuf = getMetadataBlock();
-        long blockMetadata = metadataBuf.getLong(0);
-        int blockId = this.layout.getNextFreeBlockId(blockMetadata);
-        assert blockId != CacheLayout.NO_BLOCK_ID;
-        final int firstBlockId = blockId;
-        int dataOffset = 0;
+    WriteResult write(BufferView data, int predecessorAddress) {
+        long stamp = this.lock.writeLock();
         try {
-            // Use a do-while loop since we want to properly handle the (valid) case when data.getLength() == 0.
-            do {
-                int bufIndex = blockId * this.layout.blockMetadataSize();
-                blockMetadata = metadataBuf.getLong(bufIndex);
-                assert !this.layout.isUsedBlock(blockMetadata);
-
-                // Copy the data to the block.
-                int blockLength = Math.min(data.getLength() - dataOffset, this.layout.blockSize());
-                if (blockLength > 0) {
-                    data.slice(dataOffset, blockLength).copyTo(getWriteableBlock(blockId, 0));
-                    dataOffset += blockLength;
+            Exceptions.checkNotClosed(this.usedBlockCount < 0, this);
+            if (this.usedBlockCount == 0 || this.usedBlockCount >= this.layout.blocksPerBuffer()) {
+                // Deallocated or Full.
+                return null;
+            }
+
+            ByteBuf metadataBuf = getMetadataBlock();
+            long blockMetadata = metadataBuf.getLong(0);
+            int blockId = this.layout.getNextFreeBlockId(blockMetadata);
+            assert blockId != CacheLayout.NO_BLOCK_ID;
+            final int firstBlockId = blockId;
+            int dataOffset = 0;
+            try {
+                // Use a do-while loop since we want to properly handle the (valid) case when data.getLength() == 0.
+                do {
+                    int bufIndex = blockId * this.layout.blockMetadataSize();
+                    blockMetadata = metadataBuf.getLong(bufIndex);
+                    assert !this.layout.isUsedBlock(blockMetadata);
+
+                    // Copy the data to the block.
+                    int blockLength = Math.min(data.getLength() - dataOffset, this.layout.blockSize());
+                    if (blockLength > 0) {
+                        data.slice(dataOffset, blockLength).copyTo(getWriteableBlock(blockId, 0));
+                        dataOffset += blockLength;
+                    }
+
+                    // Update block metadata.
+                    long metadata = this.layout.newBlockMetadata(CacheLayout.NO_BLOCK_ID, blockLength, predecessorAddress);
+                    metadataBuf.setLong(bufIndex, metadata);
+                    this.usedBlockCount++;
+
+                    // Move on to the next block to write.
+                    predecessorAddress = this.layout.calculateAddress(this.id, blockId);
+                    blockId = this.layout.getNextFreeBlockId(blockMetadata);
+                } while (blockId != CacheLayout.NO_BLOCK_ID && dataOffset < data.getLength());
+            } catch (Throwable ex) {
+                if (!Exceptions.mustRethrow(ex)) {
+                    // We wrote something, but got interrupted. We need to clean up whatever we wrote so we don't leave
+                    // unreferenced data in the buffer.
+                    rollbackWrite(this.layout.getBlockId(predecessorAddress), blockId);
                 }
 
-                // Update block metadata.
-                long metadata = this.layout.newBlockMetadata(CacheLayout.NO_BLOCK_ID, blockLength, predecessorAddress);
-                metadataBuf.setLong(bufIndex, metadata);
-                this.usedBlockCount++;
-
-                // Move on to the next block to write.
-                predecessorAddress = this.layout.calculateAddress(this.id, blockId);
-                blockId = this.layout.getNextFreeBlockId(blockMetadata);
-            } while (blockId != CacheLayout.NO_BLOCK_ID && dataOffset < data.getLength());
-        } catch (Throwable ex) {
-            if (!Exceptions.mustRethrow(ex)) {
-                // We wrote something, but got interrupted. We need to clean up whatever we wrote so we don't leave
-                // unreferenced data in the buffer.
-                rollbackWrite(this.layout.getBlockId(predecessorAddress), blockId);
+                throw ex;
             }
 
-            throw ex;
-        }
-
-        // Update the root metadata.
-        blockMetadata = metadataBuf.getLong(0);
-        blockMetadata = this.layout.setNextFreeBlockId(blockMetadata, blockId);
-        metadataBuf.setLong(0, blockMetadata);
+            // Update the root metadata.
+            blockMetadata = metadataBuf.getLong(0);
+            blockMetadata = this.layout.setNextFreeBlockId(blockMetadata, blockId);
+            metadataBuf.setLong(0, blockMetadata);
 
-        return new WriteResult(dataOffset, predecessorAddress, firstBlockId);
+            return new WriteResult(dataOffset, predecessorAddress, firstBlockId);
+        } finally {
+            this.lock.unlockWrite(stamp);
+        }
     }
 
     /**
@@ -198,36 +252,41 @@ class DirectMemoryBuffer implements AutoCloseable {
      * @throws IncorrectCacheEntryLengthException If `expectedLastBlockLength` differs from the last block's length.
      * @throws IllegalArgumentException If blockId does not point to an allocated Block.
      */
-    synchronized int tryAppend(int blockId, int expectedLength, BufferView data) {
-        validateBlockId(blockId, false);
+    int tryAppend(int blockId, int expectedLength, BufferView data) {
+        long stamp = this.lock.writeLock();
+        try {
+            validateBlockId(blockId, false);
 
-        ByteBuf metadataBuf = getMetadataBlock();
-        int bufIndex = blockId * this.layout.blockMetadataSize();
-        long blockMetadata = metadataBuf.getLong(bufIndex);
-        Preconditions.checkArgument(blockId != CacheLayout.NO_BLOCK_ID && this.layout.isUsedBlock(blockMetadata),
-                "Given blockId is not allocated.");
-
-        // Validate that the given length matches the actual one.
-        int blockLength = this.layout.getLength(blockMetadata);
-        if (blockLength != expectedLength) {
-            throw new IncorrectCacheEntryLengthException(String.format(
-                    "Incorrect last block length. Expected %s, given %s.", blockLength, expectedLength));
-        }
+            ByteBuf metadataBuf = getMetadataBlock();
+            int bufIndex = blockId * this.layout.blockMetadataSize();
+            long blockMetadata = metadataBuf.getLong(bufIndex);
+            Preconditions.checkArgument(blockId != CacheLayout.NO_BLOCK_ID && this.layout.isUsedBlock(blockMetadata),
+                    "Given blockId is not allocated.");
+
+            // Validate that the given length matches the actual one.
+            int blockLength = this.layout.getLength(blockMetadata);
+            if (blockLength != expectedLength) {
+                throw new IncorrectCacheEntryLengthException(String.format(
+                        "Incorrect last block length. Expected %s, given %s.", blockLength, expectedLength));
+            }
 
-        // Adjust the length, if we were given more than we can fit.
-        int maxLength = this.layout.blockSize() - blockLength;
-        if (maxLength < data.getLength()) {
-            data = data.slice(0, maxLength);
-        }
+            // Adjust the length, if we were given more than we can fit.
+            int maxLength = this.layout.blockSize() - blockLength;
+            if (maxLength < data.getLength()) {
+                data = data.slice(0, maxLength);
+            }
 
-        // Copy the data.
-        data.copyTo(getWriteableBlock(blockId, blockLength));
-        blockLength += data.getLength();
+            // Copy the data.
+            data.copyTo(getWriteableBlock(blockId, blockLength));
+            blockLength += data.getLength();
 
-        // Update metadata.
-        blockMetadata = this.layout.setLength(blockMetadata, blockLength);
-        metadataBuf.setLong(bufIndex, blockMetadata);
-        return data.getLength();
+            // Update metadata.
+            blockMetadata = this.layout.setLength(blockMetadata, blockLength);
+            metadataBuf.setLong(bufIndex, blockMetadata);
+            return data.getLength();
+        } finally {
+            this.lock.unlockWrite(stamp);
+        }
     }
 
     /**
@@ -242,10 +301,61 @@ class DirectMemoryBuffer implements AutoCloseable {
      * @return The address of the previous Buffer-Block in the sequence, or {@link CacheLayout#NO_ADDRESS} if we have
      * reached the beginning of this entry.
      */
-    synchronized int read(int blockId, List<ByteBuf> readBuffers) {
+    int read(int blockId, List<ByteBuf> readBuffers) {
         validateBlockId(blockId, true);
-        ByteBuf metadataBuf = getMetadataBlock();
+        int initialCount = readBuffers.size();
+        long stamp = this.lock.tryOptimisticRead();
+        if (stamp != 0) {
+            // Try to read without acquiring any lock. If anything changed while we were reading, the stamp will no longer
+            // be valid and whatever we read (including any exceptions we may have encountered) cannot be trusted.
+            try {
+                int result = readInternal(blockId, readBuffers, stamp);
+                if (this.lock.validate(stamp)) {
+                    return result;
+                }
+            } catch (Throwable ex) {
+                if (Exceptions.mustRethrow(ex) || this.lock.validate(stamp)) {
+                    throw ex;
+                }
+            }
+
+            // Discard what we read and try again while holding the lock.
+            readBuffers.subList(initialCount, readBuffers.size()).clear();
+            CacheMetrics.optimisticReadRetry();
+        }
+
+        stamp = this.lock.readLock();
+        try {
+            return readInternal(blockId, readBuffers, 0);
+        } finally {
+            this.lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Performs the actual read for {@link #read}.
+     *
+     * @param blockId     The id of the Buffer-Block to begin reading from.
+     * @param readBuffers A list of {@link ByteBuf} to add read data to.
+     * @param stamp       If non-zero, the optimistic read stamp. This will be validated at each step so that we do not
+     *                    follow inconsistent block chains indefinitely.
+     * @return The address of the previous Buffer-Block in the sequence, or {@link CacheLayout#NO_ADDRESS} if we have
+     * reached the beginning of this entry (or if the stamp is no longer valid).
+     */
+    private int readInternal(int blockId, List<ByteBuf> readBuffers, long stamp) {
+        Exceptions.checkNotClosed(this.usedBlockCount < 0, this);
+        ByteBuf buf = this.buf; // Never invoke getBuf() here; it may allocate memory.
+        if (this.usedBlockCount == 0 || buf == null) {
+            // Deallocated or never used buffer; there is nothing to read.
+            return CacheLayout.NO_ADDRESS;
+        }
+
+        ByteBuf metadataBuf = getMetadataBlock(buf);
         while (blockId != CacheLayout.NO_BLOCK_ID) {
+            if (stamp != 0 && !this.lock.validate(stamp)) {
+                return CacheLayout.NO_ADDRESS;
+            }
+
             int bufIndex = blockId * this.layout.blockMetadataSize();
             long blockMetadata = metadataBuf.getLong(bufIndex);
             if (this.layout.isUsedBlock(blockMetadata)) {
@@ -256,13 +366,13 @@ class DirectMemoryBuffer implements AutoCloseable {
                 }
 
                 int predecessorAddress = this.layout.getPredecessorAddress(blockMetadata);
-                readBuffers.add(getReadOnlyDataBlock(blockId, Math.min(blockLength, this.layout.blockSize())));
+                readBuffers.add(getReadOnlyDataBlock(buf, blockId, Math.min(blockLength, this.layout.blockSize())));
                 if (predecessorAddress == CacheLayout.NO_ADDRESS || this.layout.getBufferId(predecessorAddress) != this.id) {
                     // We are done.
                     return predecessorAddress;
                 } else {
                     blockId = this.layout.getBlockId(predecessorAddress);
-                    assert blockId >= 1 && blockId < this.layout.blocksPerBuffer();
+                    assert blockId >= this.layout.metadataBlockCount() && blockId < this.layout.blocksPerBuffer();
                 }
             } else if (readBuffers.isEmpty()) {
                 return CacheLayout.NO_ADDRESS;
@@ -281,34 +391,100 @@ class DirectMemoryBuffer implements AutoCloseable {
      * @param blockId The id of the Buffer-Block to begin deleting at.
      * @return A {@link DeleteResult} containing the result of the deletion.
      */
-    synchronized DeleteResult delete(int blockId) {
-        validateBlockId(blockId, false);
-        ByteBuf metadataBuf = getMetadataBlock();
-        int deletedLength = 0;
-        int predecessorAddress = CacheLayout.NO_ADDRESS;
-        Stack<Integer> freedBlocks = new Stack<>(); // We're traversing backwards, but need these later in ascending order.
-        while (blockId != CacheLayout.NO_BLOCK_ID) {
-            long blockMetadata = metadataBuf.getLong(blockId * this.layout.blockMetadataSize());
-            if (this.layout.isUsedBlock(blockMetadata)) {
-                // Clear metadata.
-                freedBlocks.push(blockId);
-
-                // Find predecessor, if any.
-                predecessorAddress = this.layout.getPredecessorAddress(blockMetadata);
-                deletedLength += this.layout.getLength(blockMetadata);
-                if (predecessorAddress == CacheLayout.NO_ADDRESS || this.layout.getBufferId(predecessorAddress) != this.id) {
-                    break;
+    DeleteResult delete(int blockId) {
+        long stamp = this.lock.writeLock();
+        try {
+            validateBlockId(blockId, false);
+            ByteBuf metadataBuf = getMetadataBlock();
+            int deletedLength = 0;
+            int predecessorAddress = CacheLayout.NO_ADDRESS;
+            Stack<Integer> freedBlocks = new Stack<>(); // We're traversing backwards, but need these later in ascending order.
+            while (blockId != CacheLayout.NO_BLOCK_ID) {
+                long blockMetadata = metadataBuf.getLong(blockId * this.layout.blockMetadataSize());
+                if (this.layout.isUsedBlock(blockMetadata)) {
+                    // Clear metadata.
+                    freedBlocks.push(blockId);
+
+                    // Find predecessor, if any.
+                    predecessorAddress = this.layout.getPredecessorAddress(blockMetadata);
+                    deletedLength += this.layout.getLength(blockMetadata);
+                    if (predecessorAddress == CacheLayout.NO_ADDRESS || this.layout.getBufferId(predecessorAddress) != this.id) {
+                        break;
+                    } else {
+                        blockId = this.layout.getBlockId(predecessorAddress);
+                        assert blockId >= this.layout.metadataBlockCount() && blockId < this.layout.blocksPerBuffer();
+                    }
                 } else {
-                    blockId = this.layout.getBlockId(predecessorAddress);
-                    assert blockId >= 1 && blockId < this.layout.blocksPerBuffer();
+                    blockId = CacheLayout.NO_BLOCK_ID;
                 }
-            } else {
-                blockId = CacheLayout.NO_BLOCK_ID;
             }
+
+            deallocateBlocks(freedBlocks, metadataBuf);
+            return new DeleteResult(deletedLength, predecessorAddress);
+        } finally {
+            this.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Detaches the memory backing this buffer, but only if it does not hold any data. After this method completes
+     * successfully, {@link #hasCapacity()} will return false and {@link #write} will not accept any new data until
+     * {@link #activate} is invoked.
+     *
+     * The detached memory is not released; instead, it is handed over to the given recycler, which takes ownership of
+     * it. Since {@link #read} returns views into this memory that may outlive the data they were read from, releasing
+     * it here could cause those views to access freed memory. The recycler should either reuse it (via {@link #activate})
+     * or release it when the cache is closed.
+     *
+     * @param recycler A {@link Consumer} that will be invoked with the detached {@link ByteBuf}, if this buffer had
+     *                 any memory allocated.
+     * @return True if the buffer was empty and has been deallocated, false otherwise.
+     */
+    boolean tryDeallocate(Consumer<ByteBuf> recycler) {
+        long stamp = this.lock.writeLock();
+        try {
+            if (this.usedBlockCount != this.layout.metadataBlockCount()) {
+                // Either non-empty, already deallocated or closed.
+                return false;
+            }
+
+            if (this.buf != null) {
+                ByteBuf detached = this.buf;
+                this.buf = null;
+                recycler.accept(detached);
+            }
+
+            this.usedBlockCount = 0;
+            return true;
+        } finally {
+            this.lock.unlockWrite(stamp);
         }
+    }
 
-        deallocateBlocks(freedBlocks, metadataBuf);
-        return new DeleteResult(deletedLength, predecessorAddress);
+    /**
+     * Makes a buffer that does not have any memory allocated (either because it has never been used or because it has
+     * been deallocated using {@link #tryDeallocate}) available for writing.
+     *
+     * @param recycledBuf (Optional) A {@link ByteBuf} that has been previously detached from another buffer using
+     *                    {@link #tryDeallocate}. If provided, this buffer takes ownership of it and uses it as its backing
+     *                    memory. If null, the memory backing this buffer will be allocated on its first use.
+     * @throws IllegalStateException If this buffer already has memory allocated.
+     */
+    void activate(ByteBuf recycledBuf) {
+        long stamp = this.lock.writeLock();
+        try {
+            Exceptions.checkNotClosed(this.usedBlockCount < 0, this);
+            Preconditions.checkState(this.buf == null, "Buffer %s already has memory allocated.", this.id);
+            this.usedBlockCount = this.layout.metadataBlockCount();
+            if (recycledBuf != null) {
+                Preconditions.checkArgument(recycledBuf.capacity() == this.layout.bufferSize(),
+                        "Recycled buffer capacity (%s) differs from bufferSize() (%s).", recycledBuf.capacity(), this.layout.bufferSize());
+                this.buf = recycledBuf;
+                formatMetadata();
+            }
+        } finally {
+            this.lock.unlockWrite(stamp);
+        }
     }
 
     /**
@@ -320,7 +496,7 @@ class DirectMemoryBuffer implements AutoCloseable {
      * @param nextFreeBlockId    The id of the next free Block id after `lastWrittenBlockId`. Usually this is the id of
      *                           the block for which the write failed but for which we couldn't update the metadata yet.
      */
-    @GuardedBy("this")
+    @GuardedBy("lock")
     private void rollbackWrite(int lastWrittenBlockId, int nextFreeBlockId) {
         ByteBuf metadataBuf = getMetadataBlock();
         int blockId = lastWrittenBlockId;
@@ -351,7 +527,7 @@ class DirectMemoryBuffer implements AutoCloseable {
      *                    returned in ascending order.
      * @param metadataBuf A {@link ByteBuf} representing the metadata buffer.
      */
-    @GuardedBy("this")
+    @GuardedBy("lock")
     private void deallocateBlocks(Stack<Integer> blocks, ByteBuf metadataBuf) {
         if (blocks.size() == 0) {
             return;
@@ -391,51 +567,67 @@ class DirectMemoryBuffer implements AutoCloseable {
         }
     }
 
-    @GuardedBy("this")
+    @GuardedBy("lock")
     private ByteBuf getMetadataBlock() {
-        return getBuf().slice(0, this.layout.blockSize());
+        return getMetadataBlock(getBuf());
+    }
+
+    private ByteBuf getMetadataBlock(ByteBuf buf) {
+        return buf.slice(0, this.layout.metadataBlockCount() * this.layout.blockSize());
     }
 
-    @GuardedBy("this")
+    @GuardedBy("lock")
     private ByteBuffer getWriteableBlock(int blockIndex, int blockOffset) {
         assert blockOffset >= 0 && blockOffset <= this.layout.blockSize();
         return getBuf().nioBuffer(blockIndex * this.layout.blockSize() + blockOffset, this.layout.blockSize() - blockOffset);
     }
 
-    @GuardedBy("this")
-    private ByteBuf getReadOnlyDataBlock(int blockIndex, int blockLength) {
+    private ByteBuf getReadOnlyDataBlock(ByteBuf buf, int blockIndex, int blockLength) {
         assert blockLength <= this.layout.blockSize();
-        return getBuf().slice(blockIndex * this.layout.blockSize(), blockLength).asReadOnly();
+        return buf.slice(blockIndex * this.layout.blockSize(), blockLength).asReadOnly();
     }
 
-    @GuardedBy("this")
+    @GuardedBy("lock")
     private ByteBuf getBuf() {
         if (this.buf == null) {
             Exceptions.checkNotClosed(this.usedBlockCount < 0, this);
-            assert this.usedBlockCount == 1;
+            assert this.usedBlockCount == this.layout.metadataBlockCount();
 
             // There is no need to zero out the buffer (Netty does not do it). We are formatting the metadata next, which
             // is the only thing that we need to do.
             this.buf = this.allocator.directBuffer(this.layout.bufferSize(), this.layout.bufferSize());
-
-            // Format metadata.
-            ByteBuf metadataBuf = getMetadataBlock();
-            metadataBuf.writerIndex(0);
-            for (int blockId = 0; blockId < this.layout.blocksPerBuffer(); blockId++) {
-                long m = this.layout.emptyBlockMetadata();
-                m = this.layout.setNextFreeBlockId(m, blockId == this.layout.blocksPerBuffer() - 1 ? CacheLayout.NO_BLOCK_ID : blockId + 1);
-                metadataBuf.writeLong(m);
-            }
+            formatMetadata();
         }
 
         return this.buf;
     }
 
-    @GuardedBy("this")
+    @GuardedBy("lock")
+    private void formatMetadata() {
+        // The root (Block 0) points to the first data Block. Any other metadata Blocks are marked as used so that they
+        // are never picked up when searching for free Blocks (see deallocateBlocks()).
+        int firstDataBlockId = this.layout.metadataBlockCount();
+        ByteBuf metadataBuf = getMetadataBlock();
+        metadataBuf.writerIndex(0);
+        for (int blockId = 0; blockId < this.layout.blocksPerBuffer(); blockId++) {
+            long m;
+            if (blockId > 0 && blockId < firstDataBlockId) {
+                m = this.layout.newBlockMetadata(CacheLayout.NO_BLOCK_ID, 0, CacheLayout.NO_ADDRESS);
+            } else {
+                int nextFreeBlockId = blockId == 0 ? firstDataBlockId : blockId + 1;
+                m = this.layout.emptyBlockMetadata();
+                m = this.layout.setNextFreeBlockId(m, nextFreeBlockId >= this.layout.blocksPerBuffer() ? CacheLayout.NO_BLOCK_ID : nextFreeBlockId);
+            }
+
+            metadataBuf.writeLong(m);
+        }
+    }
+
+    @GuardedBy("lock")
     private void validateBlockId(int blockId, boolean canBeEmpty) {
-        Preconditions.checkState(canBeEmpty || this.usedBlockCount > 1, "Empty buffer.");
-        Preconditions.checkArgument(blockId >= 1 && blockId < this.layout.blocksPerBuffer(),
-                "blockId must be a number in the interval [1, %s).", this.layout.blocksPerBuffer());
+        Preconditions.checkState(canBeEmpty || this.usedBlockCount > this.layout.metadataBlockCount(), "Empty buffer.");
+        Preconditions.checkArgument(blockId >= this.layout.metadataBlockCount() && blockId < this.layout.blocksPerBuffer(),
+                "blockId must be a number in the interval [%s, %s).", this.layout.metadataBlockCount(), this.layout.blocksPerBuffer());
     }
 
     //endregion
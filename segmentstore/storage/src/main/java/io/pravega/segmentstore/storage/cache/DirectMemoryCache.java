@@ -21,11 +21,16 @@ import io.pravega.common.util.BufferView;
 import io.pravega.shared.protocol.netty.ByteBufWrapper;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Supplier;
 import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.ThreadSafe;
@@ -35,14 +40,28 @@ import lombok.val;
 /**
  * Represents a block-based {@link CacheStorage} that uses direct memory buffers to store data.
  *
- * Data Organization (actual values based on {@link CacheLayout.DefaultLayout}).
+ * Size Classes:
+ * - The cache is organized into one or more Size Classes, each having its own {@link CacheLayout} (and thus its own
+ * Block size). By default ({@link CacheLayout.SizeClassLayout#defaultSizeClasses()}), there are 256B, 1KB and 4KB Size Classes.
+ * - Each Size Class has its own set of Buffers. The address of an Entry encodes the Size Class it belongs to.
+ * - Upon {@link #insert} or {@link #replace}, the Entry is placed in the smallest Size Class whose Block size can
+ * accommodate the whole Entry. Entries that do not fit in a single Block of any Size Class are placed in the Size Class
+ * with the largest Block size. {@link #insertAppendable} will always use the Size Class with the largest Block size, since
+ * the Entry is expected to grow via {@link #append}.
+ * - All Size Classes share the same memory budget (`maxSizeBytes`) and use the same Buffer size. Buffers are assigned
+ * to Size Classes on demand; if a Size Class needs a new Buffer but the budget is exhausted, empty Buffers from other
+ * Size Classes are deallocated and their memory is handed over to it.
+ *
+ * Data Organization (actual values based on {@link CacheLayout.DefaultLayout}; these apply to each Size Class).
  * - The cache space is split into equal sized Buffers of length {@link CacheLayout#bufferSize()}.
  * - Each Buffer is split into equal sized Blocks of length {@link CacheLayout#blockSize()}.
- * - The first Block in a Buffer is reserved for metadata, the remaining Blocks are used to store Entry data.
+ * - The first Block(s) in a Buffer are reserved for metadata ({@link CacheLayout#metadataBlockCount()}), the remaining
+ * Blocks are used to store Entry data.
  * - Each Block metadata requires {@link CacheLayout#blockMetadataSize()} bytes and its format is defined by {@link CacheLayout};
  * there are several methods in {@link CacheLayout} that allow manipulating it.
- * - A Buffer is considered full when all its Blocks are used. Non-full Buffers are kept in a FIFO queue; they are addded
- * at the end when they become non-full and taken from the beginning when we need to insert new Entries.
+ * - A Buffer is considered full when all its Blocks are used. Non-full Buffers are kept in FIFO queues (one per Stripe,
+ * see below); they are addded at the end when they become non-full and taken from the beginning when we need to insert
+ * new Entries.
  * - An Entry may be split across multiple Buffers. It is inserted in the first available Buffer and anything that doesn't
  * fit in it is inserted into the next available buffer(s).
  * - Entries
@@ -72,6 +91,10 @@ import lombok.val;
  * have already been allocated.
  * - The {@link DirectMemoryCache} will make full use of the memory it is given to work with; consider reducing the value
  * of `maxSizeBytes` argument if less memory consumption is desired.
+ * - The only exception to the above is when a Size Class needs memory and all of it has been allocated: empty Buffers
+ * from other Size Classes give up their {@link ByteBuf}s, which are then reused by the requesting Size Class. These
+ * {@link ByteBuf}s are never released before {@link #close()}, since {@link #get} returns views into them which may
+ * still be in use.
  * - It is important to note that the usable space will be less than `maxSizeBytes` due to internal fragmentation and
  * reserved Blocks (for metadata). Using {@link CacheLayout.DefaultLayout}, which has 2MB buffers with 4KB Blocks, we have:
  * -- 4KB reserved for each 2MB allocated (0.2%)
@@ -81,7 +104,23 @@ import lombok.val;
  * --- 2KB was estimated as an average of 0B and 4095B; 0KB excess is when an Entry's length is a multiple of
  * {@link CacheLayout#blockSize()} and 4095 is when an entry's length exceeds a multiple of {@link CacheLayout#blockSize()}
  * by 1 byte.
- * -- Use {@link #getState()} to get insights into memory usage.
+ * -- Using multiple Size Classes reduces this padding for small Entries: an Entry of up to 256B wastes at most 255B
+ * and an Entry of up to 1KB wastes at most 767B. The smaller Size Classes reserve proportionally more memory for metadata
+ * (3.1% for 256B Blocks and 0.8% for 1KB Blocks).
+ * -- Use {@link #getState()} to get insights into memory usage, including per Size Class utilization.
+ *
+ * Concurrency:
+ * - The Buffers in each Size Class are partitioned into Stripes, each guarded by its own lock. A Buffer belongs to the
+ * Stripe whose index equals its id modulo the number of Stripes, so {@link #delete} can locate the Stripe from the address.
+ * - {@link #insert} picks a Stripe based on the current thread and only moves on to other Stripes if its preferred one
+ * has no capacity left. Stripe locks are only held while selecting a Buffer, not while copying data.
+ * - {@link #get} does not acquire any locks; see {@link DirectMemoryBuffer} for details.
+ * - {@link #getPinned} returns views into the cache memory which remain valid until released. Deleting (or replacing)
+ * a pinned Entry is deferred until its last pin is released, so its Blocks cannot be reused in the meantime. Pins are
+ * tracked by the Stripe owning the Entry's address and {@link #delete} checks for them and frees the Entry while
+ * holding that Stripe's pin lock, so an Entry is either pinned before being deleted (and the deletion is deferred) or
+ * deleted before being pinned (in which case there is nothing left to pin).
+ * - Contention on Stripe locks and retried reads are reported via {@link CacheMetrics}.
  */
 @ThreadSafe
 public class DirectMemoryCache implements CacheStorage {
@@ -92,14 +131,28 @@ public class DirectMemoryCache implements CacheStorage {
      */
     @VisibleForTesting
     static final int MAX_CLEANUP_ATTEMPTS = 5;
-    private final CacheLayout layout;
-    private final DirectMemoryBuffer[] buffers;
-    @GuardedBy("availableBufferIds")
-    private final ArrayDeque<Integer> availableBufferIds;
-    @GuardedBy("availableBufferIds")
-    private final ArrayDeque<Integer> unallocatedBufferIds;
+    /**
+     * The maximum number of Stripes in each Size Class.
+     */
+    private static final int MAX_STRIPE_COUNT = 16;
+    /**
+     * Size Classes, sorted by Block size. The index of each Size Class matches its Size Class Id.
+     */
+    private final SizeClass[] sizeClasses;
+    private final long maxSizeBytes;
+    /**
+     * Memory that has been detached from deallocated Buffers (see {@link DirectMemoryBuffer#tryDeallocate}) and which
+     * can be reused by any Size Class.
+     */
+    @GuardedBy("recycledBuffers")
+    private final ArrayDeque<ByteBuf> recycledBuffers;
+    /**
+     * The number of bytes reserved by all Size Classes for their active Buffers. This, together with the memory held in
+     * {@link #recycledBuffers}, never exceeds {@link #maxSizeBytes}.
+     */
+    @GuardedBy("recycledBuffers")
+    private long reservedBufferBytes;
     private final AtomicBoolean closed;
-    private final AtomicLong storedBytes;
     private final AtomicReference<Supplier<Boolean>> tryCleanup;
     private final AtomicInteger retryDelayBaseMillis;
 
@@ -108,18 +161,19 @@ public class DirectMemoryCache implements CacheStorage {
     //region Constructor
 
     /**
-     * Creates a new instance of the {@link DirectMemoryCache} class.
+     * Creates a new instance of the {@link DirectMemoryCache} class using the default Size Classes
+     * ({@link CacheLayout.SizeClassLayout#defaultSizeClasses()}).
      *
      * @param maxSizeBytes The maximum size (in bytes) of the cache. The actual capacity of the cache may be rounded up
-     *                     to the nearest buffer size alignment, which is a multiple of {@link CacheLayout.DefaultLayout#bufferSize()}.
+     *                     to the nearest buffer size alignment, which is a multiple of the largest Size Class buffer size.
      * @throws IllegalArgumentException If maxSizeBytes is less than or equal to 0 or greater than {@link CacheLayout#MAX_TOTAL_SIZE}.
      */
     public DirectMemoryCache(long maxSizeBytes) {
-        this(new CacheLayout.DefaultLayout(), maxSizeBytes);
+        this(CacheLayout.SizeClassLayout.defaultSizeClasses(), maxSizeBytes);
     }
 
     /**
-     * Creates a new instance of the {@link DirectMemoryCache} class.
+     * Creates a new instance of the {@link DirectMemoryCache} class with a single Size Class.
      *
      * @param layout       The {@link CacheLayout} to use.
      * @param maxSizeBytes The maximum size (in bytes) of the cache. The actual capacity of the cache may be rounded up
@@ -129,30 +183,83 @@ public class DirectMemoryCache implements CacheStorage {
      */
     @VisibleForTesting
     DirectMemoryCache(@NonNull CacheLayout layout, long maxSizeBytes) {
+        this(Collections.singletonList(layout), maxSizeBytes);
+    }
+
+    /**
+     * Creates a new instance of the {@link DirectMemoryCache} class.
+     *
+     * @param layouts      The {@link CacheLayout}s to use, one for each Size Class, sorted by {@link CacheLayout#blockSize()}.
+     *                     If more than one is provided, the {@link CacheLayout} at index i must generate addresses for
+     *                     which {@link CacheLayout#getSizeClassId} returns i.
+     * @param maxSizeBytes The maximum size (in bytes) of the cache. The actual capacity of the cache may be rounded up
+     *                     to the nearest buffer size alignment, which is a multiple of the largest {@link CacheLayout#bufferSize()}.
+     * @throws IllegalArgumentException If maxSizeBytes is less than or equal to 0 or greater than {@link CacheLayout#MAX_TOTAL_SIZE}.
+     */
+    @VisibleForTesting
+    DirectMemoryCache(@NonNull List<CacheLayout> layouts, long maxSizeBytes) {
+        this(layouts, maxSizeBytes, getDefaultMaxStripeCount());
+    }
+
+    /**
+     * Creates a new instance of the {@link DirectMemoryCache} class.
+     *
+     * @param layouts        The {@link CacheLayout}s to use, one for each Size Class, sorted by {@link CacheLayout#blockSize()}.
+     *                       If more than one is provided, the {@link CacheLayout} at index i must generate addresses for
+     *                       which {@link CacheLayout#getSizeClassId} returns i.
+     * @param maxSizeBytes   The maximum size (in bytes) of the cache. The actual capacity of the cache may be rounded up
+     *                       to the nearest buffer size alignment, which is a multiple of the largest {@link CacheLayout#bufferSize()}.
+     * @param maxStripeCount The maximum number of Stripes in each Size Class. Size Classes never have more Stripes than
+     *                       Buffers.
+     * @throws IllegalArgumentException If maxSizeBytes is less than or equal to 0 or greater than {@link CacheLayout#MAX_TOTAL_SIZE}.
+     */
+    @VisibleForTesting
+    DirectMemoryCache(@NonNull List<CacheLayout> layouts, long maxSizeBytes, int maxStripeCount) {
+        this(layouts, maxSizeBytes, maxStripeCount, null);
+    }
+
+    /**
+     * Creates a new instance of the {@link DirectMemoryCache} class.
+     *
+     * @param layouts        The {@link CacheLayout}s to use, one for each Size Class, sorted by {@link CacheLayout#blockSize()}.
+     *                       If more than one is provided, the {@link CacheLayout} at index i must generate addresses for
+     *                       which {@link CacheLayout#getSizeClassId} returns i.
+     * @param maxSizeBytes   The maximum size (in bytes) of the cache. The actual capacity of the cache may be rounded up
+     *                       to the nearest buffer size alignment, which is a multiple of the largest {@link CacheLayout#bufferSize()}.
+     * @param maxStripeCount The maximum number of Stripes in each Size Class. Size Classes never have more Stripes than
+     *                       Buffers.
+     * @param allocator      (Optional) The {@link ByteBufAllocator} to allocate Buffers with. If null, {@link #createAllocator()}
+     *                       will be used. This {@link DirectMemoryCache} will not close or otherwise dispose of it.
+     * @throws IllegalArgumentException If maxSizeBytes is less than or equal to 0 or greater than {@link CacheLayout#MAX_TOTAL_SIZE}.
+     */
+    DirectMemoryCache(@NonNull List<CacheLayout> layouts, long maxSizeBytes, int maxStripeCount, ByteBufAllocator allocator) {
+        Preconditions.checkArgument(maxStripeCount > 0, "maxStripeCount must be a positive number.");
         Preconditions.checkArgument(maxSizeBytes > 0 && maxSizeBytes <= CacheLayout.MAX_TOTAL_SIZE,
                 "maxSizeBytes must be a positive number less than %s.", CacheLayout.MAX_TOTAL_SIZE);
-        maxSizeBytes = adjustMaxSizeIfNeeded(maxSizeBytes, layout);
+        Preconditions.checkArgument(!layouts.isEmpty() && layouts.size() <= CacheLayout.SizeClassLayout.MAX_SIZE_CLASS_COUNT,
+                "Expected between 1 and %s layouts.", CacheLayout.SizeClassLayout.MAX_SIZE_CLASS_COUNT);
+        for (int i = 0; i < layouts.size(); i++) {
+            CacheLayout l = layouts.get(i);
+            Preconditions.checkArgument(i == 0 || l.blockSize() > layouts.get(i - 1).blockSize(),
+                    "Layouts must be sorted by block size.");
+            Preconditions.checkArgument(layouts.size() == 1 || l.getSizeClassId(l.calculateAddress(0, 1)) == i,
+                    "Layout at index %s does not generate addresses for Size Class %s.", i, i);
+            Preconditions.checkArgument(l.bufferSize() == layouts.get(0).bufferSize(), "All layouts must have the same buffer size.");
+        }
 
-        this.layout = layout;
+        this.maxSizeBytes = adjustMaxSizeIfNeeded(maxSizeBytes, layouts.get(layouts.size() - 1));
         this.tryCleanup = new AtomicReference<>(null);
         this.retryDelayBaseMillis = new AtomicInteger(0);
-        this.storedBytes = new AtomicLong(0);
+        this.recycledBuffers = new ArrayDeque<>();
+        this.reservedBufferBytes = 0;
         this.closed = new AtomicBoolean(false);
-        this.buffers = new DirectMemoryBuffer[(int) (maxSizeBytes / this.layout.bufferSize())];
-        this.availableBufferIds = new ArrayDeque<>(this.buffers.length);
-        this.unallocatedBufferIds = new ArrayDeque<>(this.buffers.length);
-        createBuffers();
-    }
+        if (allocator == null) {
+            allocator = createAllocator();
+        }
 
-    /**
-     * Creates all the {@link DirectMemoryBuffer} instances for this {@link DirectMemoryCache} instance.
-     */
-    @GuardedBy("availableBufferIds")
-    private void createBuffers() {
-        ByteBufAllocator allocator = createAllocator();
-        for (int i = 0; i < this.buffers.length; i++) {
-            this.unallocatedBufferIds.addLast(i);
-            this.buffers[i] = new DirectMemoryBuffer(i, allocator, this.layout);
+        this.sizeClasses = new SizeClass[layouts.size()];
+        for (int i = 0; i < this.sizeClasses.length; i++) {
+            this.sizeClasses[i] = new SizeClass(layouts.get(i), allocator, maxStripeCount);
         }
     }
 
@@ -164,7 +271,7 @@ public class DirectMemoryCache implements CacheStorage {
     /**
      * Rounds up the maxSize argument to be a multiple of {@link CacheLayout#bufferSize()} for the given layout.
      */
-    private long adjustMaxSizeIfNeeded(long maxSize, CacheLayout layout) {
+    static long adjustMaxSizeIfNeeded(long maxSize, CacheLayout layout) {
         long r = maxSize % layout.bufferSize();
         if (r != 0) {
             maxSize = maxSize - r + layout.bufferSize();
@@ -179,13 +286,13 @@ public class DirectMemoryCache implements CacheStorage {
     @Override
     public void close() {
         if (!this.closed.getAndSet(true)) {
-            synchronized (this.availableBufferIds) {
-                this.availableBufferIds.clear();
-                this.unallocatedBufferIds.clear();
+            for (SizeClass sc : this.sizeClasses) {
+                sc.close();
             }
 
-            for (DirectMemoryBuffer b : this.buffers) {
-                b.close();
+            synchronized (this.recycledBuffers) {
+                this.recycledBuffers.forEach(ByteBuf::release);
+                this.recycledBuffers.clear();
             }
         }
     }
@@ -196,7 +303,7 @@ public class DirectMemoryCache implements CacheStorage {
 
     @Override
     public int getBlockAlignment() {
-        return this.layout.blockSize();
+        return getLargestSizeClass().layout.blockSize();
     }
 
     @Override
@@ -206,6 +313,15 @@ public class DirectMemoryCache implements CacheStorage {
 
     @Override
     public int insert(BufferView data) {
+        return insert(data, selectSizeClass(data.getLength()));
+    }
+
+    @Override
+    public int insertAppendable(BufferView data) {
+        return insert(data, getLargestSizeClass());
+    }
+
+    private int insert(BufferView data, SizeClass sizeClass) {
         Exceptions.checkNotClosed(this.closed.get(), this);
         Preconditions.checkArgument(data.getLength() <= CacheLayout.MAX_ENTRY_SIZE,
                 "Entry too long. Expected max %s, given %s.", CacheLayout.MAX_ENTRY_SIZE, data.getLength());
@@ -217,7 +333,7 @@ public class DirectMemoryCache implements CacheStorage {
             // and write the remaining data to it.
             while (remainingLength > 0 || lastBlockAddress == CacheLayout.NO_ADDRESS) {
                 // Get a Buffer to write data to. If we are full, this will throw an appropriate exception.
-                DirectMemoryBuffer buffer = getNextAvailableBuffer();
+                DirectMemoryBuffer buffer = getNextAvailableBuffer(sizeClass);
 
                 // Write the data to the buffer.
                 BufferView slice = data.slice(data.getLength() - remainingLength, remainingLength);
@@ -231,7 +347,7 @@ public class DirectMemoryCache implements CacheStorage {
                 // invoking delete() will undo this changes as well.
                 assert writeResult.getWrittenLength() >= 0 && writeResult.getWrittenLength() <= remainingLength : writeResult.getWrittenLength();
                 remainingLength -= writeResult.getWrittenLength();
-                this.storedBytes.addAndGet(writeResult.getWrittenLength());
+                sizeClass.storedBytes.addAndGet(writeResult.getWrittenLength());
                 lastBlockAddress = writeResult.getLastBlockAddress();
             }
         } catch (Throwable ex) {
@@ -259,10 +375,20 @@ public class DirectMemoryCache implements CacheStorage {
 
     @Override
     public int getAppendableLength(int currentLength) {
+        // Entries that are expected to be appended to are inserted into the largest Size Class.
+        return getAppendableLength(getLargestSizeClass().layout, currentLength);
+    }
+
+    @Override
+    public int getAppendableLength(int address, int currentLength) {
+        return getAppendableLength(getSizeClass(address).layout, currentLength);
+    }
+
+    private int getAppendableLength(CacheLayout layout, int currentLength) {
         // If the current length is 0, we still allocate a block for it, so we need to indicate we can return the full
         // block length for that. Otherwise we can only append up to the end of the last block.
-        int lastBlockLength = currentLength % this.layout.blockSize();
-        return currentLength == 0 ? this.layout.blockSize() : (lastBlockLength == 0 ? 0 : this.layout.blockSize() - lastBlockLength);
+        int lastBlockLength = currentLength % layout.blockSize();
+        return currentLength == 0 ? layout.blockSize() : (lastBlockLength == 0 ? 0 : layout.blockSize() - lastBlockLength);
     }
 
     @Override
@@ -271,16 +397,18 @@ public class DirectMemoryCache implements CacheStorage {
         Preconditions.checkArgument(address != CacheLayout.NO_ADDRESS, "Invalid address.");
 
         // We can only append to fill the last block. For anything else a new write will be needed.
+        SizeClass sizeClass = getSizeClass(address);
+        CacheLayout layout = sizeClass.layout;
         int appendedBytes = 0;
-        int expectedLastBlockLength = this.layout.blockSize() - getAppendableLength(expectedLength);
-        Preconditions.checkArgument(expectedLastBlockLength + data.getLength() <= this.layout.blockSize(),
+        int expectedLastBlockLength = layout.blockSize() - getAppendableLength(layout, expectedLength);
+        Preconditions.checkArgument(expectedLastBlockLength + data.getLength() <= layout.blockSize(),
                 "data is too long; use getAppendableLength() to determine how much data can be appended.");
 
-        int bufferId = this.layout.getBufferId(address);
-        int blockId = this.layout.getBlockId(address);
-        appendedBytes = this.buffers[bufferId].tryAppend(blockId, expectedLastBlockLength, data);
+        int bufferId = layout.getBufferId(address);
+        int blockId = layout.getBlockId(address);
+        appendedBytes = sizeClass.getBuffer(bufferId).tryAppend(blockId, expectedLastBlockLength, data);
 
-        this.storedBytes.addAndGet(appendedBytes);
+        sizeClass.storedBytes.addAndGet(appendedBytes);
         CacheMetrics.append(appendedBytes);
         return appendedBytes;
     }
@@ -288,12 +416,21 @@ public class DirectMemoryCache implements CacheStorage {
     @Override
     public void delete(int address) {
         Exceptions.checkNotClosed(this.closed.get(), this);
+        getSizeClass(address).getStripe(address).delete(address);
+    }
+
+    private void deleteInternal(int address) {
+        SizeClass sizeClass = getSizeClass(address);
         int deletedLength = 0;
         while (address != CacheLayout.NO_ADDRESS) {
             // Locate the Buffer-Block for the current address.
-            int bufferId = this.layout.getBufferId(address);
-            int blockId = this.layout.getBlockId(address);
-            DirectMemoryBuffer b = this.buffers[bufferId];
+            int bufferId = sizeClass.layout.getBufferId(address);
+            int blockId = sizeClass.layout.getBlockId(address);
+            DirectMemoryBuffer b = sizeClass.getBuffer(bufferId);
+            if (b == null) {
+                // This buffer has never been used, so there is nothing to delete.
+                break;
+            }
 
             // Keep track if this was full before we removed anything from it.
             boolean wasFull = !b.hasCapacity();
@@ -303,66 +440,121 @@ public class DirectMemoryCache implements CacheStorage {
             address = result.getPredecessorAddress();
             deletedLength += result.getDeletedLength();
             if (wasFull && b.hasCapacity()) {
-                synchronized (this.availableBufferIds) {
-                    // This block was full before, but it no longer is now. Add it to the pool of available buffer ids
-                    // so we can reuse it if we need to. There is a slim chance that this buffer becomes full in the
-                    // time before we checked above and entering this block, but #getNextAvailableBuffer() can handle
-                    // that situation.
-                    this.availableBufferIds.addLast(b.getId());
-                }
+                // This block was full before, but it no longer is now. Add it to the pool of available buffer ids
+                // so we can reuse it if we need to. There is a slim chance that this buffer becomes full in the
+                // time before we checked above and entering this block, but #getNextAvailableBuffer() can handle
+                // that situation.
+                sizeClass.makeAvailable(b.getId());
             }
         }
 
-        this.storedBytes.addAndGet(-deletedLength);
+        sizeClass.storedBytes.addAndGet(-deletedLength);
         CacheMetrics.delete(deletedLength);
     }
 
     @Override
     public BufferView get(int address) {
+        List<ByteBuf> readBuffers = read(address);
+        if (readBuffers.isEmpty()) {
+            // Couldn't read anything, so this address must not point to anything.
+            return null;
+        }
+
+        // Compose the result and return it.
+        ByteBuf first = readBuffers.get(0);
+        ByteBuf result = readBuffers.size() == 1 ? first :
+                new CompositeByteBuf(first.alloc(), false, readBuffers.size(), readBuffers);
+        return new NonReleaseableByteBufWrapper(result);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The returned {@link BufferView} references this cache's memory directly (no copy is made). The Blocks backing it
+     * are pinned until {@link BufferView#release()} is invoked on it (or on all of its slices, which share its reference
+     * count). If the entry is deleted (or replaced) while pinned, the deletion is deferred until it is unpinned.
+     */
+    @Override
+    public BufferView getPinned(int address) {
+        Exceptions.checkNotClosed(this.closed.get(), this);
+        getSizeClass(address).getStripe(address).pin(address);
+        List<ByteBuf> readBuffers;
+        try {
+            readBuffers = read(address);
+        } catch (Throwable ex) {
+            unpin(address);
+            throw ex;
+        }
+
+        if (readBuffers.isEmpty()) {
+            unpin(address);
+            return null;
+        }
+
+        // Each slice holds a reference to its Buffer's memory, which ensures it is not deallocated (see #close()) while
+        // pinned. These references are released when the PinnedByteBuf is itself deallocated.
+        readBuffers.forEach(ByteBuf::retain);
+        return new ByteBufWrapper(new PinnedByteBuf(readBuffers, () -> unpin(address)));
+    }
+
+    /**
+     * Reads the entry at the given address.
+     *
+     * @param address The address to read.
+     * @return A List of read-only {@link ByteBuf}s (slices of our Buffers), in order, which make up the entry. This will
+     * be empty if the address does not point to anything.
+     */
+    private List<ByteBuf> read(int address) {
         Exceptions.checkNotClosed(this.closed.get(), this);
+        SizeClass sizeClass = getSizeClass(address);
         List<ByteBuf> readBuffers = new ArrayList<>();
 
         while (address != CacheLayout.NO_ADDRESS) {
             // Locate the Buffer-Block for the current address.
-            int bufferId = this.layout.getBufferId(address);
-            int blockId = this.layout.getBlockId(address);
-            DirectMemoryBuffer b = this.buffers[bufferId];
+            int bufferId = sizeClass.layout.getBufferId(address);
+            int blockId = sizeClass.layout.getBlockId(address);
+            DirectMemoryBuffer b = sizeClass.getBuffer(bufferId);
+            if (b == null) {
+                // This buffer has never been used, so there is nothing to read.
+                break;
+            }
 
             // Fetch the read data into our buffer collection and then set the address to the next in the chain.
             address = b.read(blockId, readBuffers);
         }
 
         if (readBuffers.isEmpty()) {
-            // Couldn't read anything, so this address must not point to anything.
-            return null;
-        } else {
-            // Compose the result and return it.
-            ByteBuf first = readBuffers.get(0);
-            ByteBuf result = readBuffers.size() == 1 ? first :
-                    new CompositeByteBuf(first.alloc(), false, readBuffers.size(), Lists.reverse(readBuffers));
-            CacheMetrics.get(result.readableBytes());
-            return new NonReleaseableByteBufWrapper(result);
+            return readBuffers;
         }
+
+        // Blocks are read from the last one to the first one.
+        readBuffers = Lists.reverse(readBuffers);
+        CacheMetrics.get(readBuffers.stream().mapToInt(ByteBuf::readableBytes).sum());
+        return readBuffers;
     }
 
     @Override
     public CacheState getState() {
         Exceptions.checkNotClosed(this.closed.get(), this);
-        int allocatedBufferCount = 0;
-        int blockCount = 0;
-        for (DirectMemoryBuffer b : this.buffers) {
-            if (b.isAllocated()) {
-                allocatedBufferCount++;
-                blockCount += b.getUsedBlockCount();
-            }
+        long storedBytes = 0;
+        long usedBytes = 0;
+        long reservedBytes = 0;
+        long allocatedBytes = 0;
+        List<CacheState.SizeClassState> sizeClassStates = new ArrayList<>(this.sizeClasses.length);
+        for (SizeClass sc : this.sizeClasses) {
+            CacheState.SizeClassState s = sc.getState();
+            sizeClassStates.add(s);
+            storedBytes += s.getStoredBytes();
+            usedBytes += s.getUsedBytes();
+            reservedBytes += s.getReservedBytes();
+            allocatedBytes += s.getAllocatedBytes();
+        }
+
+        synchronized (this.recycledBuffers) {
+            allocatedBytes += (long) this.recycledBuffers.size() * getLargestSizeClass().layout.bufferSize();
         }
 
-        return new CacheState(
-                this.storedBytes.get(),
-                (long) blockCount * this.layout.blockSize(),
-                (long) allocatedBufferCount * this.layout.blockSize(),
-                (long) allocatedBufferCount * this.layout.bufferSize(),
-                (long) this.buffers.length * this.layout.bufferSize());
+        return new CacheState(storedBytes, usedBytes, reservedBytes, allocatedBytes, this.maxSizeBytes, sizeClassStates);
     }
 
     @Override
@@ -375,30 +567,50 @@ public class DirectMemoryCache implements CacheStorage {
 
     //region Helpers
 
-    private DirectMemoryBuffer getNextAvailableBuffer() {
+    /**
+     * Releases a pin acquired by {@link #getPinned}.
+     */
+    private void unpin(int address) {
+        getSizeClass(address).getStripe(address).unpin(address);
+    }
+
+    /**
+     * Gets the {@link SizeClass} that the given address belongs to.
+     */
+    private SizeClass getSizeClass(int address) {
+        return this.sizeClasses.length == 1 ? this.sizeClasses[0] : this.sizeClasses[this.sizeClasses[0].layout.getSizeClassId(address)];
+    }
+
+    /**
+     * Selects the {@link SizeClass} with the smallest Block size that can accommodate an Entry with the given length in
+     * a single Block, or the {@link SizeClass} with the largest Block size if no such {@link SizeClass} exists.
+     */
+    private SizeClass selectSizeClass(int length) {
+        for (SizeClass sc : this.sizeClasses) {
+            if (length <= sc.layout.blockSize()) {
+                return sc;
+            }
+        }
+
+        return getLargestSizeClass();
+    }
+
+    private SizeClass getLargestSizeClass() {
+        return this.sizeClasses[this.sizeClasses.length - 1];
+    }
+
+    private DirectMemoryBuffer getNextAvailableBuffer(SizeClass sizeClass) {
         int attempts = 0;
         while (attempts < MAX_CLEANUP_ATTEMPTS) {
-            synchronized (this.availableBufferIds) {
-                while (!this.availableBufferIds.isEmpty() || !this.unallocatedBufferIds.isEmpty()) {
-                    while (!this.availableBufferIds.isEmpty()) {
-                        // We found a Buffer that is available.
-                        DirectMemoryBuffer b = this.buffers[this.availableBufferIds.peekFirst()];
-                        if (b.hasCapacity()) {
-                            // Reusing a buffer.
-                            return b;
-                        } else {
-                            // Buffer is actually full. Clean up. We lazily remove buffers from this pool, since we want
-                            // to introduce as little synchronization overhead in the insert() method so we delay this
-                            // as much as we can.
-                            this.availableBufferIds.removeFirst();
-                        }
-                    }
+            DirectMemoryBuffer b = sizeClass.getNextAvailableBuffer();
+            if (b != null) {
+                return b;
+            }
 
-                    if (!this.unallocatedBufferIds.isEmpty()) {
-                        // We can't reuse any existing buffers, but there are unallocated ones. Fetch one and use it.
-                        this.availableBufferIds.addLast(this.unallocatedBufferIds.removeFirst());
-                    }
-                }
+            // This Size Class cannot accept more data and we have reached our memory budget. See if other Size Classes
+            // have any empty buffers that we can reuse.
+            if (deallocateEmptyBuffers(sizeClass)) {
+                continue;
             }
 
             // If we get here, there are no available buffers and we have allocated all the buffers we could. Notify
@@ -411,6 +623,70 @@ public class DirectMemoryCache implements CacheStorage {
         throw new CacheFullException(String.format("%s full: %s.", DirectMemoryCache.class.getSimpleName(), getState()));
     }
 
+    /**
+     * Deallocates all empty buffers from all Size Classes except the given one, making their memory available for reuse.
+     *
+     * @param requester The {@link SizeClass} requesting memory.
+     * @return True if any memory has been returned to the budget, false otherwise.
+     */
+    private boolean deallocateEmptyBuffers(SizeClass requester) {
+        boolean any = false;
+        for (SizeClass sc : this.sizeClasses) {
+            if (sc != requester) {
+                any |= sc.deallocateEmptyBuffers() > 0;
+            }
+        }
+
+        return any;
+    }
+
+    /**
+     * Attempts to reserve memory for a new buffer from the shared memory budget and, if successful, activates the
+     * {@link DirectMemoryBuffer} provided by the given {@link Supplier}. If there is any recycled memory available, it
+     * will be handed over to that buffer.
+     *
+     * @param bufferSize The size of the buffer.
+     * @param getBuffer  A {@link Supplier} that returns the {@link DirectMemoryBuffer} to activate. This will only be
+     *                   invoked if the memory has been reserved.
+     * @return The activated {@link DirectMemoryBuffer}, or null if there is insufficient budget left.
+     */
+    private DirectMemoryBuffer tryActivateBuffer(int bufferSize, Supplier<DirectMemoryBuffer> getBuffer) {
+        DirectMemoryBuffer b;
+        ByteBuf recycledBuf;
+        synchronized (this.recycledBuffers) {
+            if (this.reservedBufferBytes + bufferSize > this.maxSizeBytes) {
+                return null;
+            }
+
+            this.reservedBufferBytes += bufferSize;
+            recycledBuf = this.recycledBuffers.pollFirst();
+            b = getBuffer.get();
+        }
+
+        b.activate(recycledBuf);
+        return b;
+    }
+
+    /**
+     * Returns the memory reserved by deallocated buffers to the shared memory budget and makes the memory they detached
+     * available for reuse.
+     *
+     * @param bufferSize   The size of the buffer.
+     * @param bufferCount  The number of deallocated buffers.
+     * @param detachedBufs The {@link ByteBuf}s detached from the deallocated buffers. This may have fewer elements than
+     *                     bufferCount, since some buffers may not have allocated any memory.
+     */
+    private void recycle(int bufferSize, int bufferCount, List<ByteBuf> detachedBufs) {
+        synchronized (this.recycledBuffers) {
+            this.reservedBufferBytes -= (long) bufferSize * bufferCount;
+            if (this.closed.get()) {
+                detachedBufs.forEach(ByteBuf::release);
+            } else {
+                this.recycledBuffers.addAll(detachedBufs);
+            }
+        }
+    }
+
     private void tryCleanup(int attempts) {
         val c = this.tryCleanup.get();
         if (c != null && !c.get()) {
@@ -422,6 +698,330 @@ public class DirectMemoryCache implements CacheStorage {
         }
     }
 
+    /**
+     * Gets the default maximum number of Stripes in each Size Class.
+     */
+    static int getDefaultMaxStripeCount() {
+        return Math.min(MAX_STRIPE_COUNT, Runtime.getRuntime().availableProcessors());
+    }
+
+    //endregion
+
+    //region SizeClass
+
+    /**
+     * A set of {@link DirectMemoryBuffer}s sharing the same {@link CacheLayout}. The Buffers are partitioned into
+     * {@link Stripe}s, each with its own lock, so that concurrent inserts do not contend on a single lock.
+     */
+    private class SizeClass {
+        private final CacheLayout layout;
+        private final ByteBufAllocator allocator;
+        /**
+         * Buffers are created lazily, upon first use. There may be a very large number of them in the smaller Size
+         * Classes, and most of them will likely never be used.
+         */
+        private final AtomicReferenceArray<DirectMemoryBuffer> buffers;
+        private final Stripe[] stripes;
+        private final AtomicLong storedBytes;
+
+        SizeClass(CacheLayout layout, ByteBufAllocator allocator, int maxStripeCount) {
+            this.layout = layout;
+            this.allocator = allocator;
+            this.buffers = new AtomicReferenceArray<>((int) Math.min(maxSizeBytes / layout.bufferSize(), layout.maxBufferCount()));
+            this.stripes = new Stripe[Math.min(maxStripeCount, this.buffers.length())];
+            for (int i = 0; i < this.stripes.length; i++) {
+                this.stripes[i] = new Stripe(i);
+            }
+            this.storedBytes = new AtomicLong(0);
+        }
+
+        void close() {
+            for (Stripe s : this.stripes) {
+                s.close();
+            }
+
+            for (int i = 0; i < this.buffers.length(); i++) {
+                DirectMemoryBuffer b = this.buffers.get(i);
+                if (b != null) {
+                    b.close();
+                }
+            }
+        }
+
+        DirectMemoryBuffer getBuffer(int bufferId) {
+            return this.buffers.get(bufferId);
+        }
+
+        void makeAvailable(int bufferId) {
+            this.stripes[bufferId % this.stripes.length].makeAvailable(bufferId);
+        }
+
+        Stripe getStripe(int address) {
+            return this.stripes[this.layout.getBufferId(address) % this.stripes.length];
+        }
+
+        /**
+         * Gets a {@link DirectMemoryBuffer} that has capacity, reserving memory for a new one if needed. The calling
+         * thread's preferred {@link Stripe} is tried first, followed by all the other ones.
+         *
+         * @return A {@link DirectMemoryBuffer}, or null if all buffers are full and there is no more memory budget to
+         * activate a new one.
+         */
+        DirectMemoryBuffer getNextAvailableBuffer() {
+            int preferredStripe = (int) (Thread.currentThread().getId() % this.stripes.length);
+            for (int i = 0; i < this.stripes.length; i++) {
+                DirectMemoryBuffer b = this.stripes[(preferredStripe + i) % this.stripes.length].getNextAvailableBuffer();
+                if (b != null) {
+                    return b;
+                }
+            }
+
+            return null;
+        }
+
+        /**
+         * Deallocates all empty buffers in this Size Class, returns their reservations to the shared memory budget and
+         * makes their memory available for reuse.
+         *
+         * @return The number of buffers deallocated.
+         */
+        int deallocateEmptyBuffers() {
+            int count = 0;
+            List<ByteBuf> detachedBufs = new ArrayList<>();
+            for (Stripe s : this.stripes) {
+                count += s.deallocateEmptyBuffers(detachedBufs);
+            }
+
+            if (count > 0) {
+                recycle(this.layout.bufferSize(), count, detachedBufs);
+            }
+
+            return count;
+        }
+
+        CacheState.SizeClassState getState() {
+            int allocatedBufferCount = 0;
+            int blockCount = 0;
+            for (int i = 0; i < this.buffers.length(); i++) {
+                DirectMemoryBuffer b = this.buffers.get(i);
+                if (b != null && b.isAllocated()) {
+                    allocatedBufferCount++;
+                    blockCount += b.getUsedBlockCount();
+                }
+            }
+
+            return new CacheState.SizeClassState(
+                    this.layout.blockSize(),
+                    this.storedBytes.get(),
+                    (long) blockCount * this.layout.blockSize(),
+                    (long) allocatedBufferCount * this.layout.metadataBlockCount() * this.layout.blockSize(),
+                    (long) allocatedBufferCount * this.layout.bufferSize());
+        }
+
+        /**
+         * A subset of the Buffers in a {@link SizeClass}, guarded by its own lock. The Stripe with index i owns all the
+         * Buffers whose ids are i, i + N, i + 2N, etc. (where N is the number of Stripes), so the Stripe owning a Buffer
+         * can be determined from its id alone.
+         */
+        private class Stripe {
+            private final ReentrantLock lock;
+            @GuardedBy("lock")
+            private final ArrayDeque<Integer> availableBufferIds;
+            /**
+             * Ids of buffers that have been created but then deallocated (via {@link DirectMemoryBuffer#tryDeallocate}).
+             */
+            @GuardedBy("lock")
+            private final ArrayDeque<Integer> deallocatedBufferIds;
+            @GuardedBy("lock")
+            private int nextNewBufferId;
+            /**
+             * Entries (whose addresses belong to this Stripe's Buffers) that are pinned via {@link #getPinned}, indexed
+             * by address. This is also the lock that serializes pinning with deleting these entries.
+             */
+            @GuardedBy("pins")
+            private final HashMap<Integer, Pin> pins;
+
+            Stripe(int index) {
+                this.lock = new ReentrantLock();
+                this.availableBufferIds = new ArrayDeque<>();
+                this.deallocatedBufferIds = new ArrayDeque<>();
+                this.nextNewBufferId = index;
+                this.pins = new HashMap<>();
+            }
+
+            void close() {
+                acquireLock();
+                try {
+                    this.availableBufferIds.clear();
+                    this.deallocatedBufferIds.clear();
+                } finally {
+                    this.lock.unlock();
+                }
+            }
+
+            void makeAvailable(int bufferId) {
+                acquireLock();
+                try {
+                    this.availableBufferIds.addLast(bufferId);
+                } finally {
+                    this.lock.unlock();
+                }
+            }
+
+            DirectMemoryBuffer getNextAvailableBuffer() {
+                acquireLock();
+                try {
+                    while (true) {
+                        while (!this.availableBufferIds.isEmpty()) {
+                            // We found a Buffer that is available.
+                            DirectMemoryBuffer b = buffers.get(this.availableBufferIds.peekFirst());
+                            if (b.hasCapacity()) {
+                                // Reusing a buffer.
+                                return b;
+                            } else {
+                                // Buffer is actually full. Clean up. We lazily remove buffers from this pool, since we want
+                                // to introduce as little synchronization overhead in the insert() method so we delay this
+                                // as much as we can.
+                                this.availableBufferIds.removeFirst();
+                            }
+                        }
+
+                        boolean hasUnusedBuffers = !this.deallocatedBufferIds.isEmpty() || this.nextNewBufferId < buffers.length();
+                        if (!hasUnusedBuffers) {
+                            // All our buffers are in use.
+                            return null;
+                        }
+
+                        // We can't reuse any existing buffers, but we may be able to activate another one. Fetch one and use it.
+                        DirectMemoryBuffer b = tryActivateBuffer(layout.bufferSize(), this::getUnusedBuffer);
+                        if (b == null) {
+                            // We exhausted the memory budget.
+                            return null;
+                        }
+
+                        this.availableBufferIds.addLast(b.getId());
+                    }
+                } finally {
+                    this.lock.unlock();
+                }
+            }
+
+            @GuardedBy("lock")
+            private DirectMemoryBuffer getUnusedBuffer() {
+                DirectMemoryBuffer b;
+                if (this.deallocatedBufferIds.isEmpty()) {
+                    b = new DirectMemoryBuffer(this.nextNewBufferId, allocator, layout);
+                    buffers.set(b.getId(), b);
+                    this.nextNewBufferId += stripes.length;
+                } else {
+                    b = buffers.get(this.deallocatedBufferIds.removeFirst());
+                }
+
+                return b;
+            }
+
+            int deallocateEmptyBuffers(List<ByteBuf> detachedBufs) {
+                int count = 0;
+                acquireLock();
+                try {
+                    Iterator<Integer> ids = this.availableBufferIds.iterator();
+                    while (ids.hasNext()) {
+                        int bufferId = ids.next();
+                        if (buffers.get(bufferId).tryDeallocate(detachedBufs::add)) {
+                            ids.remove();
+                            this.deallocatedBufferIds.addLast(bufferId);
+                            count++;
+                        }
+                    }
+                } finally {
+                    this.lock.unlock();
+                }
+
+                return count;
+            }
+
+            void pin(int address) {
+                synchronized (this.pins) {
+                    this.pins.computeIfAbsent(address, a -> new Pin()).count++;
+                }
+            }
+
+            void unpin(int address) {
+                synchronized (this.pins) {
+                    Pin pin = this.pins.get(address);
+                    assert pin != null && pin.count > 0 : "unpin() without pin() for address " + address;
+                    pin.count--;
+                    if (pin.count > 0) {
+                        return;
+                    }
+
+                    this.pins.remove(address);
+                    if (pin.deleted && !closed.get()) {
+                        // The entry was deleted while pinned. Now that nobody is using it, we can actually delete it.
+                        deleteInternal(address);
+                    }
+                }
+            }
+
+            void delete(int address) {
+                synchronized (this.pins) {
+                    Pin pin = this.pins.get(address);
+                    if (pin != null) {
+                        // Someone is still using this entry's memory. It will be deleted when the last pin is released.
+                        pin.deleted = true;
+                        CacheMetrics.deferredDelete();
+                        return;
+                    }
+
+                    // Deleting while holding the lock ensures nobody can pin this entry until it is fully deleted.
+                    deleteInternal(address);
+                }
+            }
+
+            private void acquireLock() {
+                if (!this.lock.tryLock()) {
+                    // Someone else is holding the lock. Record this so we can tell whether we need more stripes.
+                    CacheMetrics.lockContention();
+                    this.lock.lock();
+                }
+            }
+        }
+    }
+
+    //endregion
+
+    //region Pinning
+
+    /**
+     * Pin state for a single Entry. Only accessed while holding the pin lock of the Stripe owning the Entry's address.
+     */
+    private static class Pin {
+        int count;
+        boolean deleted;
+    }
+
+    /**
+     * {@link CompositeByteBuf} returned (wrapped) by {@link #getPinned} that unpins the Entry once it (and all its slices)
+     * have been released.
+     */
+    private static class PinnedByteBuf extends CompositeByteBuf {
+        private final Runnable onDeallocate;
+
+        PinnedByteBuf(List<ByteBuf> components, Runnable onDeallocate) {
+            super(components.get(0).alloc(), false, components.size(), components);
+            this.onDeallocate = onDeallocate;
+        }
+
+        @Override
+        protected void deallocate() {
+            try {
+                super.deallocate();
+            } finally {
+                this.onDeallocate.run();
+            }
+        }
+    }
+
     //endregion
 
     //region NonReleaseableByteBufWrapper
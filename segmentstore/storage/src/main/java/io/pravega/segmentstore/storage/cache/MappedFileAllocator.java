@@ -0,0 +1,149 @@
+/**
+ * Copyright (c) Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.storage.cache;
+
+import com.google.common.base.Preconditions;
+import io.netty.buffer.AbstractByteBufAllocator;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.pravega.common.Exceptions;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * A {@link io.netty.buffer.ByteBufAllocator} that allocates fixed-size direct {@link ByteBuf}s backed by consecutive
+ * regions of a memory-mapped file. This allows a {@link DirectMemoryCache} (and its block layout) to be stored on local
+ * storage instead of direct memory.
+ *
+ * Notes:
+ * - All allocations must have the same size (the region size) and regions are never reused. This matches how
+ * {@link DirectMemoryCache} uses its allocator (its buffers are only released when it is closed).
+ * - The file is mapped in large chunks (not one region at a time) to keep the number of memory mappings low.
+ * - The file is created when this instance is created and deleted when it is closed. The mapped memory itself is
+ * unmapped by the JVM once it is no longer referenced.
+ */
+@Slf4j
+@ThreadSafe
+class MappedFileAllocator extends AbstractByteBufAllocator implements AutoCloseable {
+    //region Members
+
+    private static final int REGIONS_PER_MAPPING = 128;
+    @Getter
+    private final Path path;
+    private final int regionSize;
+    @Getter
+    private final long maxSize;
+    @GuardedBy("this")
+    private final FileChannel channel;
+    @GuardedBy("this")
+    private final List<MappedByteBuffer> mappings;
+    @GuardedBy("this")
+    private int nextRegionId;
+    @GuardedBy("this")
+    private boolean closed;
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the {@link MappedFileAllocator} class.
+     *
+     * @param path       The path to the file to map. If the file exists, it will be truncated.
+     * @param regionSize The size, in bytes, of each allocation.
+     * @param maxSize    The maximum size, in bytes, of the file. Must be a multiple of regionSize.
+     * @throws IOException If the file could not be created.
+     */
+    MappedFileAllocator(@NonNull Path path, int regionSize, long maxSize) throws IOException {
+        super(true);
+        Preconditions.checkArgument(regionSize > 0, "regionSize must be a positive number.");
+        Preconditions.checkArgument(maxSize > 0 && maxSize % regionSize == 0, "maxSize must be a positive multiple of regionSize.");
+        this.path = path;
+        this.regionSize = regionSize;
+        this.maxSize = maxSize;
+        this.mappings = new ArrayList<>();
+        this.nextRegionId = 0;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        log.info("Created memory-mapped cache file '{}' (MaxSize = {}).", path, maxSize);
+    }
+
+    //endregion
+
+    //region AutoCloseable Implementation
+
+    @Override
+    public synchronized void close() {
+        if (!this.closed) {
+            this.closed = true;
+            this.mappings.clear();
+            try {
+                this.channel.close();
+                Files.deleteIfExists(this.path);
+            } catch (IOException ex) {
+                log.warn("Unable to delete memory-mapped cache file '{}'.", this.path, ex);
+            }
+        }
+    }
+
+    //endregion
+
+    //region AbstractByteBufAllocator Implementation
+
+    @Override
+    public boolean isDirectBufferPooled() {
+        return false;
+    }
+
+    @Override
+    protected ByteBuf newHeapBuffer(int initialCapacity, int maxCapacity) {
+        return Unpooled.buffer(initialCapacity, maxCapacity);
+    }
+
+    @Override
+    @SneakyThrows(IOException.class)
+    protected synchronized ByteBuf newDirectBuffer(int initialCapacity, int maxCapacity) {
+        Exceptions.checkNotClosed(this.closed, this);
+        Preconditions.checkArgument(initialCapacity == this.regionSize && maxCapacity == this.regionSize,
+                "Only allocations of %s bytes are supported.", this.regionSize);
+        long regionOffset = (long) this.nextRegionId * this.regionSize;
+        Preconditions.checkState(regionOffset + this.regionSize <= this.maxSize, "File '%s' is full.", this.path);
+
+        int mappingId = this.nextRegionId / REGIONS_PER_MAPPING;
+        if (mappingId == this.mappings.size()) {
+            long mappingOffset = (long) mappingId * REGIONS_PER_MAPPING * this.regionSize;
+            long mappingSize = Math.min((long) REGIONS_PER_MAPPING * this.regionSize, this.maxSize - mappingOffset);
+            this.mappings.add(this.channel.map(FileChannel.MapMode.READ_WRITE, mappingOffset, mappingSize));
+        }
+
+        int offsetInMapping = (this.nextRegionId % REGIONS_PER_MAPPING) * this.regionSize;
+        ByteBuffer region = this.mappings.get(mappingId).duplicate();
+        region.position(offsetInMapping).limit(offsetInMapping + this.regionSize);
+        this.nextRegionId++;
+
+        // Wrapped ByteBufs never free the memory they wrap, which is what we want for memory-mapped regions.
+        return Unpooled.wrappedBuffer(region.slice());
+    }
+
+    //endregion
+}
@@ -0,0 +1,621 @@
+/**
+ * Copyright (c) Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.storage.cache;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import io.pravega.common.Exceptions;
+import io.pravega.common.util.BufferView;
+import io.pravega.common.util.ByteArraySegment;
+import io.pravega.segmentstore.storage.CacheException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * A two-level {@link CacheStorage} that places a local-storage tier (a {@link DirectMemoryCache} whose Buffers are
+ * backed by a memory-mapped file, see {@link MappedFileAllocator}) underneath a direct-memory tier.
+ *
+ * Tiers:
+ * - New entries are always inserted into the memory tier (unless it is full and nothing can be demoted out of it).
+ * - When the memory tier is full, it invokes {@link #demote()}, which moves cold entries into the local-storage tier.
+ * Entries are selected using the CLOCK algorithm: every access ({@link #get}, {@link #append}) marks an entry as
+ * referenced; the demotion sweep clears the mark on referenced entries and demotes the ones that are not marked. Only
+ * if nothing can be demoted (i.e., the local-storage tier is full as well) is the callback registered via
+ * {@link #setCacheFullCallback} invoked.
+ * - Entries found in the local-storage tier upon {@link #get} are promoted back into the memory tier.
+ * - {@link #getState()} reports the combined state of both tiers, so upstream eviction policies treat this as a single
+ * cache of the combined size.
+ *
+ * Addresses:
+ * - Since entries move between tiers, the addresses returned by this class do not point into either tier. Instead, they
+ * are indices into a Slot table which maps them to the current (Tier, Address) pair of each entry.
+ * - Each Slot also has a version which is incremented with every change. Moving an entry between tiers is done by
+ * copying it first and then updating the Slot only if its version did not change in the meantime; otherwise the copy
+ * is discarded. The block the entry was moved out of is freed only after the Slot was updated.
+ * - Each Slot is guarded by a lock (shared with other Slots). No calls that may allocate memory in either tier are made
+ * while holding such a lock.
+ *
+ * Reads:
+ * - Memory tier entries are looked up while holding the Slot lock, so they cannot be moved or deleted in the meantime.
+ * {@link #get} returns a view into the memory tier (without copying it), just like {@link DirectMemoryCache#get}. Such a
+ * view must not be used after the entry is deleted or replaced and, since entries may be demoted at any time, it may
+ * also be overwritten once the entry is demoted. Entries are only demoted if they were not accessed for a whole sweep
+ * of the CLOCK hand (see below). Callers that need the data to remain valid must use {@link #getPinned}, which pins the
+ * entry (see {@link CacheStorage#getPinned}); demoting or deleting a pinned entry only frees its memory once the last pin
+ * is released.
+ * - Local tier entries are read without the lock, since that may need to allocate memory (to promote them). Their blocks
+ * may be freed and reused by a concurrent promotion, so the data is only used if the entry was not moved in the
+ * meantime; if reading it fails because its block was reused, the read is retried.
+ */
+@Slf4j
+@ThreadSafe
+public class TieredCache implements CacheStorage {
+    //region Members
+
+    private static final int SLOT_CHUNK_BITS = 16;
+    private static final int SLOT_CHUNK_SIZE = 1 << SLOT_CHUNK_BITS;
+    private static final int SLOT_LOCK_COUNT = 64;
+    private static final int MAX_SLOT_COUNT = Integer.MAX_VALUE - 1;
+    /**
+     * The number of bytes to try to demote with every sweep.
+     */
+    @VisibleForTesting
+    static final int DEMOTION_BATCH_BYTES = 8 * 1024 * 1024;
+
+    // Slot format: Bits 0-31: Tier Address; 32: Tier; 33: Appendable; 34: Referenced; 35: Used; 36-63: Version.
+    private static final long ADDRESS_MASK = 0xFFFF_FFFFL;
+    private static final long TIER_FLAG = 1L << 32;
+    private static final long APPENDABLE_FLAG = 1L << 33;
+    private static final long REFERENCED_FLAG = 1L << 34;
+    private static final long USED_FLAG = 1L << 35;
+    private static final int VERSION_SHIFT = 36;
+    private static final long FLAGS_MASK = (1L << VERSION_SHIFT) - 1;
+
+    private final CacheStorage memory;
+    private final CacheStorage local;
+    private final AutoCloseable localAllocator;
+    private final AtomicReferenceArray<long[]> slots;
+    private final Object[] slotLocks;
+    @GuardedBy("freeSlots")
+    private final ArrayDeque<Integer> freeSlots;
+    @GuardedBy("freeSlots")
+    private int nextSlot;
+    @GuardedBy("demotionLock")
+    private int clockHand;
+    private final Object demotionLock = new Object();
+    private final AtomicBoolean closed;
+    private final AtomicReference<Supplier<Boolean>> cacheFullCallback;
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the {@link TieredCache} class using the default Size Classes
+     * ({@link CacheLayout.SizeClassLayout#defaultSizeClasses()}) for both tiers.
+     *
+     * @param memorySizeBytes The maximum size (in bytes) of the memory tier.
+     * @param localDirectory  The directory where to create the file backing the local-storage tier.
+     * @param localSizeBytes  The maximum size (in bytes) of the local-storage tier.
+     * @throws CacheException If the file backing the local-storage tier could not be created.
+     */
+    public TieredCache(long memorySizeBytes, @NonNull Path localDirectory, long localSizeBytes) {
+        this(memorySizeBytes, createLocalAllocator(localDirectory, localSizeBytes));
+    }
+
+    private TieredCache(long memorySizeBytes, MappedFileAllocator localAllocator) {
+        this(new DirectMemoryCache(CacheLayout.SizeClassLayout.defaultSizeClasses(), memorySizeBytes),
+                new DirectMemoryCache(CacheLayout.SizeClassLayout.defaultSizeClasses(), localAllocator.getMaxSize(),
+                        DirectMemoryCache.getDefaultMaxStripeCount(), localAllocator),
+                localAllocator);
+    }
+
+    /**
+     * Creates a new instance of the {@link TieredCache} class using the given tiers.
+     *
+     * @param memory         The {@link CacheStorage} to use as the memory tier.
+     * @param local          The {@link CacheStorage} to use as the local-storage tier.
+     * @param localAllocator (Optional) An {@link AutoCloseable} to close after both tiers have been closed.
+     */
+    @VisibleForTesting
+    TieredCache(@NonNull CacheStorage memory, @NonNull CacheStorage local, AutoCloseable localAllocator) {
+        this.memory = memory;
+        this.local = local;
+        this.localAllocator = localAllocator;
+        this.slots = new AtomicReferenceArray<>(MAX_SLOT_COUNT / SLOT_CHUNK_SIZE + 1);
+        this.slotLocks = new Object[SLOT_LOCK_COUNT];
+        for (int i = 0; i < this.slotLocks.length; i++) {
+            this.slotLocks[i] = new Object();
+        }
+
+        this.freeSlots = new ArrayDeque<>();
+        this.nextSlot = 0;
+        this.clockHand = 0;
+        this.closed = new AtomicBoolean(false);
+        this.cacheFullCallback = new AtomicReference<>();
+        this.memory.setCacheFullCallback(this::demote, 0);
+    }
+
+    private static MappedFileAllocator createLocalAllocator(Path localDirectory, long localSizeBytes) {
+        List<CacheLayout> layouts = CacheLayout.SizeClassLayout.defaultSizeClasses();
+        CacheLayout layout = layouts.get(layouts.size() - 1);
+        try {
+            Files.createDirectories(localDirectory);
+            Path file = Files.createTempFile(localDirectory, TieredCache.class.getSimpleName(), ".cache");
+            return new MappedFileAllocator(file, layout.bufferSize(), DirectMemoryCache.adjustMaxSizeIfNeeded(localSizeBytes, layout));
+        } catch (IOException ex) {
+            throw new CacheException(String.format("Unable to create local cache tier in '%s'.", localDirectory), ex);
+        }
+    }
+
+    //endregion
+
+    //region AutoCloseable Implementation
+
+    @Override
+    public void close() {
+        if (!this.closed.getAndSet(true)) {
+            this.memory.close();
+            this.local.close();
+            if (this.localAllocator != null) {
+                try {
+                    this.localAllocator.close();
+                } catch (Exception ex) {
+                    log.warn("Unable to close local cache tier.", ex);
+                }
+            }
+        }
+    }
+
+    //endregion
+
+    //region CacheStorage Implementation
+
+    @Override
+    public int getBlockAlignment() {
+        return this.memory.getBlockAlignment();
+    }
+
+    @Override
+    public int getMaxEntryLength() {
+        return Math.min(this.memory.getMaxEntryLength(), this.local.getMaxEntryLength());
+    }
+
+    @Override
+    public int insert(BufferView data) {
+        return insert(data, false);
+    }
+
+    @Override
+    public int insertAppendable(BufferView data) {
+        return insert(data, true);
+    }
+
+    private int insert(BufferView data, boolean appendable) {
+        Exceptions.checkNotClosed(this.closed.get(), this);
+        long value;
+        try {
+            value = insertInto(this.memory, data, appendable);
+        } catch (CacheFullException ex) {
+            // Nothing could be demoted out of the memory tier and upstream could not free anything either. Our last
+            // option is to write directly into the local tier.
+            value = insertInto(this.local, data, appendable) | TIER_FLAG;
+        }
+
+        value |= USED_FLAG | REFERENCED_FLAG;
+        int slot;
+        try {
+            slot = allocateSlot();
+        } catch (Throwable ex) {
+            getTier(value).delete(getTierAddress(value));
+            throw ex;
+        }
+
+        synchronized (getSlotLock(slot)) {
+            long[] chunk = getSlotChunk(slot);
+            int index = slot & (SLOT_CHUNK_SIZE - 1);
+            chunk[index] = nextVersion(chunk[index]) | value;
+        }
+
+        return slot + 1;
+    }
+
+    @Override
+    public int replace(int address, BufferView data) {
+        // Same as DirectMemoryCache: insert the new data first, then remove the old one.
+        int newAddress = insert(data);
+        delete(address);
+        return newAddress;
+    }
+
+    @Override
+    public int getAppendableLength(int currentLength) {
+        return this.memory.getAppendableLength(currentLength);
+    }
+
+    @Override
+    public int getAppendableLength(int address, int currentLength) {
+        int slot = getSlot(address);
+        long value;
+        synchronized (getSlotLock(slot)) {
+            value = getSlotValue(slot, false);
+        }
+
+        Preconditions.checkArgument(isUsed(value), "Invalid address.");
+        return getTier(value).getAppendableLength(getTierAddress(value), currentLength);
+    }
+
+    @Override
+    public int append(int address, int expectedLength, BufferView data) {
+        Exceptions.checkNotClosed(this.closed.get(), this);
+        int slot = getSlot(address);
+        synchronized (getSlotLock(slot)) {
+            long[] chunk = getSlotChunk(slot);
+            int index = slot & (SLOT_CHUNK_SIZE - 1);
+            long value = chunk[index];
+            Preconditions.checkArgument(isUsed(value), "Invalid address.");
+
+            // Appends do not allocate new blocks, so it is safe to do this while holding the lock. Doing so ensures
+            // that no copy of this entry is made while it is being modified.
+            int appendedBytes = getTier(value).append(getTierAddress(value), expectedLength, data);
+            chunk[index] = nextVersion(value) | (value & FLAGS_MASK) | REFERENCED_FLAG;
+            return appendedBytes;
+        }
+    }
+
+    @Override
+    public void delete(int address) {
+        Exceptions.checkNotClosed(this.closed.get(), this);
+        if (address == NO_ADDRESS) {
+            return;
+        }
+
+        int slot = getSlot(address);
+        long value;
+        synchronized (getSlotLock(slot)) {
+            long[] chunk = getSlotChunk(slot);
+            int index = slot & (SLOT_CHUNK_SIZE - 1);
+            value = chunk[index];
+            if (!isUsed(value)) {
+                return;
+            }
+
+            chunk[index] = nextVersion(value);
+        }
+
+        synchronized (this.freeSlots) {
+            this.freeSlots.addLast(slot);
+        }
+
+        getTier(value).delete(getTierAddress(value));
+    }
+
+    @Override
+    public BufferView get(int address) {
+        return get(address, false);
+    }
+
+    @Override
+    public BufferView getPinned(int address) {
+        return get(address, true);
+    }
+
+    private BufferView get(int address, boolean pin) {
+        Exceptions.checkNotClosed(this.closed.get(), this);
+        int slot = getSlot(address);
+        while (true) {
+            long value;
+            synchronized (getSlotLock(slot)) {
+                value = getSlotValue(slot, true);
+                if (!isUsed(value)) {
+                    return null;
+                } else if (!isLocal(value)) {
+                    // While we hold the lock, this entry cannot be demoted or deleted, so its block cannot be reused.
+                    return pin ? this.memory.getPinned(getTierAddress(value)) : this.memory.get(getTierAddress(value));
+                }
+            }
+
+            BufferView data;
+            try {
+                data = this.local.get(getTierAddress(value));
+            } catch (CacheCorruptedException ex) {
+                // The entry was promoted (and its local block reused) while we were reading it.
+                if (isUnchanged(slot, value)) {
+                    // It really is corrupted. Treat it as a miss.
+                    log.warn("Unable to read local tier entry for address {}. Treating it as a cache miss.", address, ex);
+                    return null;
+                }
+
+                continue;
+            }
+
+            if (data == null) {
+                return null;
+            }
+
+            long newValue;
+            try {
+                newValue = insertInto(this.memory, data, isAppendable(value));
+            } catch (CacheFullException ex) {
+                // Nothing could be freed up in the memory tier; serve this from the local tier. A concurrent promotion
+                // may free (and reuse) the local block at any time, so we must hand out a copy, and only if the entry
+                // was not moved while we were copying it.
+                BufferView copy = copyOf(data);
+                if (isUnchanged(slot, value)) {
+                    return copy;
+                }
+
+                continue;
+            }
+
+            if (trySwap(slot, value, newValue, false)) {
+                // The entry now lives in the memory tier; free up its local copy. The next iteration reads it from there.
+                this.local.delete(getTierAddress(value));
+                CacheMetrics.promote(data.getLength());
+                continue;
+            }
+
+            // This entry was changed, moved or deleted while we were copying it. Discard our copy and try again.
+            this.memory.delete(getTierAddress(newValue));
+        }
+    }
+
+    @Override
+    public CacheState getState() {
+        Exceptions.checkNotClosed(this.closed.get(), this);
+        CacheState m = this.memory.getState();
+        CacheState l = this.local.getState();
+        return new CacheState(m.getStoredBytes() + l.getStoredBytes(), m.getUsedBytes() + l.getUsedBytes(),
+                m.getReservedBytes() + l.getReservedBytes(), m.getAllocatedBytes() + l.getAllocatedBytes(),
+                m.getMaxBytes() + l.getMaxBytes(), m.getSizeClasses());
+    }
+
+    @Override
+    public void setCacheFullCallback(Supplier<Boolean> cacheFullCallback, int retryDelayBaseMillis) {
+        this.cacheFullCallback.set(cacheFullCallback);
+        this.memory.setCacheFullCallback(this::demote, retryDelayBaseMillis);
+    }
+
+    //endregion
+
+    //region Demotion
+
+    /**
+     * Invoked by the memory tier when it is full. Demotes cold entries into the local-storage tier, or invokes the
+     * upstream callback (see {@link #setCacheFullCallback}) if nothing could be demoted.
+     *
+     * @return True if any memory was freed up, false otherwise.
+     */
+    @VisibleForTesting
+    boolean demote() {
+        int demotedBytes = 0;
+        synchronized (this.demotionLock) {
+            int slotCount;
+            synchronized (this.freeSlots) {
+                slotCount = this.nextSlot;
+            }
+
+            // Every entry is visited at most twice: the first time may only clear its Referenced flag.
+            for (long i = 0; i < 2L * slotCount && demotedBytes < DEMOTION_BATCH_BYTES; i++) {
+                int slot = this.clockHand;
+                this.clockHand = (this.clockHand + 1) % slotCount;
+                long value = clearReferenced(slot);
+                if (!isUsed(value) || isLocal(value) || (value & REFERENCED_FLAG) != 0) {
+                    continue;
+                }
+
+                int length = demote(slot, value);
+                if (length < 0) {
+                    // Local tier is full.
+                    break;
+                }
+
+                demotedBytes += length;
+            }
+        }
+
+        if (demotedBytes > 0) {
+            return true;
+        }
+
+        // Nothing could be demoted. Let upstream code free up space.
+        Supplier<Boolean> c = this.cacheFullCallback.get();
+        return c != null && c.get();
+    }
+
+    /**
+     * Moves the given memory tier entry into the local-storage tier.
+     *
+     * @return The number of bytes demoted, 0 if the entry changed in the meantime, or -1 if the local tier is full.
+     */
+    private int demote(int slot, long value) {
+        // Entries are only ever deleted from the memory tier after their Slot has been updated, and we are the only ones
+        // who can update it to point elsewhere while it still has this value (see trySwap), so this data remains valid
+        // until we do so ourselves. The entry may still be deleted concurrently, in which case reading it may fail.
+        BufferView data;
+        try {
+            data = this.memory.get(getTierAddress(value));
+        } catch (CacheCorruptedException ex) {
+            log.debug("Unable to read memory tier entry in slot {} for demotion; skipping it.", slot, ex);
+            return 0;
+        }
+
+        if (data == null) {
+            return 0;
+        }
+
+        long newValue;
+        try {
+            newValue = insertInto(this.local, data, isAppendable(value)) | TIER_FLAG;
+        } catch (CacheFullException ex) {
+            return -1;
+        }
+
+        // Readers look up (or pin) memory tier entries while holding the Slot lock, so once the Slot points to the local
+        // tier nobody can obtain a new reference to the memory tier block. Pinned references keep it from being reused.
+        // We still skip the entry if it was accessed since we cleared its Referenced flag, since it is no longer cold.
+        if (trySwap(slot, value, newValue, true)) {
+            this.memory.delete(getTierAddress(value));
+            CacheMetrics.demote(data.getLength());
+            return data.getLength();
+        } else {
+            this.local.delete(getTierAddress(newValue));
+            return 0;
+        }
+    }
+
+    /**
+     * Clears the Referenced flag of the given Slot.
+     *
+     * @return The value of the Slot before clearing the flag.
+     */
+    private long clearReferenced(int slot) {
+        synchronized (getSlotLock(slot)) {
+            long[] chunk = getSlotChunk(slot);
+            int index = slot & (SLOT_CHUNK_SIZE - 1);
+            long value = chunk[index];
+            chunk[index] = value & ~REFERENCED_FLAG;
+            return value;
+        }
+    }
+
+    //endregion
+
+    //region Helpers
+
+    private long insertInto(CacheStorage tier, BufferView data, boolean appendable) {
+        int address = appendable ? tier.insertAppendable(data) : tier.insert(data);
+        return (address & ADDRESS_MASK) | (appendable ? APPENDABLE_FLAG : 0);
+    }
+
+    /**
+     * Points the given Slot to a new Tier-Address, but only if the Slot still has the given value.
+     *
+     * @param slot              The Slot to update.
+     * @param expectedValue     The expected value of the Slot.
+     * @param newValue          The new Tier-Address, Tier and Appendable flags.
+     * @param compareReferenced If true, the Slot is not updated if its Referenced flag differs from the one in
+     *                          expectedValue (i.e., if the entry was accessed in the meantime). If false, the Referenced
+     *                          flag is ignored.
+     * @return True if the Slot was updated, false otherwise.
+     */
+    private boolean trySwap(int slot, long expectedValue, long newValue, boolean compareReferenced) {
+        long compareMask = compareReferenced ? -1L : ~REFERENCED_FLAG;
+        synchronized (getSlotLock(slot)) {
+            long[] chunk = getSlotChunk(slot);
+            int index = slot & (SLOT_CHUNK_SIZE - 1);
+            long value = chunk[index];
+            if ((value & compareMask) != (expectedValue & compareMask)) {
+                return false;
+            }
+
+            chunk[index] = nextVersion(value) | USED_FLAG | (value & REFERENCED_FLAG) | newValue;
+            return true;
+        }
+    }
+
+    /**
+     * Determines whether the given Slot still points to the same Tier-Address as the given value.
+     */
+    private boolean isUnchanged(int slot, long expectedValue) {
+        synchronized (getSlotLock(slot)) {
+            long value = getSlotChunk(slot)[slot & (SLOT_CHUNK_SIZE - 1)];
+            return (value & ~REFERENCED_FLAG) == (expectedValue & ~REFERENCED_FLAG);
+        }
+    }
+
+    @GuardedBy("getSlotLock(slot)")
+    private long getSlotValue(int slot, boolean markReferenced) {
+        long[] chunk = getSlotChunk(slot);
+        int index = slot & (SLOT_CHUNK_SIZE - 1);
+        long value = chunk[index];
+        if (markReferenced && isUsed(value)) {
+            chunk[index] = value | REFERENCED_FLAG;
+        }
+
+        return value;
+    }
+
+    private static BufferView copyOf(BufferView data) {
+        return data == null ? null : new ByteArraySegment(data.getCopy());
+    }
+
+    private int allocateSlot() {
+        synchronized (this.freeSlots) {
+            Integer slot = this.freeSlots.pollFirst();
+            if (slot != null) {
+                return slot;
+            }
+
+            if (this.nextSlot >= MAX_SLOT_COUNT) {
+                throw new CacheFullException(String.format("%s full: no more addresses available.", TieredCache.class.getSimpleName()));
+            }
+
+            return this.nextSlot++;
+        }
+    }
+
+    private int getSlot(int address) {
+        Preconditions.checkArgument(address != NO_ADDRESS && address <= MAX_SLOT_COUNT, "Invalid address.");
+        return address - 1;
+    }
+
+    private long[] getSlotChunk(int slot) {
+        int chunkId = slot >>> SLOT_CHUNK_BITS;
+        long[] chunk = this.slots.get(chunkId);
+        if (chunk == null) {
+            this.slots.compareAndSet(chunkId, null, new long[SLOT_CHUNK_SIZE]);
+            chunk = this.slots.get(chunkId);
+        }
+
+        return chunk;
+    }
+
+    private Object getSlotLock(int slot) {
+        return this.slotLocks[slot % SLOT_LOCK_COUNT];
+    }
+
+    private CacheStorage getTier(long value) {
+        return isLocal(value) ? this.local : this.memory;
+    }
+
+    private static int getTierAddress(long value) {
+        return (int) (value & ADDRESS_MASK);
+    }
+
+    private static long nextVersion(long value) {
+        return ((value >>> VERSION_SHIFT) + 1) << VERSION_SHIFT;
+    }
+
+    private static boolean isUsed(long value) {
+        return (value & USED_FLAG) != 0;
+    }
+
+    private static boolean isLocal(long value) {
+        return (value & TIER_FLAG) != 0;
+    }
+
+    private static boolean isAppendable(long value) {
+        return (value & APPENDABLE_FLAG) != 0;
+    }
+
+    //endregion
+}
@@ -15,10 +15,14 @@ import com.google.common.base.Strings;
 import io.pravega.common.Exceptions;
 import io.pravega.common.LoggerHelpers;
 import io.pravega.common.Timer;
+import io.pravega.common.concurrent.Futures;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.InputStream;
 import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
@@ -47,6 +51,10 @@ import java.util.concurrent.atomic.AtomicBoolean;
  *
  * For concats, {@link ChunkStorage} supports both native and append, ChunkedSegmentStorage will invoke appropriate method depending on size of target and source chunks. (Eg. ECS)
  *
+ * The asynchronous variants of the operations perform the same validation and record the same metrics as their synchronous
+ * counterparts. By default they delegate to the synchronous doXYZ methods and complete on the calling thread; derived classes
+ * that have access to an asynchronous client should override the doXYZAsync methods.
+ *
  * The implementations in this repository are tested using following test suites.
  * <ul>
  * <li>SimpleStorageTests</li>
@@ -134,11 +142,7 @@ public abstract class BaseChunkStorage implements ChunkStorage {
         ChunkHandle handle = doCreate(chunkName);
 
         // Record metrics.
-        Duration elapsed = timer.getElapsed();
-        ChunkStorageMetrics.CREATE_LATENCY.reportSuccessEvent(elapsed);
-        ChunkStorageMetrics.CREATE_COUNT.inc();
-
-        log.debug("Create - chunk={}, latency={}.", chunkName, elapsed.toMillis());
+        reportCreate(chunkName, timer.getElapsed());
         LoggerHelpers.traceLeave(log, "create", traceId, chunkName);
 
         return handle;
@@ -154,9 +158,7 @@ public abstract class BaseChunkStorage implements ChunkStorage {
     final public void delete(ChunkHandle handle) throws ChunkStorageException {
         Exceptions.checkNotClosed(this.closed.get(), this);
         // Validate parameters
-        Preconditions.checkArgument(null != handle, "handle must not be null");
-        checkChunkName(handle.getChunkName());
-        Preconditions.checkArgument(!handle.isReadOnly(), "handle must not be readonly");
+        checkDeleteArgs(handle);
 
         long traceId = LoggerHelpers.traceEnter(log, "delete", handle.getChunkName());
         Timer timer = new Timer();
@@ -165,15 +167,38 @@ public abstract class BaseChunkStorage implements ChunkStorage {
         doDelete(handle);
 
         // Record metrics.
-        Duration elapsed = timer.getElapsed();
-        ChunkStorageMetrics.DELETE_LATENCY.reportSuccessEvent(elapsed);
-        ChunkStorageMetrics.DELETE_COUNT.inc();
-
-        log.debug("Delete - chunk={}, latency={}.", handle.getChunkName(), elapsed.toMillis());
+        reportDelete(handle, timer.getElapsed());
         LoggerHelpers.traceLeave(log, "delete", traceId, handle.getChunkName());
 
     }
 
+    /**
+     * Deletes multiple chunks. Chunks that do not exist are ignored.
+     *
+     * @param chunkNames List of names of the chunks to delete.
+     * @throws ChunkStorageException Throws ChunkStorageException in case of I/O related exceptions.
+     */
+    @Override
+    final public void batchDelete(List<String> chunkNames) throws ChunkStorageException {
+        Exceptions.checkNotClosed(this.closed.get(), this);
+        // Validate parameters
+        Preconditions.checkArgument(null != chunkNames, "chunkNames must not be null");
+        chunkNames.forEach(this::checkChunkName);
+        if (chunkNames.isEmpty()) {
+            return;
+        }
+
+        long traceId = LoggerHelpers.traceEnter(log, "batchDelete", chunkNames.size());
+        Timer timer = new Timer();
+
+        // Call concrete implementation.
+        doBatchDelete(chunkNames);
+
+        // Record metrics.
+        reportBatchDelete(chunkNames, timer.getElapsed());
+        LoggerHelpers.traceLeave(log, "batchDelete", traceId, chunkNames.size());
+    }
+
     /**
      * Opens chunk for Read.
      *
@@ -262,12 +287,7 @@ public abstract class BaseChunkStorage implements ChunkStorage {
     final public int read(ChunkHandle handle, long fromOffset, int length, byte[] buffer, int bufferOffset) throws ChunkStorageException, NullPointerException, IndexOutOfBoundsException {
         Exceptions.checkNotClosed(this.closed.get(), this);
         // Validate parameters
-        Preconditions.checkArgument(null != handle, "handle");
-        checkChunkName(handle.getChunkName());
-        Preconditions.checkArgument(null != buffer, "buffer");
-        Preconditions.checkArgument(fromOffset >= 0, "fromOffset must be non-negative");
-        Preconditions.checkArgument(length >= 0 && length <= buffer.length, "length");
-        Preconditions.checkElementIndex(bufferOffset, buffer.length, "bufferOffset");
+        checkReadArgs(handle, fromOffset, length, buffer, bufferOffset);
 
         long traceId = LoggerHelpers.traceEnter(log, "read", handle.getChunkName(), fromOffset, bufferOffset, length);
         Timer timer = new Timer();
@@ -275,11 +295,7 @@ public abstract class BaseChunkStorage implements ChunkStorage {
         // Call concrete implementation.
         int bytesRead = doRead(handle, fromOffset, length, buffer, bufferOffset);
 
-        Duration elapsed = timer.getElapsed();
-        ChunkStorageMetrics.READ_LATENCY.reportSuccessEvent(elapsed);
-        ChunkStorageMetrics.READ_BYTES.add(bytesRead);
-
-        log.debug("Read - chunk={}, offset={}, bytesRead={}, latency={}.", handle.getChunkName(), fromOffset, length, elapsed.toMillis());
+        reportRead(handle, fromOffset, bytesRead, timer.getElapsed());
         LoggerHelpers.traceLeave(log, "read", traceId, bytesRead);
 
         return bytesRead;
@@ -306,15 +322,7 @@ public abstract class BaseChunkStorage implements ChunkStorage {
     final public int write(ChunkHandle handle, long offset, int length, InputStream data) throws ChunkStorageException {
         Exceptions.checkNotClosed(this.closed.get(), this);
         // Validate parameters
-        Preconditions.checkArgument(null != handle, "handle must not be null");
-        checkChunkName(handle.getChunkName());
-        Preconditions.checkArgument(!handle.isReadOnly(), "handle must not be readonly");
-        Preconditions.checkArgument(null != data, "data must not be null");
-        Preconditions.checkArgument(offset >= 0, "offset must be non-negative");
-        Preconditions.checkArgument(length >= 0, "length must be non-negative");
-        if (!supportsAppend()) {
-            Preconditions.checkArgument(offset == 0, "offset must be 0 because storage does not support appends.");
-        }
+        checkWriteArgs(handle, offset, length, data);
 
         long traceId = LoggerHelpers.traceEnter(log, "write", handle.getChunkName(), offset, length);
         Timer timer = new Timer();
@@ -322,12 +330,7 @@ public abstract class BaseChunkStorage implements ChunkStorage {
         // Call concrete implementation.
         int bytesWritten = doWrite(handle, offset, length, data);
 
-        Duration elapsed = timer.getElapsed();
-
-        ChunkStorageMetrics.WRITE_LATENCY.reportSuccessEvent(elapsed);
-        ChunkStorageMetrics.WRITE_BYTES.add(bytesWritten);
-
-        log.debug("Write - chunk={}, offset={}, bytesWritten={}, latency={}.", handle.getChunkName(), offset, length, elapsed.toMillis());
+        reportWrite(handle, offset, bytesWritten, timer.getElapsed());
         LoggerHelpers.traceLeave(log, "read", traceId, bytesWritten);
 
         return bytesWritten;
@@ -353,14 +356,7 @@ public abstract class BaseChunkStorage implements ChunkStorage {
         // Call concrete implementation.
         int retValue = doConcat(chunks);
 
-        Duration elapsed = timer.getElapsed();
-        log.debug("concat - target={}, latency={}.", chunks[0].getName(), elapsed.toMillis());
-
-        ChunkStorageMetrics.CONCAT_LATENCY.reportSuccessEvent(elapsed);
-        ChunkStorageMetrics.CONCAT_BYTES.add(retValue);
-        ChunkStorageMetrics.CONCAT_COUNT.inc();
-        ChunkStorageMetrics.LARGE_CONCAT_COUNT.inc();
-
+        reportConcat(chunks, retValue, timer.getElapsed());
         LoggerHelpers.traceLeave(log, "concat", traceId, chunks[0].getName());
 
         return retValue;
@@ -444,6 +440,104 @@ public abstract class BaseChunkStorage implements ChunkStorage {
         this.closed.set(true);
     }
 
+    //region Async Operations
+
+    @Override
+    final public CompletableFuture<Boolean> existsAsync(String chunkName) {
+        return invokeAsync(() -> {
+            checkChunkName(chunkName);
+            return checkExistsAsync(chunkName);
+        });
+    }
+
+    @Override
+    final public CompletableFuture<ChunkHandle> createAsync(String chunkName) {
+        return invokeAsync(() -> {
+            checkChunkName(chunkName);
+            Timer timer = new Timer();
+            return doCreateAsync(chunkName)
+                    .thenApply(handle -> {
+                        reportCreate(chunkName, timer.getElapsed());
+                        return handle;
+                    });
+        });
+    }
+
+    @Override
+    final public CompletableFuture<Void> deleteAsync(ChunkHandle handle) {
+        return invokeAsync(() -> {
+            checkDeleteArgs(handle);
+            Timer timer = new Timer();
+            return doDeleteAsync(handle)
+                    .thenRun(() -> reportDelete(handle, timer.getElapsed()));
+        });
+    }
+
+    @Override
+    final public CompletableFuture<ChunkHandle> openReadAsync(String chunkName) {
+        return invokeAsync(() -> {
+            checkChunkName(chunkName);
+            return doOpenReadAsync(chunkName);
+        });
+    }
+
+    @Override
+    final public CompletableFuture<ChunkHandle> openWriteAsync(String chunkName) {
+        return invokeAsync(() -> {
+            checkChunkName(chunkName);
+            return doOpenWriteAsync(chunkName);
+        });
+    }
+
+    @Override
+    final public CompletableFuture<ChunkInfo> getInfoAsync(String chunkName) {
+        return invokeAsync(() -> {
+            checkChunkName(chunkName);
+            return doGetInfoAsync(chunkName);
+        });
+    }
+
+    @Override
+    final public CompletableFuture<Integer> readAsync(ChunkHandle handle, long fromOffset, int length, byte[] buffer, int bufferOffset) {
+        return invokeAsync(() -> {
+            checkReadArgs(handle, fromOffset, length, buffer, bufferOffset);
+            Timer timer = new Timer();
+            return doReadAsync(handle, fromOffset, length, buffer, bufferOffset)
+                    .thenApply(bytesRead -> {
+                        reportRead(handle, fromOffset, bytesRead, timer.getElapsed());
+                        return bytesRead;
+                    });
+        });
+    }
+
+    @Override
+    final public CompletableFuture<Integer> writeAsync(ChunkHandle handle, long offset, int length, InputStream data) {
+        return invokeAsync(() -> {
+            checkWriteArgs(handle, offset, length, data);
+            Timer timer = new Timer();
+            return doWriteAsync(handle, offset, length, data)
+                    .thenApply(bytesWritten -> {
+                        reportWrite(handle, offset, bytesWritten, timer.getElapsed());
+                        return bytesWritten;
+                    });
+        });
+    }
+
+    @Override
+    final public CompletableFuture<Integer> concatAsync(ConcatArgument[] chunks) {
+        return invokeAsync(() -> {
+            checkConcatArgs(chunks);
+            Timer timer = new Timer();
+            return doConcatAsync(chunks)
+                    .thenApply(retValue -> {
+                        reportConcat(chunks, retValue, timer.getElapsed());
+                        return retValue;
+                    });
+        });
+    }
+
+    //endregion
+
     /**
      * Retrieves the ChunkInfo for given name.
      *
@@ -483,6 +577,24 @@ public abstract class BaseChunkStorage implements ChunkStorage {
      */
     abstract protected void doDelete(ChunkHandle handle) throws ChunkStorageException;
 
+    /**
+     * Deletes multiple chunks, ignoring the ones that do not exist.
+     * The default implementation invokes {@link #doDelete} for each chunk. Implementations backed by storage that supports
+     * deleting multiple objects in a single request should override this.
+     *
+     * @param chunkNames List of names of the chunks to delete.
+     * @throws ChunkStorageException Throws ChunkStorageException in case of I/O related exceptions.
+     */
+    protected void doBatchDelete(List<String> chunkNames) throws ChunkStorageException {
+        for (String chunkName : chunkNames) {
+            try {
+                doDelete(ChunkHandle.writeHandle(chunkName));
+            } catch (ChunkNotFoundException e) {
+                log.debug("batchDelete - chunk not found, ignoring. chunk={}.", chunkName);
+            }
+        }
+    }
+
     /**
      * Opens chunk for Read.
      *
@@ -567,6 +679,204 @@ public abstract class BaseChunkStorage implements ChunkStorage {
      */
     abstract protected void doSetReadOnly(ChunkHandle handle, boolean isReadOnly) throws ChunkStorageException, UnsupportedOperationException;
 
+    /**
+     * Asynchronously determines whether named chunk exists in underlying storage.
+     * The default implementation invokes {@link #checkExists} on the calling thread.
+     *
+     * @param chunkName Name of the chunk to check.
+     * @return A CompletableFuture that, when completed, will contain true if the object exists, false otherwise.
+     */
+    protected CompletableFuture<Boolean> checkExistsAsync(String chunkName) {
+        return invokeSync(() -> checkExists(chunkName));
+    }
+
+    /**
+     * Asynchronously creates a new chunk.
+     * The default implementation invokes {@link #doCreate} on the calling thread.
+     *
+     * @param chunkName String name of the chunk to create.
+     * @return A CompletableFuture that, when completed, will contain a writable handle for the recently created chunk.
+     */
+    protected CompletableFuture<ChunkHandle> doCreateAsync(String chunkName) {
+        return invokeSync(() -> doCreate(chunkName));
+    }
+
+    /**
+     * Asynchronously deletes a chunk.
+     * The default implementation invokes {@link #doDelete} on the calling thread.
+     *
+     * @param handle ChunkHandle of the chunk to delete.
+     * @return A CompletableFuture that, when completed, will indicate that the operation completed.
+     */
+    protected CompletableFuture<Void> doDeleteAsync(ChunkHandle handle) {
+        return invokeSync(() -> {
+            doDelete(handle);
+            return null;
+        });
+    }
+
+    /**
+     * Asynchronously opens chunk for Read.
+     * The default implementation invokes {@link #doOpenRead} on the calling thread.
+     *
+     * @param chunkName String name of the chunk to read from.
+     * @return A CompletableFuture that, when completed, will contain a readable handle for the given chunk.
+     */
+    protected CompletableFuture<ChunkHandle> doOpenReadAsync(String chunkName) {
+        return invokeSync(() -> doOpenRead(chunkName));
+    }
+
+    /**
+     * Asynchronously opens chunk for Write (or modifications).
+     * The default implementation invokes {@link #doOpenWrite} on the calling thread.
+     *
+     * @param chunkName String name of the chunk to write to or modify.
+     * @return A CompletableFuture that, when completed, will contain a writable handle for the given chunk.
+     */
+    protected CompletableFuture<ChunkHandle> doOpenWriteAsync(String chunkName) {
+        return invokeSync(() -> doOpenWrite(chunkName));
+    }
+
+    /**
+     * Asynchronously retrieves the ChunkInfo for given name.
+     * The default implementation invokes {@link #doGetInfo} on the calling thread.
+     *
+     * @param chunkName String name of the chunk to read from.
+     * @return A CompletableFuture that, when completed, will contain information about the given chunk.
+     */
+    protected CompletableFuture<ChunkInfo> doGetInfoAsync(String chunkName) {
+        return invokeSync(() -> doGetInfo(chunkName));
+    }
+
+    /**
+     * Asynchronously reads a range of bytes from the underlying chunk.
+     * The default implementation invokes {@link #doRead} on the calling thread.
+     *
+     * @param handle       ChunkHandle of the chunk to read from.
+     * @param fromOffset   Offset in the chunk from which to start reading.
+     * @param length       Number of bytes to read.
+     * @param buffer       Byte buffer to which data is copied.
+     * @param bufferOffset Offset in the buffer at which to start copying read data.
+     * @return A CompletableFuture that, when completed, will contain the number of bytes read.
+     */
+    protected CompletableFuture<Integer> doReadAsync(ChunkHandle handle, long fromOffset, int length, byte[] buffer, int bufferOffset) {
+        return invokeSync(() -> doRead(handle, fromOffset, length, buffer, bufferOffset));
+    }
+
+    /**
+     * Asynchronously writes the given data to the chunk.
+     * The default implementation invokes {@link #doWrite} on the calling thread.
+     *
+     * @param handle ChunkHandle of the chunk to write to.
+     * @param offset Offset in the chunk to start writing.
+     * @param length Number of bytes to write.
+     * @param data   An InputStream representing the data to write.
+     * @return A CompletableFuture that, when completed, will contain the number of bytes written.
+     */
+    protected CompletableFuture<Integer> doWriteAsync(ChunkHandle handle, long offset, int length, InputStream data) {
+        return invokeSync(() -> doWrite(handle, offset, length, data));
+    }
+
+    /**
+     * Asynchronously concatenates two or more chunks using storage native functionality.
+     * The default implementation invokes {@link #doConcat} on the calling thread.
+     *
+     * @param chunks Array of ConcatArgument objects containing info about existing chunks to be concatenated together.
+     * @return A CompletableFuture that, when completed, will contain the number of bytes concatenated.
+     */
+    protected CompletableFuture<Integer> doConcatAsync(ConcatArgument[] chunks) {
+        return invokeSync(() -> doConcat(chunks));
+    }
+
+    /**
+     * Executes the given asynchronous operation, after checking that this instance is not closed. Any exception thrown
+     * synchronously (i.e., during argument validation) is reported via the returned future.
+     */
+    private <T> CompletableFuture<T> invokeAsync(Callable<CompletableFuture<T>> operation) {
+        try {
+            Exceptions.checkNotClosed(this.closed.get(), this);
+            return operation.call();
+        } catch (Exception ex) {
+            return Futures.failedFuture(ex);
+        }
+    }
+
+    /**
+     * Executes the given synchronous operation on the current thread and returns a future with its outcome.
+     */
+    private static <T> CompletableFuture<T> invokeSync(Callable<T> operation) {
+        try {
+            return CompletableFuture.completedFuture(operation.call());
+        } catch (Exception ex) {
+            return Futures.failedFuture(ex);
+        }
+    }
+
+    private void checkDeleteArgs(ChunkHandle handle) {
+        Preconditions.checkArgument(null != handle, "handle must not be null");
+        checkChunkName(handle.getChunkName());
+        Preconditions.checkArgument(!handle.isReadOnly(), "handle must not be readonly");
+    }
+
+    private void checkReadArgs(ChunkHandle handle, long fromOffset, int length, byte[] buffer, int bufferOffset) {
+        Preconditions.checkArgument(null != handle, "handle");
+        checkChunkName(handle.getChunkName());
+        Preconditions.checkArgument(null != buffer, "buffer");
+        Preconditions.checkArgument(fromOffset >= 0, "fromOffset must be non-negative");
+        Preconditions.checkArgument(length >= 0 && length <= buffer.length, "length");
+        Preconditions.checkElementIndex(bufferOffset, buffer.length, "bufferOffset");
+    }
+
+    private void checkWriteArgs(ChunkHandle handle, long offset, int length, InputStream data) {
+        Preconditions.checkArgument(null != handle, "handle must not be null");
+        checkChunkName(handle.getChunkName());
+        Preconditions.checkArgument(!handle.isReadOnly(), "handle must not be readonly");
+        Preconditions.checkArgument(null != data, "data must not be null");
+        Preconditions.checkArgument(offset >= 0, "offset must be non-negative");
+        Preconditions.checkArgument(length >= 0, "length must be non-negative");
+        if (!supportsAppend()) {
+            Preconditions.checkArgument(offset == 0, "offset must be 0 because storage does not support appends.");
+        }
+    }
+
+    private void reportCreate(String chunkName, Duration elapsed) {
+        ChunkStorageMetrics.CREATE_LATENCY.reportSuccessEvent(elapsed);
+        ChunkStorageMetrics.CREATE_COUNT.inc();
+        log.debug("Create - chunk={}, latency={}.", chunkName, elapsed.toMillis());
+    }
+
+    private void reportDelete(ChunkHandle handle, Duration elapsed) {
+        ChunkStorageMetrics.DELETE_LATENCY.reportSuccessEvent(elapsed);
+        ChunkStorageMetrics.DELETE_COUNT.inc();
+        log.debug("Delete - chunk={}, latency={}.", handle.getChunkName(), elapsed.toMillis());
+    }
+
+    private void reportBatchDelete(List<String> chunkNames, Duration elapsed) {
+        ChunkStorageMetrics.DELETE_LATENCY.reportSuccessEvent(elapsed);
+        ChunkStorageMetrics.DELETE_COUNT.add(chunkNames.size());
+        log.debug("BatchDelete - chunks={}, latency={}.", chunkNames.size(), elapsed.toMillis());
+    }
+
+    private void reportRead(ChunkHandle handle, long fromOffset, int bytesRead, Duration elapsed) {
+        ChunkStorageMetrics.READ_LATENCY.reportSuccessEvent(elapsed);
+        ChunkStorageMetrics.READ_BYTES.add(bytesRead);
+        log.debug("Read - chunk={}, offset={}, bytesRead={}, latency={}.", handle.getChunkName(), fromOffset, bytesRead, elapsed.toMillis());
+    }
+
+    private void reportWrite(ChunkHandle handle, long offset, int bytesWritten, Duration elapsed) {
+        ChunkStorageMetrics.WRITE_LATENCY.reportSuccessEvent(elapsed);
+        ChunkStorageMetrics.WRITE_BYTES.add(bytesWritten);
+        log.debug("Write - chunk={}, offset={}, bytesWritten={}, latency={}.", handle.getChunkName(), offset, bytesWritten, elapsed.toMillis());
+    }
+
+    private void reportConcat(ConcatArgument[] chunks, int bytesConcatenated, Duration elapsed) {
+        log.debug("concat - target={}, latency={}.", chunks[0].getName(), elapsed.toMillis());
+        ChunkStorageMetrics.CONCAT_LATENCY.reportSuccessEvent(elapsed);
+        ChunkStorageMetrics.CONCAT_BYTES.add(bytesConcatenated);
+        ChunkStorageMetrics.CONCAT_COUNT.inc();
+        ChunkStorageMetrics.LARGE_CONCAT_COUNT.inc();
+    }
+
     /**
      * Validate chunk name.
      * @param chunkName Chunk name.
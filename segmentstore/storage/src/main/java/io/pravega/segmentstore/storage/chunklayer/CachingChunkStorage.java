@@ -0,0 +1,774 @@
+/**
+ * Copyright (c) Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.storage.chunklayer;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import io.pravega.common.Exceptions;
+import io.pravega.common.concurrent.Futures;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * A {@link ChunkStorage} decorator that caches data read from chunks in files on a local disk, so that repeated reads of
+ * the same data (for example replays of old data) do not need to go to the underlying {@link ChunkStorage}.
+ *
+ * <ul>
+ * <li>Each read that misses the cache is served by the underlying ChunkStorage, and the range of the chunk that was read
+ * is then stored in its own file. Later reads that fall entirely within a cached range are served from that file.</li>
+ * <li>Chunks are only ever appended to, so the data at a given offset of a chunk does not change once written. Cached
+ * ranges of a chunk are invalidated when the chunk is deleted or truncated, or when data is written at an offset that is
+ * already cached.</li>
+ * <li>Each cached range is split into fixed-size blocks and a CRC32 checksum of each block is kept in memory. A read only
+ * reads (and validates) the blocks it overlaps, so its cost is proportional to its length rather than to the size of the
+ * cached range. Ranges that can not be read or fail validation are evicted and the read is served by the underlying
+ * ChunkStorage instead.</li>
+ * <li>The total size of the cached ranges is capped. The least recently used ranges are evicted first.</li>
+ * </ul>
+ *
+ * Reads from and writes to the cache files are done on the given {@link Executor} by the async methods, so that callers
+ * of {@link #readAsync} are never blocked on local disk I/O.
+ *
+ * The index of cached ranges is only kept in memory. Each instance uses a new sub-directory of the given cache directory,
+ * named after the current process, and deletes any sub-directories left behind by processes that are no longer running.
+ * The wrapped {@link ChunkStorage} is owned by the caller and is not closed by {@link #close()}.
+ */
+@Slf4j
+@ThreadSafe
+public class CachingChunkStorage implements ChunkStorage {
+    //region Members
+
+    /**
+     * Default size of the blocks that checksums are computed over.
+     */
+    private static final int DEFAULT_CHECKSUM_BLOCK_SIZE = 64 * 1024;
+    /**
+     * Separates the id of the process that owns a cache sub-directory from the rest of its name.
+     */
+    private static final String DIRECTORY_NAME_SEPARATOR = "_";
+
+    private final ChunkStorage chunkStorage;
+    private final Executor executor;
+    private final Path cacheDirectory;
+    private final long maxCacheSize;
+    private final int checksumBlockSize;
+    private final AtomicBoolean closed = new AtomicBoolean();
+    @GuardedBy("this")
+    private final HashMap<String, CachedChunk> cachedChunks = new HashMap<>();
+    @GuardedBy("this")
+    private final LinkedHashMap<Long, CachedRange> rangesByAccessOrder = new LinkedHashMap<>(16, 0.75f, true);
+    @GuardedBy("this")
+    private long cacheSize;
+    @GuardedBy("this")
+    private long nextRangeId;
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the CachingChunkStorage class.
+     *
+     * @param chunkStorage   The {@link ChunkStorage} to cache reads for.
+     * @param cacheDirectory The local directory to store cached data in.
+     * @param maxCacheSize   Maximum total size (in bytes) of cached data.
+     * @param executor       An Executor to read from and write to the cache files on.
+     * @throws IOException If the cache directory could not be created.
+     */
+    public CachingChunkStorage(ChunkStorage chunkStorage, Path cacheDirectory, long maxCacheSize, Executor executor) throws IOException {
+        this(chunkStorage, cacheDirectory, maxCacheSize, DEFAULT_CHECKSUM_BLOCK_SIZE, executor);
+    }
+
+    /**
+     * Creates a new instance of the CachingChunkStorage class.
+     *
+     * @param chunkStorage      The {@link ChunkStorage} to cache reads for.
+     * @param cacheDirectory    The local directory to store cached data in.
+     * @param maxCacheSize      Maximum total size (in bytes) of cached data.
+     * @param checksumBlockSize Size (in bytes) of the blocks that checksums are computed over.
+     * @param executor          An Executor to read from and write to the cache files on.
+     * @throws IOException If the cache directory could not be created.
+     */
+    @VisibleForTesting
+    CachingChunkStorage(ChunkStorage chunkStorage, Path cacheDirectory, long maxCacheSize, int checksumBlockSize,
+                        Executor executor) throws IOException {
+        Preconditions.checkArgument(maxCacheSize > 0, "maxCacheSize must be a positive number.");
+        Preconditions.checkArgument(checksumBlockSize > 0, "checksumBlockSize must be a positive number.");
+        this.chunkStorage = Preconditions.checkNotNull(chunkStorage, "chunkStorage");
+        this.maxCacheSize = maxCacheSize;
+        this.checksumBlockSize = checksumBlockSize;
+        this.executor = Preconditions.checkNotNull(executor, "executor");
+        Preconditions.checkNotNull(cacheDirectory, "cacheDirectory");
+        this.cacheDirectory = Files.createDirectories(cacheDirectory.resolve(
+                ProcessHandle.current().pid() + DIRECTORY_NAME_SEPARATOR + UUID.randomUUID()));
+        deleteLeftovers(cacheDirectory);
+        log.info("CachingChunkStorage: Caching chunk data in {} (max {} bytes).", this.cacheDirectory, this.maxCacheSize);
+    }
+
+    /**
+     * Wraps the given {@link ChunkStorage} with a new {@link CachingChunkStorage} if local caching is enabled in the given
+     * config (see {@link ChunkedSegmentStorageConfig#isLocalCacheEnabled()}).
+     *
+     * @param chunkStorage The {@link ChunkStorage} to wrap.
+     * @param config       Configuration options for the {@link ChunkedSegmentStorage} that will use the result.
+     * @param executor     An Executor to read from and write to the cache files on.
+     * @return A new {@link CachingChunkStorage} wrapping the given {@link ChunkStorage}, or the given {@link ChunkStorage}
+     * itself if local caching is disabled.
+     */
+    @SneakyThrows(IOException.class)
+    public static ChunkStorage wrapIfEnabled(ChunkStorage chunkStorage, ChunkedSegmentStorageConfig config, Executor executor) {
+        if (!config.isLocalCacheEnabled()) {
+            return chunkStorage;
+        }
+        return new CachingChunkStorage(chunkStorage, Paths.get(config.getLocalCachePath()), config.getLocalCacheMaxSize(), executor);
+    }
+
+    //endregion
+
+    //region AutoCloseable Implementation
+
+    @Override
+    public void close() throws Exception {
+        if (!this.closed.getAndSet(true)) {
+            clear();
+            deleteRecursively(this.cacheDirectory);
+        }
+    }
+
+    //endregion
+
+    //region ChunkStorage Implementation
+
+    @Override
+    public boolean supportsTruncation() {
+        return this.chunkStorage.supportsTruncation();
+    }
+
+    @Override
+    public boolean supportsAppend() {
+        return this.chunkStorage.supportsAppend();
+    }
+
+    @Override
+    public boolean supportsConcat() {
+        return this.chunkStorage.supportsConcat();
+    }
+
+    @Override
+    public boolean exists(String chunkName) throws ChunkStorageException {
+        return this.chunkStorage.exists(chunkName);
+    }
+
+    @Override
+    public ChunkHandle create(String chunkName) throws ChunkStorageException {
+        val handle = this.chunkStorage.create(chunkName);
+        invalidate(chunkName);
+        return handle;
+    }
+
+    @Override
+    public void delete(ChunkHandle handle) throws ChunkStorageException {
+        try {
+            this.chunkStorage.delete(handle);
+        } finally {
+            invalidate(getChunkName(handle));
+        }
+    }
+
+    @Override
+    public void batchDelete(List<String> chunkNames) throws ChunkStorageException {
+        try {
+            this.chunkStorage.batchDelete(chunkNames);
+        } finally {
+            if (null != chunkNames) {
+                chunkNames.forEach(this::invalidate);
+            }
+        }
+    }
+
+    @Override
+    public ChunkHandle openRead(String chunkName) throws ChunkStorageException, IllegalArgumentException {
+        return this.chunkStorage.openRead(chunkName);
+    }
+
+    @Override
+    public ChunkHandle openWrite(String chunkName) throws ChunkStorageException, IllegalArgumentException {
+        return this.chunkStorage.openWrite(chunkName);
+    }
+
+    @Override
+    public ChunkInfo getInfo(String chunkName) throws ChunkStorageException, IllegalArgumentException {
+        return this.chunkStorage.getInfo(chunkName);
+    }
+
+    @Override
+    public int read(ChunkHandle handle, long fromOffset, int length, byte[] buffer, int bufferOffset) throws ChunkStorageException, NullPointerException, IndexOutOfBoundsException {
+        Exceptions.checkNotClosed(this.closed.get(), this);
+        Preconditions.checkArgument(null != handle, "handle");
+        val cachedChunk = acquire(handle.getChunkName());
+        try {
+            val range = findCachedRange(cachedChunk, fromOffset, length, buffer, bufferOffset);
+            if (null != range && readFromCache(cachedChunk, range, fromOffset, length, buffer, bufferOffset)) {
+                return length;
+            }
+
+            int bytesRead = this.chunkStorage.read(handle, fromOffset, length, buffer, bufferOffset);
+            addToCache(cachedChunk, fromOffset, buffer, bufferOffset, bytesRead);
+            return bytesRead;
+        } finally {
+            release(cachedChunk);
+        }
+    }
+
+    @Override
+    public int write(ChunkHandle handle, long offset, int length, InputStream data) throws ChunkStorageException, IndexOutOfBoundsException {
+        invalidateFrom(getChunkName(handle), offset);
+        return this.chunkStorage.write(handle, offset, length, data);
+    }
+
+    @Override
+    public int concat(ConcatArgument[] chunks) throws ChunkStorageException, UnsupportedOperationException {
+        invalidateConcatTarget(chunks);
+        return this.chunkStorage.concat(chunks);
+    }
+
+    @Override
+    public boolean truncate(ChunkHandle handle, long offset) throws ChunkStorageException, UnsupportedOperationException {
+        try {
+            return this.chunkStorage.truncate(handle, offset);
+        } finally {
+            invalidateFrom(getChunkName(handle), offset);
+        }
+    }
+
+    @Override
+    public void setReadOnly(ChunkHandle handle, boolean isReadonly) throws ChunkStorageException, UnsupportedOperationException {
+        this.chunkStorage.setReadOnly(handle, isReadonly);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> existsAsync(String chunkName) {
+        return this.chunkStorage.existsAsync(chunkName);
+    }
+
+    @Override
+    public CompletableFuture<ChunkHandle> createAsync(String chunkName) {
+        return this.chunkStorage.createAsync(chunkName)
+                .thenApply(handle -> {
+                    invalidate(chunkName);
+                    return handle;
+                });
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteAsync(ChunkHandle handle) {
+        return this.chunkStorage.deleteAsync(handle)
+                .whenComplete((v, ex) -> invalidate(getChunkName(handle)));
+    }
+
+    @Override
+    public CompletableFuture<ChunkHandle> openReadAsync(String chunkName) {
+        return this.chunkStorage.openReadAsync(chunkName);
+    }
+
+    @Override
+    public CompletableFuture<ChunkHandle> openWriteAsync(String chunkName) {
+        return this.chunkStorage.openWriteAsync(chunkName);
+    }
+
+    @Override
+    public CompletableFuture<ChunkInfo> getInfoAsync(String chunkName) {
+        return this.chunkStorage.getInfoAsync(chunkName);
+    }
+
+    @Override
+    public CompletableFuture<Integer> readAsync(ChunkHandle handle, long fromOffset, int length, byte[] buffer, int bufferOffset) {
+        final CachedChunk cachedChunk;
+        try {
+            Exceptions.checkNotClosed(this.closed.get(), this);
+            Preconditions.checkArgument(null != handle, "handle");
+            cachedChunk = acquire(handle.getChunkName());
+        } catch (Exception ex) {
+            return Futures.failedFuture(ex);
+        }
+
+        CompletableFuture<Integer> result;
+        try {
+            val range = findCachedRange(cachedChunk, fromOffset, length, buffer, bufferOffset);
+            if (null == range) {
+                result = readAndCacheAsync(cachedChunk, handle, fromOffset, length, buffer, bufferOffset);
+            } else {
+                // Only go to the executor if there is something in the cache to read.
+                result = CompletableFuture
+                        .supplyAsync(() -> readFromCache(cachedChunk, range, fromOffset, length, buffer, bufferOffset), this.executor)
+                        .thenCompose(isCached -> isCached
+                                ? CompletableFuture.completedFuture(length)
+                                : readAndCacheAsync(cachedChunk, handle, fromOffset, length, buffer, bufferOffset));
+            }
+        } catch (Exception ex) {
+            result = Futures.failedFuture(ex);
+        }
+        return result.whenComplete((r, ex) -> release(cachedChunk));
+    }
+
+    /**
+     * Reads the given range from the underlying {@link ChunkStorage} and then stores it in the cache using the executor.
+     * The returned future completes once the data has been cached, so that the caller's buffer is not modified while it
+     * is being written to the cache.
+     */
+    private CompletableFuture<Integer> readAndCacheAsync(CachedChunk cachedChunk, ChunkHandle handle, long fromOffset, int length,
+                                                         byte[] buffer, int bufferOffset) {
+        return this.chunkStorage.readAsync(handle, fromOffset, length, buffer, bufferOffset)
+                .thenApplyAsync(bytesRead -> {
+                    addToCache(cachedChunk, fromOffset, buffer, bufferOffset, bytesRead);
+                    return bytesRead;
+                }, this.executor);
+    }
+
+    @Override
+    public CompletableFuture<Integer> writeAsync(ChunkHandle handle, long offset, int length, InputStream data) {
+        try {
+            invalidateFrom(getChunkName(handle), offset);
+        } catch (Exception ex) {
+            return Futures.failedFuture(ex);
+        }
+        return this.chunkStorage.writeAsync(handle, offset, length, data);
+    }
+
+    @Override
+    public CompletableFuture<Integer> concatAsync(ConcatArgument[] chunks) {
+        try {
+            invalidateConcatTarget(chunks);
+        } catch (Exception ex) {
+            return Futures.failedFuture(ex);
+        }
+        return this.chunkStorage.concatAsync(chunks);
+    }
+
+    //endregion
+
+    //region Cache Management
+
+    /**
+     * Removes all cached data.
+     */
+    public void clear() {
+        List<CachedRange> toDelete;
+        synchronized (this) {
+            toDelete = new ArrayList<>(this.rangesByAccessOrder.values());
+            this.cachedChunks.values().forEach(cachedChunk -> cachedChunk.invalidated = true);
+            this.cachedChunks.clear();
+            this.rangesByAccessOrder.clear();
+            this.cacheSize = 0;
+        }
+        deleteFiles(toDelete);
+    }
+
+    /**
+     * Gets the total size (in bytes) of cached data.
+     *
+     * @return The total size of cached data.
+     */
+    @VisibleForTesting
+    synchronized long getCacheSize() {
+        return this.cacheSize;
+    }
+
+    /**
+     * Gets the {@link CachedChunk} for the given chunk, creating it if needed, and registers a new read for it. Every call
+     * to this method must be followed by a call to {@link #release}.
+     */
+    private synchronized CachedChunk acquire(String chunkName) {
+        Preconditions.checkNotNull(chunkName, "chunkName");
+        val cachedChunk = this.cachedChunks.computeIfAbsent(chunkName, CachedChunk::new);
+        cachedChunk.activeReads++;
+        return cachedChunk;
+    }
+
+    /**
+     * Unregisters a read registered using {@link #acquire}.
+     */
+    private synchronized void release(CachedChunk cachedChunk) {
+        cachedChunk.activeReads--;
+        if (cachedChunk.activeReads == 0 && cachedChunk.ranges.isEmpty() && this.cachedChunks.get(cachedChunk.chunkName) == cachedChunk) {
+            this.cachedChunks.remove(cachedChunk.chunkName);
+        }
+    }
+
+    /**
+     * Finds the cached range that contains the given read, if any, and marks it as recently used. This does not do any
+     * I/O.
+     *
+     * @return The cached range, or null if the read can not be served from the cache.
+     */
+    private CachedRange findCachedRange(CachedChunk cachedChunk, long fromOffset, int length, byte[] buffer, int bufferOffset) {
+        if (fromOffset < 0 || length <= 0 || null == buffer || bufferOffset < 0 || bufferOffset + length > buffer.length) {
+            // Let the underlying ChunkStorage deal with invalid arguments.
+            return null;
+        }
+
+        CachedRange range;
+        synchronized (this) {
+            range = cachedChunk.find(fromOffset, length);
+            if (null != range) {
+                // Mark it as recently used.
+                this.rangesByAccessOrder.get(range.id);
+            }
+        }
+
+        if (null == range) {
+            ChunkStorageMetrics.LOCAL_CACHE_MISS_COUNT.inc();
+        }
+        return range;
+    }
+
+    /**
+     * Attempts to serve the given read from the given cached range (obtained from {@link #findCachedRange}). This reads
+     * from the cache file, so async callers must invoke it on the executor.
+     *
+     * @return True if the data was read from the cache, false otherwise.
+     */
+    private boolean readFromCache(CachedChunk cachedChunk, CachedRange range, long fromOffset, int length, byte[] buffer, int bufferOffset) {
+        // Only read the checksum blocks that overlap the requested range.
+        int offsetInRange = (int) (fromOffset - range.offset);
+        int firstBlock = offsetInRange / this.checksumBlockSize;
+        int lastBlock = (offsetInRange + length - 1) / this.checksumBlockSize;
+        int readOffset = firstBlock * this.checksumBlockSize;
+        int readLength = (int) Math.min((long) (lastBlock + 1) * this.checksumBlockSize, range.length) - readOffset;
+        byte[] data = new byte[readLength];
+        boolean complete;
+        try (FileChannel channel = FileChannel.open(range.path, StandardOpenOption.READ)) {
+            val readBuffer = ByteBuffer.wrap(data);
+            int bytesRead = 0;
+            while (readBuffer.hasRemaining() && bytesRead >= 0) {
+                // Positional reads may return fewer bytes than requested; stop if we reach the end of the file.
+                bytesRead = channel.read(readBuffer, readOffset + readBuffer.position());
+            }
+            complete = !readBuffer.hasRemaining();
+        } catch (NoSuchFileException ex) {
+            // The range was evicted (and its file deleted) after we found it.
+            log.debug("CachingChunkStorage: Cached data for chunk {} in {} was evicted while being read.", cachedChunk.chunkName, range.path);
+            evict(range);
+            ChunkStorageMetrics.LOCAL_CACHE_MISS_COUNT.inc();
+            return false;
+        } catch (IOException ex) {
+            log.warn("CachingChunkStorage: Unable to read cached data for chunk {} from {}.", cachedChunk.chunkName, range.path, ex);
+            evict(range);
+            ChunkStorageMetrics.LOCAL_CACHE_MISS_COUNT.inc();
+            return false;
+        }
+
+        if (!complete || !isValid(range, data, firstBlock, lastBlock)) {
+            log.warn("CachingChunkStorage: Cached data for chunk {} in {} is corrupted.", cachedChunk.chunkName, range.path);
+            evict(range);
+            ChunkStorageMetrics.LOCAL_CACHE_MISS_COUNT.inc();
+            return false;
+        }
+
+        System.arraycopy(data, offsetInRange - readOffset, buffer, bufferOffset, length);
+        ChunkStorageMetrics.LOCAL_CACHE_HIT_COUNT.inc();
+        return true;
+    }
+
+    /**
+     * Validates the given data, which was read from the given range starting at the beginning of firstBlock, against the
+     * checksums of all the blocks between firstBlock and lastBlock (inclusive).
+     */
+    private boolean isValid(CachedRange range, byte[] data, int firstBlock, int lastBlock) {
+        for (int block = firstBlock; block <= lastBlock; block++) {
+            int offset = (block - firstBlock) * this.checksumBlockSize;
+            int length = Math.min(this.checksumBlockSize, data.length - offset);
+            if (getChecksum(data, offset, length) != range.checksums[block]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Stores the data that was just read from the underlying {@link ChunkStorage} in the cache, unless the chunk was
+     * invalidated while the data was being read. This writes to a cache file, so async callers must invoke it on the
+     * executor.
+     */
+    private void addToCache(CachedChunk cachedChunk, long fromOffset, byte[] buffer, int bufferOffset, int bytesRead) {
+        if (bytesRead <= 0 || bytesRead > this.maxCacheSize) {
+            return;
+        }
+
+        long rangeId;
+        synchronized (this) {
+            if (cachedChunk.invalidated || null != cachedChunk.find(fromOffset, bytesRead)) {
+                return;
+            }
+            rangeId = this.nextRangeId++;
+        }
+
+        val range = new CachedRange(rangeId, cachedChunk, fromOffset, bytesRead,
+                getChecksums(buffer, bufferOffset, bytesRead), this.cacheDirectory.resolve(Long.toString(rangeId)));
+        try (OutputStream os = Files.newOutputStream(range.path)) {
+            os.write(buffer, bufferOffset, bytesRead);
+        } catch (IOException ex) {
+            log.warn("CachingChunkStorage: Unable to cache data for chunk {} in {}.", cachedChunk.chunkName, range.path, ex);
+            deleteFile(range.path);
+            return;
+        }
+
+        List<CachedRange> toDelete = new ArrayList<>();
+        synchronized (this) {
+            if (cachedChunk.invalidated || this.closed.get() || null != cachedChunk.find(range.offset, range.length)) {
+                // Either we should no longer cache it, or a concurrent read already cached a range that contains it.
+                toDelete.add(range);
+            } else {
+                // Ranges that this one contains are no longer needed (see CachedChunk).
+                val contained = cachedChunk.ranges.subMap(range.offset, true, range.offset + range.length, false).values().iterator();
+                while (contained.hasNext()) {
+                    val existing = contained.next();
+                    if (existing.offset + existing.length <= range.offset + range.length) {
+                        contained.remove();
+                        removeRange(existing);
+                        toDelete.add(existing);
+                    }
+                }
+
+                cachedChunk.ranges.put(range.offset, range);
+                this.rangesByAccessOrder.put(range.id, range);
+                this.cacheSize += range.length;
+
+                // Evict least recently used ranges until we are within the limit.
+                val iterator = this.rangesByAccessOrder.values().iterator();
+                while (this.cacheSize > this.maxCacheSize && iterator.hasNext()) {
+                    val toEvict = iterator.next();
+                    iterator.remove();
+                    this.cacheSize -= toEvict.length;
+                    toEvict.cachedChunk.ranges.remove(toEvict.offset, toEvict);
+                    removeIfUnused(toEvict.cachedChunk);
+                    toDelete.add(toEvict);
+                }
+            }
+        }
+        deleteFiles(toDelete);
+    }
+
+    /**
+     * Removes all cached data for the given chunk.
+     */
+    private void invalidate(String chunkName) {
+        List<CachedRange> toDelete;
+        synchronized (this) {
+            val cachedChunk = this.cachedChunks.remove(chunkName);
+            if (null == cachedChunk) {
+                return;
+            }
+            cachedChunk.invalidated = true;
+            toDelete = new ArrayList<>(cachedChunk.ranges.values());
+            toDelete.forEach(this::removeRange);
+        }
+        deleteFiles(toDelete);
+    }
+
+    /**
+     * Removes all cached data for the given chunk if any of it is at or beyond the given offset.
+     */
+    private void invalidateFrom(String chunkName, long offset) {
+        boolean isCachedBeyondOffset;
+        synchronized (this) {
+            val cachedChunk = this.cachedChunks.get(chunkName);
+            isCachedBeyondOffset = null != cachedChunk
+                    && cachedChunk.ranges.values().stream().anyMatch(range -> range.offset + range.length > offset);
+        }
+        if (isCachedBeyondOffset) {
+            invalidate(chunkName);
+        }
+    }
+
+    /**
+     * Removes any cached data of the target chunk of a concat that is beyond its current length.
+     */
+    private void invalidateConcatTarget(ConcatArgument[] chunks) {
+        if (null != chunks && chunks.length > 0 && null != chunks[0]) {
+            invalidateFrom(chunks[0].getName(), chunks[0].getLength());
+        }
+    }
+
+    /**
+     * Removes the given range from the cache.
+     */
+    private void evict(CachedRange range) {
+        synchronized (this) {
+            if (range.cachedChunk.ranges.remove(range.offset, range)) {
+                removeRange(range);
+                removeIfUnused(range.cachedChunk);
+            }
+        }
+        deleteFile(range.path);
+    }
+
+    @GuardedBy("this")
+    private void removeRange(CachedRange range) {
+        if (null != this.rangesByAccessOrder.remove(range.id)) {
+            this.cacheSize -= range.length;
+        }
+    }
+
+    @GuardedBy("this")
+    private void removeIfUnused(CachedChunk cachedChunk) {
+        if (cachedChunk.activeReads == 0 && cachedChunk.ranges.isEmpty()) {
+            this.cachedChunks.remove(cachedChunk.chunkName, cachedChunk);
+        }
+    }
+
+    private static String getChunkName(ChunkHandle handle) {
+        return null == handle ? null : handle.getChunkName();
+    }
+
+    private long[] getChecksums(byte[] data, int offset, int length) {
+        long[] result = new long[(int) ((length + (long) this.checksumBlockSize - 1) / this.checksumBlockSize)];
+        for (int block = 0; block < result.length; block++) {
+            int blockOffset = block * this.checksumBlockSize;
+            result[block] = getChecksum(data, offset + blockOffset, Math.min(this.checksumBlockSize, length - blockOffset));
+        }
+        return result;
+    }
+
+    private static long getChecksum(byte[] data, int offset, int length) {
+        val crc = new CRC32();
+        crc.update(data, offset, length);
+        return crc.getValue();
+    }
+
+    private void deleteFiles(List<CachedRange> ranges) {
+        ranges.forEach(range -> deleteFile(range.path));
+    }
+
+    private void deleteFile(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ex) {
+            log.warn("CachingChunkStorage: Unable to delete {}.", path, ex);
+        }
+    }
+
+    /**
+     * Deletes the sub-directories of the given directory that were left behind by processes that are no longer running.
+     * Sub-directories of running processes (including the current one) are in use by other instances and are left alone.
+     */
+    private static void deleteLeftovers(Path cacheDirectory) throws IOException {
+        List<Path> leftovers;
+        try (Stream<Path> paths = Files.list(cacheDirectory)) {
+            leftovers = paths.filter(path -> !isOwnedByRunningProcess(path)).collect(Collectors.toList());
+        }
+        for (val path : leftovers) {
+            try {
+                deleteRecursively(path);
+            } catch (IOException ex) {
+                // Another instance may be deleting it at the same time; whatever is left will be deleted next time.
+                log.warn("CachingChunkStorage: Unable to delete {}.", path, ex);
+            }
+        }
+    }
+
+    private static boolean isOwnedByRunningProcess(Path path) {
+        val name = path.getFileName().toString();
+        int separatorIndex = name.indexOf(DIRECTORY_NAME_SEPARATOR);
+        if (separatorIndex <= 0) {
+            return false;
+        }
+        try {
+            val pid = Long.parseLong(name.substring(0, separatorIndex));
+            return ProcessHandle.of(pid).map(ProcessHandle::isAlive).orElse(false);
+        } catch (NumberFormatException ex) {
+            return false;
+        }
+    }
+
+    private static void deleteRecursively(Path path) throws IOException {
+        if (Files.exists(path)) {
+            try (Stream<Path> paths = Files.walk(path)) {
+                for (val p : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                    Files.deleteIfExists(p);
+                }
+            }
+        }
+    }
+
+    //endregion
+
+    //region Helper Classes
+
+    /**
+     * Cached ranges of a single chunk, by their start offsets. No range contains another one (see {@link #addToCache}), so
+     * ranges that start later also end later.
+     */
+    @RequiredArgsConstructor
+    private static class CachedChunk {
+        private final String chunkName;
+        private final TreeMap<Long, CachedRange> ranges = new TreeMap<>();
+        private int activeReads;
+        private boolean invalidated;
+
+        /**
+         * Finds a cached range that contains the given range. Since no range contains another one, the range that starts
+         * last at or before the given offset is the one that extends the furthest, so it is the only one to check.
+         */
+        CachedRange find(long offset, int length) {
+            val entry = this.ranges.floorEntry(offset);
+            if (null != entry && entry.getValue().offset + entry.getValue().length >= offset + length) {
+                return entry.getValue();
+            }
+            return null;
+        }
+    }
+
+    /**
+     * A range of a chunk that is stored in a file.
+     */
+    @RequiredArgsConstructor
+    private static class CachedRange {
+        private final long id;
+        private final CachedChunk cachedChunk;
+        private final long offset;
+        private final int length;
+        /**
+         * Checksums of each block of the range, in order. All blocks but the last one have the configured block size.
+         */
+        private final long[] checksums;
+        private final Path path;
+    }
+
+    //endregion
+}
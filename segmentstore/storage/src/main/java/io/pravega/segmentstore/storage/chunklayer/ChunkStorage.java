@@ -12,6 +12,8 @@ package io.pravega.segmentstore.storage.chunklayer;
 import com.google.common.annotations.Beta;
 
 import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Defines an abstraction for Permanent Storage.
@@ -42,6 +44,11 @@ import java.io.InputStream;
  * For concats, {@link ChunkStorage} supports both native and append, ChunkedSegmentStorage will invoke appropriate method depending
  * on size of target and source chunks. (Eg. ECS)
  *
+ * Every data path operation also has an asynchronous variant (for example {@link ChunkStorage#readAsync}) which returns a
+ * CompletableFuture. Implementations backed by storage that offers asynchronous clients should implement these natively so
+ * that callers (i.e., {@link ChunkedSegmentStorage}) do not need to block threads while waiting on the underlying storage.
+ * Asynchronous variants report failures (including invalid arguments) by completing the returned future exceptionally.
+ *
  * It is recommended that the implementations should extend {@link BaseChunkStorage}.
  */
 @Beta
@@ -93,6 +100,17 @@ public interface ChunkStorage extends AutoCloseable {
      */
     void delete(ChunkHandle handle) throws ChunkStorageException;
 
+    /**
+     * Deletes multiple files. Unlike {@link ChunkStorage#delete(ChunkHandle)}, this operation is idempotent: files that do
+     * not exist are ignored. Implementations backed by storage that supports deleting multiple objects in a single request
+     * (for example S3 multi-object delete) should use it.
+     *
+     * @param chunkNames List of names of the storage objects to delete.
+     * @throws ChunkStorageException Throws ChunkStorageException in case of I/O related exceptions. Some of the files may
+     *                               have been deleted even if this is thrown.
+     */
+    void batchDelete(List<String> chunkNames) throws ChunkStorageException;
+
     /**
      * Opens storage object for Read.
      *
@@ -191,4 +209,94 @@ public interface ChunkStorage extends AutoCloseable {
      * @throws UnsupportedOperationException If this operation is not supported by this provider.
      */
     void setReadOnly(ChunkHandle handle, boolean isReadonly) throws ChunkStorageException, UnsupportedOperationException;
+
+    /**
+     * Asynchronously determines whether named file/object exists in underlying storage.
+     *
+     * @param chunkName Name of the storage object to check.
+     * @return A CompletableFuture that, when completed, will contain true if the object exists, false otherwise. If the
+     * operation failed, it will be completed with the appropriate exception (see {@link ChunkStorage#exists}).
+     */
+    CompletableFuture<Boolean> existsAsync(String chunkName);
+
+    /**
+     * Asynchronously creates a new file.
+     *
+     * @param chunkName String name of the storage object to create.
+     * @return A CompletableFuture that, when completed, will contain a writable handle for the recently created chunk. If
+     * the operation failed, it will be completed with the appropriate exception (see {@link ChunkStorage#create}).
+     */
+    CompletableFuture<ChunkHandle> createAsync(String chunkName);
+
+    /**
+     * Asynchronously deletes a file.
+     *
+     * @param handle ChunkHandle of the storage object to delete.
+     * @return A CompletableFuture that, when completed, will indicate that the operation completed. If the operation
+     * failed, it will be completed with the appropriate exception (see {@link ChunkStorage#delete}).
+     */
+    CompletableFuture<Void> deleteAsync(ChunkHandle handle);
+
+    /**
+     * Asynchronously opens storage object for Read.
+     *
+     * @param chunkName String name of the storage object to read from.
+     * @return A CompletableFuture that, when completed, will contain a readable handle for the given chunk. If the
+     * operation failed, it will be completed with the appropriate exception (see {@link ChunkStorage#openRead}).
+     */
+    CompletableFuture<ChunkHandle> openReadAsync(String chunkName);
+
+    /**
+     * Asynchronously opens storage object for Write (or modifications).
+     *
+     * @param chunkName String name of the storage object to write to or modify.
+     * @return A CompletableFuture that, when completed, will contain a writable handle for the given chunk. If the
+     * operation failed, it will be completed with the appropriate exception (see {@link ChunkStorage#openWrite}).
+     */
+    CompletableFuture<ChunkHandle> openWriteAsync(String chunkName);
+
+    /**
+     * Asynchronously retrieves the ChunkInfo for given name.
+     *
+     * @param chunkName String name of the storage object to read from.
+     * @return A CompletableFuture that, when completed, will contain information about the given chunk. If the operation
+     * failed, it will be completed with the appropriate exception (see {@link ChunkStorage#getInfo}).
+     */
+    CompletableFuture<ChunkInfo> getInfoAsync(String chunkName);
+
+    /**
+     * Asynchronously reads a range of bytes from the underlying storage object.
+     *
+     * @param handle       ChunkHandle of the storage object to read from.
+     * @param fromOffset   Offset in the file from which to start reading.
+     * @param length       Number of bytes to read.
+     * @param buffer       Byte buffer to which data is copied. This must not be modified until the returned future completes.
+     * @param bufferOffset Offset in the buffer at which to start copying read data.
+     * @return A CompletableFuture that, when completed, will contain the number of bytes read. If the operation failed,
+     * it will be completed with the appropriate exception (see {@link ChunkStorage#read}).
+     */
+    CompletableFuture<Integer> readAsync(ChunkHandle handle, long fromOffset, int length, byte[] buffer, int bufferOffset);
+
+    /**
+     * Asynchronously writes the given data to the underlying storage object. The same restrictions apply as for
+     * {@link ChunkStorage#write}.
+     *
+     * @param handle ChunkHandle of the storage object to write to.
+     * @param offset Offset in the file to start writing.
+     * @param length Number of bytes to write.
+     * @param data   An InputStream representing the data to write. Implementations may consume this stream on any thread.
+     * @return A CompletableFuture that, when completed, will contain the number of bytes written. If the operation
+     * failed, it will be completed with the appropriate exception (see {@link ChunkStorage#write}).
+     */
+    CompletableFuture<Integer> writeAsync(ChunkHandle handle, long offset, int length, InputStream data);
+
+    /**
+     * Asynchronously concatenates two or more chunks using native facility. The first chunk is concatenated to.
+     *
+     * @param chunks Array of ConcatArgument objects containing info about existing chunks to be appended together.
+     *               The chunks must be concatenated in the same sequence the arguments are provided.
+     * @return A CompletableFuture that, when completed, will contain the number of bytes concatenated. If the operation
+     * failed, it will be completed with the appropriate exception (see {@link ChunkStorage#concat}).
+     */
+    CompletableFuture<Integer> concatAsync(ConcatArgument[] chunks);
 }
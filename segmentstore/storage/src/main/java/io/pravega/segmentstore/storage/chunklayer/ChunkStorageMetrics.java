@@ -11,15 +11,19 @@ package io.pravega.segmentstore.storage.chunklayer;
 
 import io.pravega.shared.MetricsNames;
 import io.pravega.shared.metrics.Counter;
+import io.pravega.shared.metrics.DynamicLogger;
 import io.pravega.shared.metrics.MetricsProvider;
 import io.pravega.shared.metrics.OpStatsLogger;
 import io.pravega.shared.metrics.StatsLogger;
 
+import static io.pravega.shared.MetricsTags.containerTag;
+
 /**
- * Defines all Metrics used by the {@link BaseChunkStorage} class.
+ * Defines all Metrics used by the {@link BaseChunkStorage}, {@link GarbageCollector} and {@link CachingChunkStorage} classes.
  */
 public class ChunkStorageMetrics {
     private static final StatsLogger STATS_LOGGER = MetricsProvider.createStatsLogger("ChunkStorage");
+    private static final DynamicLogger DYNAMIC_LOGGER = MetricsProvider.getDynamicLogger();
 
     static final OpStatsLogger READ_LATENCY = STATS_LOGGER.createStats(MetricsNames.STORAGE_READ_LATENCY);
     static final OpStatsLogger WRITE_LATENCY = STATS_LOGGER.createStats(MetricsNames.STORAGE_WRITE_LATENCY);
@@ -36,4 +40,29 @@ public class ChunkStorageMetrics {
     static final Counter CONCAT_COUNT = STATS_LOGGER.createCounter(MetricsNames.STORAGE_CONCAT_COUNT);
 
     static final Counter LARGE_CONCAT_COUNT = STATS_LOGGER.createCounter(MetricsNames.STORAGE_LARGE_CONCAT_COUNT);
+
+    static final Counter GC_DELETE_COUNT = STATS_LOGGER.createCounter(MetricsNames.STORAGE_GC_DELETE_COUNT);
+    static final Counter GC_DELETE_FAILED_COUNT = STATS_LOGGER.createCounter(MetricsNames.STORAGE_GC_DELETE_FAILED_COUNT);
+
+    static final Counter LOCAL_CACHE_HIT_COUNT = STATS_LOGGER.createCounter(MetricsNames.STORAGE_LOCAL_CACHE_HIT_COUNT);
+    static final Counter LOCAL_CACHE_MISS_COUNT = STATS_LOGGER.createCounter(MetricsNames.STORAGE_LOCAL_CACHE_MISS_COUNT);
+
+    /**
+     * Reports the number of garbage chunks waiting to be deleted for the given container.
+     *
+     * @param containerId Container Id.
+     * @param queueSize   Number of garbage chunks.
+     */
+    static void reportGarbageQueueSize(int containerId, long queueSize) {
+        DYNAMIC_LOGGER.reportGaugeValue(MetricsNames.STORAGE_GC_QUEUE_SIZE, queueSize, containerTag(containerId));
+    }
+
+    /**
+     * Stops reporting the number of garbage chunks waiting to be deleted for the given container.
+     *
+     * @param containerId Container Id.
+     */
+    static void freezeGarbageQueueSize(int containerId) {
+        DYNAMIC_LOGGER.freezeGaugeValue(MetricsNames.STORAGE_GC_QUEUE_SIZE, containerTag(containerId));
+    }
 }
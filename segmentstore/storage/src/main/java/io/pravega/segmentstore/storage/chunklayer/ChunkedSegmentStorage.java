@@ -14,6 +14,7 @@ import com.google.common.base.Preconditions;
 import io.pravega.common.Exceptions;
 import io.pravega.common.LoggerHelpers;
 import io.pravega.common.Timer;
+import io.pravega.common.concurrent.Futures;
 import io.pravega.common.io.BoundedInputStream;
 import io.pravega.common.util.ImmutableDate;
 import io.pravega.segmentstore.contracts.BadOffsetException;
@@ -30,12 +31,15 @@ import io.pravega.segmentstore.storage.StorageNotPrimaryException;
 import io.pravega.segmentstore.storage.metadata.ChunkMetadata;
 import io.pravega.segmentstore.storage.metadata.ChunkMetadataStore;
 import io.pravega.segmentstore.storage.metadata.MetadataTransaction;
+import io.pravega.segmentstore.storage.metadata.ReadIndexBlockMetadata;
 import io.pravega.segmentstore.storage.metadata.SegmentMetadata;
 import io.pravega.segmentstore.storage.metadata.StorageMetadataAlreadyExistsException;
 import io.pravega.segmentstore.storage.metadata.StorageMetadataException;
 import io.pravega.segmentstore.storage.metadata.StorageMetadataWritesFencedOutException;
 import io.pravega.shared.NameUtils;
+import lombok.AccessLevel;
 import lombok.Getter;
+import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 
@@ -64,6 +68,11 @@ import java.util.stream.Collectors;
 @Slf4j
 @Beta
 public class ChunkedSegmentStorage implements Storage {
+    /**
+     * Suffix used to build the names of the persistent read index entries of a segment.
+     */
+    private static final String READ_INDEX_BLOCK_SUFFIX = "#index.";
+
     /**
      * Configuration options for this ChunkedSegmentStorage instance.
      */
@@ -114,8 +123,11 @@ public class ChunkedSegmentStorage implements Storage {
     private SystemJournal systemJournal;
 
     /**
-     * {@link ReadIndexCache} that has index of chunks by start offset
+     * {@link ReadIndexCache} that has index of chunks by start offset.
+     * This is backed by the sparse persistent read index made of {@link ReadIndexBlockMetadata} records, which is consulted
+     * when the segment has enough chunks to have entries in it.
      */
+    @Getter(AccessLevel.PACKAGE)
     private final ReadIndexCache readIndexCache;
 
     /**
@@ -123,6 +135,18 @@ public class ChunkedSegmentStorage implements Storage {
      */
     private final List<String> garbageChunks = new ArrayList<String>();
 
+    /**
+     * {@link GarbageCollector} that deletes garbage chunks in the background. Null if garbage collection is disabled
+     * (see {@link ChunkedSegmentStorageConfig#isGarbageCollectionEnabled()}) or if {@link #bootstrap} has not been called.
+     */
+    private GarbageCollector garbageCollector;
+
+    /**
+     * {@link CachingChunkStorage} that caches data read from chunks on local disk, if {@link #chunkStorage} is one (see
+     * {@link CachingChunkStorage#wrapIfEnabled}). It is closed along with this instance. Null otherwise.
+     */
+    private final CachingChunkStorage localCache;
+
     /**
      * Prefix string to use for logging.
      */
@@ -138,6 +162,7 @@ public class ChunkedSegmentStorage implements Storage {
     public ChunkedSegmentStorage(ChunkStorage chunkStorage, Executor executor, ChunkedSegmentStorageConfig config) {
         this.config = Preconditions.checkNotNull(config, "config");
         this.chunkStorage = Preconditions.checkNotNull(chunkStorage, "chunkStorage");
+        this.localCache = chunkStorage instanceof CachingChunkStorage ? (CachingChunkStorage) chunkStorage : null;
         this.executor = Preconditions.checkNotNull(executor, "executor");
         this.readIndexCache = new ReadIndexCache(config.getMaxIndexedSegments(),
                 config.getMaxIndexedChunksPerSegment(),
@@ -156,6 +181,7 @@ public class ChunkedSegmentStorage implements Storage {
     public ChunkedSegmentStorage(ChunkStorage chunkStorage, ChunkMetadataStore metadataStore, Executor executor, ChunkedSegmentStorageConfig config) {
         this.config = Preconditions.checkNotNull(config, "config");
         this.chunkStorage = Preconditions.checkNotNull(chunkStorage, "chunkStorage");
+        this.localCache = chunkStorage instanceof CachingChunkStorage ? (CachingChunkStorage) chunkStorage : null;
         this.metadataStore = Preconditions.checkNotNull(metadataStore, "metadataStore");
         this.executor = Preconditions.checkNotNull(executor, "executor");
         this.readIndexCache = new ReadIndexCache(config.getMaxIndexedSegments(),
@@ -184,9 +210,23 @@ public class ChunkedSegmentStorage implements Storage {
         // Now bootstrap
         log.info("{} STORAGE BOOT: Started.", logPrefix);
         this.systemJournal.bootstrap();
+        initializeGarbageCollector();
         log.info("{} STORAGE BOOT: Ended.", logPrefix);
     }
 
+    /**
+     * Creates and initializes the {@link GarbageCollector}, if garbage collection is enabled. This must be done after the
+     * container id and the metadata store are known, which is why it is done during bootstrap.
+     *
+     * @throws Exception If the persisted garbage queue could not be loaded.
+     */
+    private void initializeGarbageCollector() throws Exception {
+        if (this.config.isGarbageCollectionEnabled() && null == this.garbageCollector) {
+            this.garbageCollector = new GarbageCollector(this.containerId, this.chunkStorage, this.metadataStore, this.config, this.executor);
+            this.garbageCollector.initialize();
+        }
+    }
+
     @Override
     public void initialize(long containerEpoch) {
         this.epoch = containerEpoch;
@@ -323,29 +363,59 @@ public class ChunkedSegmentStorage implements Storage {
     @Override
     public CompletableFuture<Void> write(SegmentHandle handle, long offset, InputStream data, int length, Duration timeout) {
         checkInitialized();
-        return execute(() -> {
-            long traceId = LoggerHelpers.traceEnter(log, "write", handle, offset, length);
-            Timer timer = new Timer();
+        return executeAsync(new WriteOperation(handle, offset, data, length));
+    }
+
+    /**
+     * Implements {@link #write}. The metadata is retrieved and updated on the executor, while data is written to the chunks
+     * using the asynchronous {@link ChunkStorage} API, so that no thread is blocked while waiting for the chunks to be written.
+     */
+    private class WriteOperation implements Callable<CompletableFuture<Void>> {
+        private final SegmentHandle handle;
+        private final long offset;
+        private final InputStream data;
+        private final int length;
+        private final ArrayList<SystemJournal.SystemJournalRecord> systemLogRecords = new ArrayList<>();
+        private final List<ChunkNameOffsetPair> newReadIndexEntries = new ArrayList<ChunkNameOffsetPair>();
+        private final Timer timer = new Timer();
+        private long traceId;
+        private String streamSegmentName;
+        private MetadataTransaction txn;
+        private SegmentMetadata segmentMetadata;
+        private ChunkMetadata lastChunkMetadata;
+        private boolean isSystemSegment;
+        private boolean isFirstWriteAfterFailover;
+        private boolean didSegmentLayoutChange;
+        private boolean isCommited;
+        private int chunksAddedCount;
+        private int bytesRemaining;
+        private long currentOffset;
+
+        WriteOperation(SegmentHandle handle, long offset, InputStream data, int length) {
+            this.handle = handle;
+            this.offset = offset;
+            this.data = data;
+            this.length = length;
+        }
+
+        @Override
+        public CompletableFuture<Void> call() throws Exception {
+            traceId = LoggerHelpers.traceEnter(log, "write", handle, offset, length);
 
             // Validate preconditions.
             Preconditions.checkArgument(null != handle, "handle");
             Preconditions.checkArgument(null != data, "data");
-            String streamSegmentName = handle.getSegmentName();
+            streamSegmentName = handle.getSegmentName();
             Preconditions.checkArgument(null != streamSegmentName, "streamSegmentName");
             Preconditions.checkArgument(!handle.isReadOnly(), "handle");
             Preconditions.checkArgument(offset >= 0, "offset");
             Preconditions.checkArgument(length >= 0, "length");
 
-            ArrayList<SystemJournal.SystemJournalRecord> systemLogRecords = new ArrayList<>();
-            List<ChunkNameOffsetPair> newReadIndexEntries = new ArrayList<ChunkNameOffsetPair>();
-            int chunksAddedCount = 0;
-            boolean isCommited = false;
-
-            try (MetadataTransaction txn = metadataStore.beginTransaction()) {
-                boolean didSegmentLayoutChange = false;
-
+            txn = metadataStore.beginTransaction();
+            CompletableFuture<Void> result;
+            try {
                 // Retrieve metadata.
-                SegmentMetadata segmentMetadata = (SegmentMetadata) txn.get(streamSegmentName);
+                segmentMetadata = (SegmentMetadata) txn.get(streamSegmentName);
 
                 // Validate preconditions.
                 checkSegmentExists(streamSegmentName, segmentMetadata);
@@ -358,64 +428,75 @@ public class ChunkedSegmentStorage implements Storage {
                     throw new BadOffsetException(streamSegmentName, segmentMetadata.getLength(), offset);
                 }
 
-                boolean isSystemSegment = isStorageSystemSegment(segmentMetadata);
+                isSystemSegment = isStorageSystemSegment(segmentMetadata);
 
                 // Check if this is a first write after ownership changed.
-                boolean isFirstWriteAfterFailover = segmentMetadata.isOwnershipChanged();
-
-                ChunkMetadata lastChunkMetadata = null;
-                ChunkHandle chunkHandle = null;
-                int bytesRemaining = length;
-                long currentOffset = offset;
+                isFirstWriteAfterFailover = segmentMetadata.isOwnershipChanged();
+                bytesRemaining = length;
+                currentOffset = offset;
 
                 // Get the last chunk segmentMetadata for the segment.
                 if (null != segmentMetadata.getLastChunk()) {
                     lastChunkMetadata = (ChunkMetadata) txn.get(segmentMetadata.getLastChunk());
                 }
 
-                while (bytesRemaining > 0) {
-                    // Check if new chunk needs to be added.
-                    // This could be either because there are no existing chunks or last chunk has reached max rolling length.
-                    if (null == lastChunkMetadata
-                            || (lastChunkMetadata.getLength() >= segmentMetadata.getMaxRollinglength())
-                            || isFirstWriteAfterFailover
-                            || !shouldAppend()) {
-
-                        // Create new chunk
-                        String newChunkName = getNewChunkName(streamSegmentName,
-                                segmentMetadata.getLength());
-                        chunkHandle = chunkStorage.create(newChunkName);
-
-                        String previousLastChunkName = lastChunkMetadata == null ? null : lastChunkMetadata.getName();
-
-                        // update first and last chunks.
-                        lastChunkMetadata = updateMetadataForChunkAddition(txn,
-                                segmentMetadata,
-                                newChunkName,
-                                isFirstWriteAfterFailover,
-                                lastChunkMetadata);
-
-                        // Record the creation of new chunk.
-                        if (isSystemSegment) {
-                            addSystemLogRecord(systemLogRecords,
-                                    streamSegmentName,
-                                    segmentMetadata.getLength(),
-                                    previousLastChunkName,
-                                    newChunkName);
-                            txn.markPinned(lastChunkMetadata);
-                        }
-                        // Update read index.
-                        newReadIndexEntries.add(new ChunkNameOffsetPair(segmentMetadata.getLength(), newChunkName));
+                result = Futures.loop(() -> bytesRemaining > 0, this::writeNext, executor)
+                                .thenRunAsync(this::commit, executor);
+            } catch (Exception ex) {
+                result = Futures.failedFuture(ex);
+            }
+
+            return result.handleAsync((r, ex) -> {
+                try {
+                    txn.close();
+                } catch (Exception closeEx) {
+                    if (ex == null) {
+                        ex = closeEx;
+                    }
+                } finally {
+                    if (!isCommited && chunksAddedCount > 0) {
+                        // Collect garbage.
+                        collectGarbage(newReadIndexEntries.stream().map(entry -> entry.getChunkName()).collect(Collectors.toList()));
+                    }
+                }
 
-                        isFirstWriteAfterFailover = false;
-                        didSegmentLayoutChange = true;
-                        chunksAddedCount++;
+                if (ex != null) {
+                    ex = Exceptions.unwrap(ex);
+                    if (ex instanceof StorageMetadataWritesFencedOutException) {
+                        ex = new StorageNotPrimaryException(streamSegmentName, ex);
+                    }
+                    throw new CompletionException(ex);
+                }
+                return null;
+            }, executor);
+        }
 
-                        log.debug("{} write - New chunk added - segment={}, chunk={}, offset={}.",
-                                logPrefix, streamSegmentName, newChunkName, segmentMetadata.getLength());
-                    } else {
-                        // No new chunk needed just write data to existing chunk.
-                        chunkHandle = chunkStorage.openWrite(lastChunkMetadata.getName());
+        /**
+         * Writes as much of the remaining data as fits into the last chunk, adding a new chunk first if needed.
+         */
+        private CompletableFuture<Void> writeNext() {
+            // Check if new chunk needs to be added.
+            // This could be either because there are no existing chunks or last chunk has reached max rolling length.
+            final boolean addNewChunk = null == lastChunkMetadata
+                    || (lastChunkMetadata.getLength() >= segmentMetadata.getMaxRollinglength())
+                    || isFirstWriteAfterFailover
+                    || !shouldAppend();
+            final String newChunkName;
+            CompletableFuture<ChunkHandle> chunkHandleFuture;
+            if (addNewChunk) {
+                // Create new chunk
+                newChunkName = getNewChunkName(streamSegmentName, segmentMetadata.getLength());
+                chunkHandleFuture = chunkStorage.createAsync(newChunkName);
+            } else {
+                // No new chunk needed just write data to existing chunk.
+                newChunkName = null;
+                chunkHandleFuture = chunkStorage.openWriteAsync(lastChunkMetadata.getName());
+            }
+
+            return chunkHandleFuture.thenComposeAsync(chunkHandle -> {
+                try {
+                    if (addNewChunk) {
+                        addChunk(newChunkName);
                     }
 
                     // Calculate the data that needs to be written.
@@ -423,54 +504,88 @@ public class ChunkedSegmentStorage implements Storage {
                     int writeSize = (int) Math.min(bytesRemaining, segmentMetadata.getMaxRollinglength() - offsetToWriteAt);
 
                     // Write data to last chunk.
-                    int bytesWritten = writeToChunk(txn,
+                    return writeToChunk(txn,
                             segmentMetadata,
                             offset,
                             data,
                             chunkHandle,
                             lastChunkMetadata,
                             offsetToWriteAt,
-                            writeSize);
-
-                    // Update the counts
-                    bytesRemaining -= bytesWritten;
-                    currentOffset += bytesWritten;
+                            writeSize)
+                            .thenAccept(bytesWritten -> {
+                                // Update the counts
+                                bytesRemaining -= bytesWritten;
+                                currentOffset += bytesWritten;
+                            });
+                } catch (Exception ex) {
+                    return Futures.failedFuture(ex);
                 }
+            }, executor);
+        }
 
-                // Check invariants.
-                segmentMetadata.checkInvariants();
-
-                // commit all system log records if required.
-                if (isSystemSegment && chunksAddedCount > 0) {
-                    // commit all system log records.
-                    Preconditions.checkState(chunksAddedCount == systemLogRecords.size());
-                    txn.setExternalCommitStep(() -> {
-                        systemJournal.commitRecords(systemLogRecords);
-                        return null;
-                    });
-                }
+        /**
+         * Updates the metadata for a newly created chunk.
+         */
+        private void addChunk(String newChunkName) throws StorageMetadataException {
+            String previousLastChunkName = lastChunkMetadata == null ? null : lastChunkMetadata.getName();
+
+            // update first and last chunks.
+            lastChunkMetadata = updateMetadataForChunkAddition(txn,
+                    segmentMetadata,
+                    newChunkName,
+                    isFirstWriteAfterFailover,
+                    lastChunkMetadata);
+
+            // Record the creation of new chunk.
+            if (isSystemSegment) {
+                addSystemLogRecord(systemLogRecords,
+                        streamSegmentName,
+                        segmentMetadata.getLength(),
+                        previousLastChunkName,
+                        newChunkName);
+                txn.markPinned(lastChunkMetadata);
+            }
+            // Update read index.
+            newReadIndexEntries.add(new ChunkNameOffsetPair(segmentMetadata.getLength(), newChunkName));
 
-                // if layout did not change then commit with lazyWrite.
-                txn.commit(!didSegmentLayoutChange);
-                isCommited = true;
+            isFirstWriteAfterFailover = false;
+            didSegmentLayoutChange = true;
+            chunksAddedCount++;
 
-                // Post commit actions.
-                // Update the read index.
-                readIndexCache.addIndexEntries(streamSegmentName, newReadIndexEntries);
+            log.debug("{} write - New chunk added - segment={}, chunk={}, offset={}.",
+                    logPrefix, streamSegmentName, newChunkName, segmentMetadata.getLength());
+        }
 
-                Duration elapsed = timer.getElapsed();
-                log.debug("{} write - segment={}, offset={}, length={}, latency={}.", logPrefix, handle.getSegmentName(), offset, length, elapsed.toMillis());
-                LoggerHelpers.traceLeave(log, "write", traceId, handle, offset);
-                return null;
-            } catch (StorageMetadataWritesFencedOutException ex) {
-                throw new StorageNotPrimaryException(streamSegmentName, ex);
-            } finally {
-                if (!isCommited && chunksAddedCount > 0) {
-                    // Collect garbage.
-                    collectGarbage(newReadIndexEntries.stream().map(entry -> entry.getChunkName()).collect(Collectors.toList()));
-                }
+        /**
+         * Commits the metadata changes once all the data has been written.
+         */
+        @SneakyThrows(StorageMetadataException.class)
+        private void commit() {
+            // Check invariants.
+            segmentMetadata.checkInvariants();
+
+            // commit all system log records if required.
+            if (isSystemSegment && chunksAddedCount > 0) {
+                // commit all system log records.
+                Preconditions.checkState(chunksAddedCount == systemLogRecords.size());
+                txn.setExternalCommitStep(() -> {
+                    systemJournal.commitRecords(systemLogRecords);
+                    return null;
+                });
             }
-        });
+
+            // if layout did not change then commit with lazyWrite.
+            txn.commit(!didSegmentLayoutChange);
+            isCommited = true;
+
+            // Post commit actions.
+            // Update the read index.
+            readIndexCache.addIndexEntries(streamSegmentName, newReadIndexEntries);
+
+            Duration elapsed = timer.getElapsed();
+            log.debug("{} write - segment={}, offset={}, length={}, latency={}.", logPrefix, handle.getSegmentName(), offset, length, elapsed.toMillis());
+            LoggerHelpers.traceLeave(log, "write", traceId, handle, offset);
+        }
     }
 
     /**
@@ -500,6 +615,7 @@ public class ChunkedSegmentStorage implements Storage {
             log.debug("{} write - First write after failover - segment={}.", logPrefix, segmentMetadata.getName());
         }
         segmentMetadata.incrementChunkCount();
+        updateReadIndexForChunkAddition(txn, segmentMetadata, newChunkName, segmentMetadata.getLastChunkStartOffset());
 
         // Update the transaction.
         txn.update(newChunkMetadata);
@@ -510,39 +626,51 @@ public class ChunkedSegmentStorage implements Storage {
     /**
      * Write to chunk.
      */
-    private int writeToChunk(MetadataTransaction txn,
-                             SegmentMetadata segmentMetadata,
-                             long offset,
-                             InputStream data,
-                             ChunkHandle chunkHandle,
-                             ChunkMetadata chunkWrittenMetadata,
-                             long offsetToWriteAt,
-                             int bytesCount) throws IOException, StorageMetadataException, BadOffsetException {
-        int bytesWritten;
+    private CompletableFuture<Integer> writeToChunk(MetadataTransaction txn,
+                                                    SegmentMetadata segmentMetadata,
+                                                    long offset,
+                                                    InputStream data,
+                                                    ChunkHandle chunkHandle,
+                                                    ChunkMetadata chunkWrittenMetadata,
+                                                    long offsetToWriteAt,
+                                                    int bytesCount) {
         Preconditions.checkState(0 != bytesCount, "Attempt to write zero bytes");
-        try {
-
-            // Finally write the data.
-            try (BoundedInputStream bis = new BoundedInputStream(data, bytesCount)) {
-                bytesWritten = chunkStorage.write(chunkHandle, offsetToWriteAt, bytesCount, bis);
-            }
 
-            // Update the metadata for segment and chunk.
-            Preconditions.checkState(bytesWritten >= 0);
-            segmentMetadata.setLength(segmentMetadata.getLength() + bytesWritten);
-            chunkWrittenMetadata.setLength(chunkWrittenMetadata.getLength() + bytesWritten);
-            txn.update(chunkWrittenMetadata);
-            txn.update(segmentMetadata);
-        } catch (IllegalArgumentException e) {
-            try {
-                throw new BadOffsetException(segmentMetadata.getName(), chunkStorage.getInfo(chunkHandle.getChunkName()).getLength(), offset);
-            } catch (ChunkStorageException cse) {
-                log.error("{} write - Error while retrieving ChunkInfo for {}.", logPrefix, chunkHandle.getChunkName());
-                // The exact expected offset for the  operation does not matter, the StorageWriter will enter reconciliation loop anyway.
-                throw new BadOffsetException(segmentMetadata.getName(), offset, offset);
-            }
-        }
-        return bytesWritten;
+        // Finally write the data.
+        BoundedInputStream bis = new BoundedInputStream(data, bytesCount);
+        CompletableFuture<Integer> writeFuture = chunkStorage.writeAsync(chunkHandle, offsetToWriteAt, bytesCount, bis)
+                .thenApply(bytesWritten -> {
+                    try {
+                        bis.close();
+                    } catch (IOException ex) {
+                        throw new CompletionException(ex);
+                    }
+                    return bytesWritten;
+                });
+        return Futures.exceptionallyComposeExpecting(writeFuture,
+                ex -> ex instanceof IllegalArgumentException,
+                () -> chunkStorage.getInfoAsync(chunkHandle.getChunkName())
+                        .handle((chunkInfo, infoEx) -> {
+                            if (infoEx != null) {
+                                log.error("{} write - Error while retrieving ChunkInfo for {}.", logPrefix, chunkHandle.getChunkName());
+                                // The exact expected offset for the  operation does not matter, the StorageWriter will enter reconciliation loop anyway.
+                                throw new CompletionException(new BadOffsetException(segmentMetadata.getName(), offset, offset));
+                            }
+                            throw new CompletionException(new BadOffsetException(segmentMetadata.getName(), chunkInfo.getLength(), offset));
+                        }))
+                .thenApplyAsync(bytesWritten -> {
+                    // Update the metadata for segment and chunk.
+                    Preconditions.checkState(bytesWritten >= 0);
+                    segmentMetadata.setLength(segmentMetadata.getLength() + bytesWritten);
+                    chunkWrittenMetadata.setLength(chunkWrittenMetadata.getLength() + bytesWritten);
+                    try {
+                        txn.update(chunkWrittenMetadata);
+                        txn.update(segmentMetadata);
+                    } catch (StorageMetadataException ex) {
+                        throw new CompletionException(ex);
+                    }
+                    return bytesWritten;
+                }, executor);
     }
 
     /**
@@ -574,12 +702,47 @@ public class ChunkedSegmentStorage implements Storage {
                         .build());
     }
 
+    /**
+     * Commits the given transaction, which unlinks the given chunks from their segment, and deletes the chunks.
+     * If garbage collection is enabled, the chunks are added to the persisted queue of the {@link GarbageCollector} as
+     * part of the same transaction, so that they are not leaked if the Segment Store crashes before they are deleted.
+     *
+     * @param txn            Active {@link MetadataTransaction}.
+     * @param chunksToDelete List of chunks to delete.
+     * @throws Exception In case of any errors.
+     */
+    private void commitAndCollectGarbage(MetadataTransaction txn, Collection<String> chunksToDelete) throws Exception {
+        if (null == this.garbageCollector || chunksToDelete.isEmpty()) {
+            txn.commit();
+            collectGarbage(chunksToDelete);
+            return;
+        }
+
+        long pageNumber = this.garbageCollector.addChunks(txn, chunksToDelete);
+        try {
+            txn.commit();
+        } catch (Exception ex) {
+            this.garbageCollector.pageAborted(pageNumber);
+            throw ex;
+        }
+
+        this.garbageCollector.pageCommitted(pageNumber, chunksToDelete);
+    }
+
     /**
      * Delete the garbage chunks.
+     * If garbage collection is enabled, the chunks are handed over to the {@link GarbageCollector}, which deletes them in
+     * the background (see {@link #commitAndCollectGarbage} for chunks that are unlinked from a segment). Otherwise they
+     * are deleted inline.
      *
      * @param chunksTodelete List of chunks to delete.
      */
     private void collectGarbage(Collection<String> chunksTodelete) {
+        if (null != this.garbageCollector) {
+            this.garbageCollector.addChunks(chunksTodelete);
+            return;
+        }
+
         for (val chunkTodelete : chunksTodelete) {
             try {
                 chunkStorage.delete(chunkStorage.openWrite(chunkTodelete));
@@ -673,6 +836,10 @@ public class ChunkedSegmentStorage implements Storage {
                 ChunkMetadata targetLastChunk = (ChunkMetadata) txn.get(targetSegmentMetadata.getLastChunk());
                 ChunkMetadata sourceFirstChunk = (ChunkMetadata) txn.get(sourceSegmentMetadata.getFirstChunk());
 
+                // Remember where the data of the source segment starts, so that the read index can be updated afterwards.
+                long oldTargetLength = targetSegmentMetadata.getLength();
+                long oldTargetLastChunkStartOffset = targetSegmentMetadata.getLastChunkStartOffset();
+
                 if (targetLastChunk != null) {
                     targetLastChunk.setNextChunk(sourceFirstChunk.getName());
                     txn.update(targetLastChunk);
@@ -701,13 +868,15 @@ public class ChunkedSegmentStorage implements Storage {
                     defrag(txn, targetSegmentMetadata, targetLastChunk.getName(), null, chunksToDelete);
                 }
 
-                targetSegmentMetadata.checkInvariants();
+                // Update the persistent read index. This is done after defrag, since defrag may merge the chunks.
+                moveReadIndexBlockEntries(txn, sourceSegmentMetadata, targetSegmentMetadata, oldTargetLength,
+                        null == targetLastChunk ? null : targetLastChunk.getName(), oldTargetLastChunkStartOffset);
+                txn.update(targetSegmentMetadata);
 
-                // Finally commit transaction.
-                txn.commit();
+                targetSegmentMetadata.checkInvariants();
 
-                // Collect garbage.
-                collectGarbage(chunksToDelete);
+                // Finally commit transaction and collect garbage.
+                commitAndCollectGarbage(txn, chunksToDelete);
 
                 // Update the read index.
                 readIndexCache.remove(sourceSegment);
@@ -954,13 +1123,11 @@ public class ChunkedSegmentStorage implements Storage {
                     currentChunkName = currentMetadata.getNextChunk();
                     txn.delete(currentMetadata.getName());
                 }
+                deleteReadIndexBlockEntries(txn, segmentMetadata);
 
-                // Commit.
+                // Commit and collect garbage.
                 txn.delete(streamSegmentName);
-                txn.commit();
-
-                // Collect garbage.
-                collectGarbage(chunksToDelete);
+                commitAndCollectGarbage(txn, chunksToDelete);
 
                 // Update the read index.
                 readIndexCache.remove(streamSegmentName);
@@ -1037,6 +1204,9 @@ public class ChunkedSegmentStorage implements Storage {
                         segmentMetadata.setLastChunk(null);
                     }
                 }
+                if (!chunksToDelete.isEmpty()) {
+                    deleteTruncatedReadIndexBlockEntries(txn, segmentMetadata);
+                }
                 txn.update(segmentMetadata);
 
                 // Check invariants.
@@ -1058,10 +1228,15 @@ public class ChunkedSegmentStorage implements Storage {
                     });
                 }
 
-                // Finally commit.
-                txn.commit();
-
-                collectGarbage(chunksToDelete);
+                // Finally commit and collect garbage.
+                if (isStorageSystemSegment(segmentMetadata)) {
+                    // The metadata of storage system segments is pinned and never written to the metadata store, so
+                    // nothing else must be written as part of their truncation either.
+                    txn.commit();
+                    collectGarbage(chunksToDelete);
+                } else {
+                    commitAndCollectGarbage(txn, chunksToDelete);
+                }
 
                 // Update the read index by removing all entries below truncate offset.
                 readIndexCache.truncateReadIndex(streamSegmentName, segmentMetadata.getStartOffset());
@@ -1115,7 +1290,7 @@ public class ChunkedSegmentStorage implements Storage {
     @Override
     public CompletableFuture<Integer> read(SegmentHandle handle, long offset, byte[] buffer, int bufferOffset, int length, Duration timeout) {
         checkInitialized();
-        return execute(() -> {
+        return executeAsync(() -> {
             long traceId = LoggerHelpers.traceEnter(log, "read", handle, offset, length);
             Timer timer = new Timer();
 
@@ -1149,7 +1324,7 @@ public class ChunkedSegmentStorage implements Storage {
                 }
 
                 if (length == 0) {
-                    return 0;
+                    return CompletableFuture.completedFuture(0);
                 }
 
                 String currentChunkName = segmentMetadata.getFirstChunk();
@@ -1160,7 +1335,7 @@ public class ChunkedSegmentStorage implements Storage {
                 int bytesRemaining = length;
                 int currentBufferOffset = bufferOffset;
                 long currentOffset = offset;
-                int totalBytesRead = 0;
+                val chunkReads = new ArrayList<CompletableFuture<Integer>>();
 
                 // Find the first chunk that contains the data.
                 long startOffsetForCurrentChunk = segmentMetadata.getFirstChunkStartOffset();
@@ -1168,9 +1343,24 @@ public class ChunkedSegmentStorage implements Storage {
                 int cntScanned = 0;
                 // Find the name of the chunk in the cached read index that is floor to required offset.
                 val floorEntry = readIndexCache.findFloor(streamSegmentName, offset);
+                boolean floorContainsOffset = false;
                 if (null != floorEntry) {
                     startOffsetForCurrentChunk = floorEntry.getOffset();
                     currentChunkName = floorEntry.getChunkName();
+                    val floorChunk = (ChunkMetadata) txn.get(currentChunkName);
+                    floorContainsOffset = null != floorChunk && startOffsetForCurrentChunk + floorChunk.getLength() > offset;
+                }
+
+                // Unless the cached chunk already contains the offset (the common case for tail and sequential reads),
+                // jump directly to the first chunk of the block that contains the offset if the persistent read index
+                // has an entry after the cached one.
+                if (!floorContainsOffset) {
+                    val blockEntry = findReadIndexBlockEntry(txn, segmentMetadata, offset, startOffsetForCurrentChunk);
+                    if (null != blockEntry) {
+                        startOffsetForCurrentChunk = blockEntry.getStartOffset();
+                        currentChunkName = blockEntry.getChunkName();
+                        readIndexCache.addIndexEntry(streamSegmentName, currentChunkName, startOffsetForCurrentChunk);
+                    }
                 }
 
                 // Navigate to the chunk that contains the first byte of requested data.
@@ -1196,7 +1386,7 @@ public class ChunkedSegmentStorage implements Storage {
                 log.debug("{} read - chunk lookup - segment={}, offset={}, scanned={}, latency={}.",
                         logPrefix, handle.getSegmentName(), offset, cntScanned, timer1.getElapsed().toMillis());
 
-                // Now read.
+                // Now read. The reads are issued to the chunks concurrently and we do not wait for them while holding a thread.
                 while (bytesRemaining > 0 && null != currentChunkName) {
                     int bytesToRead = Math.min(bytesRemaining, Math.toIntExact(chunkToReadFrom.getLength() - (currentOffset - startOffsetForCurrentChunk)));
                     //assert bytesToRead != 0;
@@ -1212,24 +1402,49 @@ public class ChunkedSegmentStorage implements Storage {
                     } else {
                         Preconditions.checkState(bytesToRead != 0, "bytesToRead is 0");
                         // Read data from the chunk.
-                        ChunkHandle chunkHandle = chunkStorage.openRead(chunkToReadFrom.getName());
-                        int bytesRead = chunkStorage.read(chunkHandle, currentOffset - startOffsetForCurrentChunk, bytesToRead, buffer, currentBufferOffset);
-
-                        bytesRemaining -= bytesRead;
-                        currentOffset += bytesRead;
-                        currentBufferOffset += bytesRead;
-                        totalBytesRead += bytesRead;
+                        String chunkName = chunkToReadFrom.getName();
+                        long fromOffset = currentOffset - startOffsetForCurrentChunk;
+                        int chunkBufferOffset = currentBufferOffset;
+                        chunkReads.add(chunkStorage.openReadAsync(chunkName)
+                                .thenCompose(chunkHandle -> readFromChunk(chunkHandle, fromOffset, bytesToRead, buffer, chunkBufferOffset)));
+
+                        bytesRemaining -= bytesToRead;
+                        currentOffset += bytesToRead;
+                        currentBufferOffset += bytesToRead;
                     }
                 }
 
-                Duration elapsed = timer.getElapsed();
-                log.debug("{} read - segment={}, offset={}, bytesRead={}, latency={}.", logPrefix, handle.getSegmentName(), offset, totalBytesRead, elapsed.toMillis());
-                LoggerHelpers.traceLeave(log, "read", traceId, handle, offset, totalBytesRead);
-                return totalBytesRead;
+                return Futures.allOfWithResults(chunkReads)
+                        .thenApply(chunkBytesRead -> {
+                            int totalBytesRead = chunkBytesRead.stream().mapToInt(Integer::intValue).sum();
+                            Duration elapsed = timer.getElapsed();
+                            log.debug("{} read - segment={}, offset={}, bytesRead={}, latency={}.", logPrefix, handle.getSegmentName(), offset, totalBytesRead, elapsed.toMillis());
+                            LoggerHelpers.traceLeave(log, "read", traceId, handle, offset, totalBytesRead);
+                            return totalBytesRead;
+                        });
             }
         });
     }
 
+    /**
+     * Reads exactly the given number of bytes from the given chunk, issuing additional reads if the {@link ChunkStorage}
+     * returns fewer bytes than requested.
+     */
+    private CompletableFuture<Integer> readFromChunk(ChunkHandle chunkHandle, long fromOffset, int length, byte[] buffer, int bufferOffset) {
+        return chunkStorage.readAsync(chunkHandle, fromOffset, length, buffer, bufferOffset)
+                .thenCompose(bytesRead -> {
+                    if (bytesRead >= length) {
+                        return CompletableFuture.completedFuture(bytesRead);
+                    } else if (bytesRead <= 0) {
+                        throw new CompletionException(new ChunkStorageException(chunkHandle.getChunkName(),
+                                String.format("read - no data available at offset %d.", fromOffset)));
+                    }
+
+                    return readFromChunk(chunkHandle, fromOffset + bytesRead, length - bytesRead, buffer, bufferOffset + bytesRead)
+                            .thenApply(remainingBytesRead -> bytesRead + remainingBytesRead);
+                });
+    }
+
     @Override
     public CompletableFuture<SegmentProperties> getStreamSegmentInfo(String streamSegmentName, Duration timeout) {
         checkInitialized();
@@ -1273,6 +1488,18 @@ public class ChunkedSegmentStorage implements Storage {
 
     @Override
     public void close() {
+        if (null != this.garbageCollector) {
+            this.garbageCollector.close();
+        }
+
+        try {
+            if (null != this.localCache) {
+                this.localCache.close();
+            }
+        } catch (Exception e) {
+            log.warn("Error during close", e);
+        }
+
         try {
             if (null != this.metadataStore) {
                 this.metadataStore.close();
@@ -1302,10 +1529,198 @@ public class ChunkedSegmentStorage implements Storage {
         }, this.executor);
     }
 
-    private String getNewChunkName(String segmentName, long offset) throws Exception {
+    /**
+     * Executes the given asynchronous operation on the executor and returns its result, while translating any Exceptions
+     * bubbling out of it into StreamSegmentExceptions.
+     *
+     * @param operation The function to execute. This returns a CompletableFuture which will be composed with the result.
+     * @param <R>       Return type of the operation.
+     * @return CompletableFuture<R> of the return type of the operation.
+     */
+    private <R> CompletableFuture<R> executeAsync(Callable<CompletableFuture<R>> operation) {
+        return execute(operation).thenCompose(future -> future);
+    }
+
+    private String getNewChunkName(String segmentName, long offset) {
         return NameUtils.getSegmentChunkName(segmentName, epoch, offset);
     }
 
+    /**
+     * Gets the name of the entry of the persistent read index of the given segment for the given block.
+     */
+    static String getReadIndexBlockName(String segmentName, int blockNumber) {
+        return segmentName + READ_INDEX_BLOCK_SUFFIX + blockNumber;
+    }
+
+    /**
+     * Updates the persistent read index of the given segment for a chunk that was just added to it. Once the last block
+     * has {@link ChunkedSegmentStorageConfig#getIndexBlockChunkCount()} chunks, the new chunk starts a new block and is
+     * recorded in a new entry.
+     * Storage system segments are not indexed, since their layout is recorded by the {@link SystemJournal}.
+     *
+     * @param txn              Active {@link MetadataTransaction}.
+     * @param segmentMetadata  {@link SegmentMetadata} for the segment.
+     * @param chunkName        Name of the chunk that was added.
+     * @param chunkStartOffset Start offset of the chunk in the segment.
+     * @throws StorageMetadataException In case of any chunk metadata store related errors.
+     */
+    private void updateReadIndexForChunkAddition(MetadataTransaction txn, SegmentMetadata segmentMetadata,
+                                                 String chunkName, long chunkStartOffset) throws StorageMetadataException {
+        if (segmentMetadata.isStorageSystemSegment()) {
+            return;
+        }
+
+        if (segmentMetadata.getLastIndexBlockChunkCount() < config.getIndexBlockChunkCount()) {
+            segmentMetadata.setLastIndexBlockChunkCount(segmentMetadata.getLastIndexBlockChunkCount() + 1);
+        } else {
+            addReadIndexBlockEntry(txn, segmentMetadata, chunkName, chunkStartOffset);
+        }
+    }
+
+    /**
+     * Adds a new entry at the end of the persistent read index of the given segment.
+     */
+    private void addReadIndexBlockEntry(MetadataTransaction txn, SegmentMetadata segmentMetadata,
+                                        String chunkName, long chunkStartOffset) throws StorageMetadataException {
+        txn.update(ReadIndexBlockMetadata.builder()
+                .name(getReadIndexBlockName(segmentMetadata.getName(), segmentMetadata.getNextIndexBlock()))
+                .chunkName(chunkName)
+                .startOffset(chunkStartOffset)
+                .build());
+        segmentMetadata.setNextIndexBlock(segmentMetadata.getNextIndexBlock() + 1);
+        segmentMetadata.setLastIndexBlockChunkCount(1);
+    }
+
+    /**
+     * Moves the entries of the persistent read index of the source segment of a concat to the end of the persistent read
+     * index of the target segment. Entries for chunks that were merged into other chunks by defrag are dropped.
+     * If the last block of the target and the first block of the source together would have more chunks than a block
+     * may have, an entry is first added for the first chunk of the source that was not merged, so that a lookup never
+     * has to walk more than one block.
+     *
+     * @param txn                     Active {@link MetadataTransaction}.
+     * @param sourceSegmentMetadata   {@link SegmentMetadata} for the source segment.
+     * @param targetSegmentMetadata   {@link SegmentMetadata} for the target segment.
+     * @param offset                  Offset in the target segment at which the source segment was appended.
+     * @param oldTargetLastChunk      Name of the last chunk of the target segment before the concat, or null if it had none.
+     * @param oldTargetLastChunkStart Start offset of that chunk in the target segment.
+     * @throws StorageMetadataException In case of any chunk metadata store related errors.
+     */
+    private void moveReadIndexBlockEntries(MetadataTransaction txn, SegmentMetadata sourceSegmentMetadata,
+                                           SegmentMetadata targetSegmentMetadata, long offset,
+                                           String oldTargetLastChunk, long oldTargetLastChunkStart) throws StorageMetadataException {
+        // The chunks of the source that come before its first entry. If it has entries, that is at most a whole block.
+        boolean hasSourceEntries = sourceSegmentMetadata.getFirstIndexBlock() < sourceSegmentMetadata.getNextIndexBlock();
+        int sourceFirstBlockChunkCount = hasSourceEntries ? config.getIndexBlockChunkCount() : sourceSegmentMetadata.getLastIndexBlockChunkCount();
+        boolean startedBlock = false;
+        if (null != oldTargetLastChunk && !targetSegmentMetadata.isStorageSystemSegment()
+                && targetSegmentMetadata.getLastIndexBlockChunkCount() + sourceFirstBlockChunkCount > config.getIndexBlockChunkCount()) {
+            // Defrag may have merged the first chunks of the source into the old last chunk of the target.
+            val lastChunk = (ChunkMetadata) txn.get(oldTargetLastChunk);
+            if (null != lastChunk && null != lastChunk.getNextChunk()) {
+                long startOffset = oldTargetLastChunkStart + lastChunk.getLength();
+                val firstSourceEntry = hasSourceEntries
+                        ? (ReadIndexBlockMetadata) txn.get(getReadIndexBlockName(sourceSegmentMetadata.getName(), sourceSegmentMetadata.getFirstIndexBlock()))
+                        : null;
+                if (null == firstSourceEntry || offset + firstSourceEntry.getStartOffset() > startOffset) {
+                    addReadIndexBlockEntry(txn, targetSegmentMetadata, lastChunk.getNextChunk(), startOffset);
+                    startedBlock = true;
+                }
+            }
+        }
+
+        int movedCount = 0;
+        for (int i = sourceSegmentMetadata.getFirstIndexBlock(); i < sourceSegmentMetadata.getNextIndexBlock(); i++) {
+            String blockName = getReadIndexBlockName(sourceSegmentMetadata.getName(), i);
+            val blockEntry = (ReadIndexBlockMetadata) txn.get(blockName);
+            txn.delete(blockName);
+            if (null != blockEntry && null != txn.get(blockEntry.getChunkName())) {
+                addReadIndexBlockEntry(txn, targetSegmentMetadata, blockEntry.getChunkName(), offset + blockEntry.getStartOffset());
+                movedCount++;
+            }
+        }
+
+        // The chunks of the source segment now belong to the last block of the target. Defrag may have reduced their
+        // number, so this may overestimate it, which only means that the next entry is added a bit early.
+        if (movedCount > 0 || startedBlock) {
+            targetSegmentMetadata.setLastIndexBlockChunkCount(sourceSegmentMetadata.getLastIndexBlockChunkCount());
+        } else {
+            targetSegmentMetadata.setLastIndexBlockChunkCount(targetSegmentMetadata.getLastIndexBlockChunkCount() + sourceSegmentMetadata.getChunkCount());
+        }
+    }
+
+    /**
+     * Deletes the entries of the persistent read index of the given segment that point to chunks that were truncated away.
+     * Entries are ordered by offset, so only the entries at the start of the read index need to be looked at.
+     *
+     * @param txn             Active {@link MetadataTransaction}.
+     * @param segmentMetadata {@link SegmentMetadata} for the segment, after truncation.
+     * @throws StorageMetadataException In case of any chunk metadata store related errors.
+     */
+    private void deleteTruncatedReadIndexBlockEntries(MetadataTransaction txn, SegmentMetadata segmentMetadata) throws StorageMetadataException {
+        while (segmentMetadata.getFirstIndexBlock() < segmentMetadata.getNextIndexBlock()) {
+            String blockName = getReadIndexBlockName(segmentMetadata.getName(), segmentMetadata.getFirstIndexBlock());
+            val blockEntry = (ReadIndexBlockMetadata) txn.get(blockName);
+            if (null != blockEntry && blockEntry.getStartOffset() >= segmentMetadata.getFirstChunkStartOffset()) {
+                break;
+            }
+
+            txn.delete(blockName);
+            segmentMetadata.setFirstIndexBlock(segmentMetadata.getFirstIndexBlock() + 1);
+        }
+    }
+
+    /**
+     * Deletes all the entries of the persistent read index of the given segment.
+     *
+     * @param txn             Active {@link MetadataTransaction}.
+     * @param segmentMetadata {@link SegmentMetadata} for the segment.
+     * @throws StorageMetadataException In case of any chunk metadata store related errors.
+     */
+    private void deleteReadIndexBlockEntries(MetadataTransaction txn, SegmentMetadata segmentMetadata) throws StorageMetadataException {
+        for (int i = segmentMetadata.getFirstIndexBlock(); i < segmentMetadata.getNextIndexBlock(); i++) {
+            txn.delete(getReadIndexBlockName(segmentMetadata.getName(), i));
+        }
+    }
+
+    /**
+     * Finds the entry of the persistent read index for the block that contains the given offset, using a binary search
+     * over the entries of the segment. Segments with fewer chunks than a block have no entries and need no lookups.
+     *
+     * @param txn              Active {@link MetadataTransaction}.
+     * @param segmentMetadata  {@link SegmentMetadata} for the segment.
+     * @param offset           Offset to find.
+     * @param knownStartOffset Start offset of the closest chunk already known to the caller. Entries at or before this
+     *                         are not useful.
+     * @return The {@link ReadIndexBlockMetadata} for the block, or null if there is no useful entry.
+     * @throws StorageMetadataException In case of any chunk metadata store related errors.
+     */
+    private ReadIndexBlockMetadata findReadIndexBlockEntry(MetadataTransaction txn, SegmentMetadata segmentMetadata,
+                                                           long offset, long knownStartOffset) throws StorageMetadataException {
+        ReadIndexBlockMetadata found = null;
+        int low = segmentMetadata.getFirstIndexBlock();
+        int high = segmentMetadata.getNextIndexBlock() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            val blockEntry = (ReadIndexBlockMetadata) txn.get(getReadIndexBlockName(segmentMetadata.getName(), mid));
+            if (null == blockEntry) {
+                // Not expected. Fall back to walking the chunks from what we have found so far.
+                log.warn("{} read - missing read index entry - segment={}, block={}.", logPrefix, segmentMetadata.getName(), mid);
+                break;
+            }
+
+            if (blockEntry.getStartOffset() <= offset) {
+                if (blockEntry.getStartOffset() > knownStartOffset) {
+                    found = blockEntry;
+                }
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return found;
+    }
+
     private void checkSegmentExists(String streamSegmentName, SegmentMetadata segmentMetadata) throws StreamSegmentNotExistsException {
         if (null == segmentMetadata || !segmentMetadata.isActive()) {
             throw new StreamSegmentNotExistsException(streamSegmentName);
@@ -31,8 +31,16 @@ public class ChunkedSegmentStorageConfig {
     public static final Property<Integer> MAX_INDEXED_SEGMENTS = Property.named("readindex.segments.max", 1024);
     public static final Property<Integer> MAX_INDEXED_CHUNKS_PER_SEGMENTS = Property.named("readindex.chunksPerSegment.max", 1024);
     public static final Property<Integer> MAX_INDEXED_CHUNKS = Property.named("readindex.chunks.max", 16 * 1024);
+    public static final Property<Integer> READ_INDEX_BLOCK_CHUNKS = Property.named("readindex.block.chunks", 64);
     public static final Property<Boolean> APPENDS_ENABLED = Property.named("appends.enable", true);
     public static final Property<Long> DEFAULT_ROLLOVER_SIZE = Property.named("metadata.rollover.size.bytes.max", SegmentRollingPolicy.MAX_CHUNK_LENGTH);
+    public static final Property<Boolean> GARBAGE_COLLECTION_ENABLED = Property.named("garbage.collection.enable", false);
+    public static final Property<Integer> GARBAGE_COLLECTION_BATCH_SIZE = Property.named("garbage.collection.batch.size.max", 100);
+    public static final Property<Integer> GARBAGE_COLLECTION_DELETE_RATE = Property.named("garbage.collection.delete.rate.max", 100);
+    public static final Property<Boolean> METADATA_WRITE_BATCHING_ENABLED = Property.named("metadata.write.batching.enable", false);
+    public static final Property<Boolean> LOCAL_CACHE_ENABLED = Property.named("cache.local.enable", false);
+    public static final Property<String> LOCAL_CACHE_PATH = Property.named("cache.local.path", "");
+    public static final Property<Long> LOCAL_CACHE_SIZE = Property.named("cache.local.size.bytes.max", 1024 * 1024 * 1024L);
 
     /**
      * Default configuration for {@link ChunkedSegmentStorage}.
@@ -45,7 +53,15 @@ public class ChunkedSegmentStorageConfig {
             .maxIndexedSegments(1024)
             .maxIndexedChunksPerSegment(1024)
             .maxIndexedChunks(16 * 1024)
+            .indexBlockChunkCount(64)
             .appendEnabled(true)
+            .garbageCollectionEnabled(false)
+            .garbageCollectionMaxBatchSize(100)
+            .garbageCollectionMaxDeleteRate(100)
+            .metadataWriteBatchingEnabled(false)
+            .localCacheEnabled(false)
+            .localCachePath("")
+            .localCacheMaxSize(1024 * 1024 * 1024L)
             .build();
 
     static final String COMPONENT_CODE = "storage";
@@ -94,12 +110,65 @@ public class ChunkedSegmentStorageConfig {
     @Getter
     final private int maxIndexedChunks;
 
+    /**
+     * Number of chunks per entry of the persistent read index, so that reads at any offset can locate their chunk without
+     * walking the whole list of chunks.
+     */
+    @Getter
+    final private int indexBlockChunkCount;
+
     /**
      * Whether the append functionality is enabled or disabled.
      */
     @Getter
     final private boolean appendEnabled;
 
+    /**
+     * Whether garbage chunks are deleted in the background by a {@link GarbageCollector} (true) or inline, as part of
+     * the operation that made them garbage (false).
+     */
+    @Getter
+    final private boolean garbageCollectionEnabled;
+
+    /**
+     * Max number of garbage chunks to delete with a single request to {@link ChunkStorage}.
+     */
+    @Getter
+    final private int garbageCollectionMaxBatchSize;
+
+    /**
+     * Max number of garbage chunks to delete per second.
+     */
+    @Getter
+    final private int garbageCollectionMaxDeleteRate;
+
+    /**
+     * Whether the writes of concurrent metadata commits are combined in a single metadata store update. Commits never wait
+     * for other commits to arrive; a batch is made up of the commits that arrived while the previous one was being written.
+     * If false, each commit is written on its own.
+     */
+    @Getter
+    final private boolean metadataWriteBatchingEnabled;
+
+    /**
+     * Whether data read from chunks is cached on local disk by a {@link CachingChunkStorage}.
+     */
+    @Getter
+    final private boolean localCacheEnabled;
+
+    /**
+     * Local directory in which to cache data read from chunks. Each container uses its own sub-directory.
+     */
+    @Getter
+    @NonNull
+    final private String localCachePath;
+
+    /**
+     * Max size (in bytes) of data read from chunks to cache on local disk, per container.
+     */
+    @Getter
+    final private long localCacheMaxSize;
+
     /**
      * Creates a new instance of the ChunkedSegmentStorageConfig class.
      *
@@ -113,8 +182,36 @@ public class ChunkedSegmentStorageConfig {
         this.maxIndexedSegments = properties.getInt(MAX_INDEXED_SEGMENTS);
         this.maxIndexedChunksPerSegment = properties.getInt(MAX_INDEXED_CHUNKS_PER_SEGMENTS);
         this.maxIndexedChunks = properties.getInt(MAX_INDEXED_CHUNKS);
+        this.indexBlockChunkCount = properties.getInt(READ_INDEX_BLOCK_CHUNKS);
+        if (this.indexBlockChunkCount <= 0) {
+            throw new ConfigurationException(String.format("Property '%s' must be a positive integer.", READ_INDEX_BLOCK_CHUNKS));
+        }
+
         long defaultMaxLength = properties.getLong(DEFAULT_ROLLOVER_SIZE);
         this.defaultRollingPolicy = new SegmentRollingPolicy(defaultMaxLength);
+        this.garbageCollectionEnabled = properties.getBoolean(GARBAGE_COLLECTION_ENABLED);
+        this.garbageCollectionMaxBatchSize = properties.getInt(GARBAGE_COLLECTION_BATCH_SIZE);
+        if (this.garbageCollectionMaxBatchSize <= 0) {
+            throw new ConfigurationException(String.format("Property '%s' must be a positive integer.", GARBAGE_COLLECTION_BATCH_SIZE));
+        }
+
+        this.garbageCollectionMaxDeleteRate = properties.getInt(GARBAGE_COLLECTION_DELETE_RATE);
+        if (this.garbageCollectionMaxDeleteRate <= 0) {
+            throw new ConfigurationException(String.format("Property '%s' must be a positive integer.", GARBAGE_COLLECTION_DELETE_RATE));
+        }
+
+        this.metadataWriteBatchingEnabled = properties.getBoolean(METADATA_WRITE_BATCHING_ENABLED);
+
+        this.localCacheEnabled = properties.getBoolean(LOCAL_CACHE_ENABLED);
+        this.localCachePath = properties.get(LOCAL_CACHE_PATH);
+        if (this.localCacheEnabled && this.localCachePath.isEmpty()) {
+            throw new ConfigurationException(String.format("Property '%s' must be set if '%s' is true.", LOCAL_CACHE_PATH, LOCAL_CACHE_ENABLED));
+        }
+
+        this.localCacheMaxSize = properties.getLong(LOCAL_CACHE_SIZE);
+        if (this.localCacheMaxSize <= 0) {
+            throw new ConfigurationException(String.format("Property '%s' must be a positive long.", LOCAL_CACHE_SIZE));
+        }
     }
 
     /**
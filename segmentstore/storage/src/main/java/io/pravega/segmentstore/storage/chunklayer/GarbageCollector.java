@@ -0,0 +1,672 @@
+/**
+ * Copyright (c) Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.storage.chunklayer;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import io.pravega.common.Exceptions;
+import io.pravega.segmentstore.storage.metadata.ChunkMetadataStore;
+import io.pravega.segmentstore.storage.metadata.GarbageQueueMetadata;
+import io.pravega.segmentstore.storage.metadata.GarbageQueuePageMetadata;
+import io.pravega.segmentstore.storage.metadata.MetadataTransaction;
+import io.pravega.shared.NameUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Deletes garbage chunks (chunks that are no longer referenced by any segment) in the background, so that large
+ * truncations or segment deletions do not compete with reads and writes for {@link ChunkStorage} bandwidth.
+ *
+ * Garbage chunks are kept in a queue which is persisted in the {@link ChunkMetadataStore} (see {@link GarbageQueueMetadata}
+ * and {@link GarbageQueuePageMetadata}), so that pending deletes survive restarts. Chunks that are unlinked from a segment
+ * are added to the queue by {@link #addChunks(MetadataTransaction, Collection)}, which creates a new page in the same
+ * transaction that unlinks them, so that they are never unreferenced by the metadata (even if the Segment Store crashes
+ * before the next run). To keep such transactions from conflicting with each other, they never update the head of the
+ * queue: page numbers are reserved (see {@link #RESERVED_PAGE_COUNT}) ahead of their use instead. Chunks are deleted
+ * from the head of the queue in batches of at most {@link ChunkedSegmentStorageConfig#getGarbageCollectionMaxBatchSize()}
+ * chunks (using {@link ChunkStorage#batchDelete}), and no more than
+ * {@link ChunkedSegmentStorageConfig#getGarbageCollectionMaxDeleteRate()} chunks are deleted per second.
+ * If a batch cannot be deleted, its chunks are retried one at a time so that a chunk that cannot be deleted does not hold
+ * back the others. Chunks that still could not be deleted are appended back to the queue and retried after a delay, up
+ * to {@link #MAX_DELETE_ATTEMPTS} times; after that they are dropped from the queue and remain in Tier 2 Storage.
+ *
+ * All processing happens on the given {@link Executor} (which is shared with the owning {@link ChunkedSegmentStorage}),
+ * one run at a time. All updates to the head of the persisted queue are made while holding the same lock, so they never
+ * conflict with each other.
+ */
+@Slf4j
+@ThreadSafe
+class GarbageCollector implements AutoCloseable {
+    //region Members
+
+    /**
+     * Format for the name of the queue.
+     */
+    private static final String QUEUE_NAME_FORMAT = "%s/garbage";
+
+    /**
+     * Format for the name of each page in the queue.
+     */
+    private static final String PAGE_NAME_FORMAT = "%s/page_%d";
+
+    /**
+     * Delay before retrying after a failure to load or persist the queue.
+     */
+    private static final long RETRY_DELAY_MILLIS = 1000;
+
+    /**
+     * Maximum number of times a chunk is attempted to be deleted on its own before it is dropped from the queue.
+     */
+    private static final int MAX_DELETE_ATTEMPTS = 3;
+
+    /**
+     * Number of page numbers that are reserved in the head of the persisted queue at a time.
+     */
+    @VisibleForTesting
+    static final int RESERVED_PAGE_COUNT = 100;
+
+    private final int containerId;
+    private final ChunkStorage chunkStorage;
+    private final ChunkMetadataStore metadataStore;
+    private final int maxBatchSize;
+    private final int maxDeleteRate;
+    private final Executor executor;
+    private final String queueName;
+    private final String logPrefix;
+    private final AtomicLong queueSize;
+
+    /**
+     * Chunks that have been added but not yet persisted.
+     */
+    @GuardedBy("lock")
+    private List<String> pending;
+
+    /**
+     * Pages that have been committed by other transactions but not yet picked up by a run.
+     */
+    @GuardedBy("lock")
+    private final List<Page> committedPages;
+
+    /**
+     * Numbers of the pages that have been allocated but not yet picked up by a run (or aborted). The head of the persisted
+     * queue must not move past any of them.
+     */
+    @GuardedBy("lock")
+    private final TreeSet<Long> unprocessedPages;
+
+    /**
+     * Number of the next page to allocate.
+     */
+    @GuardedBy("lock")
+    private long nextAllocatedPage;
+    @GuardedBy("lock")
+    private boolean runScheduled;
+    @GuardedBy("lock")
+    private boolean closed;
+    private final Object lock = new Object();
+
+    /**
+     * Number of the first page in the persisted queue. Only modified from within a run.
+     */
+    @GuardedBy("headLock")
+    private long persistedFirstPage;
+
+    /**
+     * Number following the last page number reserved in the persisted queue.
+     */
+    @GuardedBy("headLock")
+    private long reservedPageLimit;
+    private final Object headLock = new Object();
+
+    /**
+     * Persisted pages that still have chunks to delete, ordered by page number. Only accessed from within a run (see
+     * {@link #scheduleRun}), or by {@link #initialize} before the first run.
+     */
+    private final PriorityQueue<Page> pages;
+
+    /**
+     * Number of failed attempts to delete each chunk that is being retried. Only accessed from within a run.
+     */
+    private final Map<String, Integer> failedAttempts;
+
+    /**
+     * Whether the last run failed to delete any chunks. Only accessed from within a run.
+     */
+    private boolean lastDeleteFailed;
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the GarbageCollector class.
+     *
+     * @param containerId   Container Id.
+     * @param chunkStorage  {@link ChunkStorage} to delete chunks from.
+     * @param metadataStore {@link ChunkMetadataStore} to persist the queue in.
+     * @param config        Configuration options.
+     * @param executor      Executor to run on.
+     */
+    GarbageCollector(int containerId, ChunkStorage chunkStorage, ChunkMetadataStore metadataStore, ChunkedSegmentStorageConfig config,
+                     Executor executor) {
+        this.containerId = containerId;
+        this.chunkStorage = Preconditions.checkNotNull(chunkStorage, "chunkStorage");
+        this.metadataStore = Preconditions.checkNotNull(metadataStore, "metadataStore");
+        this.maxBatchSize = config.getGarbageCollectionMaxBatchSize();
+        this.maxDeleteRate = config.getGarbageCollectionMaxDeleteRate();
+        this.executor = Preconditions.checkNotNull(executor, "executor");
+        this.queueName = String.format(QUEUE_NAME_FORMAT, NameUtils.getStorageMetadataSegmentName(containerId));
+        this.logPrefix = String.format("GarbageCollector[%d]", containerId);
+        this.queueSize = new AtomicLong();
+        this.pending = new ArrayList<>();
+        this.committedPages = new ArrayList<>();
+        this.unprocessedPages = new TreeSet<>();
+        this.pages = new PriorityQueue<>(Comparator.comparingLong((Page page) -> page.pageNumber));
+        this.failedAttempts = new HashMap<>();
+    }
+
+    //endregion
+
+    //region AutoCloseable Implementation
+
+    @Override
+    public void close() {
+        synchronized (this.lock) {
+            if (this.closed) {
+                return;
+            }
+
+            this.closed = true;
+        }
+
+        // Any chunks that have not been persisted yet are not deleted; they will remain in Tier 2 Storage. Committed pages
+        // are picked up by the next instance. A run that is already scheduled will find that we are closed and do nothing.
+        ChunkStorageMetrics.freezeGarbageQueueSize(this.containerId);
+        log.info("{} Closed.", this.logPrefix);
+    }
+
+    //endregion
+
+    //region Operations
+
+    /**
+     * Loads the persisted queue (if any) and starts deleting the chunks in it. This must complete before any page is
+     * allocated, so that page numbers that are already in use are never allocated again.
+     *
+     * @throws Exception If the persisted queue could not be loaded.
+     */
+    void initialize() throws Exception {
+        synchronized (this.lock) {
+            Exceptions.checkNotClosed(this.closed, this);
+        }
+
+        load();
+        synchronized (this.lock) {
+            Exceptions.checkNotClosed(this.closed, this);
+            scheduleRun(0);
+        }
+    }
+
+    /**
+     * Adds the given chunks to the persisted queue as part of the given transaction, which must also be the transaction
+     * that unlinks them. Exactly one of {@link #pageCommitted} or {@link #pageAborted} must be invoked with the returned
+     * page number once the transaction completes.
+     *
+     * @param txn        Active {@link MetadataTransaction}.
+     * @param chunkNames Names of the chunks to delete.
+     * @return The number of the page that holds the chunks.
+     * @throws Exception If no page could be allocated.
+     */
+    long addChunks(MetadataTransaction txn, Collection<String> chunkNames) throws Exception {
+        Preconditions.checkArgument(!chunkNames.isEmpty(), "chunkNames");
+        long pageNumber = allocatePage();
+        try {
+            txn.create(GarbageQueuePageMetadata.builder()
+                    .name(getPageName(pageNumber))
+                    .chunkNames(new ArrayList<>(chunkNames))
+                    .build());
+        } catch (Exception ex) {
+            pageAborted(pageNumber);
+            throw ex;
+        }
+
+        return pageNumber;
+    }
+
+    /**
+     * Notifies that the transaction that created the given page (see {@link #addChunks(MetadataTransaction, Collection)})
+     * has been committed. The chunks will be deleted in the background.
+     *
+     * @param pageNumber Number of the page.
+     * @param chunkNames Names of the chunks in the page.
+     */
+    void pageCommitted(long pageNumber, Collection<String> chunkNames) {
+        synchronized (this.lock) {
+            if (this.closed) {
+                // The page has been persisted, so the next instance will pick it up.
+                return;
+            }
+
+            this.committedPages.add(new Page(pageNumber, new ArrayList<>(chunkNames)));
+            scheduleRun(0);
+        }
+
+        reportQueueSize(this.queueSize.addAndGet(chunkNames.size()));
+    }
+
+    /**
+     * Notifies that the transaction that created the given page (see {@link #addChunks(MetadataTransaction, Collection)})
+     * has not been committed.
+     *
+     * @param pageNumber Number of the page.
+     */
+    void pageAborted(long pageNumber) {
+        synchronized (this.lock) {
+            this.unprocessedPages.remove(pageNumber);
+        }
+    }
+
+    /**
+     * Adds the given chunks to the queue. The chunks will be deleted in the background. The chunks are only persisted by
+     * the next run, so this must only be used for chunks that are not referenced by any metadata; chunks that are being
+     * unlinked must be added using {@link #addChunks(MetadataTransaction, Collection)} instead.
+     *
+     * @param chunkNames Names of the chunks to delete.
+     */
+    void addChunks(Collection<String> chunkNames) {
+        if (chunkNames.isEmpty()) {
+            return;
+        }
+
+        synchronized (this.lock) {
+            Exceptions.checkNotClosed(this.closed, this);
+            this.pending.addAll(chunkNames);
+            scheduleRun(0);
+        }
+
+        reportQueueSize(this.queueSize.addAndGet(chunkNames.size()));
+    }
+
+    /**
+     * Gets the number of chunks that are waiting to be deleted.
+     *
+     * @return The number of chunks.
+     */
+    long getQueueSize() {
+        return this.queueSize.get();
+    }
+
+    /**
+     * Schedules a run, unless one is already scheduled. Since there is at most one scheduled run at any time, runs never
+     * execute concurrently.
+     */
+    @GuardedBy("lock")
+    private void scheduleRun(long delayMillis) {
+        if (!this.runScheduled) {
+            this.runScheduled = true;
+            Executor runExecutor = delayMillis > 0
+                    ? CompletableFuture.delayedExecutor(delayMillis, TimeUnit.MILLISECONDS, this.executor)
+                    : this.executor;
+            runExecutor.execute(this::run);
+        }
+    }
+
+    /**
+     * Persists all pending chunks, then deletes the next batch of chunks. Reschedules itself if there is more work to do,
+     * with a delay that keeps the delete rate within the configured limit.
+     */
+    private void run() {
+        synchronized (this.lock) {
+            if (this.closed) {
+                this.runScheduled = false;
+                return;
+            }
+        }
+
+        long delayMillis;
+        try {
+            persist();
+            int deletedCount = deleteNextBatch();
+            delayMillis = deletedCount * 1000L / this.maxDeleteRate;
+            if (this.lastDeleteFailed) {
+                // Do not retry the chunks that failed right away.
+                delayMillis = Math.max(delayMillis, RETRY_DELAY_MILLIS);
+            }
+        } catch (Exception ex) {
+            log.warn("{} Unable to process queue. Retrying in {} ms.", this.logPrefix, RETRY_DELAY_MILLIS, ex);
+            delayMillis = RETRY_DELAY_MILLIS;
+        }
+
+        boolean headOutdated;
+        long firstPage = getFirstPage();
+        synchronized (this.headLock) {
+            headOutdated = this.persistedFirstPage != firstPage;
+        }
+
+        synchronized (this.lock) {
+            this.runScheduled = false;
+            boolean hasWork = headOutdated || !this.pending.isEmpty() || !this.committedPages.isEmpty() || !this.pages.isEmpty();
+            if (!this.closed && hasWork) {
+                scheduleRun(delayMillis);
+            }
+        }
+    }
+
+    /**
+     * Loads the persisted queue. Page numbers that were reserved but not used have no page, so they are skipped.
+     */
+    private void load() throws Exception {
+        long size = 0;
+        long firstPage = 0;
+        long nextPage = 0;
+        try (MetadataTransaction txn = this.metadataStore.beginTransaction()) {
+            val head = (GarbageQueueMetadata) txn.get(this.queueName);
+            if (head != null) {
+                for (long pageNumber = head.getFirstPage(); pageNumber < head.getNextPage(); pageNumber++) {
+                    val page = (GarbageQueuePageMetadata) txn.get(getPageName(pageNumber));
+                    if (page != null && !page.getChunkNames().isEmpty()) {
+                        this.pages.add(new Page(pageNumber, new ArrayList<>(page.getChunkNames())));
+                        size += page.getChunkNames().size();
+                    }
+                }
+
+                firstPage = head.getFirstPage();
+                nextPage = head.getNextPage();
+            }
+        }
+
+        synchronized (this.headLock) {
+            this.persistedFirstPage = firstPage;
+            this.reservedPageLimit = nextPage;
+        }
+
+        synchronized (this.lock) {
+            this.nextAllocatedPage = nextPage;
+        }
+
+        reportQueueSize(this.queueSize.addAndGet(size));
+        log.info("{} Loaded {} chunk(s) in {} page(s).", this.logPrefix, size, this.pages.size());
+    }
+
+    /**
+     * Picks up the pages committed by other transactions, appends all pending chunks (if any) to the persisted queue as
+     * a new page and removes the pages at the head of the persisted queue whose chunks have all been processed.
+     */
+    private void persist() throws Exception {
+        List<String> toPersist;
+        synchronized (this.lock) {
+            toPersist = this.pending;
+            this.pending = new ArrayList<>();
+            for (Page page : this.committedPages) {
+                this.pages.add(page);
+                this.unprocessedPages.remove(page.pageNumber);
+            }
+
+            this.committedPages.clear();
+        }
+
+        long pageNumber = -1;
+        try {
+            if (!toPersist.isEmpty()) {
+                pageNumber = allocatePage();
+            }
+
+            synchronized (this.headLock) {
+                long firstPage = getFirstPage();
+                if (pageNumber < 0 && firstPage == this.persistedFirstPage) {
+                    // Nothing to do.
+                    return;
+                }
+
+                try (MetadataTransaction txn = this.metadataStore.beginTransaction()) {
+                    for (long p = this.persistedFirstPage; p < firstPage; p++) {
+                        String pageName = getPageName(p);
+                        if (txn.get(pageName) != null) {
+                            txn.delete(pageName);
+                        }
+                    }
+
+                    if (pageNumber >= 0) {
+                        txn.create(GarbageQueuePageMetadata.builder()
+                                .name(getPageName(pageNumber))
+                                .chunkNames(toPersist)
+                                .build());
+                    }
+
+                    updateHead(txn, firstPage, this.reservedPageLimit);
+                    txn.commit();
+                }
+
+                this.persistedFirstPage = firstPage;
+            }
+        } catch (Exception ex) {
+            // Put them back; they will be persisted on the next attempt.
+            synchronized (this.lock) {
+                this.unprocessedPages.remove(pageNumber);
+                toPersist.addAll(this.pending);
+                this.pending = toPersist;
+            }
+
+            throw ex;
+        }
+
+        if (pageNumber >= 0) {
+            synchronized (this.lock) {
+                this.unprocessedPages.remove(pageNumber);
+            }
+
+            this.pages.add(new Page(pageNumber, toPersist));
+        }
+    }
+
+    /**
+     * Allocates a new page number, reserving more page numbers in the persisted queue if needed.
+     *
+     * @return The page number.
+     */
+    private long allocatePage() throws Exception {
+        long pageNumber;
+        synchronized (this.lock) {
+            Exceptions.checkNotClosed(this.closed, this);
+            pageNumber = this.nextAllocatedPage++;
+            this.unprocessedPages.add(pageNumber);
+        }
+
+        try {
+            synchronized (this.headLock) {
+                if (pageNumber >= this.reservedPageLimit) {
+                    long newLimit = pageNumber + RESERVED_PAGE_COUNT;
+                    try (MetadataTransaction txn = this.metadataStore.beginTransaction()) {
+                        updateHead(txn, this.persistedFirstPage, newLimit);
+                        txn.commit();
+                    }
+
+                    this.reservedPageLimit = newLimit;
+                }
+            }
+        } catch (Exception ex) {
+            pageAborted(pageNumber);
+            throw ex;
+        }
+
+        return pageNumber;
+    }
+
+    /**
+     * Creates or updates the head of the persisted queue as part of the given transaction.
+     */
+    @GuardedBy("headLock")
+    private void updateHead(MetadataTransaction txn, long firstPage, long nextPage) throws Exception {
+        val head = (GarbageQueueMetadata) txn.get(this.queueName);
+        if (head == null) {
+            txn.create(GarbageQueueMetadata.builder()
+                    .name(this.queueName)
+                    .firstPage(firstPage)
+                    .nextPage(nextPage)
+                    .build());
+        } else {
+            head.setFirstPage(firstPage);
+            head.setNextPage(nextPage);
+            txn.update(head);
+        }
+    }
+
+    /**
+     * Deletes the next batch of chunks from the head of the queue. If the batch cannot be deleted, its chunks are deleted
+     * one at a time, and those that still fail are added back to the queue (or dropped, once they have failed
+     * {@link #MAX_DELETE_ATTEMPTS} times).
+     *
+     * @return The number of chunks attempted to be deleted, including the ones retried one at a time.
+     */
+    private int deleteNextBatch() {
+        this.lastDeleteFailed = false;
+        List<String> batch = new ArrayList<>();
+        while (batch.size() < this.maxBatchSize && !this.pages.isEmpty()) {
+            Page page = this.pages.peek();
+            int count = Math.min(this.maxBatchSize - batch.size(), page.chunkNames.size() - page.nextIndex);
+            batch.addAll(page.chunkNames.subList(page.nextIndex, page.nextIndex + count));
+            page.nextIndex += count;
+            if (page.nextIndex >= page.chunkNames.size()) {
+                this.pages.poll();
+            }
+        }
+
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        if (tryDelete(batch)) {
+            onDeleted(batch);
+            return batch.size();
+        }
+
+        int attemptedCount = batch.size();
+        List<String> deleted = new ArrayList<>();
+        List<String> failed = new ArrayList<>();
+        if (batch.size() == 1) {
+            failed.add(batch.get(0));
+        } else {
+            // Find out which chunks are to blame.
+            for (String chunkName : batch) {
+                if (tryDelete(Collections.singletonList(chunkName))) {
+                    deleted.add(chunkName);
+                } else {
+                    failed.add(chunkName);
+                }
+            }
+
+            attemptedCount += batch.size();
+        }
+
+        onDeleted(deleted);
+        List<String> retry = new ArrayList<>();
+        for (String chunkName : failed) {
+            int attempts = this.failedAttempts.merge(chunkName, 1, Integer::sum);
+            if (attempts >= MAX_DELETE_ATTEMPTS) {
+                log.error("{} Unable to delete chunk {} after {} attempts. Giving up; it will remain in Storage.",
+                        this.logPrefix, chunkName, attempts);
+                this.failedAttempts.remove(chunkName);
+                reportQueueSize(this.queueSize.decrementAndGet());
+            } else {
+                retry.add(chunkName);
+            }
+        }
+
+        ChunkStorageMetrics.GC_DELETE_FAILED_COUNT.add(failed.size());
+        this.lastDeleteFailed = !failed.isEmpty();
+        if (!retry.isEmpty()) {
+            // The pages these chunks came from may be removed from the persisted queue, so add them back to it.
+            synchronized (this.lock) {
+                this.pending.addAll(retry);
+            }
+        }
+
+        return attemptedCount;
+    }
+
+    /**
+     * Deletes the given chunks.
+     *
+     * @return True if they were deleted, false otherwise.
+     */
+    private boolean tryDelete(List<String> chunkNames) {
+        try {
+            this.chunkStorage.batchDelete(chunkNames);
+            return true;
+        } catch (Exception ex) {
+            log.warn("{} Unable to delete {} chunk(s). First={}.", this.logPrefix, chunkNames.size(), chunkNames.get(0), ex);
+            return false;
+        }
+    }
+
+    private void onDeleted(List<String> chunkNames) {
+        if (chunkNames.isEmpty()) {
+            return;
+        }
+
+        chunkNames.forEach(this.failedAttempts::remove);
+        ChunkStorageMetrics.GC_DELETE_COUNT.add(chunkNames.size());
+        reportQueueSize(this.queueSize.addAndGet(-chunkNames.size()));
+        log.debug("{} Deleted {} chunk(s).", this.logPrefix, chunkNames.size());
+    }
+
+    /**
+     * Gets the number of the first page that still has chunks to delete or that has not been picked up by a run yet.
+     */
+    private long getFirstPage() {
+        long firstPage;
+        synchronized (this.lock) {
+            firstPage = this.unprocessedPages.isEmpty() ? this.nextAllocatedPage : this.unprocessedPages.first();
+        }
+
+        return this.pages.isEmpty() ? firstPage : Math.min(firstPage, this.pages.peek().pageNumber);
+    }
+
+    private String getPageName(long pageNumber) {
+        return String.format(PAGE_NAME_FORMAT, this.queueName, pageNumber);
+    }
+
+    private void reportQueueSize(long size) {
+        ChunkStorageMetrics.reportGarbageQueueSize(this.containerId, size);
+    }
+
+    //endregion
+
+    //region Helper Classes
+
+    /**
+     * A page of the persisted queue.
+     */
+    @RequiredArgsConstructor
+    private static class Page {
+        private final long pageNumber;
+        private final List<String> chunkNames;
+        private int nextIndex;
+    }
+
+    //endregion
+}
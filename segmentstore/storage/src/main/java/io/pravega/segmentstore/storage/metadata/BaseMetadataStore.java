@@ -11,7 +11,10 @@
 package io.pravega.segmentstore.storage.metadata;
 
 import com.google.common.annotations.Beta;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.Striped;
+import io.pravega.common.Exceptions;
 import io.pravega.common.ObjectBuilder;
 import io.pravega.common.io.serialization.RevisionDataInput;
 import io.pravega.common.io.serialization.RevisionDataOutput;
@@ -19,6 +22,7 @@ import io.pravega.common.io.serialization.VersionedSerializer;
 import lombok.Builder;
 import lombok.Data;
 import lombok.Getter;
+import lombok.RequiredArgsConstructor;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
@@ -26,13 +30,18 @@ import lombok.val;
 import javax.annotation.concurrent.GuardedBy;
 import java.io.IOException;
 import java.io.Serializable;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
 import java.util.stream.Collectors;
 
 /**
@@ -88,6 +97,12 @@ import java.util.stream.Collectors;
  * To further optimize it may provide "lazy committing" of changes where there is application specific way to recover from failures.(Eg. when only length of chunk is changed.)
  * In this case {@link MetadataTransaction#commit(boolean)} can be called.Note that otherwise for each commit the data is written to underlying key-value store.
  *
+ * Concurrency control is striped by key: a commit only locks the stripes of the keys used in the transaction, so transactions
+ * on unrelated keys (Eg. different segments) can be validated and written concurrently.
+ * If write batching is enabled (see {@link #writeBatchingEnabled}) then the writes of concurrent commits are coalesced
+ * into a single call to {@link BaseMetadataStore#writeAll(Collection)} (Eg. a single table segment update). Each commit
+ * still returns only after its own changes have been written.
+ *
  * There are two special methods provided to handle metadata about data segments for the underlying key-value store. They are useful in avoiding circular references.
  * <ul>
  * <li>A record marked as pinned by calling {@link MetadataTransaction#markPinned(StorageMetadata)} is never written to underlying storage.</li>
@@ -103,9 +118,26 @@ abstract public class BaseMetadataStore implements ChunkMetadataStore {
     private static final int MAX_ENTRIES_IN_TXN_BUFFER = 5000;
 
     /**
-     * Lock for synchronization.
+     * Number of lock stripes.
+     */
+    private static final int LOCK_STRIPES = 256;
+
+    /**
+     * Locks for synchronization, striped by key.
+     */
+    private final Striped<Lock> keyLocks;
+
+    /**
+     * Writes waiting to be included in a batch. See {@link #writeBatched(List)}.
+     */
+    @GuardedBy("pendingWrites")
+    private final ArrayDeque<PendingWrite> pendingWrites;
+
+    /**
+     * Whether there is a thread currently writing a batch.
      */
-    private final Object lock = new Object();
+    @GuardedBy("pendingWrites")
+    private boolean batchWriterActive;
 
     /**
      * Indicates whether this instance is fenced or not.
@@ -120,8 +152,8 @@ abstract public class BaseMetadataStore implements ChunkMetadataStore {
     /**
      * Buffer for reading and writing transaction data entries to underlying KV store.
      * This allows lazy storing and avoiding unnecessary load for recently/frequently updated key value pairs.
+     * Modifications to an entry are guarded by the lock stripe of its key (see {@link #keyLocks}).
      */
-    @GuardedBy("lock")
     private final ConcurrentHashMap<String, TransactionData> bufferedTxnData;
 
     /**
@@ -131,6 +163,15 @@ abstract public class BaseMetadataStore implements ChunkMetadataStore {
     @Setter
     int maxEntriesInTxnBuffer = MAX_ENTRIES_IN_TXN_BUFFER;
 
+    /**
+     * If true, the writes of concurrent commits are batched (see {@link #writeBatched(List)}). If false, each commit
+     * writes its changes on its own. Commits hold their key locks until their changes are written, so they never wait
+     * for other commits to arrive; batches are made up of the commits that arrived while the previous batch was written.
+     */
+    @Getter
+    @Setter
+    volatile boolean writeBatchingEnabled = false;
+
     /**
      * Constructs a BaseMetadataStore object.
      */
@@ -138,6 +179,8 @@ abstract public class BaseMetadataStore implements ChunkMetadataStore {
         version = new AtomicLong(System.currentTimeMillis()); // Start with unique number.
         fenced = new AtomicBoolean(false);
         bufferedTxnData = new ConcurrentHashMap<>(); // Don't think we need anything fancy here. But we'll measure and see.
+        keyLocks = Striped.lock(LOCK_STRIPES);
+        pendingWrites = new ArrayDeque<>();
     }
 
     /**
@@ -209,7 +252,8 @@ abstract public class BaseMetadataStore implements ChunkMetadataStore {
         }
         // Step 2 : Check whether transaction is safe to commit.
         // This check needs to be atomic, with absolutely no possibility of re-entry
-        synchronized (lock) {
+        val locks = lock(txnData.keySet());
+        try {
             for (Map.Entry<String, TransactionData> entry : txnData.entrySet()) {
                 String key = entry.getKey();
                 val transactionData = entry.getValue();
@@ -243,7 +287,11 @@ abstract public class BaseMetadataStore implements ChunkMetadataStore {
             if (!lazyWrite || (bufferedTxnData.size() > maxEntriesInTxnBuffer)) {
                 log.trace("Persisting all modified keys (except pinned)");
                 val toWriteList = modifiedValues.stream().filter(entry -> !entry.isPinned()).collect(Collectors.toList());
-                writeAll(toWriteList);
+                if (writeBatchingEnabled) {
+                    writeBatched(toWriteList);
+                } else {
+                    writeAll(toWriteList);
+                }
                 log.trace("Done persisting all modified keys");
 
                 // Mark written keys as persisted.
@@ -272,11 +320,13 @@ abstract public class BaseMetadataStore implements ChunkMetadataStore {
                 toAdd.put(key, data);
             }
             bufferedTxnData.putAll(toAdd);
+        } finally {
+            unlock(locks);
         }
 
         //  Step 5 : evict if required.
         if (bufferedTxnData.size() > maxEntriesInTxnBuffer) {
-            bufferedTxnData.entrySet().removeIf(entry -> entry.getValue().isPersisted() && !entry.getValue().isPinned());
+            evict();
         }
 
         //  Step 6: finally clear
@@ -315,8 +365,12 @@ abstract public class BaseMetadataStore implements ChunkMetadataStore {
 
         // Search in the buffer.
         if (null == data) {
-            synchronized (lock) {
+            Lock keyLock = keyLocks.get(key);
+            keyLock.lock();
+            try {
                 dataFromBuffer = bufferedTxnData.get(key);
+            } finally {
+                keyLock.unlock();
             }
             // If we did not find in buffer then load it from store
             if (null == dataFromBuffer) {
@@ -367,16 +421,182 @@ abstract public class BaseMetadataStore implements ChunkMetadataStore {
             copyForBuffer.setValue(fromDb.getValue().deepCopy());
         }
         // Put this value in bufferedTxnData buffer.
-        synchronized (lock) {
+        Lock keyLock = keyLocks.get(key);
+        keyLock.lock();
+        try {
             // If some other transaction beat us then use that value.
             TransactionData oldValue = bufferedTxnData.putIfAbsent(key, copyForBuffer);
             if (oldValue != null) {
                 copyForBuffer = oldValue;
             }
+        } finally {
+            keyLock.unlock();
         }
         return copyForBuffer;
     }
 
+    /**
+     * Evicts all persisted, non-pinned entries from the buffer.
+     */
+    private void evict() {
+        for (val entry : bufferedTxnData.entrySet()) {
+            if (entry.getValue().isPersisted() && !entry.getValue().isPinned()) {
+                Lock keyLock = keyLocks.get(entry.getKey());
+                keyLock.lock();
+                try {
+                    // Re-check under the lock, since it may have been modified in the meantime.
+                    TransactionData data = bufferedTxnData.get(entry.getKey());
+                    if (null != data && data.isPersisted() && !data.isPinned()) {
+                        bufferedTxnData.remove(entry.getKey(), data);
+                    }
+                } finally {
+                    keyLock.unlock();
+                }
+            }
+        }
+    }
+
+    /**
+     * Acquires the lock stripes for all the given keys. Stripes are always acquired in the same order, so this cannot
+     * deadlock with other callers of this method.
+     *
+     * @param keys Keys to lock.
+     * @return The acquired locks, in the order they were acquired.
+     */
+    private List<Lock> lock(Collection<String> keys) {
+        List<Lock> locks = new ArrayList<>();
+        for (Lock lock : keyLocks.bulkGet(keys)) {
+            lock.lock();
+            locks.add(lock);
+        }
+        return locks;
+    }
+
+    /**
+     * Releases the given locks (acquired by {@link #lock(Collection)}), in reverse order.
+     *
+     * @param locks Locks to release.
+     */
+    private void unlock(List<Lock> locks) {
+        for (int i = locks.size() - 1; i >= 0; i--) {
+            locks.get(i).unlock();
+        }
+    }
+
+    /**
+     * Writes the given transaction data as part of a batch that also includes the writes of any other commits that are
+     * executing concurrently, using a single call to {@link #writeAll(Collection)}.
+     *
+     * If no batch is being written, the commit becomes the batch writer and immediately writes everything that is
+     * pending. Commits that arrive while a batch is being written wait for it to finish; then the first of them becomes
+     * the next batch writer and writes all of them together. If a batch fails then each of its writes is retried on its
+     * own, so that a single failed write (Eg. due to a version mismatch) does not fail unrelated commits. If writing a
+     * batch fails unexpectedly, all of its writes are failed and the next commit in line still takes over.
+     *
+     * The caller must hold the locks for all keys in the given list, so no two writes in the same batch are for the same key.
+     *
+     * @param toWrite List of transaction data to write.
+     * @throws StorageMetadataException Exception related to storage metadata operations.
+     */
+    private void writeBatched(List<TransactionData> toWrite) throws StorageMetadataException {
+        if (toWrite.isEmpty()) {
+            return;
+        }
+
+        PendingWrite write = new PendingWrite(toWrite);
+        boolean isBatchWriter;
+        synchronized (pendingWrites) {
+            pendingWrites.addLast(write);
+            isBatchWriter = !batchWriterActive;
+            batchWriterActive = true;
+        }
+
+        if (!isBatchWriter) {
+            // Wait until either our write is done (successfully or not) or it's our turn to write a batch.
+            CompletableFuture.anyOf(write.done, write.turn).exceptionally(ex -> null).join();
+            isBatchWriter = !write.done.isDone();
+        }
+
+        if (isBatchWriter) {
+            val batch = new ArrayList<PendingWrite>();
+            try {
+                synchronized (pendingWrites) {
+                    batch.addAll(pendingWrites);
+                    pendingWrites.clear();
+                }
+
+                writeBatch(batch);
+            } catch (Throwable ex) {
+                // Make sure no commit in this batch waits for a write that will never happen.
+                batch.forEach(w -> w.done.completeExceptionally(ex));
+                if (Exceptions.mustRethrow(ex)) {
+                    throw ex;
+                }
+            } finally {
+                synchronized (pendingWrites) {
+                    if (pendingWrites.isEmpty()) {
+                        batchWriterActive = false;
+                    } else {
+                        // Hand over to the next one in line.
+                        pendingWrites.peekFirst().turn.complete(null);
+                    }
+                }
+            }
+        }
+
+        try {
+            write.done.join();
+        } catch (CompletionException e) {
+            val ex = Exceptions.unwrap(e);
+            if (ex instanceof StorageMetadataException) {
+                throw (StorageMetadataException) ex;
+            }
+            throw new StorageMetadataException("Transaction failed", ex);
+        }
+    }
+
+    /**
+     * Gets the number of commits waiting to be included in the next batch.
+     *
+     * @return The number of commits.
+     */
+    @VisibleForTesting
+    int getPendingWriteCount() {
+        synchronized (pendingWrites) {
+            return pendingWrites.size();
+        }
+    }
+
+    /**
+     * Writes the given batch and completes each of its writes with the outcome.
+     *
+     * @param batch Writes to include in the batch.
+     */
+    private void writeBatch(List<PendingWrite> batch) {
+        log.trace("Writing batch of {} commits.", batch.size());
+        try {
+            writeAll(batch.stream().flatMap(w -> w.toWrite.stream()).collect(Collectors.toList()));
+            batch.forEach(w -> w.done.complete(null));
+            return;
+        } catch (Exception e) {
+            if (batch.size() == 1) {
+                batch.get(0).done.completeExceptionally(e);
+                return;
+            }
+
+            log.debug("Batch write of {} commits failed. Retrying them one by one.", batch.size(), e);
+        }
+
+        for (val w : batch) {
+            try {
+                writeAll(w.toWrite);
+                w.done.complete(null);
+            } catch (Exception e) {
+                w.done.completeExceptionally(e);
+            }
+        }
+    }
+
     /**
      * Reads a metadata record for the given key.
      *
@@ -527,6 +747,22 @@ abstract public class BaseMetadataStore implements ChunkMetadataStore {
         this.version.set(version);
     }
 
+    /**
+     * A write waiting to be included in a batch.
+     */
+    @RequiredArgsConstructor
+    private static class PendingWrite {
+        private final List<TransactionData> toWrite;
+        /**
+         * Completed when the write is done.
+         */
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+        /**
+         * Completed when the commit that made this write should write the next batch.
+         */
+        private final CompletableFuture<Void> turn = new CompletableFuture<>();
+    }
+
     /**
      * Stores the transaction data.
      */
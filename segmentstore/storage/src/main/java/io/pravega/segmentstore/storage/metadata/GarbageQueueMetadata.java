@@ -0,0 +1,111 @@
+/**
+ * Copyright (c) Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.storage.metadata;
+
+import io.pravega.common.ObjectBuilder;
+import io.pravega.common.io.serialization.RevisionDataInput;
+import io.pravega.common.io.serialization.RevisionDataOutput;
+import io.pravega.common.io.serialization.VersionedSerializer;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.io.IOException;
+
+/**
+ * Represents the head of the persistent queue of garbage chunks that are waiting to be deleted.
+ * The queue is made of {@link GarbageQueuePageMetadata} records numbered in the range [firstPage, nextPage). Page numbers
+ * are reserved ahead of their use, so some numbers in this range may not have a page.
+ * Following metadata is stored.
+ * <ul>
+ * <li>Name of the queue.</li>
+ * <li>Number of the first page in the queue.</li>
+ * <li>Number following the last page number reserved for the queue.</li>
+ * </ul>
+ */
+@Builder(toBuilder = true)
+@Data
+@EqualsAndHashCode(callSuper = true)
+@ThreadSafe
+public class GarbageQueueMetadata extends StorageMetadata {
+    /**
+     * Name of this queue.
+     */
+    private final String name;
+
+    /**
+     * Number of the first page in the queue. There are no pages below it.
+     */
+    private long firstPage;
+
+    /**
+     * Number following the last page number reserved for the queue. There are no pages at or above it.
+     */
+    private long nextPage;
+
+    /**
+     * Retrieves the key associated with the metadata, which is the name of the queue.
+     *
+     * @return Name of the queue.
+     */
+    @Override
+    public String getKey() {
+        return name;
+    }
+
+    /**
+     * Creates a deep copy of this instance.
+     *
+     * @return Deep copy of this instance.
+     */
+    @Override
+    public StorageMetadata deepCopy() {
+        return toBuilder().build();
+    }
+
+    /**
+     * Builder that implements {@link ObjectBuilder}.
+     */
+    public static class GarbageQueueMetadataBuilder implements ObjectBuilder<GarbageQueueMetadata> {
+    }
+
+    /**
+     * Serializer that implements {@link VersionedSerializer}.
+     */
+    public static class Serializer extends VersionedSerializer.WithBuilder<GarbageQueueMetadata, GarbageQueueMetadataBuilder> {
+        @Override
+        protected GarbageQueueMetadataBuilder newBuilder() {
+            return GarbageQueueMetadata.builder();
+        }
+
+        @Override
+        protected byte getWriteVersion() {
+            return 0;
+        }
+
+        @Override
+        protected void declareVersions() {
+            version(0).revision(0, this::write00, this::read00);
+        }
+
+        private void write00(GarbageQueueMetadata object, RevisionDataOutput output) throws IOException {
+            output.writeUTF(object.name);
+            output.writeCompactLong(object.firstPage);
+            output.writeCompactLong(object.nextPage);
+        }
+
+        private void read00(RevisionDataInput input, GarbageQueueMetadataBuilder b) throws IOException {
+            b.name(input.readUTF());
+            b.firstPage(input.readCompactLong());
+            b.nextPage(input.readCompactLong());
+        }
+    }
+}
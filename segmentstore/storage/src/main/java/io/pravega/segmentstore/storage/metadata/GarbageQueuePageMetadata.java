@@ -0,0 +1,103 @@
+/**
+ * Copyright (c) Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.storage.metadata;
+
+import io.pravega.common.ObjectBuilder;
+import io.pravega.common.io.serialization.RevisionDataInput;
+import io.pravega.common.io.serialization.RevisionDataOutput;
+import io.pravega.common.io.serialization.VersionedSerializer;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents a page of the persistent queue of garbage chunks (see {@link GarbageQueueMetadata}).
+ * Following metadata is stored.
+ * <ul>
+ * <li>Name of the page.</li>
+ * <li>Names of the chunks to delete.</li>
+ * </ul>
+ */
+@Builder(toBuilder = true)
+@Data
+@EqualsAndHashCode(callSuper = true)
+@ThreadSafe
+public class GarbageQueuePageMetadata extends StorageMetadata {
+    /**
+     * Name of this page.
+     */
+    private final String name;
+
+    /**
+     * Names of the chunks to delete.
+     */
+    private final List<String> chunkNames;
+
+    /**
+     * Retrieves the key associated with the metadata, which is the name of the page.
+     *
+     * @return Name of the page.
+     */
+    @Override
+    public String getKey() {
+        return name;
+    }
+
+    /**
+     * Creates a deep copy of this instance.
+     *
+     * @return Deep copy of this instance.
+     */
+    @Override
+    public StorageMetadata deepCopy() {
+        return toBuilder().chunkNames(new ArrayList<>(chunkNames)).build();
+    }
+
+    /**
+     * Builder that implements {@link ObjectBuilder}.
+     */
+    public static class GarbageQueuePageMetadataBuilder implements ObjectBuilder<GarbageQueuePageMetadata> {
+    }
+
+    /**
+     * Serializer that implements {@link VersionedSerializer}.
+     */
+    public static class Serializer extends VersionedSerializer.WithBuilder<GarbageQueuePageMetadata, GarbageQueuePageMetadataBuilder> {
+        @Override
+        protected GarbageQueuePageMetadataBuilder newBuilder() {
+            return GarbageQueuePageMetadata.builder();
+        }
+
+        @Override
+        protected byte getWriteVersion() {
+            return 0;
+        }
+
+        @Override
+        protected void declareVersions() {
+            version(0).revision(0, this::write00, this::read00);
+        }
+
+        private void write00(GarbageQueuePageMetadata object, RevisionDataOutput output) throws IOException {
+            output.writeUTF(object.name);
+            output.writeCollection(object.chunkNames, RevisionDataOutput::writeUTF);
+        }
+
+        private void read00(RevisionDataInput input, GarbageQueuePageMetadataBuilder b) throws IOException {
+            b.name(input.readUTF());
+            b.chunkNames(input.readCollection(RevisionDataInput::readUTF, ArrayList::new));
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/**
+ * Copyright (c) Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.storage.metadata;
+
+import io.pravega.common.ObjectBuilder;
+import io.pravega.common.io.serialization.RevisionDataInput;
+import io.pravega.common.io.serialization.RevisionDataOutput;
+import io.pravega.common.io.serialization.VersionedSerializer;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.io.IOException;
+
+/**
+ * Represents an entry in the persistent read index of a segment.
+ * The read index of a segment is sparse: it divides the list of chunks into blocks of a fixed number of chunks and has
+ * one entry per block, which records the first chunk of that block. Entries are numbered in the order of their offsets,
+ * so a read at any offset can binary search them and then only walk the chunks of one block instead of the whole list.
+ * Following metadata is stored.
+ * <ul>
+ * <li>Name of the entry.</li>
+ * <li>Name of the first chunk of the block.</li>
+ * <li>Start offset of that chunk in the segment.</li>
+ * </ul>
+ */
+@Builder(toBuilder = true)
+@Data
+@EqualsAndHashCode(callSuper = true)
+@ThreadSafe
+public class ReadIndexBlockMetadata extends StorageMetadata {
+    /**
+     * Name of this entry.
+     */
+    private final String name;
+
+    /**
+     * Name of the first chunk of the block.
+     */
+    private final String chunkName;
+
+    /**
+     * Start offset of the chunk in the segment.
+     */
+    private final long startOffset;
+
+    /**
+     * Retrieves the key associated with the metadata, which is the name of the entry.
+     *
+     * @return Name of the entry.
+     */
+    @Override
+    public String getKey() {
+        return name;
+    }
+
+    /**
+     * Creates a deep copy of this instance.
+     *
+     * @return Deep copy of this instance.
+     */
+    @Override
+    public StorageMetadata deepCopy() {
+        return toBuilder().build();
+    }
+
+    /**
+     * Builder that implements {@link ObjectBuilder}.
+     */
+    public static class ReadIndexBlockMetadataBuilder implements ObjectBuilder<ReadIndexBlockMetadata> {
+    }
+
+    /**
+     * Serializer that implements {@link VersionedSerializer}.
+     */
+    public static class Serializer extends VersionedSerializer.WithBuilder<ReadIndexBlockMetadata, ReadIndexBlockMetadataBuilder> {
+        @Override
+        protected ReadIndexBlockMetadataBuilder newBuilder() {
+            return ReadIndexBlockMetadata.builder();
+        }
+
+        @Override
+        protected byte getWriteVersion() {
+            return 0;
+        }
+
+        @Override
+        protected void declareVersions() {
+            version(0).revision(0, this::write00, this::read00);
+        }
+
+        private void write00(ReadIndexBlockMetadata object, RevisionDataOutput output) throws IOException {
+            output.writeUTF(object.name);
+            output.writeUTF(object.chunkName);
+            output.writeCompactLong(object.startOffset);
+        }
+
+        private void read00(RevisionDataInput input, ReadIndexBlockMetadataBuilder b) throws IOException {
+            b.name(input.readUTF());
+            b.chunkName(input.readUTF());
+            b.startOffset(input.readCompactLong());
+        }
+    }
+}
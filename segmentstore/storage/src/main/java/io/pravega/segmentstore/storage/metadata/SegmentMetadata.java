@@ -39,6 +39,8 @@ import static com.google.common.base.Strings.nullToEmpty;
  *     <li>Offset corresponding to the the first byte of the first chunk.This is NOT the same as start offset of the segment.
  *      With arbitrary truncates the effective start offset might be in the middle of the first chunk. Byte at this offset may not be available for read.</li>
  *     <li>Offset of the first byte of the last chunk.</li>
+ *     <li>Range of the entries of the persistent read index (see {@link ReadIndexBlockMetadata}) and the number of chunks
+ *     in its last block.</li>
  * </ul>
  */
 @Data
@@ -134,6 +136,22 @@ public class SegmentMetadata extends StorageMetadata {
      */
     private long ownerEpoch;
 
+    /**
+     * Number of the first entry of the persistent read index that is still in use.
+     */
+    private int firstIndexBlock;
+
+    /**
+     * Number of the next entry to add to the persistent read index.
+     */
+    private int nextIndexBlock;
+
+    /**
+     * Number of chunks in the last block of the persistent read index. This includes the chunk recorded by the last entry
+     * (or the first chunk of the segment if there are no entries) and all the chunks added after it.
+     */
+    private int lastIndexBlockChunkCount;
+
     /**
      * Retrieves the key associated with the metadata, which is the name of the segment.
      *
@@ -237,6 +255,9 @@ public class SegmentMetadata extends StorageMetadata {
         Preconditions.checkState(length >= lastChunkStartOffset, "lastChunkStartOffset should not be greater than length.");
         Preconditions.checkState(firstChunkStartOffset <= lastChunkStartOffset, "lastChunkStartOffset should not be greater than firstChunkStartOffset.");
         Preconditions.checkState(chunkCount >= 0, "chunkCount should be non-negative.");
+        Preconditions.checkState(firstIndexBlock >= 0, "firstIndexBlock should be non-negative.");
+        Preconditions.checkState(firstIndexBlock <= nextIndexBlock, "firstIndexBlock should not be greater than nextIndexBlock.");
+        Preconditions.checkState(lastIndexBlockChunkCount >= 0, "lastIndexBlockChunkCount should be non-negative.");
         if (null == firstChunk) {
             Preconditions.checkState(null == lastChunk, "lastChunk must be null when firstChunk is null.");
             Preconditions.checkState(firstChunkStartOffset == startOffset, "firstChunkStartOffset must equal startOffset when firstChunk is null.");
@@ -303,7 +324,8 @@ public class SegmentMetadata extends StorageMetadata {
 
         @Override
         protected void declareVersions() {
-            version(0).revision(0, this::write00, this::read00);
+            version(0).revision(0, this::write00, this::read00)
+                      .revision(1, this::write01, this::read01);
         }
 
         private void write00(SegmentMetadata object, RevisionDataOutput output) throws IOException {
@@ -335,5 +357,17 @@ public class SegmentMetadata extends StorageMetadata {
             b.lastChunkStartOffset(input.readCompactLong());
             b.ownerEpoch(input.readCompactLong());
         }
+
+        private void write01(SegmentMetadata object, RevisionDataOutput output) throws IOException {
+            output.writeCompactInt(object.firstIndexBlock);
+            output.writeCompactInt(object.nextIndexBlock);
+            output.writeCompactInt(object.lastIndexBlockChunkCount);
+        }
+
+        private void read01(RevisionDataInput input, SegmentMetadataBuilder b) throws IOException {
+            b.firstIndexBlock(input.readCompactInt());
+            b.nextIndexBlock(input.readCompactInt());
+            b.lastIndexBlockChunkCount(input.readCompactInt());
+        }
     }
 }
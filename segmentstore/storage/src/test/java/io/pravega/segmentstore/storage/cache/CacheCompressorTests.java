@@ -0,0 +1,105 @@
+/**
+ * Copyright (c) Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.storage.cache;
+
+import io.pravega.common.util.BufferView;
+import io.pravega.common.util.ByteArraySegment;
+import io.pravega.test.common.AssertExtensions;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.zip.DataFormatException;
+import lombok.val;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link CacheCompressor} class.
+ */
+public class CacheCompressorTests {
+    /**
+     * Tests compressing and decompressing compressible data.
+     */
+    @Test
+    public void testCompressDecompress() {
+        val sb = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            sb.append(String.format("{\"id\": %d, \"name\": \"event-%d\", \"value\": %d}", i, i, i * 31));
+        }
+
+        val data = new ByteArraySegment(sb.toString().getBytes(StandardCharsets.UTF_8));
+        val compressed = CacheCompressor.compress(data);
+        Assert.assertNotNull("Expected data to be compressed.", compressed);
+        AssertExtensions.assertLessThan("Expected compressed data to be smaller.", data.getLength() / 2, compressed.getLength());
+
+        val decompressed = CacheCompressor.decompress(compressed, data.getLength());
+        Assert.assertEquals(data.getLength(), decompressed.getLength());
+        AssertExtensions.assertArrayEquals("Unexpected decompressed data.", data.array(), 0, decompressed.getCopy(), 0, data.getLength());
+    }
+
+    /**
+     * Tests the fact that data that does not compress well (or is empty) is not compressed.
+     */
+    @Test
+    public void testIncompressible() {
+        val data = new byte[64 * 1024];
+        new Random(0).nextBytes(data);
+        Assert.assertNull("Not expecting random data to be compressed.", CacheCompressor.compress(new ByteArraySegment(data)));
+        Assert.assertNull("Not expecting empty data to be compressed.", CacheCompressor.compress(BufferView.empty()));
+    }
+
+    /**
+     * Tests decompressing data that is corrupted or has an unexpected length.
+     */
+    @Test
+    public void testDecompressInvalid() {
+        val data = new ByteArraySegment(new byte[10 * 1024]);
+        val compressed = CacheCompressor.compress(data);
+        Assert.assertNotNull("Expected data to be compressed.", compressed);
+        AssertExtensions.assertThrows(
+                "Expected a length mismatch to be detected.",
+                () -> CacheCompressor.decompress(compressed, data.getLength() + 1),
+                ex -> ex instanceof CacheCorruptedException);
+        AssertExtensions.assertThrows(
+                "Expected truncated data to be detected.",
+                () -> CacheCompressor.decompress(compressed.slice(0, compressed.getLength() / 2), data.getLength()),
+                ex -> ex instanceof CacheCorruptedException);
+    }
+
+    /**
+     * Tests the {@link CacheCompressor#deflate} and {@link CacheCompressor#inflate} methods with checksums enabled.
+     */
+    @Test
+    public void testDeflateInflateWithChecksum() throws Exception {
+        final int offset = 10;
+        val data = new ByteArraySegment(new byte[10 * 1024]);
+        val output = new byte[offset + data.getLength() + 1];
+        int length = CacheCompressor.deflate(data, output, offset, data.getLength(), true);
+        AssertExtensions.assertGreaterThan("Expected data to be compressed.", 0, length);
+        Assert.assertEquals("Not expecting data to compress to a smaller maxLength.",
+                -1, CacheCompressor.deflate(data, output, offset, length - 1, true));
+
+        val compressed = new ByteArraySegment(output, offset, length);
+        val decompressed = new byte[data.getLength()];
+        CacheCompressor.inflate(compressed, decompressed, true);
+        AssertExtensions.assertArrayEquals("Unexpected decompressed data.", data.array(), 0, decompressed, 0, data.getLength());
+
+        // The zlib trailer contains a checksum; a corrupted trailer must be detected.
+        val corrupted = compressed.getCopy();
+        corrupted[corrupted.length - 1] ^= 0xFF;
+        AssertExtensions.assertThrows(
+                "Expected a checksum mismatch to be detected.",
+                () -> CacheCompressor.inflate(new ByteArraySegment(corrupted), new byte[data.getLength()], true),
+                ex -> ex instanceof DataFormatException);
+        AssertExtensions.assertThrows(
+                "Expected a length mismatch to be detected.",
+                () -> CacheCompressor.inflate(compressed, new byte[data.getLength() - 1], true),
+                ex -> ex instanceof DataFormatException);
+    }
+}
@@ -104,6 +104,71 @@ public class CacheLayoutTests {
         Assert.assertEquals(CacheLayout.NO_ADDRESS, layout().getPredecessorAddress(layout().emptyBlockMetadata()));
     }
 
+    /**
+     * Tests the {@link CacheLayout.SizeClassLayout} class for addresses and metadata.
+     */
+    @Test
+    public void testSizeClassLayout() {
+        val layouts = CacheLayout.SizeClassLayout.defaultSizeClasses();
+        for (int sizeClassId = 0; sizeClassId < layouts.size(); sizeClassId++) {
+            val layout = layouts.get(sizeClassId);
+            Assert.assertEquals("Unexpected bufferSize.", layouts.get(0).bufferSize(), layout.bufferSize());
+            Assert.assertEquals("Unexpected blocksPerBuffer.", layout.bufferSize() / layout.blockSize(), layout.blocksPerBuffer());
+            Assert.assertEquals("Unexpected metadataBlockCount.",
+                    Math.max(1, layout.blocksPerBuffer() * layout.blockMetadataSize() / layout.blockSize()), layout.metadataBlockCount());
+
+            // Addresses. We cannot exhaustively test every combination for the smaller size classes, so we only test
+            // powers of 2 and the boundaries.
+            val bufferIds = getAllOneBitNumbers(Integer.SIZE - Integer.numberOfLeadingZeros(layout.maxBufferCount() - 1));
+            bufferIds.add((long) layout.maxBufferCount() - 1);
+            for (long bufferId : bufferIds) {
+                for (int blockId = 0; blockId < layout.blocksPerBuffer(); blockId++) {
+                    int address = layout.calculateAddress((int) bufferId, blockId);
+                    Assert.assertTrue("Negative address.", address >= 0);
+                    Assert.assertEquals(sizeClassId, layout.getSizeClassId(address));
+                    Assert.assertEquals(bufferId, layout.getBufferId(address));
+                    Assert.assertEquals(blockId, layout.getBlockId(address));
+                }
+            }
+
+            // Metadata.
+            int blockIdBitCount = Integer.numberOfTrailingZeros(layout.blocksPerBuffer());
+            int lengthBitCount = Integer.numberOfTrailingZeros(layout.blockSize()) + 1;
+            for (long b : getAllOneBitNumbers(blockIdBitCount)) {
+                for (long l : getAllOneBitNumbers(lengthBitCount)) {
+                    for (long a : getAllOneBitNumbers(getAddressBitCount())) {
+                        long m = layout.newBlockMetadata((int) b, (int) l, (int) a);
+                        Assert.assertTrue(layout.isUsedBlock(m));
+                        Assert.assertEquals(b, layout.getNextFreeBlockId(m));
+                        Assert.assertEquals(l, layout.getLength(m));
+                        Assert.assertEquals((int) a, layout.getPredecessorAddress(m));
+
+                        // Update each field individually and verify the others are not affected.
+                        m = layout.setLength(m, 0);
+                        Assert.assertEquals(0, layout.getLength(m));
+                        Assert.assertEquals(b, layout.getNextFreeBlockId(m));
+                        Assert.assertEquals((int) a, layout.getPredecessorAddress(m));
+                        m = layout.setNextFreeBlockId(m, CacheLayout.NO_BLOCK_ID);
+                        Assert.assertEquals(CacheLayout.NO_BLOCK_ID, layout.getNextFreeBlockId(m));
+                        Assert.assertEquals((int) a, layout.getPredecessorAddress(m));
+                        m = layout.setPredecessorAddress(m, CacheLayout.NO_ADDRESS);
+                        Assert.assertEquals(CacheLayout.NO_ADDRESS, layout.getPredecessorAddress(m));
+                        Assert.assertTrue(layout.isUsedBlock(m));
+                    }
+                }
+            }
+
+            Assert.assertFalse(layout.isUsedBlock(layout.emptyBlockMetadata()));
+        }
+
+        AssertExtensions.assertThrows("Invalid block size.",
+                () -> new CacheLayout.SizeClassLayout(0, 1000),
+                ex -> ex instanceof IllegalArgumentException);
+        AssertExtensions.assertThrows("Invalid size class id.",
+                () -> new CacheLayout.SizeClassLayout(CacheLayout.SizeClassLayout.MAX_SIZE_CLASS_COUNT, 1024),
+                ex -> ex instanceof IllegalArgumentException);
+    }
+
     private void testMetadataField(BiFunction<CacheLayout, Long, Integer> get, TriFunction<CacheLayout, Long, Integer, Long> set, int emptyResult, int fieldBitCount) {
         Assert.assertEquals("empty", CacheLayout.NO_BLOCK_ID, (int) get.apply(layout(), layout().emptyBlockMetadata()));
         val blockMetadata = getAllOneBitNumbers(Long.SIZE);
@@ -13,6 +13,7 @@ import com.google.common.collect.Lists;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.CompositeByteBuf;
 import io.netty.buffer.UnpooledByteBufAllocator;
+import io.pravega.common.ObjectClosedException;
 import io.pravega.common.util.ArrayView;
 import io.pravega.common.util.BufferView;
 import io.pravega.common.util.ByteArraySegment;
@@ -72,6 +73,98 @@ public class DirectMemoryBufferTests {
                 ex -> ex instanceof IllegalStateException);
     }
 
+    /**
+     * Tests the {@link DirectMemoryBuffer#tryDeallocate} and {@link DirectMemoryBuffer#activate} methods.
+     */
+    @Test
+    public void testDeallocateActivate() {
+        @Cleanup
+        val b = newBuffer();
+        val detached = new ArrayList<ByteBuf>();
+
+        // Unused buffers can be deallocated (but they have no memory to give up).
+        Assert.assertTrue(b.tryDeallocate(detached::add));
+        Assert.assertTrue(b.isDeallocated());
+        Assert.assertTrue(detached.isEmpty());
+        Assert.assertFalse(b.hasCapacity());
+        Assert.assertNull("Deallocated buffer accepted a write.", b.write(new ByteArraySegment(new byte[1]), CacheLayout.NO_ADDRESS));
+        Assert.assertFalse("Deallocated buffer was deallocated again.", b.tryDeallocate(detached::add));
+
+        // Activate and write something. Non-empty buffers cannot be deallocated.
+        b.activate(null);
+        Assert.assertFalse(b.isDeallocated());
+        Assert.assertTrue(b.hasCapacity());
+        val w = b.write(new ByteArraySegment(new byte[1]), CacheLayout.NO_ADDRESS);
+        checkAllocatedMemory(LAYOUT.bufferSize());
+        Assert.assertFalse("Non-empty buffer was deallocated.", b.tryDeallocate(detached::add));
+        AssertExtensions.assertThrows("Buffer with allocated memory was activated.",
+                () -> b.activate(null),
+                ex -> ex instanceof IllegalStateException);
+
+        // Delete the data and deallocate. The memory must be detached, but not released.
+        b.delete(LAYOUT.getBlockId(w.getLastBlockAddress()));
+        Assert.assertTrue(b.tryDeallocate(detached::add));
+        Assert.assertEquals(1, detached.size());
+        checkAllocatedMemory(LAYOUT.bufferSize());
+        Assert.assertFalse(b.isAllocated());
+        Assert.assertEquals("Unexpected read from deallocated buffer.", CacheLayout.NO_ADDRESS,
+                b.read(LAYOUT.getBlockId(w.getLastBlockAddress()), new ArrayList<>()));
+
+        // Activate using the detached memory and verify we can use it again.
+        b.activate(detached.remove(0));
+        Assert.assertTrue(b.isAllocated());
+        Assert.assertEquals(LAYOUT.metadataBlockCount(), b.getUsedBlockCount());
+        val w2 = b.write(new ByteArraySegment(new byte[]{1}), CacheLayout.NO_ADDRESS);
+        checkAllocatedMemory(LAYOUT.bufferSize());
+        Assert.assertEquals(LAYOUT.metadataBlockCount(), w2.getFirstBlockId());
+        Assert.assertEquals(1, read(b, LAYOUT.getBlockId(w2.getLastBlockAddress())).getCopy()[0]);
+
+        // Closed buffers cannot be deallocated or activated.
+        b.close();
+        checkAllocatedMemory(0);
+        Assert.assertFalse(b.tryDeallocate(detached::add));
+        AssertExtensions.assertThrows("Closed buffer was activated.", () -> b.activate(null), ex -> ex instanceof ObjectClosedException);
+    }
+
+    /**
+     * Tests the ability to use layouts that require more than one metadata Block.
+     */
+    @Test
+    public void testMultipleMetadataBlocks() {
+        val layout = CacheLayout.SizeClassLayout.defaultSizeClasses().get(0);
+        Assert.assertTrue(layout.metadataBlockCount() > 1);
+        @Cleanup
+        val b = new DirectMemoryBuffer(BUFFER_ID, this.allocator, layout);
+        final byte[] toWrite = new byte[layout.bufferSize()];
+        rnd.nextBytes(toWrite);
+        final int maxUsableSize = (layout.blocksPerBuffer() - layout.metadataBlockCount()) * layout.blockSize();
+
+        // Fill up the buffer and verify the metadata blocks were not overwritten.
+        val w1 = b.write(new ByteArraySegment(toWrite, 0, 3 * layout.blockSize()), CacheLayout.NO_ADDRESS);
+        Assert.assertEquals(layout.metadataBlockCount(), w1.getFirstBlockId());
+        val w2 = b.write(new ByteArraySegment(toWrite), CacheLayout.NO_ADDRESS);
+        Assert.assertEquals(maxUsableSize - w1.getWrittenLength(), w2.getWrittenLength());
+        Assert.assertFalse(b.hasCapacity());
+        AssertExtensions.assertArrayEquals("Unexpected data.", toWrite, 0,
+                read(b, layout.getBlockId(w2.getLastBlockAddress())).getCopy(), 0, w2.getWrittenLength());
+        AssertExtensions.assertThrows("Was able to read from a metadata block.",
+                () -> b.read(layout.metadataBlockCount() - 1, new ArrayList<>()),
+                ex -> ex instanceof IllegalArgumentException);
+
+        // Delete the first entry and verify its blocks (and only those) are reused.
+        b.delete(layout.getBlockId(w1.getLastBlockAddress()));
+        val w3 = b.write(new ByteArraySegment(toWrite), CacheLayout.NO_ADDRESS);
+        Assert.assertEquals(layout.metadataBlockCount(), w3.getFirstBlockId());
+        Assert.assertEquals(w1.getWrittenLength(), w3.getWrittenLength());
+        AssertExtensions.assertArrayEquals("Unexpected data.", toWrite, 0,
+                read(b, layout.getBlockId(w2.getLastBlockAddress())).getCopy(), 0, w2.getWrittenLength());
+
+        // Delete everything and verify the buffer is clean.
+        b.delete(layout.getBlockId(w2.getLastBlockAddress()));
+        b.delete(layout.getBlockId(w3.getLastBlockAddress()));
+        Assert.assertEquals(layout.metadataBlockCount(), b.getUsedBlockCount());
+    }
+
     /**
      * Tests the ability to write.
      */
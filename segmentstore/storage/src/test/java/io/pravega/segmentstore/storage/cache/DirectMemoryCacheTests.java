@@ -11,6 +11,8 @@ package io.pravega.segmentstore.storage.cache;
 
 import io.netty.buffer.ByteBufAllocator;
 import io.netty.buffer.UnpooledByteBufAllocator;
+import io.pravega.common.concurrent.ExecutorServiceHelpers;
+import io.pravega.common.concurrent.Futures;
 import io.pravega.common.util.BufferView;
 import io.pravega.common.util.ByteArraySegment;
 import io.pravega.test.common.AssertExtensions;
@@ -18,9 +20,12 @@ import io.pravega.test.common.IntentionalException;
 import java.util.AbstractMap;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import lombok.Cleanup;
@@ -341,6 +346,236 @@ public class DirectMemoryCacheTests {
         checkData(c, address, firstWrite, 0, firstWrite.length);
     }
 
+    /**
+     * Tests the ability to place entries into Size Classes based on their length.
+     */
+    @Test
+    public void testSizeClasses() {
+        val layouts = CacheLayout.SizeClassLayout.defaultSizeClasses();
+        val largest = layouts.get(layouts.size() - 1);
+        final int maxSize = (layouts.size() + 1) * largest.bufferSize(); // One buffer for each Size Class, plus one.
+        @Cleanup
+        val c = new TestCache(layouts, maxSize);
+        Assert.assertEquals(largest.blockSize(), c.getBlockAlignment());
+
+        // Insert entries of various lengths and verify they made it into the right Size Class.
+        val lengths = new int[]{0, 1, layouts.get(0).blockSize(), layouts.get(0).blockSize() + 1, layouts.get(1).blockSize(),
+                layouts.get(1).blockSize() + 1, largest.blockSize(), 3 * largest.blockSize() + 1};
+        val expectedSizeClasses = new int[]{0, 0, 0, 1, 1, 2, 2, 2};
+        val data = new byte[3 * largest.blockSize() + 1];
+        rnd.nextBytes(data);
+        val entryData = new HashMap<Integer, Map.Entry<Integer, Integer>>();
+        for (int i = 0; i < lengths.length; i++) {
+            int address = c.insert(new ByteArraySegment(data, 0, lengths[i]));
+            Assert.assertEquals("Unexpected Size Class for length " + lengths[i], expectedSizeClasses[i], layouts.get(0).getSizeClassId(address));
+            entryData.put(address, new AbstractMap.SimpleEntry<>(0, lengths[i]));
+        }
+
+        // Appendable entries always go to the largest Size Class.
+        int appendableAddress = c.insertAppendable(new ByteArraySegment(data, 0, 1));
+        Assert.assertEquals(layouts.size() - 1, layouts.get(0).getSizeClassId(appendableAddress));
+        Assert.assertEquals(largest.blockSize() - 1, c.getAppendableLength(1));
+        Assert.assertEquals(largest.blockSize() - 1, c.getAppendableLength(appendableAddress, 1));
+        entryData.put(appendableAddress, new AbstractMap.SimpleEntry<>(0, 1));
+
+        // Appends to smaller Size Classes are bounded by their Block size.
+        for (val e : entryData.entrySet()) {
+            int address = e.getKey();
+            int length = e.getValue().getValue();
+            val layout = layouts.get(layouts.get(0).getSizeClassId(address));
+            int appendableLength = c.getAppendableLength(address, length);
+            Assert.assertEquals(length == 0 ? layout.blockSize() : (layout.blockSize() - length % layout.blockSize()) % layout.blockSize(),
+                    appendableLength);
+            AssertExtensions.assertThrows(
+                    "append() accepted input that does not fit in last block.",
+                    () -> c.append(address, length, new ByteArraySegment(data, 0, appendableLength + 1)),
+                    ex -> ex instanceof IllegalArgumentException);
+            int toAppend = Math.min(appendableLength, data.length - length);
+            Assert.assertEquals(toAppend, c.append(address, length, new ByteArraySegment(data, length, toAppend)));
+            e.getValue().setValue(length + toAppend);
+        }
+
+        checkData(c, entryData, data);
+
+        // Verify the state reflects each Size Class.
+        val state = c.getState();
+        Assert.assertEquals(layouts.size(), state.getSizeClasses().size());
+        long expectedStoredBytes = entryData.values().stream().mapToLong(Map.Entry::getValue).sum();
+        Assert.assertEquals(expectedStoredBytes, state.getStoredBytes());
+        Assert.assertEquals(expectedStoredBytes, state.getSizeClasses().stream().mapToLong(CacheState.SizeClassState::getStoredBytes).sum());
+        for (int i = 0; i < layouts.size(); i++) {
+            val s = state.getSizeClasses().get(i);
+            Assert.assertEquals(layouts.get(i).blockSize(), s.getBlockSize());
+            Assert.assertEquals(layouts.get(i).bufferSize(), s.getAllocatedBytes());
+            Assert.assertEquals(layouts.get(i).metadataBlockCount() * layouts.get(i).blockSize(), s.getReservedBytes());
+        }
+
+        // Delete everything. The smaller Size Classes hold on to their (empty) buffers.
+        entryData.keySet().forEach(c::delete);
+        Assert.assertEquals(0, c.getState().getStoredBytes());
+
+        // Fill the cache with large entries. This requires the other Size Classes to give up their empty buffers.
+        int largeEntryLength = largest.bufferSize() - largest.blockSize();
+        val largeAddresses = new ArrayList<Integer>();
+        for (int i = 0; i < maxSize / largest.bufferSize(); i++) {
+            largeAddresses.add(c.insert(new ByteArraySegment(new byte[largeEntryLength])));
+        }
+
+        checkSnapshot(c, (long) largeEntryLength * largeAddresses.size(), (long) maxSize,
+                (long) largeAddresses.size() * largest.blockSize(), (long) maxSize, (long) maxSize);
+        for (int i = 0; i < layouts.size() - 1; i++) {
+            Assert.assertEquals("Expected Size Class to have been deallocated.", 0, c.getState().getSizeClasses().get(i).getAllocatedBytes());
+        }
+
+        // The cache is full, and no Size Class can accept any data.
+        for (val layout : layouts) {
+            AssertExtensions.assertThrows(
+                    "Expected CacheFullException for block size " + layout.blockSize(),
+                    () -> c.insert(new ByteArraySegment(new byte[layout.blockSize()])),
+                    ex -> ex instanceof CacheFullException);
+        }
+
+        // Free up one large buffer and verify that the smaller Size Classes can reuse its memory (without allocating more).
+        c.delete(largeAddresses.remove(0));
+        val smallAddress = c.insert(new ByteArraySegment(data, 0, 1));
+        Assert.assertEquals(0, layouts.get(0).getSizeClassId(smallAddress));
+        checkData(c, smallAddress, data, 0, 1);
+        checkSnapshot(c, (long) largeEntryLength * largeAddresses.size() + 1, null, null, (long) maxSize, (long) maxSize);
+    }
+
+    /**
+     * Tests {@link DirectMemoryCache#getPinned} and the fact that deleting pinned entries is deferred until they are unpinned.
+     */
+    @Test
+    public void testPinnedReads() {
+        final byte[] data = new byte[3 * LAYOUT.blockSize() + 123];
+        rnd.nextBytes(data);
+        @Cleanup
+        val c = new TestCache();
+        val address = c.insert(new ByteArraySegment(data));
+        val deletedAddress = c.insert(BufferView.empty());
+        c.delete(deletedAddress);
+        Assert.assertNull("Not expecting a pinned read for a deleted address.", c.getPinned(deletedAddress));
+
+        // Pin and unpin, without deleting.
+        val p1 = c.getPinned(address);
+        Assert.assertArrayEquals("Unexpected pinned data.", data, p1.getCopy());
+        p1.release();
+        checkData(c, address, data, 0, data.length);
+        checkSnapshot(c, (long) data.length, null, null, null, null);
+
+        // Pin (twice), then delete. Verify the memory is not reused while pinned.
+        val p2 = c.getPinned(address);
+        val p3 = c.getPinned(address).slice(1, data.length - 2);
+        c.delete(address);
+        checkSnapshot(c, (long) data.length, null, null, null, null);
+        val otherData = new byte[data.length];
+        rnd.nextBytes(otherData);
+        val otherAddress = c.insert(new ByteArraySegment(otherData));
+        Assert.assertNotEquals("Pinned address reused.", address, otherAddress);
+        Assert.assertArrayEquals("Pinned data changed after deletion.", data, p2.getCopy());
+        AssertExtensions.assertArrayEquals("Pinned slice changed after deletion.", data, 1, p3.getCopy(), 0, data.length - 2);
+
+        // Releasing one pin should not be enough to delete it.
+        p2.release();
+        checkSnapshot(c, 2L * data.length, null, null, null, null);
+        AssertExtensions.assertArrayEquals("Pinned slice changed after partial unpin.", data, 1, p3.getCopy(), 0, data.length - 2);
+
+        // Releasing the last one (via a slice) should delete it.
+        p3.release();
+        checkSnapshot(c, (long) data.length, null, null, null, null);
+        Assert.assertNull("Not expecting a deleted entry to be readable.", c.get(address));
+        checkData(c, otherAddress, otherData, 0, otherData.length);
+        c.delete(otherAddress);
+        checkSnapshot(c, 0L, null, null, null, null);
+    }
+
+    /**
+     * Tests {@link DirectMemoryCache#getPinned} concurrently with {@link DirectMemoryCache#delete} on the same entry. If
+     * the pin wins, the deletion must be deferred until it is released; otherwise there must be nothing left to pin.
+     */
+    @Test
+    public void testPinConcurrentWithDelete() {
+        final int iterations = 1000;
+        final byte[] data = new byte[2 * LAYOUT.blockSize() + 123];
+        final byte[] otherData = new byte[data.length];
+        rnd.nextBytes(data);
+        rnd.nextBytes(otherData);
+        val executor = ExecutorServiceHelpers.newScheduledThreadPool(2, "cache-test");
+        try {
+            @Cleanup
+            val c = new TestCache();
+            for (int i = 0; i < iterations; i++) {
+                val address = c.insert(new ByteArraySegment(data));
+                val pin = CompletableFuture.supplyAsync(() -> c.getPinned(address), executor);
+                val delete = CompletableFuture.runAsync(() -> c.delete(address), executor);
+                delete.join();
+                val pinned = pin.join();
+
+                // Attempt to reuse the deleted entry's memory.
+                val otherAddress = c.insert(new ByteArraySegment(otherData));
+                if (pinned != null) {
+                    Assert.assertArrayEquals("Pinned data changed after concurrent deletion.", data, pinned.getCopy());
+                    checkSnapshot(c, 2L * data.length, null, null, null, null);
+                    pinned.release();
+                }
+
+                checkSnapshot(c, (long) otherData.length, null, null, null, null);
+                checkData(c, otherAddress, otherData, 0, otherData.length);
+                c.delete(otherAddress);
+            }
+
+            checkSnapshot(c, 0L, null, null, null, null);
+        } finally {
+            ExecutorServiceHelpers.shutdown(executor);
+        }
+    }
+
+    /**
+     * Tests the ability to execute operations concurrently from multiple threads, using multiple Stripes.
+     */
+    @Test
+    public void testConcurrentOperations() {
+        final int threadCount = 8;
+        final int stripeCount = 4;
+        final int iterationsPerThread = 500;
+        final byte[] data = new byte[3 * LAYOUT.blockSize()];
+        rnd.nextBytes(data);
+        val executor = ExecutorServiceHelpers.newScheduledThreadPool(threadCount, "cache-test");
+        try {
+            @Cleanup
+            val c = new TestCache(Collections.singletonList(LAYOUT), REQUESTED_MAX_SIZE, stripeCount);
+            val futures = new ArrayList<CompletableFuture<Void>>();
+            for (int t = 0; t < threadCount; t++) {
+                final Random threadRandom = new Random(t);
+                futures.add(CompletableFuture.runAsync(() -> {
+                    val entryData = new HashMap<Integer, Map.Entry<Integer, Integer>>();
+                    for (int i = 0; i < iterationsPerThread; i++) {
+                        if (entryData.isEmpty() || threadRandom.nextBoolean()) {
+                            int offset = threadRandom.nextInt(data.length / 2);
+                            int length = threadRandom.nextInt(data.length - offset);
+                            int address = c.insert(new ByteArraySegment(data, offset, length));
+                            Assert.assertNull("Address reused while still in use.", entryData.put(address, new AbstractMap.SimpleEntry<>(offset, length)));
+                            checkData(c, address, data, offset, length);
+                        } else {
+                            int address = entryData.keySet().iterator().next();
+                            c.delete(address);
+                            entryData.remove(address);
+                        }
+                    }
+
+                    checkData(c, entryData, data);
+                    entryData.keySet().forEach(c::delete);
+                }, executor));
+            }
+
+            Futures.allOf(futures).join();
+            checkSnapshot(c, 0L, null, null, null, null);
+        } finally {
+            ExecutorServiceHelpers.shutdown(executor);
+        }
+    }
+
     private void checkData(TestCache c, HashMap<Integer, Map.Entry<Integer, Integer>> entryData, byte[] data) {
         for (val e : entryData.entrySet()) {
             int address = e.getKey();
@@ -386,6 +621,14 @@ public class DirectMemoryCacheTests {
             super(LAYOUT, requestedMaxSize);
         }
 
+        TestCache(List<CacheLayout> layouts, long requestedMaxSize) {
+            super(layouts, requestedMaxSize);
+        }
+
+        TestCache(List<CacheLayout> layouts, long requestedMaxSize, int maxStripeCount) {
+            super(layouts, requestedMaxSize, maxStripeCount);
+        }
+
         @Override
         public void close() {
             super.close();
@@ -0,0 +1,284 @@
+/**
+ * Copyright (c) Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.storage.cache;
+
+import io.pravega.common.io.FileHelpers;
+import io.pravega.common.util.ByteArraySegment;
+import io.pravega.test.common.AssertExtensions;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.Cleanup;
+import lombok.val;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link TieredCache} class.
+ */
+public class TieredCacheTests {
+    private static final CacheLayout LAYOUT = new CacheLayout.DefaultLayout();
+    private static final long MEMORY_SIZE = 2 * LAYOUT.bufferSize();
+    private static final long LOCAL_SIZE = 8 * LAYOUT.bufferSize();
+    private static final int ENTRY_LENGTH = 64 * 1024;
+    private final Random rnd = new Random(0);
+
+    /**
+     * Tests the ability to demote entries when the memory tier is full and promote them back when read.
+     */
+    @Test
+    public void testDemotePromote() {
+        @Cleanup
+        val memory = new DirectMemoryCache(LAYOUT, MEMORY_SIZE);
+        @Cleanup
+        val local = new DirectMemoryCache(LAYOUT, LOCAL_SIZE);
+        @Cleanup
+        val c = new TieredCache(memory, local, null);
+        val upstreamCalls = new AtomicInteger();
+        c.setCacheFullCallback(() -> {
+            upstreamCalls.incrementAndGet();
+            return false;
+        }, 0);
+
+        // Insert more than the memory tier can hold. Nothing should be evicted.
+        val data = new byte[ENTRY_LENGTH];
+        rnd.nextBytes(data);
+        val addresses = new ArrayList<Integer>();
+        int entryCount = (int) (2 * MEMORY_SIZE / ENTRY_LENGTH);
+        for (int i = 0; i < entryCount; i++) {
+            addresses.add(c.insert(new ByteArraySegment(data, 0, ENTRY_LENGTH - i)));
+        }
+
+        Assert.assertEquals("Not expecting upstream callback to be invoked.", 0, upstreamCalls.get());
+        Assert.assertTrue("Expected some entries to be demoted.", local.getState().getStoredBytes() > 0);
+        long totalLength = (long) entryCount * ENTRY_LENGTH - (long) entryCount * (entryCount - 1) / 2;
+        Assert.assertEquals(totalLength, c.getState().getStoredBytes());
+        Assert.assertEquals(MEMORY_SIZE + LOCAL_SIZE, c.getState().getMaxBytes());
+
+        // Delete the last entry (which must be in the memory tier) to make room for a promotion without a demotion.
+        int lastLength = ENTRY_LENGTH - (entryCount - 1);
+        c.delete(addresses.remove(entryCount - 1));
+        totalLength -= lastLength;
+
+        // Reading the first entry (which must have been demoted) should promote it.
+        long localStoredBytes = local.getState().getStoredBytes();
+        checkData(c, addresses.get(0), data, ENTRY_LENGTH);
+        Assert.assertEquals("Expected entry to be promoted.", localStoredBytes - ENTRY_LENGTH, local.getState().getStoredBytes());
+
+        // Verify all data is still there and is correct.
+        for (int i = 0; i < addresses.size(); i++) {
+            checkData(c, addresses.get(i), data, ENTRY_LENGTH - i);
+        }
+
+        Assert.assertEquals(totalLength, c.getState().getStoredBytes());
+
+        // Delete everything, regardless of the tier it is in.
+        addresses.forEach(c::delete);
+        Assert.assertEquals(0, c.getState().getStoredBytes());
+        Assert.assertEquals(0, local.getState().getStoredBytes());
+        for (int address : addresses) {
+            Assert.assertNull(c.get(address));
+        }
+    }
+
+    /**
+     * Tests that concurrent (pinned) reads always see the correct data while entries are being demoted and promoted.
+     */
+    @Test
+    public void testConcurrentReads() throws Exception {
+        @Cleanup
+        val memory = new DirectMemoryCache(LAYOUT, MEMORY_SIZE);
+        @Cleanup
+        val local = new DirectMemoryCache(LAYOUT, LOCAL_SIZE);
+        @Cleanup
+        val c = new TieredCache(memory, local, null);
+        int entryCount = (int) (2 * MEMORY_SIZE / ENTRY_LENGTH);
+        val contents = new ArrayList<byte[]>();
+        val addresses = new ArrayList<Integer>();
+        for (int i = 0; i < entryCount; i++) {
+            val data = new byte[ENTRY_LENGTH];
+            rnd.nextBytes(data);
+            contents.add(data);
+            addresses.add(c.insert(new ByteArraySegment(data)));
+        }
+
+        val failure = new AtomicReference<Throwable>();
+        val threads = new ArrayList<Thread>();
+        for (int t = 0; t < 4; t++) {
+            val threadRnd = new Random(t);
+            threads.add(new Thread(() -> {
+                try {
+                    for (int i = 0; i < 100 * entryCount; i++) {
+                        int index = threadRnd.nextInt(entryCount);
+                        checkPinnedData(c, addresses.get(index), contents.get(index), ENTRY_LENGTH);
+                    }
+                } catch (Throwable ex) {
+                    failure.compareAndSet(null, ex);
+                }
+            }));
+        }
+
+        threads.forEach(Thread::start);
+        for (val t : threads) {
+            t.join();
+        }
+
+        Assert.assertNull("Unexpected failure while reading.", failure.get());
+        Assert.assertEquals((long) entryCount * ENTRY_LENGTH, c.getState().getStoredBytes());
+    }
+
+    /**
+     * Tests the ability to append to entries, regardless of the tier they are in.
+     */
+    @Test
+    public void testAppend() {
+        @Cleanup
+        val memory = new DirectMemoryCache(LAYOUT, MEMORY_SIZE);
+        @Cleanup
+        val local = new DirectMemoryCache(LAYOUT, LOCAL_SIZE);
+        @Cleanup
+        val c = new TieredCache(memory, local, null);
+        val data = new byte[ENTRY_LENGTH];
+        rnd.nextBytes(data);
+
+        int appendable = c.insertAppendable(new ByteArraySegment(data, 0, 1));
+        Assert.assertEquals(LAYOUT.blockSize() - 1, c.getAppendableLength(appendable, 1));
+
+        // Fill up the memory tier. The appendable entry is not accessed, so it will be demoted at some point.
+        for (int i = 0; i < 2 * MEMORY_SIZE / ENTRY_LENGTH; i++) {
+            c.insert(new ByteArraySegment(data));
+        }
+
+        Assert.assertTrue("Expected some entries to be demoted.", local.getState().getStoredBytes() > 0);
+        int appended = c.append(appendable, 1, new ByteArraySegment(data, 1, 10));
+        Assert.assertEquals(10, appended);
+        checkData(c, appendable, data, 11);
+        AssertExtensions.assertThrows(
+                "append() accepted an incorrect length.",
+                () -> c.append(appendable, 1, new ByteArraySegment(data, 1, 10)),
+                ex -> ex instanceof IncorrectCacheEntryLengthException);
+
+        c.delete(appendable);
+        AssertExtensions.assertThrows(
+                "append() worked on a deleted entry.",
+                () -> c.append(appendable, 11, new ByteArraySegment(data, 11, 1)),
+                ex -> ex instanceof IllegalArgumentException);
+    }
+
+    /**
+     * Tests the behavior when both tiers are full.
+     */
+    @Test
+    public void testFull() {
+        @Cleanup
+        val memory = new DirectMemoryCache(LAYOUT, MEMORY_SIZE);
+        @Cleanup
+        val local = new DirectMemoryCache(LAYOUT, MEMORY_SIZE);
+        @Cleanup
+        val c = new TieredCache(memory, local, null);
+        val upstreamCalls = new AtomicInteger();
+        c.setCacheFullCallback(() -> {
+            upstreamCalls.incrementAndGet();
+            return false;
+        }, 0);
+
+        val data = new ByteArraySegment(new byte[ENTRY_LENGTH]);
+        AssertExtensions.assertThrows(
+                "Expected cache to be full.",
+                () -> {
+                    while (true) {
+                        c.insert(data);
+                    }
+                },
+                ex -> ex instanceof CacheFullException);
+        Assert.assertTrue("Expected upstream callback to be invoked.", upstreamCalls.get() > 0);
+    }
+
+    /**
+     * Tests that {@link TieredCache#get} returns views into the memory tier rather than copies, and that views returned by
+     * {@link TieredCache#getPinned} remain valid after their entries have been demoted and the memory tier has been reused.
+     */
+    @Test
+    public void testViewsAcrossDemotion() {
+        @Cleanup
+        val memory = new DirectMemoryCache(LAYOUT, MEMORY_SIZE);
+        @Cleanup
+        val local = new DirectMemoryCache(LAYOUT, LOCAL_SIZE);
+        @Cleanup
+        val c = new TieredCache(memory, local, null);
+
+        val data = new byte[ENTRY_LENGTH];
+        rnd.nextBytes(data);
+        int address = c.insert(new ByteArraySegment(data));
+        val view = c.get(address);
+        Assert.assertFalse("Not expecting a copy for a memory tier entry.", view instanceof ByteArraySegment);
+        AssertExtensions.assertArrayEquals("Unexpected data in view.", data, 0, view.getCopy(), 0, ENTRY_LENGTH);
+        val pinnedView = c.getPinned(address);
+
+        // The reads above marked the entry as referenced; the first pass only clears that flag, the second demotes it.
+        Assert.assertTrue("Expected the entry to be demoted.", c.demote());
+        Assert.assertEquals("Expected the entry to be in the local tier.", ENTRY_LENGTH, local.getState().getStoredBytes());
+
+        // Overwrite as much of the memory tier as we can with different data.
+        val otherData = new byte[ENTRY_LENGTH];
+        rnd.nextBytes(otherData);
+        for (int i = 0; i < MEMORY_SIZE / ENTRY_LENGTH / 2; i++) {
+            c.insert(new ByteArraySegment(otherData));
+        }
+
+        AssertExtensions.assertArrayEquals("Unexpected data in pinned view after demotion.", data, 0, pinnedView.getCopy(), 0, ENTRY_LENGTH);
+        pinnedView.release();
+        checkData(c, address, data, ENTRY_LENGTH);
+    }
+
+    /**
+     * Tests the {@link TieredCache} with a local tier backed by a memory-mapped file.
+     */
+    @Test
+    public void testMappedFile() throws Exception {
+        File dir = Files.createTempDirectory("tiered-cache").toFile();
+        try {
+            val data = new byte[ENTRY_LENGTH];
+            rnd.nextBytes(data);
+            val addresses = new ArrayList<Integer>();
+            try (val c = new TieredCache(MEMORY_SIZE, dir.toPath(), LOCAL_SIZE)) {
+                Assert.assertEquals("Expected local tier file to be created.", 1, dir.listFiles().length);
+                for (int i = 0; i < 2 * MEMORY_SIZE / ENTRY_LENGTH; i++) {
+                    addresses.add(c.insert(new ByteArraySegment(data)));
+                }
+
+                for (int address : addresses) {
+                    checkData(c, address, data, ENTRY_LENGTH);
+                }
+            }
+
+            Assert.assertEquals("Expected local tier file to be deleted.", 0, dir.listFiles().length);
+        } finally {
+            FileHelpers.deleteFileOrDirectory(dir);
+        }
+    }
+
+    private void checkData(TieredCache c, int address, byte[] data, int length) {
+        val r = c.get(address).getCopy();
+        AssertExtensions.assertArrayEquals("Unexpected data read for address " + address, data, 0, r, 0, length);
+    }
+
+    private void checkPinnedData(TieredCache c, int address, byte[] data, int length) {
+        val view = c.getPinned(address);
+        try {
+            AssertExtensions.assertArrayEquals("Unexpected data read for address " + address, data, 0, view.getCopy(), 0, length);
+        } finally {
+            view.release();
+        }
+    }
+}
@@ -0,0 +1,330 @@
+/**
+ * Copyright (c) Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.storage.chunklayer;
+
+import io.pravega.common.ObjectClosedException;
+import io.pravega.common.io.FileHelpers;
+import io.pravega.segmentstore.storage.mocks.InMemoryChunkStorage;
+import io.pravega.test.common.AssertExtensions;
+import io.pravega.test.common.ThreadPooledTestSuite;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import lombok.Cleanup;
+import lombok.val;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Unit tests for the {@link CachingChunkStorage} class.
+ */
+public class CachingChunkStorageTests extends ThreadPooledTestSuite {
+    private static final int DATA_LENGTH = 100;
+    private final Random rnd = new Random(0);
+    private File cacheDirectory;
+
+    @Override
+    protected int getThreadPoolSize() {
+        return 2;
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        this.cacheDirectory = Files.createTempDirectory("chunk-cache").toFile();
+    }
+
+    @After
+    public void tearDown() {
+        FileHelpers.deleteFileOrDirectory(this.cacheDirectory);
+    }
+
+    /**
+     * Tests that data that was read once is served from the cache afterwards, both for the same range and for ranges
+     * contained within it.
+     */
+    @Test
+    public void testReadFromCache() throws Exception {
+        val inner = spy(new InMemoryChunkStorage());
+        @Cleanup
+        val s = new CachingChunkStorage(inner, this.cacheDirectory.toPath(), 1024, executorService());
+        val data = createChunk(s, "chunk");
+
+        checkRead(s, "chunk", 0, DATA_LENGTH, data);
+        verify(inner, times(1)).doRead(any(), anyLong(), anyInt(), any(), anyInt());
+        Assert.assertEquals(DATA_LENGTH, s.getCacheSize());
+
+        checkRead(s, "chunk", 0, DATA_LENGTH, data);
+        checkRead(s, "chunk", 10, 20, data);
+        s.readAsync(ChunkHandle.readHandle("chunk"), 0, DATA_LENGTH, new byte[DATA_LENGTH], 0).join();
+        verify(inner, times(1)).doRead(any(), anyLong(), anyInt(), any(), anyInt());
+
+        // Appends do not affect cached data, but ranges that are not fully cached must go to the underlying storage.
+        s.write(ChunkHandle.writeHandle("chunk"), DATA_LENGTH, 1, new ByteArrayInputStream(new byte[1]));
+        checkRead(s, "chunk", 0, DATA_LENGTH, data);
+        verify(inner, times(1)).doRead(any(), anyLong(), anyInt(), any(), anyInt());
+        checkRead(s, "chunk", 0, DATA_LENGTH + 1, null);
+        verify(inner, times(2)).doRead(any(), anyLong(), anyInt(), any(), anyInt());
+    }
+
+    /**
+     * Tests that caching a range replaces the cached ranges it contains, so that reads covered by it are not missed
+     * because a shorter range starts closer to them.
+     */
+    @Test
+    public void testOverlappingRanges() throws Exception {
+        val inner = spy(new InMemoryChunkStorage());
+        @Cleanup
+        val s = new CachingChunkStorage(inner, this.cacheDirectory.toPath(), 1024, executorService());
+        val data = createChunk(s, "chunk");
+
+        checkRead(s, "chunk", 40, 10, data);
+        checkRead(s, "chunk", 0, DATA_LENGTH, data);
+        verify(inner, times(2)).doRead(any(), anyLong(), anyInt(), any(), anyInt());
+        Assert.assertEquals(DATA_LENGTH, s.getCacheSize());
+        Assert.assertEquals(1, getCachedFiles().size());
+
+        // Both of these start after the shorter range did, and are only contained in the longer one.
+        checkRead(s, "chunk", 45, 20, data);
+        checkRead(s, "chunk", 60, 10, data);
+        verify(inner, times(2)).doRead(any(), anyLong(), anyInt(), any(), anyInt());
+        Assert.assertEquals(DATA_LENGTH, s.getCacheSize());
+    }
+
+    /**
+     * Tests that cached data is discarded when the chunk is deleted, truncated or overwritten.
+     */
+    @Test
+    public void testInvalidation() throws Exception {
+        @Cleanup
+        val s = new CachingChunkStorage(new InMemoryChunkStorage(), this.cacheDirectory.toPath(), 1024, executorService());
+
+        // Delete and re-create.
+        createChunk(s, "chunk");
+        checkRead(s, "chunk", 0, DATA_LENGTH, null);
+        s.delete(ChunkHandle.writeHandle("chunk"));
+        Assert.assertEquals(0, s.getCacheSize());
+        val newData = createChunk(s, "chunk");
+        checkRead(s, "chunk", 0, DATA_LENGTH, newData);
+
+        // Truncate and re-write the truncated part.
+        s.truncate(ChunkHandle.writeHandle("chunk"), DATA_LENGTH / 2);
+        Assert.assertEquals(0, s.getCacheSize());
+        val rewritten = newData.clone();
+        for (int i = DATA_LENGTH / 2; i < DATA_LENGTH; i++) {
+            rewritten[i] = (byte) ~rewritten[i];
+        }
+        s.write(ChunkHandle.writeHandle("chunk"), DATA_LENGTH / 2, DATA_LENGTH / 2,
+                new ByteArrayInputStream(rewritten, DATA_LENGTH / 2, DATA_LENGTH / 2));
+        checkRead(s, "chunk", 0, DATA_LENGTH, rewritten);
+        Assert.assertEquals(DATA_LENGTH, s.getCacheSize());
+
+        // Clear everything.
+        s.clear();
+        Assert.assertEquals(0, s.getCacheSize());
+        Assert.assertEquals(0, getCachedFiles().size());
+    }
+
+    /**
+     * Tests that the least recently used data is evicted once the cache is full.
+     */
+    @Test
+    public void testEviction() throws Exception {
+        val inner = spy(new InMemoryChunkStorage());
+        @Cleanup
+        val s = new CachingChunkStorage(inner, this.cacheDirectory.toPath(), 2 * DATA_LENGTH, executorService());
+        val a = createChunk(s, "a");
+        val b = createChunk(s, "b");
+        val c = createChunk(s, "c");
+        checkRead(s, "a", 0, DATA_LENGTH, a);
+        checkRead(s, "b", 0, DATA_LENGTH, b);
+        checkRead(s, "a", 0, DATA_LENGTH, a); // Makes "b" the least recently used.
+        checkRead(s, "c", 0, DATA_LENGTH, c);
+        Assert.assertEquals(2 * DATA_LENGTH, s.getCacheSize());
+        Assert.assertEquals(2, getCachedFiles().size());
+        verify(inner, times(3)).doRead(any(), anyLong(), anyInt(), any(), anyInt());
+
+        // "a" and "c" are cached, "b" is not.
+        checkRead(s, "a", 0, DATA_LENGTH, a);
+        checkRead(s, "c", 0, DATA_LENGTH, c);
+        verify(inner, times(3)).doRead(any(), anyLong(), anyInt(), any(), anyInt());
+        checkRead(s, "b", 0, DATA_LENGTH, b);
+        verify(inner, times(4)).doRead(any(), anyLong(), anyInt(), any(), anyInt());
+        Assert.assertEquals(2 * DATA_LENGTH, s.getCacheSize());
+    }
+
+    /**
+     * Tests that corrupted cached data is detected, discarded and read from the underlying storage instead.
+     */
+    @Test
+    public void testCorruptedCache() throws Exception {
+        val inner = spy(new InMemoryChunkStorage());
+        @Cleanup
+        val s = new CachingChunkStorage(inner, this.cacheDirectory.toPath(), 1024, executorService());
+        val data = createChunk(s, "chunk");
+        checkRead(s, "chunk", 0, DATA_LENGTH, data);
+
+        val cachedFiles = getCachedFiles();
+        Assert.assertEquals(1, cachedFiles.size());
+        val corrupted = data.clone();
+        corrupted[0] = (byte) ~corrupted[0];
+        Files.write(cachedFiles.get(0), corrupted);
+
+        checkRead(s, "chunk", 0, DATA_LENGTH, data);
+        verify(inner, times(2)).doRead(any(), anyLong(), anyInt(), any(), anyInt());
+
+        // The data should have been re-cached.
+        checkRead(s, "chunk", 0, DATA_LENGTH, data);
+        verify(inner, times(2)).doRead(any(), anyLong(), anyInt(), any(), anyInt());
+    }
+
+    /**
+     * Tests that a read only validates the checksum blocks it overlaps, so that corruption elsewhere in a cached range does
+     * not affect it, while reads that overlap a corrupted block are served by the underlying ChunkStorage.
+     */
+    @Test
+    public void testCorruptedBlock() throws Exception {
+        val inner = spy(new InMemoryChunkStorage());
+        @Cleanup
+        val s = new CachingChunkStorage(inner, this.cacheDirectory.toPath(), 1024, 10, executorService());
+        val data = createChunk(s, "chunk");
+        checkRead(s, "chunk", 0, DATA_LENGTH, data);
+
+        // Corrupt the last block only.
+        val cachedFiles = getCachedFiles();
+        Assert.assertEquals(1, cachedFiles.size());
+        val corrupted = data.clone();
+        corrupted[DATA_LENGTH - 5] = (byte) ~corrupted[DATA_LENGTH - 5];
+        Files.write(cachedFiles.get(0), corrupted);
+
+        // Reads of other blocks (including ones that span block boundaries) are still served from the cache.
+        checkRead(s, "chunk", 0, 10, data);
+        checkRead(s, "chunk", 15, 30, data);
+        checkRead(s, "chunk", 85, 5, data);
+        verify(inner, times(1)).doRead(any(), anyLong(), anyInt(), any(), anyInt());
+
+        // A read that overlaps the corrupted block is not.
+        checkRead(s, "chunk", 85, 10, data);
+        verify(inner, times(2)).doRead(any(), anyLong(), anyInt(), any(), anyInt());
+    }
+
+    /**
+     * Tests that async reads only touch the cache files on the executor, both when reading from the cache and when adding
+     * to it.
+     */
+    @Test
+    public void testReadAsync() throws Exception {
+        val inner = spy(new InMemoryChunkStorage());
+        val executions = new AtomicInteger();
+        Executor executor = task -> {
+            executions.incrementAndGet();
+            executorService().execute(task);
+        };
+        @Cleanup
+        val s = new CachingChunkStorage(inner, this.cacheDirectory.toPath(), 1024, executor);
+        val data = createChunk(s, "chunk");
+
+        // Not cached yet: the data is added to the cache on the executor.
+        val buffer = new byte[DATA_LENGTH];
+        Assert.assertEquals(DATA_LENGTH, (int) s.readAsync(ChunkHandle.readHandle("chunk"), 0, DATA_LENGTH, buffer, 0).join());
+        Assert.assertArrayEquals(data, buffer);
+        Assert.assertEquals(1, executions.get());
+        Assert.assertEquals(DATA_LENGTH, s.getCacheSize());
+
+        // Cached: the data is read from the cache on the executor.
+        val buffer2 = new byte[DATA_LENGTH];
+        Assert.assertEquals(DATA_LENGTH, (int) s.readAsync(ChunkHandle.readHandle("chunk"), 0, DATA_LENGTH, buffer2, 0).join());
+        Assert.assertArrayEquals(data, buffer2);
+        Assert.assertEquals(2, executions.get());
+        verify(inner, times(1)).doRead(any(), anyLong(), anyInt(), any(), anyInt());
+    }
+
+    /**
+     * Tests that a new instance cleans up what previous processes left behind, but not what other live instances use, and
+     * that close() removes all cached data.
+     */
+    @Test
+    public void testCleanup() throws Exception {
+        // Left behind by a process that is no longer running (or by something else entirely).
+        val leftover = Files.createDirectories(this.cacheDirectory.toPath().resolve("leftover"));
+        Files.write(leftover.resolve("1"), new byte[1]);
+
+        val s1 = new CachingChunkStorage(new InMemoryChunkStorage(), this.cacheDirectory.toPath(), 1024, executorService());
+        Assert.assertFalse(Files.exists(leftover));
+        createChunk(s1, "chunk");
+        checkRead(s1, "chunk", 0, DATA_LENGTH, null);
+        Assert.assertEquals(1, getCachedFiles().size());
+
+        @Cleanup
+        val s2 = new CachingChunkStorage(new InMemoryChunkStorage(), this.cacheDirectory.toPath(), 1024, executorService());
+        Assert.assertEquals("A new instance deleted the data of a live one.", 1, getCachedFiles().size());
+
+        createChunk(s2, "chunk");
+        checkRead(s2, "chunk", 0, DATA_LENGTH, null);
+        Assert.assertEquals(2, getCachedFiles().size());
+        s1.close();
+        s2.close();
+        Assert.assertEquals(0, this.cacheDirectory.listFiles().length);
+        AssertExtensions.assertThrows(
+                "read() worked after close.",
+                () -> s2.read(ChunkHandle.readHandle("chunk"), 0, 1, new byte[1], 0),
+                ex -> ex instanceof ObjectClosedException);
+    }
+
+    private byte[] createChunk(ChunkStorage s, String chunkName) throws Exception {
+        val data = new byte[DATA_LENGTH];
+        this.rnd.nextBytes(data);
+        val handle = s.create(chunkName);
+        s.write(handle, 0, data.length, new ByteArrayInputStream(data));
+        return data;
+    }
+
+    private void checkRead(ChunkStorage s, String chunkName, long offset, int length, byte[] expected) throws Exception {
+        val buffer = new byte[length + 1];
+        int bytesRead = s.read(ChunkHandle.readHandle(chunkName), offset, length, buffer, 1);
+        Assert.assertEquals(length, bytesRead);
+        if (null != expected) {
+            for (int i = 0; i < length; i++) {
+                Assert.assertEquals("Unexpected data at offset " + (offset + i), expected[(int) offset + i], buffer[i + 1]);
+            }
+        }
+    }
+
+    private List<Path> getCachedFiles() throws Exception {
+        try (Stream<Path> paths = Files.walk(this.cacheDirectory.toPath())) {
+            return paths.filter(Files::isRegularFile).collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * {@link ChunkStorageTests} tests for {@link CachingChunkStorage} wrapping an {@link InMemoryChunkStorage}.
+     */
+    public static class CachingInMemoryChunkStorageTests extends ChunkStorageTests {
+        @Override
+        protected ChunkStorage createChunkStorage() throws Exception {
+            return new CachingChunkStorage(new InMemoryChunkStorage(), Files.createTempDirectory("chunk-cache"), 1024, executorService());
+        }
+    }
+}
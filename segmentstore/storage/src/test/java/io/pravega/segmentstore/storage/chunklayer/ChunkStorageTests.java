@@ -119,6 +119,57 @@ public abstract class ChunkStorageTests extends ThreadPooledTestSuite {
         chunkStorage.delete(chunkHandle);
     }
 
+    /**
+     * Test the asynchronous variants of the chunk lifecycle, read and write operations.
+     */
+    @Test
+    public void testAsyncReadWrite() throws Exception {
+        String chunkName = "testchunk";
+        assertFalse(chunkStorage.existsAsync(chunkName).join());
+
+        // Create.
+        ChunkHandle chunkHandle = chunkStorage.createAsync(chunkName).join();
+        assertEquals(chunkName, chunkHandle.getChunkName());
+        assertEquals(false, chunkHandle.isReadOnly());
+        assertTrue(chunkStorage.existsAsync(chunkName).join());
+
+        // Write.
+        byte[] writeBuffer = new byte[10];
+        populate(writeBuffer);
+        int bytesWritten = chunkStorage.writeAsync(chunkHandle, 0, writeBuffer.length, new ByteArrayInputStream(writeBuffer)).join();
+        assertEquals(writeBuffer.length, bytesWritten);
+        assertEquals(writeBuffer.length, chunkStorage.getInfoAsync(chunkName).join().getLength());
+
+        // Read back, both in full and in part.
+        ChunkHandle readHandle = chunkStorage.openReadAsync(chunkName).join();
+        assertEquals(true, readHandle.isReadOnly());
+        byte[] readBuffer = new byte[writeBuffer.length];
+        int bytesRead = chunkStorage.readAsync(readHandle, 0, writeBuffer.length, readBuffer, 0).join();
+        assertEquals(writeBuffer.length, bytesRead);
+        assertArrayEquals(writeBuffer, readBuffer);
+
+        byte[] partialBuffer = new byte[writeBuffer.length];
+        bytesRead = chunkStorage.readAsync(readHandle, 3, 5, partialBuffer, 2).join();
+        assertEquals(5, bytesRead);
+        for (int i = 0; i < bytesRead; i++) {
+            assertEquals(writeBuffer[3 + i], partialBuffer[2 + i]);
+        }
+
+        // Invalid arguments are reported via the returned future.
+        AssertExtensions.assertSuppliedFutureThrows(
+                "readAsync should fail.",
+                () -> chunkStorage.readAsync(readHandle, -1, 0, readBuffer, 0),
+                ex -> ex instanceof IllegalArgumentException);
+        AssertExtensions.assertSuppliedFutureThrows(
+                "writeAsync should fail.",
+                () -> chunkStorage.writeAsync(chunkHandle, -1, 0, new ByteArrayInputStream(writeBuffer)),
+                ex -> ex instanceof IllegalArgumentException);
+
+        // Delete.
+        chunkStorage.deleteAsync(chunkStorage.openWriteAsync(chunkName).join()).join();
+        assertFalse(chunkStorage.existsAsync(chunkName).join());
+    }
+
     /**
      * Test consecutive reads.
      */
@@ -30,6 +30,14 @@ public class ChunkedSegmentStorageConfigTests {
         props.setProperty(ChunkedSegmentStorageConfig.MAX_INDEXED_CHUNKS.getFullName(ChunkedSegmentStorageConfig.COMPONENT_CODE), "5");
         props.setProperty(ChunkedSegmentStorageConfig.MAX_INDEXED_CHUNKS_PER_SEGMENTS.getFullName(ChunkedSegmentStorageConfig.COMPONENT_CODE), "6");
         props.setProperty(ChunkedSegmentStorageConfig.DEFAULT_ROLLOVER_SIZE.getFullName(ChunkedSegmentStorageConfig.COMPONENT_CODE), "7");
+        props.setProperty(ChunkedSegmentStorageConfig.GARBAGE_COLLECTION_ENABLED.getFullName(ChunkedSegmentStorageConfig.COMPONENT_CODE), "true");
+        props.setProperty(ChunkedSegmentStorageConfig.GARBAGE_COLLECTION_BATCH_SIZE.getFullName(ChunkedSegmentStorageConfig.COMPONENT_CODE), "8");
+        props.setProperty(ChunkedSegmentStorageConfig.GARBAGE_COLLECTION_DELETE_RATE.getFullName(ChunkedSegmentStorageConfig.COMPONENT_CODE), "9");
+        props.setProperty(ChunkedSegmentStorageConfig.METADATA_WRITE_BATCHING_ENABLED.getFullName(ChunkedSegmentStorageConfig.COMPONENT_CODE), "true");
+        props.setProperty(ChunkedSegmentStorageConfig.READ_INDEX_BLOCK_CHUNKS.getFullName(ChunkedSegmentStorageConfig.COMPONENT_CODE), "11");
+        props.setProperty(ChunkedSegmentStorageConfig.LOCAL_CACHE_ENABLED.getFullName(ChunkedSegmentStorageConfig.COMPONENT_CODE), "true");
+        props.setProperty(ChunkedSegmentStorageConfig.LOCAL_CACHE_PATH.getFullName(ChunkedSegmentStorageConfig.COMPONENT_CODE), "/cache");
+        props.setProperty(ChunkedSegmentStorageConfig.LOCAL_CACHE_SIZE.getFullName(ChunkedSegmentStorageConfig.COMPONENT_CODE), "12");
 
         TypedProperties typedProperties = new TypedProperties(props, "storage");
         ChunkedSegmentStorageConfig config = new ChunkedSegmentStorageConfig(typedProperties);
@@ -41,6 +49,14 @@ public class ChunkedSegmentStorageConfigTests {
         Assert.assertEquals(config.getMaxIndexedChunks(), 5);
         Assert.assertEquals(config.getMaxIndexedChunksPerSegment(), 6);
         Assert.assertEquals(config.getDefaultRollingPolicy().getMaxLength(), 7);
+        Assert.assertTrue(config.isGarbageCollectionEnabled());
+        Assert.assertEquals(config.getGarbageCollectionMaxBatchSize(), 8);
+        Assert.assertEquals(config.getGarbageCollectionMaxDeleteRate(), 9);
+        Assert.assertTrue(config.isMetadataWriteBatchingEnabled());
+        Assert.assertEquals(config.getIndexBlockChunkCount(), 11);
+        Assert.assertTrue(config.isLocalCacheEnabled());
+        Assert.assertEquals(config.getLocalCachePath(), "/cache");
+        Assert.assertEquals(config.getLocalCacheMaxSize(), 12);
     }
 
     @Test
@@ -57,5 +73,13 @@ public class ChunkedSegmentStorageConfigTests {
         Assert.assertEquals(config.getMaxIndexedChunks(), ChunkedSegmentStorageConfig.DEFAULT_CONFIG.getMaxIndexedChunks());
         Assert.assertEquals(config.getMaxIndexedChunksPerSegment(), ChunkedSegmentStorageConfig.DEFAULT_CONFIG.getMaxIndexedChunksPerSegment());
         Assert.assertEquals(config.getDefaultRollingPolicy().getMaxLength(), ChunkedSegmentStorageConfig.DEFAULT_CONFIG.getDefaultRollingPolicy().getMaxLength());
+        Assert.assertEquals(config.isGarbageCollectionEnabled(), ChunkedSegmentStorageConfig.DEFAULT_CONFIG.isGarbageCollectionEnabled());
+        Assert.assertEquals(config.getGarbageCollectionMaxBatchSize(), ChunkedSegmentStorageConfig.DEFAULT_CONFIG.getGarbageCollectionMaxBatchSize());
+        Assert.assertEquals(config.getGarbageCollectionMaxDeleteRate(), ChunkedSegmentStorageConfig.DEFAULT_CONFIG.getGarbageCollectionMaxDeleteRate());
+        Assert.assertEquals(config.isMetadataWriteBatchingEnabled(), ChunkedSegmentStorageConfig.DEFAULT_CONFIG.isMetadataWriteBatchingEnabled());
+        Assert.assertEquals(config.getIndexBlockChunkCount(), ChunkedSegmentStorageConfig.DEFAULT_CONFIG.getIndexBlockChunkCount());
+        Assert.assertEquals(config.isLocalCacheEnabled(), ChunkedSegmentStorageConfig.DEFAULT_CONFIG.isLocalCacheEnabled());
+        Assert.assertEquals(config.getLocalCachePath(), ChunkedSegmentStorageConfig.DEFAULT_CONFIG.getLocalCachePath());
+        Assert.assertEquals(config.getLocalCacheMaxSize(), ChunkedSegmentStorageConfig.DEFAULT_CONFIG.getLocalCacheMaxSize());
     }
 }
@@ -74,12 +74,12 @@ public class ChunkedSegmentStorageMockTests extends ThreadPooledTestSuite {
 
         Assert.assertEquals(h1.getSegmentName(), testSegmentName);
         Assert.assertFalse(h1.isReadOnly());
-        storageManager.write(h1, 0, new ByteArrayInputStream(new byte[10]), 10, null);
+        storageManager.write(h1, 0, new ByteArrayInputStream(new byte[10]), 10, null).join();
 
         // Step 2: Increase epoch.
         storageManager.initialize(2);
         val h2 = storageManager.create(concatSegmentName, policy, null).get();
-        storageManager.write(h2, 0, new ByteArrayInputStream(new byte[10]), 10, null);
+        storageManager.write(h2, 0, new ByteArrayInputStream(new byte[10]), 10, null).join();
         storageManager.seal(h2, null);
 
         // Capture segment layout information, so that we can check that after aborted operation it is still unchanged.
@@ -189,12 +189,12 @@ public class ChunkedSegmentStorageMockTests extends ThreadPooledTestSuite {
 
         Assert.assertEquals(h1.getSegmentName(), testSegmentName);
         Assert.assertFalse(h1.isReadOnly());
-        storageManager.write(h1, 0, new ByteArrayInputStream(new byte[10]), 10, null);
+        storageManager.write(h1, 0, new ByteArrayInputStream(new byte[10]), 10, null).join();
 
         // Step 2: Increase epoch.
         storageManager.initialize(2);
         val h2 = storageManager.create(concatSegmentName, policy, null).get();
-        storageManager.write(h2, 0, new ByteArrayInputStream(new byte[10]), 10, null);
+        storageManager.write(h2, 0, new ByteArrayInputStream(new byte[10]), 10, null).join();
         storageManager.seal(h2, null);
 
         // Step 3: Inject fault.
@@ -275,7 +275,7 @@ public class ChunkedSegmentStorageMockTests extends ThreadPooledTestSuite {
 
         Assert.assertEquals(h1.getSegmentName(), testSegmentName);
         Assert.assertFalse(h1.isReadOnly());
-        storageManager.write(h1, 0, new ByteArrayInputStream(new byte[10]), 10, null);
+        storageManager.write(h1, 0, new ByteArrayInputStream(new byte[10]), 10, null).join();
 
         // Step 2: Inject fault.
         Exception exceptionToThrow = new ChunkStorageException("test", "Test Exception", new IOException("Test Exception"));
@@ -304,7 +304,7 @@ public class ChunkedSegmentStorageMockTests extends ThreadPooledTestSuite {
 
         // Step 1: Create segment and write some data.
         val h1 = storageManager.create(testSegmentName, policy, null).get();
-        storageManager.write(h1, 0, new ByteArrayInputStream(new byte[10]), 10, null);
+        storageManager.write(h1, 0, new ByteArrayInputStream(new byte[10]), 10, null).join();
 
         Assert.assertEquals(h1.getSegmentName(), testSegmentName);
         Assert.assertFalse(h1.isReadOnly());
@@ -330,7 +330,7 @@ public class ChunkedSegmentStorageMockTests extends ThreadPooledTestSuite {
 
         // Step 1: Create segment and write some data.
         val h1 = storageManager.create(testSegmentName, policy, null).get();
-        storageManager.write(h1, 0, new ByteArrayInputStream(new byte[10]), 10, null);
+        storageManager.write(h1, 0, new ByteArrayInputStream(new byte[10]), 10, null).join();
 
         Assert.assertEquals(h1.getSegmentName(), testSegmentName);
         Assert.assertFalse(h1.isReadOnly());
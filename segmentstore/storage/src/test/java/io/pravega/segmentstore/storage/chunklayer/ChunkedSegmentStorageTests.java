@@ -24,10 +24,12 @@ import io.pravega.segmentstore.storage.metadata.ChunkMetadata;
 import io.pravega.segmentstore.storage.metadata.ChunkMetadataStore;
 import io.pravega.segmentstore.storage.metadata.SegmentMetadata;
 import io.pravega.segmentstore.storage.mocks.AbstractInMemoryChunkStorage;
+import io.pravega.segmentstore.storage.mocks.InMemoryChunkStorage;
 import io.pravega.segmentstore.storage.mocks.InMemoryMetadataStore;
 import io.pravega.segmentstore.storage.noop.NoOpChunkStorage;
 import io.pravega.test.common.AssertExtensions;
 import io.pravega.test.common.ThreadPooledTestSuite;
+import lombok.Cleanup;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
@@ -43,6 +45,7 @@ import java.time.Duration;
 import java.util.ArrayList;
 import java.util.UUID;
 import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Unit tests for {@link ChunkedSegmentStorage}.
@@ -52,6 +55,7 @@ import java.util.concurrent.Executor;
 @Slf4j
 public class ChunkedSegmentStorageTests extends ThreadPooledTestSuite {
     protected static final Duration TIMEOUT = Duration.ofSeconds(3000);
+    private static final Duration GARBAGE_COLLECTION_TIMEOUT = Duration.ofSeconds(30);
     private static final int CONTAINER_ID = 42;
     private static final int OWNER_EPOCH = 100;
 
@@ -654,6 +658,83 @@ public class ChunkedSegmentStorageTests extends ThreadPooledTestSuite {
                 ex -> ex instanceof ArrayIndexOutOfBoundsException);
     }
 
+    /**
+     * Tests that the persistent read index is maintained by write, concat, truncate and delete, and that reads at any
+     * offset work when the read index cache is empty.
+     *
+     * @throws Exception Exception if any.
+     */
+    @Test
+    public void testReadIndexBlocks() throws Exception {
+        final int blockChunkCount = 2;
+        String targetSegmentName = "target";
+        String sourceSegmentName = "source";
+        val config = ChunkedSegmentStorageConfig.DEFAULT_CONFIG.toBuilder()
+                .indexBlockChunkCount(blockChunkCount)
+                .build();
+        TestContext testContext = getTestContext(config);
+
+        // Write using writes of varying sizes. Every blockChunkCount-th chunk after the first one starts a new block.
+        val h1 = testContext.storageManager.create(targetSegmentName, new SegmentRollingPolicy(3), null).get();
+        long writeAt = 0;
+        for (int i = 1; i <= 10; i++) {
+            testContext.storageManager.write(h1, writeAt, new ByteArrayInputStream(new byte[i]), i, null).join();
+            writeAt += i;
+        }
+        val afterWrite = TestUtils.getSegmentMetadata(testContext.metadataStore, targetSegmentName);
+        Assert.assertEquals(0, afterWrite.getFirstIndexBlock());
+        Assert.assertEquals((afterWrite.getChunkCount() - 1) / blockChunkCount, afterWrite.getNextIndexBlock());
+        TestUtils.checkReadIndexEntries(testContext.metadataStore, targetSegmentName);
+
+        // Concat. The entries of the source segment should be moved to the target.
+        val h2 = populateSegment(testContext, sourceSegmentName, 4, 6);
+        val source = TestUtils.getSegmentMetadata(testContext.metadataStore, sourceSegmentName);
+        Assert.assertEquals(2, source.getNextIndexBlock());
+        testContext.storageManager.seal(h2, null).join();
+        testContext.storageManager.concat(h1, writeAt, sourceSegmentName, null).join();
+        long length = writeAt + 24;
+        TestUtils.checkSegmentBounds(testContext.metadataStore, targetSegmentName, 0, length);
+        TestUtils.checkReadIndexEntries(testContext.metadataStore, targetSegmentName);
+        TestUtils.checkNoReadIndexEntries(testContext.metadataStore, sourceSegmentName, 0, source.getNextIndexBlock());
+        checkReadAtEveryOffset(testContext, targetSegmentName, 0, length, blockChunkCount);
+
+        // Truncate. Entries for chunks that are truncated away should be deleted.
+        testContext.storageManager.truncate(h1, 33, null).join();
+        val afterTruncate = TestUtils.getSegmentMetadata(testContext.metadataStore, targetSegmentName);
+        Assert.assertTrue("Expected entries to be deleted.", afterTruncate.getFirstIndexBlock() > 0);
+        TestUtils.checkReadIndexEntries(testContext.metadataStore, targetSegmentName);
+        checkReadAtEveryOffset(testContext, targetSegmentName, 33, length, blockChunkCount);
+
+        // Delete.
+        testContext.storageManager.delete(h1, null).join();
+        TestUtils.checkNoReadIndexEntries(testContext.metadataStore, targetSegmentName, 0, afterTruncate.getNextIndexBlock());
+    }
+
+    /**
+     * Reads every offset in the given range using a new {@link ChunkedSegmentStorage} instance, so that the chunks can
+     * only be found using the persistent read index. The read index cache is cleared before each read, so the entries it
+     * has afterwards are the ones visited by that read: these must not be more than the chunks in one block.
+     */
+    private void checkReadAtEveryOffset(TestContext testContext, String segmentName, long startOffset, long length,
+                                        int blockChunkCount) throws Exception {
+        @Cleanup
+        val storageManager = new ChunkedSegmentStorage(testContext.storageProvider, testContext.metadataStore, executorService(), testContext.config);
+        storageManager.initialize(1);
+        val h = storageManager.openRead(segmentName).get();
+        byte[] output = new byte[1];
+        for (long offset = startOffset; offset < length; offset++) {
+            storageManager.getReadIndexCache().remove(segmentName);
+            Assert.assertEquals(1, (int) storageManager.read(h, offset, output, 0, 1, null).get());
+            AssertExtensions.assertLessThanOrEqual("Expected to scan at most one block for offset " + offset,
+                    blockChunkCount, storageManager.getReadIndexCache().getTotalChunksCount());
+
+            // Reading again is served by the cached chunk.
+            int cachedCount = storageManager.getReadIndexCache().getTotalChunksCount();
+            Assert.assertEquals(1, (int) storageManager.read(h, offset, output, 0, 1, null).get());
+            Assert.assertEquals(cachedCount, storageManager.getReadIndexCache().getTotalChunksCount());
+        }
+    }
+
     /**
      * Test Write.
      *
@@ -1278,6 +1359,111 @@ public class ChunkedSegmentStorageTests extends ThreadPooledTestSuite {
                 new long[]{25});
     }
 
+    /**
+     * Tests that, with garbage collection enabled, bootstrap creates the garbage collector and that chunks freed by
+     * truncate and delete are deleted in the background.
+     *
+     * @throws Exception Exception if any.
+     */
+    @Test
+    public void testGarbageCollection() throws Exception {
+        String testSegmentName = "foo";
+        val config = ChunkedSegmentStorageConfig.DEFAULT_CONFIG.toBuilder()
+                .garbageCollectionEnabled(true)
+                .build();
+        val storageProvider = createChunkStorageProvider();
+        val metadataStore = createMetadataStore();
+        @Cleanup
+        val storageManager = new ChunkedSegmentStorage(storageProvider, executorService(), config);
+        storageManager.initialize(1);
+        storageManager.bootstrap(CONTAINER_ID, metadataStore);
+
+        // Write 10 bytes, one chunk for every 2 bytes.
+        val h = storageManager.create(testSegmentName, new SegmentRollingPolicy(2), null).get();
+        storageManager.write(h, 0, new ByteArrayInputStream(new byte[10]), 10, null).join();
+        val chunks = TestUtils.getChunkList(metadataStore, testSegmentName);
+        Assert.assertEquals(5, chunks.size());
+
+        // Truncate away the first two chunks.
+        storageManager.truncate(h, 4, null).join();
+        for (val chunk : chunks.subList(0, 2)) {
+            awaitChunkDeleted(storageProvider, chunk.getName());
+        }
+
+        for (val chunk : chunks.subList(2, chunks.size())) {
+            Assert.assertTrue("Expected chunk to remain: " + chunk.getName(), storageProvider.exists(chunk.getName()));
+        }
+
+        // Delete the segment.
+        storageManager.delete(h, null).join();
+        for (val chunk : chunks) {
+            awaitChunkDeleted(storageProvider, chunk.getName());
+        }
+    }
+
+    /**
+     * Tests that chunks freed by a delete are deleted after a restart, if the Segment Store crashed after the segment
+     * was deleted but before the garbage collector got to run.
+     *
+     * @throws Exception Exception if any.
+     */
+    @Test
+    public void testGarbageCollectionAfterCrash() throws Exception {
+        String testSegmentName = "foo";
+        val config = ChunkedSegmentStorageConfig.DEFAULT_CONFIG.toBuilder()
+                .garbageCollectionEnabled(true)
+                .build();
+        val storageProvider = new InMemoryChunkStorage();
+        val metadataStoreBeforeCrash = new InMemoryMetadataStore();
+
+        // Stop running any tasks (including garbage collector runs) after the delete itself.
+        val acceptedTasks = new AtomicInteger(Integer.MAX_VALUE);
+        Executor executor = task -> {
+            if (acceptedTasks.getAndDecrement() > 0) {
+                executorService().execute(task);
+            }
+        };
+
+        val storageManager1 = new ChunkedSegmentStorage(storageProvider, executor, config);
+        storageManager1.initialize(1);
+        storageManager1.bootstrap(CONTAINER_ID, metadataStoreBeforeCrash);
+
+        // Write 10 bytes, one chunk for every 2 bytes.
+        val h = storageManager1.create(testSegmentName, new SegmentRollingPolicy(2), null).get();
+        storageManager1.write(h, 0, new ByteArrayInputStream(new byte[10]), 10, null).join();
+        val chunks = TestUtils.getChunkList(metadataStoreBeforeCrash, testSegmentName);
+        Assert.assertEquals(5, chunks.size());
+
+        acceptedTasks.set(1);
+        storageManager1.delete(h, null).join();
+
+        // Crash.
+        val metadataStoreAfterCrash = InMemoryMetadataStore.clone(metadataStoreBeforeCrash);
+        storageManager1.close();
+        for (val chunk : chunks) {
+            Assert.assertTrue("Expected chunk to remain: " + chunk.getName(), storageProvider.exists(chunk.getName()));
+        }
+
+        // Restart.
+        @Cleanup
+        val storageManager2 = new ChunkedSegmentStorage(storageProvider, executorService(), config);
+        storageManager2.initialize(2);
+        storageManager2.bootstrap(CONTAINER_ID, metadataStoreAfterCrash);
+        for (val chunk : chunks) {
+            awaitChunkDeleted(storageProvider, chunk.getName());
+        }
+    }
+
+    private void awaitChunkDeleted(ChunkStorage chunkStorage, String chunkName) throws Exception {
+        io.pravega.test.common.TestUtils.await(() -> {
+            try {
+                return !chunkStorage.exists(chunkName);
+            } catch (ChunkStorageException ex) {
+                throw new RuntimeException(ex);
+            }
+        }, 10, GARBAGE_COLLECTION_TIMEOUT.toMillis());
+    }
+
     @Test
     public void testSimpleTruncate() throws Exception {
         testTruncate(1, 5, 10, 5, 10);
@@ -0,0 +1,342 @@
+/**
+ * Copyright (c) Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.storage.chunklayer;
+
+import io.pravega.common.ObjectClosedException;
+import io.pravega.segmentstore.storage.metadata.ChunkMetadataStore;
+import io.pravega.segmentstore.storage.metadata.GarbageQueueMetadata;
+import io.pravega.segmentstore.storage.mocks.InMemoryChunkStorage;
+import io.pravega.segmentstore.storage.mocks.InMemoryMetadataStore;
+import io.pravega.test.common.AssertExtensions;
+import io.pravega.test.common.ThreadPooledTestSuite;
+import lombok.Cleanup;
+import lombok.val;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.spy;
+
+/**
+ * Unit tests for the {@link GarbageCollector} class.
+ */
+public class GarbageCollectorTests extends ThreadPooledTestSuite {
+    private static final int CONTAINER_ID = 42;
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(TIMEOUT.getSeconds());
+
+    @Override
+    protected int getThreadPoolSize() {
+        return 3;
+    }
+
+    /**
+     * Tests that added chunks are deleted in the background, in batches, and that the persisted queue is emptied.
+     */
+    @Test
+    public void testDelete() throws Exception {
+        val config = getConfig(3, 1000);
+        @Cleanup
+        val chunkStorage = new InMemoryChunkStorage();
+        @Cleanup
+        val metadataStore = new InMemoryMetadataStore();
+        @Cleanup
+        val gc = new GarbageCollector(CONTAINER_ID, chunkStorage, metadataStore, config, executorService());
+        gc.initialize();
+
+        val chunks = createChunks(chunkStorage, 10);
+        gc.addChunks(chunks.subList(0, 5));
+        gc.addChunks(chunks.subList(5, chunks.size()));
+        gc.addChunks(Collections.singletonList("nonExistentChunk"));
+        await(() -> gc.getQueueSize() == 0);
+        for (val chunk : chunks) {
+            Assert.assertFalse("Expected chunk to be deleted: " + chunk, chunkStorage.exists(chunk));
+        }
+
+        // Wait for the persisted queue to be emptied as well.
+        await(() -> isPersistedQueueEmpty(metadataStore));
+    }
+
+    /**
+     * Tests that chunks that were queued but not deleted when the GarbageCollector was closed are deleted by a new
+     * instance.
+     */
+    @Test
+    public void testRecovery() throws Exception {
+        // Delete one chunk per second, so that we have time to close it before all chunks are deleted.
+        val config = getConfig(1, 1);
+        @Cleanup
+        val chunkStorage = new InMemoryChunkStorage();
+        @Cleanup
+        val metadataStore = new InMemoryMetadataStore();
+        val chunks = createChunks(chunkStorage, 5);
+        val gc1 = new GarbageCollector(CONTAINER_ID, chunkStorage, metadataStore, config, executorService());
+        gc1.initialize();
+        gc1.addChunks(chunks);
+        await(() -> gc1.getQueueSize() < chunks.size());
+        gc1.close();
+        Assert.assertTrue("Not expecting all chunks to be deleted.", chunks.stream().anyMatch(c -> exists(chunkStorage, c)));
+        Assert.assertFalse("Not expecting the persisted queue to be empty.", isPersistedQueueEmpty(metadataStore));
+        AssertExtensions.assertThrows(
+                "addChunks() worked after close.",
+                () -> gc1.addChunks(chunks),
+                ex -> ex instanceof ObjectClosedException);
+
+        // A new instance should pick up where the previous one left off.
+        @Cleanup
+        val gc2 = new GarbageCollector(CONTAINER_ID, chunkStorage, metadataStore, getConfig(10, 1000), executorService());
+        gc2.initialize();
+        await(() -> chunks.stream().noneMatch(c -> exists(chunkStorage, c)));
+        await(() -> gc2.getQueueSize() == 0 && isPersistedQueueEmpty(metadataStore));
+    }
+
+    /**
+     * Tests that chunks added as part of a transaction are deleted by a new instance if the previous one was closed
+     * (crashed) after the transaction was committed but before it was notified about it, and that chunks added as part
+     * of a transaction that was not committed are not deleted. Uses more pages than are reserved at a time.
+     */
+    @Test
+    public void testRecoveryAfterCommit() throws Exception {
+        val config = getConfig(10, 1000);
+        @Cleanup
+        val chunkStorage = new InMemoryChunkStorage();
+        @Cleanup
+        val metadataStore = new InMemoryMetadataStore();
+        val chunks = createChunks(chunkStorage, GarbageCollector.RESERVED_PAGE_COUNT + 10);
+        val committedChunks = chunks.subList(0, GarbageCollector.RESERVED_PAGE_COUNT + 5);
+        val abortedChunks = chunks.subList(committedChunks.size(), chunks.size());
+        val gc1 = new GarbageCollector(CONTAINER_ID, chunkStorage, metadataStore, config, executorService());
+        gc1.initialize();
+        for (val chunk : committedChunks) {
+            try (val txn = metadataStore.beginTransaction()) {
+                gc1.addChunks(txn, Collections.singletonList(chunk));
+                txn.commit();
+            }
+        }
+
+        try (val txn = metadataStore.beginTransaction()) {
+            long pageNumber = gc1.addChunks(txn, abortedChunks);
+            txn.abort();
+            gc1.pageAborted(pageNumber);
+        }
+
+        // Crash before being notified about any commits.
+        gc1.close();
+        Assert.assertEquals("Not expecting any chunks to be queued in memory.", 0, gc1.getQueueSize());
+        Assert.assertTrue("Not expecting any chunks to be deleted.", chunks.stream().allMatch(c -> exists(chunkStorage, c)));
+        Assert.assertFalse("Expecting the committed chunks to be in the persisted queue.", isPersistedQueueEmpty(metadataStore));
+
+        // A new instance should find the committed pages.
+        @Cleanup
+        val gc2 = new GarbageCollector(CONTAINER_ID, chunkStorage, metadataStore, config, executorService());
+        gc2.initialize();
+        await(() -> committedChunks.stream().noneMatch(c -> exists(chunkStorage, c)));
+        await(() -> gc2.getQueueSize() == 0 && isPersistedQueueEmpty(metadataStore));
+        Assert.assertTrue("Not expecting the aborted chunks to be deleted.", abortedChunks.stream().allMatch(c -> exists(chunkStorage, c)));
+
+        // Pages committed to the new instance are deleted as well.
+        try (val txn = metadataStore.beginTransaction()) {
+            long pageNumber = gc2.addChunks(txn, abortedChunks);
+            txn.commit();
+            gc2.pageCommitted(pageNumber, abortedChunks);
+        }
+
+        await(() -> abortedChunks.stream().noneMatch(c -> exists(chunkStorage, c)));
+        await(() -> gc2.getQueueSize() == 0 && isPersistedQueueEmpty(metadataStore));
+    }
+
+    /**
+     * Tests that chunks are deleted in batches of at most the configured size.
+     */
+    @Test
+    public void testBatchSize() throws Exception {
+        val config = getConfig(3, 1000);
+        @Cleanup
+        val chunkStorage = spy(new InMemoryChunkStorage());
+        val batchSizes = Collections.synchronizedList(new ArrayList<Integer>());
+        doAnswer(invocation -> {
+            List<String> chunkNames = invocation.getArgument(0);
+            batchSizes.add(chunkNames.size());
+            return invocation.callRealMethod();
+        }).when(chunkStorage).doBatchDelete(any());
+        @Cleanup
+        val metadataStore = new InMemoryMetadataStore();
+        @Cleanup
+        val gc = new GarbageCollector(CONTAINER_ID, chunkStorage, metadataStore, config, executorService());
+
+        gc.initialize();
+
+        // Add all the chunks at once, so that they all end up in the same page.
+        val chunks = createChunks(chunkStorage, 10);
+        gc.addChunks(chunks);
+        await(() -> gc.getQueueSize() == 0);
+        Assert.assertEquals("Unexpected batch sizes.", List.of(3, 3, 3, 1), batchSizes);
+    }
+
+    /**
+     * Tests that no more than the configured number of chunks are deleted per second.
+     */
+    @Test
+    public void testRateLimit() throws Exception {
+        // Two chunks per batch and ten chunks per second, so batches should be at least 200ms apart.
+        val config = getConfig(2, 10);
+        long minIntervalNanos = TimeUnit.MILLISECONDS.toNanos(200);
+        @Cleanup
+        val chunkStorage = spy(new InMemoryChunkStorage());
+        val batchTimes = Collections.synchronizedList(new ArrayList<Long>());
+        doAnswer(invocation -> {
+            batchTimes.add(System.nanoTime());
+            return invocation.callRealMethod();
+        }).when(chunkStorage).doBatchDelete(any());
+        @Cleanup
+        val metadataStore = new InMemoryMetadataStore();
+        @Cleanup
+        val gc = new GarbageCollector(CONTAINER_ID, chunkStorage, metadataStore, config, executorService());
+
+        gc.initialize();
+
+        val chunks = createChunks(chunkStorage, 6);
+        gc.addChunks(chunks);
+        await(() -> gc.getQueueSize() == 0);
+        Assert.assertEquals("Unexpected number of batches.", 3, batchTimes.size());
+        for (int i = 1; i < batchTimes.size(); i++) {
+            AssertExtensions.assertGreaterThanOrEqual("Batches were deleted too close to each other.",
+                    minIntervalNanos, batchTimes.get(i) - batchTimes.get(i - 1));
+        }
+    }
+
+    /**
+     * Tests that chunks that could not be deleted are retried.
+     */
+    @Test
+    public void testDeleteFailure() throws Exception {
+        val config = getConfig(10, 1000);
+        @Cleanup
+        val chunkStorage = spy(new InMemoryChunkStorage());
+        doThrow(new ChunkStorageException("chunk", "intentional"))
+                .doCallRealMethod()
+                .when(chunkStorage).doBatchDelete(any());
+        @Cleanup
+        val metadataStore = new InMemoryMetadataStore();
+        @Cleanup
+        val gc = new GarbageCollector(CONTAINER_ID, chunkStorage, metadataStore, config, executorService());
+        gc.initialize();
+
+        val chunks = createChunks(chunkStorage, 3);
+        gc.addChunks(chunks);
+        await(() -> gc.getQueueSize() == 0);
+        for (val chunk : chunks) {
+            Assert.assertFalse("Expected chunk to be deleted: " + chunk, chunkStorage.exists(chunk));
+        }
+
+        await(() -> isPersistedQueueEmpty(metadataStore));
+    }
+
+    /**
+     * Tests that a chunk that can never be deleted does not prevent the other chunks in its batch from being deleted, and
+     * that it is dropped from the queue after a limited number of attempts.
+     */
+    @Test
+    public void testPermanentDeleteFailure() throws Exception {
+        val config = getConfig(10, 1000);
+        val badChunk = "chunk1";
+        val badChunkAttempts = new AtomicInteger();
+        @Cleanup
+        val chunkStorage = spy(new InMemoryChunkStorage());
+        doAnswer(invocation -> {
+            List<String> chunkNames = invocation.getArgument(0);
+            if (chunkNames.contains(badChunk)) {
+                if (chunkNames.size() == 1) {
+                    badChunkAttempts.incrementAndGet();
+                }
+                throw new ChunkStorageException(badChunk, "intentional");
+            }
+            return invocation.callRealMethod();
+        }).when(chunkStorage).doBatchDelete(any());
+        @Cleanup
+        val metadataStore = new InMemoryMetadataStore();
+        @Cleanup
+        val gc = new GarbageCollector(CONTAINER_ID, chunkStorage, metadataStore, config, executorService());
+        gc.initialize();
+
+        val chunks = createChunks(chunkStorage, 5);
+        gc.addChunks(chunks);
+        await(() -> gc.getQueueSize() == 0);
+        for (val chunk : chunks) {
+            Assert.assertEquals("Unexpected state for chunk " + chunk, chunk.equals(badChunk), chunkStorage.exists(chunk));
+        }
+
+        Assert.assertEquals("Unexpected number of attempts to delete the failing chunk on its own.",
+                3, badChunkAttempts.get());
+        await(() -> isPersistedQueueEmpty(metadataStore));
+    }
+
+    private ChunkedSegmentStorageConfig getConfig(int maxBatchSize, int maxDeleteRate) {
+        return ChunkedSegmentStorageConfig.DEFAULT_CONFIG.toBuilder()
+                .garbageCollectionEnabled(true)
+                .garbageCollectionMaxBatchSize(maxBatchSize)
+                .garbageCollectionMaxDeleteRate(maxDeleteRate)
+                .build();
+    }
+
+    private List<String> createChunks(ChunkStorage chunkStorage, int count) throws Exception {
+        val result = new ArrayList<String>();
+        for (int i = 0; i < count; i++) {
+            String chunkName = "chunk" + i;
+            chunkStorage.create(chunkName);
+            result.add(chunkName);
+        }
+
+        return result;
+    }
+
+    private boolean exists(ChunkStorage chunkStorage, String chunkName) {
+        try {
+            return chunkStorage.exists(chunkName);
+        } catch (ChunkStorageException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    private boolean isPersistedQueueEmpty(ChunkMetadataStore metadataStore) {
+        String queueName = String.format("_system/containers/storage_metadata_%d/garbage", CONTAINER_ID);
+        try (val txn = metadataStore.beginTransaction()) {
+            val head = (GarbageQueueMetadata) txn.get(queueName);
+            if (head != null) {
+                for (long pageNumber = head.getFirstPage(); pageNumber < head.getNextPage(); pageNumber++) {
+                    if (txn.get(String.format("%s/page_%d", queueName, pageNumber)) != null) {
+                        return false;
+                    }
+                }
+            }
+
+            return true;
+        } catch (Exception ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    private void await(Supplier<Boolean> condition) throws Exception {
+        io.pravega.test.common.TestUtils.await(condition, 10, TIMEOUT.toMillis());
+    }
+}
@@ -11,12 +11,14 @@ package io.pravega.segmentstore.storage.chunklayer;
 
 import io.pravega.segmentstore.storage.metadata.ChunkMetadata;
 import io.pravega.segmentstore.storage.metadata.ChunkMetadataStore;
+import io.pravega.segmentstore.storage.metadata.ReadIndexBlockMetadata;
 import io.pravega.segmentstore.storage.metadata.SegmentMetadata;
 import io.pravega.segmentstore.storage.metadata.StorageMetadata;
 import lombok.val;
 import org.junit.Assert;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 
 /**
@@ -174,6 +176,54 @@ public class TestUtils {
         }
     }
 
+    /**
+     * Checks that every entry of the persistent read index of the given segment points to a chunk of the segment at the
+     * correct offset, that the entries are ordered by offset and that there are no entries outside of the valid range.
+     *
+     * @param metadataStore Metadata store to query.
+     * @param segmentName   Name of the segment.
+     * @throws Exception Exceptions are thrown in case of any errors.
+     */
+    public static void checkReadIndexEntries(ChunkMetadataStore metadataStore, String segmentName) throws Exception {
+        val segmentMetadata = getSegmentMetadata(metadataStore, segmentName);
+        Assert.assertNotNull(segmentMetadata);
+        val chunkList = getChunkList(metadataStore, segmentName);
+        val chunkStartOffsets = new HashMap<String, Long>();
+        long chunkStartOffset = segmentMetadata.getFirstChunkStartOffset();
+        for (val chunk : chunkList) {
+            chunkStartOffsets.put(chunk.getName(), chunkStartOffset);
+            chunkStartOffset += chunk.getLength();
+        }
+
+        long previousStartOffset = segmentMetadata.getFirstChunkStartOffset() - 1;
+        for (int i = segmentMetadata.getFirstIndexBlock(); i < segmentMetadata.getNextIndexBlock(); i++) {
+            val blockEntry = (ReadIndexBlockMetadata) get(metadataStore, ChunkedSegmentStorage.getReadIndexBlockName(segmentName, i));
+            Assert.assertNotNull("Expected an entry for block " + i, blockEntry);
+            Assert.assertEquals("Unexpected start offset for block " + i, chunkStartOffsets.get(blockEntry.getChunkName()),
+                    (Long) blockEntry.getStartOffset());
+            Assert.assertTrue("Expected entries to be ordered by offset.", blockEntry.getStartOffset() > previousStartOffset);
+            previousStartOffset = blockEntry.getStartOffset();
+        }
+
+        checkNoReadIndexEntries(metadataStore, segmentName, 0, segmentMetadata.getFirstIndexBlock());
+        checkNoReadIndexEntries(metadataStore, segmentName, segmentMetadata.getNextIndexBlock(), segmentMetadata.getNextIndexBlock() + 1);
+    }
+
+    /**
+     * Checks that the persistent read index of the given segment has no entries in the given range of blocks.
+     *
+     * @param metadataStore Metadata store to query.
+     * @param segmentName   Name of the segment.
+     * @param fromBlock     First block to check (inclusive).
+     * @param toBlock       Last block to check (exclusive).
+     * @throws Exception Exceptions are thrown in case of any errors.
+     */
+    public static void checkNoReadIndexEntries(ChunkMetadataStore metadataStore, String segmentName, int fromBlock, int toBlock) throws Exception {
+        for (int i = fromBlock; i < toBlock; i++) {
+            Assert.assertNull("Not expecting an entry for block " + i, get(metadataStore, ChunkedSegmentStorage.getReadIndexBlockName(segmentName, i)));
+        }
+    }
+
     /**
      * Checks if all chunks actually exist in storage for given segment.
      *
@@ -12,6 +12,17 @@ package io.pravega.segmentstore.storage.metadata;
 import io.pravega.segmentstore.storage.mocks.InMemoryMetadataStore;
 import io.pravega.segmentstore.storage.mocks.MockStorageMetadata;
 import io.pravega.test.common.AssertExtensions;
+import io.pravega.test.common.TestUtils;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.Cleanup;
+import lombok.val;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
@@ -777,6 +788,159 @@ public class ChunkMetadataStoreTests {
         }
     }
 
+    /**
+     * Tests that conflicting transactions are still detected when writes are batched.
+     *
+     * @throws Exception Exception if any.
+     */
+    @Test
+    public void testTransactionFailedForMultipleUpdatesWithWriteBatching() throws Exception {
+        metadataStore.setWriteBatchingEnabled(true);
+        testTransactionFailedForMultipleUpdates();
+    }
+
+    /**
+     * Tests concurrent commits on different keys, with and without write batching.
+     *
+     * @throws Exception Exception if any.
+     */
+    @Test
+    public void testConcurrentCommits() throws Exception {
+        testConcurrentCommits("a", false);
+        testConcurrentCommits("b", true);
+    }
+
+    /**
+     * Tests that the commits that arrive while a batch is being written are written together in the next batch.
+     *
+     * @throws Exception Exception if any.
+     */
+    @Test
+    public void testConcurrentCommitsAreBatched() throws Exception {
+        final int count = 10;
+        val writeAllCount = new AtomicInteger();
+        val firstWriteStarted = new CompletableFuture<Void>();
+        val releaseFirstWrite = new CompletableFuture<Void>();
+        @Cleanup
+        BaseMetadataStore store = new InMemoryMetadataStore() {
+            @Override
+            protected void writeAll(Collection<TransactionData> dataList) throws StorageMetadataException {
+                if (writeAllCount.incrementAndGet() == 1) {
+                    firstWriteStarted.complete(null);
+                    releaseFirstWrite.join();
+                }
+                super.writeAll(dataList);
+            }
+        };
+        store.setWriteBatchingEnabled(true);
+
+        val executor = Executors.newFixedThreadPool(count);
+        try {
+            val futures = new ArrayList<CompletableFuture<Void>>();
+            futures.add(createAsync(store, "batched0", executor));
+            firstWriteStarted.join();
+            for (int i = 1; i < count; i++) {
+                futures.add(createAsync(store, "batched" + i, executor));
+            }
+
+            // Let the first write complete only once all the other commits are waiting for it.
+            TestUtils.await(() -> store.getPendingWriteCount() == count - 1, 10, 30000);
+            releaseFirstWrite.complete(null);
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        } finally {
+            releaseFirstWrite.complete(null);
+            executor.shutdown();
+        }
+
+        Assert.assertEquals("Expected the commits that arrived during the first write to be written in a single batch.",
+                2, writeAllCount.get());
+        for (int i = 0; i < count; i++) {
+            String key = "batched" + i;
+            assertEquals((MockStorageMetadata) store.read(key).getValue(), key, VALUE0);
+        }
+    }
+
+    private CompletableFuture<Void> createAsync(BaseMetadataStore store, String key, Executor executor) {
+        return CompletableFuture.runAsync(() -> {
+            try (MetadataTransaction txn = store.beginTransaction()) {
+                txn.create(new MockStorageMetadata(key, VALUE0));
+                txn.commit();
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    /**
+     * Tests that a batched write that fails unexpectedly fails its commit without blocking subsequent commits.
+     *
+     * @throws Exception Exception if any.
+     */
+    @Test
+    public void testBatchedWriteFailure() throws Exception {
+        val failNextWrite = new AtomicBoolean(true);
+        @Cleanup
+        BaseMetadataStore store = new InMemoryMetadataStore() {
+            @Override
+            protected void writeAll(Collection<TransactionData> dataList) throws StorageMetadataException {
+                if (failNextWrite.getAndSet(false)) {
+                    throw new AssertionError("intentional");
+                }
+                super.writeAll(dataList);
+            }
+        };
+        store.setWriteBatchingEnabled(true);
+
+        try (MetadataTransaction txn = store.beginTransaction()) {
+            txn.create(new MockStorageMetadata(KEY0, VALUE0));
+            AssertExtensions.assertThrows(
+                    "Expected the commit to fail.",
+                    txn::commit,
+                    ex -> ex instanceof StorageMetadataException && ex.getCause() instanceof AssertionError);
+        }
+
+        // The next commit must become the batch writer rather than wait for the failed one.
+        try (MetadataTransaction txn = store.beginTransaction()) {
+            txn.create(new MockStorageMetadata(KEY1, VALUE1));
+            txn.commit();
+        }
+
+        assertEquals((MockStorageMetadata) store.read(KEY1).getValue(), KEY1, VALUE1);
+    }
+
+    private void testConcurrentCommits(String keyPrefix, boolean writeBatchingEnabled) throws Exception {
+        final int count = 20;
+        metadataStore.setWriteBatchingEnabled(writeBatchingEnabled);
+        val executor = Executors.newFixedThreadPool(count);
+        try {
+            val futures = new ArrayList<CompletableFuture<Void>>();
+            for (int i = 0; i < count; i++) {
+                final String key = keyPrefix + i;
+                futures.add(CompletableFuture.runAsync(() -> {
+                    try (MetadataTransaction txn = metadataStore.beginTransaction()) {
+                        Assert.assertNull(txn.get(key));
+                        txn.create(new MockStorageMetadata(key, VALUE0));
+                        txn.commit();
+                    } catch (Exception e) {
+                        throw new CompletionException(e);
+                    }
+                }, executor));
+            }
+
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        } finally {
+            executor.shutdown();
+        }
+
+        for (int i = 0; i < count; i++) {
+            String key = keyPrefix + i;
+            try (MetadataTransaction txn = metadataStore.beginTransaction()) {
+                assertEquals((MockStorageMetadata) txn.get(key), key, VALUE0);
+            }
+            assertEquals((MockStorageMetadata) metadataStore.read(key).getValue(), key, VALUE0);
+        }
+    }
+
     private void assertEquals(MockStorageMetadata data, String key, String value) {
         Assert.assertEquals("Should get the same key", key, data.getKey());
         Assert.assertEquals("Should get the same data", value, data.getValue());
@@ -10,6 +10,8 @@
 package io.pravega.segmentstore.storage.metadata;
 
 import io.pravega.segmentstore.storage.mocks.MockStorageMetadata;
+import java.util.Arrays;
+import java.util.Collections;
 import lombok.val;
 import org.junit.Assert;
 import org.junit.Test;
@@ -39,6 +41,9 @@ public class StorageMetadataSerializationTests {
                 .firstChunkStartOffset(8)
                 .lastChunkStartOffset(9)
                 .ownerEpoch(10)
+                .firstIndexBlock(11)
+                .nextIndexBlock(12)
+                .lastIndexBlockChunkCount(13)
                 .build());
 
         // With nullable values
@@ -72,6 +77,37 @@ public class StorageMetadataSerializationTests {
                 .build());
     }
 
+    @Test
+    public void testGarbageQueueMetadataSerialization() throws Exception {
+        testStorageMetadataSerialization(GarbageQueueMetadata.builder()
+                .name("name")
+                .firstPage(1)
+                .nextPage(2)
+                .build());
+    }
+
+    @Test
+    public void testGarbageQueuePageMetadataSerialization() throws Exception {
+        testStorageMetadataSerialization(GarbageQueuePageMetadata.builder()
+                .name("name")
+                .chunkNames(Arrays.asList("chunk1", "chunk2"))
+                .build());
+        // Empty page.
+        testStorageMetadataSerialization(GarbageQueuePageMetadata.builder()
+                .name("name")
+                .chunkNames(Collections.emptyList())
+                .build());
+    }
+
+    @Test
+    public void testReadIndexBlockMetadataSerialization() throws Exception {
+        testStorageMetadataSerialization(ReadIndexBlockMetadata.builder()
+                .name("name")
+                .chunkName("chunk")
+                .startOffset(1)
+                .build());
+    }
+
     private void testStorageMetadataSerialization(StorageMetadata original) throws Exception {
         val serializer = new StorageMetadata.StorageMetadataSerializer();
         val bytes = serializer.serialize(original);
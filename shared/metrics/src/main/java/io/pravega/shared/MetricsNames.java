@@ -111,18 +111,44 @@ public final class MetricsNames {
     public static final String STORAGE_DELETE_COUNT = PREFIX + "segmentstore.storage.delete_count";      // Counter
     public static final String STORAGE_CONCAT_COUNT = PREFIX + "segmentstore.storage.concat_count";      // Counter
     public static final String STORAGE_LARGE_CONCAT_COUNT = PREFIX + "segmentstore.storage.large_concat_count"; // Counter
+    public static final String STORAGE_GC_QUEUE_SIZE = PREFIX + "segmentstore.storage.gc_queue_size";    // Chunks waiting to be deleted. Per-container Gauge
+    public static final String STORAGE_GC_DELETE_COUNT = PREFIX + "segmentstore.storage.gc_delete_count"; // Counter
+    public static final String STORAGE_GC_DELETE_FAILED_COUNT = PREFIX + "segmentstore.storage.gc_delete_failed_count"; // Counter
+    public static final String STORAGE_LOCAL_CACHE_HIT_COUNT = PREFIX + "segmentstore.storage.local_cache_hit_count"; // Counter
+    public static final String STORAGE_LOCAL_CACHE_MISS_COUNT = PREFIX + "segmentstore.storage.local_cache_miss_count"; // Counter
 
     // Cache stats
     public static final String CACHE_WRITE_BYTES = PREFIX + "segmentstore.cache.write_bytes";                                     // Counter
     public static final String CACHE_APPEND_BYTES = PREFIX + "segmentstore.cache.append_bytes";                                   // Counter
     public static final String CACHE_READ_BYTES = PREFIX + "segmentstore.cache.read_bytes";                                       // Counter
     public static final String CACHE_DELETE_BYTES = PREFIX + "segmentstore.cache.delete_bytes";                                   // Counter
+    public static final String CACHE_LOCK_CONTENTION = PREFIX + "segmentstore.cache.lock_contention";                             // Counter
+    public static final String CACHE_READ_RETRIES = PREFIX + "segmentstore.cache.read_retries";                                   // Counter
+    public static final String CACHE_DEFERRED_DELETES = PREFIX + "segmentstore.cache.deferred_deletes";                           // Counter
+    public static final String CACHE_DEMOTE_BYTES = PREFIX + "segmentstore.cache.demote_bytes";                                   // Counter
+    public static final String CACHE_PROMOTE_BYTES = PREFIX + "segmentstore.cache.promote_bytes";                                 // Counter
+    public static final String CACHE_COMPRESS_INPUT_BYTES = PREFIX + "segmentstore.cache.compress_input_bytes";                   // Counter
+    public static final String CACHE_COMPRESS_OUTPUT_BYTES = PREFIX + "segmentstore.cache.compress_output_bytes";                 // Counter
+    public static final String CACHE_COMPRESS_MICROS = PREFIX + "segmentstore.cache.compress_micros";                             // Counter
+    public static final String CACHE_DECOMPRESS_BYTES = PREFIX + "segmentstore.cache.decompress_bytes";                           // Counter
+    public static final String CACHE_DECOMPRESS_MICROS = PREFIX + "segmentstore.cache.decompress_micros";                         // Counter
     public static final String CACHE_STORED_SIZE_BYTES = PREFIX + "segmentstore.cache.stored_size_bytes";                         // Gauge
     public static final String CACHE_USED_SIZE_BYTES = PREFIX + "segmentstore.cache.used_size_bytes";                             // Gauge
     public static final String CACHE_ALLOC_SIZE_BYTES = PREFIX + "segmentstore.cache.allocated_size_bytes";                       // Gauge
+    public static final String CACHE_SIZE_CLASS_STORED_SIZE_BYTES = PREFIX + "segmentstore.cache.size_class.stored_size_bytes";   // Per-size-class Gauge
+    public static final String CACHE_SIZE_CLASS_USED_SIZE_BYTES = PREFIX + "segmentstore.cache.size_class.used_size_bytes";       // Per-size-class Gauge
+    public static final String CACHE_SIZE_CLASS_ALLOC_SIZE_BYTES = PREFIX + "segmentstore.cache.size_class.allocated_size_bytes"; // Per-size-class Gauge
+    public static final String CACHE_HIT_RATIO = PREFIX + "segmentstore.cache.hit_ratio";                                         // Per-client Gauge
     public static final String CACHE_GENERATION_SPREAD = PREFIX + "segmentstore.cache.gen";                                       // Histogram
     public static final String CACHE_MANAGER_ITERATION_DURATION = PREFIX + "segmentstore.cache.manager_iteration_duration_ms";    // Timer
 
+    // ReadIndex stats
+    public static final String READ_INDEX_READ_AHEAD_BYTES = PREFIX + "segmentstore.readindex.read_ahead_bytes";                         // Per-container Counter
+    public static final String READ_INDEX_READ_AHEAD_HIT_BYTES = PREFIX + "segmentstore.readindex.read_ahead_hit_bytes";                 // Per-container Counter
+    public static final String READ_INDEX_READ_AHEAD_WASTED_BYTES = PREFIX + "segmentstore.readindex.read_ahead_wasted_bytes";           // Per-container Counter
+    public static final String READ_INDEX_STORAGE_READ_COALESCED = PREFIX + "segmentstore.readindex.storage_read_coalesced";             // Per-container Counter
+    public static final String READ_INDEX_STORAGE_READ_COALESCED_BYTES = PREFIX + "segmentstore.readindex.storage_read_coalesced_bytes"; // Per-container Counter
+
     // DurableDataLog (Tier1) stats
     public static final String BK_TOTAL_WRITE_LATENCY = PREFIX + "segmentstore.bookkeeper.total_write_latency_ms";   // Including Queue. Per-container Histogram
     public static final String BK_WRITE_LATENCY = PREFIX + "segmentstore.bookkeeper.write_latency_ms";               // Exclusively the write to BK. Per-container Histogram
@@ -130,6 +156,8 @@ public final class MetricsNames {
     public static final String BK_WRITE_QUEUE_SIZE = PREFIX + "segmentstore.bookkeeper.write_queue_size";            // Per-container Histogram
     public static final String BK_WRITE_QUEUE_FILL_RATE = PREFIX + "segmentstore.bookkeeper.write_queue_fill";       // Per-container Histogram
     public static final String BK_LEDGER_COUNT = PREFIX + "segmentstore.bookkeeper.ledger_count";                    // Per-container Gauge
+    public static final String BK_READ_LATENCY = PREFIX + "segmentstore.bookkeeper.read_latency_ms";                 // Per-container Histogram
+    public static final String BK_READ_BYTES = PREFIX + "segmentstore.bookkeeper.read_bytes";                        // Per-container Counter
 
     // StorageWriter stats
     public static final String STORAGE_WRITER_FLUSH_ELAPSED = PREFIX + "segmentstore.storagewriter.flush_elapsed_ms";         // Time to flush all processors. Per-container Histogram.
@@ -138,6 +166,8 @@ public final class MetricsNames {
     public static final String STORAGE_WRITER_FLUSHED_BYTES = PREFIX + "segmentstore.storagewriter.flushed_bytes";            // Bytes written per iteration. Counter.
     public static final String STORAGE_WRITER_MERGED_BYTES = PREFIX + "segmentstore.storagewriter.merged_bytes";              // Bytes merged per iteration. Counter.
     public static final String STORAGE_WRITER_FLUSHED_ATTRIBUTES = PREFIX + "segmentstore.storagewriter.flushed_attributes";  // Attributes flushed per iteration. Counter.
+    public static final String STORAGE_WRITER_FLUSH_QUEUE_SIZE = PREFIX + "segmentstore.storagewriter.flush_queue_size";      // Segment flushes waiting to execute. Per-container, per-priority Gauge.
+    public static final String STORAGE_WRITER_SEGMENT_FLUSH_LATENCY = PREFIX + "segmentstore.storagewriter.segment_flush_latency_ms"; // Time to flush a single Segment. Per-container, per-priority Histogram.
 
     // Segment container metrics
     public static final String CONTAINER_APPEND_COUNT = PREFIX + "segmentstore.container.append_count";                          // Per-container Event Counter
@@ -152,6 +182,9 @@ public final class MetricsNames {
     public static final String CONTAINER_SEAL_COUNT = PREFIX + "segmentstore.container.seal_count";                              // Per-container Event Counter
     public static final String CONTAINER_TRUNCATE_COUNT = PREFIX + "segmentstore.container.truncate_count";                      // Per-container Event Counter
     public static final String CONTAINER_RECOVERY_TIME = PREFIX + "segmentstore.container.recovery_time";                        // Per-container Gauge
+    public static final String CONTAINER_RECOVERY_READ_TIME = PREFIX + "segmentstore.container.recovery_read_time";              // Per-container Gauge
+    public static final String CONTAINER_RECOVERY_DESERIALIZE_TIME = PREFIX + "segmentstore.container.recovery_deserialize_time"; // Per-container Gauge
+    public static final String CONTAINER_RECOVERY_APPLY_TIME = PREFIX + "segmentstore.container.recovery_apply_time";            // Per-container Gauge
 
     // Operation processor metrics
     public static final String PROCESS_OPERATIONS_LATENCY = PREFIX + "segmentstore.container.process_operations.latency_ms";                 // Per-container Histogram
@@ -165,6 +198,12 @@ public final class MetricsNames {
     public static final String OPERATION_COMMIT_MEMORY_COUNT = PREFIX + "segmentstore.container.operation_commit.memory_count";              // Per-container Histogram
     public static final String OPERATION_COMMIT_MEMORY_LATENCY = PREFIX + "segmentstore.container.operation_commit.memory_latency_ms";       // Per-container Histogram
     public static final String OPERATION_LOG_SIZE = PREFIX + "segmentstore.container.operation.log_size";                                    // Per-container Counter
+    public static final String OPERATION_LOG_FRAME_COMPRESSION_RATIO = PREFIX + "segmentstore.container.operation_log.frame_compression_ratio"; // Per-container Histogram
+    public static final String OPERATION_LOG_FRAME_COMPRESS_LATENCY = PREFIX + "segmentstore.container.operation_log.frame_compress_latency_ms"; // Per-container Histogram
+    public static final String OPERATION_LOG_FRAME_WRITE_LATENCY = PREFIX + "segmentstore.container.operation_log.frame_write_latency_ms";   // Per-container Histogram
+    public static final String OPERATION_LOG_FRAME_SIZE_TARGET = PREFIX + "segmentstore.container.operation_log.frame_size_target_bytes";     // Per-container Gauge
+    public static final String OPERATION_LOG_FRAMES_IN_FLIGHT_MAX = PREFIX + "segmentstore.container.operation_log.frames_in_flight_max";     // Per-container Gauge
+    public static final String OPERATION_LOG_FRAME_WRITE_LATENCY_P99 = PREFIX + "segmentstore.container.operation_log.frame_write_latency_p99_ms"; // Per-container Gauge
 
     // Segment container metadata
     public static final String ACTIVE_SEGMENT_COUNT = PREFIX + "segmentstore.container.active_segments";   // Per-container Gauge
@@ -30,6 +30,9 @@ public final class MetricsTags {
     public static final String TAG_CLASS = "class";
     public static final String TAG_EXCEPTION = "exception";
     public static final String TAG_THROTTLER = "throttler";
+    public static final String TAG_BLOCK_SIZE = "blockSize";
+    public static final String TAG_CACHE_CLIENT = "cacheClient";
+    public static final String TAG_FLUSH_PRIORITY = "flushPriority";
 
     private static final String TRANSACTION_DELIMITER = "#transaction.";
     private static final String EPOCH_DELIMITER = ".#epoch.";
@@ -65,6 +68,34 @@ public final class MetricsTags {
         return new String[] {TAG_CONTAINER, String.valueOf(containerId), TAG_THROTTLER, throttler};
     }
 
+    /**
+     * Generate a flush priority tag (string array) on the input priority to be associated with a metric.
+     * @param containerId container id.
+     * @param priority flush priority name.
+     * @return string array as the flush priority tag of metric.
+     */
+    public static String[] flushPriorityTag(int containerId, String priority) {
+        return new String[] {TAG_CONTAINER, String.valueOf(containerId), TAG_FLUSH_PRIORITY, priority};
+    }
+
+    /**
+     * Generate a cache size class tag (string array) on the input block size to be associated with a metric.
+     * @param blockSize block size of the size class.
+     * @return string array as the cache size class tag of metric.
+     */
+    public static String[] cacheSizeClassTag(int blockSize) {
+        return new String[] {TAG_BLOCK_SIZE, String.valueOf(blockSize)};
+    }
+
+    /**
+     * Generate a cache client tag (string array) on the input client type to be associated with a metric.
+     * @param clientType type of the cache client.
+     * @return string array as the cache client tag of metric.
+     */
+    public static String[] cacheClientTag(String clientType) {
+        return new String[] {TAG_CACHE_CLIENT, clientType};
+    }
+
     /**
      * Generate a host tag (string array) on the input hostname to be associated with a metric.
      * @param hostname hostname of the metric.
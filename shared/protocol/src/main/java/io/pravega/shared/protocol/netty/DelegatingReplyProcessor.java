@@ -59,6 +59,11 @@ public abstract class DelegatingReplyProcessor implements ReplyProcessor {
         getNextReplyProcessor().conditionalCheckFailed(dataNotAppended);
     }
 
+    @Override
+    public void appendBackoff(WireCommands.AppendBackoff appendBackoff) {
+        getNextReplyProcessor().appendBackoff(appendBackoff);
+    }
+
     @Override
     public void segmentRead(WireCommands.SegmentRead data) {
         getNextReplyProcessor().segmentRead(data);
@@ -100,6 +100,11 @@ public abstract class FailingReplyProcessor implements ReplyProcessor {
         throw new IllegalStateException("Conditional check failed for event: " + dataNotAppended.eventNumber);
     }
 
+    @Override
+    public void appendBackoff(WireCommands.AppendBackoff appendBackoff) {
+        throw new IllegalStateException("Unexpected operation: " + appendBackoff);
+    }
+
     @Override
     public void segmentRead(SegmentRead data) {
         throw new IllegalStateException("Unexpected operation: " + data);
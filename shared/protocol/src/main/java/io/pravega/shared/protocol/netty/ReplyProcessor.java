@@ -42,6 +42,8 @@ public interface ReplyProcessor {
     
     void conditionalCheckFailed(WireCommands.ConditionalCheckFailed dataNotAppended);
 
+    void appendBackoff(WireCommands.AppendBackoff appendBackoff);
+
     void segmentRead(WireCommands.SegmentRead segmentRead);
     
     void segmentAttributeUpdated(WireCommands.SegmentAttributeUpdated segmentAttributeUpdated);
@@ -13,6 +13,7 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
 import io.netty.buffer.Unpooled;
 import io.netty.handler.codec.CorruptedFrameException;
 import io.pravega.shared.segment.ScaleType;
@@ -29,6 +30,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
 import javax.annotation.concurrent.NotThreadSafe;
 import lombok.AccessLevel;
 import lombok.Data;
@@ -55,7 +57,7 @@ import static io.netty.buffer.Unpooled.wrappedBuffer;
  * Incompatible changes should instead create a new WireCommand object.
  */
 public final class WireCommands {
-    public static final int WIRE_VERSION = 10;
+    public static final int WIRE_VERSION = 11;
     public static final int OLDEST_COMPATIBLE_VERSION = 5;
     public static final int TYPE_SIZE = 4;
     public static final int TYPE_PLUS_LENGTH_SIZE = 8;
@@ -777,6 +779,42 @@ public final class WireCommands {
         }
     }
 
+    /**
+     * Sent by the server to a writer whose appends contribute to the throttling of the segment's container. The writer
+     * should not send any more appends to the segment for the given amount of time. This is only sent to clients that
+     * support wire version 11 or above.
+     */
+    @Data
+    public static final class AppendBackoff implements Reply, WireCommand {
+        final WireCommandType type = WireCommandType.APPEND_BACKOFF;
+        final long requestId;
+        final UUID writerId;
+        final String segment;
+        final long backoffMillis;
+
+        @Override
+        public void process(ReplyProcessor cp) {
+            cp.appendBackoff(this);
+        }
+
+        @Override
+        public void writeFields(DataOutput out) throws IOException {
+            out.writeLong(requestId);
+            out.writeLong(writerId.getMostSignificantBits());
+            out.writeLong(writerId.getLeastSignificantBits());
+            out.writeUTF(segment);
+            out.writeLong(backoffMillis);
+        }
+
+        public static WireCommand readFrom(DataInput in, int length) throws IOException {
+            long requestId = in.readLong();
+            UUID writerId = new UUID(in.readLong(), in.readLong());
+            String segment = in.readUTF();
+            long backoffMillis = in.readLong();
+            return new AppendBackoff(requestId, writerId, segment, backoffMillis);
+        }
+    }
+
     @Data
     public static final class ReadSegment implements Request, WireCommand {
         final WireCommandType type = WireCommandType.READ_SEGMENT;
@@ -843,7 +881,13 @@ public final class WireCommands {
             out.writeBoolean(endOfSegment);
             int dataLength = data.readableBytes();
             out.writeInt(dataLength);
-            this.data.getBytes(this.data.readerIndex(), (OutputStream) out, dataLength);
+            if (out instanceof ByteBufOutputStream) {
+                // Copy straight into the target buffer. Writing to an OutputStream would otherwise copy direct buffers
+                // into a temporary heap buffer first.
+                ((ByteBufOutputStream) out).buffer().writeBytes(this.data, this.data.readerIndex(), dataLength);
+            } else {
+                this.data.getBytes(this.data.readerIndex(), (OutputStream) out, dataLength);
+            }
             out.writeLong(requestId);
         }
 
@@ -2428,27 +2472,35 @@ public final class WireCommands {
      */
     @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
     public static abstract class ReleasableCommand implements WireCommand {
-        @Getter
-        private boolean released = true;
+        private final AtomicBoolean released = new AtomicBoolean(true);
+
+        /**
+         * Gets a value indicating whether this command does not need (or no longer needs) {@link #release()} to be invoked.
+         *
+         * @return True if released, false otherwise.
+         */
+        public boolean isReleased() {
+            return this.released.get();
+        }
 
         /**
          * Marks the fact that this instance requires {@link #release()} to be invoked in order to free up resources.
+         * Commands that are sent while requiring release are released after they have been written.
          *
          * @return This instance.
          */
-        WireCommand requireRelease() {
-            this.released = false;
+        public WireCommand requireRelease() {
+            this.released.set(false);
             return this;
         }
 
         /**
          * Releases any resources used by this command, if needed {@code #isReleased()} is false. This method has no
-         * effect if invoked multiple times or if no resource release is required.
+         * effect if invoked multiple times (including concurrently) or if no resource release is required.
          */
         public void release() {
-            if (!this.released) {
+            if (this.released.compareAndSet(false, true)) {
                 releaseInternal();
-                this.released = true;
             }
         }
 
@@ -9,6 +9,7 @@
  */
 package io.pravega.shared.protocol.netty;
 
+import io.pravega.shared.protocol.netty.WireCommands.AppendBackoff;
 import io.pravega.shared.protocol.netty.WireCommands.AppendSetup;
 import io.pravega.shared.protocol.netty.WireCommands.AuthTokenCheckFailed;
 import io.pravega.shared.protocol.netty.WireCommands.ConditionalCheckFailed;
@@ -60,6 +61,7 @@ public class FailingReplyProcessorTest {
     @Test
     public void testEverythingThrows() {
         assertThrows(IllegalStateException.class, () -> rp.appendSetup(new AppendSetup(0, "", null, 1)));
+        assertThrows(IllegalStateException.class, () -> rp.appendBackoff(new AppendBackoff(0, null, "", 1)));
         assertThrows(IllegalStateException.class, () -> rp.authTokenCheckFailed(new AuthTokenCheckFailed(0, "")));
         assertThrows(IllegalStateException.class, () -> rp.conditionalCheckFailed(new ConditionalCheckFailed(null, 1, 2)));
         assertThrows(IllegalStateException.class, () -> rp.dataAppended(new DataAppended(1, null, 0, -1, 2)));
@@ -280,6 +280,11 @@ public class WireCommandsTest extends LeakDetectorTestSuite {
         testCommand(new WireCommands.DataAppended(1, uuid, l, Long.MIN_VALUE, -l));
     }
 
+    @Test
+    public void testAppendBackoff() throws IOException {
+        testCommand(new WireCommands.AppendBackoff(l, uuid, testString1, 1234L));
+    }
+
     /*
      * Test compatibility in WireCommands error messages between versions 5 and 6 (added serverStackTrace field).
      */
@@ -560,6 +565,30 @@ public class WireCommandsTest extends LeakDetectorTestSuite {
 
     }
 
+    @Test(timeout = 10000)
+    public void testConcurrentRelease() throws Exception {
+        ByteBuf data = Unpooled.wrappedBuffer(buffer).retain(); // refCnt == 2.
+        WireCommands.SegmentRead command = new WireCommands.SegmentRead(testString1, l, true, false, data, l);
+        command.requireRelease();
+        assertFalse(command.isReleased());
+
+        // Release from several threads at once; the data must only be released once.
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(command::release);
+        }
+        for (Thread t : threads) {
+            t.start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+
+        assertTrue(command.isReleased());
+        assertEquals(1, data.refCnt());
+        data.release();
+    }
+
     @Test
     public void testUpdateSegmentAttribute() throws IOException {
         testCommand(new WireCommands.UpdateSegmentAttribute(l, testString1, uuid, l, l, ""));
@@ -23,6 +23,7 @@ import io.pravega.segmentstore.server.store.ServiceBuilderConfig;
 import io.pravega.segmentstore.server.store.ServiceConfig;
 import io.pravega.segmentstore.server.writer.WriterConfig;
 import io.pravega.segmentstore.storage.impl.bookkeeper.BookKeeperConfig;
+import io.pravega.segmentstore.storage.impl.filesystem.FileSystemLogConfig;
 import io.pravega.shared.metrics.MetricsConfig;
 import java.io.File;
 import java.io.IOException;
@@ -112,6 +113,8 @@ public class SelfTestRunner {
                                   .with(BookKeeperConfig.BK_ACK_QUORUM_SIZE, bkWriteQuorum)
                                   .with(BookKeeperConfig.BK_WRITE_QUORUM_SIZE, bkWriteQuorum)
                                   .with(BookKeeperConfig.BK_ENSEMBLE_SIZE, bkWriteQuorum));
+        b.include(FileSystemLogConfig.builder()
+                                     .with(FileSystemLogConfig.ROOT, testConfig.getStorageDir() + "/datalog"));
         if (testConfig.isMetricsEnabled()) {
             b.include(MetricsConfig.builder()
                                    .with(MetricsConfig.ENABLE_STATISTICS, true)
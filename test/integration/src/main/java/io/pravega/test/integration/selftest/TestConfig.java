@@ -354,7 +354,8 @@ public class TestConfig {
         AppendProcessor(false),
         OutOfProcess(false),
         External(false),
-        BookKeeper(false);
+        BookKeeper(false),
+        FileSystemLog(false);
         @Getter
         private final boolean tablesTest;
     }
@@ -0,0 +1,207 @@
+/**
+ * Copyright (c) Dell Inc., or its subsidiaries. All Rights Reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ */
+
+package io.pravega.test.integration.selftest.adapters;
+
+import com.google.common.base.Preconditions;
+import io.pravega.common.concurrent.ExecutorServiceHelpers;
+import io.pravega.common.concurrent.Futures;
+import io.pravega.common.io.FileHelpers;
+import io.pravega.common.util.AsyncIterator;
+import io.pravega.common.util.BufferView;
+import io.pravega.common.util.CompositeByteArraySegment;
+import io.pravega.segmentstore.contracts.StreamSegmentExistsException;
+import io.pravega.segmentstore.contracts.StreamSegmentNotExistsException;
+import io.pravega.segmentstore.storage.DurableDataLog;
+import io.pravega.segmentstore.storage.impl.filesystem.FileSystemLogConfig;
+import io.pravega.segmentstore.storage.impl.filesystem.FileSystemLogFactory;
+import io.pravega.test.integration.selftest.Event;
+import io.pravega.test.integration.selftest.TestConfig;
+import java.io.File;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Store adapter that executes requests directly to FileSystemLogs. Each Stream is mapped to its own FileSystemLog. This
+ * can be used to compare the throughput and latency of the local file system-backed DurableDataLog against
+ * {@link BookKeeperAdapter}.
+ */
+class FileSystemLogAdapter extends StoreAdapter {
+    //region Members
+
+    private final FileSystemLogConfig logConfig;
+    private final ScheduledExecutorService executor;
+    private final ConcurrentHashMap<String, DurableDataLog> logs;
+    private final AtomicInteger nextLogId;
+    private FileSystemLogFactory logFactory;
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the FileSystemLogAdapter class.
+     *
+     * @param testConfig The Test Configuration to use.
+     * @param logConfig  The FileSystemLog Configuration to use.
+     * @param executor   An Executor to use for test-related async operations.
+     */
+    FileSystemLogAdapter(TestConfig testConfig, FileSystemLogConfig logConfig, ScheduledExecutorService executor) {
+        Preconditions.checkNotNull(testConfig, "testConfig");
+        this.logConfig = Preconditions.checkNotNull(logConfig, "logConfig");
+        this.executor = Preconditions.checkNotNull(executor, "executor");
+        this.logs = new ConcurrentHashMap<>();
+        this.nextLogId = new AtomicInteger();
+    }
+
+    //endregion
+
+    //region StoreAdapter Implementation.
+
+    @Override
+    public boolean isFeatureSupported(Feature feature) {
+        return feature == Feature.CreateStream
+                || feature == Feature.Append;
+    }
+
+    @Override
+    protected void startUp() throws Exception {
+        // Always start from a clean slate.
+        deleteRoot();
+        this.logFactory = new FileSystemLogFactory(this.logConfig, this.executor);
+        this.logFactory.initialize();
+        log("FileSystemLog started (Root = '%s').", this.logConfig.getRoot());
+    }
+
+    @Override
+    protected void shutDown() {
+        this.logs.values().forEach(DurableDataLog::close);
+        this.logs.clear();
+
+        FileSystemLogFactory lf = this.logFactory;
+        if (lf != null) {
+            lf.close();
+            this.logFactory = null;
+        }
+
+        deleteRoot();
+    }
+
+    @Override
+    public CompletableFuture<Void> createStream(String logName, Duration timeout) {
+        ensureRunning();
+        return CompletableFuture.runAsync(() -> {
+            DurableDataLog dataLog = this.logFactory.createDurableDataLog(this.nextLogId.getAndIncrement());
+            if (this.logs.putIfAbsent(logName, dataLog) != null) {
+                dataLog.close();
+                throw new CompletionException(new StreamSegmentExistsException(logName));
+            }
+
+            try {
+                dataLog.initialize(timeout);
+            } catch (Exception ex) {
+                this.logs.remove(logName);
+                dataLog.close();
+                throw new CompletionException(ex);
+            }
+        }, this.executor);
+    }
+
+    @Override
+    public CompletableFuture<Void> append(String logName, Event event, Duration timeout) {
+        ensureRunning();
+        DurableDataLog dataLog = this.logs.getOrDefault(logName, null);
+        if (dataLog == null) {
+            return Futures.failedFuture(new StreamSegmentNotExistsException(logName));
+        }
+
+        return Futures.toVoid(dataLog.append(new CompositeByteArraySegment(event.getSerialization().getCopy()), timeout));
+    }
+
+    @Override
+    public StoreReader createReader() {
+        throw new UnsupportedOperationException("createReader() is not supported on " + this.logId);
+    }
+
+    @Override
+    public CompletableFuture<String> createTransaction(String parentStream, Duration timeout) {
+        throw new UnsupportedOperationException("createTransaction() is not supported on " + this.logId);
+    }
+
+    @Override
+    public CompletableFuture<Void> mergeTransaction(String transactionName, Duration timeout) {
+        throw new UnsupportedOperationException("mergeTransaction() is not supported on " + this.logId);
+    }
+
+    @Override
+    public CompletableFuture<Void> abortTransaction(String transactionName, Duration timeout) {
+        throw new UnsupportedOperationException("abortTransaction() is not supported on " + this.logId);
+    }
+
+    @Override
+    public CompletableFuture<Void> sealStream(String streamName, Duration timeout) {
+        throw new UnsupportedOperationException("seal() is not supported on " + this.logId);
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteStream(String streamName, Duration timeout) {
+        throw new UnsupportedOperationException("delete() is not supported on " + this.logId);
+    }
+
+    @Override
+    public CompletableFuture<Void> createTable(String tableName, Duration timeout) {
+        throw new UnsupportedOperationException("createTable() is not supported on " + this.logId);
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteTable(String tableName, Duration timeout) {
+        throw new UnsupportedOperationException("deleteTable() is not supported on " + this.logId);
+    }
+
+    @Override
+    public CompletableFuture<Long> updateTableEntry(String tableName, BufferView key, BufferView value, Long compareVersion, Duration timeout) {
+        throw new UnsupportedOperationException("updateTableEntry() is not supported on " + this.logId);
+    }
+
+    @Override
+    public CompletableFuture<Void> removeTableEntry(String tableName, BufferView key, Long compareVersion, Duration timeout) {
+        throw new UnsupportedOperationException("removeTableEntry() is not supported on " + this.logId);
+    }
+
+    @Override
+    public CompletableFuture<List<BufferView>> getTableEntries(String tableName, List<BufferView> keys, Duration timeout) {
+        throw new UnsupportedOperationException("getTableEntry() is not supported on " + this.logId);
+    }
+
+    @Override
+    public CompletableFuture<AsyncIterator<List<Map.Entry<BufferView, BufferView>>>> iterateTableEntries(String tableName, Duration timeout) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public ExecutorServiceHelpers.Snapshot getStorePoolSnapshot() {
+        return null;
+    }
+
+    //endregion
+
+    private void deleteRoot() {
+        File root = new File(this.logConfig.getRoot());
+        if (FileHelpers.deleteFileOrDirectory(root)) {
+            log("Deleted '%s'.", root.getAbsolutePath());
+        }
+    }
+}
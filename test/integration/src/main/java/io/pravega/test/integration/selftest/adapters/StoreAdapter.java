@@ -16,6 +16,7 @@ import io.pravega.common.util.AsyncIterator;
 import io.pravega.common.util.BufferView;
 import io.pravega.segmentstore.server.store.ServiceBuilderConfig;
 import io.pravega.segmentstore.storage.impl.bookkeeper.BookKeeperConfig;
+import io.pravega.segmentstore.storage.impl.filesystem.FileSystemLogConfig;
 import io.pravega.test.integration.selftest.Event;
 import io.pravega.test.integration.selftest.TestConfig;
 import io.pravega.test.integration.selftest.TestLogger;
@@ -251,6 +252,9 @@ public abstract class StoreAdapter extends AbstractIdleService implements AutoCl
             case BookKeeper:
                 result = new BookKeeperAdapter(testConfig, builderConfig.getConfig(BookKeeperConfig::builder), executor);
                 break;
+            case FileSystemLog:
+                result = new FileSystemLogAdapter(testConfig, builderConfig.getConfig(FileSystemLogConfig::builder), executor);
+                break;
             default:
                 throw new UnsupportedOperationException("Cannot create a StoreAdapter for TestType " + testConfig.getTestType());
         }